@@ -17,6 +17,7 @@
 
 package org.apache.hop.core;
 
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -76,6 +77,27 @@ public class BlockingRowSet extends BaseRowSet implements Comparable<IRowSet>, I
     }
   }
 
+  /**
+   * Put a batch of rows in the queue. Only the first row waits for room in the queue, the others
+   * are added as long as there is room left. {@link ArrayBlockingQueue} has no bulk insert, so
+   * every row still takes the queue lock: use a {@link RingBufferRowSet} to hand over a batch in
+   * one operation.
+   */
+  @Override
+  public int putRows(IRowMeta rowMeta, List<Object[]> rows, int fromIndex) {
+    if (fromIndex >= rows.size() || !putRow(rowMeta, rows.get(fromIndex))) {
+      return 0;
+    }
+    int count = 1;
+    for (int i = fromIndex + 1; i < rows.size(); i++) {
+      if (!queArray.offer(rows.get(i))) {
+        break;
+      }
+      count++;
+    }
+    return count;
+  }
+
   // default getRow with wait time = 100ms
   //
   /*
@@ -99,6 +121,12 @@ public class BlockingRowSet extends BaseRowSet implements Comparable<IRowSet>, I
     return queArray.poll();
   }
 
+  /** Drains the available rows from the queue while holding its lock only once. */
+  @Override
+  public int getRows(List<Object[]> rows, int maxRows) {
+    return queArray.drainTo(rows, maxRows);
+  }
+
   /*
    * (non-Javadoc)
    *
@@ -0,0 +1,493 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopRuntimeException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.util.Utils;
+
+/**
+ * A {@link Condition} compiled against a known row layout.
+ *
+ * <p>{@link Condition#evaluate(IRowMeta, Object[])} looks up the fields by name and, for REGEXP and
+ * LIKE, compiles the regular expression for every row it sees. A compiled condition does all of
+ * that once: field indexes are resolved, constant values are created and converted to the data type
+ * of the field they are compared with, and constant patterns are compiled. Composite conditions are
+ * evaluated left to right with the same short-circuit rules and results as {@link
+ * Condition#evaluate(IRowMeta, Object[])}.
+ *
+ * <p>A compiled condition is immutable: a single instance can be used by several threads at once as
+ * long as all rows are laid out like the row metadata it was compiled for. Changes made to the
+ * condition afterward are not picked up, compile it again instead.
+ */
+public final class CompiledCondition {
+
+  /** The row metadata this condition was compiled for */
+  @Getter private final IRowMeta rowMeta;
+
+  private final Condition condition;
+  private final Node root;
+
+  private CompiledCondition(Condition condition, IRowMeta rowMeta) {
+    this.condition = condition;
+    this.rowMeta = rowMeta;
+    this.root = compileNode(condition, rowMeta);
+  }
+
+  /**
+   * Compile a condition for rows with the given layout.
+   *
+   * @param condition the condition to compile
+   * @param rowMeta the metadata of the rows to evaluate
+   * @return the compiled condition
+   */
+  public static CompiledCondition compile(Condition condition, IRowMeta rowMeta) {
+    return new CompiledCondition(condition, rowMeta);
+  }
+
+  /**
+   * See if this condition was compiled for the given row metadata. Transforms usually receive the
+   * same row metadata object for every row, so this is a simple reference check.
+   *
+   * @param rowMeta the row metadata to verify
+   * @return true if rows with this metadata can be evaluated by this condition
+   */
+  public boolean isCompiledFor(IRowMeta rowMeta) {
+    return this.rowMeta == rowMeta;
+  }
+
+  /**
+   * Evaluate the condition.
+   *
+   * @param r the row data, laid out as described by the row metadata this condition was compiled
+   *     for
+   * @return true if the condition evaluates to true.
+   */
+  public boolean evaluate(Object[] r) {
+    try {
+      return root.evaluate(r);
+    } catch (Exception e) {
+      throw new HopRuntimeException("Unexpected error evaluation condition [" + condition + "]", e);
+    }
+  }
+
+  private static Node compileNode(Condition condition, IRowMeta rowMeta) {
+    if (condition.isComposite()) {
+      return compileComposite(condition, rowMeta);
+    }
+    return compileAtomic(condition, rowMeta);
+  }
+
+  private static Node compileComposite(Condition condition, IRowMeta rowMeta) {
+    List<Condition> children = condition.getChildren();
+    Node first = compileNode(children.get(0), rowMeta);
+
+    // Operators other than these are ignored, so are the conditions they apply to.
+    //
+    List<Condition.Operator> operators = new ArrayList<>();
+    List<Node> nodes = new ArrayList<>();
+    for (int i = 1; i < children.size(); i++) {
+      Condition child = children.get(i);
+      switch (child.getOperator()) {
+        case OR, AND, OR_NOT, AND_NOT, XOR:
+          operators.add(child.getOperator());
+          nodes.add(compileNode(child, rowMeta));
+          break;
+        default:
+          break;
+      }
+    }
+    return new CompositeNode(
+        first,
+        operators.toArray(new Condition.Operator[0]),
+        nodes.toArray(new Node[0]),
+        condition.isNegated());
+  }
+
+  private static Node compileAtomic(Condition condition, IRowMeta rowMeta) {
+    if (condition.getFunction() == Condition.Function.TRUE) {
+      boolean result = !condition.isNegated();
+      return row -> result;
+    }
+
+    int leftIndex = -1;
+    if (StringUtils.isNotEmpty(condition.getLeftValueName())) {
+      leftIndex = rowMeta.indexOfValue(condition.getLeftValueName());
+    }
+    if (leftIndex < 0) {
+      return row -> false; // no fields to evaluate
+    }
+    IValueMeta leftMeta = rowMeta.getValueMeta(leftIndex);
+
+    // The right value is another field, a constant or nothing at all.
+    // A field name always wins over a constant, even if the field can't be found.
+    //
+    int rightIndex = -1;
+    IValueMeta rightMeta = null;
+    Object rightData = null;
+    if (StringUtils.isNotEmpty(condition.getRightValueName())) {
+      rightIndex = rowMeta.indexOfValue(condition.getRightValueName());
+      if (rightIndex >= 0) {
+        rightMeta = rowMeta.getValueMeta(rightIndex);
+      }
+    } else if (condition.getRightValue() != null) {
+      try {
+        rightMeta = condition.getRightValue().createValueMeta();
+        rightData = condition.getRightValue().createValueData();
+      } catch (HopException e) {
+        // Report the problem if and when the condition is evaluated, like Condition does
+        //
+        return row -> {
+          throw e;
+        };
+      }
+    }
+
+    Operand operand = new Operand(leftIndex, leftMeta, rightIndex, rightMeta, rightData);
+    boolean negated = condition.isNegated();
+
+    return switch (condition.getFunction()) {
+      case EQUAL, NOT_EQUAL, SMALLER, SMALLER_EQUAL, LARGER, LARGER_EQUAL ->
+          new CompareNode(operand, negated, condition.getFunction());
+      case NULL -> new NullNode(operand, negated, true);
+      case NOT_NULL -> new NullNode(operand, negated, false);
+      case REGEXP -> new RegexNode(operand, negated, false);
+      case LIKE -> new RegexNode(operand, negated, true);
+      case IN_LIST -> new InListNode(operand, negated);
+      case CONTAINS, STARTS_WITH, ENDS_WITH ->
+          new StringNode(operand, negated, condition.getFunction());
+      default -> new AtomicNode(operand, negated);
+    };
+  }
+
+  private interface Node {
+    boolean evaluate(Object[] row) throws HopException;
+  }
+
+  /** The resolved fields and constant of an atomic condition. */
+  private static final class Operand {
+    private final int leftIndex;
+    private final IValueMeta leftMeta;
+    private final int rightIndex;
+    private final IValueMeta rightMeta;
+    private final Object rightData;
+
+    private Operand(
+        int leftIndex,
+        IValueMeta leftMeta,
+        int rightIndex,
+        IValueMeta rightMeta,
+        Object rightData) {
+      this.leftIndex = leftIndex;
+      this.leftMeta = leftMeta;
+      this.rightIndex = rightIndex;
+      this.rightMeta = rightMeta;
+      this.rightData = rightData;
+    }
+
+    private boolean isRightConstant() {
+      return rightIndex < 0 && rightMeta != null;
+    }
+
+    private Object left(Object[] row) {
+      return row[leftIndex];
+    }
+
+    private Object right(Object[] row) {
+      return rightIndex >= 0 ? row[rightIndex] : rightData;
+    }
+
+    /** The right value as a string, calculated once for a constant. */
+    private String rightString(Object[] row) throws HopValueException {
+      return rightMeta.getCompatibleString(right(row));
+    }
+  }
+
+  /** Evaluates to false, for functions this condition doesn't know about. */
+  private static class AtomicNode implements Node {
+    protected final Operand operand;
+    protected final boolean negated;
+
+    AtomicNode(Operand operand, boolean negated) {
+      this.operand = operand;
+      this.negated = negated;
+    }
+
+    @Override
+    public final boolean evaluate(Object[] row) throws HopException {
+      return test(row) != negated;
+    }
+
+    protected boolean test(Object[] row) throws HopException {
+      return false;
+    }
+  }
+
+  private static final class CompositeNode implements Node {
+    private final Node first;
+    private final Condition.Operator[] operators;
+    private final Node[] nodes;
+    private final boolean negated;
+
+    CompositeNode(Node first, Condition.Operator[] operators, Node[] nodes, boolean negated) {
+      this.first = first;
+      this.operators = operators;
+      this.nodes = nodes;
+      this.negated = negated;
+    }
+
+    @Override
+    public boolean evaluate(Object[] row) throws HopException {
+      boolean evaluation = first.evaluate(row);
+      for (int i = 0; i < nodes.length; i++) {
+        switch (operators[i]) {
+          case OR:
+            evaluation = evaluation || nodes[i].evaluate(row);
+            break;
+          case AND:
+            evaluation = evaluation && nodes[i].evaluate(row);
+            break;
+          case OR_NOT:
+            evaluation = evaluation || !nodes[i].evaluate(row);
+            break;
+          case AND_NOT:
+            evaluation = evaluation && !nodes[i].evaluate(row);
+            break;
+          default: // XOR
+            evaluation = evaluation ^ nodes[i].evaluate(row);
+            break;
+        }
+      }
+      return evaluation != negated;
+    }
+  }
+
+  private static final class CompareNode extends AtomicNode {
+    private final Condition.Function function;
+
+    /** True if both values have the same type and storage type: no conversion is needed. */
+    private final boolean direct;
+
+    /** The constant, converted to the data type of the left value (when direct) */
+    private final Object constant;
+
+    CompareNode(Operand operand, boolean negated, Condition.Function function) {
+      super(operand, negated);
+      this.function = function;
+
+      IValueMeta leftMeta = operand.leftMeta;
+      IValueMeta rightMeta = operand.rightMeta;
+      boolean sameType =
+          rightMeta != null
+              && leftMeta.getType() == rightMeta.getType()
+              && leftMeta.getStorageType() == rightMeta.getStorageType();
+
+      Object converted = operand.rightData;
+      boolean canCompareDirectly = sameType;
+      if (!sameType
+          && operand.isRightConstant()
+          && leftMeta.isStorageNormal()
+          && rightMeta.isStorageNormal()
+          && !(leftMeta.isInteger() && rightMeta.isNumber())) {
+        // The left value drives the comparison: convert the constant only once.
+        //
+        try {
+          converted = leftMeta.convertData(rightMeta, operand.rightData);
+          canCompareDirectly = true;
+        } catch (HopValueException e) {
+          // Fail on the first row, with the usual error message
+        }
+      }
+      this.direct = canCompareDirectly;
+      this.constant = converted;
+    }
+
+    private int compare(Object[] row) throws HopValueException {
+      Object left = operand.left(row);
+      if (direct) {
+        return operand.leftMeta.compare(
+            left, operand.rightIndex >= 0 ? row[operand.rightIndex] : constant);
+      }
+      return operand.leftMeta.compare(left, operand.rightMeta, operand.right(row));
+    }
+
+    @Override
+    protected boolean test(Object[] row) throws HopException {
+      return switch (function) {
+        case EQUAL -> compare(row) == 0;
+        case NOT_EQUAL -> compare(row) != 0;
+        case SMALLER -> !operand.leftMeta.isNull(operand.left(row)) && compare(row) < 0;
+        case SMALLER_EQUAL -> !operand.leftMeta.isNull(operand.left(row)) && compare(row) <= 0;
+        case LARGER -> compare(row) > 0;
+        default -> compare(row) >= 0; // LARGER_EQUAL
+      };
+    }
+  }
+
+  private static final class NullNode extends AtomicNode {
+    private final boolean isNull;
+
+    NullNode(Operand operand, boolean negated, boolean isNull) {
+      super(operand, negated);
+      this.isNull = isNull;
+    }
+
+    @Override
+    protected boolean test(Object[] row) throws HopException {
+      return operand.leftMeta.isNull(operand.left(row)) == isNull;
+    }
+  }
+
+  private static final class RegexNode extends AtomicNode {
+    private final boolean like;
+
+    /** The compiled constant pattern or null if the pattern comes from a field */
+    private final Pattern pattern;
+
+    RegexNode(Operand operand, boolean negated, boolean like) {
+      super(operand, negated);
+      this.like = like;
+
+      Pattern compiled = null;
+      if (operand.isRightConstant() && operand.rightData != null) {
+        try {
+          compiled = Pattern.compile(toRegex(operand.rightString(null)));
+        } catch (Exception e) {
+          // Invalid pattern: fail on the first row, with the usual error message
+        }
+      }
+      this.pattern = compiled;
+    }
+
+    private String toRegex(String value) {
+      if (like) {
+        return value.replace("%", ".*").replace("?", ".");
+      }
+      return value;
+    }
+
+    @Override
+    protected boolean test(Object[] row) throws HopException {
+      Object left = operand.left(row);
+      Object right = operand.right(row);
+      if (operand.leftMeta.isNull(left) || right == null) {
+        return false;
+      }
+      Pattern p = pattern;
+      if (p == null) {
+        p = Pattern.compile(toRegex(operand.rightMeta.getCompatibleString(right)));
+      }
+      return p.matcher(operand.leftMeta.getCompatibleString(left)).matches();
+    }
+  }
+
+  private static final class InListNode extends AtomicNode {
+    /** The sorted list of constant values or null if the list comes from a field */
+    private final String[] inList;
+
+    InListNode(Operand operand, boolean negated) {
+      super(operand, negated);
+
+      String[] list = null;
+      if (operand.isRightConstant()) {
+        try {
+          list = splitList(operand, operand.rightData);
+        } catch (Exception e) {
+          // Fail on the first row, with the usual error message
+        }
+      }
+      this.inList = list;
+    }
+
+    private static String[] splitList(Operand operand, Object data) throws HopValueException {
+      String[] list = Const.splitString(operand.rightMeta.getString(data), ';', true);
+      for (int i = 0; i < list.length; i++) {
+        list[i] = list[i] == null ? null : list[i].replace("\\", "");
+      }
+      Arrays.sort(list);
+      return list;
+    }
+
+    @Override
+    protected boolean test(Object[] row) throws HopException {
+      String[] list = inList;
+      if (list == null) {
+        list = splitList(operand, operand.right(row));
+      }
+      String searchString = operand.leftMeta.getCompatibleString(operand.left(row));
+      return searchString != null && Arrays.binarySearch(list, searchString) >= 0;
+    }
+  }
+
+  private static final class StringNode extends AtomicNode {
+    private final Condition.Function function;
+
+    /** The constant as a string */
+    private final String constant;
+
+    private final boolean constantKnown;
+
+    StringNode(Operand operand, boolean negated, Condition.Function function) {
+      super(operand, negated);
+      this.function = function;
+
+      String string = null;
+      boolean known = false;
+      if (operand.isRightConstant()) {
+        try {
+          string = operand.rightString(null);
+          known = true;
+        } catch (HopValueException e) {
+          // Fail on the first row, with the usual error message
+        }
+      }
+      this.constant = string;
+      this.constantKnown = known;
+    }
+
+    private String rightString(Object[] row) throws HopValueException {
+      return constantKnown ? constant : operand.rightString(row);
+    }
+
+    @Override
+    protected boolean test(Object[] row) throws HopException {
+      String string = operand.leftMeta.getCompatibleString(operand.left(row));
+      switch (function) {
+        case CONTAINS:
+          return string != null && string.contains(rightString(row));
+        case STARTS_WITH:
+          return string != null && string.startsWith(rightString(row));
+        default: // ENDS_WITH
+          if (Utils.isEmpty(string) || operand.right(row) == null) {
+            return false;
+          }
+          String end = rightString(row);
+          return end != null && string.endsWith(end);
+      }
+    }
+  }
+}
@@ -540,6 +540,18 @@ public class Condition implements Cloneable {
     return evaluation;
   }
 
+  /**
+   * Compile this condition for rows with the given layout. Field positions, constant values and
+   * regular expressions are resolved once instead of for every evaluated row.
+   *
+   * @param rowMeta the metadata of the rows to evaluate
+   * @return an immutable, thread-safe evaluator for this condition
+   * @see CompiledCondition
+   */
+  public CompiledCondition compile(IRowMeta rowMeta) {
+    return CompiledCondition.compile(this, rowMeta);
+  }
+
   public void addCondition(Condition cb) {
     if (isAtomic() && getLeftValueName() != null) {
       /*
@@ -114,6 +114,9 @@ public class Const {
   /** Size of rowset: bigger = faster for large amounts of data */
   public static final int ROWS_IN_ROWSET = 10000;
 
+  /** Maximum number of rows a transform hands over in one batch (putRows/getRows) */
+  public static final int ROWS_IN_BATCH = 1000;
+
   /** Fetch size in rows when querying a database */
   public static final int FETCH_SIZE = 10000;
 
@@ -170,6 +173,17 @@ public class Const {
       description = "The variable which points to the alternative location for the Hop metadata.")
   public static final String HOP_METADATA_FOLDER = "HOP_METADATA_FOLDER";
 
+  /**
+   * The number of milliseconds during which a cached JSON metadata file is considered unchanged.
+   */
+  @Variable(
+      scope = VariableScope.SYSTEM,
+      value = "1000",
+      description =
+          "The number of milliseconds during which cached JSON metadata files and folder listings are used without checking the file system for changes. 0 checks on every access.")
+  public static final String HOP_METADATA_CACHE_CHECK_INTERVAL =
+      "HOP_METADATA_CACHE_CHECK_INTERVAL";
+
   /** A comma separated list pointing to folders with JDBC drivers to add. */
   @Variable(
       scope = VariableScope.SYSTEM,
@@ -526,6 +540,40 @@ public class Const {
           "The maximum number of log lines that are kept internally by Hop. Set to 0 to keep all rows (default)")
   public static final String HOP_MAX_LOG_SIZE_IN_LINES = "HOP_MAX_LOG_SIZE_IN_LINES";
 
+  /**
+   * System wide flag to set the maximum (estimated) size in megabytes of the log lines that are
+   * kept internally by Hop. The oldest lines are removed first. Set to 0 for no limit (default)
+   */
+  @Variable(
+      scope = VariableScope.APPLICATION,
+      value = "0",
+      description =
+          "The maximum (estimated) size in megabytes of the log lines that are kept internally by Hop. The oldest lines are removed first. Set to 0 for no limit (default)")
+  public static final String HOP_MAX_LOG_SIZE_IN_MEGABYTES = "HOP_MAX_LOG_SIZE_IN_MEGABYTES";
+
+  /**
+   * The maximum (estimated) size in megabytes of the cache of a lookup transform, on top of the
+   * cache size in rows set in the transform. Set to 0 for no limit (default)
+   */
+  @Variable(
+      scope = VariableScope.ENGINE,
+      value = "0",
+      description =
+          "The maximum (estimated) size in megabytes of the cache of a database, combination or dimension lookup transform, on top of the cache size in rows set in the transform. Set to 0 for no limit (default)")
+  public static final String HOP_LOOKUP_CACHE_MAX_SIZE_IN_MEGABYTES =
+      "HOP_LOOKUP_CACHE_MAX_SIZE_IN_MEGABYTES";
+
+  /**
+   * The number of seconds after which a value in the cache of a lookup transform expires and is
+   * looked up in the database again. Set to 0 to keep values until they are evicted (default)
+   */
+  @Variable(
+      scope = VariableScope.ENGINE,
+      value = "0",
+      description =
+          "The number of seconds after which a value in the cache of a database, combination or dimension lookup transform expires and is looked up in the database again. Set to 0 to keep values until they are evicted (default)")
+  public static final String HOP_LOOKUP_CACHE_EXPIRE_SECONDS = "HOP_LOOKUP_CACHE_EXPIRE_SECONDS";
+
   /**
    * System wide flag to set the maximum age (in minutes) of a log line while being kept internally
    * by Hop. Set to 0 to keep all rows indefinitely (default)
@@ -673,6 +721,13 @@ public class Const {
       description = "The variable which points to the alternative location for plugins.")
   public static final String HOP_PLUGIN_BASE_FOLDERS = "HOP_PLUGIN_BASE_FOLDERS";
 
+  /** Name of the variable with the file in which the plugins found are kept for the next start. */
+  @Variable(
+      scope = VariableScope.SYSTEM,
+      description =
+          "The file in which the plugins found at startup are saved. When the class path, plugin folders and shared JDBC folders didn't change, the next start registers the plugins from this file instead of scanning all jar files.")
+  public static final String HOP_PLUGIN_REGISTRY_SNAPSHOT = "HOP_PLUGIN_REGISTRY_SNAPSHOT";
+
   /**
    * Name of the environment variable that contains the size of the pipeline rowset size. This
    * overwrites values that you set pipeline settings.
@@ -727,6 +782,15 @@ public class Const {
           "Set this variable to 'Y' if you want to test a more efficient batching row set.")
   public static final String HOP_BATCHING_ROWSET = "HOP_BATCHING_ROWSET";
 
+  /**
+   * The maximum number of rows transforms supporting batched row hand-off read and write in one go.
+   */
+  @Variable(
+      value = "1000",
+      description =
+          "The maximum number of rows transforms supporting batched row hand-off (Dummy, Filter Rows, Select Values, Calculator...) read from and write to a row set in one go.")
+  public static final String HOP_TRANSFORM_ROW_BATCH_SIZE = "HOP_TRANSFORM_ROW_BATCH_SIZE";
+
   /**
    * Set this variable to limit max number of files the Text File Output transform can have open at
    * one time.
@@ -17,6 +17,7 @@
 
 package org.apache.hop.core;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.apache.hop.core.row.IRowMeta;
 
@@ -44,6 +45,30 @@ public interface IRowSet {
    */
   boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu);
 
+  /**
+   * Offer a batch of rows to this rowset. The rows are added in order, starting at the given index
+   * in the list. If the buffer is full, wait (block) for a small period of time for room to become
+   * available, the same as {@link #putRow(IRowMeta, Object[])} does.
+   *
+   * <p>The default implementation puts the rows one by one. Implementations which can move a whole
+   * chunk of rows in a single operation should override this.
+   *
+   * @param rowMeta The description of the row data
+   * @param rows the rows of data
+   * @param fromIndex the index in the list of the first row to add
+   * @return the number of rows which were added to the rowset, 0 if the buffer was full.
+   */
+  default int putRows(IRowMeta rowMeta, List<Object[]> rows, int fromIndex) {
+    int count = 0;
+    for (int i = fromIndex; i < rows.size(); i++) {
+      if (!putRow(rowMeta, rows.get(i))) {
+        break;
+      }
+      count++;
+    }
+    return count;
+  }
+
   /**
    * Get a row from the input buffer, it blocks for a short period until a new row becomes
    * available. Otherwise, it returns null.
@@ -59,6 +84,29 @@ public interface IRowSet {
    */
   Object[] getRowImmediate();
 
+  /**
+   * Move the rows which are available right now to the given list, without waiting.
+   *
+   * <p>The default implementation gets the rows one by one. Implementations which can move a whole
+   * chunk of rows in a single operation should override this.
+   *
+   * @param rows the list to add the rows to
+   * @param maxRows the maximum number of rows to move
+   * @return the number of rows added to the list
+   */
+  default int getRows(List<Object[]> rows, int maxRows) {
+    int count = 0;
+    while (count < maxRows) {
+      Object[] row = getRowImmediate();
+      if (row == null) {
+        break;
+      }
+      rows.add(row);
+      count++;
+    }
+    return count;
+  }
+
   /**
    * get the first row in the list immediately if it is available or wait until timeout
    *
@@ -18,6 +18,7 @@
 package org.apache.hop.core;
 
 import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.apache.hop.core.row.IRowMeta;
 
@@ -60,6 +61,16 @@ public class QueueRowSet extends BaseRowSet implements Comparable<IRowSet>, IRow
     return putRow(rowMeta, rowData);
   }
 
+  @Override
+  public int putRows(IRowMeta rowMeta, List<Object[]> rows, int fromIndex) {
+    if (fromIndex >= rows.size()) {
+      return 0;
+    }
+    this.rowMeta = rowMeta;
+    buffer.addAll(rows.subList(fromIndex, rows.size()));
+    return rows.size() - fromIndex;
+  }
+
   @Override
   public int size() {
     return buffer.size();
@@ -0,0 +1,388 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import lombok.Getter;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * A row set backed by a preallocated lock-free ring buffer. Instead of taking a lock and parking on
+ * a condition for every row like {@link BlockingRowSet} does, producers and the consumer only touch
+ * a slot in a fixed array and a pair of sequence counters.
+ *
+ * <p>By default the buffer assumes a single producer and a single consumer thread, which is the
+ * case for every hop the local pipeline engine allocates between two transform copies. When more
+ * than one thread can write into the row set (a shared {@link IRowSet} fed by several copies, a row
+ * producer used from multiple threads...) it should be created in multi-producer mode: writers then
+ * claim their slot with a compare-and-set on the producer sequence. Reading is always done by a
+ * single thread, the transform owning the row set as input.
+ *
+ * <p>When the buffer is full (or empty) the waiting thread follows its {@link WaitStrategy}: it
+ * spins for a while, then yields, then parks with an exponential back-off until the timeout
+ * expires.
+ */
+public class RingBufferRowSet extends BaseRowSet implements Comparable<IRowSet>, IRowSet {
+
+  /** The longest we ever park in a single go while waiting for the other side. */
+  private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  /** How a thread waits for room (producer) or for a row (consumer). */
+  @SuppressWarnings("java:S115")
+  public enum WaitStrategy {
+    /** Busy spin first, then yield, then park: lowest latency, uses the most CPU. */
+    Spinning(1000, 100),
+
+    /** Yield the processor a number of times before parking. */
+    Yielding(0, 100),
+
+    /** Park straight away: friendliest for machines running more threads than cores. */
+    Parking(0, 0);
+
+    @Getter private final int spinTries;
+    @Getter private final int yieldTries;
+
+    WaitStrategy(int spinTries, int yieldTries) {
+      this.spinTries = spinTries;
+      this.yieldTries = yieldTries;
+    }
+
+    /**
+     * Find a wait strategy by name, case-insensitive.
+     *
+     * @param name the name of the strategy
+     * @return the strategy or {@link #Yielding} if the name is empty or unknown
+     */
+    public static WaitStrategy getWaitStrategy(String name) {
+      for (WaitStrategy strategy : values()) {
+        if (strategy.name().equalsIgnoreCase(name)) {
+          return strategy;
+        }
+      }
+      return Yielding;
+    }
+  }
+
+  private final AtomicReferenceArray<Object[]> slots;
+  private final int mask;
+
+  /** The sequence of the next slot to write into. */
+  private final AtomicLong producerSequence;
+
+  /** The sequence of the next slot to read from. */
+  private final AtomicLong consumerSequence;
+
+  @Getter private final boolean multiProducer;
+  @Getter private final WaitStrategy waitStrategy;
+
+  private final int timeoutPut;
+  private final int timeoutGet;
+
+  /**
+   * Create a single producer, single consumer ring buffer row set.
+   *
+   * @param maxSize the minimum capacity, rounded up to the next power of 2
+   */
+  public RingBufferRowSet(int maxSize) {
+    this(maxSize, false, WaitStrategy.Yielding);
+  }
+
+  /**
+   * Create a new ring buffer row set.
+   *
+   * @param maxSize the minimum capacity, rounded up to the next power of 2
+   * @param multiProducer true if more than one thread can put rows in this row set
+   * @param waitStrategy how to wait when the buffer is full or empty
+   */
+  public RingBufferRowSet(int maxSize, boolean multiProducer, WaitStrategy waitStrategy) {
+    super();
+
+    int capacity = capacityFor(maxSize);
+    slots = new AtomicReferenceArray<>(capacity);
+    mask = capacity - 1;
+    producerSequence = new AtomicLong(0L);
+    consumerSequence = new AtomicLong(0L);
+
+    this.multiProducer = multiProducer;
+    this.waitStrategy = waitStrategy == null ? WaitStrategy.Yielding : waitStrategy;
+
+    timeoutGet =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_GET_TIMEOUT), Const.TIMEOUT_GET_MILLIS);
+    timeoutPut =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_PUT_TIMEOUT), Const.TIMEOUT_PUT_MILLIS);
+  }
+
+  static int capacityFor(int maxSize) {
+    if (maxSize <= 1) {
+      return 2;
+    }
+    int highest = Integer.highestOneBit(maxSize);
+    if (highest == maxSize) {
+      return maxSize;
+    }
+    if (highest >= (1 << 30)) {
+      throw new IllegalArgumentException("Row set size is too large: " + maxSize);
+    }
+    return highest << 1;
+  }
+
+  @Override
+  public boolean putRow(IRowMeta rowMeta, Object[] rowData) {
+    return putRowWait(rowMeta, rowData, timeoutPut, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu) {
+    if (rowData == null) {
+      // Same as the blocking queue of BlockingRowSet: nulls are refused
+      return false;
+    }
+    this.rowMeta = rowMeta;
+
+    if (offer(rowData)) {
+      return true;
+    }
+
+    long deadline = System.nanoTime() + tu.toNanos(time);
+    int attempt = 0;
+    while (true) {
+      if (!backOff(attempt++, deadline)) {
+        return false;
+      }
+      if (offer(rowData)) {
+        return true;
+      }
+    }
+  }
+
+  private boolean offer(Object[] rowData) {
+    if (multiProducer) {
+      while (true) {
+        long sequence = producerSequence.get();
+        if (sequence - consumerSequence.get() > mask) {
+          return false; // full
+        }
+        if (producerSequence.compareAndSet(sequence, sequence + 1)) {
+          // The slot was cleared by the consumer before it advanced past it: we own it now.
+          slots.setRelease((int) sequence & mask, rowData);
+          return true;
+        }
+        Thread.onSpinWait();
+      }
+    }
+
+    // Single producer: the slot is free as soon as the consumer has cleared it.
+    //
+    long sequence = producerSequence.get();
+    int index = (int) sequence & mask;
+    if (slots.getAcquire(index) != null) {
+      return false; // full
+    }
+    slots.setRelease(index, rowData);
+    producerSequence.lazySet(sequence + 1);
+    return true;
+  }
+
+  /**
+   * Put a batch of rows in the buffer. As many rows as there is room for are claimed and published
+   * in one go. Only when the buffer is completely full do we wait.
+   */
+  @Override
+  public int putRows(IRowMeta rowMeta, List<Object[]> rows, int fromIndex) {
+    // Nulls are refused: stop the batch at the first one.
+    //
+    int wanted = 0;
+    while (fromIndex + wanted < rows.size() && rows.get(fromIndex + wanted) != null) {
+      wanted++;
+    }
+    if (wanted == 0) {
+      return 0;
+    }
+    this.rowMeta = rowMeta;
+
+    int count = offerRows(rows, fromIndex, wanted);
+    if (count > 0) {
+      return count;
+    }
+
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutPut);
+    int attempt = 0;
+    while (true) {
+      if (!backOff(attempt++, deadline)) {
+        return 0;
+      }
+      count = offerRows(rows, fromIndex, wanted);
+      if (count > 0) {
+        return count;
+      }
+    }
+  }
+
+  private int offerRows(List<Object[]> rows, int fromIndex, int wanted) {
+    long sequence;
+    int count;
+    while (true) {
+      sequence = producerSequence.get();
+      long free = slots.length() - (sequence - consumerSequence.get());
+      if (free <= 0) {
+        return 0; // full
+      }
+      count = (int) Math.min(free, wanted);
+      if (!multiProducer) {
+        break;
+      }
+      if (producerSequence.compareAndSet(sequence, sequence + count)) {
+        break;
+      }
+      Thread.onSpinWait();
+    }
+
+    for (int i = 0; i < count; i++) {
+      slots.setRelease((int) (sequence + i) & mask, rows.get(fromIndex + i));
+    }
+    if (!multiProducer) {
+      producerSequence.lazySet(sequence + count);
+    }
+    return count;
+  }
+
+  @Override
+  public Object[] getRow() {
+    return getRowWait(timeoutGet, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    return poll();
+  }
+
+  @Override
+  public Object[] getRowWait(long timeout, TimeUnit tu) {
+    Object[] row = poll();
+    if (row != null) {
+      return row;
+    }
+
+    long deadline = System.nanoTime() + tu.toNanos(timeout);
+    int attempt = 0;
+    while (true) {
+      if (!backOff(attempt++, deadline)) {
+        return null;
+      }
+      row = poll();
+      if (row != null) {
+        return row;
+      }
+    }
+  }
+
+  /** Move all published rows (up to maxRows) to the list and release their slots in one go. */
+  @Override
+  public int getRows(List<Object[]> rows, int maxRows) {
+    long sequence = consumerSequence.get();
+    int count = 0;
+    while (count < maxRows) {
+      int index = (int) (sequence + count) & mask;
+      Object[] row = slots.getAcquire(index);
+      if (row == null) {
+        break;
+      }
+      slots.setRelease(index, null);
+      rows.add(row);
+      count++;
+    }
+    if (count > 0) {
+      consumerSequence.set(sequence + count);
+    }
+    return count;
+  }
+
+  private Object[] poll() {
+    long sequence = consumerSequence.get();
+    int index = (int) sequence & mask;
+    Object[] row = slots.getAcquire(index);
+    if (row == null) {
+      // Empty, or a producer claimed the slot but didn't publish the row yet.
+      return null;
+    }
+    slots.setRelease(index, null);
+    consumerSequence.set(sequence + 1);
+    return row;
+  }
+
+  /**
+   * Wait a little bit according to the wait strategy.
+   *
+   * @param attempt the number of times we already waited
+   * @param deadline the {@link System#nanoTime()} after which we give up
+   * @return false if the deadline passed or the thread was interrupted
+   */
+  private boolean backOff(int attempt, long deadline) {
+    long remaining = deadline - System.nanoTime();
+    if (remaining <= 0) {
+      return false;
+    }
+    int spinTries = waitStrategy.getSpinTries();
+    int yieldTries = waitStrategy.getYieldTries();
+    if (attempt < spinTries) {
+      Thread.onSpinWait();
+    } else if (attempt < spinTries + yieldTries) {
+      Thread.yield();
+    } else {
+      int parks = Math.min(attempt - spinTries - yieldTries, 20);
+      LockSupport.parkNanos(Math.min(remaining, Math.min(1L << parks, MAX_PARK_NANOS)));
+      if (Thread.interrupted()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the number of rows currently in the buffer
+   */
+  @Override
+  public int size() {
+    long size = producerSequence.get() - consumerSequence.get();
+    if (size < 0) {
+      return 0;
+    }
+    return (int) Math.min(size, slots.length());
+  }
+
+  /**
+   * @return the number of rows this buffer can hold
+   */
+  public int capacity() {
+    return slots.length();
+  }
+
+  @Override
+  public void clear() {
+    for (int i = 0; i < slots.length(); i++) {
+      slots.set(i, null);
+    }
+    producerSequence.set(0L);
+    consumerSequence.set(0L);
+    done.set(false);
+  }
+}
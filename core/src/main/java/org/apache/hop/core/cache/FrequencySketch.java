@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.cache;
+
+/**
+ * Estimates how often a key was accessed recently with a count-min sketch of 4-bit counters. Every
+ * key maps to 4 counters, the estimate is the lowest of them. All counters are halved once the
+ * number of increments reaches 10 times the number of keys the sketch was sized for, so that keys
+ * which were popular a long time ago don't stay in the cache forever.
+ */
+final class FrequencySketch {
+
+  private static final long[] SEEDS = {
+    0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final long ONE_MASK = 0x1111111111111111L;
+  private static final int MAX_TABLE_SIZE = 1 << 24;
+
+  private final long[] table;
+  private final int tableMask;
+  private final int sampleSize;
+  private int size;
+
+  /**
+   * @param expectedKeys the number of keys to keep track of
+   */
+  FrequencySketch(long expectedKeys) {
+    int keys = (int) Math.clamp(expectedKeys, 16L, MAX_TABLE_SIZE);
+    int tableSize = Integer.highestOneBit(keys - 1) << 1;
+    table = new long[tableSize];
+    tableMask = tableSize - 1;
+    sampleSize = 10 * keys;
+  }
+
+  /**
+   * @return the estimated number of recent accesses of the key with the given hash code, at most 15
+   */
+  int frequency(int hashCode) {
+    int hash = spread(hashCode);
+    int start = (hash & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /** Record an access of the key with the given hash code */
+  void increment(int hashCode) {
+    int hash = spread(hashCode);
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++size >= sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((table[index] & mask) != mask) {
+      table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  /** Halve all the counters */
+  private void reset() {
+    int odd = 0;
+    for (int i = 0; i < table.length; i++) {
+      odd += Long.bitCount(table[i] & ONE_MASK);
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    size = (size >>> 1) - (odd >>> 2);
+  }
+
+  private int indexOf(int hash, int i) {
+    long h = (hash + SEEDS[i]) * SEEDS[i];
+    h += h >>> 32;
+    return ((int) h) & tableMask;
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
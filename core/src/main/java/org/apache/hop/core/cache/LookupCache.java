@@ -0,0 +1,600 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.cache;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.logging.Metrics;
+import org.apache.hop.core.variables.IVariables;
+
+/**
+ * A size bounded cache for the lookup transforms. The keys are the serialized key values of a row
+ * (see {@link LookupCacheKey}).
+ *
+ * <p>Entries are admitted and evicted with the W-TinyLFU policy: new entries go to a small LRU
+ * window. Entries leaving the window only replace the least recently used entry of the main space
+ * if they were accessed more often recently, as estimated by a {@link FrequencySketch}. The main
+ * space is a segmented LRU: entries which are accessed again move from its probation to its
+ * protected segment. This keeps frequently used keys in the cache when a scan over many keys which
+ * are used only once passes by.
+ *
+ * <p>The cache can be bounded by the number of entries and/or by the estimated size of the entries
+ * in bytes. Entries can expire a fixed time after they were stored. Without bounds and expiry the
+ * cache keeps all entries, like a plain map.
+ *
+ * <p>A cache is meant to be used by a single transform copy and isn't thread-safe.
+ *
+ * @param <V> the type of the cached values
+ */
+public final class LookupCache<V> {
+
+  /** Estimated memory used by an entry besides its key and value: the node and the map entry */
+  static final long ENTRY_OVERHEAD = 112L;
+
+  private static final int UNBOUNDED = 0;
+  private static final int WINDOW = 1;
+  private static final int PROBATION = 2;
+  private static final int PROTECTED = 3;
+
+  private final long maximumSize;
+  private final long maximumBytes;
+  private final long expireAfterWriteMillis;
+  private final ToLongFunction<V> valueWeigher;
+  private final LongSupplier clock;
+
+  private final HashMap<LookupCacheKey, Node<V>> map;
+  private final FrequencySketch sketch;
+  private final NodeList<V> window = new NodeList<>();
+  private final NodeList<V> probation = new NodeList<>();
+  private final NodeList<V> protectedList = new NodeList<>();
+
+  /** The bound of the eviction policy: bytes if a maximum size in bytes is set, else entries */
+  private final long maximumWeight;
+
+  private final long windowMaximum;
+  private final long protectedMaximum;
+
+  private long weightedSize;
+  private long windowWeight;
+  private long protectedWeight;
+
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+  private long expirationCount;
+
+  /** The counters as they were the last time they were reported as metrics */
+  private final long[] reported = new long[4];
+
+  private LookupCache(Builder<V> builder) {
+    this.maximumSize = Math.max(0L, builder.maximumSize);
+    this.maximumBytes = Math.max(0L, builder.maximumBytes);
+    this.expireAfterWriteMillis = Math.max(0L, builder.expireAfterWriteMillis);
+    this.valueWeigher = builder.valueWeigher;
+    this.clock = builder.clock;
+
+    maximumWeight = maximumBytes > 0 ? maximumBytes : maximumSize;
+    if (isBounded()) {
+      windowMaximum = Math.max(1L, maximumWeight / 100);
+      protectedMaximum = (maximumWeight - windowMaximum) * 80 / 100;
+      long expectedKeys = maximumSize > 0 ? maximumSize : maximumBytes / 256;
+      sketch = new FrequencySketch(expectedKeys);
+      map = HashMap.newHashMap((int) Math.min(expectedKeys, 1 << 16));
+    } else {
+      windowMaximum = 0L;
+      protectedMaximum = 0L;
+      sketch = null;
+      map = new HashMap<>();
+    }
+  }
+
+  /**
+   * @return a builder for a new cache
+   */
+  public static <V> Builder<V> builder() {
+    return new Builder<>();
+  }
+
+  /**
+   * Look up a value. A lookup counts as a hit or a miss in the statistics of the cache.
+   *
+   * @param key the key to look up
+   * @return the cached value or null if there is no value for the key, or it expired
+   */
+  public V get(LookupCacheKey key) {
+    if (sketch != null) {
+      sketch.increment(key.hashCode());
+    }
+    Node<V> node = map.get(key);
+    if (node == null) {
+      missCount++;
+      return null;
+    }
+    if (isExpired(node)) {
+      removeNode(node);
+      expirationCount++;
+      missCount++;
+      return null;
+    }
+    hitCount++;
+    onAccess(node);
+    return node.value;
+  }
+
+  /**
+   * Look up a value without changing the statistics or the order of the entries.
+   *
+   * @param key the key to look up
+   * @return the cached value or null if there is no value for the key, or it expired
+   */
+  public V peek(LookupCacheKey key) {
+    Node<V> node = map.get(key);
+    if (node == null || isExpired(node)) {
+      return null;
+    }
+    return node.value;
+  }
+
+  /**
+   * Store a value in the cache, replacing the value which was stored for the key before. This can
+   * evict other entries, or the new entry itself, if the cache gets too big.
+   *
+   * @param key the key to store the value for
+   * @param value the value to store
+   */
+  public void put(LookupCacheKey key, V value) {
+    long weight = weigh(key, value);
+    Node<V> node = map.get(key);
+    if (node != null) {
+      node.value = value;
+      node.writeTime = expireAfterWriteMillis > 0 ? clock.getAsLong() : 0L;
+      reweigh(node, weight);
+      onAccess(node);
+    } else {
+      if (isBounded() && weight > maximumWeight) {
+        // Never fits
+        evictionCount++;
+        return;
+      }
+      node = new Node<>(key, value, weight);
+      node.writeTime = expireAfterWriteMillis > 0 ? clock.getAsLong() : 0L;
+      map.put(key, node);
+      weightedSize += weight;
+      if (isBounded()) {
+        sketch.increment(key.hashCode());
+        node.queue = WINDOW;
+        window.addLast(node);
+        windowWeight += weight;
+      }
+    }
+    if (isBounded()) {
+      evict();
+    }
+  }
+
+  /**
+   * Remove the value of a key from the cache.
+   *
+   * @param key the key to remove
+   * @return the removed value, null if there was no value for the key
+   */
+  public V remove(LookupCacheKey key) {
+    Node<V> node = map.get(key);
+    if (node == null) {
+      return null;
+    }
+    removeNode(node);
+    return node.value;
+  }
+
+  /** Remove all entries from the cache. The statistics are kept. */
+  public void clear() {
+    map.clear();
+    window.clear();
+    probation.clear();
+    protectedList.clear();
+    weightedSize = 0L;
+    windowWeight = 0L;
+    protectedWeight = 0L;
+  }
+
+  /**
+   * @return the number of entries in the cache, including the ones which expired but weren't
+   *     removed yet
+   */
+  public int size() {
+    return map.size();
+  }
+
+  /**
+   * @return the estimated size of the entries in bytes, or the number of entries if the cache isn't
+   *     bounded by size in bytes
+   */
+  public long getWeightedSize() {
+    return weightedSize;
+  }
+
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  public long getMissCount() {
+    return missCount;
+  }
+
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  public long getExpirationCount() {
+    return expirationCount;
+  }
+
+  /**
+   * @return the fraction of the lookups which were a hit, 0 if there weren't any lookups
+   */
+  public double getHitRate() {
+    long lookups = hitCount + missCount;
+    return lookups == 0 ? 0.0 : (double) hitCount / lookups;
+  }
+
+  /**
+   * Report the hits, misses, evictions and expirations since the previous report to the metrics of
+   * a log channel, usually the one of the transform using the cache.
+   *
+   * @param log the log channel to report to
+   */
+  public void snapMetrics(ILogChannel log) {
+    long[] counts = {hitCount, missCount, evictionCount, expirationCount};
+    Metrics[] metrics = {
+      Metrics.METRIC_LOOKUP_CACHE_HIT_COUNT,
+      Metrics.METRIC_LOOKUP_CACHE_MISS_COUNT,
+      Metrics.METRIC_LOOKUP_CACHE_EVICTION_COUNT,
+      Metrics.METRIC_LOOKUP_CACHE_EXPIRATION_COUNT
+    };
+    for (int i = 0; i < counts.length; i++) {
+      long delta = counts[i] - reported[i];
+      if (delta > 0) {
+        log.snap(metrics[i], delta);
+      }
+      reported[i] = counts[i];
+    }
+  }
+
+  /**
+   * @return a one line summary of the statistics of the cache, to log
+   */
+  public String getStatisticsDescription() {
+    return String.format(
+        "lookup cache: %d entries, %d hits, %d misses (%.1f%% hit rate), %d evictions, %d expirations",
+        map.size(), hitCount, missCount, getHitRate() * 100, evictionCount, expirationCount);
+  }
+
+  /**
+   * Estimate the memory used by a row of values, to weigh cached rows with.
+   *
+   * @param row the row
+   * @return the estimated size of the row in bytes
+   */
+  public static long estimateSize(Object[] row) {
+    if (row == null) {
+      return 0L;
+    }
+    long size = 16L + 8L * row.length;
+    for (Object value : row) {
+      size += estimateSize(value);
+    }
+    return size;
+  }
+
+  private static long estimateSize(Object value) {
+    if (value == null) {
+      return 0L;
+    }
+    if (value instanceof String string) {
+      return 40L + string.length();
+    }
+    if (value instanceof byte[] bytes) {
+      return 16L + bytes.length;
+    }
+    if (value instanceof BigDecimal) {
+      return 64L;
+    }
+    if (value instanceof Date) {
+      return 32L;
+    }
+    return 24L;
+  }
+
+  private boolean isBounded() {
+    return maximumWeight > 0;
+  }
+
+  private boolean isOverflowing() {
+    return weightedSize > maximumWeight || (maximumSize > 0 && map.size() > maximumSize);
+  }
+
+  private boolean isExpired(Node<V> node) {
+    return expireAfterWriteMillis > 0
+        && clock.getAsLong() - node.writeTime >= expireAfterWriteMillis;
+  }
+
+  private long weigh(LookupCacheKey key, V value) {
+    if (maximumBytes <= 0) {
+      return 1L;
+    }
+    long valueWeight = valueWeigher == null ? 0L : valueWeigher.applyAsLong(value);
+    return ENTRY_OVERHEAD + 16L + key.length() + valueWeight;
+  }
+
+  private void reweigh(Node<V> node, long weight) {
+    long delta = weight - node.weight;
+    node.weight = weight;
+    weightedSize += delta;
+    if (node.queue == WINDOW) {
+      windowWeight += delta;
+    } else if (node.queue == PROTECTED) {
+      protectedWeight += delta;
+    }
+  }
+
+  private void onAccess(Node<V> node) {
+    switch (node.queue) {
+      case WINDOW -> window.moveToLast(node);
+      case PROBATION -> {
+        // Accessed again: promote to the protected segment
+        probation.remove(node);
+        node.queue = PROTECTED;
+        protectedList.addLast(node);
+        protectedWeight += node.weight;
+        while (protectedWeight > protectedMaximum && protectedList.head != null) {
+          Node<V> demoted = protectedList.removeFirst();
+          protectedWeight -= demoted.weight;
+          demoted.queue = PROBATION;
+          probation.addLast(demoted);
+        }
+      }
+      case PROTECTED -> protectedList.moveToLast(node);
+      default -> {
+        // Unbounded: no order to keep
+      }
+    }
+  }
+
+  private void evict() {
+    // The entries which don't fit in the window anymore become candidates for the main space
+    //
+    Node<V> candidate = null;
+    while (windowWeight > windowMaximum && window.head != null) {
+      Node<V> node = window.removeFirst();
+      windowWeight -= node.weight;
+      node.queue = PROBATION;
+      probation.addLast(node);
+      if (candidate == null) {
+        candidate = node;
+      }
+    }
+
+    // Let the candidates compete with the least recently used entries of the main space until the
+    // cache fits again
+    //
+    Node<V> victim = probation.head;
+    while (isOverflowing()) {
+      if (victim == candidate) {
+        // All the victims were tried, the candidates compete with each other
+        victim = null;
+      }
+      if (candidate == null && victim == null) {
+        Node<V> node = protectedList.head != null ? protectedList.head : window.head;
+        if (node == null) {
+          break;
+        }
+        evictNode(node);
+      } else if (victim == null) {
+        Node<V> next = candidate.next;
+        evictNode(candidate);
+        candidate = next;
+      } else if (candidate == null) {
+        Node<V> next = victim.next;
+        evictNode(victim);
+        victim = next;
+      } else if (sketch.frequency(candidate.key.hashCode())
+          > sketch.frequency(victim.key.hashCode())) {
+        Node<V> next = victim.next;
+        evictNode(victim);
+        victim = next;
+      } else {
+        Node<V> next = candidate.next;
+        evictNode(candidate);
+        candidate = next;
+      }
+    }
+  }
+
+  private void evictNode(Node<V> node) {
+    removeNode(node);
+    evictionCount++;
+  }
+
+  private void removeNode(Node<V> node) {
+    map.remove(node.key);
+    weightedSize -= node.weight;
+    switch (node.queue) {
+      case WINDOW -> {
+        window.remove(node);
+        windowWeight -= node.weight;
+      }
+      case PROBATION -> probation.remove(node);
+      case PROTECTED -> {
+        protectedList.remove(node);
+        protectedWeight -= node.weight;
+      }
+      default -> {
+        // Not in any list
+      }
+    }
+    node.queue = UNBOUNDED;
+  }
+
+  /** Builds a {@link LookupCache} */
+  public static final class Builder<V> {
+    private long maximumSize;
+    private long maximumBytes;
+    private long expireAfterWriteMillis;
+    private ToLongFunction<V> valueWeigher;
+    private LongSupplier clock = System::currentTimeMillis;
+
+    private Builder() {}
+
+    /**
+     * @param maximumSize the maximum number of entries, 0 or lower means: no limit
+     */
+    public Builder<V> maximumSize(long maximumSize) {
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * @param maximumBytes the maximum estimated size of the entries in bytes, 0 or lower means: no
+     *     limit. The size of a value is estimated with the value weigher.
+     */
+    public Builder<V> maximumBytes(long maximumBytes) {
+      this.maximumBytes = maximumBytes;
+      return this;
+    }
+
+    /**
+     * @param valueWeigher estimates the size of a value in bytes, see {@link
+     *     LookupCache#estimateSize(Object[])}
+     */
+    public Builder<V> valueWeigher(ToLongFunction<V> valueWeigher) {
+      this.valueWeigher = valueWeigher;
+      return this;
+    }
+
+    /**
+     * @param expireAfterWriteMillis the time after which a stored value expires, 0 or lower means:
+     *     never
+     */
+    public Builder<V> expireAfterWriteMillis(long expireAfterWriteMillis) {
+      this.expireAfterWriteMillis = expireAfterWriteMillis;
+      return this;
+    }
+
+    /**
+     * Apply the maximum size in bytes and the expiry time set with the variables {@link
+     * Const#HOP_LOOKUP_CACHE_MAX_SIZE_IN_MEGABYTES} and {@link
+     * Const#HOP_LOOKUP_CACHE_EXPIRE_SECONDS}, if they are set.
+     *
+     * @param variables the variables to resolve, usually the ones of the transform
+     */
+    public Builder<V> withVariables(IVariables variables) {
+      long megabytes =
+          Const.toLong(variables.getVariable(Const.HOP_LOOKUP_CACHE_MAX_SIZE_IN_MEGABYTES), 0L);
+      if (megabytes > 0) {
+        maximumBytes = megabytes * 1024 * 1024;
+      }
+      long seconds = Const.toLong(variables.getVariable(Const.HOP_LOOKUP_CACHE_EXPIRE_SECONDS), 0L);
+      if (seconds > 0) {
+        expireAfterWriteMillis = seconds * 1000;
+      }
+      return this;
+    }
+
+    /** The clock to determine whether entries expired with, in milliseconds */
+    Builder<V> clock(LongSupplier clock) {
+      this.clock = clock;
+      return this;
+    }
+
+    public LookupCache<V> build() {
+      return new LookupCache<>(this);
+    }
+  }
+
+  private static final class Node<V> {
+    private final LookupCacheKey key;
+    private V value;
+    private long weight;
+    private long writeTime;
+    private int queue = UNBOUNDED;
+    private Node<V> prev;
+    private Node<V> next;
+
+    private Node(LookupCacheKey key, V value, long weight) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  /** A doubly linked list of nodes, from least to most recently used */
+  private static final class NodeList<V> {
+    private Node<V> head;
+    private Node<V> tail;
+
+    private void addLast(Node<V> node) {
+      node.prev = tail;
+      node.next = null;
+      if (tail == null) {
+        head = node;
+      } else {
+        tail.next = node;
+      }
+      tail = node;
+    }
+
+    private Node<V> removeFirst() {
+      Node<V> node = head;
+      remove(node);
+      return node;
+    }
+
+    private void remove(Node<V> node) {
+      if (node.prev == null) {
+        head = node.next;
+      } else {
+        node.prev.next = node.next;
+      }
+      if (node.next == null) {
+        tail = node.prev;
+      } else {
+        node.next.prev = node.prev;
+      }
+      node.prev = null;
+      node.next = null;
+    }
+
+    private void moveToLast(Node<V> node) {
+      if (node != tail) {
+        remove(node);
+        addLast(node);
+      }
+    }
+
+    private void clear() {
+      head = null;
+      tail = null;
+    }
+  }
+}
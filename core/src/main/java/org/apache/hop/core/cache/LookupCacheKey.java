@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.cache;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.hash.ByteArrayHashIndex;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+
+/**
+ * The key of a {@link LookupCache} entry: the key values of a row in their serialized form (see
+ * {@link RowMeta#extractData(IRowMeta, Object[])}). Two keys are equal if their serialized values
+ * are equal, so the hash code and comparison don't go through the value metadata.
+ *
+ * <p>Keys created with {@link #of(IRowMeta, Object[])} serialize a canonical form of the values so
+ * that values the value metadata considers equal give the same key: big numbers without trailing
+ * zeros, strings trimmed when whitespace is ignored and case folded when they are compared case
+ * insensitively.
+ */
+public final class LookupCacheKey {
+
+  private final byte[] data;
+  private final int hash;
+
+  public LookupCacheKey(byte[] data) {
+    this.data = data;
+    this.hash = ByteArrayHashIndex.hashCode(data);
+  }
+
+  /**
+   * Create a key for the given values. Values with binary string or indexed storage are converted
+   * to their normal storage type first so that they match the same values in normal storage. The
+   * values are then put in their canonical form, see {@link #canonicalValue(IValueMeta, Object)}.
+   *
+   * @param keyMeta the metadata of the key values
+   * @param keyData the key values
+   * @return the key
+   * @throws HopValueException in case a value can't be converted to normal storage
+   */
+  public static LookupCacheKey of(IRowMeta keyMeta, Object[] keyData) throws HopValueException {
+    IRowMeta normalMeta = keyMeta;
+    Object[] normalData = keyData;
+    for (int i = 0; i < keyMeta.size(); i++) {
+      IValueMeta valueMeta = keyMeta.getValueMeta(i);
+      Object value = keyData[i];
+      boolean normalStorage = valueMeta.getStorageType() == IValueMeta.STORAGE_TYPE_NORMAL;
+      if (!normalStorage) {
+        value = valueMeta.convertToNormalStorageType(value);
+      }
+      value = canonicalValue(valueMeta, value);
+      if (normalStorage && value == keyData[i]) {
+        continue;
+      }
+      if (normalData == keyData) {
+        normalData = Arrays.copyOf(keyData, keyMeta.size());
+      }
+      normalData[i] = value;
+      if (!normalStorage) {
+        if (normalMeta == keyMeta) {
+          normalMeta = keyMeta.clone();
+        }
+        normalMeta.getValueMeta(i).setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+      }
+    }
+    return new LookupCacheKey(RowMeta.extractData(normalMeta, normalData));
+  }
+
+  /**
+   * Get the canonical form of a value in normal storage: one value for all the values which are
+   * equal according to {@link IValueMeta#compare(Object, Object)}.
+   *
+   * <ul>
+   *   <li>Big numbers lose their trailing zeros, 1.0 and 1.00 are the same key.
+   *   <li>Strings are trimmed when whitespace is ignored.
+   *   <li>Strings are case folded when they are compared case insensitively without a collator, the
+   *       same way as {@link String#compareToIgnoreCase(String)} does.
+   * </ul>
+   *
+   * <p>Other values, including strings compared with a collator, are used as they are.
+   *
+   * @param valueMeta the metadata of the value
+   * @param value the value in normal storage
+   * @return the canonical value, the given value if it is canonical already
+   */
+  static Object canonicalValue(IValueMeta valueMeta, Object value) {
+    if (value == null) {
+      return null;
+    }
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_BIGNUMBER:
+        BigDecimal number = (BigDecimal) value;
+        return number.signum() == 0 ? BigDecimal.ZERO : number.stripTrailingZeros();
+      case IValueMeta.TYPE_STRING:
+        String string = (String) value;
+        if (valueMeta.isIgnoreWhitespace()) {
+          string = string.trim();
+        }
+        if (valueMeta.isCaseInsensitive() && valueMeta.isCollatorDisabled()) {
+          string = foldCase(string);
+        }
+        return string.equals(value) ? value : string;
+      default:
+        return value;
+    }
+  }
+
+  private static String foldCase(String string) {
+    StringBuilder folded = null;
+    for (int i = 0; i < string.length(); ) {
+      int codePoint = string.codePointAt(i);
+      int foldedCodePoint = Character.toLowerCase(Character.toUpperCase(codePoint));
+      if (foldedCodePoint != codePoint && folded == null) {
+        folded = new StringBuilder(string.length()).append(string, 0, i);
+      }
+      if (folded != null) {
+        folded.appendCodePoint(foldedCodePoint);
+      }
+      i += Character.charCount(codePoint);
+    }
+    return folded == null ? string : folded.toString();
+  }
+
+  /**
+   * @return the serialized key values
+   */
+  public byte[] getData() {
+    return data;
+  }
+
+  /**
+   * @return the size of the serialized key values in bytes
+   */
+  public int length() {
+    return data.length;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    return obj instanceof LookupCacheKey other
+        && hash == other.hash
+        && Arrays.equals(data, other.data);
+  }
+}
@@ -200,6 +200,14 @@ public abstract class BaseDatabaseMeta implements Cloneable, IDatabase {
   @HopMetadataProperty(password = true)
   protected String sshTunnelPassphrase;
 
+  // Connection pool fields
+  @HopMetadataProperty protected boolean usingConnectionPool;
+  @HopMetadataProperty protected String maximumPoolSize;
+  @HopMetadataProperty protected String poolMaxWait;
+  @HopMetadataProperty protected String poolIdleTimeout;
+  @HopMetadataProperty protected String poolValidationTimeout;
+  @HopMetadataProperty protected String poolLeakDetectionThreshold;
+
   public BaseDatabaseMeta() {
     attributes = Collections.synchronizedMap(new HashMap<>());
     changed = false;
@@ -46,6 +46,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
@@ -59,6 +60,8 @@ import org.apache.hop.core.IProgressMonitor;
 import org.apache.hop.core.Result;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.map.DatabaseConnectionMap;
+import org.apache.hop.core.database.pool.DatabaseConnectionPool;
+import org.apache.hop.core.database.pool.DatabaseConnectionPoolManager;
 import org.apache.hop.core.encryption.Encr;
 import org.apache.hop.core.exception.HopDatabaseBatchException;
 import org.apache.hop.core.exception.HopDatabaseException;
@@ -108,6 +111,9 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
 
   private static final Map<String, Set<String>> registeredDrivers = new HashMap<>();
 
+  /** The plugin and driver class combinations loaded before, to skip the lock on DriverManager */
+  private static final Set<String> loadedDriverClasses = ConcurrentHashMap.newKeySet();
+
   private final DatabaseMeta databaseMeta;
 
   private static final String DATA_SERVICES_PLUGIN_ID = "HopThin";
@@ -175,6 +181,9 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
 
   private SshTunnelManager sshTunnelManager;
 
+  /** The pool the connection was borrowed from, null if the connection was opened directly */
+  private DatabaseConnectionPool connectionPool;
+
   private static final List<IValueMeta> valueMetaPluginClasses;
 
   static {
@@ -382,8 +391,8 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
    * Open the database connection. The algorithm is:
    *
    * <ol>
-   *   <li>If <code>databaseMeta.isUsingConnectionPool()</code>, then the connection's datasource is
-   *       looked up in the pool
+   *   <li>If <code>databaseMeta.isUsingConnectionPool()</code>, then the connection is borrowed
+   *       from the pool of the resolved connection settings and given back on disconnect
    *   <li>otherwise, the connection is established via {@linkplain DriverManager}
    * </ol>
    *
@@ -399,23 +408,120 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
 
       // Connect to the database
       //
-      connectUsingClass(databaseMeta.getDriverClass(this), partitionId);
+      if (databaseMeta.isUsingConnectionPool() && !databaseMeta.isSshTunnelEnabled()) {
+        connectUsingPool(databaseMeta.getDriverClass(this));
+      } else {
+        connectUsingClass(databaseMeta.getDriverClass(this), partitionId);
+        executeConnectSql();
+      }
+    } catch (Exception e) {
+      throw new HopDatabaseException("Error occurred while trying to connect to the database", e);
+    }
+  }
 
-      // See if we need to execute extra SQL statements...
-      //
-      String sql = resolve(databaseMeta.getConnectSql());
+  /** Execute the extra SQL statements of the connection right after connecting */
+  private void executeConnectSql() throws HopDatabaseException {
+    String sql = resolve(databaseMeta.getConnectSql());
 
-      // only execute if the SQL is not empty, null and is not just a bunch of
-      // spaces, tabs, CR etc.
-      if (!Utils.isEmpty(sql) && !Const.onlySpaces(sql)) {
-        execStatements(sql);
-        if (log.isDetailed()) {
-          log.logDetailed("Executed connect time SQL statements:" + Const.CR + sql);
-        }
+    // only execute if the SQL is not empty, null and is not just a bunch of
+    // spaces, tabs, CR etc.
+    if (!Utils.isEmpty(sql) && !Const.onlySpaces(sql)) {
+      execStatements(sql);
+      if (log.isDetailed()) {
+        log.logDetailed("Executed connect time SQL statements:" + Const.CR + sql);
       }
+    }
+  }
+
+  /**
+   * Borrow the connection from the pool of the resolved connection settings. New connections are
+   * opened with {@linkplain DriverManager} and get the connect SQL executed once.
+   *
+   * @param classname the JDBC driver class
+   */
+  private void connectUsingPool(String classname) throws HopDatabaseException {
+    loadDriverClass(classname);
+
+    String url;
+    Properties properties;
+    try {
+      url = resolve(databaseMeta.getURL(this));
+      properties = databaseMeta.getConnectionProperties(this);
+      url = addCredentials(url, properties);
     } catch (Exception e) {
-      throw new HopDatabaseException("Error occurred while trying to connect to the database", e);
+      throw new HopDatabaseException(
+          "Error connecting to database: (using class " + classname + ")", e);
     }
+    String connectSql = resolve(databaseMeta.getConnectSql());
+
+    int maximumSize =
+        Const.toInt(
+            resolve(databaseMeta.getMaximumPoolSize()),
+            DatabaseConnectionPool.DEFAULT_MAXIMUM_SIZE);
+    int maxWait =
+        Const.toInt(
+            resolve(databaseMeta.getPoolMaxWait()),
+            DatabaseConnectionPool.DEFAULT_MAX_WAIT_SECONDS);
+    int idleTimeout =
+        Const.toInt(
+            resolve(databaseMeta.getPoolIdleTimeout()),
+            DatabaseConnectionPool.DEFAULT_IDLE_TIMEOUT_SECONDS);
+    int validationTimeout =
+        Const.toInt(
+            resolve(databaseMeta.getPoolValidationTimeout()),
+            DatabaseConnectionPool.DEFAULT_VALIDATION_TIMEOUT_SECONDS);
+    int leakDetectionThreshold =
+        Const.toInt(
+            resolve(databaseMeta.getPoolLeakDetectionThreshold()),
+            DatabaseConnectionPool.DEFAULT_LEAK_DETECTION_THRESHOLD_SECONDS);
+
+    String key =
+        DatabaseConnectionPoolManager.createKey(
+            classname,
+            url,
+            properties,
+            connectSql,
+            maximumSize,
+            maxWait,
+            idleTimeout,
+            validationTimeout,
+            leakDetectionThreshold);
+    DatabaseConnectionPool pool =
+        DatabaseConnectionPoolManager.getInstance()
+            .getPool(
+                key,
+                () ->
+                    new DatabaseConnectionPool(
+                        databaseMeta.getName(),
+                        maximumSize,
+                        maxWait,
+                        idleTimeout,
+                        validationTimeout,
+                        leakDetectionThreshold));
+
+    final String poolUrl = url;
+    connection =
+        pool.borrow(
+            () -> {
+              log.logDebug("Connecting to database using URL: " + poolUrl);
+              connection = DriverManager.getConnection(poolUrl, properties);
+              try {
+                executeConnectSql();
+              } catch (Exception e) {
+                // The pool only gets its permit back, the new connection is ours to close
+                //
+                try {
+                  connection.close();
+                } catch (SQLException closeException) {
+                  e.addSuppressed(closeException);
+                }
+                connection = null;
+                throw e;
+              }
+              return connection;
+            },
+            log);
+    connectionPool = pool;
   }
 
   /**
@@ -425,10 +531,89 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
    * @return true if the connect was successful, false if something went wrong.
    */
   private void connectUsingClass(String classname, String partitionId) throws HopDatabaseException {
-    // Install and load the jdbc Driver
+    loadDriverClass(classname);
+
+    try {
+      // Open SSH tunnel if configured
+      String url;
+      if (databaseMeta.isSshTunnelEnabled() && !Utils.isEmpty(databaseMeta.getSshTunnelHost())) {
+        sshTunnelManager = new SshTunnelManager();
+        int localPort = sshTunnelManager.openTunnel(this, databaseMeta, log);
+
+        // Build URL using tunnel endpoint (localhost + forwarded port)
+        String tunnelUrl =
+            databaseMeta
+                .getIDatabase()
+                .getURL(
+                    "localhost",
+                    String.valueOf(localPort),
+                    resolve(databaseMeta.getDatabaseName()));
+        url = resolve(tunnelUrl);
+      } else {
+        url = resolve(databaseMeta.getURL(this));
+      }
+      log.logDebug("Connecting to database using URL: " + url);
+
+      Properties properties = databaseMeta.getConnectionProperties(this);
+      url = addCredentials(url, properties);
+
+      connection = DriverManager.getConnection(url, properties);
+    } catch (Exception e) {
+      throw new HopDatabaseException(
+          "Error connecting to database: (using class " + classname + ")", e);
+    }
+  }
+
+  /**
+   * Add the username and password to the connection properties.
+   *
+   * @return the URL, with the SQL Server instance name added if needed
+   */
+  private String addCredentials(String url, Properties properties) {
+    String username = resolve(databaseMeta.getUsername());
+    String password = Encr.decryptPasswordOptionallyEncrypted(resolve(databaseMeta.getPassword()));
+
+    if (databaseMeta.supportsOptionsInURL()) {
+      // Perhaps the username is in the URL or no username is required...
+      if (!Utils.isEmpty(username) || !Utils.isEmpty(password)) {
+        // Allow for empty username with given password, in this case username must be given with
+        // one variables
+        properties.put("user", Const.NVL(username, " "));
+        properties.put("password", Const.NVL(password, ""));
+        if (databaseMeta.getIDatabase().isMsSqlServerNativeVariant()) {
+          // Handle MSSQL Instance name. Would rather this was handled in the dialect
+          // but cannot (without refactor) get to variablespace for variable substitution from
+          // a BaseDatabaseMeta subclass.
+          String instance = resolve(databaseMeta.getSqlServerInstance());
+          if (!Utils.isEmpty(instance)) {
+            url += ";instanceName=" + instance;
+          }
+        }
+      }
+    } else {
+      if (!Utils.isEmpty(username)) {
+        properties.put("user", username);
+      }
+      if (!Utils.isEmpty(password)) {
+        properties.put("password", password);
+      }
+    }
+    return url;
+  }
+
+  /**
+   * Install and load the JDBC driver.
+   *
+   * @param classname for example "org.gjt.mm.mysql.Driver"
+   */
+  private void loadDriverClass(String classname) throws HopDatabaseException {
     IPlugin plugin =
         PluginRegistry.getInstance()
             .getPlugin(DatabasePluginType.class, databaseMeta.getIDatabase());
+    String loadedKey = (plugin == null ? "" : plugin.getIds()[0]) + ":" + classname;
+    if (loadedDriverClasses.contains(loadedKey)) {
+      return;
+    }
 
     try {
       synchronized (DriverManager.class) {
@@ -456,6 +641,7 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
           Class.forName(classname);
         }
       }
+      loadedDriverClasses.add(loadedKey);
     } catch (NoClassDefFoundError | ClassNotFoundException e) {
       throw new HopDatabaseException(
           BaseMessages.getString(
@@ -467,68 +653,6 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
     } catch (Exception e) {
       throw new HopDatabaseException("Exception while loading class", e);
     }
-
-    try {
-      // Open SSH tunnel if configured
-      String url;
-      if (databaseMeta.isSshTunnelEnabled() && !Utils.isEmpty(databaseMeta.getSshTunnelHost())) {
-        sshTunnelManager = new SshTunnelManager();
-        int localPort = sshTunnelManager.openTunnel(this, databaseMeta, log);
-
-        // Build URL using tunnel endpoint (localhost + forwarded port)
-        String tunnelUrl =
-            databaseMeta
-                .getIDatabase()
-                .getURL(
-                    "localhost",
-                    String.valueOf(localPort),
-                    resolve(databaseMeta.getDatabaseName()));
-        url = resolve(tunnelUrl);
-      } else {
-        url = resolve(databaseMeta.getURL(this));
-      }
-      log.logDebug("Connecting to database using URL: " + url);
-
-      String username = resolve(databaseMeta.getUsername());
-      String password =
-          Encr.decryptPasswordOptionallyEncrypted(resolve(databaseMeta.getPassword()));
-
-      Properties properties = databaseMeta.getConnectionProperties(this);
-
-      if (databaseMeta.supportsOptionsInURL()) {
-        if (!Utils.isEmpty(username) || !Utils.isEmpty(password)) {
-          // Allow for empty username with given password, in this case username must be given with
-          // one variables
-          properties.put("user", Const.NVL(username, " "));
-          properties.put("password", Const.NVL(password, ""));
-          if (databaseMeta.getIDatabase().isMsSqlServerNativeVariant()) {
-            // Handle MSSQL Instance name. Would rather this was handled in the dialect
-            // but cannot (without refactor) get to variablespace for variable substitution from
-            // a BaseDatabaseMeta subclass.
-            String instance = resolve(databaseMeta.getSqlServerInstance());
-            if (!Utils.isEmpty(instance)) {
-              url += ";instanceName=" + instance;
-            }
-          }
-          connection = DriverManager.getConnection(url, properties);
-        } else {
-          // Perhaps the username is in the URL or no username is required...
-          connection = DriverManager.getConnection(url, properties);
-        }
-      } else {
-        if (!Utils.isEmpty(username)) {
-          properties.put("user", username);
-        }
-        if (!Utils.isEmpty(password)) {
-          properties.put("password", password);
-        }
-
-        connection = DriverManager.getConnection(url, properties);
-      }
-    } catch (Exception e) {
-      throw new HopDatabaseException(
-          "Error connecting to database: (using class " + classname + ")", e);
-    }
   }
 
   /** close() and disconnect() are the same. */
@@ -544,6 +668,8 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
     }
     try {
       if (connection.isClosed()) {
+        // A borrowed connection still has to go back to its pool
+        releasePooledConnection();
         return; // Nothing to do...
       }
     } catch (SQLException ex) {
@@ -650,7 +776,9 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
    */
   public synchronized void closeConnectionOnly() throws HopDatabaseException {
     try {
-      if (connection != null) {
+      if (connectionPool != null) {
+        releasePooledConnection();
+      } else if (connection != null) {
         connection.close();
         connection = null;
       }
@@ -671,6 +799,18 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
     }
   }
 
+  /** Give a connection borrowed from a pool back instead of closing it. */
+  private void releasePooledConnection() {
+    if (connectionPool != null) {
+      connectionPool.release(connection);
+      if (log.isDetailed()) {
+        log.logDetailed("Connection given back to pool " + connectionPool);
+      }
+      connectionPool = null;
+      connection = null;
+    }
+  }
+
   /**
    * Cancel the open/running queries on the database connection
    *
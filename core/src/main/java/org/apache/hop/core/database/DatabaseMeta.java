@@ -2385,4 +2385,54 @@ public class DatabaseMeta extends HopMetadataBase implements Cloneable, IHopMeta
   public void setSshTunnelPassphrase(String passphrase) {
     iDatabase.setSshTunnelPassphrase(passphrase);
   }
+
+  // Connection pool delegation methods
+
+  public boolean isUsingConnectionPool() {
+    return iDatabase.isUsingConnectionPool();
+  }
+
+  public void setUsingConnectionPool(boolean usingConnectionPool) {
+    iDatabase.setUsingConnectionPool(usingConnectionPool);
+  }
+
+  public String getMaximumPoolSize() {
+    return iDatabase.getMaximumPoolSize();
+  }
+
+  public void setMaximumPoolSize(String maximumPoolSize) {
+    iDatabase.setMaximumPoolSize(maximumPoolSize);
+  }
+
+  public String getPoolMaxWait() {
+    return iDatabase.getPoolMaxWait();
+  }
+
+  public void setPoolMaxWait(String poolMaxWait) {
+    iDatabase.setPoolMaxWait(poolMaxWait);
+  }
+
+  public String getPoolIdleTimeout() {
+    return iDatabase.getPoolIdleTimeout();
+  }
+
+  public void setPoolIdleTimeout(String poolIdleTimeout) {
+    iDatabase.setPoolIdleTimeout(poolIdleTimeout);
+  }
+
+  public String getPoolValidationTimeout() {
+    return iDatabase.getPoolValidationTimeout();
+  }
+
+  public void setPoolValidationTimeout(String poolValidationTimeout) {
+    iDatabase.setPoolValidationTimeout(poolValidationTimeout);
+  }
+
+  public String getPoolLeakDetectionThreshold() {
+    return iDatabase.getPoolLeakDetectionThreshold();
+  }
+
+  public void setPoolLeakDetectionThreshold(String poolLeakDetectionThreshold) {
+    iDatabase.setPoolLeakDetectionThreshold(poolLeakDetectionThreshold);
+  }
 }
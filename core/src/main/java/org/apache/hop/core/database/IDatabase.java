@@ -1255,4 +1255,63 @@ public interface IDatabase extends Cloneable {
   String getSshTunnelPassphrase();
 
   void setSshTunnelPassphrase(String passphrase);
+
+  // Connection pool configuration methods. The defaults keep database types which don't store
+  // pool settings on a connection which is opened and closed every time.
+
+  /**
+   * @return true if connections are borrowed from a pool shared by all users of the same connection
+   *     settings instead of opened and closed every time
+   */
+  default boolean isUsingConnectionPool() {
+    return false;
+  }
+
+  default void setUsingConnectionPool(boolean usingConnectionPool) {}
+
+  /**
+   * @return the maximum number of connections in the pool, opened or borrowed
+   */
+  default String getMaximumPoolSize() {
+    return null;
+  }
+
+  default void setMaximumPoolSize(String maximumPoolSize) {}
+
+  /**
+   * @return the number of seconds to wait for a connection when all connections are borrowed
+   */
+  default String getPoolMaxWait() {
+    return null;
+  }
+
+  default void setPoolMaxWait(String poolMaxWait) {}
+
+  /**
+   * @return the number of seconds after which an unused connection in the pool is closed
+   */
+  default String getPoolIdleTimeout() {
+    return null;
+  }
+
+  default void setPoolIdleTimeout(String poolIdleTimeout) {}
+
+  /**
+   * @return the number of seconds to wait for the database to validate a connection
+   */
+  default String getPoolValidationTimeout() {
+    return null;
+  }
+
+  default void setPoolValidationTimeout(String poolValidationTimeout) {}
+
+  /**
+   * @return the number of seconds after which a borrowed connection is reported as a possible leak,
+   *     0 to disable the detection
+   */
+  default String getPoolLeakDetectionThreshold() {
+    return null;
+  }
+
+  default void setPoolLeakDetectionThreshold(String poolLeakDetectionThreshold) {}
 }
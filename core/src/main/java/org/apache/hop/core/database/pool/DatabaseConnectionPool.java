@@ -0,0 +1,588 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import lombok.Getter;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.logging.LogChannel;
+import org.apache.hop.core.logging.Metrics;
+import org.apache.hop.i18n.BaseMessages;
+
+/**
+ * A pool of JDBC connections with the same connection settings. Connections are borrowed by a
+ * {@link Database} when it connects and given back when it disconnects, the physical connection
+ * stays open for the next borrower.
+ *
+ * <p>A connection which wasn't used for a while is validated before it is handed out again. Idle
+ * connections are closed after the idle timeout and borrowed connections which aren't given back
+ * within the leak detection threshold are reported together with the place where they were
+ * borrowed. Both checks run from {@link DatabaseConnectionPoolManager}.
+ */
+public class DatabaseConnectionPool {
+  private static final Class<?> PKG = Database.class;
+
+  public static final int DEFAULT_MAXIMUM_SIZE = 10;
+  public static final int DEFAULT_MAX_WAIT_SECONDS = 30;
+  public static final int DEFAULT_IDLE_TIMEOUT_SECONDS = 600;
+  public static final int DEFAULT_VALIDATION_TIMEOUT_SECONDS = 5;
+  public static final int DEFAULT_LEAK_DETECTION_THRESHOLD_SECONDS = 0;
+
+  /** A connection given back less than this number of milliseconds ago isn't validated again. */
+  private static final long VALIDATION_BYPASS_MILLIS = 500L;
+
+  /** Opens a new physical connection when the pool has no idle connection to hand out. */
+  @FunctionalInterface
+  public interface IConnectionFactory {
+    Connection createConnection() throws Exception;
+  }
+
+  private static final class IdleConnection {
+    private final Connection connection;
+    private final long idleSince;
+
+    private IdleConnection(Connection connection, long idleSince) {
+      this.connection = connection;
+      this.idleSince = idleSince;
+    }
+  }
+
+  /**
+   * The session settings of a connection when it was opened. A borrower which changes them doesn't
+   * pass them on to the next one. A setting the driver doesn't support is null and isn't restored.
+   */
+  private static final class InitialSettings {
+    private final Boolean readOnly;
+    private final Integer transactionIsolation;
+    private final String catalog;
+    private final String schema;
+
+    private InitialSettings(Connection connection) {
+      readOnly = read(connection::isReadOnly);
+      transactionIsolation = read(connection::getTransactionIsolation);
+      catalog = read(connection::getCatalog);
+      schema = read(connection::getSchema);
+    }
+
+    private static <T> T read(ISetting<T> setting) {
+      try {
+        return setting.get();
+      } catch (SQLException | AbstractMethodError e) {
+        // Not supported by the driver
+        return null;
+      }
+    }
+
+    private void restore(Connection connection) throws SQLException {
+      if (readOnly != null && connection.isReadOnly() != readOnly) {
+        connection.setReadOnly(readOnly);
+      }
+      if (transactionIsolation != null
+          && connection.getTransactionIsolation() != transactionIsolation) {
+        connection.setTransactionIsolation(transactionIsolation);
+      }
+      if (catalog != null && !catalog.equals(connection.getCatalog())) {
+        connection.setCatalog(catalog);
+      }
+      if (schema != null && !schema.equals(connection.getSchema())) {
+        connection.setSchema(schema);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface ISetting<T> {
+    T get() throws SQLException;
+  }
+
+  private static final class Lease {
+    private final long borrowedAt;
+    private final String threadName;
+
+    /** Where the connection was borrowed, only kept when leak detection is enabled. */
+    private final Throwable borrowedFrom;
+
+    private boolean reported;
+
+    private Lease(long borrowedAt, String threadName, Throwable borrowedFrom) {
+      this.borrowedAt = borrowedAt;
+      this.threadName = threadName;
+      this.borrowedFrom = borrowedFrom;
+    }
+  }
+
+  private final ILogChannel log;
+
+  /** The current time in milliseconds */
+  private final LongSupplier clock;
+
+  /** The name of the database connection, for logging and metrics */
+  @Getter private final String name;
+
+  @Getter private final int maximumSize;
+  @Getter private final long maxWaitMillis;
+  @Getter private final long idleTimeoutMillis;
+  @Getter private final int validationTimeoutSeconds;
+  @Getter private final long leakDetectionThresholdMillis;
+
+  /** A permit for every connection which can be borrowed */
+  private final Semaphore permits;
+
+  /** The connections ready to be borrowed, the most recently used first. */
+  private final Deque<IdleConnection> idle = new ArrayDeque<>();
+
+  private final Map<Connection, Lease> leased = new IdentityHashMap<>();
+
+  /** The settings of every open connection, idle or borrowed */
+  private final Map<Connection, InitialSettings> initialSettings = new IdentityHashMap<>();
+
+  private volatile boolean closed;
+
+  private final AtomicLong createdCount = new AtomicLong();
+  private final AtomicLong borrowedCount = new AtomicLong();
+  private final AtomicLong destroyedCount = new AtomicLong();
+  private final AtomicLong validationFailureCount = new AtomicLong();
+  private final AtomicLong timeoutCount = new AtomicLong();
+  private final AtomicLong leakCount = new AtomicLong();
+  private final AtomicLong waitNanos = new AtomicLong();
+
+  /**
+   * @param name the name of the database connection
+   * @param maximumSize the maximum number of connections, idle or borrowed
+   * @param maxWaitSeconds the number of seconds to wait for a connection when all are borrowed
+   * @param idleTimeoutSeconds the number of seconds after which an idle connection is closed, 0 to
+   *     keep idle connections open
+   * @param validationTimeoutSeconds the number of seconds to wait for a connection to validate
+   * @param leakDetectionThresholdSeconds the number of seconds after which a borrowed connection is
+   *     reported as a possible leak, 0 to disable the detection
+   */
+  public DatabaseConnectionPool(
+      String name,
+      int maximumSize,
+      int maxWaitSeconds,
+      int idleTimeoutSeconds,
+      int validationTimeoutSeconds,
+      int leakDetectionThresholdSeconds) {
+    this(
+        name,
+        maximumSize,
+        maxWaitSeconds,
+        idleTimeoutSeconds,
+        validationTimeoutSeconds,
+        leakDetectionThresholdSeconds,
+        System::currentTimeMillis);
+  }
+
+  /**
+   * @param name the name of the database connection
+   * @param maximumSize the maximum number of connections, idle or borrowed
+   * @param maxWaitSeconds the number of seconds to wait for a connection when all are borrowed
+   * @param idleTimeoutSeconds the number of seconds after which an idle connection is closed, 0 to
+   *     keep idle connections open
+   * @param validationTimeoutSeconds the number of seconds to wait for a connection to validate
+   * @param leakDetectionThresholdSeconds the number of seconds after which a borrowed connection is
+   *     reported as a possible leak, 0 to disable the detection
+   * @param clock the current time in milliseconds, for the idle timeout and the leak detection
+   */
+  public DatabaseConnectionPool(
+      String name,
+      int maximumSize,
+      int maxWaitSeconds,
+      int idleTimeoutSeconds,
+      int validationTimeoutSeconds,
+      int leakDetectionThresholdSeconds,
+      LongSupplier clock) {
+    this.log = new LogChannel("Connection pool " + name);
+    this.clock = clock;
+    this.name = name;
+    this.maximumSize = Math.max(1, maximumSize);
+    this.maxWaitMillis = Math.max(0, maxWaitSeconds) * 1000L;
+    this.idleTimeoutMillis = Math.max(0, idleTimeoutSeconds) * 1000L;
+    this.validationTimeoutSeconds = Math.max(0, validationTimeoutSeconds);
+    this.leakDetectionThresholdMillis = Math.max(0, leakDetectionThresholdSeconds) * 1000L;
+    this.permits = new Semaphore(this.maximumSize, true);
+  }
+
+  /**
+   * Borrow a connection. An idle connection is handed out if one validates, otherwise the factory
+   * opens a new one.
+   *
+   * @param factory opens a new physical connection
+   * @return the borrowed connection, give it back with {@link #release(Connection)}
+   * @throws HopDatabaseException when no connection is available within the maximum wait time or a
+   *     new connection can't be opened
+   */
+  public Connection borrow(IConnectionFactory factory) throws HopDatabaseException {
+    return borrow(factory, null);
+  }
+
+  /**
+   * Borrow a connection. An idle connection is handed out if one validates, otherwise the factory
+   * opens a new one. The time waited and whether a connection was reused or opened are recorded as
+   * metrics of the borrower.
+   *
+   * @param factory opens a new physical connection
+   * @param metricsLog the log channel of the borrower to record the metrics on, or null
+   * @return the borrowed connection, give it back with {@link #release(Connection)}
+   * @throws HopDatabaseException when no connection is available within the maximum wait time or a
+   *     new connection can't be opened
+   */
+  public Connection borrow(IConnectionFactory factory, ILogChannel metricsLog)
+      throws HopDatabaseException {
+    if (closed) {
+      throw new HopDatabaseException(
+          BaseMessages.getString(PKG, "Database.Exception.ConnectionPoolClosed", name));
+    }
+    long start = System.nanoTime();
+    try {
+      if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+        timeoutCount.incrementAndGet();
+        throw new HopDatabaseException(
+            BaseMessages.getString(
+                PKG,
+                "Database.Exception.ConnectionPoolExhausted",
+                name,
+                Integer.toString(maximumSize),
+                Long.toString(maxWaitMillis / 1000)));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopDatabaseException(
+          BaseMessages.getString(PKG, "Database.Exception.ConnectionPoolInterrupted", name), e);
+    } finally {
+      long waited = System.nanoTime() - start;
+      waitNanos.addAndGet(waited);
+      if (metricsLog != null) {
+        metricsLog.snap(
+            Metrics.METRIC_DATABASE_CONNECTION_POOL_WAIT_TIME,
+            TimeUnit.NANOSECONDS.toMillis(waited));
+      }
+    }
+
+    try {
+      IdleConnection candidate;
+      while ((candidate = pollIdle()) != null) {
+        if (isValid(candidate)) {
+          if (metricsLog != null) {
+            metricsLog.snap(Metrics.METRIC_DATABASE_CONNECTION_POOL_REUSE_COUNT, 1L);
+          }
+          return lease(candidate.connection);
+        }
+        validationFailureCount.incrementAndGet();
+        destroy(candidate.connection);
+      }
+      Connection connection = factory.createConnection();
+      createdCount.incrementAndGet();
+      InitialSettings settings = new InitialSettings(connection);
+      synchronized (this) {
+        initialSettings.put(connection, settings);
+      }
+      if (metricsLog != null) {
+        metricsLog.snap(Metrics.METRIC_DATABASE_CONNECTION_POOL_CREATE_COUNT, 1L);
+      }
+      return lease(connection);
+    } catch (HopDatabaseException e) {
+      permits.release();
+      throw e;
+    } catch (Exception e) {
+      permits.release();
+      throw new HopDatabaseException(
+          BaseMessages.getString(PKG, "Database.Exception.ConnectionPoolCreateFailed", name), e);
+    } catch (Error e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Give a borrowed connection back. Open transactions are rolled back, auto-commit is turned back
+   * on and the read-only flag, transaction isolation, catalog and schema are set back to their
+   * values when the connection was opened. A connection which is closed or can't be reset is closed
+   * and replaced later.
+   *
+   * @param connection the borrowed connection
+   */
+  public void release(Connection connection) {
+    if (connection == null) {
+      return;
+    }
+    Lease lease;
+    synchronized (this) {
+      lease = leased.remove(connection);
+    }
+    if (lease == null) {
+      // Not borrowed from this pool, or given back twice
+      return;
+    }
+    try {
+      if (!closed && reset(connection)) {
+        synchronized (this) {
+          if (!closed) {
+            idle.addFirst(new IdleConnection(connection, clock.getAsLong()));
+            return;
+          }
+        }
+      }
+      destroy(connection);
+    } finally {
+      permits.release();
+    }
+  }
+
+  /** Close the idle connections which weren't used within the idle timeout. */
+  public void evictIdleConnections() {
+    if (idleTimeoutMillis <= 0) {
+      return;
+    }
+    long threshold = clock.getAsLong() - idleTimeoutMillis;
+    List<Connection> evicted = new ArrayList<>();
+    synchronized (this) {
+      // The least recently used connections are at the end
+      Iterator<IdleConnection> iterator = idle.descendingIterator();
+      while (iterator.hasNext()) {
+        IdleConnection idleConnection = iterator.next();
+        if (idleConnection.idleSince > threshold) {
+          break;
+        }
+        iterator.remove();
+        evicted.add(idleConnection.connection);
+      }
+    }
+    for (Connection connection : evicted) {
+      destroy(connection);
+    }
+  }
+
+  /**
+   * Report the connections which are borrowed longer than the leak detection threshold. Every
+   * connection is reported once.
+   */
+  public void detectLeaks() {
+    if (leakDetectionThresholdMillis <= 0) {
+      return;
+    }
+    long threshold = clock.getAsLong() - leakDetectionThresholdMillis;
+    List<Lease> leaks = new ArrayList<>();
+    synchronized (this) {
+      for (Lease lease : leased.values()) {
+        if (!lease.reported && lease.borrowedAt <= threshold) {
+          lease.reported = true;
+          leaks.add(lease);
+        }
+      }
+    }
+    for (Lease lease : leaks) {
+      leakCount.incrementAndGet();
+      log.logError(
+          BaseMessages.getString(
+              PKG,
+              "Database.Log.ConnectionPoolLeak",
+              name,
+              lease.threadName,
+              Long.toString((clock.getAsLong() - lease.borrowedAt) / 1000)),
+          lease.borrowedFrom);
+    }
+  }
+
+  /**
+   * Close the pool and its idle connections. Borrowed connections are closed when they are given
+   * back.
+   */
+  public void close() {
+    List<IdleConnection> toClose;
+    synchronized (this) {
+      closed = true;
+      toClose = new ArrayList<>(idle);
+      idle.clear();
+    }
+    for (IdleConnection idleConnection : toClose) {
+      destroy(idleConnection.connection);
+    }
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * @return the number of borrowed connections
+   */
+  public synchronized int getActiveCount() {
+    return leased.size();
+  }
+
+  /**
+   * @return the number of open connections which aren't borrowed
+   */
+  public synchronized int getIdleCount() {
+    return idle.size();
+  }
+
+  /**
+   * @return the number of physical connections opened by the pool
+   */
+  public long getCreatedCount() {
+    return createdCount.get();
+  }
+
+  /**
+   * @return the number of times a connection was borrowed
+   */
+  public long getBorrowedCount() {
+    return borrowedCount.get();
+  }
+
+  /**
+   * @return the number of physical connections closed by the pool
+   */
+  public long getDestroyedCount() {
+    return destroyedCount.get();
+  }
+
+  /**
+   * @return the number of idle connections which failed to validate
+   */
+  public long getValidationFailureCount() {
+    return validationFailureCount.get();
+  }
+
+  /**
+   * @return the number of times no connection became available within the maximum wait time
+   */
+  public long getTimeoutCount() {
+    return timeoutCount.get();
+  }
+
+  /**
+   * @return the number of borrowed connections reported as a possible leak
+   */
+  public long getLeakCount() {
+    return leakCount.get();
+  }
+
+  /**
+   * @return the total number of milliseconds borrowers waited for a connection
+   */
+  public long getWaitMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(waitNanos.get());
+  }
+
+  @Override
+  public String toString() {
+    return name
+        + " [active="
+        + getActiveCount()
+        + ", idle="
+        + getIdleCount()
+        + ", maximum="
+        + maximumSize
+        + ", created="
+        + getCreatedCount()
+        + ", borrowed="
+        + getBorrowedCount()
+        + ", timeouts="
+        + getTimeoutCount()
+        + ", leaks="
+        + getLeakCount()
+        + "]";
+  }
+
+  private synchronized IdleConnection pollIdle() {
+    return idle.pollFirst();
+  }
+
+  private Connection lease(Connection connection) {
+    Throwable borrowedFrom =
+        leakDetectionThresholdMillis > 0
+            ? new Throwable("Connection borrowed from pool " + name)
+            : null;
+    Lease lease = new Lease(clock.getAsLong(), Thread.currentThread().getName(), borrowedFrom);
+    synchronized (this) {
+      leased.put(connection, lease);
+    }
+    borrowedCount.incrementAndGet();
+    return connection;
+  }
+
+  private boolean isValid(IdleConnection idleConnection) {
+    try {
+      if (clock.getAsLong() - idleConnection.idleSince < VALIDATION_BYPASS_MILLIS) {
+        return !idleConnection.connection.isClosed();
+      }
+      return idleConnection.connection.isValid(validationTimeoutSeconds);
+    } catch (SQLException e) {
+      if (log.isDebug()) {
+        log.logDebug("Connection failed to validate: " + e.getMessage());
+      }
+      return false;
+    }
+  }
+
+  private boolean reset(Connection connection) {
+    InitialSettings settings;
+    synchronized (this) {
+      settings = initialSettings.get(connection);
+    }
+    try {
+      if (connection.isClosed()) {
+        return false;
+      }
+      if (!connection.getAutoCommit()) {
+        connection.rollback();
+        connection.setAutoCommit(true);
+      }
+      if (settings != null) {
+        settings.restore(connection);
+      }
+      connection.clearWarnings();
+      return true;
+    } catch (SQLException e) {
+      if (log.isDebug()) {
+        log.logDebug("Unable to reset connection, closing it: " + e.getMessage());
+      }
+      return false;
+    }
+  }
+
+  private void destroy(Connection connection) {
+    synchronized (this) {
+      initialSettings.remove(connection);
+    }
+    destroyedCount.incrementAndGet();
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      log.logError("Error closing pooled connection:" + Const.CR + e.getMessage());
+    }
+  }
+}
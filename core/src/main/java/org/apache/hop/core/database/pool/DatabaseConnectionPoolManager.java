@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database.pool;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopRuntimeException;
+import org.apache.hop.core.logging.LogChannel;
+
+/**
+ * Keeps one {@link DatabaseConnectionPool} per resolved connection identity: the driver, URL,
+ * connection properties including the credentials, the connect SQL and the pool settings. Two
+ * database connections with the same resolved settings share a pool.
+ *
+ * <p>A background thread evicts idle connections and reports leaked connections of all pools.
+ */
+public class DatabaseConnectionPoolManager {
+
+  private static final long HOUSEKEEPING_INTERVAL_SECONDS = 10L;
+
+  private static final DatabaseConnectionPoolManager INSTANCE = new DatabaseConnectionPoolManager();
+
+  private final ConcurrentMap<String, DatabaseConnectionPool> pools = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService housekeeper;
+
+  public static DatabaseConnectionPoolManager getInstance() {
+    return INSTANCE;
+  }
+
+  private DatabaseConnectionPoolManager() {}
+
+  /**
+   * Get the pool for a connection identity or create it.
+   *
+   * @param key the connection identity, see {@link #createKey(String, String, Properties, String,
+   *     int...)}
+   * @param creator creates the pool if there is none for the key
+   * @return the pool
+   */
+  public DatabaseConnectionPool getPool(String key, Supplier<DatabaseConnectionPool> creator) {
+    DatabaseConnectionPool pool = pools.get(key);
+    if (pool == null || pool.isClosed()) {
+      pool =
+          pools.compute(
+              key,
+              (k, existing) -> existing == null || existing.isClosed() ? creator.get() : existing);
+      startHousekeeping();
+    }
+    return pool;
+  }
+
+  /**
+   * @return the pools in use
+   */
+  public List<DatabaseConnectionPool> getPools() {
+    return new ArrayList<>(pools.values());
+  }
+
+  /** Close all pools and their idle connections, for example when shutting down. */
+  public synchronized void closeAll() {
+    for (DatabaseConnectionPool pool : pools.values()) {
+      pool.close();
+    }
+    pools.clear();
+    if (housekeeper != null) {
+      housekeeper.shutdownNow();
+      housekeeper = null;
+    }
+  }
+
+  /**
+   * Create the key which identifies a pool. The credentials end up in the key so it's hashed.
+   *
+   * @param driverClass the JDBC driver class
+   * @param url the resolved JDBC URL
+   * @param properties the resolved connection properties, including user and password
+   * @param connectSql the resolved SQL executed on every new connection
+   * @param poolSettings the resolved pool settings
+   * @return the key
+   */
+  public static String createKey(
+      String driverClass,
+      String url,
+      Properties properties,
+      String connectSql,
+      int... poolSettings) {
+    StringBuilder identity = new StringBuilder();
+    identity.append(driverClass).append('\n').append(url).append('\n');
+    // Sort the properties so the same settings always give the same key
+    TreeMap<String, String> sorted = new TreeMap<>();
+    for (String name : properties.stringPropertyNames()) {
+      sorted.put(name, properties.getProperty(name));
+    }
+    identity.append(sorted).append('\n').append(Const.NVL(connectSql, "")).append('\n');
+    for (int setting : poolSettings) {
+      identity.append(setting).append(',');
+    }
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of()
+          .formatHex(digest.digest(identity.toString().getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new HopRuntimeException(e);
+    }
+  }
+
+  private synchronized void startHousekeeping() {
+    if (housekeeper != null) {
+      return;
+    }
+    housekeeper =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "Database connection pool housekeeping");
+              thread.setDaemon(true);
+              return thread;
+            });
+    housekeeper.scheduleWithFixedDelay(
+        this::housekeeping,
+        HOUSEKEEPING_INTERVAL_SECONDS,
+        HOUSEKEEPING_INTERVAL_SECONDS,
+        TimeUnit.SECONDS);
+  }
+
+  void housekeeping() {
+    for (DatabaseConnectionPool pool : pools.values()) {
+      try {
+        pool.evictIdleConnections();
+        pool.detectLeaks();
+      } catch (Exception e) {
+        LogChannel.GENERAL.logError("Error checking connection pool " + pool.getName(), e);
+      }
+    }
+  }
+}
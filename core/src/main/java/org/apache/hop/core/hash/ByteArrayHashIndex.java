@@ -17,28 +17,36 @@
 
 package org.apache.hop.core.hash;
 
+import java.util.Arrays;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.RowMeta;
 
+/**
+ * A hash index of serialized keys and values, see {@link RowMeta#extractData(IRowMeta, Object[])}.
+ * Keys are equal when their bytes are equal, so they are hashed and compared in their serialized
+ * form without turning them back into rows. The entries are stored in flat arrays with open
+ * addressing (linear probing) rather than in an entry object per key.
+ */
 public class ByteArrayHashIndex {
 
   private static final int STANDARD_INDEX_SIZE = 512;
   private static final float STANDARD_LOAD_FACTOR = 0.78f;
 
-  private IRowMeta keyRowMeta;
-  private ByteArrayHashIndexEntry[] index;
+  private int[] hashes;
+  private byte[][] keys;
+  private byte[][] values;
   private int count;
   private int resizeThresHold;
 
   /**
    * Create a Byte array hash index to store row
    *
-   * @param keyRowMeta
+   * @param keyRowMeta the metadata of the keys. The keys are hashed and compared in their
+   *     serialized form so the metadata isn't needed for that.
+   * @param size the initial size of the index, rounded up to a power of 2
    */
   public ByteArrayHashIndex(IRowMeta keyRowMeta, int size) {
-    this.keyRowMeta = keyRowMeta;
-
     // Find a suitable capacity being a factor of 2:
     int factor2Size = 1;
     while (factor2Size < size) {
@@ -46,9 +54,7 @@ public class ByteArrayHashIndex {
     }
 
     this.count = 0;
-    this.resizeThresHold = (int) (factor2Size * STANDARD_LOAD_FACTOR);
-
-    index = new ByteArrayHashIndexEntry[factor2Size];
+    allocate(factor2Size);
   }
 
   public ByteArrayHashIndex(IRowMeta keyRowMeta) {
@@ -56,7 +62,7 @@ public class ByteArrayHashIndex {
   }
 
   public int getSize() {
-    return index.length;
+    return keys.length;
   }
 
   public int getCount() {
@@ -68,198 +74,105 @@ public class ByteArrayHashIndex {
   }
 
   public byte[] get(byte[] key) throws HopValueException {
-    int hashCode = generateHashCode(key, keyRowMeta);
-
-    int indexPointer = hashCode & (index.length - 1);
-    ByteArrayHashIndexEntry check = index[indexPointer];
+    int hashCode = hashCode(key);
+    int mask = keys.length - 1;
 
-    while (check != null) {
-      if (check.hashCode == hashCode && equalsByteArray(check.key, key)) {
-        return check.value;
+    // There is always at least one free slot, so the probing ends
+    //
+    for (int i = hashCode & mask; ; i = (i + 1) & mask) {
+      byte[] check = keys[i];
+      if (check == null) {
+        return null;
+      }
+      if (hashes[i] == hashCode && equalsByteArray(check, key)) {
+        return values[i];
       }
-      check = check.nextEntry;
     }
-    return null;
   }
 
   public static final boolean equalsByteArray(byte[] value, byte[] cmpValue) {
-    if (value.length != cmpValue.length) {
-      return false;
-    }
-    for (int i = value.length - 1; i >= 0; i--) {
-      if (value[i] != cmpValue[i]) {
-        return false;
-      }
-    }
-    return true;
+    return Arrays.equals(value, cmpValue);
   }
 
   public void put(byte[] key, byte[] value) throws HopValueException {
-    int hashCode = generateHashCode(key, keyRowMeta);
-    int indexPointer = hashCode & (index.length - 1);
+    int hashCode = hashCode(key);
+    int mask = keys.length - 1;
 
-    // If home is empty, place entry there and done
-    //
-    ByteArrayHashIndexEntry check = index[indexPointer];
-    if (check == null) {
-      index[indexPointer] = new ByteArrayHashIndexEntry(hashCode, key, value, index[indexPointer]);
-      resize();
-      return;
-    }
-
-    ByteArrayHashIndexEntry previousCheck = null;
-    do {
+    int i = hashCode & mask;
+    for (; keys[i] != null; i = (i + 1) & mask) {
       // If there is an identical entry in there, we replace the value.
-      // And then we just return...
       //
-      if (check.hashCode == hashCode && equalsByteArray(check.key, key)) {
-        check.value = value;
+      if (hashes[i] == hashCode && equalsByteArray(keys[i], key)) {
+        values[i] = value;
         return;
       }
-      previousCheck = check;
-      check = check.nextEntry;
-    } while (check != null);
-
-    // If we are still here, that means that we are ready to put the value down...
-    // Where do we need to search for an empty spot in the index?
-    //
-    int len = index.length;
-    while (true) {
-      indexPointer++;
-      if (indexPointer >= len) {
-        indexPointer = 0;
-      }
-      if (index[indexPointer] == null) {
-        break;
-      }
     }
 
-    // OK, now that we know where to put the entry, insert it...
-    //
-    index[indexPointer] = new ByteArrayHashIndexEntry(hashCode, key, value, index[indexPointer]);
-
-    // Don't forget to link to the previous check entry if there was any...
-    //
-    if (previousCheck != null) {
-      previousCheck.nextEntry = index[indexPointer];
-    }
+    hashes[i] = hashCode;
+    keys[i] = key;
+    values[i] = value;
 
     // If required, resize the table...
     //
-    resize();
-  }
-
-  private final void resize() {
-    // Increase the size of the index...
-    //
     count++;
-
-    // See if we've reached our resize threshold...
-    //
     if (count >= resizeThresHold) {
+      resize();
+    }
+  }
 
-      ByteArrayHashIndexEntry[] oldIndex = index;
-
-      // Double the size to keep the size of the index a factor of 2...
-      // Allocate the new array...
-      //
-      int newSize = 2 * index.length;
-
-      ByteArrayHashIndexEntry[] newIndex = new ByteArrayHashIndexEntry[newSize];
-      int mask = newSize - 1;
-
-      // Loop over the old index and re-distribute the entries
-      // We want to make sure that the calculation
-      // entry.hashCode & ( size - 1)
-      // ends up in the right location after re-sizing...
-      //
-      for (int i = 0; i < oldIndex.length; i++) {
-        ByteArrayHashIndexEntry entry = oldIndex[i];
-
-        if (entry != null) {
-          oldIndex[i] = null;
-          entry.nextEntry = null; // we assume there is plenty of room in the new index...
+  private void allocate(int size) {
+    hashes = new int[size];
+    keys = new byte[size][];
+    values = new byte[size][];
+    resizeThresHold = (int) (size * STANDARD_LOAD_FACTOR);
+  }
 
-          // Make sure we follow all the linked entries...
-          // TODO This is a lot of extra work, see how we can avoid it!
-          //
-          int newIndexPointer = entry.hashCode & mask;
+  /** Double the size of the index to keep the size a factor of 2 and re-distribute the entries */
+  private void resize() {
+    int[] oldHashes = hashes;
+    byte[][] oldKeys = keys;
+    byte[][] oldValues = values;
 
-          // Make sure on this new index pointer, we have room to put the entry
-          //
-          ByteArrayHashIndexEntry check = newIndex[newIndexPointer];
-          if (check == null) {
-            // Yes, plenty of room
-            //
-            newIndex[newIndexPointer] = entry;
-          } else {
-            // No, we need to look for a nice spot to put the hash entry...
-            //
-            ByteArrayHashIndexEntry previousCheck = null;
-            do {
-              previousCheck = check;
-              check = check.nextEntry;
-            } while (check != null);
+    allocate(2 * oldKeys.length);
+    int mask = keys.length - 1;
 
-            while (newIndex[newIndexPointer] != null) {
-              newIndexPointer++;
-              if (newIndexPointer >= newSize) {
-                newIndexPointer = 0;
-              }
-            }
-            // OK, now that we have a nice spot to put the entry, link the previous check entry to
-            // this one...
-            //
-            previousCheck.nextEntry = entry;
-            newIndex[newIndexPointer] = entry;
-          }
+    for (int o = 0; o < oldKeys.length; o++) {
+      if (oldKeys[o] != null) {
+        int i = oldHashes[o] & mask;
+        while (keys[i] != null) {
+          i = (i + 1) & mask;
         }
+        hashes[i] = oldHashes[o];
+        keys[i] = oldKeys[o];
+        values[i] = oldValues[o];
       }
-
-      // Replace the old index with the new one we just created...
-      //
-      index = newIndex;
-
-      // Also change the resize threshold...
-      //
-      resizeThresHold = (int) (newSize * STANDARD_LOAD_FACTOR);
     }
   }
 
+  /**
+   * Calculate the hash code of a serialized key. {@link Arrays#hashCode(byte[])} is vectorized by
+   * the JIT compiler, the MurmurHash3 finalizer spreads its bits so that keys which only differ in
+   * their last bytes don't end up in neighbouring slots.
+   *
+   * @param key the serialized key
+   * @return the hash code
+   */
+  public static int hashCode(byte[] key) {
+    int h = Arrays.hashCode(key);
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  /**
+   * @deprecated The keys are hashed in their serialized form, use {@link #hashCode(byte[])}
+   */
+  @Deprecated(since = "2.19.0")
   public static int generateHashCode(byte[] key, IRowMeta rowMeta) throws HopValueException {
     Object[] rowData = RowMeta.getRow(rowMeta, key);
     return rowMeta.hashCode(rowData);
   }
-
-  private static final class ByteArrayHashIndexEntry {
-    private int hashCode;
-    private byte[] key;
-    private byte[] value;
-    private ByteArrayHashIndexEntry nextEntry;
-
-    /**
-     * @param hashCode
-     * @param key
-     * @param value
-     * @param nextEntry
-     */
-    public ByteArrayHashIndexEntry(
-        int hashCode, byte[] key, byte[] value, ByteArrayHashIndexEntry nextEntry) {
-      this.hashCode = hashCode;
-      this.key = key;
-      this.value = value;
-      this.nextEntry = nextEntry;
-    }
-
-    /**
-     * The row is the same if the value is the same The data types are the same so no error is made
-     * here.
-     */
-    @Override
-    public boolean equals(Object obj) {
-      ByteArrayHashIndexEntry e = (ByteArrayHashIndexEntry) obj;
-
-      return equalsByteArray(e.value, value);
-    }
-  }
 }
@@ -21,9 +21,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import org.apache.commons.collections4.map.AbstractHashedMap;
-import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
-import org.apache.hop.core.row.RowMeta;
 
 public class ByteArrayHashMap extends AbstractHashedMap {
   private IRowMeta keyMeta;
@@ -53,15 +51,7 @@ public class ByteArrayHashMap extends AbstractHashedMap {
   }
 
   public final boolean equalsByteArray(byte[] value, byte[] cmpValue) {
-    if (value.length == cmpValue.length) {
-      for (int i = 0; i < value.length; i++) {
-        if (value[i] != cmpValue[i]) {
-          return false;
-        }
-      }
-      return true;
-    }
-    return false;
+    return ByteArrayHashIndex.equalsByteArray(value, cmpValue);
   }
 
   /**
@@ -102,14 +92,10 @@ public class ByteArrayHashMap extends AbstractHashedMap {
     super.put(key, value);
   }
 
+  /** The keys are equal when their bytes are equal, so they are hashed without deserializing */
   @Override
   protected int hash(Object key) {
-    byte[] rowKey = (byte[]) key;
-    try {
-      return keyMeta.hashCode(RowMeta.getRow(keyMeta, rowKey));
-    } catch (HopValueException ex) {
-      throw new IllegalArgumentException(ex);
-    }
+    return ByteArrayHashIndex.hashCode((byte[]) key);
   }
 
   public List<byte[]> getKeys() {
@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * An immutable hash index of serialized keys and values (see {@link ByteArrayHashIndex}) stored in
+ * a file which is mapped into memory. The entries are read from the OS page cache rather than from
+ * the Java heap, so a large index doesn't need a large heap, the same file can be shared by many
+ * readers and it can be opened again by a later run without building it again.
+ *
+ * <p>The file starts with a header holding free-form metadata, followed by a table of slots with
+ * the positions of the entries (open addressing, linear probing) and by the entries themselves:
+ * hash code, key length, value length, key and value.
+ *
+ * <p>An instance is not thread-safe, every thread should use its own {@link #duplicate()}.
+ */
+public final class MappedByteArrayHashIndex {
+
+  /** "HOPMHIDX" */
+  private static final long MAGIC = 0x484F504D48494458L;
+
+  private static final int FORMAT_VERSION = 1;
+  private static final double LOAD_FACTOR = 0.7;
+  private static final int ENTRY_HEADER_SIZE = 12;
+
+  private final Path file;
+  private final MappedFile mappedFile;
+  private final byte[] metadata;
+  private final long slotsStart;
+  private final long slotMask;
+  private final long count;
+
+  private MappedByteArrayHashIndex(
+      Path file, MappedFile mappedFile, byte[] metadata, long slotsStart, long slots, long count) {
+    this.file = file;
+    this.mappedFile = mappedFile;
+    this.metadata = metadata;
+    this.slotsStart = slotsStart;
+    this.slotMask = slots - 1;
+    this.count = count;
+  }
+
+  /**
+   * Open an index which was built before.
+   *
+   * @param file the index file
+   * @return the index
+   * @throws IOException in case the file can't be read or isn't an index file
+   */
+  public static MappedByteArrayHashIndex open(Path file) throws IOException {
+    MappedFile mapped = MappedFile.map(file, false);
+    if (mapped.size() < 16 || mapped.getLong(0) != MAGIC) {
+      throw new IOException("File " + file + " is not a hash index file");
+    }
+    int version = mapped.getInt(8);
+    if (version != FORMAT_VERSION) {
+      throw new IOException(
+          "Hash index file " + file + " has an unsupported format version: " + version);
+    }
+    byte[] metadata = new byte[mapped.getInt(12)];
+    mapped.get(16, metadata);
+    long position = align(16L + metadata.length);
+    long slots = mapped.getLong(position);
+    long count = mapped.getLong(position + 8);
+    return new MappedByteArrayHashIndex(file, mapped, metadata, position + 16, slots, count);
+  }
+
+  /**
+   * Start building a new index. The entries are first written to a temporary file next to the index
+   * file, so the index file only appears when it is complete.
+   *
+   * @param file the index file to build
+   * @return the builder
+   * @throws IOException in case the temporary file can't be created
+   */
+  public static Builder builder(Path file) throws IOException {
+    return new Builder(file);
+  }
+
+  /**
+   * Look up the value of a key.
+   *
+   * @param key the serialized key
+   * @return the serialized value, null if the key isn't in the index
+   */
+  public byte[] get(byte[] key) {
+    int hashCode = ByteArrayHashIndex.hashCode(key);
+    for (long slot = hashCode & slotMask; ; slot = (slot + 1) & slotMask) {
+      long entry = mappedFile.getLong(slotsStart + slot * Long.BYTES);
+      if (entry == 0L) {
+        return null;
+      }
+      if (mappedFile.getInt(entry) == hashCode
+          && mappedFile.getInt(entry + 4) == key.length
+          && Arrays.equals(read(entry + ENTRY_HEADER_SIZE, key.length), key)) {
+        return read(entry + ENTRY_HEADER_SIZE + key.length, mappedFile.getInt(entry + 8));
+      }
+    }
+  }
+
+  private byte[] read(long position, int length) {
+    byte[] bytes = new byte[length];
+    mappedFile.get(position, bytes);
+    return bytes;
+  }
+
+  /**
+   * @return a view of the same index for use by another thread
+   */
+  public MappedByteArrayHashIndex duplicate() {
+    return new MappedByteArrayHashIndex(
+        file, mappedFile.duplicate(), metadata, slotsStart, slotMask + 1, count);
+  }
+
+  /**
+   * @return the number of distinct keys in the index
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return the metadata which was stored with the index
+   */
+  public byte[] getMetadata() {
+    return metadata.clone();
+  }
+
+  /**
+   * @return the index file
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  private static long align(long position) {
+    return (position + 7) & ~7L;
+  }
+
+  /** Writes the entries of a new {@link MappedByteArrayHashIndex} */
+  public static final class Builder implements AutoCloseable {
+    private final Path file;
+    private final Path dataFile;
+    private final DataOutputStream data;
+    private long dataSize;
+    private long entries;
+
+    private Builder(Path file) throws IOException {
+      this.file = file.toAbsolutePath();
+      Path folder = this.file.getParent();
+      Files.createDirectories(folder);
+      dataFile = Files.createTempFile(folder, this.file.getFileName().toString() + ".", ".data");
+      data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(dataFile), 65536));
+    }
+
+    /**
+     * Add an entry. If the same key is added more than once, the last value is kept.
+     *
+     * @param key the serialized key
+     * @param value the serialized value
+     * @throws IOException in case the entry can't be written
+     */
+    public void put(byte[] key, byte[] value) throws IOException {
+      data.writeInt(ByteArrayHashIndex.hashCode(key));
+      data.writeInt(key.length);
+      data.writeInt(value.length);
+      data.write(key);
+      data.write(value);
+      dataSize += ENTRY_HEADER_SIZE + key.length + value.length;
+      entries++;
+    }
+
+    /**
+     * Write the index file and open it.
+     *
+     * @param metadata free-form metadata to store with the index, for example the layout of the
+     *     keys and values
+     * @return the index
+     * @throws IOException in case the index can't be written
+     */
+    public MappedByteArrayHashIndex build(byte[] metadata) throws IOException {
+      data.close();
+
+      long slots = Math.max(2L, Long.highestOneBit((long) (entries / LOAD_FACTOR)) << 1);
+      long slotsStart = align(16L + metadata.length) + 16;
+      long dataStart = slotsStart + slots * Long.BYTES;
+
+      Path indexFile =
+          Files.createTempFile(file.getParent(), file.getFileName().toString() + ".", ".tmp");
+      try {
+        // The header and the entries. The slots in between are left empty (zeros) for now.
+        //
+        try (FileChannel channel =
+                FileChannel.open(indexFile, StandardOpenOption.WRITE, StandardOpenOption.READ);
+            FileChannel in = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+          ByteBuffer header = ByteBuffer.allocate((int) slotsStart);
+          header.putLong(MAGIC).putInt(FORMAT_VERSION).putInt(metadata.length).put(metadata);
+          header.position((int) slotsStart - 16);
+          header.putLong(slots).putLong(0L);
+          header.flip();
+          while (header.hasRemaining()) {
+            channel.write(header);
+          }
+          channel.position(dataStart);
+          long copied = 0L;
+          while (copied < dataSize) {
+            copied += in.transferTo(copied, dataSize - copied, channel);
+          }
+          if (channel.size() < dataStart) {
+            // No entries: make sure the file covers the empty slots
+            channel.write(ByteBuffer.allocate(1), dataStart - 1);
+          }
+        }
+
+        // Fill in the slots, scanning the entries in the order in which they were added
+        //
+        MappedFile mapped = MappedFile.map(indexFile, true);
+        long mask = slots - 1;
+        long count = 0L;
+        for (long entry = dataStart; entry < dataStart + dataSize; ) {
+          int hashCode = mapped.getInt(entry);
+          int keyLength = mapped.getInt(entry + 4);
+          for (long slot = hashCode & mask; ; slot = (slot + 1) & mask) {
+            long position = slotsStart + slot * Long.BYTES;
+            long other = mapped.getLong(position);
+            if (other == 0L) {
+              mapped.putLong(position, entry);
+              count++;
+              break;
+            }
+            if (mapped.getInt(other) == hashCode
+                && mapped.getInt(other + 4) == keyLength
+                && sameKey(mapped, other, entry, keyLength)) {
+              // A duplicate key: the last value wins
+              mapped.putLong(position, entry);
+              break;
+            }
+          }
+          entry += ENTRY_HEADER_SIZE + keyLength + mapped.getInt(entry + 8);
+        }
+        mapped.putLong(slotsStart - 8, count);
+        mapped.force();
+
+        moveReplacing(indexFile, file);
+      } finally {
+        Files.deleteIfExists(indexFile);
+        Files.deleteIfExists(dataFile);
+      }
+      return open(file);
+    }
+
+    private static boolean sameKey(MappedFile mapped, long entry1, long entry2, int keyLength) {
+      byte[] key1 = new byte[keyLength];
+      byte[] key2 = new byte[keyLength];
+      mapped.get(entry1 + ENTRY_HEADER_SIZE, key1);
+      mapped.get(entry2 + ENTRY_HEADER_SIZE, key2);
+      return Arrays.equals(key1, key2);
+    }
+
+    private static void moveReplacing(Path source, Path target) throws IOException {
+      try {
+        Files.move(
+            source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+
+    /** Remove the temporary files if the index wasn't built */
+    @Override
+    public void close() throws IOException {
+      data.close();
+      Files.deleteIfExists(dataFile);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file mapped into memory in segments of 1GB, so that files larger than 2GB can be mapped. Values
+ * are read and written at absolute positions. A view is not thread-safe, every thread should use
+ * its own {@link #duplicate()}.
+ */
+final class MappedFile {
+
+  private static final int SEGMENT_BITS = 30;
+  private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+  private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+  private final ByteBuffer[] segments;
+  private final long size;
+
+  private MappedFile(ByteBuffer[] segments, long size) {
+    this.segments = segments;
+    this.size = size;
+  }
+
+  /**
+   * Map a complete file into memory. The mapping stays valid after the file is closed.
+   *
+   * @param file the file to map
+   * @param writable true to allow writing to the file through the mapping
+   * @return the mapped file
+   * @throws IOException in case the file can't be opened or mapped
+   */
+  static MappedFile map(Path file, boolean writable) throws IOException {
+    try (FileChannel channel =
+        writable
+            ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+            : FileChannel.open(file, StandardOpenOption.READ)) {
+      FileChannel.MapMode mode =
+          writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+      long size = channel.size();
+      int nrSegments = (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+      ByteBuffer[] segments = new ByteBuffer[nrSegments];
+      for (int i = 0; i < nrSegments; i++) {
+        long start = (long) i << SEGMENT_BITS;
+        segments[i] = channel.map(mode, start, Math.min(SEGMENT_SIZE, size - start));
+      }
+      return new MappedFile(segments, size);
+    }
+  }
+
+  /**
+   * @return a view of the same mapping for use by another thread
+   */
+  MappedFile duplicate() {
+    ByteBuffer[] copies = new ByteBuffer[segments.length];
+    for (int i = 0; i < segments.length; i++) {
+      copies[i] = segments[i].duplicate();
+    }
+    return new MappedFile(copies, size);
+  }
+
+  long size() {
+    return size;
+  }
+
+  int getInt(long position) {
+    ByteBuffer segment = segments[(int) (position >>> SEGMENT_BITS)];
+    int offset = (int) (position & SEGMENT_MASK);
+    if (offset + Integer.BYTES <= segment.limit()) {
+      return segment.getInt(offset);
+    }
+    byte[] bytes = new byte[Integer.BYTES];
+    get(position, bytes);
+    return ByteBuffer.wrap(bytes).getInt();
+  }
+
+  long getLong(long position) {
+    ByteBuffer segment = segments[(int) (position >>> SEGMENT_BITS)];
+    int offset = (int) (position & SEGMENT_MASK);
+    if (offset + Long.BYTES <= segment.limit()) {
+      return segment.getLong(offset);
+    }
+    byte[] bytes = new byte[Long.BYTES];
+    get(position, bytes);
+    return ByteBuffer.wrap(bytes).getLong();
+  }
+
+  /** Write a long at a position which is a multiple of 8, so that it never spans two segments */
+  void putLong(long position, long value) {
+    segments[(int) (position >>> SEGMENT_BITS)].putLong((int) (position & SEGMENT_MASK), value);
+  }
+
+  /** Fill the given array with the bytes starting at the given position */
+  void get(long position, byte[] bytes) {
+    int done = 0;
+    while (done < bytes.length) {
+      long current = position + done;
+      ByteBuffer segment = segments[(int) (current >>> SEGMENT_BITS)];
+      int offset = (int) (current & SEGMENT_MASK);
+      int length = Math.min(bytes.length - done, segment.limit() - offset);
+      segment.get(offset, bytes, done, length);
+      done += length;
+    }
+  }
+
+  /** Write the changes made through the mapping to the file */
+  void force() {
+    for (ByteBuffer segment : segments) {
+      ((MappedByteBuffer) segment).force();
+    }
+  }
+}
@@ -134,6 +134,9 @@ public class HopLogStore {
             EnvUtil.getSystemProperty(Const.HOP_MAX_LOG_TIMEOUT_IN_MINUTES),
             Const.MAX_LOG_LINE_TIMEOUT_MINUTES);
     init0(maxSize, maxLogTimeoutMinutes, redirectStdOut, redirectStdErr);
+    long maxMegabytes =
+        Const.toLong(EnvUtil.getSystemProperty(Const.HOP_MAX_LOG_SIZE_IN_MEGABYTES), 0L);
+    store.appender.setMaxBytes(maxMegabytes * 1024L * 1024L);
   }
 
   /**
@@ -18,26 +18,61 @@
 package org.apache.hop.core.logging;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.hop.core.Const;
 
-/** This class keeps the last N lines in a buffer */
+/**
+ * This class keeps the last N lines in a buffer.
+ *
+ * <p>The lines are kept per log channel in segments which are only appended to, so that the lines
+ * of a pipeline or workflow and all its children can be read without looking at the lines of other
+ * log channels and without blocking the threads which are logging. Lines are numbered and stored in
+ * the same short critical section, so a line is never visible before the lines numbered before it.
+ * A queue of all lines in the order in which they were added is used to remove the oldest lines
+ * when the buffer holds more lines or more bytes than allowed.
+ *
+ * <p>Removing a log channel drops its segments without looking at the lines of the other channels.
+ * Its lines are left in the queue and skipped when they come up. They are cleaned out of the queue
+ * in one pass when there are more of them than live lines, so the queue stays proportional to the
+ * number of lines in the buffer.
+ */
 public class LoggingBuffer {
+  /** The number of lines in a segment of a log channel */
+  static final int SEGMENT_SIZE = 256;
+
+  /** The key used for lines without a log channel */
+  private static final String NO_CHANNEL = "";
+
   @Getter @Setter private String name;
 
-  private List<BufferLine> buffer;
-  private ReadWriteLock lock = new ReentrantReadWriteLock();
+  /** The lines per log channel */
+  private final Map<String, ChannelLines> channels = new ConcurrentHashMap<>();
+
+  /** All lines, oldest first */
+  private final ConcurrentLinkedQueue<Entry> entries = new ConcurrentLinkedQueue<>();
 
-  private int bufferSize;
+  private final AtomicInteger nrLines = new AtomicInteger();
+  private final AtomicLong nrBytes = new AtomicLong();
+  private final AtomicInteger lastLineNr = new AtomicInteger();
+
+  /** Held while a line is numbered and stored, so that lines become visible in number order */
+  private final Object publishLock = new Object();
+
+  /** The (estimated) number of lines of removed channels still in the queue of all lines */
+  private final AtomicInteger nrRemovedEntries = new AtomicInteger();
+
+  private volatile int bufferSize;
+
+  private volatile long maxBytes;
 
   @Getter @Setter private HopLogLayout layout;
 
@@ -47,10 +82,6 @@ public class LoggingBuffer {
 
   public LoggingBuffer(int bufferSize) {
     this.bufferSize = bufferSize;
-    // The buffer overflow protection allows it to be overflowed for 1 item within a single thread.
-    // Considering a possible high contention, let's set it's max overflow size to be 10%.
-    // Anyway, even an overflow goes higher than 10%, it wouldn't cost us too much.
-    buffer = new ArrayList<>((int) (bufferSize * 1.1));
     layout = new HopLogLayout(true);
     eventListeners = new CopyOnWriteArrayList<>();
   }
@@ -60,16 +91,10 @@ public class LoggingBuffer {
    *     buffer, 0 is returned.
    */
   public int getLastBufferLineNr() {
-    lock.readLock().lock();
-    try {
-      if (!buffer.isEmpty()) {
-        return buffer.get(buffer.size() - 1).getNr();
-      } else {
-        return 0;
-      }
-    } finally {
-      lock.readLock().unlock();
+    if (nrLines.get() <= 0) {
+      return 0;
     }
+    return lastLineNr.get();
   }
 
   /**
@@ -81,24 +106,42 @@ public class LoggingBuffer {
    */
   public List<HopLoggingEvent> getLogBufferFromTo(
       List<String> channelId, boolean includeGeneral, int from, int to) {
-    lock.readLock().lock();
-    try {
-      Stream<BufferLine> bufferStream =
-          buffer.stream().filter(line -> line.getNr() > from && line.getNr() <= to);
-      if (channelId != null) {
-        bufferStream =
-            bufferStream.filter(
-                line -> {
-                  String logChannelId = getLogChId(line);
-                  return includeGeneral
-                      ? isGeneral(logChannelId) || channelId.contains(logChannelId)
-                      : channelId.contains(logChannelId);
-                });
+    List<BufferLine> lines = new ArrayList<>();
+    if (channelId == null) {
+      for (Entry entry : entries) {
+        int nr = entry.line.getNr();
+        if (nr > from && nr <= to && !entry.channel.removed) {
+          lines.add(entry.line);
+        }
+      }
+    } else {
+      List<ChannelLines> selected = new ArrayList<>();
+      for (String id : channelId) {
+        ChannelLines channel = channels.get(id == null ? NO_CHANNEL : id);
+        if (channel != null && !selected.contains(channel)) {
+          selected.add(channel);
+        }
+      }
+      if (includeGeneral) {
+        for (ChannelLines channel : channels.values()) {
+          if (!selected.contains(channel) && isGeneral(channel.channelId)) {
+            selected.add(channel);
+          }
+        }
+      }
+      for (ChannelLines channel : selected) {
+        channel.collect(from, to, lines);
+      }
+      if (selected.size() > 1) {
+        lines.sort(Comparator.comparingInt(BufferLine::getNr));
       }
-      return bufferStream.map(BufferLine::getEvent).collect(Collectors.toList());
-    } finally {
-      lock.readLock().unlock();
     }
+
+    List<HopLoggingEvent> events = new ArrayList<>(lines.size());
+    for (BufferLine line : lines) {
+      events.add(line.getEvent());
+    }
+    return events;
   }
 
   /**
@@ -151,17 +194,69 @@ public class LoggingBuffer {
   }
 
   public void doAppend(HopLoggingEvent event) {
-    if (event.getMessage() instanceof LogMessage) {
-      lock.writeLock().lock();
-      try {
-        buffer.add(new BufferLine(event));
-        while (bufferSize > 0 && buffer.size() > bufferSize) {
-          buffer.remove(0);
+    if (event.getMessage() instanceof LogMessage logMessage) {
+      String channelId =
+          logMessage.getLogChannelId() == null ? NO_CHANNEL : logMessage.getLogChannelId();
+      int bytes = estimateSize(logMessage);
+      while (true) {
+        ChannelLines channel = channels.computeIfAbsent(channelId, ChannelLines::new);
+        synchronized (channel) {
+          if (channel.removed) {
+            // The channel was removed from the buffer in the mean time, use a new one
+            //
+            channels.remove(channelId, channel);
+            continue;
+          }
+          // The line number is assigned and the line stored in one go: a reader reading up to the
+          // last line number never misses a line which is stored later with a lower number.
+          //
+          synchronized (publishLock) {
+            BufferLine line = new BufferLine(event);
+            channel.add(line, bytes);
+            entries.add(new Entry(line, channel, bytes));
+            lastLineNr.set(line.getNr());
+          }
         }
-      } finally {
-        lock.writeLock().unlock();
+        break;
+      }
+      nrLines.incrementAndGet();
+      nrBytes.addAndGet(bytes);
+      removeOverflow();
+    }
+  }
+
+  /** Remove the oldest lines as long as there are too many lines or bytes in the buffer */
+  private void removeOverflow() {
+    while ((bufferSize > 0 && nrLines.get() > bufferSize)
+        || (maxBytes > 0 && nrBytes.get() > maxBytes)) {
+      if (!removeOldest()) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Remove the oldest line.
+   *
+   * @return false if the buffer is empty
+   */
+  private boolean removeOldest() {
+    Entry entry = entries.poll();
+    if (entry == null) {
+      return false;
+    }
+    synchronized (entry.channel) {
+      if (entry.channel.removed) {
+        // The lines of a removed channel are already subtracted
+        //
+        nrRemovedEntries.updateAndGet(n -> Math.max(0, n - 1));
+        return true;
       }
+      entry.channel.removeFirst(entry.bytes);
     }
+    nrLines.decrementAndGet();
+    nrBytes.addAndGet(-entry.bytes);
+    return true;
   }
 
   public boolean requiresLayout() {
@@ -169,12 +264,10 @@ public class LoggingBuffer {
   }
 
   public void clear() {
-    lock.writeLock().lock();
-    try {
-      buffer.clear();
-    } finally {
-      lock.writeLock().unlock();
+    for (ChannelLines channel : channels.values()) {
+      removeChannel(channel);
     }
+    compactEntries();
   }
 
   /**
@@ -190,13 +283,38 @@ public class LoggingBuffer {
    */
   public void setMaxNrLines(int maxNrLines) {
     this.bufferSize = maxNrLines;
+    removeOverflow();
+  }
+
+  /**
+   * @return the maximum (estimated) number of bytes taken by the lines in this buffer, 0 or lower
+   *     means: no limit
+   */
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * @param maxBytes the maximum (estimated) number of bytes the lines in this buffer can take, 0 or
+   *     lower means: no limit
+   */
+  public void setMaxBytes(long maxBytes) {
+    this.maxBytes = maxBytes;
+    removeOverflow();
+  }
+
+  /**
+   * @return the estimated number of bytes taken by the lines in this buffer
+   */
+  public long getNrBytes() {
+    return nrBytes.get();
   }
 
   /**
    * @return the nrLines
    */
   public int getNrLines() {
-    return buffer.size();
+    return nrLines.get();
   }
 
   /**
@@ -205,47 +323,62 @@ public class LoggingBuffer {
    * @param id the id of the logging channel to remove
    */
   public void removeChannelFromBuffer(String id) {
-    lock.writeLock().lock();
-    try {
-      buffer.removeIf(line -> id.equals(getLogChId(line)));
-    } finally {
-      lock.writeLock().unlock();
+    ChannelLines channel = channels.get(id);
+    if (channel != null) {
+      removeChannel(channel);
+      removeStaleEntries();
     }
   }
 
+  /** Drop the segments of a channel, its lines in the queue of all lines are skipped from now on */
+  private void removeChannel(ChannelLines channel) {
+    synchronized (channel) {
+      if (channel.removed) {
+        return;
+      }
+      channel.removed = true;
+      channels.remove(channel.channelId, channel);
+      nrLines.addAndGet(-channel.nrLines);
+      nrBytes.addAndGet(-channel.nrBytes);
+      nrRemovedEntries.addAndGet(channel.nrLines);
+    }
+  }
+
+  /**
+   * Clean the lines of removed channels out of the queue of all lines once there are more of them
+   * than live lines. The pass over the queue is paid for by the lines removed since the last one.
+   */
+  private void removeStaleEntries() {
+    int removed = nrRemovedEntries.get();
+    if (removed <= SEGMENT_SIZE || removed <= nrLines.get()) {
+      return;
+    }
+    compactEntries();
+  }
+
+  /** Clean the lines of removed channels out of the queue of all lines */
+  private void compactEntries() {
+    nrRemovedEntries.set(0);
+    entries.removeIf(entry -> entry.channel.removed);
+  }
+
   public int size() {
-    return buffer.size();
+    return nrLines.get();
   }
 
   public void removeGeneralMessages() {
-    lock.writeLock().lock();
-    try {
-      buffer.removeIf(line -> isGeneral(getLogChId(line)));
-    } finally {
-      lock.writeLock().unlock();
+    for (ChannelLines channel : channels.values()) {
+      if (isGeneral(channel.channelId)) {
+        removeChannel(channel);
+      }
     }
+    removeStaleEntries();
   }
 
   public void removeBufferLinesBefore(long minTimeBoundary) {
-    // Using HashSet even though BufferLine does not implement hashcode and equals,
-    // we just need to remove the exact objects we have found and put in the set.
-    Set<BufferLine> linesToRemove = new HashSet<>();
-    lock.writeLock().lock();
-    try {
-      for (BufferLine bufferLine : buffer) {
-        if (bufferLine.getEvent().timeStamp < minTimeBoundary) {
-          linesToRemove.add(bufferLine);
-        } else {
-          break;
-        }
-      }
-      // removeAll should run fast against a HashSet,
-      // since ArrayList.batchRemove check for each element of a collection given if it is in the
-      // ArrayList.
-      // Thus, removeAll should run in a linear time.
-      buffer.removeAll(linesToRemove);
-    } finally {
-      lock.writeLock().unlock();
+    Entry entry;
+    while ((entry = entries.peek()) != null && entry.line.getEvent().timeStamp < minTimeBoundary) {
+      removeOldest();
     }
   }
 
@@ -267,7 +400,128 @@ public class LoggingBuffer {
     return loggingObject != null && LoggingObjectType.GENERAL.equals(loggingObject.getObjectType());
   }
 
-  private static String getLogChId(BufferLine bufferLine) {
-    return ((LogMessage) bufferLine.getEvent().getMessage()).getLogChannelId();
+  /** A rough estimate of the memory taken by a log line: the objects and the text */
+  private static int estimateSize(LogMessage logMessage) {
+    int size = 160;
+    if (logMessage.getSubject() != null) {
+      size += logMessage.getSubject().length();
+    }
+    Object[] arguments = logMessage.getArguments();
+    if (arguments == null || arguments.length == 0) {
+      String message = logMessage.getMessage();
+      size += message == null ? 0 : message.length();
+    } else {
+      // Don't format the message just to know its size
+      size += 64 * (arguments.length + 1);
+    }
+    return size;
+  }
+
+  /** A line in the queue of all lines */
+  private record Entry(BufferLine line, ChannelLines channel, int bytes) {}
+
+  /**
+   * The lines of a log channel in segments. Lines are added and removed while holding the monitor
+   * of this object. The lines can be read at any time without locking: a segment is only ever
+   * appended to and the number of lines in it is published after the line is stored.
+   */
+  private static final class ChannelLines {
+    private final String channelId;
+
+    /** The oldest segment */
+    private volatile Segment first;
+
+    /** The newest segment, only used when adding lines */
+    private Segment last;
+
+    private int nrLines;
+    private long nrBytes;
+    private boolean removed;
+
+    private ChannelLines(String channelId) {
+      this.channelId = channelId;
+      this.first = new Segment();
+      this.last = first;
+    }
+
+    private void add(BufferLine line, int bytes) {
+      if (last.size == SEGMENT_SIZE) {
+        Segment segment = new Segment();
+        last.next = segment;
+        last = segment;
+      }
+      last.lines[last.size] = line;
+      last.size++;
+      nrLines++;
+      nrBytes += bytes;
+    }
+
+    private void removeFirst(int bytes) {
+      Segment segment = first;
+      if (segment.start == SEGMENT_SIZE) {
+        segment = segment.next;
+        first = segment;
+      }
+      // Drop the reference so that the text of the line can be garbage collected
+      //
+      segment.lines[segment.start] = null;
+      segment.start++;
+      if (segment.start == SEGMENT_SIZE && segment.next != null) {
+        first = segment.next;
+      }
+      nrLines--;
+      nrBytes -= bytes;
+    }
+
+    /** Add the lines with a number after from up to and including to */
+    private void collect(int from, int to, List<BufferLine> result) {
+      for (Segment segment = first; segment != null; segment = segment.next) {
+        int size = segment.size;
+        int start = segment.start;
+        if (start >= size) {
+          continue;
+        }
+        BufferLine newest = segment.lines[size - 1];
+        if (newest == null || newest.getNr() <= from) {
+          continue;
+        }
+        // Find the first line after from. Lines which are removed in the mean time are the
+        // oldest ones and are treated as being before from.
+        //
+        int low = start;
+        int high = size - 1;
+        while (low < high) {
+          int middle = (low + high) >>> 1;
+          BufferLine line = segment.lines[middle];
+          if (line == null || line.getNr() <= from) {
+            low = middle + 1;
+          } else {
+            high = middle;
+          }
+        }
+        for (int i = low; i < size; i++) {
+          BufferLine line = segment.lines[i];
+          if (line == null) {
+            continue;
+          }
+          if (line.getNr() > to) {
+            return;
+          }
+          result.add(line);
+        }
+      }
+    }
+  }
+
+  private static final class Segment {
+    private final BufferLine[] lines = new BufferLine[SEGMENT_SIZE];
+
+    /** The number of lines stored, written after the line is stored */
+    private volatile int size;
+
+    /** The index of the oldest line which wasn't removed */
+    private volatile int start;
+
+    private volatile Segment next;
   }
 }
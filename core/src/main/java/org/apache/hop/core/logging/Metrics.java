@@ -125,6 +125,47 @@ public class Metrics implements IMetrics {
   public static final Metrics METRIC_TRANSFORM_INIT_STOP =
       new Metrics(MetricsSnapshotType.STOP, "METRIC_TRANSFORM_INIT", "Initialize a transform");
 
+  // Lookup caches
+  //
+  public static final Metrics METRIC_LOOKUP_CACHE_HIT_COUNT =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_LOOKUP_CACHE_HIT_COUNT",
+          "Number of values found in the lookup cache");
+  public static final Metrics METRIC_LOOKUP_CACHE_MISS_COUNT =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_LOOKUP_CACHE_MISS_COUNT",
+          "Number of values not found in the lookup cache");
+  public static final Metrics METRIC_LOOKUP_CACHE_EVICTION_COUNT =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_LOOKUP_CACHE_EVICTION_COUNT",
+          "Number of values removed from the lookup cache to limit its size");
+  public static final Metrics METRIC_LOOKUP_CACHE_EXPIRATION_COUNT =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_LOOKUP_CACHE_EXPIRATION_COUNT",
+          "Number of values removed from the lookup cache because they expired");
+
+  // Database connection pools
+  //
+  public static final Metrics METRIC_DATABASE_CONNECTION_POOL_WAIT_TIME =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_DATABASE_CONNECTION_POOL_WAIT_TIME",
+          "Time waited for a connection from the connection pool (ms)");
+  public static final Metrics METRIC_DATABASE_CONNECTION_POOL_REUSE_COUNT =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_DATABASE_CONNECTION_POOL_REUSE_COUNT",
+          "Number of open connections borrowed from the connection pool");
+  public static final Metrics METRIC_DATABASE_CONNECTION_POOL_CREATE_COUNT =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_DATABASE_CONNECTION_POOL_CREATE_COUNT",
+          "Number of new connections opened by the connection pool");
+
   // Logging back-end
   //
   public static final Metrics METRIC_CENTRAL_LOG_STORE_TIMEOUT_CLEAN_TIME =
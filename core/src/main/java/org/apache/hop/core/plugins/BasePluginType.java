@@ -113,11 +113,18 @@ public abstract class BasePluginType<T extends Annotation> implements IPluginTyp
       watch.start();
     }
 
-    // Register natives plugins
-    registerNatives();
+    PluginRegistrySnapshot snapshot = PluginRegistrySnapshot.getInstance();
+    if (!snapshot.restore(this)) {
+      snapshot.startRecording(this);
 
-    // Register plugins from plugin folders
-    registerPluginJars();
+      // Register natives plugins
+      registerNatives();
+
+      // Register plugins from plugin folders
+      registerPluginJars();
+
+      snapshot.stopRecording(this);
+    }
 
     if (log.isDebug()) {
       watch.stop();
@@ -756,6 +763,9 @@ public abstract class BasePluginType<T extends Annotation> implements IPluginTyp
     if (parentFirstAnnotation != null) {
       registry.addParentClassLoaderPatterns(plugin, parentFirstAnnotation.patterns());
     }
+    PluginRegistrySnapshot.getInstance()
+        .record(
+            this, plugin, parentFirstAnnotation == null ? null : parentFirstAnnotation.patterns());
     registry.registerPlugin(this.getClass(), plugin);
 
     if (!Utils.isEmpty(libraries)) {
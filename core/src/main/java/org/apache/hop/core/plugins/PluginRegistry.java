@@ -518,6 +518,10 @@ public class PluginRegistry {
     for (final IPluginType pluginType : pluginTypes) {
       registry.registerType(pluginType);
     }
+
+    // Remember the plugins found for the next start
+    //
+    PluginRegistrySnapshot.getInstance().save();
   }
 
   public void registerType(IPluginType pluginType) throws HopPluginException {
@@ -0,0 +1,487 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.plugins;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopPluginException;
+import org.apache.hop.core.json.HopJson;
+import org.apache.hop.core.logging.LogChannel;
+import org.apache.hop.core.util.EnvUtil;
+import org.apache.hop.i18n.LanguageChoice;
+
+/**
+ * Saves the plugins found by the plugin types to a file and registers them from that file on the
+ * next start. This skips reading the annotation indexes of all the jar files, creating a class
+ * loader for every plugin and loading the plugin classes to read their annotations. The class
+ * loaders of the plugins are created when a plugin is first used, as before.
+ *
+ * <p>The snapshot is only used if nothing changed: the file names, sizes and modification times of
+ * the class path, the plugin folders and the shared JDBC folders as well as the active locale are
+ * hashed into a fingerprint which is compared with the fingerprint in the snapshot. Plugin types
+ * with plugins which can't be described without loading plugin classes are always scanned.
+ *
+ * <p>The snapshot is written to the file set in {@link Const#HOP_PLUGIN_REGISTRY_SNAPSHOT}. It's
+ * not used if that variable isn't set.
+ */
+public class PluginRegistrySnapshot {
+
+  /** Increase when the content of the snapshot file changes */
+  public static final int SNAPSHOT_VERSION = 1;
+
+  private static PluginRegistrySnapshot instance;
+
+  private final String filename;
+
+  private String fingerprint;
+
+  /** The plugin types read from a valid snapshot file */
+  private Map<String, TypeEntry> snapshotTypes;
+
+  /** The plugin types to write to the snapshot file */
+  private final Map<String, TypeEntry> types = new LinkedHashMap<>();
+
+  /** The plugin type being searched and the plugins it registered so far */
+  private Class<?> recordingType;
+
+  private TypeEntry recording;
+  private boolean changed;
+
+  public static synchronized PluginRegistrySnapshot getInstance() {
+    if (instance == null) {
+      instance =
+          new PluginRegistrySnapshot(EnvUtil.getSystemProperty(Const.HOP_PLUGIN_REGISTRY_SNAPSHOT));
+    }
+    return instance;
+  }
+
+  /** Forget the snapshot instance so that the next one reads the snapshot variable again */
+  @VisibleForTesting
+  static synchronized void resetInstance() {
+    instance = null;
+  }
+
+  PluginRegistrySnapshot(String filename) {
+    this.filename = StringUtils.isEmpty(filename) ? null : filename;
+  }
+
+  /**
+   * @return true if a snapshot file is configured
+   */
+  public boolean isEnabled() {
+    return filename != null;
+  }
+
+  /**
+   * Register the plugins of a plugin type from the snapshot.
+   *
+   * @param pluginType the plugin type to register the plugins for
+   * @return true if the plugins were registered, false if the plugin type needs to search for its
+   *     plugins
+   */
+  public synchronized boolean restore(BasePluginType<?> pluginType) {
+    if (!isEnabled() || !pluginType.getExtraLibraryFolders().isEmpty()) {
+      return false;
+    }
+    TypeEntry typeEntry = getSnapshotTypes().get(pluginType.getClass().getName());
+    if (typeEntry == null) {
+      return false;
+    }
+
+    try {
+      // Create all plugins first so that nothing is registered if a class can't be found
+      //
+      ClassLoader classLoader = pluginType.getClass().getClassLoader();
+      List<IPlugin> plugins = new ArrayList<>();
+      for (PluginEntry pluginEntry : typeEntry.getPlugins()) {
+        plugins.add(pluginEntry.createPlugin(pluginType.getClass(), classLoader));
+      }
+
+      PluginRegistry registry = PluginRegistry.getInstance();
+      for (int i = 0; i < plugins.size(); i++) {
+        String[] patterns = typeEntry.getPlugins().get(i).getParentFirstPatterns();
+        if (patterns != null && patterns.length > 0) {
+          registry.addParentClassLoaderPatterns(plugins.get(i), patterns);
+        }
+        registry.registerPlugin(pluginType.getClass(), plugins.get(i));
+      }
+      types.put(pluginType.getClass().getName(), typeEntry);
+      return true;
+    } catch (Exception e) {
+      LogChannel.GENERAL.logDetailed(
+          "Unable to register the plugins of type '"
+              + pluginType.getName()
+              + "' from the plugin registry snapshot, searching for plugins instead: "
+              + e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Start keeping track of the plugins registered by a plugin type while it searches for plugins.
+   *
+   * @param pluginType the plugin type which is about to search for plugins
+   */
+  public synchronized void startRecording(BasePluginType<?> pluginType) {
+    if (!isEnabled() || !pluginType.getExtraLibraryFolders().isEmpty()) {
+      return;
+    }
+    recordingType = pluginType.getClass();
+    recording = new TypeEntry();
+  }
+
+  /**
+   * Keep track of a plugin found by the plugin type which is searching for plugins.
+   *
+   * @param pluginType the plugin type
+   * @param plugin the plugin which is about to be registered
+   * @param parentFirstPatterns the class name patterns to load from the parent class loader or null
+   */
+  public synchronized void record(
+      BasePluginType<?> pluginType, IPlugin plugin, String[] parentFirstPatterns) {
+    if (recording == null || recordingType != pluginType.getClass()) {
+      return;
+    }
+    PluginEntry pluginEntry = PluginEntry.describe(plugin, parentFirstPatterns);
+    if (pluginEntry == null) {
+      // This plugin can't be registered without loading its class
+      //
+      recording = null;
+      recordingType = null;
+    } else {
+      recording.getPlugins().add(pluginEntry);
+    }
+  }
+
+  /**
+   * Stop keeping track of the plugins of a plugin type.
+   *
+   * @param pluginType the plugin type which searched for plugins
+   */
+  public synchronized void stopRecording(BasePluginType<?> pluginType) {
+    if (recording != null && recordingType == pluginType.getClass()) {
+      types.put(pluginType.getClass().getName(), recording);
+      changed = true;
+    }
+    recording = null;
+    recordingType = null;
+  }
+
+  /** Write the snapshot file if plugin types were searched since the snapshot was read. */
+  public synchronized void save() {
+    if (!isEnabled() || !changed) {
+      return;
+    }
+    try {
+      SnapshotFile snapshotFile = new SnapshotFile();
+      snapshotFile.setVersion(SNAPSHOT_VERSION);
+      snapshotFile.setFingerprint(getFingerprint());
+      snapshotFile.setTypes(new LinkedHashMap<>(types));
+
+      // Write to a temporary file first so that others starting at the same time never read a
+      // partial snapshot
+      //
+      Path path = Path.of(filename).toAbsolutePath();
+      Files.createDirectories(path.getParent());
+      Path temporary =
+          Files.createTempFile(path.getParent(), path.getFileName().toString(), ".new");
+      try {
+        Files.write(temporary, newMapper().writeValueAsBytes(snapshotFile));
+        Files.move(
+            temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temporary);
+      }
+      snapshotTypes = new HashMap<>(types);
+      changed = false;
+    } catch (Exception e) {
+      LogChannel.GENERAL.logError("Error writing plugin registry snapshot to " + filename, e);
+    }
+  }
+
+  /** Forget the snapshot which was read and the plugin types which were searched. */
+  public synchronized void clear() {
+    snapshotTypes = null;
+    fingerprint = null;
+    types.clear();
+    recording = null;
+    recordingType = null;
+    changed = false;
+  }
+
+  private Map<String, TypeEntry> getSnapshotTypes() {
+    if (snapshotTypes == null) {
+      snapshotTypes = new HashMap<>();
+      Path path = Path.of(filename);
+      if (Files.exists(path)) {
+        try {
+          SnapshotFile snapshotFile = newMapper().readValue(path.toFile(), SnapshotFile.class);
+          if (snapshotFile.getVersion() == SNAPSHOT_VERSION
+              && getFingerprint().equals(snapshotFile.getFingerprint())
+              && snapshotFile.getTypes() != null) {
+            snapshotTypes.putAll(snapshotFile.getTypes());
+          } else {
+            LogChannel.GENERAL.logDetailed(
+                "The plugin registry snapshot in "
+                    + filename
+                    + " is outdated and will be replaced");
+          }
+        } catch (Exception e) {
+          LogChannel.GENERAL.logError("Error reading plugin registry snapshot " + filename, e);
+        }
+      }
+    }
+    return snapshotTypes;
+  }
+
+  /**
+   * Calculate a hash of everything that has an influence on the plugins found.
+   *
+   * @return the fingerprint of the current installation
+   * @throws HopPluginException in case the fingerprint couldn't be calculated
+   */
+  String getFingerprint() throws HopPluginException {
+    if (fingerprint == null) {
+      try {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        update(digest, "version=" + SNAPSHOT_VERSION);
+        Locale locale = LanguageChoice.getInstance().getDefaultLocale();
+        update(digest, "locale=" + locale);
+
+        for (String entry :
+            Const.NVL(System.getProperty("java.class.path"), "").split(File.pathSeparator)) {
+          if (StringUtils.isNotEmpty(entry)) {
+            updateWithFiles(digest, Path.of(entry));
+          }
+        }
+        for (String pluginFolder : JarCache.getInstance().getPluginFolders()) {
+          updateWithFiles(digest, Path.of(pluginFolder));
+        }
+        String sharedJdbcFolders =
+            Const.NVL(System.getProperty(Const.HOP_SHARED_JDBC_FOLDERS), "lib/jdbc");
+        update(digest, "jdbc=" + sharedJdbcFolders);
+        for (String sharedJdbcFolder : sharedJdbcFolders.split(",")) {
+          updateWithFiles(digest, Path.of(sharedJdbcFolder));
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+          hex.append(String.format("%02x", b));
+        }
+        fingerprint = hex.toString();
+      } catch (Exception e) {
+        throw new HopPluginException("Error calculating the fingerprint of the plugins", e);
+      }
+    }
+    return fingerprint;
+  }
+
+  private static void updateWithFiles(MessageDigest digest, Path path) throws IOException {
+    Path absolute = path.toAbsolutePath().normalize();
+    if (!Files.exists(absolute)) {
+      update(digest, absolute + ":missing");
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(absolute)) {
+      List<Path> files = paths.filter(Files::isRegularFile).sorted().toList();
+      for (Path file : files) {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        update(
+            digest,
+            file + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis());
+      }
+    }
+  }
+
+  private static void update(MessageDigest digest, String string) {
+    digest.update(string.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) '\n');
+  }
+
+  private static ObjectMapper newMapper() {
+    return HopJson.newMapper();
+  }
+
+  /** The content of the snapshot file */
+  @Getter
+  @Setter
+  public static class SnapshotFile {
+    private int version;
+    private String fingerprint;
+    private Map<String, TypeEntry> types;
+  }
+
+  /** The plugins of a plugin type */
+  @Getter
+  @Setter
+  public static class TypeEntry {
+    private List<PluginEntry> plugins = new ArrayList<>();
+  }
+
+  /** Everything needed to register a plugin without loading its classes */
+  @Getter
+  @Setter
+  public static class PluginEntry {
+    private String[] ids;
+    private String mainType;
+    private String category;
+    private String name;
+    private String description;
+    private String imageFile;
+    private boolean separateClassLoaderNeeded;
+    private String classLoaderGroup;
+    private boolean nativePlugin;
+
+    /** The classes of the plugin: the name of the type class and the name of the plugin class */
+    private Map<String, String> classMap;
+
+    private List<String> libraries;
+    private String errorHelpFile;
+    private String[] keywords;
+    private String pluginFolder;
+    private boolean usingLibrariesOutsidePluginFolder;
+    private String documentationUrl;
+    private String casesUrl;
+    private String forumUrl;
+    private String suggestion;
+    private boolean includeJdbcDrivers;
+    private String[] supportedEngines;
+    private String[] excludedEngines;
+    private String[] parentFirstPatterns;
+
+    /**
+     * Describe a plugin. This is only possible if the main type and the class map types are classes
+     * of Hop itself and not of the plugin.
+     *
+     * @return the description of the plugin or null if it can't be described
+     */
+    static PluginEntry describe(IPlugin plugin, String[] parentFirstPatterns) {
+      ClassLoader classLoader = plugin.getPluginType().getClassLoader();
+      if (!isHopClass(plugin.getMainType(), classLoader)) {
+        return null;
+      }
+      Map<String, String> classMap = new LinkedHashMap<>();
+      for (Map.Entry<Class<?>, String> entry : plugin.getClassMap().entrySet()) {
+        if (!isHopClass(entry.getKey(), classLoader)) {
+          return null;
+        }
+        classMap.put(entry.getKey().getName(), entry.getValue());
+      }
+
+      PluginEntry pluginEntry = new PluginEntry();
+      pluginEntry.setIds(plugin.getIds());
+      pluginEntry.setMainType(plugin.getMainType().getName());
+      pluginEntry.setCategory(plugin.getCategory());
+      pluginEntry.setName(plugin.getName());
+      pluginEntry.setDescription(plugin.getDescription());
+      pluginEntry.setImageFile(plugin.getImageFile());
+      pluginEntry.setSeparateClassLoaderNeeded(plugin.isSeparateClassLoaderNeeded());
+      pluginEntry.setClassLoaderGroup(plugin.getClassLoaderGroup());
+      pluginEntry.setNativePlugin(plugin.isNativePlugin());
+      pluginEntry.setClassMap(classMap);
+      pluginEntry.setLibraries(new ArrayList<>(plugin.getLibraries()));
+      pluginEntry.setErrorHelpFile(plugin.getErrorHelpFile());
+      pluginEntry.setKeywords(plugin.getKeywords());
+      pluginEntry.setPluginFolder(
+          plugin.getPluginDirectory() == null ? null : plugin.getPluginDirectory().toString());
+      pluginEntry.setUsingLibrariesOutsidePluginFolder(
+          plugin.isUsingLibrariesOutsidePluginFolder());
+      pluginEntry.setDocumentationUrl(plugin.getDocumentationUrl());
+      pluginEntry.setCasesUrl(plugin.getCasesUrl());
+      pluginEntry.setForumUrl(plugin.getForumUrl());
+      pluginEntry.setSuggestion(plugin.getSuggestion());
+      pluginEntry.setIncludeJdbcDrivers(plugin.isIncludeJdbcDrivers());
+      pluginEntry.setSupportedEngines(plugin.getSupportedEngines());
+      pluginEntry.setExcludedEngines(plugin.getExcludedEngines());
+      pluginEntry.setParentFirstPatterns(parentFirstPatterns);
+      return pluginEntry;
+    }
+
+    Plugin createPlugin(Class<? extends IPluginType> pluginType, ClassLoader classLoader)
+        throws Exception {
+      Map<Class<?>, String> pluginClassMap = new HashMap<>();
+      for (Map.Entry<String, String> entry : classMap.entrySet()) {
+        pluginClassMap.put(Class.forName(entry.getKey(), false, classLoader), entry.getValue());
+      }
+      Plugin plugin =
+          new Plugin(
+              ids,
+              pluginType,
+              Class.forName(mainType, false, classLoader),
+              category,
+              name,
+              description,
+              imageFile,
+              separateClassLoaderNeeded,
+              classLoaderGroup,
+              nativePlugin,
+              pluginClassMap,
+              new ArrayList<>(libraries),
+              errorHelpFile,
+              keywords,
+              pluginFolder == null ? null : URI.create(pluginFolder).toURL(),
+              usingLibrariesOutsidePluginFolder,
+              documentationUrl,
+              casesUrl,
+              forumUrl,
+              suggestion,
+              includeJdbcDrivers);
+      plugin.setSupportedEngines(supportedEngines == null ? new String[0] : supportedEngines);
+      plugin.setExcludedEngines(excludedEngines == null ? new String[0] : excludedEngines);
+      return plugin;
+    }
+
+    /** See if the class can be found again by name without the class loader of the plugin. */
+    private static boolean isHopClass(Class<?> clazz, ClassLoader classLoader) {
+      if (clazz == null) {
+        return false;
+      }
+      try {
+        return Class.forName(clazz.getName(), false, classLoader) == clazz;
+      } catch (ClassNotFoundException | LinkageError e) {
+        return false;
+      }
+    }
+
+    @Override
+    public String toString() {
+      return Arrays.toString(ids);
+    }
+  }
+}
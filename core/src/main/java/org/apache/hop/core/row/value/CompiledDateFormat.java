@@ -0,0 +1,339 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.value;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.SimpleTimeZone;
+import java.util.TimeZone;
+
+/**
+ * An immutable, thread-safe snapshot of a {@link SimpleDateFormat} with a numeric pattern like
+ * <code>yyyy/MM/dd HH:mm:ss.SSS</code> or <code>yyyyMMdd</code>.
+ *
+ * <p>Dates are parsed and formatted by hand, using the offsets of the time zone of the format. Only
+ * patterns made of the fields y, M (numeric), d, H, m, s and S and of literal text are compiled.
+ * Only dates between the years 1900 and 9999 that are valid in the time zone are handled: for
+ * anything else, including dates in a daylight saving time gap or overlap, the methods return
+ * <code>null</code> and the caller falls back to the simple date format. For every value that is
+ * handled, the result is the same as the one the simple date format gives.
+ */
+public final class CompiledDateFormat {
+
+  /** A format that doesn't handle anything, for patterns we can't compile. */
+  static final CompiledDateFormat NONE = new CompiledDateFormat(null, null, false);
+
+  /** Dates this close to a change of the time zone offset are left to the simple date format */
+  private static final long TRANSITION_MARGIN = 26 * 3600 * 1000L;
+
+  private static final int MIN_YEAR = 1900;
+  private static final int MAX_YEAR = 9999;
+  private static final long MIN_TIME = -2208988800000L - TRANSITION_MARGIN;
+  private static final long MAX_TIME = 253402300799999L + TRANSITION_MARGIN;
+
+  /** The largest number of digits we read in a field without a fixed width */
+  private static final int MAX_FIELD_DIGITS = 9;
+
+  private static final String FIELDS = "yMdHmsS";
+
+  /** A field of the pattern or a piece of literal text (when field is 0). */
+  private record Token(char field, int count, String literal, boolean fixedWidth) {}
+
+  private final Token[] tokens;
+  private final TimeZone timeZone;
+  private final boolean parsing;
+
+  private CompiledDateFormat(Token[] tokens, TimeZone timeZone, boolean parsing) {
+    this.tokens = tokens;
+    this.timeZone = timeZone;
+    this.parsing = parsing;
+  }
+
+  /**
+   * Compile the given simple date format. The format is only read: later changes to it are not
+   * picked up.
+   *
+   * @param format the simple date format to compile
+   * @return the compiled format, never null
+   */
+  public static CompiledDateFormat compile(SimpleDateFormat format) {
+    if (format == null || format.getCalendar().getClass() != GregorianCalendar.class) {
+      return NONE;
+    }
+    NumberFormat numberFormat = format.getNumberFormat();
+    if (!(numberFormat instanceof DecimalFormat decimalFormat)
+        || decimalFormat.getDecimalFormatSymbols().getZeroDigit() != '0') {
+      return NONE;
+    }
+    TimeZone timeZone = format.getTimeZone();
+    if (timeZone.getClass() != SimpleTimeZone.class
+        && !"sun.util.calendar.ZoneInfo".equals(timeZone.getClass().getName())) {
+      return NONE; // we only know these to be thread-safe
+    }
+    List<Token> tokens = tokenize(format.toPattern());
+    if (tokens == null) {
+      return NONE;
+    }
+    return new CompiledDateFormat(
+        tokens.toArray(new Token[0]), (TimeZone) timeZone.clone(), isParseable(tokens));
+  }
+
+  /**
+   * Split the pattern in fields and literal text.
+   *
+   * @return the tokens or null if the pattern contains fields we don't handle
+   */
+  private static List<Token> tokenize(String pattern) {
+    List<Token> tokens = new ArrayList<>();
+    StringBuilder literal = new StringBuilder();
+    int i = 0;
+    while (i < pattern.length()) {
+      char c = pattern.charAt(i);
+      if (c == '\'') {
+        int end = i + 1;
+        if (end < pattern.length() && pattern.charAt(end) == '\'') {
+          literal.append('\'');
+          i += 2;
+          continue;
+        }
+        while (true) {
+          if (end >= pattern.length()) {
+            return null; // unterminated quote
+          }
+          if (pattern.charAt(end) == '\'') {
+            if (end + 1 < pattern.length() && pattern.charAt(end + 1) == '\'') {
+              literal.append('\'');
+              end += 2;
+              continue;
+            }
+            break;
+          }
+          literal.append(pattern.charAt(end++));
+        }
+        i = end + 1;
+      } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+        int count = 1;
+        while (i + count < pattern.length() && pattern.charAt(i + count) == c) {
+          count++;
+        }
+        if (FIELDS.indexOf(c) < 0 || (c == 'M' && count > 2)) {
+          return null; // text fields, time zones, week numbers, 12 hour clocks, ...
+        }
+        if (!literal.isEmpty()) {
+          tokens.add(new Token((char) 0, 0, literal.toString(), false));
+          literal.setLength(0);
+        }
+        boolean fixedWidth = i + count < pattern.length() && isFieldChar(pattern.charAt(i + count));
+        tokens.add(new Token(c, count, null, fixedWidth));
+        i += count;
+      } else {
+        literal.append(c);
+        i++;
+      }
+    }
+    if (!literal.isEmpty()) {
+      tokens.add(new Token((char) 0, 0, literal.toString(), false));
+    }
+    return tokens;
+  }
+
+  private static boolean isFieldChar(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  /**
+   * Two digit years are interpreted relative to the current century and a literal that starts with
+   * a digit or an exponent could be read as part of the previous field: we don't parse these.
+   */
+  private static boolean isParseable(List<Token> tokens) {
+    for (int i = 0; i < tokens.size(); i++) {
+      Token token = tokens.get(i);
+      if (token.field == 'y' && token.count < 3) {
+        return false;
+      }
+      if (token.field == 0 && i > 0) {
+        char first = token.literal.charAt(0);
+        if (Character.isDigit(first) || first == 'E' || first == 'e') {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Parse a date.
+   *
+   * @param string the (trimmed) string to parse
+   * @return the date or null if the string needs to be parsed by the simple date format
+   */
+  public Date parse(String string) {
+    if (!parsing) {
+      return null;
+    }
+    int year = 1970;
+    int month = 1;
+    int day = 1;
+    int hour = 0;
+    int minute = 0;
+    int second = 0;
+    int millisecond = 0;
+
+    int position = 0;
+    int length = string.length();
+    for (Token token : tokens) {
+      if (token.field == 0) {
+        if (!string.startsWith(token.literal, position)) {
+          return null;
+        }
+        position += token.literal.length();
+        continue;
+      }
+
+      int end = position;
+      int maxEnd = token.fixedWidth ? position + token.count : position + MAX_FIELD_DIGITS + 1;
+      int value = 0;
+      while (end < length && end < maxEnd) {
+        char c = string.charAt(end);
+        if (c < '0' || c > '9') {
+          break;
+        }
+        value = value * 10 + (c - '0');
+        end++;
+      }
+      if (end == position
+          || end - position > MAX_FIELD_DIGITS
+          || (token.fixedWidth && end - position != token.count)) {
+        return null;
+      }
+      position = end;
+
+      switch (token.field) {
+        case 'y' -> year = value;
+        case 'M' -> month = value;
+        case 'd' -> day = value;
+        case 'H' -> hour = value;
+        case 'm' -> minute = value;
+        case 's' -> second = value;
+        default -> millisecond = value;
+      }
+    }
+    if (position != length) {
+      return null;
+    }
+
+    if (year < MIN_YEAR
+        || year > MAX_YEAR
+        || month < 1
+        || month > 12
+        || day < 1
+        || day > YearMonth.of(year, month).lengthOfMonth()
+        || hour > 23
+        || minute > 59
+        || second > 59
+        || millisecond > 999) {
+      return null;
+    }
+
+    long localTime =
+        LocalDateTime.of(year, month, day, hour, minute, second).toEpochSecond(ZoneOffset.UTC)
+                * 1000L
+            + millisecond;
+    int offset = timeZone.getOffset(localTime);
+    if (timeZone.getOffset(localTime - TRANSITION_MARGIN) != offset
+        || timeZone.getOffset(localTime + TRANSITION_MARGIN) != offset) {
+      return null; // close to a daylight saving time gap or overlap
+    }
+    return new Date(localTime - offset);
+  }
+
+  /**
+   * Format a date.
+   *
+   * @param date the date to format
+   * @return the formatted date or null if the simple date format needs to format the date
+   */
+  public String format(Date date) {
+    if (tokens == null) {
+      return null;
+    }
+    long time = date.getTime();
+    if (time < MIN_TIME || time > MAX_TIME) {
+      return null;
+    }
+    long localTime = time + timeZone.getOffset(time);
+    int millisecond = (int) Math.floorMod(localTime, 1000L);
+    LocalDateTime localDateTime =
+        LocalDateTime.ofEpochSecond(Math.floorDiv(localTime, 1000L), 0, ZoneOffset.UTC);
+    int year = localDateTime.getYear();
+    if (year < MIN_YEAR || year > MAX_YEAR) {
+      return null;
+    }
+
+    StringBuilder builder = new StringBuilder(32);
+    for (Token token : tokens) {
+      switch (token.field) {
+        case 0 -> builder.append(token.literal);
+        case 'y' -> {
+          if (token.count == 2) {
+            pad(builder, year % 100, 2);
+          } else {
+            pad(builder, year, token.count);
+          }
+        }
+        case 'M' -> pad(builder, localDateTime.getMonthValue(), token.count);
+        case 'd' -> pad(builder, localDateTime.getDayOfMonth(), token.count);
+        case 'H' -> pad(builder, localDateTime.getHour(), token.count);
+        case 'm' -> pad(builder, localDateTime.getMinute(), token.count);
+        case 's' -> pad(builder, localDateTime.getSecond(), token.count);
+        default -> pad(builder, millisecond, token.count);
+      }
+    }
+    return builder.toString();
+  }
+
+  private static void pad(StringBuilder builder, int value, int count) {
+    String digits = Integer.toString(value);
+    for (int i = digits.length(); i < count; i++) {
+      builder.append('0');
+    }
+    builder.append(digits);
+  }
+
+  /**
+   * @return true if this format can parse dates
+   */
+  public boolean isParsing() {
+    return parsing;
+  }
+
+  /**
+   * @return true if this format can format dates
+   */
+  public boolean isFormatting() {
+    return tokens != null;
+  }
+}
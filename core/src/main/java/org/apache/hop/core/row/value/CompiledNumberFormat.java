@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.value;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * An immutable, thread-safe snapshot of a {@link DecimalFormat} that parses and formats the most
+ * common values without going through the (slow, not thread-safe) decimal format itself.
+ *
+ * <p>Only the simple cases are handled: plain numbers like <code>-1234.5</code> are parsed and
+ * integers and whole numbers are formatted with the prefixes, zero padding, grouping and fraction
+ * digits of the format. Everything else (exponents, grouping in the input, currency and percent
+ * masks, numbers with decimals to round, very long numbers...) is left to the decimal format: the
+ * methods return <code>null</code> so that the caller can fall back to it. For every value that is
+ * handled, the result is the same as the one the decimal format gives.
+ */
+public final class CompiledNumberFormat {
+
+  /** A format that doesn't handle anything, for masks we can't compile. */
+  static final CompiledNumberFormat NONE = new CompiledNumberFormat();
+
+  /**
+   * The maximum number of digits we parse ourselves: these always fit in a long and in the exact
+   * range of a double.
+   */
+  private static final int MAX_PARSE_DIGITS = 18;
+
+  /** Whole numbers below this value are formatted without rounding: they are exact doubles. */
+  private static final double MAX_WHOLE_NUMBER = 1e15;
+
+  private final boolean parsing;
+  private final char decimalSeparator;
+
+  private final boolean formatting;
+  private final String positivePrefix;
+  private final String negativePrefix;
+  private final int minimumIntegerDigits;
+  private final int groupingSize;
+  private final char groupingSeparator;
+  private final int minimumFractionDigits;
+  private final boolean decimalSeparatorAlwaysShown;
+
+  private CompiledNumberFormat() {
+    parsing = false;
+    decimalSeparator = '.';
+    formatting = false;
+    positivePrefix = "";
+    negativePrefix = "-";
+    minimumIntegerDigits = 1;
+    groupingSize = 0;
+    groupingSeparator = ',';
+    minimumFractionDigits = 0;
+    decimalSeparatorAlwaysShown = false;
+  }
+
+  private CompiledNumberFormat(DecimalFormat format) {
+    DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+    String pattern = format.toPattern();
+
+    boolean simple =
+        symbols.getZeroDigit() == '0'
+            && format.getMultiplier() == 1
+            && pattern.indexOf('E') < 0
+            && pattern.indexOf('\'') < 0
+            && format.getPositiveSuffix().isEmpty()
+            && format.getNegativeSuffix().isEmpty();
+
+    decimalSeparator = symbols.getDecimalSeparator();
+    parsing =
+        simple
+            && !format.isParseIntegerOnly()
+            && format.getPositivePrefix().isEmpty()
+            && "-".equals(format.getNegativePrefix())
+            && symbols.getMinusSign() == '-'
+            && !Character.isDigit(decimalSeparator)
+            && decimalSeparator != '-'
+            && decimalSeparator != symbols.getGroupingSeparator();
+
+    positivePrefix = format.getPositivePrefix();
+    negativePrefix = format.getNegativePrefix();
+    minimumIntegerDigits = format.getMinimumIntegerDigits();
+    groupingSize = format.isGroupingUsed() ? format.getGroupingSize() : 0;
+    groupingSeparator = symbols.getGroupingSeparator();
+    minimumFractionDigits = format.getMinimumFractionDigits();
+    decimalSeparatorAlwaysShown = format.isDecimalSeparatorAlwaysShown();
+    formatting =
+        simple
+            && format.getMaximumIntegerDigits() >= 19
+            && !containsDigit(positivePrefix)
+            && !containsDigit(negativePrefix);
+  }
+
+  /**
+   * Compile the given decimal format. The format is only read: later changes to it are not picked
+   * up.
+   *
+   * @param format the decimal format to compile
+   * @return the compiled format, never null
+   */
+  public static CompiledNumberFormat compile(DecimalFormat format) {
+    if (format == null) {
+      return NONE;
+    }
+    return new CompiledNumberFormat(format);
+  }
+
+  private static boolean containsDigit(String string) {
+    for (int i = 0; i < string.length(); i++) {
+      if (Character.isDigit(string.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Parse a plain integer like <code>-12345</code>.
+   *
+   * @param string the (trimmed) string to parse
+   * @return the integer or null if the string needs to be parsed by the decimal format
+   */
+  public Long parseInteger(String string) {
+    if (!parsing) {
+      return null;
+    }
+    int length = string.length();
+    int start = length > 0 && string.charAt(0) == '-' ? 1 : 0;
+    int digits = length - start;
+    if (digits == 0 || digits > MAX_PARSE_DIGITS) {
+      return null;
+    }
+    long value = 0;
+    for (int i = start; i < length; i++) {
+      char c = string.charAt(i);
+      if (c < '0' || c > '9') {
+        return null;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return start == 0 ? value : -value;
+  }
+
+  /**
+   * Parse a plain number like <code>-1234.5</code>, using the decimal separator of the format.
+   *
+   * @param string the (trimmed) string to parse
+   * @return the number or null if the string needs to be parsed by the decimal format
+   */
+  public Double parseNumber(String string) {
+    if (!parsing) {
+      return null;
+    }
+    int length = string.length();
+    int start = length > 0 && string.charAt(0) == '-' ? 1 : 0;
+    int separator = -1;
+    boolean zero = true;
+    for (int i = start; i < length; i++) {
+      char c = string.charAt(i);
+      if (c >= '0' && c <= '9') {
+        zero &= c == '0';
+      } else if (c == decimalSeparator && separator < 0) {
+        separator = i;
+      } else {
+        return null;
+      }
+    }
+
+    int digits = length - start - (separator < 0 ? 0 : 1);
+    if (digits == 0
+        || digits > MAX_PARSE_DIGITS
+        || separator == start
+        || separator == length - 1
+        || (zero && start == 1)) {
+      // Empty, too long, "-.5", "5." or "-0"
+      return null;
+    }
+    if (separator < 0 || decimalSeparator == '.') {
+      return Double.parseDouble(string);
+    }
+    return Double.parseDouble(string.replace(decimalSeparator, '.'));
+  }
+
+  /**
+   * Format an integer.
+   *
+   * @param value the value to format
+   * @return the formatted value or null if the decimal format needs to format the value
+   */
+  public String formatInteger(long value) {
+    if (!formatting) {
+      return null;
+    }
+    return format(value);
+  }
+
+  /**
+   * Format a number. Only whole numbers are handled: they don't need any rounding.
+   *
+   * @param value the value to format
+   * @return the formatted value or null if the decimal format needs to format the value
+   */
+  public String formatNumber(double value) {
+    if (!formatting
+        || Math.abs(value) >= MAX_WHOLE_NUMBER
+        || value != Math.rint(value)
+        || (value == 0.0 && Double.doubleToRawLongBits(value) != 0L)) {
+      // Too large, has decimals, NaN/Infinity or -0.0
+      return null;
+    }
+    return format((long) value);
+  }
+
+  private String format(long value) {
+    String digits = Long.toString(value);
+    boolean negative = value < 0;
+    if (negative) {
+      digits = digits.substring(1);
+    }
+
+    StringBuilder builder = new StringBuilder(digits.length() + minimumFractionDigits + 8);
+    builder.append(negative ? negativePrefix : positivePrefix);
+
+    // Like DecimalFormat, zero has no integer digits at all if none are required, unless there is
+    // nothing else to show.
+    //
+    int nrDigits = Math.max(digits.length(), minimumIntegerDigits);
+    if (value == 0 && minimumIntegerDigits == 0) {
+      nrDigits = minimumFractionDigits > 0 ? 0 : 1;
+    }
+    for (int i = nrDigits; i > 0; i--) {
+      int index = digits.length() - i;
+      builder.append(index < 0 ? '0' : digits.charAt(index));
+      if (groupingSize > 0 && i > 1 && (i - 1) % groupingSize == 0) {
+        builder.append(groupingSeparator);
+      }
+    }
+
+    if (minimumFractionDigits > 0 || decimalSeparatorAlwaysShown) {
+      builder.append(decimalSeparator);
+    }
+    for (int i = 0; i < minimumFractionDigits; i++) {
+      builder.append('0');
+    }
+    return builder.toString();
+  }
+
+  /**
+   * @return true if this format can parse plain numbers
+   */
+  public boolean isParsing() {
+    return parsing;
+  }
+
+  /**
+   * @return true if this format can format integers and whole numbers
+   */
+  public boolean isFormatting() {
+    return formatting;
+  }
+}
@@ -228,6 +228,15 @@ public class ValueMetaBase implements IValueMeta {
   @JsonIgnore protected DecimalFormat decimalFormat;
   @JsonIgnore protected boolean decimalFormatChanged;
 
+  /**
+   * Thread-safe snapshots of the date and decimal formats above, used to convert common values
+   * without locking. They are (re)created together with the formats and cleared when the formats
+   * need to be rebuilt.
+   */
+  @JsonIgnore private volatile CompiledDateFormat compiledDateFormat;
+
+  @JsonIgnore private volatile CompiledNumberFormat compiledNumberFormat;
+
   @JsonIgnore protected IValueMeta storageMetadata;
   @JsonIgnore protected boolean identicalFormat;
 
@@ -648,6 +657,8 @@ public class ValueMetaBase implements IValueMeta {
       ValueMetaBase valueMeta = (ValueMetaBase) super.clone();
       valueMeta.dateFormat = null;
       valueMeta.decimalFormat = null;
+      valueMeta.compiledDateFormat = null;
+      valueMeta.compiledNumberFormat = null;
       if (dateFormatLocale != null) {
         valueMeta.dateFormatLocale = (Locale) dateFormatLocale.clone();
       }
@@ -847,7 +858,9 @@ public class ValueMetaBase implements IValueMeta {
   public void setConversionMask(String conversionMask) {
     this.conversionMask = conversionMask;
     dateFormatChanged = true;
+    compiledDateFormat = null;
     decimalFormatChanged = true;
+    compiledNumberFormat = null;
     compareStorageAndActualFormat();
   }
 
@@ -884,6 +897,7 @@ public class ValueMetaBase implements IValueMeta {
   public void setDecimalSymbol(String decimalSymbol) {
     this.decimalSymbol = decimalSymbol;
     decimalFormatChanged = true;
+    compiledNumberFormat = null;
     compareStorageAndActualFormat();
   }
 
@@ -902,6 +916,7 @@ public class ValueMetaBase implements IValueMeta {
   public void setGroupingSymbol(String groupingSymbol) {
     this.groupingSymbol = groupingSymbol;
     decimalFormatChanged = true;
+    compiledNumberFormat = null;
     compareStorageAndActualFormat();
   }
 
@@ -920,6 +935,7 @@ public class ValueMetaBase implements IValueMeta {
   public void setCurrencySymbol(String currencySymbol) {
     this.currencySymbol = currencySymbol;
     decimalFormatChanged = true;
+    compiledNumberFormat = null;
   }
 
   /**
@@ -1055,6 +1071,7 @@ public class ValueMetaBase implements IValueMeta {
   public void setDateFormatLenient(boolean dateFormatLenient) {
     this.dateFormatLenient = dateFormatLenient;
     dateFormatChanged = true;
+    compiledDateFormat = null;
   }
 
   /**
@@ -1072,15 +1089,24 @@ public class ValueMetaBase implements IValueMeta {
   public void setDateFormatLocale(Locale dateFormatLocale) {
     this.dateFormatLocale = dateFormatLocale;
     dateFormatChanged = true;
+    compiledDateFormat = null;
   }
 
   // DATE + STRING
 
-  protected synchronized String convertDateToString(Date date) {
+  protected String convertDateToString(Date date) {
     if (date == null) {
       return null;
     }
 
+    String string = getCompiledDateFormat(getType()).format(date);
+    if (string != null) {
+      return string;
+    }
+    return formatDate(date);
+  }
+
+  private synchronized String formatDate(Date date) {
     return getDateFormat().format(date);
   }
 
@@ -1097,7 +1123,7 @@ public class ValueMetaBase implements IValueMeta {
         : compatibleDateFormat.format(date));
   }
 
-  public synchronized Date convertStringToDate(String string) throws HopValueException {
+  public Date convertStringToDate(String string) throws HopValueException {
     string = Const.trimToType(string, getTrimType()); // see if trimming needs
     // to be performed before
     // conversion
@@ -1106,6 +1132,14 @@ public class ValueMetaBase implements IValueMeta {
       return null;
     }
 
+    Date date = getCompiledDateFormat(TYPE_DATE).parse(string);
+    if (date != null) {
+      return date;
+    }
+    return parseDate(string);
+  }
+
+  private synchronized Date parseDate(String string) throws HopValueException {
     try {
       ParsePosition pp = new ParsePosition(0);
       Date result = getDateFormat(TYPE_DATE).parse(string, pp);
@@ -1163,7 +1197,7 @@ public class ValueMetaBase implements IValueMeta {
     return new Date(number.longValue());
   }
 
-  public synchronized String convertNumberToString(Double number) throws HopValueException {
+  public String convertNumberToString(Double number) throws HopValueException {
     if (number == null) {
       if (!outputPaddingEnabled || length < 1) {
         return null;
@@ -1181,6 +1215,14 @@ public class ValueMetaBase implements IValueMeta {
       }
     }
 
+    String string = getCompiledNumberFormat().formatNumber(number);
+    if (string != null) {
+      return string;
+    }
+    return formatNumber(number);
+  }
+
+  private synchronized String formatNumber(Double number) throws HopValueException {
     try {
       DecimalFormat format = getDecimalFormat(false);
 
@@ -1203,7 +1245,7 @@ public class ValueMetaBase implements IValueMeta {
     return Double.toString(number);
   }
 
-  protected synchronized Double convertStringToNumber(String string) throws HopValueException {
+  protected Double convertStringToNumber(String string) throws HopValueException {
     string = Const.trimToType(string, getTrimType()); // see if trimming needs
     // to be performed before
     // conversion
@@ -1212,6 +1254,14 @@ public class ValueMetaBase implements IValueMeta {
       return null;
     }
 
+    Double value = getCompiledNumberFormat().parseNumber(string);
+    if (value != null) {
+      return value;
+    }
+    return parseNumber(string);
+  }
+
+  private synchronized Double parseNumber(String string) throws HopValueException {
     try {
       DecimalFormat format = getDecimalFormat(false);
       Number number;
@@ -1304,12 +1354,37 @@ public class ValueMetaBase implements IValueMeta {
       //
       dateFormat.setLenient(dateFormatLenient);
 
+      compiledDateFormat = CompiledDateFormat.compile(dateFormat);
       dateFormatChanged = false;
     }
 
     return dateFormat;
   }
 
+  /**
+   * Get a thread-safe snapshot of the date format used to convert dates from and to strings. The
+   * date format is created if needed, just like {@link #getDateFormat()} does.
+   *
+   * @param valueMetaType the data type to get the default mask for
+   * @return the compiled date format, never null
+   */
+  protected CompiledDateFormat getCompiledDateFormat(int valueMetaType) {
+    if (conversionMetadata != null) {
+      if (conversionMetadata instanceof ValueMetaBase valueMetaBase) {
+        return valueMetaBase.getCompiledDateFormat(valueMetaBase.getType());
+      }
+      return CompiledDateFormat.NONE;
+    }
+    CompiledDateFormat compiled = compiledDateFormat;
+    if (compiled == null) {
+      synchronized (this) {
+        getDateFormat(valueMetaType);
+        compiled = compiledDateFormat;
+      }
+    }
+    return compiled == null ? CompiledDateFormat.NONE : compiled;
+  }
+
   @Override
   public synchronized DecimalFormat getDecimalFormat() {
     return getDecimalFormat(false);
@@ -1387,12 +1462,37 @@ public class ValueMetaBase implements IValueMeta {
         decimalFormat.applyPattern(decimalPattern);
       }
 
+      compiledNumberFormat = CompiledNumberFormat.compile(decimalFormat);
       decimalFormatChanged = false;
     }
 
     return decimalFormat;
   }
 
+  /**
+   * Get a thread-safe snapshot of the decimal format used to convert numbers and integers from and
+   * to strings. The decimal format is created if needed, just like {@link #getDecimalFormat()}
+   * does.
+   *
+   * @return the compiled decimal format, never null
+   */
+  protected CompiledNumberFormat getCompiledNumberFormat() {
+    if (conversionMetadata != null) {
+      if (conversionMetadata instanceof ValueMetaBase valueMetaBase) {
+        return valueMetaBase.getCompiledNumberFormat();
+      }
+      return CompiledNumberFormat.NONE;
+    }
+    CompiledNumberFormat compiled = compiledNumberFormat;
+    if (compiled == null) {
+      synchronized (this) {
+        getDecimalFormat(false);
+        compiled = compiledNumberFormat;
+      }
+    }
+    return compiled == null ? CompiledNumberFormat.NONE : compiled;
+  }
+
   @Override
   @JsonIgnore
   public String getFormatMask() {
@@ -1533,7 +1633,7 @@ public class ValueMetaBase implements IValueMeta {
     return numberPattern.toString();
   }
 
-  protected synchronized String convertIntegerToString(Long integer) throws HopValueException {
+  protected String convertIntegerToString(Long integer) throws HopValueException {
     if (integer == null) {
       if (!outputPaddingEnabled || length < 1) {
         return null;
@@ -1551,6 +1651,14 @@ public class ValueMetaBase implements IValueMeta {
       }
     }
 
+    String string = getCompiledNumberFormat().formatInteger(integer);
+    if (string != null) {
+      return string;
+    }
+    return formatInteger(integer);
+  }
+
+  private synchronized String formatInteger(Long integer) throws HopValueException {
     try {
       return getDecimalFormat(false).format(integer);
     } catch (Exception e) {
@@ -1565,7 +1673,7 @@ public class ValueMetaBase implements IValueMeta {
     return Long.toString(integer);
   }
 
-  protected synchronized Long convertStringToInteger(String string) throws HopValueException {
+  protected Long convertStringToInteger(String string) throws HopValueException {
     string = Const.trimToType(string, getTrimType()); // see if trimming needs
     // to be performed before
     // conversion
@@ -1574,6 +1682,14 @@ public class ValueMetaBase implements IValueMeta {
       return null;
     }
 
+    Long value = getCompiledNumberFormat().parseInteger(string);
+    if (value != null) {
+      return value;
+    }
+    return parseInteger(string);
+  }
+
+  private synchronized Long parseInteger(String string) throws HopValueException {
     try {
       Number number;
       if (lenientStringToNumber) {
@@ -5067,6 +5183,7 @@ public class ValueMetaBase implements IValueMeta {
   public void setDateFormatTimeZone(TimeZone dateFormatTimeZone) {
     this.dateFormatTimeZone = dateFormatTimeZone;
     dateFormatChanged = true;
+    compiledDateFormat = null;
   }
 
   @Override
@@ -675,6 +675,12 @@ public class ValueMetaTimestamp extends ValueMetaDate {
     return dateFormat;
   }
 
+  /** Timestamps have nanosecond precision: always use the timestamp format. */
+  @Override
+  protected CompiledDateFormat getCompiledDateFormat(int valueMetaType) {
+    return CompiledDateFormat.NONE;
+  }
+
   @Override
   public String getFormatMask() {
     return getTimestampFormatMask();
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs requests, like the HTTP calls of a transform, on a pool of threads with a maximum number of
+ * requests in flight. The transform thread submits a request for every row and takes the completed
+ * requests back, either in the order of the rows or in the order in which they complete.
+ *
+ * <p>Only one thread, the transform thread, submits and takes requests. The requests themselves run
+ * on the pool and shouldn't change the transform or its data: read the row values before submitting
+ * and handle the result after taking it.
+ *
+ * @param <R> the type of the result of a request
+ */
+public class AsyncRequestQueue<R> implements AutoCloseable {
+
+  /** A submitted request with the row it was submitted for. */
+  public static final class Request<R> {
+    private final Object[] row;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private R result;
+    private Exception error;
+
+    private Request(Object[] row) {
+      this.row = row;
+    }
+
+    /**
+     * @return the row the request was submitted for
+     */
+    public Object[] getRow() {
+      return row;
+    }
+
+    /**
+     * @return the result of the request or null if it failed
+     */
+    public R getResult() {
+      return result;
+    }
+
+    /**
+     * @return the exception thrown by the request or null if it succeeded
+     */
+    public Exception getError() {
+      return error;
+    }
+
+    private boolean isDone() {
+      return done.getCount() == 0;
+    }
+  }
+
+  private final int maxInFlight;
+  private final boolean ordered;
+  private final ExecutorService executor;
+
+  /** The requests in flight or not yet taken, in the order they were submitted. */
+  private final Deque<Request<R>> requests = new ArrayDeque<>();
+
+  /** The completed requests in the order they completed, only used when not ordered. */
+  private final BlockingQueue<Request<R>> completed = new LinkedBlockingQueue<>();
+
+  /**
+   * @param name the name of the threads, usually the name of the transform
+   * @param maxInFlight the maximum number of requests in flight
+   * @param ordered true to take the requests in the order in which they were submitted, false to
+   *     take them in the order they complete
+   */
+  public AsyncRequestQueue(String name, int maxInFlight, boolean ordered) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("The maximum number of requests in flight is at least 1");
+    }
+    this.maxInFlight = maxInFlight;
+    this.ordered = ordered;
+    AtomicInteger threadNr = new AtomicInteger(1);
+    this.executor =
+        Executors.newFixedThreadPool(
+            maxInFlight,
+            runnable -> {
+              Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+              thread.setDaemon(true);
+              thread.setName(name + " request " + threadNr.getAndIncrement());
+              return thread;
+            });
+  }
+
+  /**
+   * Start a request. Take a completed request first when the queue is full.
+   *
+   * @param row the row to hand back with the result
+   * @param call the request
+   * @throws IllegalStateException when the maximum number of requests is in flight
+   */
+  public void submit(Object[] row, Callable<R> call) {
+    if (isFull()) {
+      throw new IllegalStateException(
+          "The maximum of " + maxInFlight + " requests in flight is reached");
+    }
+    Request<R> request = new Request<>(row);
+    requests.add(request);
+    executor.execute(
+        () -> {
+          try {
+            request.result = call.call();
+          } catch (Exception e) {
+            request.error = e;
+          } finally {
+            request.done.countDown();
+            if (!ordered) {
+              completed.add(request);
+            }
+          }
+        });
+  }
+
+  /**
+   * @return true if no more requests can be submitted before a completed request is taken
+   */
+  public boolean isFull() {
+    return requests.size() >= maxInFlight;
+  }
+
+  /**
+   * @return true if there are no requests to take
+   */
+  public boolean isEmpty() {
+    return requests.isEmpty();
+  }
+
+  /**
+   * @return the number of requests submitted and not taken yet
+   */
+  public int size() {
+    return requests.size();
+  }
+
+  /**
+   * Take the next request if it completed.
+   *
+   * @return the next completed request or null if there is none (yet)
+   */
+  public Request<R> poll() {
+    Request<R> request;
+    if (ordered) {
+      request = requests.peekFirst();
+      if (request == null || !request.isDone()) {
+        return null;
+      }
+      requests.removeFirst();
+    } else {
+      request = completed.poll();
+      if (request != null) {
+        requests.remove(request);
+      }
+    }
+    return request;
+  }
+
+  /**
+   * Wait for the next request to complete and take it.
+   *
+   * @return the next completed request or null if there are no requests
+   * @throws InterruptedException when interrupted while waiting
+   */
+  public Request<R> take() throws InterruptedException {
+    if (requests.isEmpty()) {
+      return null;
+    }
+    Request<R> request;
+    if (ordered) {
+      request = requests.peekFirst();
+      request.done.await();
+      requests.removeFirst();
+    } else {
+      request = completed.take();
+      requests.remove(request);
+    }
+    return request;
+  }
+
+  /** Stop the threads, requests in flight are interrupted and never taken. */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    requests.clear();
+    completed.clear();
+  }
+}
@@ -95,6 +95,7 @@ public class HttpClientManager {
     private int socketTimeout;
     private HttpHost proxy;
     private boolean ignoreSsl;
+    private int connectionPoolSize;
 
     public HttpClientBuilderFacade setConnectionTimeout(int connectionTimeout) {
       this.connectionTimeout = connectionTimeout;
@@ -140,7 +141,27 @@ public class HttpClientManager {
       this.ignoreSsl = ignoreSsl;
     }
 
+    /**
+     * Give the client a connection pool of its own instead of the shared pool. Such a client can be
+     * used by this many threads at the same time, keeps the connections alive between requests and
+     * closes its pool when it is closed.
+     *
+     * @param connectionPoolSize the maximum number of connections, in total and per route
+     * @return this builder
+     */
+    public HttpClientBuilderFacade setConnectionPoolSize(int connectionPoolSize) {
+      this.connectionPoolSize = connectionPoolSize;
+      return this;
+    }
+
     public void ignoreSsl(HttpClientBuilder httpClientBuilder) {
+      BasicHttpClientConnectionManager connectionManager =
+          new BasicHttpClientConnectionManager(createTrustAllRegistry());
+
+      httpClientBuilder.setConnectionManager(connectionManager);
+    }
+
+    private Registry<ConnectionSocketFactory> createTrustAllRegistry() {
       TrustStrategy acceptingTrustStrategy = (cert, authType) -> true;
       SSLContext sslContext;
       try {
@@ -152,16 +173,10 @@ public class HttpClientManager {
       SSLConnectionSocketFactory sslsf =
           new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
 
-      Registry<ConnectionSocketFactory> socketFactoryRegistry =
-          RegistryBuilder.<ConnectionSocketFactory>create()
-              .register("https", sslsf)
-              .register("http", new PlainConnectionSocketFactory())
-              .build();
-
-      BasicHttpClientConnectionManager connectionManager =
-          new BasicHttpClientConnectionManager(socketFactoryRegistry);
-
-      httpClientBuilder.setConnectionManager(connectionManager);
+      return RegistryBuilder.<ConnectionSocketFactory>create()
+          .register("https", sslsf)
+          .register("http", new PlainConnectionSocketFactory())
+          .build();
     }
 
     public CloseableHttpClient build() {
@@ -186,7 +201,15 @@ public class HttpClientManager {
       if (redirectStrategy != null) {
         httpClientBuilder.setRedirectStrategy(redirectStrategy);
       }
-      if (ignoreSsl) {
+      if (connectionPoolSize > 0) {
+        PoolingHttpClientConnectionManager pool =
+            ignoreSsl
+                ? new PoolingHttpClientConnectionManager(createTrustAllRegistry())
+                : new PoolingHttpClientConnectionManager();
+        pool.setMaxTotal(connectionPoolSize);
+        pool.setDefaultMaxPerRoute(connectionPoolSize);
+        httpClientBuilder.setConnectionManager(pool);
+      } else if (ignoreSsl) {
         ignoreSsl(httpClientBuilder);
       }
 
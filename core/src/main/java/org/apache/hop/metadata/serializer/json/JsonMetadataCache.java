@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.metadata.serializer.json;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.vfs2.FileContent;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.vfs.HopVfs;
+
+/**
+ * Keeps the content of JSON metadata files and the names of the files in a metadata folder in
+ * memory. Once the check interval has passed since a file was last checked, the next access
+ * compares the last modification time and size of the file with the cached version so that changes
+ * made outside of Hop are picked up. The {@link JsonMetadataSerializer} writes through this cache
+ * when it saves or deletes an object, so those changes are visible right away.
+ *
+ * <p>The cache holds file content rather than metadata objects: metadata objects can be changed by
+ * the caller (in an editor for example), so every load parses a new object.
+ *
+ * <p>Files on a file system which can't report a modification time aren't cached. The check
+ * interval is {@link #DEFAULT_CHECK_INTERVAL} milliseconds unless {@link
+ * Const#HOP_METADATA_CACHE_CHECK_INTERVAL} is set. 0 checks the file system on every access.
+ */
+public class JsonMetadataCache {
+
+  /** The default number of milliseconds during which a cached file is considered unchanged */
+  public static final long DEFAULT_CHECK_INTERVAL = 1000L;
+
+  private static final JsonMetadataCache INSTANCE = new JsonMetadataCache();
+
+  private final Map<String, FileEntry> files = new ConcurrentHashMap<>();
+  private final Map<String, FolderEntry> folders = new ConcurrentHashMap<>();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  public static JsonMetadataCache getInstance() {
+    return INSTANCE;
+  }
+
+  JsonMetadataCache() {}
+
+  /**
+   * Get the content of a metadata file.
+   *
+   * @param filename the name of the file
+   * @return the content of the file or null if the file doesn't exist
+   * @throws HopException in case the file couldn't be read
+   */
+  public byte[] getContent(String filename) throws HopException {
+    long now = System.currentTimeMillis();
+    FileEntry entry = files.get(filename);
+    if (entry != null && now - entry.checked < getCheckInterval()) {
+      hits.incrementAndGet();
+      return entry.content;
+    }
+
+    try {
+      FileObject fileObject = HopVfs.getFileObject(filename);
+      if (!fileObject.exists()) {
+        files.put(filename, new FileEntry(0L, 0L, null, now));
+        return null;
+      }
+      FileContent fileContent = fileObject.getContent();
+      long lastModified = getLastModified(fileContent);
+      long size = fileContent.getSize();
+      if (entry != null
+          && entry.content != null
+          && lastModified > 0
+          && entry.lastModified == lastModified
+          && entry.size == size) {
+        entry.checked = now;
+        hits.incrementAndGet();
+        return entry.content;
+      }
+
+      misses.incrementAndGet();
+      byte[] content;
+      try (InputStream inputStream = fileContent.getInputStream()) {
+        content = inputStream.readAllBytes();
+      }
+      if (lastModified > 0) {
+        files.put(filename, new FileEntry(lastModified, size, content, now));
+      } else {
+        files.remove(filename);
+      }
+      return content;
+    } catch (Exception e) {
+      throw new HopException("Error reading metadata file '" + filename + "'", e);
+    }
+  }
+
+  /**
+   * See if a metadata file exists. A file which was checked within the check interval isn't looked
+   * up again, otherwise the file system is asked without reading the file.
+   *
+   * @param filename the name of the file
+   * @return true if the file exists
+   * @throws HopException in case the file system couldn't be accessed
+   */
+  public boolean exists(String filename) throws HopException {
+    FileEntry entry = files.get(filename);
+    if (entry != null && System.currentTimeMillis() - entry.checked < getCheckInterval()) {
+      hits.incrementAndGet();
+      return entry.content != null;
+    }
+    try {
+      return HopVfs.getFileObject(filename).exists();
+    } catch (Exception e) {
+      throw new HopException("Error looking for metadata file '" + filename + "'", e);
+    }
+  }
+
+  /**
+   * Remember the content which was just written to a metadata file.
+   *
+   * @param filename the name of the file
+   * @param content the content written to the file
+   */
+  public void put(String filename, byte[] content) {
+    try {
+      FileContent fileContent = HopVfs.getFileObject(filename).getContent();
+      long lastModified = getLastModified(fileContent);
+      if (lastModified > 0) {
+        files.put(
+            filename,
+            new FileEntry(
+                lastModified, fileContent.getSize(), content, System.currentTimeMillis()));
+        return;
+      }
+    } catch (Exception e) {
+      // We'll read the file again next time
+    }
+    files.remove(filename);
+  }
+
+  /**
+   * Forget about a metadata file, for example because it was deleted.
+   *
+   * @param filename the name of the file
+   */
+  public void remove(String filename) {
+    files.remove(filename);
+  }
+
+  /**
+   * Get the names of the JSON files in a metadata folder, without the extension.
+   *
+   * @param folder the folder to look in
+   * @return a new list with the names of the JSON files
+   * @throws HopException in case the folder couldn't be searched
+   */
+  public List<String> getNames(String folder) throws HopException {
+    long now = System.currentTimeMillis();
+    FolderEntry entry = folders.get(folder);
+    if (entry != null && now - entry.checked < getCheckInterval()) {
+      return new ArrayList<>(entry.names);
+    }
+
+    try {
+      FileObject folderObject = HopVfs.getFileObject(folder);
+      long lastModified = getLastModified(folderObject.getContent());
+      if (entry != null && lastModified > 0 && entry.lastModified == lastModified) {
+        entry.checked = now;
+        return new ArrayList<>(entry.names);
+      }
+
+      List<String> names = new ArrayList<>();
+      for (FileObject jsonFile : HopVfs.findFiles(folderObject, "json", false)) {
+        String baseName = jsonFile.getName().getBaseName();
+        names.add(baseName.replaceAll("\\.json$", ""));
+      }
+      if (lastModified > 0) {
+        folders.put(folder, new FolderEntry(lastModified, List.copyOf(names), now));
+      } else {
+        folders.remove(folder);
+      }
+      return names;
+    } catch (Exception e) {
+      throw new HopException("Error searching for JSON files", e);
+    }
+  }
+
+  /**
+   * Forget the names of the files in a folder after a file was added or removed.
+   *
+   * @param folder the folder
+   */
+  public void invalidateFolder(String folder) {
+    folders.remove(folder);
+  }
+
+  /** Forget about all files and folders */
+  public void clear() {
+    files.clear();
+    folders.clear();
+  }
+
+  /**
+   * @return the number of times a file didn't need to be read
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * @return the number of times a file was read
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  private static long getCheckInterval() {
+    return Const.toLong(
+        System.getProperty(Const.HOP_METADATA_CACHE_CHECK_INTERVAL), DEFAULT_CHECK_INTERVAL);
+  }
+
+  private static long getLastModified(FileContent fileContent) {
+    try {
+      return fileContent.getLastModifiedTime();
+    } catch (Exception e) {
+      // Some file systems can't tell
+      return 0L;
+    }
+  }
+
+  private static final class FileEntry {
+    private final long lastModified;
+    private final long size;
+
+    /** The content of the file or null if the file didn't exist */
+    private final byte[] content;
+
+    private volatile long checked;
+
+    private FileEntry(long lastModified, long size, byte[] content, long checked) {
+      this.lastModified = lastModified;
+      this.size = size;
+      this.content = content;
+      this.checked = checked;
+    }
+  }
+
+  private static final class FolderEntry {
+    private final long lastModified;
+    private final List<String> names;
+    private volatile long checked;
+
+    private FolderEntry(long lastModified, List<String> names, long checked) {
+      this.lastModified = lastModified;
+      this.names = names;
+      this.checked = checked;
+    }
+  }
+}
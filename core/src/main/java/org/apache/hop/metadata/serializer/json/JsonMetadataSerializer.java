@@ -23,7 +23,6 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -92,28 +91,31 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
     if (name == null) {
       throw new HopException("Error: you need to specify the name of the metadata object to load");
     }
-    if (!exists(name)) {
+    // Read-only access doesn't require a folder
+    validateBaseFolder(false);
+    if (!baseFolderExists) {
       return null;
     }
 
     String filename = calculateFilename(name);
+    byte[] content = JsonMetadataCache.getInstance().getContent(filename);
+    if (content == null) {
+      return null;
+    }
 
     try {
       // Load the JSON in a streaming fashion so we can parse the properties one by one...
       //
-      try (InputStream fileInputStream = HopVfs.getInputStream(filename)) {
-        JsonFactory jsonFactory = new JsonFactory();
-        try (com.fasterxml.jackson.core.JsonParser jsonParser =
-            jsonFactory.createParser(fileInputStream)) {
+      JsonFactory jsonFactory = new JsonFactory();
+      try (com.fasterxml.jackson.core.JsonParser jsonParser = jsonFactory.createParser(content)) {
 
-          // skip opening '{'
-          jsonParser.nextToken();
+        // skip opening '{'
+        jsonParser.nextToken();
 
-          T t = parser.loadJsonObject(managedClass, jsonParser);
-          inheritVariables(t);
-          t.setMetadataProviderName(metadataProvider.getDescription());
-          return t;
-        }
+        T t = parser.loadJsonObject(managedClass, jsonParser);
+        inheritVariables(t);
+        t.setMetadataProviderName(metadataProvider.getDescription());
+        return t;
       }
     } catch (Exception e) {
       throw new HopException(
@@ -188,21 +190,27 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
 
       JSONObject jObject = parser.getJsonObject(t);
 
-      try (OutputStream outputStream = HopVfs.getOutputStream(filename, false)) {
-        String jsonString = jObject.toJSONString();
-        Gson gson = (new GsonBuilder()).setPrettyPrinting().create();
-        JsonElement je = JsonParser.parseString(jsonString);
+      String jsonString = jObject.toJSONString();
+      Gson gson = (new GsonBuilder()).setPrettyPrinting().create();
+      JsonElement je = JsonParser.parseString(jsonString);
+      byte[] content = gson.toJson(je).getBytes(StandardCharsets.UTF_8);
 
-        String formattedJson = gson.toJson(je);
-        outputStream.write(formattedJson.getBytes(StandardCharsets.UTF_8));
+      try (OutputStream outputStream = HopVfs.getOutputStream(filename, false)) {
+        outputStream.write(content);
         outputStream.flush();
-
-        // Remember where we saved this...
-        //
-        t.setMetadataProviderName(getMetadataProvider().getDescription());
       } catch (IOException e) {
+        JsonMetadataCache.getInstance().remove(filename);
         throw new HopException("Error serializing JSON to file '" + filename + "'", e);
       }
+
+      // Keep the cache in sync with what we just wrote
+      //
+      JsonMetadataCache.getInstance().put(filename, content);
+      JsonMetadataCache.getInstance().invalidateFolder(baseFolder);
+
+      // Remember where we saved this...
+      //
+      t.setMetadataProviderName(getMetadataProvider().getDescription());
     } catch (Exception e) {
       throw new HopException(
           "Unable to save object '" + t.getName() + "' to JSON file '" + filename + "'", e);
@@ -229,6 +237,8 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
     T t = load(name);
     String filename = calculateFilename(name);
     try {
+      JsonMetadataCache.getInstance().remove(filename);
+      JsonMetadataCache.getInstance().invalidateFolder(baseFolder);
       boolean deleted = HopVfs.getFileObject(filename).delete();
       if (!deleted) {
         throw new HopException(
@@ -242,28 +252,15 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
 
   @Override
   public List<String> listObjectNames() throws HopException {
-    List<String> names = new ArrayList<>();
-
     // Read-only access doesn't require a folder
     validateBaseFolder(false);
     if (!baseFolderExists) {
       // This is not an error.  We simply don't have objects of the given type.
       //
-      return names;
+      return new ArrayList<>();
     }
 
-    FileObject folder = HopVfs.getFileObject(baseFolder);
-
-    try {
-      List<FileObject> jsonFiles = HopVfs.findFiles(folder, "json", false);
-      for (FileObject jsonFile : jsonFiles) {
-        String baseName = jsonFile.getName().getBaseName();
-        names.add(baseName.replaceAll("\\.json$", ""));
-      }
-      return names;
-    } catch (Exception e) {
-      throw new HopException("Error searching for JSON files", e);
-    }
+    return JsonMetadataCache.getInstance().getNames(baseFolder);
   }
 
   @Override
@@ -273,6 +270,6 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
     if (!baseFolderExists) {
       return false;
     }
-    return HopVfs.fileExists(calculateFilename(name));
+    return JsonMetadataCache.getInstance().exists(calculateFilename(name));
   }
 }
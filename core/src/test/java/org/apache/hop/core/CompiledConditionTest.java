@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.apache.hop.core.Condition.Function;
+import org.apache.hop.core.Condition.Operator;
+import org.apache.hop.core.exception.HopRuntimeException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.ValueMetaAndData;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEnvironmentExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(RestoreHopEnvironmentExtension.class)
+class CompiledConditionTest {
+
+  private static IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaString("pattern"));
+    rowMeta.addValueMeta(new ValueMetaInteger("other"));
+    return rowMeta;
+  }
+
+  private static final List<Object[]> ROWS =
+      List.of(
+          new Object[] {1L, "Apache Hop", 10.5, "Apache.*", 1L},
+          new Object[] {2L, "Hop", -3.0, "H.p", 5L},
+          new Object[] {3L, "", 0.0, "x", 3L},
+          new Object[] {null, null, null, null, null},
+          new Object[] {42L, "Pipelines and workflows", 42.0, ".*flows", 41L});
+
+  /** Verify that the compiled condition gives the same results as Condition.evaluate() */
+  private static void assertSameResults(Condition condition) throws Exception {
+    IRowMeta rowMeta = createRowMeta();
+    CompiledCondition compiled = condition.compile(rowMeta);
+    assertTrue(compiled.isCompiledFor(rowMeta));
+    for (Object[] row : ROWS) {
+      assertEquals(
+          condition.evaluate(rowMeta, row),
+          compiled.evaluate(row),
+          "Condition " + condition + " on row " + rowMeta.getString(row));
+    }
+  }
+
+  private static Condition constant(String field, Function function, ValueMetaAndData value)
+      throws Exception {
+    return new Condition(field, function, null, value);
+  }
+
+  @Test
+  void testComparisons() throws Exception {
+    ValueMetaAndData integer = new ValueMetaAndData(new ValueMetaInteger("c"), 2L);
+    ValueMetaAndData number = new ValueMetaAndData(new ValueMetaNumber("c"), 2.5);
+    ValueMetaAndData string = new ValueMetaAndData(new ValueMetaString("c"), "3");
+
+    for (Function function :
+        List.of(
+            Function.EQUAL,
+            Function.NOT_EQUAL,
+            Function.SMALLER,
+            Function.SMALLER_EQUAL,
+            Function.LARGER,
+            Function.LARGER_EQUAL)) {
+      // Same data type, converted constants, field against field
+      assertSameResults(constant("id", function, integer));
+      assertSameResults(constant("id", function, number));
+      assertSameResults(constant("id", function, string));
+      assertSameResults(constant("amount", function, integer));
+      assertSameResults(constant("name", function, string));
+      assertSameResults(new Condition("id", function, "other", null));
+      assertSameResults(new Condition("amount", function, "id", null));
+    }
+  }
+
+  @Test
+  void testStringFunctions() throws Exception {
+    assertSameResults(
+        constant("name", Function.REGEXP, new ValueMetaAndData("c", "(Apache )?Hop")));
+    assertSameResults(constant("name", Function.LIKE, new ValueMetaAndData("c", "%Ho?")));
+    assertSameResults(new Condition("name", Function.REGEXP, "pattern", null));
+    assertSameResults(new Condition("name", Function.LIKE, "pattern", null));
+    assertSameResults(constant("name", Function.CONTAINS, new ValueMetaAndData("c", "op")));
+    assertSameResults(constant("name", Function.STARTS_WITH, new ValueMetaAndData("c", "Ap")));
+    assertSameResults(constant("name", Function.ENDS_WITH, new ValueMetaAndData("c", "flows")));
+    assertSameResults(new Condition("name", Function.ENDS_WITH, "pattern", null));
+    assertSameResults(constant("name", Function.IN_LIST, new ValueMetaAndData("c", "Hop;x;")));
+    assertSameResults(constant("id", Function.IN_LIST, new ValueMetaAndData("c", "1;42")));
+    assertSameResults(new Condition("name", Function.IN_LIST, "pattern", null));
+    assertSameResults(new Condition("name", Function.NULL, null, null));
+    assertSameResults(new Condition("amount", Function.NOT_NULL, null, null));
+  }
+
+  @Test
+  void testNegationAndMissingFields() throws Exception {
+    assertSameResults(new Condition(true, "name", Function.NULL, null, null));
+    assertSameResults(new Condition(true, "dummy", Function.TRUE, null, null));
+    assertSameResults(new Condition(false, "dummy", Function.TRUE, null, null));
+
+    // An unknown left field never matches, not even negated
+    Condition unknown = new Condition(true, "unknown", Function.NULL, null, null);
+    assertSameResults(unknown);
+    assertFalse(unknown.compile(createRowMeta()).evaluate(ROWS.get(0)));
+  }
+
+  @Test
+  void testComposite() throws Exception {
+    for (Operator operator :
+        List.of(Operator.OR, Operator.AND, Operator.OR_NOT, Operator.AND_NOT, Operator.XOR)) {
+      Condition condition = new Condition();
+      condition.addCondition(
+          constant("id", Function.LARGER, new ValueMetaAndData(new ValueMetaInteger("c"), 1L)));
+      condition.addCondition(
+          new Condition(
+              operator,
+              "name",
+              Function.LIKE,
+              null,
+              new ValueMetaAndData(new ValueMetaString("c"), "%Hop%")));
+      condition.addCondition(new Condition(Operator.AND, "amount", Function.NOT_NULL, null, null));
+      assertSameResults(condition);
+
+      condition.negate();
+      assertSameResults(condition);
+    }
+  }
+
+  @Test
+  void testShortCircuit() throws Exception {
+    Condition condition = new Condition();
+    condition.addCondition(new Condition("name", Function.NULL, null, null));
+
+    // Comparing against an unknown field fails, but only when it is evaluated
+    condition.addCondition(new Condition(Operator.AND, "id", Function.EQUAL, "unknown", null));
+
+    CompiledCondition compiled = condition.compile(createRowMeta());
+    assertFalse(compiled.evaluate(ROWS.get(0)));
+    assertThrows(HopRuntimeException.class, () -> compiled.evaluate(ROWS.get(3)));
+  }
+
+  @Test
+  void testCompiledForRowMeta() throws Exception {
+    IRowMeta rowMeta1 = createRowMeta();
+    IRowMeta rowMeta2 = new RowMeta();
+    rowMeta2.addValueMeta(new ValueMetaString("name"));
+    rowMeta2.addValueMeta(new ValueMetaInteger("id"));
+
+    Condition condition =
+        constant("id", Function.EQUAL, new ValueMetaAndData(new ValueMetaInteger("c"), 2L));
+    CompiledCondition compiled1 = condition.compile(rowMeta1);
+    CompiledCondition compiled2 = condition.compile(rowMeta2);
+
+    assertTrue(compiled1.isCompiledFor(rowMeta1));
+    assertFalse(compiled1.isCompiledFor(rowMeta2));
+    assertTrue(compiled1.evaluate(ROWS.get(1)));
+    assertTrue(compiled2.evaluate(new Object[] {"Hop", 2L}));
+    assertFalse(compiled2.evaluate(new Object[] {"Hop", 3L}));
+  }
+}
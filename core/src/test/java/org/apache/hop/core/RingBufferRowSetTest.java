@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.junit.rules.RestoreHopEnvironmentExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/** Test class for the lock-free ring buffer row set. */
+@ExtendWith(RestoreHopEnvironmentExtension.class)
+class RingBufferRowSetTest {
+
+  private static IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("ROWNR"));
+    return rowMeta;
+  }
+
+  @Test
+  void testBasicCreation() {
+    RingBufferRowSet set = new RingBufferRowSet(10);
+
+    assertFalse(set.isDone());
+    assertEquals(0, set.size());
+    assertEquals(16, set.capacity());
+    assertFalse(set.isMultiProducer());
+    assertEquals(RingBufferRowSet.WaitStrategy.Yielding, set.getWaitStrategy());
+  }
+
+  @Test
+  void testCapacity() {
+    assertEquals(2, RingBufferRowSet.capacityFor(0));
+    assertEquals(2, RingBufferRowSet.capacityFor(2));
+    assertEquals(4, RingBufferRowSet.capacityFor(3));
+    assertEquals(16384, RingBufferRowSet.capacityFor(Const.ROWS_IN_ROWSET));
+  }
+
+  @Test
+  void testPutGetFullAndEmpty() {
+    RingBufferRowSet set = new RingBufferRowSet(4, false, RingBufferRowSet.WaitStrategy.Parking);
+    IRowMeta rowMeta = createRowMeta();
+
+    assertNull(set.getRowImmediate());
+    assertNull(set.getRowWait(1, TimeUnit.MILLISECONDS));
+
+    for (long i = 0; i < 4; i++) {
+      assertTrue(set.putRowWait(rowMeta, new Object[] {i}, 1, TimeUnit.MILLISECONDS));
+    }
+    assertEquals(4, set.size());
+    assertEquals(rowMeta, set.getRowMeta());
+
+    // The buffer is full
+    assertFalse(set.putRowWait(rowMeta, new Object[] {4L}, 1, TimeUnit.MILLISECONDS));
+    assertFalse(set.putRowWait(rowMeta, null, 1, TimeUnit.MILLISECONDS));
+
+    for (long i = 0; i < 4; i++) {
+      assertArrayEquals(new Object[] {i}, set.getRowImmediate());
+    }
+    assertEquals(0, set.size());
+    assertNull(set.getRowImmediate());
+
+    // Wrap around
+    assertTrue(set.putRow(rowMeta, new Object[] {5L}));
+    assertArrayEquals(new Object[] {5L}, set.getRow());
+  }
+
+  @Test
+  void testBatches() {
+    RingBufferRowSet set = new RingBufferRowSet(4, false, RingBufferRowSet.WaitStrategy.Parking);
+    IRowMeta rowMeta = createRowMeta();
+
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 0; i < 6; i++) {
+      rows.add(new Object[] {i});
+    }
+
+    // Only 4 rows fit, the rest needs to wait for room
+    assertEquals(4, set.putRows(rowMeta, rows, 0));
+    assertEquals(4, set.size());
+    assertEquals(rowMeta, set.getRowMeta());
+
+    List<Object[]> read = new ArrayList<>();
+    assertEquals(3, set.getRows(read, 3));
+    assertEquals(1, set.size());
+
+    // Wrap around
+    assertEquals(2, set.putRows(rowMeta, rows, 4));
+    assertEquals(3, set.getRows(read, 100));
+    assertEquals(0, set.getRows(read, 100));
+    assertEquals(rows.size(), read.size());
+    for (int i = 0; i < rows.size(); i++) {
+      assertSame(rows.get(i), read.get(i));
+    }
+
+    // A batch stops at the first null row
+    rows.set(1, null);
+    assertEquals(1, set.putRows(rowMeta, rows, 0));
+    assertEquals(0, set.putRows(rowMeta, rows, 1));
+  }
+
+  @Test
+  void testMultiProducerBatches() throws Exception {
+    RingBufferRowSet set = new RingBufferRowSet(16, true, RingBufferRowSet.WaitStrategy.Yielding);
+    IRowMeta rowMeta = createRowMeta();
+    int nrProducers = 3;
+    int nrRows = 20000;
+
+    List<Thread> producers = new ArrayList<>();
+    for (int p = 0; p < nrProducers; p++) {
+      long offset = (long) p * nrRows;
+      Thread producer =
+          new Thread(
+              () -> {
+                List<Object[]> batch = new ArrayList<>();
+                for (long i = 0; i < nrRows; i++) {
+                  batch.add(new Object[] {offset + i});
+                  if (batch.size() == 7 || i == nrRows - 1) {
+                    int index = 0;
+                    while (index < batch.size()) {
+                      index += set.putRows(rowMeta, batch, index);
+                    }
+                    batch.clear();
+                  }
+                }
+              });
+      producers.add(producer);
+      producer.start();
+    }
+
+    boolean[] seen = new boolean[nrProducers * nrRows];
+    List<Object[]> read = new ArrayList<>();
+    int received = 0;
+    while (received < seen.length) {
+      read.clear();
+      if (set.getRows(read, 10) == 0) {
+        Thread.yield();
+        continue;
+      }
+      for (Object[] row : read) {
+        int value = ((Long) row[0]).intValue();
+        assertFalse(seen[value]);
+        seen[value] = true;
+        received++;
+      }
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    assertNull(set.getRowImmediate());
+  }
+
+  @Test
+  void testClear() {
+    RingBufferRowSet set = new RingBufferRowSet(4);
+    IRowMeta rowMeta = createRowMeta();
+
+    set.putRow(rowMeta, new Object[] {1L});
+    set.putRow(rowMeta, new Object[] {2L});
+    set.setDone();
+
+    set.clear();
+    assertFalse(set.isDone());
+    assertEquals(0, set.size());
+    assertNull(set.getRowImmediate());
+
+    assertTrue(set.putRow(rowMeta, new Object[] {3L}));
+    assertArrayEquals(new Object[] {3L}, set.getRowImmediate());
+  }
+
+  @Test
+  void testSingleProducerOrder() throws Exception {
+    for (RingBufferRowSet.WaitStrategy strategy : RingBufferRowSet.WaitStrategy.values()) {
+      RingBufferRowSet set = new RingBufferRowSet(64, false, strategy);
+      IRowMeta rowMeta = createRowMeta();
+      int nrRows = 100000;
+
+      Thread producer =
+          new Thread(
+              () -> {
+                for (long i = 0; i < nrRows; i++) {
+                  Object[] row = new Object[] {i};
+                  while (!set.putRow(rowMeta, row)) {
+                    // retry like BaseTransform does
+                  }
+                }
+                set.setDone();
+              });
+      producer.start();
+
+      long expected = 0;
+      while (expected < nrRows) {
+        Object[] row = set.getRow();
+        if (row != null) {
+          assertEquals(expected++, row[0]);
+        }
+      }
+      producer.join();
+      assertTrue(set.isDone());
+      assertNull(set.getRowImmediate(), "Strategy " + strategy);
+    }
+  }
+
+  @Test
+  void testMultiProducer() throws Exception {
+    RingBufferRowSet set = new RingBufferRowSet(32, true, RingBufferRowSet.WaitStrategy.Spinning);
+    IRowMeta rowMeta = createRowMeta();
+    int nrProducers = 4;
+    int nrRows = 25000;
+
+    List<Thread> producers = new ArrayList<>();
+    for (int p = 0; p < nrProducers; p++) {
+      long offset = (long) p * nrRows;
+      Thread producer =
+          new Thread(
+              () -> {
+                for (long i = 0; i < nrRows; i++) {
+                  Object[] row = new Object[] {offset + i};
+                  while (!set.putRow(rowMeta, row)) {
+                    // retry
+                  }
+                }
+              });
+      producers.add(producer);
+      producer.start();
+    }
+
+    boolean[] seen = new boolean[nrProducers * nrRows];
+    long[] lastPerProducer = new long[nrProducers];
+    Arrays.fill(lastPerProducer, -1L);
+    int received = 0;
+    while (received < seen.length) {
+      Object[] row = set.getRow();
+      if (row == null) {
+        continue;
+      }
+      long value = (Long) row[0];
+      assertFalse(seen[(int) value]);
+      seen[(int) value] = true;
+
+      // Rows of a single producer arrive in order
+      int producer = (int) (value / nrRows);
+      assertTrue(value > lastPerProducer[producer]);
+      lastPerProducer[producer] = value;
+      received++;
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    assertEquals(0, set.size());
+    assertNull(set.getRowImmediate());
+  }
+}
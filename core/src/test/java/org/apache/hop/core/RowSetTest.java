@@ -19,7 +19,10 @@ package org.apache.hop.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowMeta;
@@ -149,4 +152,35 @@ class RowSetTest {
     assertEquals(set.toString(), set.getName());
     assertEquals("from.2 - to.3", set.getName());
   }
+
+  /** Putting and getting rows in batches. */
+  @Test
+  void testBatches() {
+    IRowSet set = new BlockingRowSet(3);
+    IRowMeta rm = createRowMetaInterface();
+
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 1; i <= 5; i++) {
+      rows.add(new Object[] {i});
+    }
+
+    // Only 3 rows fit
+    assertEquals(3, set.putRows(rm, rows, 0));
+    assertEquals(3, set.size());
+    assertEquals(0, set.putRows(rm, rows, 5));
+
+    List<Object[]> read = new ArrayList<>();
+    assertEquals(2, set.getRows(read, 2));
+    assertSame(rows.get(0), read.get(0));
+    assertSame(rows.get(1), read.get(1));
+
+    // Continue where we stopped
+    assertEquals(2, set.putRows(rm, rows, 3));
+    assertEquals(3, set.getRows(read, 10));
+    assertEquals(5, read.size());
+    for (int i = 0; i < rows.size(); i++) {
+      assertSame(rows.get(i), read.get(i));
+    }
+    assertEquals(0, set.getRows(read, 10));
+  }
 }
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.jupiter.api.Test;
+
+/** Unit test for {@link LookupCache} */
+class LookupCacheTest {
+
+  private static LookupCacheKey key(long id) throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    return LookupCacheKey.of(rowMeta, new Object[] {id});
+  }
+
+  @Test
+  void testUnboundedKeepsAllEntries() throws Exception {
+    LookupCache<String> cache = LookupCache.<String>builder().build();
+    for (long i = 0; i < 10_000; i++) {
+      cache.put(key(i), "value" + i);
+    }
+    assertEquals(10_000, cache.size());
+    assertEquals("value123", cache.get(key(123)));
+    assertNull(cache.get(key(10_000)));
+    assertEquals("value5", cache.remove(key(5)));
+    assertNull(cache.get(key(5)));
+
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(0, cache.getEvictionCount());
+  }
+
+  @Test
+  void testFrequentKeysSurviveScan() throws Exception {
+    LookupCache<Long> cache = LookupCache.<Long>builder().maximumSize(100).build();
+
+    // A working set of 50 keys which are used over and over again
+    //
+    for (int round = 0; round < 20; round++) {
+      for (long i = 0; i < 50; i++) {
+        if (cache.get(key(i)) == null) {
+          cache.put(key(i), i);
+        }
+      }
+    }
+
+    // A scan over many keys which are used once, while the working set is still in use
+    //
+    for (long i = 1000; i < 11_000; i++) {
+      if (cache.get(key(i)) == null) {
+        cache.put(key(i), i);
+      }
+      if (cache.get(key(i % 50)) == null) {
+        cache.put(key(i % 50), i % 50);
+      }
+      assertTrue(cache.size() <= 100);
+    }
+
+    int found = 0;
+    for (long i = 0; i < 50; i++) {
+      if (cache.peek(key(i)) != null) {
+        found++;
+      }
+    }
+    assertEquals(50, found);
+    assertTrue(cache.getEvictionCount() >= 10_000 - 50);
+  }
+
+  @Test
+  void testBoundedByBytes() throws Exception {
+    long maximumBytes = 64 * 1024;
+    LookupCache<Object[]> cache =
+        LookupCache.<Object[]>builder()
+            .maximumBytes(maximumBytes)
+            .valueWeigher(LookupCache::estimateSize)
+            .build();
+    for (long i = 0; i < 10_000; i++) {
+      cache.put(key(i), new Object[] {"some value of a certain length " + i, i});
+      assertTrue(cache.getWeightedSize() <= maximumBytes);
+    }
+    assertTrue(cache.size() > 100);
+    assertTrue(cache.size() < 10_000);
+  }
+
+  @Test
+  void testExpireAfterWrite() throws Exception {
+    AtomicLong now = new AtomicLong(1000L);
+    LookupCache<String> cache =
+        LookupCache.<String>builder().expireAfterWriteMillis(500L).clock(now::get).build();
+    cache.put(key(1), "one");
+    now.addAndGet(499L);
+    assertEquals("one", cache.get(key(1)));
+    now.addAndGet(1L);
+    assertNull(cache.get(key(1)));
+    assertEquals(0, cache.size());
+    assertEquals(1, cache.getExpirationCount());
+  }
+
+  @Test
+  void testKeyIgnoresStorageType() throws Exception {
+    IRowMeta normalMeta = new RowMeta();
+    normalMeta.addValueMeta(new ValueMetaString("code"));
+
+    IRowMeta binaryMeta = new RowMeta();
+    IValueMeta binary = new ValueMetaString("code");
+    binary.setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
+    binary.setStorageMetadata(new ValueMetaString("code"));
+    binaryMeta.addValueMeta(binary);
+
+    LookupCacheKey normalKey = LookupCacheKey.of(normalMeta, new Object[] {"ABC"});
+    LookupCacheKey binaryKey =
+        LookupCacheKey.of(binaryMeta, new Object[] {"ABC".getBytes(StandardCharsets.UTF_8)});
+    assertEquals(normalKey, binaryKey);
+    assertEquals(normalKey.hashCode(), binaryKey.hashCode());
+    assertNotEquals(normalKey, LookupCacheKey.of(normalMeta, new Object[] {"abc"}));
+  }
+
+  @Test
+  void testKeyUsesValueEquality() throws Exception {
+    IRowMeta numberMeta = new RowMeta();
+    numberMeta.addValueMeta(new ValueMetaBigNumber("amount"));
+    LookupCacheKey key = LookupCacheKey.of(numberMeta, new Object[] {new BigDecimal("1.0")});
+    assertEquals(key, LookupCacheKey.of(numberMeta, new Object[] {new BigDecimal("1.00")}));
+    assertEquals(
+        LookupCacheKey.of(numberMeta, new Object[] {new BigDecimal("0.000")}),
+        LookupCacheKey.of(numberMeta, new Object[] {BigDecimal.ZERO}));
+    assertNotEquals(key, LookupCacheKey.of(numberMeta, new Object[] {new BigDecimal("1.01")}));
+
+    IRowMeta stringMeta = new RowMeta();
+    IValueMeta code = new ValueMetaString("code");
+    code.setCaseInsensitive(true);
+    code.setIgnoreWhitespace(true);
+    stringMeta.addValueMeta(code);
+    LookupCacheKey stringKey = LookupCacheKey.of(stringMeta, new Object[] {"Abc"});
+    assertEquals(stringKey, LookupCacheKey.of(stringMeta, new Object[] {" aBC "}));
+    assertNotEquals(stringKey, LookupCacheKey.of(stringMeta, new Object[] {"abd"}));
+
+    // The values in the row aren't changed
+    //
+    Object[] row = {" aBC "};
+    LookupCacheKey.of(stringMeta, row);
+    assertEquals(" aBC ", row[0]);
+
+    LookupCache<String> cache = LookupCache.<String>builder().build();
+    cache.put(LookupCacheKey.of(stringMeta, new Object[] {"ABC"}), "found");
+    assertEquals("found", cache.get(LookupCacheKey.of(stringMeta, new Object[] {"abc"})));
+  }
+}
@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database.pool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class DatabaseConnectionPoolTest {
+
+  private final AtomicInteger opened = new AtomicInteger();
+
+  /** The time of the pools under test, advanced by the tests */
+  private final AtomicLong now = new AtomicLong(1_000_000L);
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    HopClientEnvironment.init();
+  }
+
+  private Connection newConnection() throws Exception {
+    opened.incrementAndGet();
+    Connection connection = mock(Connection.class);
+    when(connection.getAutoCommit()).thenReturn(true);
+    when(connection.isValid(anyInt())).thenReturn(true);
+    when(connection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+    when(connection.getSchema()).thenReturn("public");
+    return connection;
+  }
+
+  @Test
+  void testReuseConnection() throws Exception {
+    DatabaseConnectionPool pool = new DatabaseConnectionPool("test", 2, 1, 600, 5, 0);
+
+    Connection first = pool.borrow(this::newConnection);
+    assertEquals(1, pool.getActiveCount());
+    pool.release(first);
+    assertEquals(0, pool.getActiveCount());
+    assertEquals(1, pool.getIdleCount());
+
+    Connection second = pool.borrow(this::newConnection);
+    assertSame(first, second);
+    assertEquals(1, opened.get());
+    assertEquals(2, pool.getBorrowedCount());
+    assertEquals(1, pool.getCreatedCount());
+    verify(first, never()).close();
+  }
+
+  @Test
+  void testMaximumSize() throws Exception {
+    DatabaseConnectionPool pool = new DatabaseConnectionPool("test", 2, 0, 600, 5, 0);
+
+    Connection first = pool.borrow(this::newConnection);
+    Connection second = pool.borrow(this::newConnection);
+    assertNotSame(first, second);
+
+    assertThrows(HopDatabaseException.class, () -> pool.borrow(this::newConnection));
+    assertEquals(1, pool.getTimeoutCount());
+
+    pool.release(second);
+    assertSame(second, pool.borrow(this::newConnection));
+  }
+
+  @Test
+  void testResetOnRelease() throws Exception {
+    DatabaseConnectionPool pool = new DatabaseConnectionPool("test", 1, 1, 600, 5, 0);
+
+    Connection connection = pool.borrow(this::newConnection);
+    when(connection.getAutoCommit()).thenReturn(false);
+    pool.release(connection);
+
+    verify(connection).rollback();
+    verify(connection).setAutoCommit(true);
+    assertEquals(1, pool.getIdleCount());
+  }
+
+  @Test
+  void testSettingsRestoredOnRelease() throws Exception {
+    DatabaseConnectionPool pool = new DatabaseConnectionPool("test", 1, 1, 600, 5, 0);
+
+    Connection connection = pool.borrow(this::newConnection);
+    // The borrower changes the session settings
+    when(connection.isReadOnly()).thenReturn(true);
+    when(connection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_SERIALIZABLE);
+    when(connection.getSchema()).thenReturn("other");
+    pool.release(connection);
+
+    verify(connection).setReadOnly(false);
+    verify(connection).setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    verify(connection).setSchema("public");
+    verify(connection, never()).setCatalog(any());
+    assertEquals(1, pool.getIdleCount());
+  }
+
+  @Test
+  void testConnectionEvictedWhenSettingsCantBeRestored() throws Exception {
+    DatabaseConnectionPool pool = new DatabaseConnectionPool("test", 1, 1, 600, 5, 0);
+
+    Connection connection = pool.borrow(this::newConnection);
+    when(connection.isReadOnly()).thenReturn(true);
+    doThrow(new SQLException("not supported")).when(connection).setReadOnly(false);
+    pool.release(connection);
+
+    assertEquals(0, pool.getIdleCount());
+    verify(connection).close();
+  }
+
+  @Test
+  void testClosedConnectionIsReplaced() throws Exception {
+    DatabaseConnectionPool pool = new DatabaseConnectionPool("test", 1, 1, 600, 5, 0);
+
+    Connection connection = pool.borrow(this::newConnection);
+    when(connection.isClosed()).thenReturn(true);
+    pool.release(connection);
+    assertEquals(0, pool.getIdleCount());
+
+    assertNotSame(connection, pool.borrow(this::newConnection));
+    assertEquals(2, opened.get());
+  }
+
+  @Test
+  void testValidation() throws Exception {
+    DatabaseConnectionPool pool = new DatabaseConnectionPool("test", 1, 1, 600, 5, 0, now::get);
+
+    Connection connection = pool.borrow(this::newConnection);
+    pool.release(connection);
+    // Let the connection idle long enough to be validated again
+    now.addAndGet(600);
+    when(connection.isValid(anyInt())).thenReturn(false);
+
+    Connection replacement = pool.borrow(this::newConnection);
+    assertNotSame(connection, replacement);
+    assertEquals(1, pool.getValidationFailureCount());
+    verify(connection).close();
+  }
+
+  @Test
+  void testFailingFactoryReleasesPermit() throws Exception {
+    DatabaseConnectionPool pool = new DatabaseConnectionPool("test", 1, 0, 600, 5, 0);
+
+    assertThrows(
+        HopDatabaseException.class,
+        () ->
+            pool.borrow(
+                () -> {
+                  throw new IllegalStateException("unreachable database");
+                }));
+
+    assertEquals(0, pool.getActiveCount());
+    pool.borrow(this::newConnection);
+    assertEquals(1, pool.getActiveCount());
+  }
+
+  @Test
+  void testEvictIdleConnections() throws Exception {
+    DatabaseConnectionPool pool = new DatabaseConnectionPool("test", 2, 1, 0, 5, 0);
+    Connection connection = pool.borrow(this::newConnection);
+    pool.release(connection);
+
+    // An idle timeout of 0 keeps connections open
+    pool.evictIdleConnections();
+    assertEquals(1, pool.getIdleCount());
+
+    DatabaseConnectionPool evicting = new DatabaseConnectionPool("test", 2, 1, 1, 5, 0, now::get);
+    connection = evicting.borrow(this::newConnection);
+    evicting.release(connection);
+    evicting.evictIdleConnections();
+    assertEquals(1, evicting.getIdleCount());
+
+    now.addAndGet(1100);
+    evicting.evictIdleConnections();
+    assertEquals(0, evicting.getIdleCount());
+    verify(connection).close();
+  }
+
+  @Test
+  void testLeakDetection() throws Exception {
+    DatabaseConnectionPool pool = new DatabaseConnectionPool("test", 2, 1, 600, 5, 1, now::get);
+    Connection connection = pool.borrow(this::newConnection);
+
+    pool.detectLeaks();
+    assertEquals(0, pool.getLeakCount());
+
+    now.addAndGet(1100);
+    pool.detectLeaks();
+    pool.detectLeaks();
+    assertEquals(1, pool.getLeakCount(), "every leak is reported once");
+
+    pool.release(connection);
+    assertEquals(0, pool.getActiveCount());
+  }
+
+  @Test
+  void testClose() throws Exception {
+    DatabaseConnectionPool pool = new DatabaseConnectionPool("test", 2, 1, 600, 5, 0);
+    Connection idle = pool.borrow(this::newConnection);
+    Connection borrowed = pool.borrow(this::newConnection);
+    pool.release(idle);
+
+    pool.close();
+    verify(idle).close();
+    verify(borrowed, never()).close();
+
+    pool.release(borrowed);
+    verify(borrowed).close();
+    assertThrows(HopDatabaseException.class, () -> pool.borrow(this::newConnection));
+  }
+
+  @Test
+  void testCreateKey() {
+    Properties properties = new Properties();
+    properties.put("user", "hop");
+    properties.put("password", "secret");
+    String key =
+        DatabaseConnectionPoolManager.createKey("driver", "jdbc:url", properties, null, 10);
+
+    Properties same = new Properties();
+    same.put("password", "secret");
+    same.put("user", "hop");
+    assertEquals(key, DatabaseConnectionPoolManager.createKey("driver", "jdbc:url", same, "", 10));
+
+    assertTrue(!key.contains("secret"));
+    assertNotEquals(
+        key, DatabaseConnectionPoolManager.createKey("driver", "jdbc:url", same, "", 20));
+    same.put("password", "other");
+    assertNotEquals(
+        key, DatabaseConnectionPoolManager.createKey("driver", "jdbc:url", same, "", 10));
+  }
+
+  @Test
+  void testManagerSharesPools() {
+    DatabaseConnectionPoolManager manager = DatabaseConnectionPoolManager.getInstance();
+    try {
+      DatabaseConnectionPool pool =
+          manager.getPool("key", () -> new DatabaseConnectionPool("test", 1, 1, 600, 5, 0));
+      assertSame(
+          pool, manager.getPool("key", () -> new DatabaseConnectionPool("other", 1, 1, 600, 5, 0)));
+      assertTrue(manager.getPools().contains(pool));
+    } finally {
+      manager.closeAll();
+    }
+    assertTrue(manager.getPools().isEmpty());
+  }
+}
@@ -30,6 +30,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
 import org.junit.jupiter.api.Test;
 
 class ByteArrayHashIndexTest {
@@ -162,4 +163,33 @@ class ByteArrayHashIndexTest {
       fail("Test failed with exception: " + error.get().getMessage());
     }
   }
+
+  @Test
+  void testReplaceValueAndResize() throws HopValueException {
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("code"));
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+
+    ByteArrayHashIndex hashIndex = new ByteArrayHashIndex(rowMeta, 8);
+    for (int i = 0; i < 10_000; i++) {
+      byte[] key = RowMeta.extractData(rowMeta, new Object[] {"code" + (i % 100), (long) i});
+      hashIndex.put(key, new byte[] {(byte) i});
+    }
+    assertEquals(10_000, hashIndex.getCount());
+
+    // Replacing a value doesn't add an entry
+    byte[] key = RowMeta.extractData(rowMeta, new Object[] {"code42", 42L});
+    hashIndex.put(key, new byte[] {-1});
+    assertEquals(10_000, hashIndex.getCount());
+    assertArrayEquals(new byte[] {-1}, hashIndex.get(key));
+
+    for (int i = 0; i < 10_000; i++) {
+      byte[] lookup = RowMeta.extractData(rowMeta, new Object[] {"code" + (i % 100), (long) i});
+      assertNotNull(hashIndex.get(lookup), "Entry " + i + " should be retrievable");
+    }
+    assertNull(
+        hashIndex.get(RowMeta.extractData(rowMeta, new Object[] {"code1", 10_000L})),
+        "Unknown keys should not be found");
+    assertNull(hashIndex.get(RowMeta.extractData(rowMeta, new Object[] {null, 1L})));
+  }
 }
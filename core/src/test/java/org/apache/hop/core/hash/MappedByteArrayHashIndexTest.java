@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedByteArrayHashIndexTest {
+
+  @TempDir Path folder;
+
+  private static byte[] key(IRowMeta keyMeta, long id) throws Exception {
+    return RowMeta.extractData(keyMeta, new Object[] {"key" + (id % 97), id});
+  }
+
+  @Test
+  void testBuildAndOpen() throws Exception {
+    IRowMeta keyMeta = new RowMeta();
+    keyMeta.addValueMeta(new ValueMetaString("code"));
+    keyMeta.addValueMeta(new ValueMetaInteger("id"));
+
+    Path file = folder.resolve("lookup.idx");
+    MappedByteArrayHashIndex index;
+    try (MappedByteArrayHashIndex.Builder builder = MappedByteArrayHashIndex.builder(file)) {
+      for (long i = 0; i < 10_000; i++) {
+        builder.put(key(keyMeta, i), ("value" + i).getBytes(StandardCharsets.UTF_8));
+      }
+      // The last value of a key wins
+      builder.put(key(keyMeta, 42), "replaced".getBytes(StandardCharsets.UTF_8));
+      index = builder.build("layout".getBytes(StandardCharsets.UTF_8));
+    }
+
+    assertEquals(10_000, index.getCount());
+    assertArrayEquals("layout".getBytes(StandardCharsets.UTF_8), index.getMetadata());
+    assertArrayEquals("value123".getBytes(StandardCharsets.UTF_8), index.get(key(keyMeta, 123)));
+    assertArrayEquals("replaced".getBytes(StandardCharsets.UTF_8), index.get(key(keyMeta, 42)));
+    assertNull(index.get(key(keyMeta, 10_000)));
+
+    // Only the index file is left behind
+    try (var files = Files.list(folder)) {
+      assertEquals(1, files.count());
+    }
+
+    // Open it again, as a later run would
+    MappedByteArrayHashIndex reopened = MappedByteArrayHashIndex.open(file).duplicate();
+    assertEquals(10_000, reopened.getCount());
+    for (long i = 0; i < 10_000; i++) {
+      byte[] value = reopened.get(key(keyMeta, i));
+      if (i != 42) {
+        assertArrayEquals(("value" + i).getBytes(StandardCharsets.UTF_8), value);
+      }
+    }
+  }
+
+  @Test
+  void testEmptyIndex() throws Exception {
+    Path file = folder.resolve("empty.idx");
+    try (MappedByteArrayHashIndex.Builder builder = MappedByteArrayHashIndex.builder(file)) {
+      MappedByteArrayHashIndex index = builder.build(new byte[0]);
+      assertEquals(0, index.getCount());
+      assertNull(index.get(new byte[] {1, 2, 3}));
+    }
+    assertTrue(Files.exists(file));
+  }
+
+  @Test
+  void testOpenInvalidFile() throws Exception {
+    Path file = folder.resolve("invalid.idx");
+    Files.writeString(file, "This is not an index file");
+    assertThrows(IOException.class, () -> MappedByteArrayHashIndex.open(file));
+  }
+}
@@ -19,7 +19,11 @@ package org.apache.hop.core.logging;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.Test;
@@ -125,4 +129,180 @@ class LoggingBufferTest {
     loggingBuffer.removeChannelFromBuffer(logChannelId);
     assertEquals(10, loggingBuffer.size());
   }
+
+  @Test
+  void testRemovedChannelsAreSkipped() {
+    LoggingBuffer loggingBuffer = new LoggingBuffer(100);
+    for (int run = 0; run < 50; run++) {
+      addLine(loggingBuffer, "keep" + run, "keep");
+      for (int i = 0; i < 40; i++) {
+        addLine(loggingBuffer, "line" + i, "run" + run);
+      }
+      loggingBuffer.removeChannelFromBuffer("run" + run);
+      assertEquals(run + 1, loggingBuffer.size());
+    }
+
+    // The lines of the removed channels don't count against the limit of the live lines
+    //
+    List<HopLoggingEvent> events =
+        loggingBuffer.getLogBufferFromTo((List<String>) null, false, 0, Integer.MAX_VALUE);
+    assertEquals(50, events.size());
+    assertEquals("keep0", getMessage(events.get(0)));
+    assertEquals("keep49", getMessage(events.get(49)));
+
+    for (int i = 0; i < 60; i++) {
+      addLine(loggingBuffer, "more" + i, "keep");
+    }
+    assertEquals(100, loggingBuffer.size());
+    events = loggingBuffer.getLogBufferFromTo(List.of("keep"), false, 0, Integer.MAX_VALUE);
+    assertEquals("keep10", getMessage(events.get(0)));
+  }
+
+  private static void addLine(LoggingBuffer loggingBuffer, String message, String logChannelId) {
+    HopLoggingEvent event = new HopLoggingEvent();
+    event.setMessage(new LogMessage(message, logChannelId, LogLevel.BASIC));
+    event.setTimeStamp(System.currentTimeMillis());
+    loggingBuffer.addLogggingEvent(event);
+  }
+
+  private static String getMessage(HopLoggingEvent event) {
+    return ((LogMessage) event.getMessage()).getMessage();
+  }
+
+  @Test
+  void testReadChannelsSinceLine() {
+    LoggingBuffer loggingBuffer = new LoggingBuffer(0);
+    // Interleave the lines of a few channels, more than fit in a segment
+    //
+    for (int i = 0; i < 3 * LoggingBuffer.SEGMENT_SIZE; i++) {
+      addLine(loggingBuffer, "a" + i, "a");
+      addLine(loggingBuffer, "b" + i, "b");
+      addLine(loggingBuffer, "c" + i, "c");
+    }
+    int lastNr = loggingBuffer.getLastBufferLineNr();
+
+    List<HopLoggingEvent> events =
+        loggingBuffer.getLogBufferFromTo(List.of("a", "c"), false, 0, lastNr);
+    assertEquals(6 * LoggingBuffer.SEGMENT_SIZE, events.size());
+    assertEquals("a0", getMessage(events.get(0)));
+    assertEquals("c0", getMessage(events.get(1)));
+    assertEquals("a1", getMessage(events.get(2)));
+
+    // Read only what was added since the last read
+    //
+    addLine(loggingBuffer, "b-new", "b");
+    addLine(loggingBuffer, "c-new", "c");
+    events =
+        loggingBuffer.getLogBufferFromTo(
+            List.of("a", "c"), false, lastNr, loggingBuffer.getLastBufferLineNr());
+    assertEquals(1, events.size());
+    assertEquals("c-new", getMessage(events.get(0)));
+
+    // All channels
+    //
+    events =
+        loggingBuffer.getLogBufferFromTo((List<String>) null, false, lastNr, Integer.MAX_VALUE);
+    assertEquals(2, events.size());
+    assertEquals("b-new", getMessage(events.get(0)));
+  }
+
+  @Test
+  void testIncrementalReadSeesAllLines() throws Exception {
+    LoggingBuffer loggingBuffer = new LoggingBuffer(0);
+    int nrThreads = 8;
+    int nrLines = 20000;
+    List<String> channelIds = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < nrThreads; t++) {
+      String channelId = "channel" + t;
+      channelIds.add(channelId);
+      threads.add(
+          new Thread(
+              () -> {
+                for (int i = 0; i < nrLines; i++) {
+                  addLine(loggingBuffer, channelId + "-" + i, channelId);
+                }
+              }));
+    }
+    threads.forEach(Thread::start);
+
+    // Read like a log viewer: from the last line read up to the last line number
+    //
+    int read = 0;
+    int lastNr = 0;
+    boolean running = true;
+    while (running) {
+      running = threads.stream().anyMatch(Thread::isAlive);
+      int to = loggingBuffer.getLastBufferLineNr();
+      read += loggingBuffer.getLogBufferFromTo(channelIds, false, lastNr, to).size();
+      lastNr = to;
+    }
+    assertEquals(nrThreads * nrLines, read);
+  }
+
+  @Test
+  void testIncludeGeneral() {
+    LoggingRegistry registry = LoggingRegistry.getInstance();
+    ILoggingObject general = mock(ILoggingObject.class);
+    when(general.getObjectType()).thenReturn(LoggingObjectType.GENERAL);
+    when(general.getObjectName()).thenReturn("general");
+    String generalId = registry.registerLoggingSource(general);
+
+    LoggingBuffer loggingBuffer = new LoggingBuffer(0);
+    addLine(loggingBuffer, "general", generalId);
+    addLine(loggingBuffer, "pipeline", "pipeline");
+    addLine(loggingBuffer, "other", "other");
+
+    List<HopLoggingEvent> events =
+        loggingBuffer.getLogBufferFromTo(List.of("pipeline"), true, 0, Integer.MAX_VALUE);
+    assertEquals(2, events.size());
+    assertEquals("general", getMessage(events.get(0)));
+    assertEquals("pipeline", getMessage(events.get(1)));
+
+    loggingBuffer.removeGeneralMessages();
+    assertEquals(2, loggingBuffer.size());
+    registry.removeIncludingChildren(generalId);
+  }
+
+  @Test
+  void testMaxNrLines() {
+    LoggingBuffer loggingBuffer = new LoggingBuffer(LoggingBuffer.SEGMENT_SIZE + 10);
+    for (int i = 0; i < 5 * LoggingBuffer.SEGMENT_SIZE; i++) {
+      addLine(loggingBuffer, "a" + i, i % 2 == 0 ? "a" : "b");
+    }
+    assertEquals(LoggingBuffer.SEGMENT_SIZE + 10, loggingBuffer.size());
+
+    List<HopLoggingEvent> events =
+        loggingBuffer.getLogBufferFromTo(List.of("a", "b"), false, 0, Integer.MAX_VALUE);
+    assertEquals(LoggingBuffer.SEGMENT_SIZE + 10, events.size());
+    assertEquals(
+        "a" + (5 * LoggingBuffer.SEGMENT_SIZE - 1), getMessage(events.get(events.size() - 1)));
+
+    loggingBuffer.setMaxNrLines(5);
+    assertEquals(5, loggingBuffer.size());
+    assertEquals(
+        5,
+        loggingBuffer.getLogBufferFromTo((List<String>) null, false, 0, Integer.MAX_VALUE).size());
+  }
+
+  @Test
+  void testMaxBytes() {
+    LoggingBuffer loggingBuffer = new LoggingBuffer(0);
+    loggingBuffer.setMaxBytes(10_000);
+    for (int i = 0; i < 1000; i++) {
+      addLine(loggingBuffer, "Some log line number " + i, "a");
+    }
+    assertTrue(loggingBuffer.getNrBytes() <= 10_000);
+    assertTrue(loggingBuffer.size() > 0 && loggingBuffer.size() < 1000);
+
+    List<HopLoggingEvent> events =
+        loggingBuffer.getLogBufferFromTo(List.of("a"), false, 0, Integer.MAX_VALUE);
+    assertEquals(loggingBuffer.size(), events.size());
+    assertEquals("Some log line number 999", getMessage(events.get(events.size() - 1)));
+
+    loggingBuffer.clear();
+    assertEquals(0, loggingBuffer.size());
+    assertEquals(0, loggingBuffer.getNrBytes());
+    assertEquals(0, loggingBuffer.getLastBufferLineNr());
+  }
 }
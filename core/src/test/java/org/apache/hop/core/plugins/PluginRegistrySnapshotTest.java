@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.plugins;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.row.value.ValueMetaPluginType;
+import org.apache.hop.junit.rules.RestoreHopEnvironmentExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit test for {@link PluginRegistrySnapshot} */
+@ExtendWith(RestoreHopEnvironmentExtension.class)
+class PluginRegistrySnapshotTest {
+
+  @TempDir Path folder;
+
+  private Path snapshotFile;
+  private Path pluginFolder;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    snapshotFile = folder.resolve("plugins.json");
+    pluginFolder = Files.createDirectories(folder.resolve("plugins"));
+    System.setProperty(Const.HOP_PLUGIN_REGISTRY_SNAPSHOT, snapshotFile.toString());
+    System.setProperty(Const.HOP_PLUGIN_BASE_FOLDERS, pluginFolder.toString());
+    PluginRegistrySnapshot.resetInstance();
+    PluginRegistry.getInstance().reset();
+  }
+
+  @AfterEach
+  void tearDown() {
+    System.clearProperty(Const.HOP_PLUGIN_REGISTRY_SNAPSHOT);
+    System.clearProperty(Const.HOP_PLUGIN_BASE_FOLDERS);
+    PluginRegistrySnapshot.resetInstance();
+    PluginRegistry.getInstance().reset();
+  }
+
+  /** Scan the value meta plugins and write the snapshot */
+  private List<IPlugin> scanAndSave() throws Exception {
+    PluginRegistry registry = PluginRegistry.getInstance();
+    registry.registerType(ValueMetaPluginType.getInstance());
+    PluginRegistrySnapshot.getInstance().save();
+    return registry.getPlugins(ValueMetaPluginType.class);
+  }
+
+  @Test
+  void testRestoreSnapshot() throws Exception {
+    List<IPlugin> scanned = scanAndSave();
+    assertFalse(scanned.isEmpty());
+    assertTrue(Files.exists(snapshotFile));
+
+    PluginRegistry registry = PluginRegistry.getInstance();
+    registry.reset();
+    PluginRegistrySnapshot.resetInstance();
+    registry.registerPluginType(ValueMetaPluginType.class);
+    assertTrue(PluginRegistrySnapshot.getInstance().restore(ValueMetaPluginType.getInstance()));
+
+    List<IPlugin> restored = registry.getPlugins(ValueMetaPluginType.class);
+    assertEquals(scanned.size(), restored.size());
+    for (IPlugin plugin : scanned) {
+      IPlugin restoredPlugin =
+          registry.findPluginWithId(ValueMetaPluginType.class, plugin.getIds()[0]);
+      assertNotNull(restoredPlugin);
+      assertArrayEquals(plugin.getIds(), restoredPlugin.getIds());
+      assertEquals(plugin.getName(), restoredPlugin.getName());
+      assertEquals(plugin.getDescription(), restoredPlugin.getDescription());
+      assertEquals(plugin.getMainType(), restoredPlugin.getMainType());
+      assertEquals(plugin.getClassMap(), restoredPlugin.getClassMap());
+      assertEquals(plugin.isNativePlugin(), restoredPlugin.isNativePlugin());
+    }
+
+    // The restored plugins can be used as usual
+    //
+    IPlugin stringPlugin = registry.findPluginWithId(ValueMetaPluginType.class, "2");
+    assertNotNull(registry.loadClass(stringPlugin));
+  }
+
+  @Test
+  void testChangedPluginFolderInvalidatesSnapshot() throws Exception {
+    scanAndSave();
+
+    Files.writeString(pluginFolder.resolve("new-plugin.jar"), "not really a jar");
+
+    PluginRegistry registry = PluginRegistry.getInstance();
+    registry.reset();
+    PluginRegistrySnapshot.resetInstance();
+    registry.registerPluginType(ValueMetaPluginType.class);
+    assertFalse(PluginRegistrySnapshot.getInstance().restore(ValueMetaPluginType.getInstance()));
+  }
+
+  @Test
+  void testDisabledWithoutVariable() throws Exception {
+    System.clearProperty(Const.HOP_PLUGIN_REGISTRY_SNAPSHOT);
+    PluginRegistrySnapshot.resetInstance();
+
+    scanAndSave();
+    assertFalse(PluginRegistrySnapshot.getInstance().isEnabled());
+    assertFalse(Files.exists(snapshotFile));
+  }
+}
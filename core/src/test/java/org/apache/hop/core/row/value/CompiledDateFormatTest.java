@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.value;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import org.junit.jupiter.api.Test;
+
+/** Verifies that the compiled date format gives the same results as SimpleDateFormat. */
+class CompiledDateFormatTest {
+
+  private static final List<String> PATTERNS =
+      List.of(
+          ValueMetaBase.DEFAULT_DATE_FORMAT_MASK,
+          "yyyy/MM/dd HH:mm:ss",
+          "yyyy-MM-dd",
+          "yyyyMMdd",
+          "yyyyMMddHHmmss",
+          "dd.MM.yyyy",
+          "d/M/yyyy H:m",
+          "yyyy-MM-dd'T'HH:mm:ss.SSS",
+          "yy-MM-dd",
+          "yyyy-MM-dd HH:mm:ss.S");
+
+  private static final List<String> TIME_ZONES =
+      List.of(
+          "UTC",
+          "Europe/Brussels",
+          "America/New_York",
+          "Asia/Kolkata",
+          "Australia/Lord_Howe",
+          "Africa/Windhoek");
+
+  private static SimpleDateFormat createFormat(String pattern, String timeZone, boolean lenient) {
+    SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+    format.setTimeZone(TimeZone.getTimeZone(timeZone));
+    format.setLenient(lenient);
+    return format;
+  }
+
+  @Test
+  void testFormatAndParseRandomDates() {
+    Random random = new Random(42);
+    long from = -2208988800000L; // 1900-01-01
+    long to = 4102444800000L; // 2100-01-01
+
+    for (String pattern : PATTERNS) {
+      for (String timeZone : TIME_ZONES) {
+        SimpleDateFormat format = createFormat(pattern, timeZone, false);
+        CompiledDateFormat compiled = CompiledDateFormat.compile(format);
+        assertTrue(compiled.isFormatting(), pattern);
+
+        for (int i = 0; i < 2000; i++) {
+          Date date = new Date(from + (long) (random.nextDouble() * (to - from)));
+          String message = pattern + " in " + timeZone + " for " + date.getTime();
+
+          String string = compiled.format(date);
+          String expected = format.format(date);
+          if (string != null) {
+            assertEquals(expected, string, message);
+          }
+
+          Date parsed = compiled.parse(expected);
+          if (parsed != null) {
+            assertEquals(format.parse(expected, new ParsePosition(0)), parsed, message);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void testParseEdgeCases() {
+    List<String> strings =
+        List.of(
+            "2024/02/29 12:00:00.000",
+            "2023/02/29 12:00:00.000",
+            "2024/13/01 00:00:00.000",
+            "2024/1/5 7:08:09.5",
+            "2024/01/05 24:00:00.000",
+            "2024/01/05 10:00:00",
+            "2024/01/05 10:00:00.000 trailing",
+            " 2024/01/05 10:00:00.000",
+            "1899/12/31 23:59:59.999",
+            "2024/03/31 02:30:00.000",
+            "2024/10/27 02:30:00.000",
+            "2024/-1/05 10:00:00.000");
+
+    for (boolean lenient : new boolean[] {false, true}) {
+      SimpleDateFormat format =
+          createFormat(ValueMetaBase.DEFAULT_DATE_FORMAT_MASK, "Europe/Brussels", lenient);
+      CompiledDateFormat compiled = CompiledDateFormat.compile(format);
+      assertTrue(compiled.isParsing());
+      for (String string : strings) {
+        Date parsed = compiled.parse(string);
+        if (parsed != null) {
+          assertEquals(format.parse(string, new ParsePosition(0)), parsed, string);
+        }
+      }
+    }
+
+    SimpleDateFormat format = createFormat(ValueMetaBase.DEFAULT_DATE_FORMAT_MASK, "UTC", false);
+    CompiledDateFormat compiled = CompiledDateFormat.compile(format);
+    assertNotNull(compiled.parse("2024/1/5 7:08:09.5"));
+
+    // Left to SimpleDateFormat: invalid dates, DST gaps, trailing text
+    assertNull(compiled.parse("2023/02/29 12:00:00.000"));
+    assertNull(compiled.parse("2024/01/05 10:00:00.000 trailing"));
+    assertNull(
+        CompiledDateFormat.compile(
+                createFormat(ValueMetaBase.DEFAULT_DATE_FORMAT_MASK, "Europe/Brussels", false))
+            .parse("2024/03/31 02:30:00.000"));
+  }
+
+  @Test
+  void testUnsupportedPatterns() {
+    for (String pattern : List.of("dd MMM yyyy", "EEE, d MMM yyyy", "hh:mm a", "yyyy-MM-dd Z")) {
+      CompiledDateFormat compiled = CompiledDateFormat.compile(createFormat(pattern, "UTC", false));
+      assertFalse(compiled.isFormatting(), pattern);
+      assertFalse(compiled.isParsing(), pattern);
+    }
+
+    // Two digit years depend on the current century: only formatted
+    CompiledDateFormat twoDigits =
+        CompiledDateFormat.compile(createFormat("yy-MM-dd", "UTC", false));
+    assertTrue(twoDigits.isFormatting());
+    assertFalse(twoDigits.isParsing());
+  }
+}
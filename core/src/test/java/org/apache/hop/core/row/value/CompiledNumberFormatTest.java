@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.value;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.ParsePosition;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** Verifies that the compiled number format gives the same results as DecimalFormat. */
+class CompiledNumberFormatTest {
+
+  private static final List<String> PATTERNS =
+      List.of(
+          ValueMetaBase.DEFAULT_INTEGER_PARSE_MASK,
+          ValueMetaBase.DEFAULT_NUMBER_PARSE_MASK,
+          ValueMetaBase.DEFAULT_INTEGER_FORMAT_MASK,
+          ValueMetaBase.DEFAULT_NUMBER_FORMAT_MASK,
+          "#",
+          "0",
+          "#.#",
+          "#.00",
+          "#,##0.00",
+          "#,##0.###",
+          " 00000;-00000",
+          " 000000000.00;-000000000.00",
+          "0.00%",
+          "#.##E0",
+          "$#,##0.00",
+          "#.#;(#.#)");
+
+  private static DecimalFormat createFormat(String pattern, char decimal, char grouping) {
+    DecimalFormat format = (DecimalFormat) DecimalFormat.getInstance(Locale.US);
+    DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+    symbols.setDecimalSeparator(decimal);
+    symbols.setGroupingSeparator(grouping);
+    format.setDecimalFormatSymbols(symbols);
+    format.applyPattern(pattern);
+    return format;
+  }
+
+  private static Number parse(DecimalFormat format, String string) {
+    ParsePosition position = new ParsePosition(0);
+    Number number = format.parse(string, position);
+    if (position.getIndex() < string.length()) {
+      return null;
+    }
+    return number;
+  }
+
+  @Test
+  void testParse() {
+    List<String> strings =
+        List.of(
+            "0",
+            "7",
+            "-7",
+            "0012",
+            "123456789012345678",
+            "-123456789012345678",
+            "1234567890123456789",
+            "12.5",
+            "-0.001",
+            "0.1",
+            "3.14159265358979",
+            "-0",
+            "-0.0",
+            "5.",
+            ".5",
+            "1,234",
+            "1.234,5",
+            "1E3",
+            "+5",
+            " 5",
+            "-",
+            "12-");
+
+    for (String pattern : PATTERNS) {
+      for (char[] symbols : new char[][] {{'.', ','}, {',', '.'}}) {
+        DecimalFormat format = createFormat(pattern, symbols[0], symbols[1]);
+        CompiledNumberFormat compiled = CompiledNumberFormat.compile(format);
+        for (String string : strings) {
+          String message = "Parsing '" + string + "' with '" + pattern + "'";
+          Double number = compiled.parseNumber(string);
+          if (number != null) {
+            assertEquals(parse(format, string).doubleValue(), number, message);
+          }
+          Long integer = compiled.parseInteger(string);
+          if (integer != null) {
+            assertEquals(parse(format, string).longValue(), integer, message);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void testParseRandomNumbers() {
+    DecimalFormat format = createFormat(ValueMetaBase.DEFAULT_NUMBER_PARSE_MASK, '.', ',');
+    CompiledNumberFormat compiled = CompiledNumberFormat.compile(format);
+    assertTrue(compiled.isParsing());
+
+    Random random = new Random(1234);
+    for (int i = 0; i < 100000; i++) {
+      int scale = random.nextInt(10);
+      double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12));
+      String string = java.math.BigDecimal.valueOf(value).setScale(scale, 1).toPlainString();
+      Double number = compiled.parseNumber(string);
+      if (number != null) {
+        assertEquals(parse(format, string).doubleValue(), number, string);
+      }
+    }
+  }
+
+  @Test
+  void testFormat() {
+    long[] integers = {
+      0L, 1L, -1L, 7L, 999L, 1000L, -1234567L, 123456789012L, Long.MAX_VALUE, Long.MIN_VALUE
+    };
+    double[] numbers = {0.0, -0.0, 1.0, -5.0, 1234567.0, 0.5, -2.25, 1e16, Double.NaN};
+
+    for (String pattern : PATTERNS) {
+      for (char[] symbols : new char[][] {{'.', ','}, {',', '.'}}) {
+        DecimalFormat format = createFormat(pattern, symbols[0], symbols[1]);
+        CompiledNumberFormat compiled = CompiledNumberFormat.compile(format);
+        for (long integer : integers) {
+          String string = compiled.formatInteger(integer);
+          if (string != null) {
+            assertEquals(
+                format.format(integer), string, "Formatting " + integer + " with " + pattern);
+          }
+        }
+        for (double number : numbers) {
+          String string = compiled.formatNumber(number);
+          if (string != null) {
+            assertEquals(
+                format.format(number), string, "Formatting " + number + " with " + pattern);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void testUnsupportedMasks() {
+    CompiledNumberFormat percent = CompiledNumberFormat.compile(createFormat("0.00%", '.', ','));
+    assertFalse(percent.isParsing());
+    assertFalse(percent.isFormatting());
+
+    CompiledNumberFormat padded =
+        CompiledNumberFormat.compile(createFormat(" 00000;-00000", '.', ','));
+    assertFalse(padded.isParsing());
+    assertTrue(padded.isFormatting());
+    assertEquals(" 00042", padded.formatInteger(42L));
+
+    assertNull(CompiledNumberFormat.NONE.parseNumber("1"));
+    assertNull(CompiledNumberFormat.NONE.formatInteger(1L));
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class AsyncRequestQueueTest {
+
+  @Test
+  void testOrdered() throws Exception {
+    try (AsyncRequestQueue<Integer> queue = new AsyncRequestQueue<>("test", 4, true)) {
+      List<Integer> results = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        if (queue.isFull()) {
+          results.add(queue.take().getResult());
+        }
+        int value = i;
+        // Later requests complete first
+        queue.submit(
+            new Object[] {value},
+            () -> {
+              Thread.sleep(20L - value);
+              return value;
+            });
+      }
+      AsyncRequestQueue.Request<Integer> request;
+      while ((request = queue.take()) != null) {
+        assertEquals(request.getRow()[0], request.getResult());
+        results.add(request.getResult());
+      }
+      for (int i = 0; i < 20; i++) {
+        assertEquals(i, results.get(i));
+      }
+      assertTrue(queue.isEmpty());
+    }
+  }
+
+  @Test
+  void testUnordered() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    try (AsyncRequestQueue<String> queue = new AsyncRequestQueue<>("test", 2, false)) {
+      queue.submit(
+          new Object[] {"slow"},
+          () -> {
+            release.await(10, TimeUnit.SECONDS);
+            return "slow";
+          });
+      queue.submit(new Object[] {"fast"}, () -> "fast");
+      assertTrue(queue.isFull());
+
+      // The second request doesn't wait for the first one
+      assertEquals("fast", queue.take().getResult());
+      assertNull(queue.poll());
+      release.countDown();
+      assertEquals("slow", queue.take().getResult());
+      assertNull(queue.take());
+    }
+  }
+
+  @Test
+  void testErrors() throws Exception {
+    try (AsyncRequestQueue<String> queue = new AsyncRequestQueue<>("test", 1, true)) {
+      Object[] row = new Object[] {"row"};
+      IllegalStateException error = new IllegalStateException("failed");
+      queue.submit(
+          row,
+          () -> {
+            throw error;
+          });
+      assertThrows(IllegalStateException.class, () -> queue.submit(row, () -> "too many"));
+
+      AsyncRequestQueue.Request<String> request = queue.take();
+      assertSame(row, request.getRow());
+      assertSame(error, request.getError());
+      assertNull(request.getResult());
+      assertFalse(queue.isFull());
+    }
+  }
+
+  @Test
+  void testMaxInFlight() throws Exception {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    try (AsyncRequestQueue<Integer> queue = new AsyncRequestQueue<>("test", 3, false)) {
+      for (int i = 0; i < 30; i++) {
+        while (queue.isFull()) {
+          queue.take();
+        }
+        queue.submit(
+            null,
+            () -> {
+              maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+              Thread.sleep(2);
+              return running.decrementAndGet();
+            });
+      }
+      while (queue.take() != null) {
+        // drain
+      }
+    }
+    assertTrue(maxRunning.get() <= 3);
+  }
+}
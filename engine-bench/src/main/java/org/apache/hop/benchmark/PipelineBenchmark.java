@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.LogLevel;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.engines.local.LocalPipelineRunConfiguration;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.rowgenerator.GeneratorField;
+import org.apache.hop.pipeline.transforms.rowgenerator.RowGeneratorMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs a complete "Generate rows" to "Dummy" pipeline on the local pipeline engine: transform
+ * initialization, thread start-up, the row hand-off and the clean-up at the end.
+ *
+ * <p>Run with: <code>java -jar target/hop-engine-bench-*.jar PipelineBenchmark</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+  @Param({"1000000"})
+  public int nrRows;
+
+  @Param({"Blocking", "RingBuffer"})
+  public String rowSetType;
+
+  private PipelineMeta pipelineMeta;
+
+  @Setup(Level.Trial)
+  public void setUp() throws HopException {
+    HopEnvironment.init();
+
+    RowGeneratorMeta rowGeneratorMeta = new RowGeneratorMeta();
+    rowGeneratorMeta.setRowLimit(Integer.toString(nrRows));
+    rowGeneratorMeta
+        .getFields()
+        .add(new GeneratorField("id", "Integer", null, 9, 0, null, null, null, "42", false));
+    rowGeneratorMeta
+        .getFields()
+        .add(
+            new GeneratorField(
+                "name", "String", null, 20, 0, null, null, null, "Apache Hop", false));
+    rowGeneratorMeta
+        .getFields()
+        .add(
+            new GeneratorField("amount", "Number", "#.##", 9, 2, null, ".", ",", "1234.56", false));
+    rowGeneratorMeta
+        .getFields()
+        .add(
+            new GeneratorField(
+                "updated",
+                "Date",
+                "yyyy/MM/dd HH:mm:ss",
+                -1,
+                -1,
+                null,
+                null,
+                null,
+                "2024/02/29 12:34:56",
+                false));
+
+    TransformMeta generator = new TransformMeta("Generate rows", rowGeneratorMeta);
+    TransformMeta dummy = new TransformMeta("Dummy", new DummyMeta());
+
+    pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("pipeline-benchmark");
+    pipelineMeta.addTransform(generator);
+    pipelineMeta.addTransform(dummy);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(generator, dummy));
+  }
+
+  @Benchmark
+  public long generateRowsToDummy() throws HopException {
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.setLogLevel(LogLevel.MINIMAL);
+    LocalPipelineRunConfiguration config =
+        (LocalPipelineRunConfiguration)
+            pipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
+    config.setRowSetType(rowSetType);
+
+    pipeline.execute();
+    pipeline.waitUntilFinished();
+    if (pipeline.getErrors() > 0) {
+      throw new HopException("The benchmark pipeline failed");
+    }
+    return pipeline.getTransform("Dummy", 0).getLinesRead();
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmark;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.plugins.PluginRegistry;
+import org.apache.hop.core.plugins.TransformPluginType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the initialization of the Hop environment in a fresh JVM, the way hop-run and hop-server
+ * start, with and without a plugin registry snapshot. Every fork initializes the environment once.
+ * The warm-up fork writes the snapshot which the measured forks then read.
+ *
+ * <p>Run from a Hop installation so that the plugins are found, for example: <code>
+ * java -jar hop-engine-bench.jar PluginRegistryStartupBenchmark -jvmArgs
+ * "-DHOP_PLUGIN_BASE_FOLDERS=/opt/hop/plugins"</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 5, warmups = 1)
+public class PluginRegistryStartupBenchmark {
+
+  @Param({"false", "true"})
+  public boolean snapshot;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    if (snapshot) {
+      System.setProperty(
+          Const.HOP_PLUGIN_REGISTRY_SNAPSHOT,
+          System.getProperty("java.io.tmpdir")
+              + File.separator
+              + "hop-plugin-registry-benchmark.json");
+    }
+  }
+
+  @Benchmark
+  public int initEnvironment() throws HopException {
+    HopEnvironment.init();
+    return PluginRegistry.getInstance().getPlugins(TransformPluginType.class).size();
+  }
+}
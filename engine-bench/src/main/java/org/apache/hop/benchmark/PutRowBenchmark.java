@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.BaseTransform;
+import org.apache.hop.pipeline.transform.ITransformData;
+import org.apache.hop.pipeline.transform.ITransformMeta;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.TransformPartitioningMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyData;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of {@link BaseTransform#putRow(IRowMeta, Object[])} itself: pause/stop
+ * checks, row listeners, locking and the hand-off to 1..N output row sets. The output row sets
+ * discard the rows so the consumer side doesn't take part in the measurement.
+ *
+ * <p>Run with: <code>java -jar target/hop-engine-bench-*.jar PutRowBenchmark</code>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PutRowBenchmark {
+
+  @Param({"1", "2", "4", "8"})
+  public int nrOutputRowSets;
+
+  /** Distribute the rows round-robin (true) or copy them to every output row set (false). */
+  @Param({"true", "false"})
+  public boolean distributed;
+
+  private BaseTransform<ITransformMeta, ITransformData> transform;
+  private IRowMeta rowMeta;
+  private Object[] row;
+
+  /** A row set which accepts and forgets every row. */
+  static final class DiscardingRowSet extends QueueRowSet {
+    @Override
+    public boolean putRow(IRowMeta rowMeta, Object[] rowData) {
+      this.rowMeta = rowMeta;
+      return true;
+    }
+
+    @Override
+    public int putRows(IRowMeta rowMeta, List<Object[]> rows, int fromIndex) {
+      this.rowMeta = rowMeta;
+      return rows.size() - fromIndex;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() throws HopException {
+    HopEnvironment.init();
+
+    TransformMeta transformMeta = new TransformMeta("dummy", new DummyMeta());
+    transformMeta.setDistributes(distributed);
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.addTransform(transformMeta);
+
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.setRunning(true);
+
+    transform =
+        new BaseTransform<>(
+            transformMeta,
+            transformMeta.getTransform(),
+            new DummyData(),
+            0,
+            pipelineMeta,
+            pipeline);
+    transform.setRepartitioning(TransformPartitioningMeta.PARTITIONING_METHOD_NONE);
+    List<IRowSet> outputRowSets = new ArrayList<>();
+    for (int i = 0; i < nrOutputRowSets; i++) {
+      outputRowSets.add(new DiscardingRowSet());
+    }
+    transform.setOutputRowSets(outputRowSets);
+
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaDate("updated"));
+    row = new Object[] {42L, "Apache Hop", 1234.5, new Date()};
+  }
+
+  @Benchmark
+  public long putRow() throws HopException {
+    transform.putRow(rowMeta, row);
+    return transform.getLinesWritten();
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.util.StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Copying and (de)serializing rows with {@link RowMeta}, for rows of only Strings or of a mix of
+ * String, Date, Number, Integer and Boolean values. These are the cases of the <code>SpeedTest
+ * </code> class in hop-core, measured with JMH.
+ *
+ * <p>Run with: <code>java -jar target/hop-engine-bench-*.jar RowMetaBenchmark</code>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMetaBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int nrFields;
+
+  @Param({"String", "Mixed"})
+  public String rowType;
+
+  private IRowMeta rowMeta;
+  private Object[] row;
+
+  private ByteArrayOutputStream outputBuffer;
+  private DataOutputStream outputStream;
+  private byte[] serializedRow;
+
+  @Setup(Level.Trial)
+  public void setUp() throws HopException {
+    rowMeta = new RowMeta();
+    boolean mixed = "Mixed".equals(rowType);
+    row = new Object[nrFields];
+    for (int i = 0; i < nrFields; i++) {
+      String name = "field" + (i + 1);
+      switch (mixed ? i % 5 : 0) {
+        case 1 -> {
+          rowMeta.addValueMeta(new ValueMetaDate(name));
+          row[i] = new Date();
+        }
+        case 2 -> {
+          rowMeta.addValueMeta(new ValueMetaNumber(name, 12, 4));
+          row[i] = Math.random() * 1000000;
+        }
+        case 3 -> {
+          rowMeta.addValueMeta(new ValueMetaInteger(name, 8, 0));
+          row[i] = (long) (Math.random() * 1000000);
+        }
+        case 4 -> {
+          rowMeta.addValueMeta(new ValueMetaBoolean(name));
+          row[i] = Math.random() > 0.5;
+        }
+        default -> {
+          rowMeta.addValueMeta(new ValueMetaString(name, 20, 0));
+          row[i] = StringUtil.generateRandomString(20, "", "", false);
+        }
+      }
+    }
+
+    outputBuffer = new ByteArrayOutputStream(nrFields * 32);
+    outputStream = new DataOutputStream(outputBuffer);
+    rowMeta.writeData(outputStream, row);
+    serializedRow = outputBuffer.toByteArray();
+  }
+
+  @Benchmark
+  public Object[] cloneRow() throws HopException {
+    return rowMeta.cloneRow(row);
+  }
+
+  @Benchmark
+  public int writeData() throws HopException {
+    outputBuffer.reset();
+    rowMeta.writeData(outputStream, row);
+    return outputBuffer.size();
+  }
+
+  @Benchmark
+  public Object[] readData() throws HopException, IOException {
+    try (DataInputStream inputStream =
+        new DataInputStream(new ByteArrayInputStream(serializedRow))) {
+      return rowMeta.readData(inputStream);
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.BlockingBatchingRowSet;
+import org.apache.hop.core.BlockingRowSet;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.RingBufferRowSet;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hands rows from a producer thread to a consumer thread through the different row set
+ * implementations, the way two transform copies exchange rows over a hop.
+ *
+ * <p>The <code>batchHandOff</code> group moves the rows in batches with {@link
+ * IRowSet#putRows(IRowMeta, List, int)} and {@link IRowSet#getRows(List, int)}.
+ *
+ * <p>Run with: <code>java -jar target/hop-engine-bench-*.jar RowSetBenchmark</code>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowSetBenchmark {
+
+  private static final long TIMEOUT_MILLIS = 10L;
+
+  @Param({"Blocking", "BlockingBatching", "RingBuffer", "RingBufferSpinning"})
+  public String rowSetType;
+
+  @Param({"" + Const.ROWS_IN_ROWSET})
+  public int rowSetSize;
+
+  @Param({"" + Const.ROWS_IN_BATCH})
+  public int batchSize;
+
+  private IRowSet rowSet;
+  private IRowMeta rowMeta;
+  private Object[] row;
+  private List<Object[]> batch;
+  private List<Object[]> received;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    rowSet =
+        switch (rowSetType) {
+          case "BlockingBatching" -> new BlockingBatchingRowSet(rowSetSize);
+          case "RingBuffer" -> new RingBufferRowSet(rowSetSize);
+          case "RingBufferSpinning" ->
+              new RingBufferRowSet(rowSetSize, false, RingBufferRowSet.WaitStrategy.Spinning);
+          default -> new BlockingRowSet(rowSetSize);
+        };
+
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    row = new Object[] {42L, "Apache Hop"};
+
+    batch = new ArrayList<>(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      batch.add(row);
+    }
+    received = new ArrayList<>(batchSize);
+  }
+
+  @Benchmark
+  @Group("handOff")
+  @GroupThreads(1)
+  public boolean put() {
+    return rowSet.putRowWait(rowMeta, row, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  @Benchmark
+  @Group("handOff")
+  @GroupThreads(1)
+  public Object[] get() {
+    return rowSet.getRowWait(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /** Puts a batch of rows, returns the number of rows actually handed over. */
+  @Benchmark
+  @Group("batchHandOff")
+  @GroupThreads(1)
+  public int putRows() {
+    return rowSet.putRows(rowMeta, batch, 0);
+  }
+
+  /** Takes whatever is available, up to a batch of rows. */
+  @Benchmark
+  @Group("batchHandOff")
+  @GroupThreads(1)
+  public int getRows() {
+    received.clear();
+    int count = rowSet.getRows(received, batchSize);
+    if (count == 0) {
+      Object[] first = rowSet.getRowWait(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+      if (first != null) {
+        count = 1;
+      }
+    }
+    return count;
+  }
+}
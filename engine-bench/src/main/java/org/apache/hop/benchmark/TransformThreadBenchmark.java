@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.LogLevel;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.engines.local.LocalPipelineRunConfiguration;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs a chain of Dummy transforms on the local pipeline engine with one platform thread per
+ * transform copy versus one virtual thread per copy.
+ *
+ * <p>Next to the time it takes to push the rows through the chain, the benchmark reports the peak
+ * number of platform threads and the heap in use during the run. Each platform thread also reserves
+ * a native stack (1MB by default) which doesn't show up in the heap numbers. Add <code>-prof gc
+ * </code> for the allocation rate.
+ *
+ * <p>Run with: <code>java -jar target/hop-engine-bench-*.jar TransformThreadBenchmark</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransformThreadBenchmark {
+
+  @Param({"Platform", "Virtual"})
+  public String transformThreadType;
+
+  @Param({"10", "300"})
+  public int nrTransforms;
+
+  @Param({"10000"})
+  public int nrRows;
+
+  private PipelineMeta pipelineMeta;
+  private IRowMeta rowMeta;
+
+  /** Footprint of the last pipeline run. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Footprint {
+    public long peakPlatformThreads;
+    public long peakHeapUsedMb;
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() throws HopException {
+    HopEnvironment.init();
+
+    pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("transform-thread-benchmark");
+    TransformMeta previous = null;
+    for (int i = 0; i < nrTransforms; i++) {
+      TransformMeta transformMeta = new TransformMeta("dummy" + i, new DummyMeta());
+      pipelineMeta.addTransform(transformMeta);
+      if (previous != null) {
+        pipelineMeta.addPipelineHop(new PipelineHopMeta(previous, transformMeta));
+      }
+      previous = transformMeta;
+    }
+
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+  }
+
+  @Benchmark
+  public long runPipeline(Footprint footprint) throws HopException {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    threads.resetPeakThreadCount();
+
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.setLogLevel(LogLevel.MINIMAL);
+    LocalPipelineRunConfiguration config =
+        (LocalPipelineRunConfiguration)
+            pipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
+    config.setTransformThreadType(transformThreadType);
+    pipeline.prepareExecution();
+
+    RowProducer producer = pipeline.addRowProducer("dummy0", 0);
+    pipeline.startThreads();
+    for (long i = 0; i < nrRows; i++) {
+      producer.putRow(rowMeta, new Object[] {i, "Apache Hop"});
+    }
+    long heapUsed = memory.getHeapMemoryUsage().getUsed();
+    producer.finished();
+    pipeline.waitUntilFinished();
+
+    footprint.peakPlatformThreads = threads.getPeakThreadCount();
+    footprint.peakHeapUsedMb = heapUsed / (1024 * 1024);
+    return pipeline.getTransform("dummy" + (nrTransforms - 1), 0).getLinesRead();
+  }
+}
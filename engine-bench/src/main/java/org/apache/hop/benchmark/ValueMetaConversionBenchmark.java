@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * String to Integer/Number/Date conversions and back, as done by the ValueMetaBase conversion layer
+ * for every field of every row read from or written to text.
+ *
+ * <p>Run with: <code>java -jar target/hop-engine-bench-*.jar ValueMetaConversionBenchmark</code>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValueMetaConversionBenchmark {
+
+  private IValueMeta integerMeta;
+  private IValueMeta numberMeta;
+  private IValueMeta dateMeta;
+
+  // The metadata of the same values when stored as text, like a text file input would use
+  private IValueMeta integerStringMeta;
+  private IValueMeta numberStringMeta;
+  private IValueMeta dateStringMeta;
+
+  private Date date;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    integerMeta = new ValueMetaInteger("integer");
+    integerMeta.setConversionMask("#");
+    integerStringMeta = asString(integerMeta);
+
+    numberMeta = new ValueMetaNumber("number");
+    numberMeta.setConversionMask("#.####");
+    numberMeta.setDecimalSymbol(".");
+    numberMeta.setGroupingSymbol(",");
+    numberStringMeta = asString(numberMeta);
+
+    dateMeta = new ValueMetaDate("date");
+    dateMeta.setConversionMask("yyyy/MM/dd HH:mm:ss.SSS");
+    dateStringMeta = asString(dateMeta);
+
+    date = new Date();
+  }
+
+  private static IValueMeta asString(IValueMeta valueMeta) {
+    IValueMeta stringMeta = new ValueMetaString(valueMeta.getName());
+    stringMeta.setConversionMask(valueMeta.getConversionMask());
+    stringMeta.setDecimalSymbol(valueMeta.getDecimalSymbol());
+    stringMeta.setGroupingSymbol(valueMeta.getGroupingSymbol());
+    return stringMeta;
+  }
+
+  @Benchmark
+  public Object stringToInteger() throws HopValueException {
+    return integerMeta.convertDataFromString("1234567", integerStringMeta, null, null, 0);
+  }
+
+  @Benchmark
+  public Object stringToNumber() throws HopValueException {
+    return numberMeta.convertDataFromString("12345.6789", numberStringMeta, null, null, 0);
+  }
+
+  @Benchmark
+  public Object stringToDate() throws HopValueException {
+    return dateMeta.convertDataFromString("2024/02/29 12:34:56.789", dateStringMeta, null, null, 0);
+  }
+
+  @Benchmark
+  public String integerToString() throws HopValueException {
+    return integerMeta.getString(1234567L);
+  }
+
+  @Benchmark
+  public String numberToString() throws HopValueException {
+    return numberMeta.getString(12345.6789);
+  }
+
+  @Benchmark
+  public String dateToString() throws HopValueException {
+    return dateMeta.getString(date);
+  }
+}
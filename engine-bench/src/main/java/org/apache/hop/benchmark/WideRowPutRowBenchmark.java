@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.BaseTransform;
+import org.apache.hop.pipeline.transform.ITransformData;
+import org.apache.hop.pipeline.transform.ITransformMeta;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.TransformPartitioningMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyData;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link BaseTransform#putRow(IRowMeta, Object[])} with wide rows, with and without the
+ * empty field name and type checks of safe mode (<code>HOP_ALLOW_EMPTY_FIELD_NAMES_AND_TYPES=N
+ * </code>). The single output row set discards the rows.
+ *
+ * <p>Run with: <code>java -jar target/hop-engine-bench-*.jar WideRowPutRowBenchmark</code>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WideRowPutRowBenchmark {
+
+  @Param({"10", "100", "500"})
+  public int nrFields;
+
+  /** Verify the output row metadata for empty field names and types */
+  @Param({"true", "false"})
+  public boolean verifyFields;
+
+  private BaseTransform<ITransformMeta, ITransformData> transform;
+  private IRowMeta rowMeta;
+  private Object[] row;
+
+  @Setup(Level.Trial)
+  public void setUp() throws HopException {
+    HopEnvironment.init();
+
+    TransformMeta transformMeta = new TransformMeta("dummy", new DummyMeta());
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.addTransform(transformMeta);
+
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.setRunning(true);
+
+    transform =
+        new BaseTransform<>(
+            transformMeta,
+            transformMeta.getTransform(),
+            new DummyData(),
+            0,
+            pipelineMeta,
+            pipeline);
+    transform.setRepartitioning(TransformPartitioningMeta.PARTITIONING_METHOD_NONE);
+    transform.setOutputRowSets(List.of(new PutRowBenchmark.DiscardingRowSet()));
+    transform.setAllowEmptyFieldNamesAndTypes(!verifyFields);
+
+    rowMeta = new RowMeta();
+    row = new Object[nrFields];
+    for (int i = 0; i < nrFields; i++) {
+      if (i % 2 == 0) {
+        rowMeta.addValueMeta(new ValueMetaInteger("field" + i));
+        row[i] = (long) i;
+      } else {
+        rowMeta.addValueMeta(new ValueMetaString("field" + i));
+        row[i] = "value" + i;
+      }
+    }
+  }
+
+  @Benchmark
+  public long putRow() throws HopException {
+    transform.putRow(rowMeta, row);
+    return transform.getLinesWritten();
+  }
+}
@@ -28,6 +28,7 @@ import org.apache.hop.core.auth.AuthenticationProviderPluginType;
 import org.apache.hop.core.compress.CompressionPluginType;
 import org.apache.hop.core.config.HopConfig;
 import org.apache.hop.core.config.plugin.ConfigPluginType;
+import org.apache.hop.core.database.pool.DatabaseConnectionPoolManager;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.extension.ExtensionPointHandler;
 import org.apache.hop.core.extension.HopExtensionPoint;
@@ -211,6 +212,7 @@ public class HopEnvironment {
   // Shutdown the Hop environment programmatically
   public static void shutdown() {
     LineageHub.getInstance().shutdown();
+    DatabaseConnectionPoolManager.getInstance().closeAll();
   }
 
   /**
@@ -240,6 +242,7 @@ public class HopEnvironment {
 
   public static void reset() {
     LineageHub.getInstance().shutdown();
+    DatabaseConnectionPoolManager.getInstance().closeAll();
     HopClientEnvironment.reset();
     initialized.set(null);
   }
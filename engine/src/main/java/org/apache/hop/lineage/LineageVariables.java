@@ -58,4 +58,18 @@ public final class LineageVariables {
       description =
           "Comma-separated lineage sink plugin ids to enable; leave empty to register all discovered sinks.")
   public static final String HOP_LINEAGE_SINK_IDS = "HOP_LINEAGE_SINK_IDS";
+
+  @Variable(
+      scope = VariableScope.ENGINE,
+      value = "",
+      description =
+          "Folder in which lineage events are spooled when the queue of a sink is full. The events are delivered once the sink catches up, also after a restart. Leave empty to drop the events instead.")
+  public static final String HOP_LINEAGE_SPOOL_FOLDER = "HOP_LINEAGE_SPOOL_FOLDER";
+
+  @Variable(
+      scope = VariableScope.ENGINE,
+      value = "1024",
+      description =
+          "Maximum size in megabytes of the lineage spool of a sink. Events are dropped when the spool is full.")
+  public static final String HOP_LINEAGE_SPOOL_MAX_MB = "HOP_LINEAGE_SPOOL_MAX_MB";
 }
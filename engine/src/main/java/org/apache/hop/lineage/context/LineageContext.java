@@ -17,6 +17,7 @@
 
 package org.apache.hop.lineage.context;
 
+import java.io.Serializable;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -47,7 +48,9 @@ import lombok.Getter;
  * into the {@code attributes} map.
  */
 @Getter
-public final class LineageContext {
+public final class LineageContext implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   /** Kind of subject this event describes. Never null. */
   private final LineageSubjectType subjectType;
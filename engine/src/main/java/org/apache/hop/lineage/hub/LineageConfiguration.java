@@ -45,19 +45,46 @@ public final class LineageConfiguration {
    */
   private final Set<String> sinkIds;
 
+  /** Folder to spool events to when the queue of a sink is full, null to drop them instead. */
+  private final String spoolFolder;
+
+  /** Maximum size of the spool of a sink in bytes */
+  private final long spoolMaxBytes;
+
   private LineageConfiguration(
-      boolean enabled, int queueCapacity, int batchMax, long batchLingerMs, Set<String> sinkIds) {
+      boolean enabled,
+      int queueCapacity,
+      int batchMax,
+      long batchLingerMs,
+      Set<String> sinkIds,
+      String spoolFolder,
+      long spoolMaxBytes) {
     this.enabled = enabled;
     this.queueCapacity = queueCapacity;
     this.batchMax = batchMax;
     this.batchLingerMs = batchLingerMs;
     this.sinkIds = sinkIds;
+    this.spoolFolder = spoolFolder;
+    this.spoolMaxBytes = spoolMaxBytes;
   }
 
   /** Builds a fixed configuration for unit tests without reading Hop variables. */
   public static LineageConfiguration forTesting(
       boolean enabled, int queueCapacity, int batchMax, long batchLingerMs, Set<String> sinkIds) {
-    return new LineageConfiguration(enabled, queueCapacity, batchMax, batchLingerMs, sinkIds);
+    return forTesting(enabled, queueCapacity, batchMax, batchLingerMs, sinkIds, null, 0L);
+  }
+
+  /** Builds a fixed configuration with a spool folder for unit tests. */
+  public static LineageConfiguration forTesting(
+      boolean enabled,
+      int queueCapacity,
+      int batchMax,
+      long batchLingerMs,
+      Set<String> sinkIds,
+      String spoolFolder,
+      long spoolMaxBytes) {
+    return new LineageConfiguration(
+        enabled, queueCapacity, batchMax, batchLingerMs, sinkIds, spoolFolder, spoolMaxBytes);
   }
 
   public static LineageConfiguration resolve() {
@@ -91,7 +118,19 @@ public final class LineageConfiguration {
               .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
-    return new LineageConfiguration(enabled, queueCapacity, batchMax, lingerMs, sinkIds);
+    String spoolFolder = variables.getVariable(LineageVariables.HOP_LINEAGE_SPOOL_FOLDER, "");
+    long spoolMaxMb =
+        parsePositiveLong(
+            variables.getVariable(LineageVariables.HOP_LINEAGE_SPOOL_MAX_MB, "1024"), 1024L);
+
+    return new LineageConfiguration(
+        enabled,
+        queueCapacity,
+        batchMax,
+        lingerMs,
+        sinkIds,
+        Utils.isEmpty(spoolFolder) ? null : spoolFolder,
+        spoolMaxMb * 1024L * 1024L);
   }
 
   private static int parsePositiveInt(String raw, int defaultValue) {
@@ -20,9 +20,7 @@ package org.apache.hop.lineage.hub;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -40,11 +38,17 @@ import org.apache.hop.lineage.spi.ILineageSink;
 /**
  * Central async hub for lineage events. When lineage is disabled (see {@link
  * LineageConfiguration}), {@link #emit(LineageEvent)} returns immediately without queuing.
+ *
+ * <p>Every sink has its own bounded queue and worker thread (see {@link LineageSinkWorker}), so a
+ * slow or failing sink doesn't hold up the others.
  */
 public final class LineageHub {
 
   private static final LineageHub INSTANCE = new LineageHub(null, null);
 
+  /** How long {@link #flush()} waits for the sinks */
+  private static final long FLUSH_TIMEOUT_MS = 60_000L;
+
   private final ILogChannel log = new LogChannel("LineageHub");
 
   /** When non-null, used instead of loading sinks from the plugin registry (tests). */
@@ -52,16 +56,12 @@ public final class LineageHub {
 
   private final LineageConfiguration fixedConfiguration;
 
-  // Lazily allocated in ensureWorkerStarted so the singleton picks up the resolved
-  // HOP_LINEAGE_QUEUE_CAPACITY on first emit (Hop variables are not available at class-init time).
-  private volatile BlockingQueue<Object> queue;
-
   private final AtomicLong droppedEvents = new AtomicLong();
   private final AtomicBoolean running = new AtomicBoolean(false);
-  private volatile Thread worker;
 
-  private volatile List<ILineageSink> sinks = List.of();
-  private final AtomicBoolean sinksInitialized = new AtomicBoolean(false);
+  // Created in ensureWorkersStarted so the singleton picks up the resolved configuration on first
+  // emit (Hop variables are not available at class-init time).
+  private volatile List<LineageSinkWorker> workers = List.of();
 
   private LineageHub(LineageConfiguration fixedConfiguration, List<ILineageSink> explicitSinks) {
     this.fixedConfiguration = fixedConfiguration;
@@ -85,47 +85,37 @@ public final class LineageHub {
 
   /** Invoked after {@link org.apache.hop.core.HopEnvironment} finishes plugin registration. */
   public void environmentReady() {
-    sinksInitialized.set(false);
-    sinks = List.of();
+    // The sinks are loaded again from the new plugin registry on the next emit
+    shutdown();
   }
 
   /**
-   * Queue a lineage event. No-op when lineage is disabled. Drops the event when the queue is full
-   * and increments an internal drop counter.
+   * Queue a lineage event for every sink. No-op when lineage is disabled. When the queue of a sink
+   * is full the event is spooled to disk for that sink (see {@link
+   * org.apache.hop.lineage.LineageVariables#HOP_LINEAGE_SPOOL_FOLDER}) or dropped, which increments
+   * an internal drop counter.
    */
   public void emit(LineageEvent event) {
     LineageConfiguration cfg = resolveConfig();
     if (!cfg.isEnabled()) {
       return;
     }
-    ensureWorkerStarted(cfg);
-    if (!queue.offer(event)) {
-      droppedEvents.incrementAndGet();
-      log.logError(
-          "Lineage event dropped because the queue is full (capacity "
-              + cfg.getQueueCapacity()
-              + "). Total drops: "
-              + droppedEvents.get());
+    ensureWorkersStarted(cfg);
+    for (LineageSinkWorker worker : workers) {
+      worker.offer(event);
     }
   }
 
   /**
-   * Wait until queued events (including flush markers) have been processed by sinks. Safe to call
-   * when disabled (no-op).
+   * Wait until queued and spooled events (including flush markers) have been processed by all
+   * sinks. The sinks are flushed in parallel. Safe to call when disabled (no-op).
    */
   public void flush() {
     LineageConfiguration cfg = resolveConfig();
     if (!cfg.isEnabled() || !running.get()) {
       return;
     }
-    FlushRequest request = new FlushRequest();
-    try {
-      queue.put(request);
-      request.done.await(60, TimeUnit.SECONDS);
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      log.logError("Interrupted while flushing lineage queue", e);
-    }
+    awaitSinks(FLUSH_TIMEOUT_MS);
   }
 
   /** Flush without blocking; logs if the queue is busy. */
@@ -137,194 +127,152 @@ public final class LineageHub {
     }
   }
 
-  /** Stop the worker thread and shut down sinks. */
-  public void shutdown() {
-    running.set(false);
-    Thread t = worker;
-    if (t != null) {
-      t.interrupt();
-      try {
-        t.join(5000);
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-      }
-    }
-    worker = null;
-    shutdownSinks();
-    BlockingQueue<Object> q = queue;
-    if (q != null) {
-      q.clear();
-    }
-    sinksInitialized.set(false);
-    sinks = List.of();
-  }
-
-  public long getDroppedEventCount() {
-    return droppedEvents.get();
-  }
-
-  private LineageConfiguration resolveConfig() {
-    return fixedConfiguration != null ? fixedConfiguration : LineageConfiguration.resolve();
-  }
-
-  private void ensureWorkerStarted(LineageConfiguration cfg) {
-    if (running.get()) {
+  /**
+   * Deliver everything which is queued or spooled to every sink, for example before the server
+   * shuts down. Logs the sinks which didn't catch up in time; their spooled events are delivered
+   * after the next start when a spool folder is configured.
+   */
+  public void drain() {
+    if (!running.get()) {
       return;
     }
-    synchronized (this) {
-      if (running.get()) {
-        return;
-      }
-      if (queue == null) {
-        queue = new LinkedBlockingQueue<>(Math.max(1, cfg.getQueueCapacity()));
+    try {
+      awaitSinks(FLUSH_TIMEOUT_MS);
+      for (LineageSinkStatistics statistics : getSinkStatistics()) {
+        log.logBasic(
+            "Lineage sink "
+                + statistics.getSinkId()
+                + ": "
+                + statistics.getDeliveredEvents()
+                + " events delivered, "
+                + statistics.getFailedBatches()
+                + " failed batches, "
+                + statistics.getDroppedEvents()
+                + " events dropped");
       }
-      running.set(true);
-      Thread thread = new Thread(this::runLoop, "Hop-LineageHub-Dispatcher");
-      thread.setDaemon(true);
-      worker = thread;
-      thread.start();
+    } catch (Exception e) {
+      log.logError("Error draining the lineage sinks", e);
     }
   }
 
-  private void runLoop() {
-    LineageConfiguration cfg = resolveConfig();
+  private void awaitSinks(long timeoutMillis) {
+    List<LineageSinkWorker> active = workers;
+    List<CountDownLatch> latches = new ArrayList<>(active.size());
     try {
-      initSinksIfNeeded();
-    } catch (HopException e) {
-      log.logError("Unable to initialize lineage sinks; lineage delivery is disabled", e);
-      running.set(false);
-      return;
-    }
-
-    while (running.get() && !Thread.currentThread().isInterrupted()) {
-      try {
-        Object first = queue.poll(cfg.getBatchLingerMs(), TimeUnit.MILLISECONDS);
-        if (first == null) {
-          continue;
-        }
-        if (first instanceof FlushRequest fr) {
-          processFlush(fr, cfg);
-          continue;
-        }
-        List<LineageEvent> batch = new ArrayList<>();
-        batch.add((LineageEvent) first);
-        while (batch.size() < cfg.getBatchMax()) {
-          Object o = queue.poll();
-          if (o == null) {
-            break;
-          }
-          if (o instanceof FlushRequest fr) {
-            dispatchBatch(batch);
-            batch.clear();
-            processFlush(fr, cfg);
-            break;
-          }
-          batch.add((LineageEvent) o);
-        }
-        if (!batch.isEmpty()) {
-          dispatchBatch(batch);
+      for (LineageSinkWorker worker : active) {
+        latches.add(worker.requestFlush());
+      }
+      long deadline = System.currentTimeMillis() + timeoutMillis;
+      for (int i = 0; i < latches.size(); i++) {
+        CountDownLatch latch = latches.get(i);
+        long remaining = Math.max(0L, deadline - System.currentTimeMillis());
+        if (latch != null && !latch.await(remaining, TimeUnit.MILLISECONDS)) {
+          LineageSinkStatistics statistics = active.get(i).getStatistics();
+          log.logError(
+              "Lineage sink "
+                  + statistics.getSinkId()
+                  + " didn't catch up in time, "
+                  + statistics.getPendingEvents()
+                  + " events are still pending");
         }
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        break;
-      } catch (Exception e) {
-        log.logError("Unexpected error in lineage dispatcher", e);
       }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.logError("Interrupted while flushing lineage queue", e);
     }
-    running.set(false);
   }
 
-  private void processFlush(FlushRequest fr, LineageConfiguration cfg) {
-    List<Object> pending = new ArrayList<>();
-    queue.drainTo(pending);
-    List<LineageEvent> batch = new ArrayList<>();
-    for (Object o : pending) {
-      if (o instanceof FlushRequest nested) {
-        if (!batch.isEmpty()) {
-          dispatchBatch(batch);
-          batch.clear();
-        }
-        nested.done.countDown();
-      } else {
-        batch.add((LineageEvent) o);
-        if (batch.size() >= cfg.getBatchMax()) {
-          dispatchBatch(batch);
-          batch.clear();
-        }
-      }
+  /** Stop the worker threads and shut down sinks. Queued events are discarded. */
+  public void shutdown() {
+    List<LineageSinkWorker> active;
+    synchronized (this) {
+      running.set(false);
+      active = workers;
+      workers = List.of();
+    }
+    // Interrupt all workers first so that slow sinks are stopped in parallel
+    //
+    for (LineageSinkWorker worker : active) {
+      worker.interrupt();
     }
-    if (!batch.isEmpty()) {
-      dispatchBatch(batch);
+    for (LineageSinkWorker worker : active) {
+      worker.stop();
     }
-    fr.done.countDown();
   }
 
-  private void dispatchBatch(List<LineageEvent> batch) {
-    if (batch.isEmpty()) {
-      return;
-    }
-    List<ILineageSink> active = sinks;
-    for (ILineageSink sink : active) {
-      try {
-        sink.accept(new ArrayList<>(batch));
-      } catch (Exception e) {
-        log.logError("Lineage sink failed: " + sink.getClass().getName(), e);
-      }
+  /**
+   * @return the number of events which were dropped for any of the sinks
+   */
+  public long getDroppedEventCount() {
+    return droppedEvents.get();
+  }
+
+  /**
+   * @return the delivery counters of every active sink
+   */
+  public List<LineageSinkStatistics> getSinkStatistics() {
+    List<LineageSinkStatistics> statistics = new ArrayList<>();
+    for (LineageSinkWorker worker : workers) {
+      statistics.add(worker.getStatistics());
     }
+    return statistics;
+  }
+
+  private LineageConfiguration resolveConfig() {
+    return fixedConfiguration != null ? fixedConfiguration : LineageConfiguration.resolve();
   }
 
-  private void initSinksIfNeeded() throws HopException {
-    if (sinksInitialized.get()) {
+  private void ensureWorkersStarted(LineageConfiguration cfg) {
+    if (running.get()) {
       return;
     }
     synchronized (this) {
-      if (sinksInitialized.get()) {
+      if (running.get()) {
         return;
       }
       Variables variables = new Variables();
       variables.initializeFrom(null);
 
-      if (explicitSinks != null) {
-        sinks = List.copyOf(explicitSinks);
-        for (ILineageSink sink : sinks) {
-          sink.init(variables, log);
+      List<LineageSinkWorker> started = new ArrayList<>();
+      try {
+        for (SinkEntry entry : loadSinks(cfg)) {
+          LineageSinkWorker worker =
+              new LineageSinkWorker(entry.id, entry.sink, cfg, log, droppedEvents);
+          worker.start(variables);
+          started.add(worker);
         }
-        sinksInitialized.set(true);
-        return;
+      } catch (HopException e) {
+        log.logError("Unable to load lineage sinks; lineage delivery is disabled", e);
       }
+      workers = List.copyOf(started);
+      running.set(true);
+    }
+  }
 
-      List<ILineageSink> loaded = new ArrayList<>();
-      LineageConfiguration cfg = resolveConfig();
-      PluginRegistry registry = PluginRegistry.getInstance();
-      for (IPlugin plugin : registry.getPlugins(LineageSinkPluginType.class)) {
-        String id = plugin.getIds()[0].toLowerCase(Locale.ROOT);
-        if (!cfg.getSinkIds().isEmpty() && !cfg.getSinkIds().contains(id)) {
-          continue;
-        }
-        try {
-          ILineageSink sink = registry.loadClass(plugin, ILineageSink.class);
-          sink.init(variables, log);
-          loaded.add(sink);
-        } catch (HopPluginException e) {
-          throw new HopException("Unable to load lineage sink plugin " + plugin.getName(), e);
-        }
+  private List<SinkEntry> loadSinks(LineageConfiguration cfg) throws HopException {
+    List<SinkEntry> loaded = new ArrayList<>();
+    if (explicitSinks != null) {
+      for (int i = 0; i < explicitSinks.size(); i++) {
+        ILineageSink sink = explicitSinks.get(i);
+        loaded.add(new SinkEntry("sink-" + i, sink));
       }
-      sinks = List.copyOf(loaded);
-      sinksInitialized.set(true);
+      return loaded;
     }
-  }
 
-  private void shutdownSinks() {
-    for (ILineageSink sink : sinks) {
+    PluginRegistry registry = PluginRegistry.getInstance();
+    for (IPlugin plugin : registry.getPlugins(LineageSinkPluginType.class)) {
+      String id = plugin.getIds()[0].toLowerCase(Locale.ROOT);
+      if (!cfg.getSinkIds().isEmpty() && !cfg.getSinkIds().contains(id)) {
+        continue;
+      }
       try {
-        sink.shutdown();
-      } catch (Exception e) {
-        log.logError("Error shutting down lineage sink " + sink.getClass().getName(), e);
+        loaded.add(new SinkEntry(id, registry.loadClass(plugin, ILineageSink.class)));
+      } catch (HopPluginException e) {
+        throw new HopException("Unable to load lineage sink plugin " + plugin.getName(), e);
       }
     }
+    return loaded;
   }
 
-  private static final class FlushRequest {
-    final CountDownLatch done = new CountDownLatch(1);
-  }
+  private record SinkEntry(String id, ILineageSink sink) {}
 }
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.lineage.hub;
+
+import lombok.Getter;
+
+/** Snapshot of the delivery counters of a single lineage sink, see {@link LineageHub}. */
+@Getter
+public final class LineageSinkStatistics {
+
+  /** The plugin id of the sink, or its class name for sinks which aren't plugins */
+  private final String sinkId;
+
+  /** Events passed to the sink */
+  private final long deliveredEvents;
+
+  /** Batches passed to the sink */
+  private final long deliveredBatches;
+
+  /** Batches for which the sink threw an exception */
+  private final long failedBatches;
+
+  /** Events which were dropped because the queue and the spool of the sink were full */
+  private final long droppedEvents;
+
+  /** Events which were written to the spool because the queue of the sink was full */
+  private final long spooledEvents;
+
+  /** Events waiting in the queue of the sink */
+  private final long queuedEvents;
+
+  /** Events waiting in the spool of the sink */
+  private final long pendingSpooledEvents;
+
+  /** Time between the creation of the oldest event in the last batch and its delivery */
+  private final long lagMillis;
+
+  /** Average number of events delivered per second since the sink was started */
+  private final double eventsPerSecond;
+
+  LineageSinkStatistics(
+      String sinkId,
+      long deliveredEvents,
+      long deliveredBatches,
+      long failedBatches,
+      long droppedEvents,
+      long spooledEvents,
+      long queuedEvents,
+      long pendingSpooledEvents,
+      long lagMillis,
+      double eventsPerSecond) {
+    this.sinkId = sinkId;
+    this.deliveredEvents = deliveredEvents;
+    this.deliveredBatches = deliveredBatches;
+    this.failedBatches = failedBatches;
+    this.droppedEvents = droppedEvents;
+    this.spooledEvents = spooledEvents;
+    this.queuedEvents = queuedEvents;
+    this.pendingSpooledEvents = pendingSpooledEvents;
+    this.lagMillis = lagMillis;
+    this.eventsPerSecond = eventsPerSecond;
+  }
+
+  /**
+   * @return the number of events which weren't delivered yet
+   */
+  public long getPendingEvents() {
+    return queuedEvents + pendingSpooledEvents;
+  }
+}
@@ -0,0 +1,364 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.lineage.hub;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.lineage.model.LineageEvent;
+import org.apache.hop.lineage.spi.ILineageSink;
+
+/**
+ * Delivers lineage events to a single sink on its own thread, so that a slow sink doesn't hold up
+ * the others. Events wait in a bounded queue. When the queue is full they are written to a {@link
+ * LineageSpool} (when configured) and delivered once the sink has caught up, otherwise they are
+ * dropped.
+ *
+ * <p>Once an event is spooled, all following events are spooled as well until the spool is empty,
+ * so the sink receives the events in the order in which they were emitted.
+ */
+final class LineageSinkWorker {
+
+  private final String sinkId;
+  private final ILineageSink sink;
+  private final LineageConfiguration cfg;
+  private final ILogChannel log;
+  private final AtomicLong hubDroppedEvents;
+
+  private final BlockingQueue<Object> queue;
+  private final LineageSpool spool;
+
+  /** True as long as events are written to the spool, guarded by the spool */
+  private volatile boolean spooling;
+
+  private volatile boolean running;
+  private volatile boolean failed;
+  private Thread thread;
+
+  private final AtomicLong deliveredEvents = new AtomicLong();
+  private final AtomicLong deliveredBatches = new AtomicLong();
+  private final AtomicLong failedBatches = new AtomicLong();
+  private final AtomicLong droppedEvents = new AtomicLong();
+  private final AtomicLong spooledEvents = new AtomicLong();
+  private volatile long lagMillis;
+  private volatile long startTime;
+
+  LineageSinkWorker(
+      String sinkId,
+      ILineageSink sink,
+      LineageConfiguration cfg,
+      ILogChannel log,
+      AtomicLong hubDroppedEvents) {
+    this.sinkId = sinkId;
+    this.sink = sink;
+    this.cfg = cfg;
+    this.log = log;
+    this.hubDroppedEvents = hubDroppedEvents;
+    this.queue = new LinkedBlockingQueue<>(Math.max(1, cfg.getQueueCapacity()));
+    this.spool = openSpool();
+  }
+
+  private LineageSpool openSpool() {
+    if (cfg.getSpoolFolder() == null) {
+      return null;
+    }
+    Path folder = Path.of(cfg.getSpoolFolder(), sinkId);
+    try {
+      LineageSpool opened =
+          new LineageSpool(folder, LineageSpool.DEFAULT_SEGMENT_SIZE, cfg.getSpoolMaxBytes());
+      // Deliver what was left behind by a previous run before anything new
+      spooling = !opened.isEmpty();
+      return opened;
+    } catch (IOException e) {
+      log.logError(
+          "Unable to open the lineage spool in "
+              + folder
+              + " for sink "
+              + sinkId
+              + "; events are dropped when its queue is full",
+          e);
+      return null;
+    }
+  }
+
+  /** Start delivering events. The sink is initialized on the worker thread. */
+  void start(IVariables variables) {
+    running = true;
+    startTime = System.currentTimeMillis();
+    thread = new Thread(() -> run(variables), "Hop-LineageHub-" + sinkId);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Queue an event for the sink. Never blocks: when the queue is full the event is spooled or
+   * dropped.
+   */
+  void offer(LineageEvent event) {
+    if (failed) {
+      return;
+    }
+    if (!spooling && queue.offer(event)) {
+      return;
+    }
+    if (spool != null) {
+      synchronized (spool) {
+        if (!spooling && queue.offer(event)) {
+          return;
+        }
+        try {
+          if (spool.append(event)) {
+            spooling = true;
+            spooledEvents.incrementAndGet();
+            return;
+          }
+        } catch (IOException e) {
+          log.logError("Unable to spool a lineage event for sink " + sinkId, e);
+        }
+      }
+    }
+    droppedEvents.incrementAndGet();
+    hubDroppedEvents.incrementAndGet();
+    log.logError(
+        "Lineage event dropped for sink "
+            + sinkId
+            + " because its queue is full (capacity "
+            + cfg.getQueueCapacity()
+            + "). Total drops: "
+            + droppedEvents.get());
+  }
+
+  /**
+   * Ask the worker to deliver everything queued or spooled so far.
+   *
+   * @return the latch which is released once the events are delivered, null if the worker isn't
+   *     running
+   */
+  CountDownLatch requestFlush() throws InterruptedException {
+    if (!running || failed) {
+      return null;
+    }
+    FlushRequest request = new FlushRequest();
+    queue.put(request);
+    return request.done;
+  }
+
+  /** Interrupt the worker thread and forget about the queued events. */
+  void interrupt() {
+    running = false;
+    Thread t = thread;
+    if (t != null) {
+      t.interrupt();
+    }
+  }
+
+  /** Wait for the worker thread to end after {@link #interrupt()} and shut down the sink. */
+  void stop() {
+    Thread t = thread;
+    if (t != null) {
+      try {
+        t.join(5000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    thread = null;
+    try {
+      sink.shutdown();
+    } catch (Exception e) {
+      log.logError("Error shutting down lineage sink " + sink.getClass().getName(), e);
+    }
+    releaseFlushRequests();
+    queue.clear();
+    if (spool != null) {
+      spool.close();
+    }
+  }
+
+  LineageSinkStatistics getStatistics() {
+    long delivered = deliveredEvents.get();
+    long elapsed = Math.max(1L, System.currentTimeMillis() - startTime);
+    long queued = queue.stream().filter(LineageEvent.class::isInstance).count();
+    return new LineageSinkStatistics(
+        sinkId,
+        delivered,
+        deliveredBatches.get(),
+        failedBatches.get(),
+        droppedEvents.get(),
+        spooledEvents.get(),
+        queued,
+        spool == null ? 0L : spool.getPendingEvents(),
+        lagMillis,
+        delivered * 1000.0 / elapsed);
+  }
+
+  private void run(IVariables variables) {
+    try {
+      sink.init(variables, log);
+    } catch (Exception e) {
+      log.logError(
+          "Unable to initialize lineage sink " + sinkId + "; lineage delivery to it is disabled",
+          e);
+      failed = true;
+      running = false;
+      releaseFlushRequests();
+      queue.clear();
+      return;
+    }
+
+    while (running && !Thread.currentThread().isInterrupted()) {
+      try {
+        if (queue.isEmpty() && replaySpoolBatch()) {
+          continue;
+        }
+        Object first = queue.poll(cfg.getBatchLingerMs(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        if (first instanceof FlushRequest fr) {
+          processFlush(fr);
+          continue;
+        }
+        List<LineageEvent> batch = new ArrayList<>();
+        batch.add((LineageEvent) first);
+        while (batch.size() < cfg.getBatchMax()) {
+          Object o = queue.poll();
+          if (o == null) {
+            break;
+          }
+          if (o instanceof FlushRequest fr) {
+            dispatchBatch(batch);
+            batch = new ArrayList<>();
+            processFlush(fr);
+            break;
+          }
+          batch.add((LineageEvent) o);
+        }
+        if (!batch.isEmpty()) {
+          dispatchBatch(batch);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (Exception e) {
+        log.logError("Unexpected error delivering lineage events to sink " + sinkId, e);
+      }
+    }
+  }
+
+  private void processFlush(FlushRequest fr) {
+    List<Object> pending = new ArrayList<>();
+    queue.drainTo(pending);
+    List<LineageEvent> batch = new ArrayList<>();
+    for (Object o : pending) {
+      if (o instanceof FlushRequest nested) {
+        if (!batch.isEmpty()) {
+          dispatchBatch(batch);
+          batch = new ArrayList<>();
+        }
+        nested.done.countDown();
+      } else {
+        batch.add((LineageEvent) o);
+        if (batch.size() >= cfg.getBatchMax()) {
+          dispatchBatch(batch);
+          batch = new ArrayList<>();
+        }
+      }
+    }
+    if (!batch.isEmpty()) {
+      dispatchBatch(batch);
+    }
+    // The spooled events were emitted after the queued ones
+    //
+    while (running && !Thread.currentThread().isInterrupted() && replaySpoolBatch()) {
+      // Keep going until the spool is empty
+    }
+    fr.done.countDown();
+  }
+
+  /**
+   * Deliver the next batch of events from the spool. The events are only removed from the spool
+   * once the sink accepted them, a batch the sink fails on is delivered again later.
+   *
+   * @return false if there were no spooled events or the sink failed
+   */
+  private boolean replaySpoolBatch() {
+    if (spool == null || !spooling) {
+      return false;
+    }
+    List<LineageEvent> batch;
+    synchronized (spool) {
+      try {
+        batch = spool.read(cfg.getBatchMax());
+      } catch (IOException e) {
+        log.logError("Unable to read spooled lineage events for sink " + sinkId, e);
+        return true;
+      }
+      if (batch.isEmpty()) {
+        spooling = false;
+        return false;
+      }
+    }
+    if (!dispatchBatch(batch)) {
+      return false;
+    }
+    spool.acknowledge(batch.size());
+    return true;
+  }
+
+  /**
+   * @return true if the sink accepted the batch
+   */
+  private boolean dispatchBatch(List<LineageEvent> batch) {
+    if (batch.isEmpty()) {
+      return true;
+    }
+    try {
+      sink.accept(batch);
+      deliveredEvents.addAndGet(batch.size());
+      deliveredBatches.incrementAndGet();
+      lagMillis = System.currentTimeMillis() - batch.get(0).getTimestampMillis();
+      return true;
+    } catch (Exception e) {
+      failedBatches.incrementAndGet();
+      log.logError("Lineage sink failed: " + sink.getClass().getName(), e);
+      return false;
+    }
+  }
+
+  /** Don't leave anybody waiting for a flush which will never happen */
+  private void releaseFlushRequests() {
+    for (Object o : queue) {
+      if (o instanceof FlushRequest fr) {
+        fr.done.countDown();
+      }
+    }
+  }
+
+  private static final class FlushRequest {
+    final CountDownLatch done = new CountDownLatch(1);
+  }
+}
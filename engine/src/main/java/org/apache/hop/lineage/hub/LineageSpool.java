@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.lineage.hub;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+import org.apache.hop.core.Const;
+import org.apache.hop.lineage.model.LineageEvent;
+
+/**
+ * Append-only spool of lineage events on disk for a single sink. Events are written to memory
+ * mapped segment files and read back in the order in which they were written. The read position
+ * only moves when the events read are acknowledged after they were delivered, so an event is
+ * delivered at least once. A segment is deleted once all its events are acknowledged.
+ *
+ * <p>Every segment starts with a header holding the position of the next event to deliver, so the
+ * events which weren't delivered yet are picked up again when the spool is opened after a restart.
+ * A segment file has the following layout:
+ *
+ * <pre>
+ * int magic, int read position (-1 once all events are read), { int length, byte[length] event }*
+ * </pre>
+ *
+ * <p>The length of an event is written after its content: a length of 0 marks the end of the events
+ * in a segment.
+ */
+final class LineageSpool {
+
+  static final int DEFAULT_SEGMENT_SIZE = 4 * 1024 * 1024;
+
+  private static final int MAGIC = 0x484c5350;
+  private static final int HEADER_SIZE = 8;
+  private static final int READ_POSITION_OFFSET = 4;
+  private static final int CONSUMED = -1;
+  private static final String PREFIX = "lineage-";
+  private static final String EXTENSION = ".spool";
+
+  /** Only the lineage model is read back from a spool */
+  private static final ObjectInputFilter FILTER =
+      ObjectInputFilter.Config.createFilter(
+          "org.apache.hop.lineage.model.*;org.apache.hop.lineage.context.*;java.lang.*;java.util.*;!*");
+
+  private final Path folder;
+  private final int segmentSize;
+  private final long maxBytes;
+
+  private final Deque<Segment> segments = new ArrayDeque<>();
+  private long nextSegmentNr = 1;
+  private long pendingEvents;
+  private long bytes;
+
+  /**
+   * Open the spool in a folder, picking up the events which were spooled before.
+   *
+   * @param folder the folder to keep the segment files in
+   * @param segmentSize the size of a segment file
+   * @param maxBytes the maximum size of all the segment files, 0 or lower means: no limit
+   * @throws IOException in case the folder or the segments in it can't be opened
+   */
+  LineageSpool(Path folder, int segmentSize, long maxBytes) throws IOException {
+    this.folder = folder;
+    this.segmentSize = segmentSize;
+    this.maxBytes = maxBytes;
+    Files.createDirectories(folder);
+    recover();
+  }
+
+  /**
+   * Add an event at the end of the spool.
+   *
+   * @param event the event to write
+   * @return false if the spool is full
+   * @throws IOException in case the event couldn't be written
+   */
+  synchronized boolean append(LineageEvent event) throws IOException {
+    byte[] data = serialize(event);
+    int needed = 4 + data.length;
+    Segment last = segments.peekLast();
+    if (last == null || last.full || last.writePosition + needed + 4 > last.capacity) {
+      if (last != null) {
+        last.full = true;
+      }
+      int size = Math.max(segmentSize, HEADER_SIZE + needed + 4);
+      if (maxBytes > 0 && bytes + size > maxBytes) {
+        return false;
+      }
+      last = createSegment(size);
+    }
+    int position = last.writePosition;
+    last.buffer.put(position + 4, data);
+    last.buffer.putInt(position, data.length);
+    last.writePosition = position + needed;
+    pendingEvents++;
+    return true;
+  }
+
+  /**
+   * Read the oldest events from the spool without removing them. The same events are read again
+   * until they are acknowledged with {@link #acknowledge(int)}.
+   *
+   * @param max the maximum number of events to read
+   * @return the events, an empty list if the spool is empty
+   * @throws IOException in case the oldest event couldn't be read, it is skipped
+   */
+  synchronized List<LineageEvent> read(int max) throws IOException {
+    List<LineageEvent> events = new ArrayList<>();
+    for (Segment segment : segments) {
+      int position = segment.readPosition;
+      while (events.size() < max && position < segment.writePosition) {
+        int length = segment.buffer.getInt(position);
+        byte[] data = new byte[length];
+        segment.buffer.get(position + 4, data);
+        position += 4 + length;
+        try {
+          events.add(deserialize(data));
+        } catch (IOException e) {
+          if (!events.isEmpty()) {
+            // Deliver what we have, the broken event is the first one to read next time
+            return events;
+          }
+          // Don't get stuck on an event which can never be read
+          acknowledge(1);
+          throw e;
+        }
+      }
+      if (events.size() >= max) {
+        break;
+      }
+    }
+    return events;
+  }
+
+  /**
+   * Remove the oldest events from the spool after they were delivered. The read position is stored
+   * in the segment so the events aren't delivered again after a restart.
+   *
+   * @param count the number of events delivered, as read with {@link #read(int)}
+   */
+  synchronized void acknowledge(int count) {
+    int remaining = count;
+    while (true) {
+      Segment first = segments.peekFirst();
+      if (first == null) {
+        break;
+      }
+      if (first.readPosition < first.writePosition) {
+        if (remaining == 0) {
+          break;
+        }
+        first.readPosition += 4 + first.buffer.getInt(first.readPosition);
+        first.buffer.putInt(READ_POSITION_OFFSET, first.readPosition);
+        pendingEvents--;
+        remaining--;
+      } else if (first.full || segments.size() > 1) {
+        segments.removeFirst();
+        delete(first);
+      } else {
+        break;
+      }
+    }
+  }
+
+  /**
+   * @return the number of events in the spool which weren't read yet
+   */
+  synchronized long getPendingEvents() {
+    return pendingEvents;
+  }
+
+  /**
+   * @return true if all events in the spool were read
+   */
+  synchronized boolean isEmpty() {
+    return pendingEvents == 0;
+  }
+
+  /**
+   * Stop using the spool. The segment files are kept so that the events which weren't read yet are
+   * delivered the next time the spool is opened.
+   */
+  synchronized void close() {
+    for (Segment segment : segments) {
+      segment.buffer.force();
+    }
+    segments.clear();
+  }
+
+  private void recover() throws IOException {
+    List<Path> files;
+    try (Stream<Path> stream = Files.list(folder)) {
+      files =
+          stream
+              .filter(
+                  path -> {
+                    String name = path.getFileName().toString();
+                    return name.startsWith(PREFIX) && name.endsWith(EXTENSION);
+                  })
+              .sorted()
+              .toList();
+    }
+    for (Path file : files) {
+      String name = file.getFileName().toString();
+      long nr =
+          Const.toLong(name.substring(PREFIX.length(), name.length() - EXTENSION.length()), 0L);
+      nextSegmentNr = Math.max(nextSegmentNr, nr + 1);
+
+      Segment segment = new Segment(file, map(file, Files.size(file)));
+      MappedByteBuffer buffer = segment.buffer;
+      if (segment.capacity < HEADER_SIZE
+          || buffer.getInt(0) != MAGIC
+          || buffer.getInt(READ_POSITION_OFFSET) == CONSUMED) {
+        deleteQuietly(file);
+        continue;
+      }
+      segment.readPosition = buffer.getInt(READ_POSITION_OFFSET);
+      int position = HEADER_SIZE;
+      while (position + 4 <= segment.capacity) {
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + 4 + length > segment.capacity) {
+          break;
+        }
+        position += 4 + length;
+        if (position > segment.readPosition) {
+          pendingEvents++;
+        }
+      }
+      segment.writePosition = position;
+      // Don't write after the events of a previous run
+      segment.full = true;
+      segments.add(segment);
+      bytes += segment.capacity;
+    }
+  }
+
+  private Segment createSegment(int size) throws IOException {
+    Path file = folder.resolve(String.format("%s%012d%s", PREFIX, nextSegmentNr++, EXTENSION));
+    Segment segment = new Segment(file, map(file, size));
+    segment.buffer.putInt(READ_POSITION_OFFSET, HEADER_SIZE);
+    segment.buffer.putInt(0, MAGIC);
+    segment.readPosition = HEADER_SIZE;
+    segment.writePosition = HEADER_SIZE;
+    segments.addLast(segment);
+    bytes += size;
+    return segment;
+  }
+
+  private void delete(Segment segment) {
+    // A mapped file can't be deleted on every platform: mark it as read so that it's removed the
+    // next time the spool is opened.
+    //
+    segment.buffer.putInt(READ_POSITION_OFFSET, CONSUMED);
+    bytes -= segment.capacity;
+    deleteQuietly(segment.file);
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      // Removed when the spool is opened again
+    }
+  }
+
+  private static MappedByteBuffer map(Path file, long size) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+  }
+
+  private static byte[] serialize(LineageEvent event) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream(512);
+    try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+      objectOutputStream.writeObject(event);
+    }
+    return outputStream.toByteArray();
+  }
+
+  private static LineageEvent deserialize(byte[] data) throws IOException {
+    try (ObjectInputStream objectInputStream =
+        new ObjectInputStream(new ByteArrayInputStream(data))) {
+      objectInputStream.setObjectInputFilter(FILTER);
+      return (LineageEvent) objectInputStream.readObject();
+    } catch (ClassNotFoundException | ClassCastException e) {
+      throw new IOException("Unable to read a spooled lineage event", e);
+    }
+  }
+
+  private static final class Segment {
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int readPosition;
+    private int writePosition;
+    private boolean full;
+
+    private Segment(Path file, MappedByteBuffer buffer) {
+      this.file = file;
+      this.buffer = buffer;
+      this.capacity = buffer.capacity();
+    }
+  }
+}
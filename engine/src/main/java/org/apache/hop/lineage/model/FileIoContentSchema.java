@@ -17,6 +17,7 @@
 
 package org.apache.hop.lineage.model;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -29,7 +30,9 @@ import lombok.Getter;
  * optional merged hierarchy derived from path locators (JSON/YAML/XML).
  */
 @Getter
-public final class FileIoContentSchema {
+public final class FileIoContentSchema implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   /**
    * Format hint for sinks: {@code csv}, {@code delimited}, {@code json}, {@code yaml}, {@code xml},
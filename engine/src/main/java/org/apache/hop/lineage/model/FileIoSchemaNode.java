@@ -17,6 +17,7 @@
 
 package org.apache.hop.lineage.model;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -29,7 +30,9 @@ import lombok.Getter;
  * document.
  */
 @Getter
-public final class FileIoSchemaNode {
+public final class FileIoSchemaNode implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   /** Local segment name (e.g. {@code store}, {@code book}, {@code [*]}). */
   private final String segment;
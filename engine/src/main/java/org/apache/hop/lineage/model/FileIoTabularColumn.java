@@ -17,6 +17,7 @@
 
 package org.apache.hop.lineage.model;
 
+import java.io.Serializable;
 import java.util.Objects;
 import lombok.Getter;
 
@@ -25,7 +26,9 @@ import lombok.Getter;
  * (JSONPath, XPath, etc.) when the physical layout is hierarchical.
  */
 @Getter
-public final class FileIoTabularColumn {
+public final class FileIoTabularColumn implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   /** Column or file header name (Hop field name). */
   private final String name;
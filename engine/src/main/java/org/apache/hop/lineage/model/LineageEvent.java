@@ -17,6 +17,7 @@
 
 package org.apache.hop.lineage.model;
 
+import java.io.Serializable;
 import java.util.Objects;
 import java.util.UUID;
 import lombok.Getter;
@@ -27,7 +28,9 @@ import org.apache.hop.lineage.context.LineageContext;
  * alone is sufficient.
  */
 @Getter
-public final class LineageEvent {
+public final class LineageEvent implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   private final String eventId;
   private final long timestampMillis;
@@ -17,12 +17,15 @@
 
 package org.apache.hop.lineage.model;
 
+import java.io.Serializable;
 import java.util.Objects;
 import lombok.Getter;
 
 /** One field in a transform input or output row, for boundary schema lineage. */
 @Getter
-public final class LineageFieldSchema {
+public final class LineageFieldSchema implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   private final String name;
   private final String hopTypeName;
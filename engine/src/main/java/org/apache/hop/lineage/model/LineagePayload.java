@@ -17,5 +17,10 @@
 
 package org.apache.hop.lineage.model;
 
-/** Marker for structured payload data carried by {@link LineageEvent}. */
-public interface LineagePayload {}
+import java.io.Serializable;
+
+/**
+ * Marker for structured payload data carried by {@link LineageEvent}. Payloads are serializable so
+ * that the hub can spool events to disk.
+ */
+public interface LineagePayload extends Serializable {}
@@ -31,11 +31,12 @@ import org.apache.hop.lineage.hub.LineageHub;
 @ExtensionPoint(
     id = "LineageHubServerShutdownFlushXp",
     extensionPointId = "HopServerShutdown",
-    description = "Flushes the lineage event queue before the Hop web server shuts down")
+    description =
+        "Delivers the queued and spooled lineage events to every sink before the Hop web server shuts down")
 public class LineageHubServerShutdownFlushXp implements IExtensionPoint<Object> {
   @Override
   public void callExtensionPoint(ILogChannel log, IVariables variables, Object server)
       throws HopException {
-    LineageHub.getInstance().flushQuietly();
+    LineageHub.getInstance().drain();
   }
 }
@@ -54,6 +54,7 @@ import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.QueueRowSet;
 import org.apache.hop.core.Result;
 import org.apache.hop.core.ResultFile;
+import org.apache.hop.core.RingBufferRowSet;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.exception.HopException;
@@ -371,6 +372,15 @@ public abstract class Pipeline
 
   @Getter @Setter protected int rowSetSize;
 
+  /** The kind of row set to allocate between the transform copies of a normal pipeline. */
+  @Getter @Setter protected RowSetType rowSetType;
+
+  /** How threads wait on a full or empty ring buffer row set. */
+  @Getter @Setter protected RingBufferRowSet.WaitStrategy rowSetWaitStrategy;
+
+  /** The kind of thread every transform copy is initialized and executed in. */
+  @Getter @Setter protected TransformThreadType transformThreadType;
+
   @Setter protected boolean feedbackShown;
 
   @Setter protected int feedbackSize;
@@ -400,6 +410,9 @@ public abstract class Pipeline
     extensionDataMap = new HashMap<>();
 
     rowSetSize = Const.ROWS_IN_ROWSET;
+    rowSetType = RowSetType.Blocking;
+    rowSetWaitStrategy = RingBufferRowSet.WaitStrategy.Yielding;
+    transformThreadType = TransformThreadType.Platform;
 
     dataSamplers = Collections.synchronizedList(new ArrayList<>());
   }
@@ -758,19 +771,7 @@ public abstract class Pipeline
             IRowSet rowSet;
             switch (pipelineMeta.getPipelineType()) {
               case Normal:
-                // This is a temporary patch until the batching rowset has proven
-                // to be working in all situations.
-                // Currently there are stalling problems when dealing with small
-                // amounts of rows.
-                //
-                Boolean batchingRowSet =
-                    ValueMetaBase.convertStringToBoolean(
-                        System.getProperty(Const.HOP_BATCHING_ROWSET));
-                if (batchingRowSet != null && batchingRowSet) {
-                  rowSet = new BlockingBatchingRowSet(rowSetSize);
-                } else {
-                  rowSet = new BlockingRowSet(rowSetSize);
-                }
+                rowSet = createRowSet(false);
                 break;
 
               case SingleThreaded:
@@ -817,7 +818,7 @@ public abstract class Pipeline
           // distribution...
           for (int s = 0; s < thisCopies; s++) {
             for (int t = 0; t < nextCopies; t++) {
-              BlockingRowSet rowSet = new BlockingRowSet(rowSetSize);
+              IRowSet rowSet = createRowSet(false);
               rowSet.setThreadNameFromToCopy(
                   thisTransform.getName(), s, nextTransform.getName(), t);
               rowsets.add(rowSet);
@@ -1098,9 +1099,8 @@ public abstract class Pipeline
 
       // Put it in a separate thread!
       //
-      threads[i] = new Thread(initThreads[i]);
-      threads[i].setName(
-          "init of " + sid.transformName + "." + sid.copy + " (" + threads[i].getName() + ")");
+      threads[i] =
+          createTransformThread(initThreads[i], "init of " + sid.transformName + "." + sid.copy);
 
       ExtensionPointHandler.callExtensionPoint(
           log, this, HopExtensionPoint.TransformBeforeInitialize.id, initThreads[i]);
@@ -1360,8 +1360,7 @@ public abstract class Pipeline
         //
         for (final TransformMetaDataCombi combi : transforms) {
           RunThread runThread = new RunThread(combi);
-          Thread thread = new Thread(runThread);
-          thread.setName(getName() + " - " + combi.transformName);
+          Thread thread = createTransformThread(runThread, getName() + " - " + combi.transformName);
           ExtensionPointHandler.callExtensionPoint(
               log, this, HopExtensionPoint.TransformBeforeStart.id, combi);
           // Call an extension point at the end of the transform
@@ -2075,7 +2074,7 @@ public abstract class Pipeline
     // We are going to add an extra IRowSet to this iTransform.
     IRowSet rowSet =
         switch (pipelineMeta.getPipelineType()) {
-          case Normal -> new BlockingRowSet(rowSetSize);
+          case Normal -> createRowSet(true);
           case SingleThreaded -> new QueueRowSet();
           default ->
               throw new HopException("Unhandled pipeline type: " + pipelineMeta.getPipelineType());
@@ -2087,6 +2086,46 @@ public abstract class Pipeline
     return new RowProducer(transform, rowSet);
   }
 
+  /**
+   * Create a new (unstarted) thread to initialize or run a transform copy in, according to the
+   * transform thread type of this pipeline.
+   *
+   * @param runnable the work to do in the thread
+   * @param name the name of the thread
+   * @return a new thread, not started yet
+   */
+  protected Thread createTransformThread(Runnable runnable, String name) {
+    if (transformThreadType == TransformThreadType.Virtual) {
+      return Thread.ofVirtual().name(name).unstarted(runnable);
+    }
+    return new Thread(runnable, name);
+  }
+
+  /**
+   * Create a new row set for a normal (multi-threaded) pipeline, according to the row set type and
+   * size of this pipeline.
+   *
+   * @param multiProducer true if more than one thread can put rows into the row set
+   * @return a new row set
+   */
+  protected IRowSet createRowSet(boolean multiProducer) {
+    if (rowSetType == RowSetType.RingBuffer) {
+      return new RingBufferRowSet(rowSetSize, multiProducer, rowSetWaitStrategy);
+    }
+
+    // This is a temporary patch until the batching rowset has proven
+    // to be working in all situations.
+    // Currently there are stalling problems when dealing with small
+    // amounts of rows.
+    //
+    Boolean batchingRowSet =
+        ValueMetaBase.convertStringToBoolean(System.getProperty(Const.HOP_BATCHING_ROWSET));
+    if (batchingRowSet != null && batchingRowSet && !multiProducer) {
+      return new BlockingBatchingRowSet(rowSetSize);
+    }
+    return new BlockingRowSet(rowSetSize);
+  }
+
   /**
    * Gets the parent workflow, or null if there is no parent.
    *
@@ -15,15 +15,32 @@
  * limitations under the License.
  */
 
-package org.apache.hop.pipeline.transforms.sort;
+package org.apache.hop.pipeline;
 
-/** Keeps track of which temporary file a row is coming from */
-public class RowTempFile {
-  public Object[] row;
-  public int fileNumber;
+/** The kind of row set the local pipeline engine allocates between two transform copies. */
+@SuppressWarnings("java:S115")
+public enum RowSetType {
+  /**
+   * A {@link org.apache.hop.core.BlockingRowSet} (or a batching row set if HOP_BATCHING_ROWSET is
+   * set)
+   */
+  Blocking,
 
-  public RowTempFile(Object[] row, int fileNumber) {
-    this.row = row;
-    this.fileNumber = fileNumber;
+  /** A lock-free {@link org.apache.hop.core.RingBufferRowSet} */
+  RingBuffer;
+
+  /**
+   * Find a row set type by name, case-insensitive.
+   *
+   * @param name the name of the row set type
+   * @return the row set type or {@link #Blocking} if the name is empty or unknown
+   */
+  public static RowSetType getRowSetType(String name) {
+    for (RowSetType type : values()) {
+      if (type.name().equalsIgnoreCase(name)) {
+        return type;
+      }
+    }
+    return Blocking;
   }
 }
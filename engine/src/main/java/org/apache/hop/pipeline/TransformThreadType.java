@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline;
+
+/** The kind of thread the local pipeline engine runs (and initializes) every transform copy in. */
+@SuppressWarnings("java:S115")
+public enum TransformThreadType {
+  /** One operating system (platform) thread per transform copy */
+  Platform,
+
+  /**
+   * One virtual thread per transform copy. The virtual threads share the small pool of carrier
+   * threads of the JVM (one per core by default, see <code>jdk.virtualThreadScheduler.parallelism
+   * </code>) so pipelines with many transforms don't need an operating system thread for each.
+   */
+  Virtual;
+
+  /**
+   * Find a transform thread type by name, case-insensitive.
+   *
+   * @param name the name of the thread type
+   * @return the thread type or {@link #Platform} if the name is empty or unknown
+   */
+  public static TransformThreadType getTransformThreadType(String name) {
+    for (TransformThreadType type : values()) {
+      if (type.name().equalsIgnoreCase(name)) {
+        return type;
+      }
+    }
+    return Platform;
+  }
+}
@@ -28,6 +28,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.IExtensionData;
 import org.apache.hop.core.Result;
+import org.apache.hop.core.RingBufferRowSet;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.map.DatabaseConnectionMap;
 import org.apache.hop.core.exception.HopDatabaseException;
@@ -50,6 +51,8 @@ import org.apache.hop.execution.sampler.IExecutionDataSamplerStore;
 import org.apache.hop.metadata.api.IHopMetadataProvider;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowSetType;
+import org.apache.hop.pipeline.TransformThreadType;
 import org.apache.hop.pipeline.config.IPipelineEngineRunConfiguration;
 import org.apache.hop.pipeline.config.PipelineRunConfiguration;
 import org.apache.hop.pipeline.engine.IEngineComponent;
@@ -125,6 +128,11 @@ public class LocalPipelineEngine extends Pipeline implements IPipelineEngine<Pip
 
     int sizeRowsSet = Const.toInt(resolve(config.getRowSetSize()), Const.ROWS_IN_ROWSET);
     setRowSetSize(sizeRowsSet);
+    setRowSetType(RowSetType.getRowSetType(resolve(config.getRowSetType())));
+    setRowSetWaitStrategy(
+        RingBufferRowSet.WaitStrategy.getWaitStrategy(resolve(config.getRowSetWaitStrategy())));
+    setTransformThreadType(
+        TransformThreadType.getTransformThreadType(resolve(config.getTransformThreadType())));
     setSafeModeEnabled(config.isSafeModeEnabled());
     setSortingTransformsTopologically(config.isSortingTransformsTopologically());
     setGatheringMetrics(config.isGatheringMetrics());
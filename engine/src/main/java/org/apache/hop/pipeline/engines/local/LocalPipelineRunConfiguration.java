@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.engines.local;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.RingBufferRowSet;
 import org.apache.hop.core.gui.plugin.GuiElementType;
 import org.apache.hop.core.gui.plugin.GuiPlugin;
 import org.apache.hop.core.gui.plugin.GuiWidgetElement;
@@ -27,6 +28,8 @@ import org.apache.hop.core.logging.ILogChannel;
 import org.apache.hop.core.util.EnvUtil;
 import org.apache.hop.metadata.api.HopMetadataProperty;
 import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.pipeline.RowSetType;
+import org.apache.hop.pipeline.TransformThreadType;
 import org.apache.hop.pipeline.config.IPipelineEngineRunConfiguration;
 import org.apache.hop.pipeline.config.PipelineRunConfiguration;
 import org.apache.hop.pipeline.engines.EmptyPipelineRunConfiguration;
@@ -45,6 +48,45 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   @HopMetadataProperty(key = "rowset_size")
   protected String rowSetSize;
 
+  @GuiWidgetElement(
+      id = "rowSetType",
+      order = "012",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.COMBO,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RowSetType.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RowSetType.ToolTip",
+      comboValuesMethod = "getRowSetTypes")
+  @HopMetadataProperty(key = "rowset_type")
+  protected String rowSetType;
+
+  @GuiWidgetElement(
+      id = "rowSetWaitStrategy",
+      order = "014",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.COMBO,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RowSetWaitStrategy.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RowSetWaitStrategy.ToolTip",
+      comboValuesMethod = "getRowSetWaitStrategies")
+  @HopMetadataProperty(key = "rowset_wait_strategy")
+  protected String rowSetWaitStrategy;
+
+  @GuiWidgetElement(
+      id = "transformThreadType",
+      order = "016",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.COMBO,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.TransformThreadType.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.TransformThreadType.ToolTip",
+      comboValuesMethod = "getTransformThreadTypes")
+  @HopMetadataProperty(key = "transform_thread_type")
+  protected String transformThreadType;
+
   @GuiWidgetElement(
       id = "safeModeEnabled",
       order = "020",
@@ -154,6 +196,9 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   public LocalPipelineRunConfiguration() {
     super();
     this.rowSetSize = Integer.toString(Const.ROWS_IN_ROWSET);
+    this.rowSetType = RowSetType.Blocking.name();
+    this.rowSetWaitStrategy = RingBufferRowSet.WaitStrategy.Yielding.name();
+    this.transformThreadType = TransformThreadType.Platform.name();
     this.feedbackShown = false;
     this.feedbackSize = Integer.toString(Const.ROWS_UPDATE);
     this.waitTime = EnvUtil.getSystemProperty(Const.HOP_DEFAULT_BUFFER_POLLING_WAITTIME, "20");
@@ -165,6 +210,9 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   public LocalPipelineRunConfiguration(LocalPipelineRunConfiguration config) {
     super(config);
     this.rowSetSize = config.rowSetSize;
+    this.rowSetType = config.rowSetType;
+    this.rowSetWaitStrategy = config.rowSetWaitStrategy;
+    this.transformThreadType = config.transformThreadType;
     this.feedbackShown = config.feedbackShown;
     this.feedbackSize = config.feedbackSize;
     this.waitTime = config.waitTime;
@@ -189,6 +237,32 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     return list;
   }
 
+  public List<String> getRowSetTypes(ILogChannel log, IHopMetadataProvider metadataProvider) {
+    List<String> list = new ArrayList<>();
+    for (RowSetType type : RowSetType.values()) {
+      list.add(type.name());
+    }
+    return list;
+  }
+
+  public List<String> getRowSetWaitStrategies(
+      ILogChannel log, IHopMetadataProvider metadataProvider) {
+    List<String> list = new ArrayList<>();
+    for (RingBufferRowSet.WaitStrategy strategy : RingBufferRowSet.WaitStrategy.values()) {
+      list.add(strategy.name());
+    }
+    return list;
+  }
+
+  public List<String> getTransformThreadTypes(
+      ILogChannel log, IHopMetadataProvider metadataProvider) {
+    List<String> list = new ArrayList<>();
+    for (TransformThreadType type : TransformThreadType.values()) {
+      list.add(type.name());
+    }
+    return list;
+  }
+
   /**
    * Gets rowSetSize
    *
@@ -205,6 +279,54 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     this.rowSetSize = rowSetSize;
   }
 
+  /**
+   * Gets rowSetType
+   *
+   * @return value of rowSetType
+   */
+  public String getRowSetType() {
+    return rowSetType;
+  }
+
+  /**
+   * @param rowSetType The rowSetType to set
+   */
+  public void setRowSetType(String rowSetType) {
+    this.rowSetType = rowSetType;
+  }
+
+  /**
+   * Gets rowSetWaitStrategy
+   *
+   * @return value of rowSetWaitStrategy
+   */
+  public String getRowSetWaitStrategy() {
+    return rowSetWaitStrategy;
+  }
+
+  /**
+   * @param rowSetWaitStrategy The rowSetWaitStrategy to set
+   */
+  public void setRowSetWaitStrategy(String rowSetWaitStrategy) {
+    this.rowSetWaitStrategy = rowSetWaitStrategy;
+  }
+
+  /**
+   * Gets transformThreadType
+   *
+   * @return value of transformThreadType
+   */
+  public String getTransformThreadType() {
+    return transformThreadType;
+  }
+
+  /**
+   * @param transformThreadType The transformThreadType to set
+   */
+  public void setTransformThreadType(String transformThreadType) {
+    this.transformThreadType = transformThreadType;
+  }
+
   /**
    * Gets safeModeEnabled
    *
@@ -301,6 +301,12 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
   private int blockPointer;
 
+  /** The row set the last row was read from. Rows of a batch are read from the same row set. */
+  private IRowSet lastInputRowSet;
+
+  /** The maximum number of rows to read or write in one batch, see {@link #getRowBatchSize()} */
+  private int rowBatchSize;
+
   private List<ITransformFinishedListener> transformFinishedListeners;
   private List<ITransformStartedListener> transformStartedListeners;
 
@@ -328,6 +334,16 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
   /** set this flag to true to allow empty field names and types to output */
   private boolean allowEmptyFieldNamesAndTypes = true;
 
+  /**
+   * The output row metadata which passed the empty field name and type checks. The checks only run
+   * again when another row metadata object is used or when fields are added or removed, see {@link
+   * #verifyOutputRowMeta(IRowMeta)}.
+   */
+  private IRowMeta verifiedOutputRowMeta;
+
+  /** The number of fields of {@link #verifiedOutputRowMeta} when it was verified */
+  private int verifiedOutputRowMetaSize;
+
   /** Keeps track of the number of rows read for input deadlock verification. */
   protected long deadLockCounter;
 
@@ -674,6 +690,19 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  /**
+   * Increments the number of lines read from previous transforms
+   *
+   * @param lines the number of lines to add
+   * @return Returns the new value
+   */
+  public long incrementLinesRead(long lines) {
+    synchronized (statusCountersLock) {
+      linesRead += lines;
+      return linesRead;
+    }
+  }
+
   /**
    * Decrements the number of lines read from previous transforms by one
    *
@@ -797,6 +826,19 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  /**
+   * Increments the number of lines written to next transforms
+   *
+   * @param lines the number of lines to add
+   * @return Returns the new value
+   */
+  public long incrementLinesWritten(long lines) {
+    synchronized (statusCountersLock) {
+      linesWritten += lines;
+      return linesWritten;
+    }
+  }
+
   /**
    * Decrements the number of lines written to next transforms by one
    *
@@ -1099,21 +1141,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public void putRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
-    if (rowMeta != null && !allowEmptyFieldNamesAndTypes) {
-      // check row meta for empty field name (BACKLOG-18004)
-      for (IValueMeta vmi : rowMeta.getValueMetaList()) {
-        if (StringUtils.isBlank(vmi.getName())) {
-          throw new HopTransformException(
-              "Please set a field name for all field(s) that have 'null'.");
-        }
-        if (vmi.getType() <= 0) {
-          throw new HopTransformException(
-              "Please set a value for the missing field(s) type for field: '"
-                  + vmi.getName()
-                  + "'");
-        }
-      }
-    }
+    verifyOutputRowMeta(rowMeta);
     getRowHandler().putRow(rowMeta, row);
 
     // This transform is not reading data, only writing
@@ -1123,7 +1151,84 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
-  private void handlePutRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+  /**
+   * putRows is used to pass a batch of rows sharing the same row metadata to the next transforms.
+   * The pause, stop and startup checks as well as the locking of the output row sets are done once
+   * per batch instead of once per row. Row listeners still see every row. A batch of a single row
+   * takes the regular {@link #putRow(IRowMeta, Object[])} path.
+   *
+   * @param rowMeta The metadata of the rows
+   * @param rows The rows to put to the destination rowset(s).
+   * @throws HopTransformException in case something goes wrong
+   */
+  @Override
+  public void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+    if (rows.isEmpty()) {
+      return;
+    }
+    if (rows.size() == 1) {
+      putRow(rowMeta, rows.get(0));
+      return;
+    }
+    verifyOutputRowMeta(rowMeta);
+    getRowHandler().putRows(rowMeta, rows);
+
+    // This transform is not reading data, only writing
+    //
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+  }
+
+  /**
+   * Check that the output row metadata doesn't contain fields without a name or a type, unless
+   * empty field names and types are allowed.
+   *
+   * <p>The result is cached for the row metadata object and its number of fields. A field of a
+   * verified row metadata object which is renamed to a blank name or gets type 0 afterwards,
+   * without adding or removing fields, is not detected. Transforms which change their output row
+   * metadata in place like that need to send a new (cloned) row metadata object to have it checked
+   * again.
+   *
+   * @param rowMeta the output row metadata to check
+   * @throws HopTransformException in case a field has an empty name or type
+   */
+  private void verifyOutputRowMeta(IRowMeta rowMeta) throws HopTransformException {
+    if (rowMeta == null || allowEmptyFieldNamesAndTypes) {
+      return;
+    }
+    // Transforms usually send all their rows with the same row metadata: only verify it once
+    //
+    if (rowMeta == verifiedOutputRowMeta && rowMeta.size() == verifiedOutputRowMetaSize) {
+      return;
+    }
+    // check row meta for empty field name (BACKLOG-18004)
+    for (IValueMeta vmi : rowMeta.getValueMetaList()) {
+      if (StringUtils.isBlank(vmi.getName())) {
+        throw new HopTransformException(
+            "Please set a field name for all field(s) that have 'null'.");
+      }
+      if (vmi.getType() <= 0) {
+        throw new HopTransformException(
+            "Please set a value for the missing field(s) type for field: '" + vmi.getName() + "'");
+      }
+    }
+    verifiedOutputRowMeta = rowMeta;
+    verifiedOutputRowMetaSize = rowMeta.size();
+  }
+
+  /**
+   * Waits while the transform is paused and until the pipeline is running.
+   *
+   * @return false if the transform was stopped and no rows should be written anymore
+   */
+  private boolean readyToPutRows() throws HopTransformException {
+    // The usual case: running, not paused and not stopped
+    //
+    if (checkPipelineRunning && !paused.get() && !stopped.get()) {
+      return true;
+    }
+
     // Are we pausing the transform? If so, stall forever...
     //
     while (paused.get() && !stopped.get()) {
@@ -1142,7 +1247,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         logDebug(BaseMessages.getString(PKG, "BaseTransform.Log.StopPuttingARow"));
       }
       stopAll();
-      return;
+      return false;
     }
 
     // Have all threads started?
@@ -1165,11 +1270,21 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       }
       this.checkPipelineRunning = true;
     }
+    return true;
+  }
+
+  private void handlePutRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+    if (!readyToPutRows()) {
+      return;
+    }
 
     // call all row listeners...
+    // Iterating over the (usually empty) list of listeners would create an iterator for every row
     //
-    for (IRowListener listener : rowListeners) {
-      listener.rowWrittenEvent(rowMeta, row);
+    if (!rowListeners.isEmpty()) {
+      for (IRowListener listener : rowListeners) {
+        listener.rowWrittenEvent(rowMeta, row);
+      }
     }
 
     // Keep adding to terminator_rows buffer...
@@ -1219,6 +1334,114 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  private void handlePutRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+    if (!readyToPutRows()) {
+      return;
+    }
+
+    // call all row listeners...
+    //
+    if (!rowListeners.isEmpty()) {
+      for (Object[] row : rows) {
+        for (IRowListener listener : rowListeners) {
+          listener.rowWrittenEvent(rowMeta, row);
+        }
+      }
+    }
+
+    // Keep adding to terminator_rows buffer...
+    //
+    if (terminator && terminatorRows != null) {
+      try {
+        for (Object[] row : rows) {
+          terminatorRows.add(rowMeta.cloneRow(row));
+        }
+      } catch (HopValueException e) {
+        throw new HopTransformException(
+            "Unable to clone row while adding rows to the terminator rows.", e);
+      }
+    }
+
+    outputRowSetsLock.readLock().lock();
+    try {
+      if (outputRowSets.isEmpty()) {
+        // No more output rowsets!
+        // Still update the nr of lines written.
+        //
+        incrementLinesWritten(rows.size());
+
+        return; // we're done here!
+      }
+
+      if (repartitioning == TransformPartitioningMeta.PARTITIONING_METHOD_NONE
+          && rowDistribution == null) {
+        noPartitioning(rowMeta, rows);
+        return;
+      }
+
+      // Partitioned or custom distribution: these decide where to go row by row.
+      //
+      for (Object[] row : rows) {
+        switch (repartitioning) {
+          case TransformPartitioningMeta.PARTITIONING_METHOD_NONE:
+            noPartitioning(rowMeta, row);
+            break;
+          case TransformPartitioningMeta.PARTITIONING_METHOD_SPECIAL:
+            specialPartitioning(rowMeta, row);
+            break;
+          case TransformPartitioningMeta.PARTITIONING_METHOD_MIRROR:
+            mirrorPartitioning(rowMeta, row);
+            break;
+          default:
+            throw new HopTransformException(
+                "Internal error: invalid repartitioning type: " + repartitioning);
+        }
+      }
+    } finally {
+      outputRowSetsLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Pass a batch of rows without partitioning. When distributing, the whole batch goes to the next
+   * output row set in the round-robin, otherwise every output row set gets a copy of the batch.
+   */
+  private void noPartitioning(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+    if (distributed) {
+      IRowSet rs = outputRowSets.get(currentOutputRowSetNr);
+      putRowsToRowSet(rs, rowMeta, rows);
+      incrementLinesWritten(rows.size());
+
+      if (outputRowSets.size() > 1) {
+        currentOutputRowSetNr++;
+        if (currentOutputRowSetNr >= outputRowSets.size()) {
+          currentOutputRowSetNr = 0;
+        }
+      }
+    } else {
+      // Copy the rows to the other output rowsets
+      //
+      for (int i = 1; i < outputRowSets.size(); i++) { // start at 1
+        List<Object[]> copies = new ArrayList<>(rows.size());
+        try {
+          for (Object[] row : rows) {
+            copies.add(rowMeta.cloneRow(row));
+          }
+        } catch (HopValueException e) {
+          throw new HopTransformException(
+              "Unable to clone row while copying rows to multiple target transforms", e);
+        }
+        putRowsToRowSet(outputRowSets.get(i), rowMeta, copies);
+        incrementLinesWritten(rows.size());
+      }
+
+      // set the rows in the first output rowset
+      //
+      putRowsToRowSet(outputRowSets.get(0), rowMeta, rows);
+      incrementLinesWritten(rows.size());
+    }
+  }
+
   /** Copy always to all target transforms/copies */
   private void mirrorPartitioning(IRowMeta rowMeta, Object[] row) {
     for (IRowSet rowSet : outputRowSets) {
@@ -1307,11 +1530,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         // the buffer to grow to its full capacity.
 
         if (!rs.isDone() && rs.size() >= upperBufferBoundary && !isStopped()) {
-          try {
-            Thread.sleep(0, 1);
-          } catch (InterruptedException e) {
-            // Ignore sleep interruption exception
-          }
+          backOff();
         }
 
         // Loop until we find room in the target rowset
@@ -1343,11 +1562,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         // the buffer to grow to its full capacity.
 
         if (!rs.isDone() && rs.size() >= upperBufferBoundary && !isStopped()) {
-          try {
-            Thread.sleep(0, 1);
-          } catch (InterruptedException e) {
-            // Ignore sleep interruption exception
-          }
+          backOff();
         }
 
         try {
@@ -1387,6 +1602,27 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  private void putRowsToRowSet(IRowSet rs, IRowMeta rowMeta, List<Object[]> rows) {
+    IRowMeta toBeSent;
+    IRowMeta metaFromRs = rs.getRowMeta();
+    if (metaFromRs == null) {
+      // IRowSet is not initialised so far
+      toBeSent = rowMeta.clone();
+    } else {
+      // use the existing
+      toBeSent = metaFromRs;
+    }
+
+    int index = 0;
+    while (index < rows.size()) {
+      int count = rs.putRows(toBeSent, rows, index);
+      if (count == 0 && isStopped() && !safeStopped.get()) {
+        return;
+      }
+      index += count;
+    }
+  }
+
   /**
    * putRowTo is used to put a row in a certain specific IRowSet.
    *
@@ -1614,6 +1850,23 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  /**
+   * Back off for a very short while to reduce the stress on the locking system of a row set that is
+   * (almost) full or empty. A platform thread sleeps briefly. A virtual thread yields its carrier
+   * thread to the other transforms instead of scheduling a timed wake-up.
+   */
+  protected void backOff() {
+    if (Thread.currentThread().isVirtual()) {
+      Thread.yield();
+      return;
+    }
+    try {
+      Thread.sleep(0, 1);
+    } catch (InterruptedException e) {
+      // Ignore sleep interruption exception
+    }
+  }
+
   /** Wait until the pipeline is completely running and all threads have been started. */
   protected void waitUntilPipelineIsStarted() {
     // Have all threads started?
@@ -1647,6 +1900,69 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     return row;
   }
 
+  /**
+   * Get a batch of rows: wait for the next row like {@link #getRow()} does, then add the rows which
+   * are immediately available in the same input row set, up to maxRows. All rows in the batch share
+   * the same input row metadata ({@link #getInputRowMeta()}).
+   *
+   * @param maxRows the maximum number of rows to return
+   * @return a list of at least one row or null if there are no more rows to be expected.
+   * @throws HopException in case something goes wrong
+   */
+  @Override
+  public List<Object[]> getRows(int maxRows) throws HopException {
+    return getRowHandler().getRows(maxRows);
+  }
+
+  /**
+   * @return The maximum number of rows to read or write in one batch, see {@link
+   *     Const#HOP_TRANSFORM_ROW_BATCH_SIZE}
+   */
+  public int getRowBatchSize() {
+    if (rowBatchSize <= 0) {
+      rowBatchSize =
+          Math.max(
+              1, Const.toInt(getVariable(Const.HOP_TRANSFORM_ROW_BATCH_SIZE), Const.ROWS_IN_BATCH));
+    }
+    return rowBatchSize;
+  }
+
+  private List<Object[]> handleGetRows(int maxRows) throws HopException {
+    // The first row goes through the regular (overridable) path: pausing, waiting, switching input
+    // row sets...
+    //
+    lastInputRowSet = null;
+    Object[] row = getRow();
+    if (row == null) {
+      return null;
+    }
+    List<Object[]> rows = new ArrayList<>(Math.min(maxRows, Const.ROWS_IN_BATCH));
+    rows.add(row);
+
+    IRowSet inputRowSet = lastInputRowSet;
+    if (maxRows <= 1 || inputRowSet == null || stopped.get() || paused.get()) {
+      return rows;
+    }
+
+    int count = inputRowSet.getRows(rows, maxRows - 1);
+    if (count > 0) {
+      incrementLinesRead(count);
+      blockPointer += count;
+      // The row mixing and rejection rate checks ran for the first row of the batch in getRow().
+      // The other rows come from the same row set without rejections in between, they only need
+      // to be counted and passed to the row listeners.
+      //
+      for (int i = 1; i < rows.size(); i++) {
+        Object[] extraRow = rows.get(i);
+        addDataVolumeInIfEnabled(extraRow);
+        for (IRowListener listener : rowListeners) {
+          listener.rowReadEvent(inputRowMeta, extraRow);
+        }
+      }
+    }
+    return rows;
+  }
+
   private Object[] handleGetRow() throws HopException {
 
     // Are we pausing the transform? If so, stall forever...
@@ -1710,11 +2026,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       // We'll only do that if the previous transform has not ended...
 
       if (!inputRowSet.isDone() && inputRowSet.size() <= lowerBufferBoundary && !isStopped()) {
-        try {
-          Thread.sleep(0, 1);
-        } catch (InterruptedException e) {
-          // Ignore sleep interruption exception
-        }
+        backOff();
       }
 
       // See if this transform is receiving partitioned data...
@@ -1848,6 +2160,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     if (row == null) {
       return;
     }
+    lastInputRowSet = inputRowSet;
 
     // Set the row metadata on the first occurrence.
     // If prevTransforms.length > 1, inputRowMeta can be changed as well.
@@ -2065,11 +2378,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     // We'll only do that if the previous transform has not ended...
 
     if (!rowSet.isDone() && rowSet.size() <= lowerBufferBoundary && !isStopped()) {
-      try {
-        Thread.sleep(0, 1);
-      } catch (InterruptedException e) {
-        // Ignore sleep interruption exception
-      }
+      backOff();
     }
 
     // Grab a row... If nothing received after a timeout, try again.
@@ -3420,6 +3729,22 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         && (lines % getPipeline().getFeedbackSize()) == 0;
   }
 
+  /**
+   * Check feedback for a batch of lines: is a feedback line crossed going from previousLines to
+   * lines?
+   *
+   * @param previousLines the number of lines before the batch
+   * @param lines the number of lines after the batch
+   * @return true, if feedback should be given
+   */
+  protected boolean checkFeedback(long previousLines, long lines) {
+    if (!getPipeline().isFeedbackShown() || lines <= previousLines) {
+      return false;
+    }
+    int feedbackSize = getPipeline().getFeedbackSize();
+    return feedbackSize > 0 && lines > 0 && lines / feedbackSize > previousLines / feedbackSize;
+  }
+
   /**
    * @return the rowMeta
    */
@@ -3964,6 +4289,16 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       handlePutRow(rowMeta, row);
     }
 
+    @Override
+    public List<Object[]> getRows(int maxRows) throws HopException {
+      return handleGetRows(maxRows);
+    }
+
+    @Override
+    public void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+      handlePutRows(rowMeta, rows);
+    }
+
     @Override
     public void putError(
         IRowMeta rowMeta,
@@ -17,6 +17,8 @@
 
 package org.apache.hop.pipeline.transform;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
@@ -38,6 +40,34 @@ public interface IRowHandler {
 
   void putRow(IRowMeta rowMeta, Object[] row) throws HopTransformException;
 
+  /**
+   * Get up to maxRows rows, waiting for the first one.
+   *
+   * @param maxRows the maximum number of rows to return
+   * @return a list of at least one row or null if there are no more rows to be expected.
+   */
+  default List<Object[]> getRows(int maxRows) throws HopException {
+    Object[] row = getRow();
+    if (row == null) {
+      return null;
+    }
+    List<Object[]> rows = new ArrayList<>(1);
+    rows.add(row);
+    return rows;
+  }
+
+  /**
+   * Put a batch of rows sharing the same row metadata.
+   *
+   * @param rowMeta the metadata of the rows
+   * @param rows the rows to put
+   */
+  default void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+    for (Object[] row : rows) {
+      putRow(rowMeta, row);
+    }
+  }
+
   void putError(
       IRowMeta rowMeta,
       Object[] row,
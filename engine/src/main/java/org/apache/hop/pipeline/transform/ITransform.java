@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transform;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -219,6 +220,37 @@ public interface ITransform extends IVariables, IHasLogChannel, IEngineComponent
    */
   Object[] getRow() throws HopException;
 
+  /**
+   * Put a batch of rows on the destination rowsets. All rows share the same row metadata. The
+   * default implementation simply puts the rows one by one.
+   *
+   * @param rowMeta The metadata of the rows
+   * @param rows The rows to send to the destination transforms
+   */
+  default void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopException {
+    for (Object[] row : rows) {
+      putRow(rowMeta, row);
+    }
+  }
+
+  /**
+   * Get a batch of rows from the source transform(s). This waits for the first row like {@link
+   * #getRow()} does and then adds the rows which are immediately available from the same source, up
+   * to the given maximum. All the rows in the batch share the same input row metadata.
+   *
+   * @param maxRows the maximum number of rows to return
+   * @return a list of at least one row, or null if there are no more rows to be expected.
+   */
+  default List<Object[]> getRows(int maxRows) throws HopException {
+    Object[] row = getRow();
+    if (row == null) {
+      return null;
+    }
+    List<Object[]> rows = new ArrayList<>(1);
+    rows.add(row);
+    return rows;
+  }
+
   /** Signal output done to destination transforms */
   void setOutputDone();
 
@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transforms.dummy;
 
+import java.util.List;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -40,17 +41,18 @@ public class Dummy extends BaseTransform<DummyMeta, DummyData> {
 
   @Override
   public boolean processRow() throws HopException {
-    Object[] r = getRow(); // get row, set busy!
+    List<Object[]> rows = getRows(getRowBatchSize()); // get rows, set busy!
     // no more input to be expected...
-    if (r == null) {
+    if (rows == null) {
       setOutputDone();
       return false;
     }
 
-    putRow(getInputRowMeta(), r); // copy row to possible alternate rowset(s).
+    putRows(getInputRowMeta(), rows); // copy rows to possible alternate rowset(s).
 
-    if (checkFeedback(getLinesRead()) && isBasic()) {
-      logBasic(BaseMessages.getString(PKG, "Dummy.Log.LineNumber") + getLinesRead());
+    long linesRead = getLinesRead();
+    if (checkFeedback(linesRead - rows.size(), linesRead) && isBasic()) {
+      logBasic(BaseMessages.getString(PKG, "Dummy.Log.LineNumber") + linesRead);
     }
 
     return true;
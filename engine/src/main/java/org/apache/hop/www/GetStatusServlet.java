@@ -41,6 +41,9 @@ import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.apache.hop.workflow.WorkflowMeta;
 import org.apache.hop.workflow.engine.IWorkflowEngine;
+import org.apache.hop.www.service.PipelineMetaCache;
+import org.apache.hop.www.service.WebServicePipelinePool;
+import org.owasp.encoder.Encode;
 
 @HopServerServlet(id = "status", name = "Get the status of the server")
 public class GetStatusServlet extends BaseHttpServlet implements IHopServerPlugin {
@@ -147,6 +150,10 @@ public class GetStatusServlet extends BaseHttpServlet implements IHopServerPlugi
           serverStatus.getWorkflowStatusList().add(workflowStatus);
         }
 
+        serverStatus.setPipelineCacheHits(PipelineMetaCache.getInstance().getHits());
+        serverStatus.setPipelineCacheMisses(PipelineMetaCache.getInstance().getMisses());
+        serverStatus.setWebServiceStatusList(WebServicePipelinePool.getInstance().getStatusList());
+
         if (useXml) {
           out.print(XmlHandler.getXmlHeader(Const.UTF_8));
           out.println(serverStatus.getXml());
@@ -724,6 +731,37 @@ public class GetStatusServlet extends BaseHttpServlet implements IHopServerPlugi
                 + maxObjAge
                 + CONST_END_TABLE_ROW);
 
+        // The cache of web service pipelines
+        //
+        out.print(
+            CONST_TABLE_ROW
+                + BaseMessages.getString(PKG, "GetStatusServlet.Parameter.PipelineCache")
+                + CONST_END_TABLE_DATA_AND_OPEN
+                + BaseMessages.getString(
+                    PKG,
+                    "GetStatusServlet.HitsAndMisses",
+                    PipelineMetaCache.getInstance().getHits(),
+                    PipelineMetaCache.getInstance().getMisses())
+                + CONST_END_TABLE_ROW);
+        for (HopServerWebServiceStatus webServiceStatus :
+            WebServicePipelinePool.getInstance().getStatusList()) {
+          out.print(
+              CONST_TABLE_ROW
+                  + BaseMessages.getString(
+                      PKG,
+                      "GetStatusServlet.Parameter.WebServicePool",
+                      Encode.forHtml(webServiceStatus.getServiceName()))
+                  + CONST_END_TABLE_DATA_AND_OPEN
+                  + BaseMessages.getString(
+                      PKG,
+                      "GetStatusServlet.WebServicePool",
+                      webServiceStatus.getAvailable(),
+                      webServiceStatus.getPoolSize(),
+                      webServiceStatus.getHits(),
+                      webServiceStatus.getMisses())
+                  + CONST_END_TABLE_ROW);
+        }
+
         out.print("</table>");
 
         String filename = serverConfig.getFilename();
@@ -46,10 +46,14 @@ public class HopServerStatus {
   @Getter @Setter private String osName;
   @Getter @Setter private String osVersion;
   @Getter @Setter private String osArchitecture;
+  @Getter @Setter private long pipelineCacheHits;
+  @Getter @Setter private long pipelineCacheMisses;
+  @Getter @Setter private List<HopServerWebServiceStatus> webServiceStatusList;
 
   public HopServerStatus() {
     pipelineStatusList = new ArrayList<>();
     workflowStatusList = new ArrayList<>();
+    webServiceStatusList = new ArrayList<>();
   }
 
   public HopServerStatus(String statusDescription) {
@@ -69,6 +73,7 @@ public class HopServerStatus {
     this.statusDescription = statusDescription;
     this.pipelineStatusList = pipelineStatusList;
     this.workflowStatusList = workflowStatusList;
+    this.webServiceStatusList = new ArrayList<>();
   }
 
   @JsonIgnore
@@ -93,6 +98,9 @@ public class HopServerStatus {
     xml.append(XmlHandler.addTagValue("os_version", osVersion));
     xml.append(XmlHandler.addTagValue("os_arch", osArchitecture));
 
+    xml.append(XmlHandler.addTagValue("pipeline_cache_hits", pipelineCacheHits));
+    xml.append(XmlHandler.addTagValue("pipeline_cache_misses", pipelineCacheMisses));
+
     xml.append("  <pipeline_status_list>").append(Const.CR);
     for (HopServerPipelineStatus pipelineStatus : pipelineStatusList) {
       xml.append("    ").append(pipelineStatus.getXml()).append(Const.CR);
@@ -105,6 +113,12 @@ public class HopServerStatus {
     }
     xml.append("  </workflow_status_list>").append(Const.CR);
 
+    xml.append("  <webservice_status_list>").append(Const.CR);
+    for (HopServerWebServiceStatus webServiceStatus : webServiceStatusList) {
+      xml.append("    ").append(webServiceStatus.getXml()).append(Const.CR);
+    }
+    xml.append("  </webservice_status_list>").append(Const.CR);
+
     xml.append("</" + XML_TAG + ">").append(Const.CR);
 
     return xml.toString();
@@ -130,6 +144,10 @@ public class HopServerStatus {
     osVersion = XmlHandler.getTagValue(statusNode, "os_version");
     osArchitecture = XmlHandler.getTagValue(statusNode, "os_arch");
 
+    pipelineCacheHits = Const.toLong(XmlHandler.getTagValue(statusNode, "pipeline_cache_hits"), 0L);
+    pipelineCacheMisses =
+        Const.toLong(XmlHandler.getTagValue(statusNode, "pipeline_cache_misses"), 0L);
+
     Node listPipelineNode = XmlHandler.getSubNode(statusNode, "pipeline_status_list");
     Node listWorkflowsNode = XmlHandler.getSubNode(statusNode, "workflow_status_list");
 
@@ -147,6 +165,15 @@ public class HopServerStatus {
           XmlHandler.getSubNodeByNr(listWorkflowsNode, HopServerWorkflowStatus.XML_TAG, i);
       workflowStatusList.add(new HopServerWorkflowStatus(jobStatusNode));
     }
+
+    Node listWebServicesNode = XmlHandler.getSubNode(statusNode, "webservice_status_list");
+    int nrWebServices =
+        XmlHandler.countNodes(listWebServicesNode, HopServerWebServiceStatus.XML_TAG);
+    for (int i = 0; i < nrWebServices; i++) {
+      Node webServiceStatusNode =
+          XmlHandler.getSubNodeByNr(listWebServicesNode, HopServerWebServiceStatus.XML_TAG, i);
+      webServiceStatusList.add(new HopServerWebServiceStatus(webServiceStatusNode));
+    }
   }
 
   public static HopServerStatus fromXml(String xml) throws HopException {
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.xml.XmlHandler;
+import org.w3c.dom.Node;
+
+/** The state of the pool of prepared pipelines of a web service */
+@Getter
+@Setter
+public class HopServerWebServiceStatus {
+  public static final String XML_TAG = "webservice-status";
+
+  private String serviceName;
+  private int poolSize;
+  private int available;
+  private long hits;
+  private long misses;
+
+  public HopServerWebServiceStatus() {}
+
+  public HopServerWebServiceStatus(
+      String serviceName, int poolSize, int available, long hits, long misses) {
+    this.serviceName = serviceName;
+    this.poolSize = poolSize;
+    this.available = available;
+    this.hits = hits;
+    this.misses = misses;
+  }
+
+  public HopServerWebServiceStatus(Node statusNode) {
+    serviceName = XmlHandler.getTagValue(statusNode, "name");
+    poolSize = Const.toInt(XmlHandler.getTagValue(statusNode, "pool_size"), 0);
+    available = Const.toInt(XmlHandler.getTagValue(statusNode, "available"), 0);
+    hits = Const.toLong(XmlHandler.getTagValue(statusNode, "hits"), 0L);
+    misses = Const.toLong(XmlHandler.getTagValue(statusNode, "misses"), 0L);
+  }
+
+  @JsonIgnore
+  public String getXml() {
+    StringBuilder xml = new StringBuilder();
+    xml.append("<" + XML_TAG + ">");
+    xml.append(XmlHandler.addTagValue("name", serviceName, false));
+    xml.append(XmlHandler.addTagValue("pool_size", poolSize, false));
+    xml.append(XmlHandler.addTagValue("available", available, false));
+    xml.append(XmlHandler.addTagValue("hits", hits, false));
+    xml.append(XmlHandler.addTagValue("misses", misses, false));
+    xml.append("</" + XML_TAG + ">");
+    return xml.toString();
+  }
+}
@@ -27,7 +27,10 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serial;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.UUID;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -50,10 +53,10 @@ import org.apache.hop.pipeline.PipelineExecutionConfiguration;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.engine.IEngineComponent;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
-import org.apache.hop.pipeline.engine.PipelineEngineFactory;
-import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
 import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.www.service.PipelineMetaCache;
 import org.apache.hop.www.service.WebService;
+import org.apache.hop.www.service.WebServicePipelinePool;
 
 @HopServerServlet(id = "webService", name = "Output the content of a field in a transform")
 public class WebServiceServlet extends BaseHttpServlet implements IHopServerPlugin {
@@ -110,6 +113,11 @@ public class WebServiceServlet extends BaseHttpServlet implements IHopServerPlug
 
     String runConfigurationName = request.getParameter("runConfig");
 
+    // Until the pipeline metadata is handed back to the cache, a failure needs to clean up
+    //
+    IPipelineEngine<PipelineMeta> pipeline = null;
+    boolean started = false;
+    boolean handedBack = false;
     try {
       IHopMetadataSerializer<WebService> serializer =
           metadataProvider.getSerializer(WebService.class);
@@ -174,26 +182,55 @@ public class WebServiceServlet extends BaseHttpServlet implements IHopServerPlug
           new SimpleLoggingObject(CONTEXT_PATH, LoggingObjectType.HOP_SERVER, null);
       servletLoggingObject.setContainerObjectId(serverObjectId);
 
-      // Load and start the pipeline
+      // Get a prepared pipeline from the pool or load and prepare one.
       // Output the data to the response output stream...
       //
-      PipelineMeta pipelineMeta = new PipelineMeta(filename, metadataProvider, variables);
-      IPipelineEngine<PipelineMeta> pipeline;
-      if (StringUtils.isEmpty(runConfigurationName)) {
-        pipeline = new LocalPipelineEngine(pipelineMeta, variables, servletLoggingObject);
+      int poolSize = Const.toInt(variables.resolve(webService.getPoolSize()), 0);
+      final String pipelineRunConfigurationName = runConfigurationName;
+      String poolKey =
+          WebServicePipelinePool.getPoolKey(webServiceName, filename, runConfigurationName);
+      boolean pooled =
+          poolSize > 0
+              && WebServicePipelinePool.getInstance()
+                  .isPoolable(webServiceName, poolKey, filename, metadataProvider, variables);
+      if (pooled) {
+        pipeline =
+            WebServicePipelinePool.getInstance()
+                .take(
+                    webServiceName,
+                    poolKey,
+                    poolSize,
+                    () ->
+                        WebServicePipelinePool.createPipeline(
+                            filename,
+                            pipelineRunConfigurationName,
+                            metadataProvider,
+                            variables,
+                            new SimpleLoggingObject(
+                                CONTEXT_PATH, LoggingObjectType.HOP_SERVER, null),
+                            true));
       } else {
         pipeline =
-            PipelineEngineFactory.createPipelineEngine(
-                variables, runConfigurationName, metadataProvider, pipelineMeta);
+            WebServicePipelinePool.createPipeline(
+                filename,
+                runConfigurationName,
+                metadataProvider,
+                variables,
+                servletLoggingObject,
+                false);
       }
+      PipelineMeta pipelineMeta = pipeline.getPipelineMeta();
       pipeline.setContainerId(serverObjectId);
 
+      List<String> requestVariables = new ArrayList<>();
       if (StringUtils.isNotEmpty(bodyContentVariable)) {
         pipeline.setVariable(bodyContentVariable, Const.NVL(bodyContent, ""));
+        requestVariables.add(bodyContentVariable);
       }
 
       if (StringUtils.isNotEmpty(headerContentVariable)) {
         pipeline.setVariable(headerContentVariable, Const.NVL(headerContent, ""));
+        requestVariables.add(headerContentVariable);
       }
 
       // Set all the other parameters as variables/parameters...
@@ -210,6 +247,7 @@ public class WebServiceServlet extends BaseHttpServlet implements IHopServerPlug
         } else {
           pipeline.setParameterValue(requestParameter, Const.NVL(requestParameterValue, ""));
         }
+        requestVariables.add(requestParameter);
       }
       pipeline.activateParameters(pipeline);
 
@@ -227,8 +265,15 @@ public class WebServiceServlet extends BaseHttpServlet implements IHopServerPlug
             .addPipeline(pipelineMeta.getName(), serverObjectId, pipeline, pipelineConfiguration);
       }
 
-      // Allocate the threads...
-      pipeline.prepareExecution();
+      if (pooled) {
+        // The transforms of a prepared pipeline already copied the variables
+        //
+        requestVariables.addAll(Arrays.asList(pipelineParameters));
+        WebServicePipelinePool.passVariables(pipeline, requestVariables);
+      } else {
+        // Allocate the threads...
+        pipeline.prepareExecution();
+      }
 
       final OutputStream outputStream = response.getOutputStream();
 
@@ -281,15 +326,28 @@ public class WebServiceServlet extends BaseHttpServlet implements IHopServerPlug
             }
           });
 
+      started = true;
       pipeline.startThreads();
       pipeline.waitUntilFinished();
 
+      // The pipeline metadata can be used again unless the pipeline stays in the status map
+      //
+      handedBack = true;
+      if (webService.isListingStatus()) {
+        PipelineMetaCache.getInstance().discard(pipelineMeta);
+      } else {
+        PipelineMetaCache.getInstance().release(pipelineMeta);
+      }
     } catch (Exception e) {
       logError("Error producing web service output", e);
       sendSafeError(
           response,
           HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
           "Error producing web service output.");
+    } finally {
+      if (pipeline != null && !handedBack) {
+        WebServicePipelinePool.abandon(pipeline, started);
+      }
     }
   }
 
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.vfs.HopVfs;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.pipeline.PipelineMeta;
+
+/**
+ * Keeps parsed pipeline metadata of web service pipelines around so that a request doesn't need to
+ * read and parse the pipeline file again. The cache is keyed by filename and the last modification
+ * time of the file: a changed file is parsed again.
+ *
+ * <p>A {@link PipelineMeta} can't be cloned and isn't safe to share between pipelines running at
+ * the same time. That is why every caller gets its own instance with {@link #borrow(String,
+ * IHopMetadataProvider, IVariables)} and hands it back with {@link #release(PipelineMeta)} when the
+ * pipeline is finished, the same way a pipeline executor re-uses its metadata for every execution.
+ */
+public class PipelineMetaCache {
+
+  /** The maximum number of parsed pipelines kept for a file */
+  public static final int MAXIMUM_IDLE_PER_FILE = 8;
+
+  private static final PipelineMetaCache INSTANCE = new PipelineMetaCache();
+
+  private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+  /** The parsed pipelines handed out and the entry they came from */
+  private final Map<PipelineMeta, Lease> leases = new IdentityHashMap<>();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  public static PipelineMetaCache getInstance() {
+    return INSTANCE;
+  }
+
+  PipelineMetaCache() {}
+
+  /**
+   * Get the parsed pipeline of a file, from the cache if the file didn't change.
+   *
+   * @param filename the resolved filename of the pipeline
+   * @param metadataProvider the metadata provider to load the pipeline with
+   * @param variables the variables to load the pipeline with
+   * @return a pipeline which is for the exclusive use of the caller until it's released
+   * @throws HopException in case the pipeline couldn't be loaded
+   */
+  public PipelineMeta borrow(
+      String filename, IHopMetadataProvider metadataProvider, IVariables variables)
+      throws HopException {
+    long lastModified = getLastModified(filename);
+    if (lastModified <= 0) {
+      // We can't tell whether the file changed, so we can't cache it
+      //
+      misses.incrementAndGet();
+      return new PipelineMeta(filename, metadataProvider, variables);
+    }
+
+    Key key = new Key(filename, metadataProvider);
+    Entry entry =
+        entries.compute(
+            key,
+            (k, existing) ->
+                existing == null || existing.lastModified != lastModified
+                    ? new Entry(lastModified)
+                    : existing);
+
+    PipelineMeta pipelineMeta;
+    synchronized (entry) {
+      pipelineMeta = entry.idle.pollFirst();
+    }
+    if (pipelineMeta == null) {
+      misses.incrementAndGet();
+      pipelineMeta = new PipelineMeta(filename, metadataProvider, variables);
+    } else {
+      hits.incrementAndGet();
+    }
+    synchronized (leases) {
+      leases.put(pipelineMeta, new Lease(key, entry));
+    }
+    return pipelineMeta;
+  }
+
+  /**
+   * Hand back a pipeline obtained with {@link #borrow(String, IHopMetadataProvider, IVariables)}
+   * after the pipeline using it finished. It's kept for the next caller unless the file changed in
+   * the mean time.
+   *
+   * @param pipelineMeta the pipeline to hand back
+   */
+  public void release(PipelineMeta pipelineMeta) {
+    Lease lease;
+    synchronized (leases) {
+      lease = leases.remove(pipelineMeta);
+    }
+    if (lease == null || entries.get(lease.key) != lease.entry) {
+      return;
+    }
+    synchronized (lease.entry) {
+      if (lease.entry.idle.size() < MAXIMUM_IDLE_PER_FILE) {
+        lease.entry.idle.addFirst(pipelineMeta);
+      }
+    }
+  }
+
+  /**
+   * Stop tracking a borrowed pipeline which will not be handed back, for example because it's still
+   * referenced after the execution.
+   *
+   * @param pipelineMeta the pipeline to forget
+   */
+  public void discard(PipelineMeta pipelineMeta) {
+    synchronized (leases) {
+      leases.remove(pipelineMeta);
+    }
+  }
+
+  /**
+   * See if the file of a borrowed pipeline changed since it was parsed.
+   *
+   * @param pipelineMeta the borrowed pipeline
+   * @return true if the pipeline is still the parsed version of its file
+   */
+  public boolean isCurrent(PipelineMeta pipelineMeta) {
+    Lease lease;
+    synchronized (leases) {
+      lease = leases.get(pipelineMeta);
+    }
+    if (lease == null) {
+      return false;
+    }
+    return lease.entry.lastModified == getLastModified(lease.key.filename);
+  }
+
+  /** Remove all parsed pipelines from the cache */
+  public void clear() {
+    entries.clear();
+    synchronized (leases) {
+      leases.clear();
+    }
+  }
+
+  /**
+   * @return the number of times a parsed pipeline was found in the cache
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * @return the number of times a pipeline had to be parsed
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  private static long getLastModified(String filename) {
+    try {
+      FileObject fileObject = HopVfs.getFileObject(filename);
+      if (!fileObject.exists()) {
+        return 0L;
+      }
+      return fileObject.getContent().getLastModifiedTime();
+    } catch (Exception e) {
+      // Some file systems can't tell
+      return 0L;
+    }
+  }
+
+  private record Key(String filename, IHopMetadataProvider metadataProvider) {}
+
+  private record Lease(Key key, Entry entry) {}
+
+  private static final class Entry {
+    private final long lastModified;
+    private final Deque<PipelineMeta> idle = new ArrayDeque<>();
+
+    private Entry(long lastModified) {
+      this.lastModified = lastModified;
+    }
+  }
+}
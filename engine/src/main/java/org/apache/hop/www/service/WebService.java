@@ -56,6 +56,9 @@ public class WebService extends HopMetadataBase implements IHopMetadata {
 
   @HopMetadataProperty private String headerContentVariable;
 
+  /** The number of pipelines to keep prepared for execution, empty or 0 to disable */
+  @HopMetadataProperty private String poolSize;
+
   public WebService() {}
 
   public WebService(
@@ -0,0 +1,374 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.logging.LogChannel;
+import org.apache.hop.core.logging.LoggingRegistry;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engine.IEngineComponent;
+import org.apache.hop.pipeline.engine.IPipelineEngine;
+import org.apache.hop.pipeline.engine.PipelineEngineFactory;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.ITransform;
+import org.apache.hop.www.HopServerWebServiceStatus;
+
+/**
+ * Keeps a number of pipelines prepared for execution per web service. Preparing a pipeline creates
+ * and initializes all the transforms which is most of the work for a short running service call. A
+ * pipeline engine can only run once so a pipeline taken from the pool is replaced by a new one
+ * which is prepared in the background.
+ *
+ * <p>Since the pipeline is prepared before the request arrives, the variables of the request are
+ * only set after the transforms are initialized. Transforms which resolve variables while
+ * processing rows see them, transforms which resolve them during initialization don't. A pipeline
+ * which declares parameters is never pooled, see {@link #isPoolable(String, String, String,
+ * IHopMetadataProvider, IVariables)}.
+ */
+public class WebServicePipelinePool {
+
+  private static final WebServicePipelinePool INSTANCE = new WebServicePipelinePool();
+
+  /** Prepares a new pipeline for a web service */
+  @FunctionalInterface
+  public interface IPipelinePreparer {
+    /**
+     * @return a new pipeline on which prepareExecution() was called
+     * @throws HopException in case the pipeline couldn't be prepared
+     */
+    IPipelineEngine<PipelineMeta> prepare() throws HopException;
+  }
+
+  private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+  /** The web services which were refused a pool, to report this only once */
+  private final Set<String> refusedServices = ConcurrentHashMap.newKeySet();
+
+  private final ExecutorService preparer =
+      Executors.newCachedThreadPool(
+          runnable -> {
+            Thread thread = new Thread(runnable, "Web service pipeline preparation");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  public static WebServicePipelinePool getInstance() {
+    return INSTANCE;
+  }
+
+  WebServicePipelinePool() {}
+
+  /**
+   * Get a prepared pipeline for a web service. The pipeline is taken from the pool if one is
+   * available, otherwise it's prepared right away. The pool is then topped up in the background.
+   *
+   * @param serviceName the name of the web service, used as the name of the pool
+   * @param key identifies the pool: pipelines prepared with different settings don't mix
+   * @param poolSize the number of pipelines to keep prepared
+   * @param pipelinePreparer prepares a new pipeline
+   * @return a prepared pipeline which isn't started yet
+   * @throws HopException in case a pipeline couldn't be prepared
+   */
+  public IPipelineEngine<PipelineMeta> take(
+      String serviceName, String key, int poolSize, IPipelinePreparer pipelinePreparer)
+      throws HopException {
+    Pool pool = pools.computeIfAbsent(key, k -> new Pool(serviceName));
+    pool.size = poolSize;
+
+    IPipelineEngine<PipelineMeta> pipeline = null;
+    IPipelineEngine<PipelineMeta> available;
+    while (pipeline == null && (available = pool.available.pollFirst()) != null) {
+      if (PipelineMetaCache.getInstance().isCurrent(available.getPipelineMeta())) {
+        pipeline = available;
+      } else {
+        // The pipeline file changed after this pipeline was prepared
+        //
+        dispose(available);
+      }
+    }
+
+    if (pipeline == null) {
+      pool.misses.incrementAndGet();
+      pipeline = pipelinePreparer.prepare();
+    } else {
+      pool.hits.incrementAndGet();
+    }
+
+    refill(pool, pipelinePreparer);
+    return pipeline;
+  }
+
+  /**
+   * See if the pipelines of a web service can be kept prepared. The transforms of a prepared
+   * pipeline are initialized with the default values of the pipeline parameters, a transform which
+   * resolves a parameter during initialization would never see the value passed with the request.
+   * That is why a pipeline which declares parameters isn't pooled: the pool of the service is
+   * emptied and the caller prepares a pipeline for every request.
+   *
+   * @param serviceName the name of the web service
+   * @param key identifies the pool, see {@link #getPoolKey(String, String, String)}
+   * @param filename the resolved filename of the pipeline
+   * @param metadataProvider the metadata provider
+   * @param variables the variables of the server
+   * @return true if the pipelines of the web service can be taken from the pool
+   * @throws HopException in case the pipeline couldn't be loaded
+   */
+  public boolean isPoolable(
+      String serviceName,
+      String key,
+      String filename,
+      IHopMetadataProvider metadataProvider,
+      IVariables variables)
+      throws HopException {
+    PipelineMeta pipelineMeta =
+        PipelineMetaCache.getInstance().borrow(filename, metadataProvider, variables);
+    String[] parameters;
+    try {
+      parameters = pipelineMeta.listParameters();
+    } finally {
+      PipelineMetaCache.getInstance().release(pipelineMeta);
+    }
+    if (parameters.length == 0) {
+      refusedServices.remove(serviceName);
+      return true;
+    }
+
+    if (refusedServices.add(serviceName)) {
+      LogChannel.GENERAL.logError(
+          "Web service "
+              + serviceName
+              + " can't keep pipelines prepared: the transforms would be initialized before the"
+              + " values of pipeline parameters "
+              + String.join(", ", parameters)
+              + " are known. A pipeline is prepared for every request instead.");
+    }
+    Pool pool = pools.remove(key);
+    if (pool != null) {
+      IPipelineEngine<PipelineMeta> pipeline;
+      while ((pipeline = pool.available.pollFirst()) != null) {
+        dispose(pipeline);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Create a pipeline for a web service with parsed pipeline metadata from the {@link
+   * PipelineMetaCache}.
+   *
+   * @param filename the resolved filename of the pipeline
+   * @param runConfigurationName the pipeline run configuration or empty for the local engine
+   * @param metadataProvider the metadata provider
+   * @param variables the variables of the server
+   * @param parent the parent logging object
+   * @param prepare true if the pipeline needs to be prepared for execution
+   * @return the new pipeline
+   * @throws HopException in case the pipeline couldn't be created or prepared
+   */
+  public static IPipelineEngine<PipelineMeta> createPipeline(
+      String filename,
+      String runConfigurationName,
+      IHopMetadataProvider metadataProvider,
+      IVariables variables,
+      ILoggingObject parent,
+      boolean prepare)
+      throws HopException {
+    PipelineMeta pipelineMeta =
+        PipelineMetaCache.getInstance().borrow(filename, metadataProvider, variables);
+    try {
+      IPipelineEngine<PipelineMeta> pipeline;
+      if (StringUtils.isEmpty(runConfigurationName)) {
+        pipeline = new LocalPipelineEngine(pipelineMeta, variables, parent);
+      } else {
+        pipeline =
+            PipelineEngineFactory.createPipelineEngine(
+                variables, runConfigurationName, metadataProvider, pipelineMeta);
+      }
+      if (prepare) {
+        pipeline.copyParametersFromDefinitions(pipelineMeta);
+        pipeline.activateParameters(pipeline);
+        pipeline.prepareExecution();
+      }
+      return pipeline;
+    } catch (HopException e) {
+      PipelineMetaCache.getInstance().discard(pipelineMeta);
+      throw e;
+    }
+  }
+
+  /**
+   * Build the key of the pool of a web service. Pipelines prepared for another file or run
+   * configuration don't end up in the same pool.
+   *
+   * @param serviceName the name of the web service
+   * @param filename the resolved filename of the pipeline
+   * @param runConfigurationName the pipeline run configuration, empty or null for the local engine
+   * @return the key of the pool
+   */
+  public static String getPoolKey(
+      String serviceName, String filename, String runConfigurationName) {
+    return serviceName + "|" + filename + "|" + Const.NVL(runConfigurationName, "");
+  }
+
+  /**
+   * Clean up after a web service call which failed before the pipeline metadata was handed back to
+   * the {@link PipelineMetaCache}. A pipeline which wasn't started is disposed, the threads of a
+   * started pipeline dispose the transforms themselves. The metadata isn't used again in either
+   * case.
+   *
+   * @param pipeline the pipeline of the failed call
+   * @param started true if the threads of the pipeline were started
+   */
+  public static void abandon(IPipelineEngine<PipelineMeta> pipeline, boolean started) {
+    if (started) {
+      PipelineMetaCache.getInstance().discard(pipeline.getPipelineMeta());
+    } else {
+      dispose(pipeline);
+    }
+  }
+
+  /**
+   * Set request variables on a pipeline taken from the pool and on all its transforms since these
+   * already copied the variables of the pipeline during preparation.
+   *
+   * @param pipeline the prepared pipeline
+   * @param variables the names of the variables to pass to the transforms, including parameters
+   */
+  public static void passVariables(IPipelineEngine<PipelineMeta> pipeline, List<String> variables) {
+    for (IEngineComponent component : pipeline.getComponents()) {
+      if (component instanceof ITransform transform) {
+        for (String variable : variables) {
+          transform.setVariable(variable, pipeline.getVariable(variable));
+        }
+      }
+    }
+  }
+
+  private void refill(Pool pool, IPipelinePreparer pipelinePreparer) {
+    // Counting the pipelines and reserving a slot happen under the lock of the pool so that
+    // concurrent requests don't prepare more pipelines than the pool holds
+    //
+    List<IPipelineEngine<PipelineMeta>> surplus = new ArrayList<>();
+    synchronized (pool) {
+      while (pool.available.size() + pool.preparing < pool.size) {
+        pool.preparing++;
+        preparer.submit(() -> prepare(pool, pipelinePreparer));
+      }
+      // The pool size was lowered
+      //
+      IPipelineEngine<PipelineMeta> pipeline;
+      while (pool.available.size() > pool.size && (pipeline = pool.available.pollLast()) != null) {
+        surplus.add(pipeline);
+      }
+    }
+    surplus.forEach(WebServicePipelinePool::dispose);
+  }
+
+  private static void prepare(Pool pool, IPipelinePreparer pipelinePreparer) {
+    IPipelineEngine<PipelineMeta> pipeline = null;
+    try {
+      pipeline = pipelinePreparer.prepare();
+    } catch (Exception e) {
+      LogChannel.GENERAL.logError(
+          "Error preparing a pipeline for web service " + pool.serviceName, e);
+    } finally {
+      synchronized (pool) {
+        pool.preparing--;
+        if (pipeline != null) {
+          pool.available.addLast(pipeline);
+        }
+      }
+    }
+  }
+
+  /** Dispose all prepared pipelines and forget about the pools */
+  public void clear() {
+    for (Pool pool : pools.values()) {
+      IPipelineEngine<PipelineMeta> pipeline;
+      while ((pipeline = pool.available.pollFirst()) != null) {
+        dispose(pipeline);
+      }
+    }
+    pools.clear();
+    refusedServices.clear();
+  }
+
+  /**
+   * @return the status of the pools
+   */
+  public List<HopServerWebServiceStatus> getStatusList() {
+    List<HopServerWebServiceStatus> list = new ArrayList<>();
+    for (Pool pool : pools.values()) {
+      list.add(
+          new HopServerWebServiceStatus(
+              pool.serviceName,
+              pool.size,
+              pool.available.size(),
+              pool.hits.get(),
+              pool.misses.get()));
+    }
+    return list;
+  }
+
+  /** Release the resources which the transforms of a prepared pipeline acquired. */
+  private static void dispose(IPipelineEngine<PipelineMeta> pipeline) {
+    try {
+      for (IEngineComponent component : pipeline.getComponents()) {
+        if (component instanceof ITransform transform) {
+          transform.dispose();
+        }
+      }
+    } catch (Exception e) {
+      LogChannel.GENERAL.logError("Error disposing a prepared web service pipeline", e);
+    } finally {
+      PipelineMetaCache.getInstance().discard(pipeline.getPipelineMeta());
+      LoggingRegistry.getInstance().removeIncludingChildren(pipeline.getLogChannelId());
+    }
+  }
+
+  private static final class Pool {
+    private final String serviceName;
+    private final ConcurrentLinkedDeque<IPipelineEngine<PipelineMeta>> available =
+        new ConcurrentLinkedDeque<>();
+
+    /** The number of pipelines being prepared, guarded by the lock of the pool */
+    private int preparing;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile int size;
+
+    private Pool(String serviceName) {
+      this.serviceName = serviceName;
+    }
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.hop.lineage.hub;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -38,6 +39,7 @@ import org.apache.hop.lineage.model.LineageEventKind;
 import org.apache.hop.lineage.spi.ILineageSink;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class LineageHubTest {
 
@@ -489,6 +491,76 @@ class LineageHubTest {
     assertEquals(2, delivered.get());
   }
 
+  @Test
+  void slowSinkDoesNotHoldUpOtherSinks() throws Exception {
+    LineageConfiguration cfg = LineageConfiguration.forTesting(true, 100, 10, 50L, Set.of());
+    Semaphore hold = new Semaphore(0);
+    CountDownLatch fastDelivered = new CountDownLatch(5);
+    ILineageSink slow =
+        batch -> {
+          try {
+            hold.acquire();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        };
+    ILineageSink fast = batch -> batch.forEach(e -> fastDelivered.countDown());
+    LineageHub hub = LineageHub.newIsolatedForTesting(cfg, List.of(slow, fast));
+    for (int i = 0; i < 5; i++) {
+      hub.emit(sampleEvent());
+    }
+    assertTrue(fastDelivered.await(2, TimeUnit.SECONDS));
+    hold.release(20);
+    hub.flush();
+    List<LineageSinkStatistics> statistics = hub.getSinkStatistics();
+    assertEquals(2, statistics.size());
+    for (LineageSinkStatistics s : statistics) {
+      assertEquals(5, s.getDeliveredEvents());
+      assertEquals(0, s.getPendingEvents());
+    }
+    hub.shutdown();
+  }
+
+  @Test
+  void fullQueueSpoolsToDiskInOrder(@TempDir Path spoolFolder) throws Exception {
+    LineageConfiguration cfg =
+        LineageConfiguration.forTesting(
+            true, 2, 3, 30_000L, Set.of(), spoolFolder.toString(), 10_000_000L);
+    Semaphore hold = new Semaphore(0);
+    List<String> delivered = new CopyOnWriteArrayList<>();
+    ILineageSink sink =
+        batch -> {
+          for (LineageEvent e : batch) {
+            delivered.add(e.getEventId());
+          }
+          try {
+            hold.acquire();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        };
+    LineageHub hub = LineageHub.newIsolatedForTesting(cfg, List.of(sink));
+    List<String> emitted = new ArrayList<>();
+    LineageEvent first = sampleEvent();
+    emitted.add(first.getEventId());
+    hub.emit(first);
+    Thread.sleep(150);
+    for (int i = 0; i < 20; i++) {
+      LineageEvent e = sampleEvent();
+      emitted.add(e.getEventId());
+      hub.emit(e);
+    }
+    LineageSinkStatistics statistics = hub.getSinkStatistics().get(0);
+    assertEquals(18, statistics.getSpooledEvents());
+    assertEquals(18, statistics.getPendingSpooledEvents());
+
+    hold.release(100);
+    hub.flush();
+    hub.shutdown();
+    assertEquals(emitted, delivered);
+    assertEquals(0L, hub.getDroppedEventCount());
+  }
+
   private static LineageEvent sampleEvent() {
     return LineageEvent.of(LineageEventKind.RUN_LIFECYCLE, LineageContext.empty(), null);
   }
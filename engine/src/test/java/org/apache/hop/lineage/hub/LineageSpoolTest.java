@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.lineage.hub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.apache.hop.lineage.context.LineageContext;
+import org.apache.hop.lineage.context.LineageSubjectType;
+import org.apache.hop.lineage.model.FileIoLineagePayload;
+import org.apache.hop.lineage.model.FileIoOperation;
+import org.apache.hop.lineage.model.LineageEvent;
+import org.apache.hop.lineage.model.LineageEventKind;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LineageSpoolTest {
+
+  @TempDir Path folder;
+
+  private static LineageEvent event(int nr) {
+    return LineageEvent.of(
+        LineageEventKind.FILE_IO,
+        LineageContext.builder()
+            .subjectType(LineageSubjectType.TRANSFORM)
+            .pipelineName("pipeline")
+            .putAttribute("nr", Integer.toString(nr))
+            .build(),
+        new FileIoLineagePayload(
+            FileIoOperation.WRITE, null, "/tmp/file-" + nr + ".txt", 100L, true, null));
+  }
+
+  private static long countSegments(Path folder) throws Exception {
+    try (Stream<Path> files = Files.list(folder)) {
+      return files.count();
+    }
+  }
+
+  @Test
+  void eventsAreReadInOrderAcrossSegments() throws Exception {
+    LineageSpool spool = new LineageSpool(folder, 4096, 0L);
+    List<String> written = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      LineageEvent event = event(i);
+      written.add(event.getEventId());
+      assertTrue(spool.append(event));
+    }
+    assertTrue(countSegments(folder) > 1);
+    assertEquals(100, spool.getPendingEvents());
+
+    List<LineageEvent> read = new ArrayList<>();
+    List<LineageEvent> batch;
+    while (!(batch = spool.read(7)).isEmpty()) {
+      read.addAll(batch);
+      spool.acknowledge(batch.size());
+    }
+    assertEquals(written, read.stream().map(LineageEvent::getEventId).toList());
+    assertTrue(spool.isEmpty());
+
+    LineageEvent last = read.get(99);
+    assertEquals("pipeline", last.getContext().getPipelineName());
+    assertEquals("99", last.getContext().getAttributes().get("nr"));
+    assertEquals("/tmp/file-99.txt", ((FileIoLineagePayload) last.getPayload()).getTargetUri());
+  }
+
+  @Test
+  void unreadEventsSurviveReopening() throws Exception {
+    LineageSpool spool = new LineageSpool(folder, 4096, 0L);
+    List<String> written = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      LineageEvent event = event(i);
+      written.add(event.getEventId());
+      spool.append(event);
+    }
+    List<LineageEvent> delivered = spool.read(20);
+    assertEquals(20, delivered.size());
+    spool.acknowledge(delivered.size());
+    spool.close();
+
+    LineageSpool reopened = new LineageSpool(folder, 4096, 0L);
+    assertEquals(30, reopened.getPendingEvents());
+    List<String> read = new ArrayList<>();
+    List<LineageEvent> batch;
+    while (!(batch = reopened.read(10)).isEmpty()) {
+      batch.forEach(e -> read.add(e.getEventId()));
+      reopened.acknowledge(batch.size());
+    }
+    assertEquals(written.subList(20, 50), read);
+    assertEquals(0, countSegments(folder));
+  }
+
+  @Test
+  void eventsAreReadAgainUntilAcknowledged() throws Exception {
+    LineageSpool spool = new LineageSpool(folder, 4096, 0L);
+    List<String> written = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      LineageEvent event = event(i);
+      written.add(event.getEventId());
+      spool.append(event);
+    }
+
+    // The sink failed: the same events are read again
+    //
+    List<LineageEvent> batch = spool.read(4);
+    assertEquals(written.subList(0, 4), batch.stream().map(LineageEvent::getEventId).toList());
+    batch = spool.read(4);
+    assertEquals(written.subList(0, 4), batch.stream().map(LineageEvent::getEventId).toList());
+    assertEquals(10, spool.getPendingEvents());
+
+    spool.acknowledge(batch.size());
+    assertEquals(6, spool.getPendingEvents());
+
+    // Events read but not acknowledged before a restart are delivered again
+    //
+    assertEquals(4, spool.read(4).size());
+    spool.close();
+    LineageSpool reopened = new LineageSpool(folder, 4096, 0L);
+    assertEquals(6, reopened.getPendingEvents());
+    assertEquals(
+        written.subList(4, 10), reopened.read(10).stream().map(LineageEvent::getEventId).toList());
+  }
+
+  @Test
+  void fullSpoolRefusesEvents() throws Exception {
+    LineageSpool spool = new LineageSpool(folder, 4096, 8192L);
+    int appended = 0;
+    while (spool.append(event(appended))) {
+      appended++;
+    }
+    assertTrue(appended > 0);
+    assertFalse(spool.append(event(appended)));
+    assertEquals(appended, spool.getPendingEvents());
+  }
+}
@@ -19,6 +19,7 @@ package org.apache.hop.pipeline;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -27,17 +28,24 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.HopEnvironment;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopRuntimeException;
 import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.junit.rules.RestoreHopEngineEnvironmentExtension;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.engines.local.LocalPipelineRunConfiguration;
 import org.apache.hop.pipeline.transform.ITransform;
 import org.apache.hop.pipeline.transform.ITransformData;
+import org.apache.hop.pipeline.transform.RowAdapter;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -156,6 +164,55 @@ class PipelineTest {
     assertEquals(Pipeline.STRING_FINISHED, pipeline.getStatusDescription());
   }
 
+  @Test
+  void testTransformsRunInVirtualThreads() throws Exception {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    TransformMeta previous = null;
+    for (int i = 0; i < 3; i++) {
+      TransformMeta transformMeta = new TransformMeta("dummy" + i, new DummyMeta());
+      pipelineMeta.addTransform(transformMeta);
+      if (previous != null) {
+        pipelineMeta.addPipelineHop(new PipelineHopMeta(previous, transformMeta));
+      }
+      previous = transformMeta;
+    }
+
+    LocalPipelineEngine line = new LocalPipelineEngine(pipelineMeta);
+    line.setLogChannel(Mockito.mock(ILogChannel.class));
+    LocalPipelineRunConfiguration config =
+        (LocalPipelineRunConfiguration)
+            line.getPipelineRunConfiguration().getEngineRunConfiguration();
+    config.setTransformThreadType(TransformThreadType.Virtual.name());
+    line.prepareExecution();
+    assertEquals(TransformThreadType.Virtual, line.getTransformThreadType());
+
+    RowProducer producer = line.addRowProducer("dummy0", 0);
+    AtomicBoolean allVirtual = new AtomicBoolean(true);
+    ITransform last = line.getTransform("dummy2", 0);
+    last.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowReadEvent(IRowMeta rowMeta, Object[] row) {
+            if (!Thread.currentThread().isVirtual()) {
+              allVirtual.set(false);
+            }
+          }
+        });
+    line.startThreads();
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    for (long i = 0; i < 1000; i++) {
+      producer.putRow(rowMeta, new Object[] {i});
+    }
+    producer.finished();
+    line.waitUntilFinished();
+
+    assertEquals(0, line.getErrors());
+    assertEquals(1000, last.getLinesRead());
+    assertTrue(allVirtual.get());
+  }
+
   private void startThreads(Runnable one, Runnable two, CountDownLatch start)
       throws InterruptedException {
     Thread th = new Thread(one);
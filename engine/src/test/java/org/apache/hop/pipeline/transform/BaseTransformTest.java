@@ -17,9 +17,11 @@
 
 package org.apache.hop.pipeline.transform;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -34,6 +36,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -252,6 +255,58 @@ class BaseTransformTest {
     assertNotSame(meta1, meta2);
   }
 
+  @Test
+  void putRowsAndGetRowsInBatches() throws Exception {
+    IRowSet rs1 = new QueueRowSet();
+    IRowSet rs2 = new QueueRowSet();
+
+    when(mockHelper.pipeline.isRunning()).thenReturn(true);
+    BaseTransform<ITransformMeta, ITransformData> producer =
+        new BaseTransform<>(
+            mockHelper.transformMeta,
+            mockHelper.iTransformMeta,
+            mockHelper.iTransformData,
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    producer.setStopped(false);
+    producer.setRepartitioning(TransformPartitioningMeta.PARTITIONING_METHOD_NONE);
+    producer.setOutputRowSets(Arrays.asList(rs1, rs2));
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    List<Object[]> rows = Arrays.asList(new Object[] {1L}, new Object[] {2L}, new Object[] {3L});
+
+    producer.putRows(rowMeta, rows);
+    // Like putRow(), every copy sent to an output row set counts as a written line
+    assertEquals(6, producer.getLinesWritten());
+    assertEquals(3, rs1.size());
+    assertEquals(3, rs2.size());
+    // The first output row set gets the rows, the others get copies
+    assertSame(rows.get(0), rs1.getRowImmediate());
+    assertNotSame(rows.get(0), rs2.getRowImmediate());
+    rs1.setDone();
+
+    BaseTransform<ITransformMeta, ITransformData> consumer =
+        spy(
+            new BaseTransform<>(
+                mockHelper.transformMeta,
+                mockHelper.iTransformMeta,
+                mockHelper.iTransformData,
+                0,
+                mockHelper.pipelineMeta,
+                mockHelper.pipeline));
+    lenient().doNothing().when(consumer).waitUntilPipelineIsStarted();
+    consumer.setInputRowSets(new ArrayList<>(List.of(rs1)));
+
+    List<Object[]> read = consumer.getRows(10);
+    assertEquals(2, read.size());
+    assertSame(rows.get(1), read.get(0));
+    assertSame(rows.get(2), read.get(1));
+    assertEquals(2, consumer.getLinesRead());
+    assertNull(consumer.getRows(10));
+  }
+
   @Test
   void getRowWithRowHandler() throws HopException {
     BaseTransform<ITransformMeta, ITransformData> baseTransform =
@@ -467,6 +522,36 @@ class BaseTransformTest {
         HopTransformException.class, () -> baseTransform.putRow(rowMeta, new Object[] {0}));
   }
 
+  @Test
+  void emptyFieldNameAddedAfterVerification() throws HopException {
+    BaseTransform<ITransformMeta, ITransformData> baseTransform =
+        new BaseTransform<>(
+            mockHelper.transformMeta,
+            mockHelper.iTransformMeta,
+            mockHelper.iTransformData,
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    baseTransform.setRowHandler(rowHandler);
+    baseTransform.setAllowEmptyFieldNamesAndTypes(false);
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaBase("id", IValueMeta.TYPE_INTEGER));
+    baseTransform.putRow(rowMeta, new Object[] {0});
+    baseTransform.putRow(rowMeta, new Object[] {1});
+
+    // The verified row metadata changes layout: it's verified again
+    rowMeta.addValueMeta(new ValueMetaBase("", IValueMeta.TYPE_INTEGER));
+    assertThrows(
+        HopTransformException.class, () -> baseTransform.putRow(rowMeta, new Object[] {2, 3}));
+
+    // Other row metadata is verified as well
+    IRowMeta otherRowMeta = new RowMeta();
+    otherRowMeta.addValueMeta(new ValueMetaBase("id", IValueMeta.TYPE_NONE));
+    assertThrows(
+        HopTransformException.class, () -> baseTransform.putRow(otherRowMeta, new Object[] {4}));
+  }
+
   @Test
   void testGetRowSafeModeEnabled() throws HopException {
     Pipeline pipelineMock = spy(new LocalPipelineEngine());
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.dummy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DummyTest {
+  private TransformMockHelper<DummyMeta, DummyData> mockHelper;
+
+  @BeforeEach
+  void setUp() {
+    mockHelper = new TransformMockHelper<>("Dummy", DummyMeta.class, DummyData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+    when(mockHelper.pipeline.isRunning()).thenReturn(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  @Test
+  void testRowsArePassedInBatches() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 0; i < 2500; i++) {
+      rows.add(new Object[] {i});
+    }
+    IRowSet output = new QueueRowSet();
+
+    Dummy dummy =
+        new Dummy(
+            mockHelper.transformMeta,
+            new DummyMeta(),
+            new DummyData(),
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    dummy.addRowSetToInputRowSets(TransformMockHelper.getInputRowSet(rowMeta, rows));
+    dummy.addRowSetToOutputRowSets(output);
+    List<Object[]> read = new ArrayList<>();
+    List<Object[]> written = new ArrayList<>();
+    dummy.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowReadEvent(IRowMeta rowMeta, Object[] row) {
+            read.add(row);
+          }
+
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            written.add(row);
+          }
+        });
+    dummy.init();
+
+    int calls = 0;
+    while (dummy.processRow()) {
+      calls++;
+    }
+
+    // The rows were read and written in a few batches
+    assertTrue(calls < 10, "processRow() calls: " + calls);
+    assertEquals(rows.size(), dummy.getLinesRead());
+    assertEquals(rows.size(), dummy.getLinesWritten());
+
+    // The rows are passed in order and the listeners saw all of them
+    for (int i = 0; i < rows.size(); i++) {
+      assertSame(rows.get(i), output.getRowImmediate());
+      assertSame(rows.get(i), read.get(i));
+      assertSame(rows.get(i), written.get(i));
+    }
+    assertNull(output.getRowImmediate());
+    assertEquals(rows.size(), read.size());
+    assertEquals(rows.size(), written.size());
+    assertTrue(output.isDone());
+  }
+}
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
 import org.apache.hop.core.logging.HopLogStore;
 import org.apache.hop.core.logging.ILogChannel;
 import org.apache.hop.core.logging.ILogChannelFactory;
@@ -96,6 +97,19 @@ public class TransformMockHelper<Meta extends ITransformMeta, Data extends ITran
     return rowSet;
   }
 
+  /**
+   * A real row set with all the given rows which is done. Unlike the mock input row set it hands
+   * over rows in batches, see {@link IRowSet#getRows(List, int)}.
+   */
+  public static IRowSet getInputRowSet(IRowMeta rowMeta, List<Object[]> rows) {
+    IRowSet rowSet = new QueueRowSet();
+    for (Object[] row : rows) {
+      rowSet.putRow(rowMeta, row);
+    }
+    rowSet.setDone();
+    return rowSet;
+  }
+
   public static List<Object[]> asList(Object[]... objects) {
     List<Object[]> result = new ArrayList<>();
     Collections.addAll(result, objects);
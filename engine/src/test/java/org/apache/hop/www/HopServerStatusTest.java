@@ -52,4 +52,23 @@ class HopServerStatusTest {
     assertTrue(xml.contains("pipeline_status_list"));
     assertTrue(xml.contains("workflow_status_list"));
   }
+
+  @Test
+  void webServiceStatusXmlRoundTrip() throws HopException {
+    HopServerStatus status = new HopServerStatus("Online");
+    status.setPipelineCacheHits(5L);
+    status.setPipelineCacheMisses(2L);
+    status.getWebServiceStatusList().add(new HopServerWebServiceStatus("lookup", 4, 3, 10L, 1L));
+
+    HopServerStatus copy = HopServerStatus.fromXml(status.getXml());
+    assertEquals(5L, copy.getPipelineCacheHits());
+    assertEquals(2L, copy.getPipelineCacheMisses());
+    assertEquals(1, copy.getWebServiceStatusList().size());
+    HopServerWebServiceStatus webServiceStatus = copy.getWebServiceStatusList().get(0);
+    assertEquals("lookup", webServiceStatus.getServiceName());
+    assertEquals(4, webServiceStatus.getPoolSize());
+    assertEquals(3, webServiceStatus.getAvailable());
+    assertEquals(10L, webServiceStatus.getHits());
+    assertEquals(1L, webServiceStatus.getMisses());
+  }
 }
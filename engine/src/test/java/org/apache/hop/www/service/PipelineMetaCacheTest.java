@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.metadata.serializer.memory.MemoryMetadataProvider;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PipelineMetaCacheTest {
+
+  @TempDir Path folder;
+
+  private final IVariables variables = new Variables();
+  private final IHopMetadataProvider metadataProvider = new MemoryMetadataProvider();
+  private String filename;
+
+  @BeforeAll
+  static void init() throws Exception {
+    HopEnvironment.init();
+  }
+
+  @BeforeEach
+  void writePipeline() throws Exception {
+    filename = writePipeline(folder, "service", variables);
+  }
+
+  /** Write a pipeline with a single dummy transform and return its filename. */
+  static String writePipeline(Path folder, String name, IVariables variables) throws Exception {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName(name);
+    pipelineMeta.addTransform(new TransformMeta("Output", new DummyMeta()));
+    File file = folder.resolve(name + ".hpl").toFile();
+    Files.writeString(file.toPath(), pipelineMeta.getXml(variables), StandardCharsets.UTF_8);
+    return file.getAbsolutePath();
+  }
+
+  @Test
+  void testReuseReleasedPipeline() throws Exception {
+    PipelineMetaCache cache = new PipelineMetaCache();
+
+    PipelineMeta first = cache.borrow(filename, metadataProvider, variables);
+    assertEquals("service", first.getName());
+    assertEquals(0, cache.getHits());
+    assertEquals(1, cache.getMisses());
+
+    // Every caller gets its own copy while the first one is in use
+    //
+    PipelineMeta second = cache.borrow(filename, metadataProvider, variables);
+    assertNotSame(first, second);
+    assertEquals(2, cache.getMisses());
+
+    cache.release(first);
+    assertSame(first, cache.borrow(filename, metadataProvider, variables));
+    assertEquals(1, cache.getHits());
+  }
+
+  @Test
+  void testModifiedFileIsParsedAgain() throws Exception {
+    PipelineMetaCache cache = new PipelineMetaCache();
+
+    PipelineMeta pipelineMeta = cache.borrow(filename, metadataProvider, variables);
+    assertTrue(cache.isCurrent(pipelineMeta));
+
+    File file = new File(filename);
+    assertTrue(file.setLastModified(file.lastModified() + 10000L));
+    assertFalse(cache.isCurrent(pipelineMeta));
+
+    // A pipeline of the old version isn't handed out again
+    //
+    cache.release(pipelineMeta);
+    PipelineMeta reloaded = cache.borrow(filename, metadataProvider, variables);
+    assertNotSame(pipelineMeta, reloaded);
+    assertTrue(cache.isCurrent(reloaded));
+    assertEquals(0, cache.getHits());
+  }
+
+  @Test
+  void testDiscardedPipelineIsNotReused() throws Exception {
+    PipelineMetaCache cache = new PipelineMetaCache();
+
+    PipelineMeta pipelineMeta = cache.borrow(filename, metadataProvider, variables);
+    cache.discard(pipelineMeta);
+    assertFalse(cache.isCurrent(pipelineMeta));
+
+    // Handing it back after it was discarded has no effect
+    //
+    cache.release(pipelineMeta);
+    assertNotSame(pipelineMeta, cache.borrow(filename, metadataProvider, variables));
+  }
+
+  @Test
+  void testMaximumIdle() throws Exception {
+    PipelineMetaCache cache = new PipelineMetaCache();
+
+    PipelineMeta[] pipelines = new PipelineMeta[PipelineMetaCache.MAXIMUM_IDLE_PER_FILE + 2];
+    for (int i = 0; i < pipelines.length; i++) {
+      pipelines[i] = cache.borrow(filename, metadataProvider, variables);
+    }
+    for (PipelineMeta pipelineMeta : pipelines) {
+      cache.release(pipelineMeta);
+    }
+    for (int i = 0; i < pipelines.length; i++) {
+      cache.borrow(filename, metadataProvider, variables);
+    }
+    assertEquals(PipelineMetaCache.MAXIMUM_IDLE_PER_FILE, cache.getHits());
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.LoggingObjectType;
+import org.apache.hop.core.logging.SimpleLoggingObject;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.metadata.serializer.memory.MemoryMetadataProvider;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engine.IPipelineEngine;
+import org.apache.hop.pipeline.transform.ITransform;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.www.HopServerWebServiceStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WebServicePipelinePoolTest {
+
+  @TempDir Path folder;
+
+  private final IVariables variables = new Variables();
+  private final IHopMetadataProvider metadataProvider = new MemoryMetadataProvider();
+  private final WebServicePipelinePool pool = new WebServicePipelinePool();
+  private String filename;
+
+  @BeforeAll
+  static void init() throws Exception {
+    HopEnvironment.init();
+  }
+
+  @BeforeEach
+  void writePipeline() throws Exception {
+    filename = PipelineMetaCacheTest.writePipeline(folder, "pooled", variables);
+  }
+
+  @AfterEach
+  void clearPool() {
+    pool.clear();
+  }
+
+  private IPipelineEngine<PipelineMeta> prepare() throws HopException {
+    return WebServicePipelinePool.createPipeline(
+        filename,
+        null,
+        metadataProvider,
+        variables,
+        new SimpleLoggingObject("test", LoggingObjectType.HOP_SERVER, null),
+        true);
+  }
+
+  private HopServerWebServiceStatus waitForAvailable(int available) throws Exception {
+    for (int i = 0; i < 100; i++) {
+      HopServerWebServiceStatus status = pool.getStatusList().get(0);
+      if (status.getAvailable() == available) {
+        return status;
+      }
+      Thread.sleep(50);
+    }
+    throw new AssertionError("The pool wasn't refilled");
+  }
+
+  @Test
+  void testTakePreparedPipeline() throws Exception {
+    IPipelineEngine<PipelineMeta> first = pool.take("pooled", filename, 2, this::prepare);
+    assertTrue(first.isReadyToStart());
+
+    HopServerWebServiceStatus status = waitForAvailable(2);
+    assertEquals("pooled", status.getServiceName());
+    assertEquals(2, status.getPoolSize());
+    assertEquals(0, status.getHits());
+    assertEquals(1, status.getMisses());
+
+    IPipelineEngine<PipelineMeta> second = pool.take("pooled", filename, 2, this::prepare);
+    assertNotSame(first, second);
+    assertTrue(second.isReadyToStart());
+    assertNotSame(first.getPipelineMeta(), second.getPipelineMeta());
+
+    status = waitForAvailable(2);
+    assertEquals(1, status.getHits());
+    assertEquals(1, status.getMisses());
+
+    second.startThreads();
+    second.waitUntilFinished();
+    assertEquals(0, second.getErrors());
+  }
+
+  @Test
+  void testModifiedPipelineIsPreparedAgain() throws Exception {
+    pool.take("pooled", filename, 1, this::prepare);
+    waitForAvailable(1);
+
+    File file = new File(filename);
+    assertTrue(file.setLastModified(file.lastModified() + 10000L));
+
+    pool.take("pooled", filename, 1, this::prepare);
+    HopServerWebServiceStatus status = waitForAvailable(1);
+    assertEquals(0, status.getHits());
+    assertEquals(2, status.getMisses());
+  }
+
+  @Test
+  void testPipelineWithParametersIsNotPooled() throws Exception {
+    assertTrue(pool.isPoolable("pooled", filename, filename, metadataProvider, variables));
+    pool.take("pooled", filename, 1, this::prepare);
+    waitForAvailable(1);
+
+    // A transform could resolve the parameter during initialization, before the request sets it
+    //
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("pooled");
+    pipelineMeta.addParameterDefinition("CUSTOMER", "", "");
+    pipelineMeta.addTransform(new TransformMeta("Output", new DummyMeta()));
+    File file = new File(filename);
+    Files.writeString(file.toPath(), pipelineMeta.getXml(variables), StandardCharsets.UTF_8);
+    assertTrue(file.setLastModified(file.lastModified() + 10000L));
+
+    assertFalse(pool.isPoolable("pooled", filename, filename, metadataProvider, variables));
+    assertTrue(pool.getStatusList().isEmpty());
+  }
+
+  @Test
+  void testPassVariables() throws Exception {
+    IPipelineEngine<PipelineMeta> pipeline = pool.take("pooled", filename, 0, this::prepare);
+    pipeline.setVariable("REQUEST_VALUE", "value");
+
+    WebServicePipelinePool.passVariables(pipeline, List.of("REQUEST_VALUE"));
+
+    ITransform transform = (ITransform) pipeline.findComponent("Output", 0);
+    assertEquals("value", transform.getVariable("REQUEST_VALUE"));
+  }
+}
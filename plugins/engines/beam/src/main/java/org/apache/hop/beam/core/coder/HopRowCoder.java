@@ -272,7 +272,7 @@ public class HopRowCoder extends AtomicCoder<HopRow> {
     }
   }
 
-  private int getObjectType(Object object) throws CoderException {
+  static int getObjectType(Object object) throws CoderException {
     if (object instanceof String) {
       return IValueMeta.TYPE_STRING;
     }
@@ -0,0 +1,382 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.core.coder;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.beam.sdk.coders.CoderException;
+import org.apache.beam.sdk.coders.CustomCoder;
+import org.apache.beam.sdk.util.VarInt;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaAvroRecord;
+
+/**
+ * A compact coder for rows of which the layout is known when the Beam pipeline is built. The value
+ * types are taken from the row metadata once, so the rows are written without type information:
+ *
+ * <ul>
+ *   <li>the number of values as a variable length integer
+ *   <li>a bitmap of the null values
+ *   <li>the values: integers, dates and lengths as variable length integers, strings as UTF-8
+ * </ul>
+ *
+ * A value that doesn't have the type of the layout, or is past the end of the layout, is written
+ * with its type in front of it. A second bitmap marks these values. This way every row can be
+ * encoded, the rows matching the layout just take less space.
+ */
+public class HopRowSchemaCoder extends CustomCoder<HopRow> {
+
+  private final int[] valueTypes;
+
+  /**
+   * @param valueTypes the value types of the row layout, see {@link IValueMeta#getType()}
+   */
+  public HopRowSchemaCoder(int[] valueTypes) {
+    this.valueTypes = valueTypes;
+  }
+
+  /**
+   * @param rowMeta the layout of the rows
+   * @return a coder for rows with this layout
+   */
+  public static HopRowSchemaCoder of(IRowMeta rowMeta) {
+    int[] valueTypes = new int[rowMeta.size()];
+    for (int i = 0; i < valueTypes.length; i++) {
+      valueTypes[i] = rowMeta.getValueMeta(i).getType();
+    }
+    return new HopRowSchemaCoder(valueTypes);
+  }
+
+  @Override
+  public void encode(HopRow hopRow, OutputStream out) throws IOException {
+    Object[] row = hopRow.getRow();
+    if (row == null) {
+      VarInt.encode(0L, out);
+      return;
+    }
+    int length = hopRow.length();
+
+    boolean foreign = false;
+    for (int i = 0; i < length && !foreign; i++) {
+      foreign = row[i] != null && !matchesLayout(i, row[i]);
+    }
+
+    // The length and whether there are values with a type outside the layout
+    //
+    VarInt.encode(((length + 1L) << 1) | (foreign ? 1L : 0L), out);
+
+    // The null values
+    //
+    for (int i = 0; i < length; i += 8) {
+      int bits = 0;
+      for (int j = i; j < i + 8 && j < length; j++) {
+        if (row[j] == null) {
+          bits |= 1 << (j - i);
+        }
+      }
+      out.write(bits);
+    }
+
+    // The values which don't match the layout
+    //
+    if (foreign) {
+      for (int i = 0; i < length; i += 8) {
+        int bits = 0;
+        for (int j = i; j < i + 8 && j < length; j++) {
+          if (row[j] != null && !matchesLayout(j, row[j])) {
+            bits |= 1 << (j - i);
+          }
+        }
+        out.write(bits);
+      }
+    }
+
+    for (int i = 0; i < length; i++) {
+      Object object = row[i];
+      if (object == null) {
+        continue;
+      }
+      int type;
+      if (foreign && !matchesLayout(i, object)) {
+        type = HopRowCoder.getObjectType(object);
+        VarInt.encode(type, out);
+      } else {
+        type = valueTypes[i];
+      }
+      write(out, type, object);
+    }
+  }
+
+  @Override
+  public HopRow decode(InputStream in) throws IOException {
+    long header = VarInt.decodeLong(in);
+    if (header == 0L) {
+      return new HopRow();
+    }
+    int length = (int) ((header >>> 1) - 1);
+    boolean foreign = (header & 1L) != 0;
+
+    byte[] nulls = readBitmap(in, length);
+    byte[] foreigners = foreign ? readBitmap(in, length) : null;
+
+    Object[] row = new Object[length];
+    for (int i = 0; i < length; i++) {
+      if (isSet(nulls, i)) {
+        continue;
+      }
+      int type;
+      if (foreigners != null && isSet(foreigners, i)) {
+        type = VarInt.decodeInt(in);
+      } else {
+        type = valueTypes[i];
+      }
+      row[i] = read(in, type);
+    }
+    return new HopRow(row, length);
+  }
+
+  @Override
+  public void verifyDeterministic() {
+    // The same values always give the same bytes
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof HopRowSchemaCoder coder && Arrays.equals(valueTypes, coder.valueTypes);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(valueTypes);
+  }
+
+  @Override
+  public String toString() {
+    return "HopRowSchemaCoder" + Arrays.toString(valueTypes);
+  }
+
+  /**
+   * Gets valueTypes
+   *
+   * @return value of valueTypes
+   */
+  public int[] getValueTypes() {
+    return valueTypes;
+  }
+
+  /** The value can be written without type since it has the exact class of the layout type. */
+  private boolean matchesLayout(int index, Object object) {
+    if (index >= valueTypes.length) {
+      return false;
+    }
+    return switch (valueTypes[index]) {
+      case IValueMeta.TYPE_STRING -> object instanceof String;
+      case IValueMeta.TYPE_INTEGER -> object instanceof Long;
+      case IValueMeta.TYPE_NUMBER -> object instanceof Double;
+      case IValueMeta.TYPE_BOOLEAN -> object instanceof Boolean;
+      case IValueMeta.TYPE_DATE -> object.getClass() == Date.class;
+      case IValueMeta.TYPE_TIMESTAMP -> object.getClass() == Timestamp.class;
+      case IValueMeta.TYPE_BIGNUMBER -> object.getClass() == BigDecimal.class;
+      case IValueMeta.TYPE_BINARY -> object instanceof byte[];
+      case IValueMeta.TYPE_INET -> object instanceof InetAddress;
+      case IValueMeta.TYPE_AVRO -> object instanceof GenericRecord;
+      default -> false;
+    };
+  }
+
+  private static byte[] readBitmap(InputStream in, int length) throws IOException {
+    byte[] bitmap = new byte[(length + 7) / 8];
+    readFully(in, bitmap);
+    return bitmap;
+  }
+
+  private static boolean isSet(byte[] bitmap, int index) {
+    return (bitmap[index >> 3] & (1 << (index & 7))) != 0;
+  }
+
+  private static void write(OutputStream out, int type, Object object) throws IOException {
+    switch (type) {
+      case IValueMeta.TYPE_STRING:
+        writeBytes(out, ((String) object).getBytes(StandardCharsets.UTF_8));
+        break;
+      case IValueMeta.TYPE_INTEGER:
+        writeZigZag(out, (Long) object);
+        break;
+      case IValueMeta.TYPE_NUMBER:
+        writeLong(out, Double.doubleToLongBits((Double) object));
+        break;
+      case IValueMeta.TYPE_BOOLEAN:
+        out.write(Boolean.TRUE.equals(object) ? 1 : 0);
+        break;
+      case IValueMeta.TYPE_DATE:
+        writeZigZag(out, ((Date) object).getTime());
+        break;
+      case IValueMeta.TYPE_TIMESTAMP:
+        writeZigZag(out, ((Timestamp) object).getTime());
+        VarInt.encode(((Timestamp) object).getNanos(), out);
+        break;
+      case IValueMeta.TYPE_BIGNUMBER:
+        {
+          BigDecimal bigDecimal = (BigDecimal) object;
+          writeZigZag(out, bigDecimal.scale());
+          writeBytes(out, bigDecimal.unscaledValue().toByteArray());
+        }
+        break;
+      case IValueMeta.TYPE_BINARY:
+        writeBytes(out, (byte[]) object);
+        break;
+      case IValueMeta.TYPE_INET:
+        {
+          InetAddress inetAddress = (InetAddress) object;
+          writeBytes(out, inetAddress.getHostName().getBytes(StandardCharsets.UTF_8));
+          writeBytes(out, inetAddress.getAddress());
+        }
+        break;
+      case IValueMeta.TYPE_AVRO:
+        {
+          GenericRecord genericRecord = (GenericRecord) object;
+          try {
+            writeBytes(
+                out, genericRecord.getSchema().toString(false).getBytes(StandardCharsets.UTF_8));
+            ValueMetaAvroRecord valueMeta =
+                new ValueMetaAvroRecord("write", genericRecord.getSchema());
+            DataOutputStream dataOutputStream = new DataOutputStream(out);
+            valueMeta.writeData(dataOutputStream, genericRecord);
+            dataOutputStream.flush();
+          } catch (Exception e) {
+            throw new IOException("Error serializing Avro generic schema and record", e);
+          }
+        }
+        break;
+      default:
+        throw new CoderException(
+            "Data type not supported yet: " + type + " - " + object.getClass().getName());
+    }
+  }
+
+  private static Object read(InputStream in, int type) throws IOException {
+    switch (type) {
+      case IValueMeta.TYPE_STRING:
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+      case IValueMeta.TYPE_INTEGER:
+        return readZigZag(in);
+      case IValueMeta.TYPE_NUMBER:
+        return Double.longBitsToDouble(readLong(in));
+      case IValueMeta.TYPE_BOOLEAN:
+        return readByte(in) != 0;
+      case IValueMeta.TYPE_DATE:
+        return new Date(readZigZag(in));
+      case IValueMeta.TYPE_TIMESTAMP:
+        {
+          Timestamp timestamp = new Timestamp(readZigZag(in));
+          timestamp.setNanos(VarInt.decodeInt(in));
+          return timestamp;
+        }
+      case IValueMeta.TYPE_BIGNUMBER:
+        {
+          int scale = (int) readZigZag(in);
+          return new BigDecimal(new BigInteger(readBytes(in)), scale);
+        }
+      case IValueMeta.TYPE_BINARY:
+        return readBytes(in);
+      case IValueMeta.TYPE_INET:
+        {
+          String hostname = new String(readBytes(in), StandardCharsets.UTF_8);
+          return InetAddress.getByAddress(hostname, readBytes(in));
+        }
+      case IValueMeta.TYPE_AVRO:
+        try {
+          Schema schema =
+              new Schema.Parser().parse(new String(readBytes(in), StandardCharsets.UTF_8));
+          ValueMetaAvroRecord valueMeta = new ValueMetaAvroRecord("read", schema);
+          return valueMeta.readData(new DataInputStream(in));
+        } catch (Exception e) {
+          throw new IOException("Error de-serializing Avro schema and generic record", e);
+        }
+      default:
+        throw new CoderException("Data type not supported yet: " + type);
+    }
+  }
+
+  private static void writeZigZag(OutputStream out, long value) throws IOException {
+    VarInt.encode((value << 1) ^ (value >> 63), out);
+  }
+
+  private static long readZigZag(InputStream in) throws IOException {
+    long value = VarInt.decodeLong(in);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static void writeLong(OutputStream out, long value) throws IOException {
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      out.write((int) (value >>> shift));
+    }
+  }
+
+  private static long readLong(InputStream in) throws IOException {
+    long value = 0;
+    for (int i = 0; i < 8; i++) {
+      value = (value << 8) | readByte(in);
+    }
+    return value;
+  }
+
+  private static void writeBytes(OutputStream out, byte[] bytes) throws IOException {
+    VarInt.encode(bytes.length, out);
+    out.write(bytes);
+  }
+
+  private static byte[] readBytes(InputStream in) throws IOException {
+    byte[] bytes = new byte[VarInt.decodeInt(in)];
+    readFully(in, bytes);
+    return bytes;
+  }
+
+  private static int readByte(InputStream in) throws IOException {
+    int value = in.read();
+    if (value < 0) {
+      throw new CoderException("Unexpected end of stream while decoding a row");
+    }
+    return value;
+  }
+
+  private static void readFully(InputStream in, byte[] bytes) throws IOException {
+    int offset = 0;
+    while (offset < bytes.length) {
+      int read = in.read(bytes, offset, bytes.length - offset);
+      if (read < 0) {
+        throw new CoderException("Unexpected end of stream while decoding a row");
+      }
+      offset += read;
+    }
+  }
+}
@@ -17,6 +17,7 @@
 
 package org.apache.hop.beam.core.transform;
 
+import org.apache.beam.sdk.coders.KvCoder;
 import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.metrics.Metrics;
 import org.apache.beam.sdk.transforms.GroupByKey;
@@ -26,6 +27,7 @@ import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
 import org.apache.hop.beam.core.BeamHop;
 import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.beam.core.coder.HopRowSchemaCoder;
 import org.apache.hop.beam.core.fn.GroupByFn;
 import org.apache.hop.beam.core.fn.HopKeyValueFn;
 import org.apache.hop.core.exception.HopRuntimeException;
@@ -92,8 +94,11 @@ public class GroupByTransform extends PTransform<PCollection<HopRow>, PCollectio
       // Split the HopRow into GroupFields-HopRow and SubjectFields-HopRow
       //
       PCollection<KV<HopRow, HopRow>> groupSubjects =
-          input.apply(
-              ParDo.of(new HopKeyValueFn(rowMetaJson, groupFields, subjects, transformName)));
+          input
+              .apply(ParDo.of(new HopKeyValueFn(rowMetaJson, groupFields, subjects, transformName)))
+              .setCoder(
+                  KvCoder.of(
+                      HopRowSchemaCoder.of(groupRowMeta), HopRowSchemaCoder.of(subjectRowMeta)));
 
       // Now we need to aggregate the groups with a Combine
       GroupByKey<HopRow, HopRow> byKey = GroupByKey.<HopRow, HopRow>create();
@@ -37,6 +37,7 @@ import org.apache.beam.sdk.values.PCollectionList;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hop.beam.core.HopRow;
 import org.apache.hop.beam.core.coder.HopRowCoder;
+import org.apache.hop.beam.core.coder.HopRowSchemaCoder;
 import org.apache.hop.beam.core.util.HopBeamUtil;
 import org.apache.hop.beam.engines.HopPipelineExecutionOptions;
 import org.apache.hop.beam.engines.IBeamPipelineEngineRunConfiguration;
@@ -408,6 +409,8 @@ public class HopPipelineMetaToBeamPipelineConverter {
           null,
           null,
           parentLogChannelId);
+
+      setRowCoders(transformCollectionMap, transformMeta);
     }
   }
 
@@ -623,7 +626,46 @@ public class HopPipelineMetaToBeamPipelineConverter {
             previousTransforms,
             input,
             parentLogChannelId);
+
+        setRowCoders(transformCollectionMap, transformMeta);
+      }
+    }
+  }
+
+  /**
+   * The rows a transform outputs all have the layout of the transform fields. Encode them with a
+   * coder for that layout so the values are written without type tags when Beam shuffles or
+   * checkpoints them. Collections which already have a coder set are left alone.
+   *
+   * @param transformCollectionMap The collections of the transforms handled so far
+   * @param transformMeta The transform that was just handled
+   */
+  private void setRowCoders(
+      Map<String, PCollection<HopRow>> transformCollectionMap, TransformMeta transformMeta)
+      throws HopException {
+    String targetPrefix = HopBeamUtil.createTargetTupleId(transformMeta.getName(), "");
+    HopRowSchemaCoder coder = null;
+    for (Map.Entry<String, PCollection<HopRow>> entry : transformCollectionMap.entrySet()) {
+      String key = entry.getKey();
+      if (!key.equals(transformMeta.getName()) && !key.startsWith(targetPrefix)) {
+        continue;
+      }
+      PCollection<HopRow> collection = entry.getValue();
+      if (isCoderSpecified(collection)) {
+        continue;
+      }
+      if (coder == null) {
+        coder = HopRowSchemaCoder.of(pipelineMeta.getTransformFields(variables, transformMeta));
       }
+      collection.setCoder(coder);
+    }
+  }
+
+  private static boolean isCoderSpecified(PCollection<HopRow> collection) {
+    try {
+      return !(collection.getCoder() instanceof HopRowCoder);
+    } catch (IllegalStateException e) {
+      return false;
     }
   }
 
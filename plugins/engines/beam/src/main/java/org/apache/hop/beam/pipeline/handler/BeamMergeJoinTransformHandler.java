@@ -22,12 +22,14 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import org.apache.beam.sdk.Pipeline;
+import org.apache.beam.sdk.coders.KvCoder;
 import org.apache.beam.sdk.extensions.joinlibrary.Join;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.ParDo;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
 import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.beam.core.coder.HopRowSchemaCoder;
 import org.apache.hop.beam.core.fn.HopKeyValueFn;
 import org.apache.hop.beam.core.fn.MergeJoinAssemblerFn;
 import org.apache.hop.beam.engines.IBeamPipelineEngineRunConfiguration;
@@ -161,6 +163,16 @@ public class BeamMergeJoinTransformHandler extends BeamBaseTransformHandler
     PCollection<KV<HopRow, HopRow>> rightKVPCollection =
         rightPCollection.apply(ParDo.of(rightKVFn));
 
+    // The join groups both sides with the key coder of the left side.
+    // Only use a coder for the key layout if the keys of both sides are encoded the same way.
+    //
+    HopRowSchemaCoder leftKCoder = HopRowSchemaCoder.of(leftKRowMeta);
+    HopRowSchemaCoder rightKCoder = HopRowSchemaCoder.of(rightKRowMeta);
+    if (leftKCoder.equals(rightKCoder)) {
+      leftKVPCollection.setCoder(KvCoder.of(leftKCoder, HopRowSchemaCoder.of(leftVRowMeta)));
+      rightKVPCollection.setCoder(KvCoder.of(rightKCoder, HopRowSchemaCoder.of(rightVRowMeta)));
+    }
+
     PCollection<KV<HopRow, KV<HopRow, HopRow>>> kvpCollection;
 
     // For efficiency of detecting "all null value rows" we send an empty row as null value.
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.core.coder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Encoding and decoding rows with the generic {@link HopRowCoder} and the {@link HopRowSchemaCoder}
+ * for the row layout. The size of an encoded row is printed when a trial starts.
+ *
+ * <p>Run the main method of this class with the test classpath of the plugin.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HopRowCoderBenchmark {
+
+  @Param({"10", "100"})
+  public int nrFields;
+
+  @Param({"HopRowCoder", "HopRowSchemaCoder"})
+  public String coderType;
+
+  private Coder<HopRow> coder;
+  private HopRow hopRow;
+  private byte[] encodedRow;
+  private ByteArrayOutputStream outputStream;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    IRowMeta rowMeta = new RowMeta();
+    Object[] row = new Object[nrFields];
+    for (int i = 0; i < nrFields; i++) {
+      switch (i % 6) {
+        case 0 -> {
+          rowMeta.addValueMeta(new ValueMetaString("string" + i));
+          row[i] = "Value of field " + i;
+        }
+        case 1 -> {
+          rowMeta.addValueMeta(new ValueMetaInteger("integer" + i));
+          row[i] = 1000L * i;
+        }
+        case 2 -> {
+          rowMeta.addValueMeta(new ValueMetaNumber("number" + i));
+          row[i] = i * 1.5;
+        }
+        case 3 -> {
+          rowMeta.addValueMeta(new ValueMetaDate("date" + i));
+          row[i] = new Date(1_600_000_000_000L + i);
+        }
+        case 4 -> {
+          rowMeta.addValueMeta(new ValueMetaBoolean("boolean" + i));
+          row[i] = i % 4 == 0;
+        }
+        default -> {
+          rowMeta.addValueMeta(new ValueMetaBigNumber("bignumber" + i));
+          row[i] = i % 2 == 0 ? null : new BigDecimal("12345.67");
+        }
+      }
+    }
+    hopRow = new HopRow(row);
+    coder =
+        "HopRowSchemaCoder".equals(coderType) ? HopRowSchemaCoder.of(rowMeta) : new HopRowCoder();
+
+    outputStream = new ByteArrayOutputStream(64 * 1024);
+    coder.encode(hopRow, outputStream);
+    encodedRow = outputStream.toByteArray();
+  }
+
+  @Benchmark
+  public int encode() throws IOException {
+    outputStream.reset();
+    coder.encode(hopRow, outputStream);
+    return outputStream.size();
+  }
+
+  @Benchmark
+  public HopRow decode() throws IOException {
+    return coder.decode(new ByteArrayInputStream(encodedRow));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(HopRowCoderBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
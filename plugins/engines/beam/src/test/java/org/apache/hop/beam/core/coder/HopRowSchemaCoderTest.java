@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.core.coder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.util.Date;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaInternetAddress;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HopRowSchemaCoderTest {
+
+  private IRowMeta rowMeta;
+  private HopRowSchemaCoder coder;
+
+  @BeforeEach
+  void setUp() {
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("flag"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    rowMeta.addValueMeta(new ValueMetaTimestamp("timestamp"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("big"));
+    rowMeta.addValueMeta(new ValueMetaBinary("binary"));
+    rowMeta.addValueMeta(new ValueMetaInternetAddress("inet"));
+    coder = HopRowSchemaCoder.of(rowMeta);
+  }
+
+  @Test
+  void testEncodeDecode() throws Exception {
+    Timestamp timestamp = new Timestamp(1_600_000_000_123L);
+    timestamp.setNanos(123_456_789);
+    Object[] row =
+        new Object[] {
+          "Apache Hop é中",
+          -1234567890123L,
+          -0.5,
+          true,
+          new Date(-86_400_000L),
+          timestamp,
+          new BigDecimal("-12345678901234567890.123456789"),
+          new byte[] {0, 1, -1},
+          InetAddress.getByAddress("localhost", new byte[] {127, 0, 0, 1})
+        };
+
+    HopRow decoded = roundTrip(coder, new HopRow(row));
+
+    // Byte arrays are compared by reference in a row
+    //
+    assertArrayEquals((byte[]) row[7], (byte[]) decoded.getRow()[7]);
+    row[7] = null;
+    decoded.getRow()[7] = null;
+    assertEquals(new HopRow(row), decoded);
+    assertEquals(timestamp.getNanos(), ((Timestamp) decoded.getRow()[5]).getNanos());
+    assertEquals(row[6], decoded.getRow()[6]);
+    assertEquals(row[8], decoded.getRow()[8]);
+  }
+
+  @Test
+  void testNullValues() throws Exception {
+    Object[] row = new Object[rowMeta.size()];
+    assertEquals(new HopRow(row), roundTrip(coder, new HopRow(row)));
+
+    row[1] = 5L;
+    row[8] = null;
+    assertEquals(new HopRow(row), roundTrip(coder, new HopRow(row)));
+
+    assertNull(roundTrip(coder, new HopRow()).getRow());
+  }
+
+  @Test
+  void testValuesOutsideTheLayout() throws Exception {
+    Timestamp timestamp = new Timestamp(810311L);
+    Object[] row =
+        new Object[] {
+          12L, "not a number", null, "yes", timestamp, new Date(5L), 1.5, "text", null, "extra", 3L
+        };
+
+    HopRow decoded = roundTrip(coder, new HopRow(row));
+
+    assertEquals(new HopRow(row), decoded);
+    assertEquals(Timestamp.class, decoded.getRow()[4].getClass());
+    assertEquals(Date.class, decoded.getRow()[5].getClass());
+
+    // Shorter rows, like the empty rows of outer joins, are fine too
+    //
+    assertEquals(new HopRow(new Object[0]), roundTrip(coder, new HopRow(new Object[0])));
+    assertEquals(new HopRow(new Object[] {"a"}), roundTrip(coder, new HopRow(new Object[] {"a"})));
+  }
+
+  @Test
+  void testOptionalSize() throws Exception {
+    Object[] row = new Object[] {"a", 1L, 2.0, false, null, null, null, null, null, "x", "y"};
+
+    HopRow decoded = roundTrip(coder, new HopRow(row, 4));
+
+    assertEquals(4, decoded.length());
+    assertEquals(new HopRow(new Object[] {"a", 1L, 2.0, false}), decoded);
+  }
+
+  @Test
+  void testSmallerThanHopRowCoder() throws Exception {
+    Object[] row =
+        new Object[] {
+          "Customer 123",
+          123L,
+          45.67,
+          false,
+          new Date(1_600_000_000_000L),
+          null,
+          new BigDecimal("99.95"),
+          null,
+          null
+        };
+
+    int schemaSize = encode(coder, new HopRow(row)).length;
+    int defaultSize = encode(new HopRowCoder(), new HopRow(row)).length;
+
+    assertTrue(
+        schemaSize * 2 < defaultSize, "schema coder: " + schemaSize + ", default: " + defaultSize);
+  }
+
+  @Test
+  void testEquals() {
+    assertEquals(coder, HopRowSchemaCoder.of(rowMeta.clone()));
+    assertEquals(coder.hashCode(), HopRowSchemaCoder.of(rowMeta.clone()).hashCode());
+
+    IRowMeta other = rowMeta.clone();
+    other.removeValueMeta(0);
+    assertNotEquals(coder, HopRowSchemaCoder.of(other));
+  }
+
+  private static byte[] encode(Coder<HopRow> coder, HopRow hopRow) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    coder.encode(hopRow, out);
+    return out.toByteArray();
+  }
+
+  private static HopRow roundTrip(Coder<HopRow> coder, HopRow hopRow) throws IOException {
+    // Encode twice to make sure the decoder reads exactly one row
+    //
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    coder.encode(hopRow, out);
+    coder.encode(hopRow, out);
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+    HopRow decoded = coder.decode(in);
+    coder.decode(in);
+    assertEquals(0, in.available());
+    return decoded;
+  }
+}
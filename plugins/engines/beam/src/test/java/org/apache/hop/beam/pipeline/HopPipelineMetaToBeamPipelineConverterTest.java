@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.beam.sdk.Pipeline;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.runners.TransformHierarchy;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PValue;
+import org.apache.hop.beam.core.coder.HopRowCoder;
+import org.apache.hop.beam.core.coder.HopRowSchemaCoder;
+import org.apache.hop.beam.transform.PipelineTestBase;
+import org.apache.hop.beam.util.BeamConst;
+import org.apache.hop.beam.util.BeamPipelineMetaUtil;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.junit.jupiter.api.Test;
+
+class HopPipelineMetaToBeamPipelineConverterTest extends PipelineTestBase {
+
+  @Test
+  void testGroupByUsesSchemaCoders() throws Exception {
+    PipelineMeta pipelineMeta =
+        BeamPipelineMetaUtil.generateBeamGroupByPipelineMeta(
+            "io-group-coders", "INPUT", "OUTPUT", metadataProvider);
+    pipelineMeta
+        .findTransform("Group By")
+        .setTransformPluginId(BeamConst.STRING_MEMORY_GROUP_BY_PLUGIN_ID);
+
+    List<Coder<?>> coders = getCollectionCoders(pipelineMeta);
+
+    assertTrue(coders.stream().anyMatch(HopRowSchemaCoder.class::isInstance));
+    assertTrue(coders.stream().anyMatch(this::isSchemaKvCoder));
+    assertFalse(coders.stream().anyMatch(this::usesHopRowCoder));
+  }
+
+  @Test
+  void testMergeJoinUsesSchemaCoders() throws Exception {
+    PipelineMeta pipelineMeta =
+        BeamPipelineMetaUtil.generateMergeJoinPipelineMeta(
+            "io-merge-join-coders", "INPUT", "OUTPUT", metadataProvider);
+    pipelineMeta
+        .findTransform("Merge Join")
+        .setTransformPluginId(BeamConst.STRING_MERGE_JOIN_PLUGIN_ID);
+
+    List<Coder<?>> coders = getCollectionCoders(pipelineMeta);
+
+    assertTrue(coders.stream().anyMatch(HopRowSchemaCoder.class::isInstance));
+    assertTrue(coders.stream().anyMatch(this::isSchemaKvCoder));
+    assertFalse(coders.stream().anyMatch(this::usesHopRowCoder));
+  }
+
+  /** Convert the pipeline without running it and return the coders of all the collections */
+  private List<Coder<?>> getCollectionCoders(PipelineMeta pipelineMeta) throws Exception {
+    pipelineMeta.lookupReferencesAfterLoading();
+
+    HopPipelineMetaToBeamPipelineConverter converter =
+        new HopPipelineMetaToBeamPipelineConverter(
+            variables,
+            pipelineMeta,
+            metadataProvider,
+            NAME_RUN_CONFIG,
+            Collections.emptyList(),
+            null);
+    Pipeline pipeline = converter.createPipeline();
+
+    List<Coder<?>> coders = new ArrayList<>();
+    pipeline.traverseTopologically(
+        new Pipeline.PipelineVisitor.Defaults() {
+          @Override
+          public void visitValue(PValue value, TransformHierarchy.Node producer) {
+            if (value instanceof PCollection<?> collection) {
+              coders.add(collection.getCoder());
+            }
+          }
+        });
+    return coders;
+  }
+
+  private boolean isSchemaKvCoder(Coder<?> coder) {
+    return coder instanceof KvCoder<?, ?> kvCoder
+        && kvCoder.getKeyCoder() instanceof HopRowSchemaCoder
+        && kvCoder.getValueCoder() instanceof HopRowSchemaCoder;
+  }
+
+  private boolean usesHopRowCoder(Coder<?> coder) {
+    if (coder instanceof HopRowCoder) {
+      return true;
+    }
+    List<? extends Coder<?>> arguments = coder.getCoderArguments();
+    return arguments != null && arguments.stream().anyMatch(this::usesHopRowCoder);
+  }
+}
@@ -60,8 +60,8 @@ public class Calculator extends BaseTransform<CalculatorMeta, CalculatorData> {
   @Override
   public boolean processRow() throws HopException {
 
-    Object[] r = getRow(); // get row, set busy!
-    if (r == null) { // no more input to be expected...
+    List<Object[]> rows = getRows(getRowBatchSize()); // get rows, set busy!
+    if (rows == null) { // no more input to be expected...
       setOutputDone();
       data.clearValuesMetaMapping();
       return false;
@@ -161,36 +161,49 @@ public class Calculator extends BaseTransform<CalculatorMeta, CalculatorData> {
       }
     }
 
-    if (isRowLevel()) {
-      logRowlevel(
-          BaseMessages.getString(PKG, "Calculator.Log.ReadRow")
-              + getLinesRead()
-              + " : "
-              + getInputRowMeta().getString(r));
-    }
-
-    try {
-      Object[] row = calcFields(getInputRowMeta(), r);
-      putRow(data.getOutputRowMeta(), row); // copy row to possible alternate rowset(s).
-
+    List<Object[]> outputRows = new ArrayList<>(rows.size());
+    long linesRead = getLinesRead() - rows.size();
+    for (Object[] r : rows) {
+      linesRead++;
       if (isRowLevel()) {
-        logRowlevel("Wrote row #" + getLinesWritten() + " : " + getInputRowMeta().getString(r));
+        logRowlevel(
+            BaseMessages.getString(PKG, "Calculator.Log.ReadRow")
+                + linesRead
+                + " : "
+                + getInputRowMeta().getString(r));
       }
-      if (checkFeedback(getLinesRead()) && isBasic()) {
-        logBasic(BaseMessages.getString(PKG, "Calculator.Log.Linenr", "" + getLinesRead()));
-      }
-    } catch (HopFileNotFoundException e) {
-      if (meta.isFailIfNoFile()) {
-        logError(BaseMessages.getString(PKG, "Calculator.Log.NoFile") + " : " + e.getFilepath());
-        setErrors(getErrors() + 1);
-        return false;
+
+      try {
+        outputRows.add(calcFields(getInputRowMeta(), r));
+
+        if (isRowLevel()) {
+          logRowlevel(
+              "Wrote row #"
+                  + (getLinesWritten() + outputRows.size())
+                  + " : "
+                  + getInputRowMeta().getString(r));
+        }
+      } catch (HopFileNotFoundException e) {
+        if (meta.isFailIfNoFile()) {
+          // Pass on what we calculated before the failing row
+          putRows(data.getOutputRowMeta(), outputRows);
+          logError(BaseMessages.getString(PKG, "Calculator.Log.NoFile") + " : " + e.getFilepath());
+          setErrors(getErrors() + 1);
+          return false;
+        }
+      } catch (HopException e) {
+        logError(
+            BaseMessages.getString(
+                PKG, "Calculator.ErrorInTransformRunning" + " : " + e.getMessage()));
+        throw new HopTransformException(
+            BaseMessages.getString(PKG, "Calculator.ErrorInTransformRunning"), e);
       }
-    } catch (HopException e) {
-      logError(
-          BaseMessages.getString(
-              PKG, "Calculator.ErrorInTransformRunning" + " : " + e.getMessage()));
-      throw new HopTransformException(
-          BaseMessages.getString(PKG, "Calculator.ErrorInTransformRunning"), e);
+    }
+
+    putRows(data.getOutputRowMeta(), outputRows); // copy rows to possible alternate rowset(s).
+
+    if (checkFeedback(linesRead - rows.size(), linesRead) && isBasic()) {
+      logBasic(BaseMessages.getString(PKG, "Calculator.Log.Linenr", "" + linesRead));
     }
     return true;
   }
@@ -19,6 +19,9 @@ package org.apache.hop.pipeline.transforms.calculator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -36,6 +39,7 @@ import java.util.List;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.HopEnvironment;
 import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.logging.ILoggingObject;
@@ -930,6 +934,78 @@ class CalculatorUnitTest {
     }
   }
 
+  @Test
+  void testRowsAreCalculatedInBatches() throws Exception {
+    IRowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaInteger("a"));
+    inputRowMeta.addValueMeta(new ValueMetaInteger("b"));
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 0; i < 2500; i++) {
+      rows.add(new Object[] {i, 2L});
+    }
+    IRowSet output = new QueueRowSet();
+
+    CalculatorMeta meta = new CalculatorMeta();
+    meta.getFunctions()
+        .add(
+            new CalculatorMetaFunction(
+                "sum",
+                CalculationType.ADD,
+                "a",
+                "b",
+                null,
+                "Integer",
+                0,
+                0,
+                "",
+                "",
+                "",
+                "",
+                false));
+    Calculator calculator =
+        new Calculator(
+            smh.transformMeta, meta, new CalculatorData(), 0, smh.pipelineMeta, smh.pipeline);
+    calculator.addRowSetToInputRowSets(TransformMockHelper.getInputRowSet(inputRowMeta, rows));
+    calculator.addRowSetToOutputRowSets(output);
+    List<Object[]> read = new ArrayList<>();
+    List<Object[]> written = new ArrayList<>();
+    calculator.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowReadEvent(IRowMeta rowMeta, Object[] row) {
+            read.add(row);
+          }
+
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            written.add(row);
+          }
+        });
+    calculator.init();
+
+    int calls = 0;
+    while (calculator.processRow()) {
+      calls++;
+    }
+
+    // The rows were read and written in a few batches
+    assertTrue(calls < 10, "processRow() calls: " + calls);
+    assertEquals(rows.size(), calculator.getLinesRead());
+    assertEquals(rows.size(), calculator.getLinesWritten());
+    assertEquals(rows.size(), read.size());
+    assertEquals(rows.size(), written.size());
+
+    // Every row is calculated in the input order
+    for (int i = 0; i < rows.size(); i++) {
+      assertSame(rows.get(i), read.get(i));
+      Object[] row = output.getRowImmediate();
+      assertSame(row, written.get(i));
+      assertEquals((long) i, row[0]);
+      assertEquals(i + 2L, row[2]);
+    }
+    assertNull(output.getRowImmediate());
+  }
+
   @Test
   void calculatorReminder() throws Exception {
     assertCalculatorReminder(
@@ -20,13 +20,11 @@ package org.apache.hop.pipeline.transforms.combinationlookup;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import org.apache.hop.core.Const;
-import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.cache.LookupCache;
+import org.apache.hop.core.cache.LookupCacheKey;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.HopConfigException;
@@ -99,7 +97,7 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
     }
   }
 
-  private Long lookupInCache(IRowMeta rowMeta, Object[] row) {
+  private Long lookupInCache(IRowMeta rowMeta, Object[] row) throws HopValueException {
     // Short circuit if cache is disabled.
     if (meta.getCacheSize() == -1) {
       return null;
@@ -107,7 +105,7 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
 
     // try to find the row in the cache...
     //
-    return data.cache.get(new RowMetaAndData(rowMeta, row));
+    return data.cache.get(LookupCacheKey.of(rowMeta, row));
   }
 
   /**
@@ -129,71 +127,9 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
     }
 
     // store it in the cache if needed.
-    data.cache.put(new RowMetaAndData(rowMeta, row), tk);
-
-    // check if the size is not too big...
-    // Allow for a buffer overrun of 20% and then remove those 20% in one go.
-    // Just to keep performance in track.
+    // If the cache is full the combinations which were used the least are evicted.
     //
-    int tenPercent = meta.getCacheSize() / 10;
-    if (meta.getCacheSize() > 0 && data.cache.size() > meta.getCacheSize() + tenPercent) {
-      // Which cache entries do we delete here?
-      // We delete those with the lowest technical key...
-      // Those would arguably be the "oldest" dimension entries.
-      // Oh well... Nothing is going to be perfect here...
-      //
-      // Getting the lowest 20% requires some kind of sorting algorithm and I'm not sure we want to
-      // do that.
-      // Sorting is slow and even in the best case situation we need to do 2 passes over the cache
-      // entries...
-      //
-      // Perhaps we should get 20% random values and delete everything below the lowest but one TK.
-      //
-      List<RowMetaAndData> keys = new ArrayList<>(data.cache.keySet());
-      int sizeBefore = keys.size();
-      List<Long> samples = new ArrayList<>();
-
-      // Take 10 sample technical keys....
-      int transformsize = keys.size() / 5;
-      if (transformsize < 1) {
-        transformsize = 1; // make sure we have no endless loop
-      }
-      for (int i = 0; i < keys.size(); i += transformsize) {
-        RowMetaAndData key = keys.get(i);
-        Long value = data.cache.get(key);
-        if (value != null) {
-          samples.add(value);
-        }
-      }
-      // Sort these 5 elements...
-      Collections.sort(samples);
-
-      // What is the smallest?
-      // Take the second, not the fist in the list, otherwise we would be removing a single entry =
-      // not good.
-      if (samples.size() > 1) {
-        data.smallestCacheKey = samples.get(1);
-      } else { // except when there is only one sample
-        data.smallestCacheKey = samples.get(0);
-      }
-
-      // Remove anything in the cache <= smallest.
-      // This makes it almost single pass...
-      // This algorithm is not 100% correct, but I guess it beats sorting the whole cache all the
-      // time.
-      //
-      for (RowMetaAndData key : keys) {
-        Long value = data.cache.get(key);
-        if (value != null && value <= data.smallestCacheKey) {
-          data.cache.remove(key); // this one has to go.
-        }
-      }
-
-      int sizeAfter = data.cache.size();
-      if (isDetailed()) {
-        logDetailed("Reduced the lookup cache from " + sizeBefore + " to " + sizeAfter + " rows.");
-      }
-    }
+    data.cache.put(LookupCacheKey.of(rowMeta, row), tk);
 
     if (isRowLevel()) {
       logRowlevel("Cache store: key=" + rowMeta.getString(row) + "    key=" + tk);
@@ -699,11 +635,12 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
       data.realSchemaName = resolve(meta.getSchemaName());
       data.realTableName = resolve(meta.getTableName());
 
-      if (meta.getCacheSize() > 0) {
-        data.cache = HashMap.newHashMap((int) (meta.getCacheSize() * 1.5));
-      } else {
-        data.cache = new HashMap<>();
-      }
+      data.cache =
+          LookupCache.<Long>builder()
+              .maximumSize(Math.max(0, meta.getCacheSize()))
+              .valueWeigher(tk -> 24L)
+              .withVariables(this)
+              .build();
       DatabaseMeta databaseMeta =
           getPipelineMeta().findDatabase(meta.getConnectionName(), variables);
       if (databaseMeta == null) {
@@ -752,6 +689,14 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
       }
     }
 
+    if (data.cache != null) {
+      data.cache.snapMetrics(getLogChannel());
+      if (isDetailed()) {
+        logDetailed(data.cache.getStatisticsDescription());
+      }
+      data.cache = null;
+    }
+
     super.dispose();
   }
 
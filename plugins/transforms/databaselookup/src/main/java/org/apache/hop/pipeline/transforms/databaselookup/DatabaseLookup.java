@@ -18,16 +18,23 @@
 package org.apache.hop.pipeline.transforms.databaselookup;
 
 import com.google.common.annotations.VisibleForTesting;
+import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
@@ -48,6 +55,17 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
 
   private static final Class<?> PKG = DatabaseLookupMeta.class;
 
+  /** Receives the rows of a batch, in the order of the input rows */
+  @FunctionalInterface
+  interface IBatchRowHandler {
+    /**
+     * @param row the input row
+     * @param outputRow the row to pass on, null if the row isn't passed on
+     * @throws HopException in case the row can't be passed on
+     */
+    void handleRow(Object[] row, Object[] outputRow) throws HopException;
+  }
+
   public DatabaseLookup(
       TransformMeta transformMeta,
       DatabaseLookupMeta meta,
@@ -67,39 +85,7 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
    */
   @VisibleForTesting
   synchronized Object[] lookupValues(IRowMeta inputRowMeta, Object[] row) throws HopException {
-    Object[] outputRow = RowDataUtil.resizeArray(row, data.outputRowMeta.size());
-
-    Object[] lookupRow = new Object[data.lookupMeta.size()];
-    int lookupIndex = 0;
-
-    for (int i = 0; i < meta.getLookup().getKeyFields().size(); i++) {
-      if (data.keynrs[i] >= 0) {
-        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs[i]);
-        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
-        lookupRow[lookupIndex] = row[data.keynrs[i]];
-
-        // Try to convert type if needed
-        if (input.getType() != value.getType()
-            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
-          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
-          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
-        }
-        lookupIndex++;
-      }
-      if (data.keynrs2[i] >= 0) {
-        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs2[i]);
-        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
-        lookupRow[lookupIndex] = row[data.keynrs2[i]];
-
-        // Try to convert type if needed
-        if (input.getType() != value.getType()
-            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
-          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
-          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
-        }
-        lookupIndex++;
-      }
-    }
+    Object[] lookupRow = getLookupRow(inputRowMeta, row);
 
     Object[] add;
     boolean cacheNow = false;
@@ -135,80 +121,385 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     }
 
     if (add == null) { // nothing was found, unknown code: add default values
-      if (meta.getLookup().isEatingRowOnLookupFailure()) {
+      add = getNotFoundValues(row);
+      if (add == null) {
         return null;
       }
-      if (getTransformMeta().isDoingErrorHandling()) {
-        putError(getInputRowMeta(), row, 1L, "No lookup found", null, "DBL001");
+    } else {
+      if (!cacheHit) {
+        incrementLinesInput();
+      }
+      completeFoundValues(add, cacheHit, data.db.getReturnRowMeta(), 0);
+    }
 
-        // return false else we would still be processed.
-        return null;
+    // Store in cache if we need to!
+    // If we already loaded all data into the cache, storing more makes no sense.
+    //
+    if (meta.isCached() && cacheNow && !meta.isLoadingAllDataInCache() && data.allEquals) {
+      data.cache.storeRowInCache(meta, data.lookupMeta, lookupRow, add);
+    }
+
+    return getOutputRow(inputRowMeta, row, add);
+  }
+
+  /**
+   * Performs the lookup of a number of input rows at once. The distinct keys which aren't in the
+   * cache are looked up with a single query, the results are matched with the keys in memory. Only
+   * used when all the key conditions are "=" or "IS NULL".
+   *
+   * <p>The rows are handed to the handler in input order. A row which goes to the error handling is
+   * handed over, without an output row, right after it is sent there so that it doesn't get ahead
+   * of the rows before it.
+   *
+   * @param inputRowMeta The metadata of the input rows
+   * @param rows The rows to use as lookup data
+   * @param handler Receives every input row with its output row
+   * @throws HopException In case something goes wrong.
+   */
+  @VisibleForTesting
+  synchronized void lookupValuesBatch(
+      IRowMeta inputRowMeta, List<Object[]> rows, IBatchRowHandler handler) throws HopException {
+    Object[][] adds = new Object[rows.size()][];
+    RowMetaAndData[] keys = new RowMetaAndData[rows.size()];
+
+    // The distinct keys we need to go to the database for, null as long as nothing was found
+    //
+    Map<RowMetaAndData, Object[]> fetched = new LinkedHashMap<>();
+    for (int r = 0; r < rows.size(); r++) {
+      Object[] lookupRow = getLookupRow(inputRowMeta, rows.get(r));
+      keys[r] = new RowMetaAndData(data.lookupMeta, lookupRow);
+      if (meta.isCached()) {
+        adds[r] = data.cache.getRowFromCache(data.lookupMeta, lookupRow);
       }
+      if (adds[r] == null) {
+        fetched.putIfAbsent(keys[r], null);
+      }
+    }
 
-      if (isRowLevel()) {
-        logRowlevel(BaseMessages.getString(PKG, "DatabaseLookup.Log.NoResultsFoundAfterLookup"));
+    Set<RowMetaAndData> ambiguous = new HashSet<>();
+    if (!fetched.isEmpty()) {
+      fetchBatch(fetched, ambiguous);
+    }
+
+    for (int r = 0; r < rows.size(); r++) {
+      Object[] row = rows.get(r);
+      Object[] add = adds[r];
+      if (add == null) {
+        if (ambiguous.contains(keys[r])) {
+          String message =
+              "Only 1 row was expected as a result of a lookup, and at least 2 were found!";
+          if (!getTransformMeta().isDoingErrorHandling()) {
+            throw new HopDatabaseException(message);
+          }
+          putError(getInputRowMeta(), row, 1, message, null, "DBLOOKUPD001");
+          handler.handleRow(row, null);
+          continue;
+        }
+        add = fetched.get(keys[r]);
+        if (add == null) {
+          add = getNotFoundValues(row);
+          if (add == null) {
+            handler.handleRow(row, null);
+            continue;
+          }
+          // The next rows with the same key get the same default values
+          //
+          fetched.put(keys[r], add);
+          if (meta.isCached()) {
+            data.cache.storeRowInCache(meta, data.lookupMeta, keys[r].getData(), add);
+          }
+        }
+      }
+      handler.handleRow(row, getOutputRow(inputRowMeta, row, add));
+    }
+  }
+
+  /**
+   * Looks up the given keys in the database with a single query. The first row found for a key is
+   * stored in the map and in the cache.
+   *
+   * @param fetched The keys to look up, the values found are stored in it
+   * @param ambiguous The keys for which more than one row was found while only one was expected
+   */
+  private void fetchBatch(Map<RowMetaAndData, Object[]> fetched, Set<RowMetaAndData> ambiguous)
+      throws HopException {
+    List<RowMetaAndData> queryKeys = new ArrayList<>();
+    for (RowMetaAndData key : fetched.keySet()) {
+      // A null value never equals anything in SQL, no need to ask the database
+      if (!Arrays.asList(key.getData()).contains(null)) {
+        queryKeys.add(key);
       }
+    }
+    if (queryKeys.isEmpty()) {
+      return;
+    }
 
-      add = new Object[data.returnMeta.size()];
-      for (int i = 0; i < meta.getLookup().getReturnValues().size(); i++) {
-        if (data.nullif[i] != null) {
-          add[i] = data.nullif[i];
-        } else {
-          add[i] = null;
+    int keyCount = data.lookupMeta.size();
+    if (data.batchSql == null) {
+      initBatchLookup();
+    }
+
+    // Always pass all the parameters, repeating the last key, so the database sees a single
+    // statement
+    //
+    Object[] params = new Object[data.batchParamsMeta.size()];
+    for (int k = 0; k < data.batchSize; k++) {
+      Object[] keyData = queryKeys.get(Math.min(k, queryKeys.size() - 1)).getData();
+      System.arraycopy(keyData, 0, params, k * keyCount, keyCount);
+    }
+
+    if (isRowLevel()) {
+      logRowlevel(BaseMessages.getString(PKG, "DatabaseLookup.Log.BatchLookup", queryKeys.size()));
+    }
+
+    List<Object[]> results =
+        data.db.getRows(
+            data.batchSql, data.batchParamsMeta, params, ResultSet.FETCH_FORWARD, false, 0, null);
+    IRowMeta returnRowMeta = data.db.getReturnRowMeta();
+
+    // Match the rows with the keys. The database might consider values equal which aren't equal
+    // in Java (case-insensitive collations, trailing spaces, ...): those keys are looked up one by
+    // one afterward.
+    //
+    boolean allMatched = true;
+    Set<RowMetaAndData> found = new HashSet<>();
+    for (Object[] result : results) {
+      incrementLinesInput();
+      RowMetaAndData key = getResultKey(returnRowMeta, result);
+      if (key == null || !fetched.containsKey(key)) {
+        allMatched = false;
+      } else if (!found.add(key)) {
+        // Rows are sorted by the ORDER BY clause: the first one wins
+        if (meta.getLookup().isFailingOnMultipleResults()) {
+          ambiguous.add(key);
         }
+      } else {
+        Object[] add = new Object[data.returnMeta.size()];
+        System.arraycopy(result, keyCount, add, 0, add.length);
+        completeFoundValues(add, false, returnRowMeta, keyCount);
+        storeFetched(fetched, key, add);
       }
-    } else {
-      if (isRowLevel()) {
-        logRowlevel(
-            BaseMessages.getString(PKG, "DatabaseLookup.Log.FoundResultsAfterLookup")
-                + Arrays.toString(add));
+    }
+
+    if (!allMatched) {
+      for (RowMetaAndData key : queryKeys) {
+        if (!found.contains(key)) {
+          data.db.setValuesLookup(data.lookupMeta, key.getData());
+          Object[] add = data.db.getLookup(meta.getLookup().isFailingOnMultipleResults());
+          if (add != null) {
+            incrementLinesInput();
+            completeFoundValues(add, false, data.db.getReturnRowMeta(), 0);
+            storeFetched(fetched, key, add);
+          }
+        }
       }
+    }
+  }
 
-      // Trim the fields if required
-      for (int i : data.trimIndexes) {
-        IValueMeta expected = data.returnMeta.getValueMeta(i);
-        add[i] =
-            expected.convertDataFromString(
-                (String) add[i],
-                expected,
-                "",
-                "",
-                ValueMetaBase.getTrimTypeByCode(data.returnTrimTypes[i]));
+  /** Gets the key of a row returned by the database, null if it can't be converted */
+  private RowMetaAndData getResultKey(IRowMeta returnRowMeta, Object[] result) {
+    Object[] keyData = new Object[data.lookupMeta.size()];
+    try {
+      for (int i = 0; i < keyData.length; i++) {
+        keyData[i] =
+            data.lookupMeta.getValueMeta(i).convertData(returnRowMeta.getValueMeta(i), result[i]);
       }
+    } catch (HopValueException e) {
+      return null;
+    }
+    return new RowMetaAndData(data.lookupMeta, keyData);
+  }
 
-      // Only verify the data types if the data comes from the DB, NOT when we have a cache hit
-      // In that case, we already know the data type is OK.
-      if (!cacheHit) {
-        incrementLinesInput();
+  private void storeFetched(Map<RowMetaAndData, Object[]> fetched, RowMetaAndData key, Object[] add)
+      throws HopException {
+    fetched.put(key, add);
+    if (meta.isCached()) {
+      data.cache.storeRowInCache(meta, data.lookupMeta, key.getData(), add);
+    }
+  }
 
-        // The assumption here is that the types are in the same order
-        // as the returned lookup row, but since we make the lookup row
-        // that should not be a problem.
-        //
-        int[] types = data.returnValueTypes;
-        for (int i = 0; i < types.length; i++) {
-          IValueMeta returned = data.db.getReturnRowMeta().getValueMeta(i);
-          IValueMeta expected = data.returnMeta.getValueMeta(i);
-
-          if (returned != null && types[i] > 0 && types[i] != returned.getType()) {
-            // Set the type to the default return type
-            add[i] = expected.convertData(returned, add[i]);
-          }
+  /**
+   * Builds the query used to look up a batch of keys: <code>
+   * SELECT keys, return values FROM table WHERE key IN (?, ?, ...)</code> for a single key or
+   * <code>(key1 = ? AND key2 = ?) OR (...)</code> for multiple keys.
+   */
+  private void initBatchLookup() {
+    DatabaseMeta databaseMeta = getPipelineMeta().findDatabase(meta.getConnection(), variables);
+    Lookup lookup = meta.getLookup();
+
+    List<String> equalFields = new ArrayList<>();
+    List<String> nullFields = new ArrayList<>();
+    for (KeyField keyField : lookup.getKeyFields()) {
+      if ("=".equals(keyField.getCondition())) {
+        equalFields.add(databaseMeta.quoteField(keyField.getTableField()));
+      } else {
+        nullFields.add(databaseMeta.quoteField(keyField.getTableField()));
+      }
+    }
+
+    StringBuilder sql = new StringBuilder("SELECT ");
+    sql.append(String.join(", ", equalFields));
+    for (ReturnValue returnValue : lookup.getReturnValues()) {
+      sql.append(", ").append(databaseMeta.quoteField(returnValue.getTableField()));
+    }
+    sql.append(" FROM ")
+        .append(
+            databaseMeta.getQuotedSchemaTableCombination(
+                this, meta.getSchemaName(), meta.getTableName()))
+        .append(" WHERE ");
+    for (String nullField : nullFields) {
+      sql.append(nullField).append(" IS NULL AND ");
+    }
+
+    RowMeta paramsMeta = new RowMeta();
+    if (equalFields.size() == 1) {
+      sql.append(equalFields.get(0)).append(" IN (");
+      for (int k = 0; k < data.batchSize; k++) {
+        sql.append(k > 0 ? ", ?" : "?");
+        paramsMeta.addValueMeta(data.lookupMeta.getValueMeta(0).clone());
+      }
+      sql.append(")");
+    } else {
+      sql.append("(");
+      for (int k = 0; k < data.batchSize; k++) {
+        sql.append(k > 0 ? " OR (" : "(");
+        for (int i = 0; i < equalFields.size(); i++) {
+          sql.append(i > 0 ? " AND " : "").append(equalFields.get(i)).append(" = ?");
+          paramsMeta.addValueMeta(data.lookupMeta.getValueMeta(i).clone());
         }
+        sql.append(")");
       }
+      sql.append(")");
     }
 
-    // Store in cache if we need to!
-    // If we already loaded all data into the cache, storing more makes no sense.
-    //
-    if (meta.isCached() && cacheNow && !meta.isLoadingAllDataInCache() && data.allEquals) {
-      data.cache.storeRowInCache(meta, data.lookupMeta, lookupRow, add);
+    if (StringUtils.isNotEmpty(lookup.getOrderByClause())) {
+      sql.append(" ORDER BY ").append(lookup.getOrderByClause());
+    }
+
+    data.batchSql = sql.toString();
+    data.batchParamsMeta = paramsMeta;
+  }
+
+  /** Gets the key values from an input row, converted to the types of the table fields */
+  private Object[] getLookupRow(IRowMeta inputRowMeta, Object[] row) throws HopException {
+    Object[] lookupRow = new Object[data.lookupMeta.size()];
+    int lookupIndex = 0;
+
+    for (int i = 0; i < meta.getLookup().getKeyFields().size(); i++) {
+      if (data.keynrs[i] >= 0) {
+        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs[i]);
+        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
+        lookupRow[lookupIndex] = row[data.keynrs[i]];
+
+        // Try to convert type if needed
+        if (input.getType() != value.getType()
+            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
+          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
+          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+        }
+        lookupIndex++;
+      }
+      if (data.keynrs2[i] >= 0) {
+        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs2[i]);
+        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
+        lookupRow[lookupIndex] = row[data.keynrs2[i]];
+
+        // Try to convert type if needed
+        if (input.getType() != value.getType()
+            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
+          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
+          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+        }
+        lookupIndex++;
+      }
+    }
+    return lookupRow;
+  }
+
+  /**
+   * Handles a failed lookup.
+   *
+   * @return the default values, null if the row is not passed on
+   */
+  private Object[] getNotFoundValues(Object[] row) throws HopException {
+    if (meta.getLookup().isEatingRowOnLookupFailure()) {
+      return null;
+    }
+    if (getTransformMeta().isDoingErrorHandling()) {
+      putError(getInputRowMeta(), row, 1L, "No lookup found", null, "DBL001");
+
+      // return false else we would still be processed.
+      return null;
+    }
+
+    if (isRowLevel()) {
+      logRowlevel(BaseMessages.getString(PKG, "DatabaseLookup.Log.NoResultsFoundAfterLookup"));
+    }
+
+    Object[] add = new Object[data.returnMeta.size()];
+    for (int i = 0; i < meta.getLookup().getReturnValues().size(); i++) {
+      if (data.nullif[i] != null) {
+        add[i] = data.nullif[i];
+      } else {
+        add[i] = null;
+      }
+    }
+    return add;
+  }
+
+  /**
+   * Trims the values found and converts them to the return types.
+   *
+   * @param add the values found
+   * @param cacheHit true if the values come from the cache rather than from the database
+   * @param returnRowMeta the metadata of the rows returned by the database
+   * @param offset the index of the first return value in the rows returned by the database
+   */
+  private void completeFoundValues(
+      Object[] add, boolean cacheHit, IRowMeta returnRowMeta, int offset) throws HopException {
+    if (isRowLevel()) {
+      logRowlevel(
+          BaseMessages.getString(PKG, "DatabaseLookup.Log.FoundResultsAfterLookup")
+              + Arrays.toString(add));
+    }
+
+    // Trim the fields if required
+    for (int i : data.trimIndexes) {
+      IValueMeta expected = data.returnMeta.getValueMeta(i);
+      add[i] =
+          expected.convertDataFromString(
+              (String) add[i],
+              expected,
+              "",
+              "",
+              ValueMetaBase.getTrimTypeByCode(data.returnTrimTypes[i]));
+    }
+
+    // Only verify the data types if the data comes from the DB, NOT when we have a cache hit
+    // In that case, we already know the data type is OK.
+    if (!cacheHit) {
+      // The assumption here is that the types are in the same order
+      // as the returned lookup row, but since we make the lookup row
+      // that should not be a problem.
+      //
+      int[] types = data.returnValueTypes;
+      for (int i = 0; i < types.length; i++) {
+        IValueMeta returned = returnRowMeta.getValueMeta(offset + i);
+        IValueMeta expected = data.returnMeta.getValueMeta(i);
+
+        if (returned != null && types[i] > 0 && types[i] != returned.getType()) {
+          // Set the type to the default return type
+          add[i] = expected.convertData(returned, add[i]);
+        }
+      }
     }
+  }
 
+  private Object[] getOutputRow(IRowMeta inputRowMeta, Object[] row, Object[] add) {
+    Object[] outputRow = RowDataUtil.resizeArray(row, data.outputRowMeta.size());
     for (int i = 0; i < data.returnMeta.size(); i++) {
       outputRow[inputRowMeta.size() + i] = add[i];
     }
-
     return outputRow;
   }
 
@@ -311,6 +602,9 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
   public boolean processRow() throws HopException {
     Object[] r = getRow(); // Get row from input rowset & set row busy!
     if (r == null) { // no more input to be expected...
+      if (data.batchRows != null && !data.batchRows.isEmpty() && !processBatch()) {
+        return false;
+      }
       setOutputDone();
       return false;
     }
@@ -403,7 +697,12 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       }
 
       if (meta.isCached()) {
-        data.cache = DefaultCache.newCache(data, meta.getCacheSize());
+        // When all the data is loaded the cache must never forget a row
+        //
+        data.cache =
+            meta.isLoadingAllDataInCache()
+                ? DefaultCache.newCache(data, 0)
+                : DefaultCache.newCache(data, meta.getCacheSize(), this);
       }
 
       determineFieldsTypesQueryingDb();
@@ -430,6 +729,8 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       if (meta.isCached() && meta.isLoadingAllDataInCache()) {
         loadAllTableDataIntoTheCache();
       }
+
+      initBatching();
     }
 
     if (isRowLevel()) {
@@ -438,23 +739,15 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
               + getInputRowMeta().getString(r));
     }
 
+    if (data.batchRows != null) {
+      data.batchRows.add(r);
+      return data.batchRows.size() < data.batchSize || processBatch();
+    }
+
     try {
       // add new lookup values to the row
       Object[] outputRow = lookupValues(getInputRowMeta(), r);
-
-      if (outputRow != null) {
-        // copy row to output rowset(s)
-        putRow(data.outputRowMeta, outputRow);
-
-        if (isRowLevel()) {
-          logRowlevel(
-              BaseMessages.getString(PKG, "DatabaseLookup.Log.WroteRowToNextTransform")
-                  + getInputRowMeta().getString(r));
-        }
-        if (checkFeedback(getLinesRead()) && isBasic()) {
-          logBasic("linenr " + getLinesRead());
-        }
-      }
+      putLookupRow(r, outputRow);
     } catch (HopException e) {
       if (getTransformMeta().isDoingErrorHandling()) {
         putError(getInputRowMeta(), r, 1, e.getMessage(), null, "DBLOOKUPD001");
@@ -472,6 +765,93 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     return true;
   }
 
+  /**
+   * Looks up the buffered rows and passes them on in the order in which they were read.
+   *
+   * @return false if the transform has to stop
+   */
+  private boolean processBatch() throws HopException {
+    List<Object[]> rows = data.batchRows;
+    data.batchRows = new ArrayList<>(data.batchSize);
+    int[] handled = {0};
+    try {
+      lookupValuesBatch(
+          getInputRowMeta(),
+          rows,
+          (row, outputRow) -> {
+            putLookupRow(row, outputRow);
+            handled[0]++;
+          });
+    } catch (HopException e) {
+      if (getTransformMeta().isDoingErrorHandling()) {
+        // The rows which were passed on already stay where they are
+        //
+        for (Object[] row : rows.subList(handled[0], rows.size())) {
+          putError(getInputRowMeta(), row, 1, e.getMessage(), null, "DBLOOKUPD001");
+        }
+      } else {
+        logError(
+            BaseMessages.getString(PKG, "DatabaseLookup.ERROR003.UnexpectedErrorDuringProcessing")
+                + e.getMessage());
+        setErrors(1);
+        stopAll();
+        setOutputDone(); // signal end to receiver(s)
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void putLookupRow(Object[] r, Object[] outputRow) throws HopException {
+    if (outputRow != null) {
+      // copy row to output rowset(s)
+      putRow(data.outputRowMeta, outputRow);
+
+      if (isRowLevel()) {
+        logRowlevel(
+            BaseMessages.getString(PKG, "DatabaseLookup.Log.WroteRowToNextTransform")
+                + getInputRowMeta().getString(r));
+      }
+      if (checkFeedback(getLinesRead()) && isBasic()) {
+        logBasic("linenr " + getLinesRead());
+      }
+    }
+  }
+
+  /**
+   * Rows are looked up in batches when a batch size is set, the table isn't loaded into the cache
+   * entirely and all the key conditions are "=" on a single input field or "IS NULL" without an
+   * input field. At least one key has to be "=".
+   */
+  @VisibleForTesting
+  void initBatching() {
+    int batchSize = meta.getBatchSize();
+    if (batchSize <= 1) {
+      return;
+    }
+    boolean batchable = !(meta.isCached() && meta.isLoadingAllDataInCache());
+    int equalKeys = 0;
+    List<KeyField> keyFields = meta.getLookup().getKeyFields();
+    for (int i = 0; i < keyFields.size() && batchable; i++) {
+      String condition = keyFields.get(i).getCondition();
+      if ("=".equals(condition)) {
+        batchable = data.keynrs[i] >= 0 && data.keynrs2[i] < 0;
+        equalKeys++;
+      } else {
+        batchable =
+            "IS NULL".equalsIgnoreCase(condition) && data.keynrs[i] < 0 && data.keynrs2[i] < 0;
+      }
+    }
+    if (!batchable || equalKeys == 0) {
+      if (isDetailed()) {
+        logDetailed(BaseMessages.getString(PKG, "DatabaseLookup.Log.BatchingNotPossible"));
+      }
+      return;
+    }
+    data.batchSize = batchSize;
+    data.batchRows = new ArrayList<>(batchSize);
+  }
+
   private void loadAllTableDataIntoTheCache() throws HopException {
     DatabaseMeta dbMeta = getPipelineMeta().findDatabase(meta.getConnection(), variables);
 
@@ -532,7 +912,7 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     }
   }
 
-  private void putToDefaultCache(Database db, List<Object[]> rows) {
+  private void putToDefaultCache(Database db, List<Object[]> rows) throws HopException {
     final int keysAmount = meta.getLookup().getKeyFields().size();
     IRowMeta prototype = copyValueMetasFrom(db.getReturnRowMeta(), keysAmount);
 
@@ -662,6 +1042,10 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       data.db.disconnect();
     }
 
+    if (data.cache instanceof DefaultCache defaultCache) {
+      defaultCache.snapMetrics(getLogChannel());
+    }
+
     // Recover memory immediately, allow in-memory data to be garbage collected
     //
     data.cache = null;
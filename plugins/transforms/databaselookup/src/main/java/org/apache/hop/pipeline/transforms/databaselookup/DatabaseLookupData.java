@@ -45,6 +45,15 @@ public class DatabaseLookupData extends BaseTransformData implements ITransformD
   public String[] returnTrimTypes;
   public List<Integer> trimIndexes;
 
+  /** The number of rows looked up with a single query */
+  public int batchSize;
+
+  /** The rows waiting to be looked up, null when rows are looked up one by one */
+  public List<Object[]> batchRows;
+
+  public String batchSql;
+  public IRowMeta batchParamsMeta;
+
   public DatabaseLookupData() {
     super();
 
@@ -71,8 +80,10 @@ public class DatabaseLookupData extends BaseTransformData implements ITransformD
      * @param lookupMeta {@code lookupRow}'s meta
      * @param lookupRow tuple of keys
      * @param add tuple of data
+     * @throws HopException
      */
     void storeRowInCache(
-        DatabaseLookupMeta meta, IRowMeta lookupMeta, Object[] lookupRow, Object[] add);
+        DatabaseLookupMeta meta, IRowMeta lookupMeta, Object[] lookupRow, Object[] add)
+        throws HopException;
   }
 }
@@ -81,6 +81,9 @@ public class DatabaseLookupDialog extends BaseTransformDialog {
   private Label wlCacheSize;
   private Text wCacheSize;
 
+  private Label wlBatchSize;
+  private Text wBatchSize;
+
   private TableView wKey;
 
   private TextVar wSchema;
@@ -411,6 +414,24 @@ public class DatabaseLookupDialog extends BaseTransformDialog {
           }
         });
 
+    // Batch size line
+    wlBatchSize = new Label(fieldGeneralComp, SWT.RIGHT);
+    wlBatchSize.setText(BaseMessages.getString(PKG, "DatabaseLookupDialog.BatchSize.Label"));
+    PropsUi.setLook(wlBatchSize);
+    FormData fdlBatchSize = new FormData();
+    fdlBatchSize.left = new FormAttachment(0, 0);
+    fdlBatchSize.right = new FormAttachment(middle, -margin);
+    fdlBatchSize.top = new FormAttachment(wFailMultiple, margin);
+    wlBatchSize.setLayoutData(fdlBatchSize);
+    wBatchSize = new Text(fieldGeneralComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wBatchSize);
+    wBatchSize.addModifyListener(lsMod);
+    FormData fdBatchSize = new FormData();
+    fdBatchSize.left = new FormAttachment(middle, 0);
+    fdBatchSize.right = new FormAttachment(100, 0);
+    fdBatchSize.top = new FormAttachment(wFailMultiple, margin);
+    wBatchSize.setLayoutData(fdBatchSize);
+
     fieldGeneralComp.setLayoutData(new FormDataBuilder().fullWidth().build());
 
     fieldGeneralComp.pack();
@@ -647,6 +668,8 @@ public class DatabaseLookupDialog extends BaseTransformDialog {
     wlCacheLoadAll.setEnabled(wCache.getSelection());
     wFailMultiple.setEnabled(!wCache.getSelection());
     wlFailMultiple.setEnabled(!wCache.getSelection());
+    wBatchSize.setEnabled(!(wCache.getSelection() && wCacheLoadAll.getSelection()));
+    wlBatchSize.setEnabled(!(wCache.getSelection() && wCacheLoadAll.getSelection()));
   }
 
   /** Copy information from the meta-data input to the dialog fields. */
@@ -656,6 +679,7 @@ public class DatabaseLookupDialog extends BaseTransformDialog {
     wCache.setSelection(input.isCached());
     wCacheSize.setText("" + input.getCacheSize());
     wCacheLoadAll.setSelection(input.isLoadingAllDataInCache());
+    wBatchSize.setText("" + input.getBatchSize());
 
     Lookup lookup = input.getLookup();
 
@@ -716,6 +740,7 @@ public class DatabaseLookupDialog extends BaseTransformDialog {
     input.setCached(wCache.getSelection());
     input.setCacheSize(Const.toInt(wCacheSize.getText(), 0));
     input.setLoadingAllDataInCache(wCacheLoadAll.getSelection());
+    input.setBatchSize(Const.toInt(wBatchSize.getText(), 0));
 
     for (TableItem item : wKey.getNonEmptyItems()) {
       KeyField keyField = new KeyField();
@@ -100,6 +100,12 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
       injectionKeyDescription = "DatabaseLookupMeta.Injection.CacheLoadAll")
   private boolean loadingAllDataInCache;
 
+  /** Look up the keys of this many rows with a single query, 0 or 1 means: one query per row */
+  @HopMetadataProperty(
+      key = "batch_size",
+      injectionKeyDescription = "DatabaseLookupMeta.Injection.BatchSize")
+  private int batchSize;
+
   @HopMetadataProperty(key = "lookup")
   private Lookup lookup;
 
@@ -112,6 +118,7 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
     this.cached = m.cached;
     this.cacheSize = m.cacheSize;
     this.loadingAllDataInCache = m.loadingAllDataInCache;
+    this.batchSize = m.batchSize;
     this.lookup = new Lookup(m.lookup);
   }
 
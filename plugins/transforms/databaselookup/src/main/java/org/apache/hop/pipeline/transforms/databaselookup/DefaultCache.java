@@ -17,35 +17,80 @@
 
 package org.apache.hop.pipeline.transforms.databaselookup;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Date;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.List;
+import java.util.Map;
 import org.apache.hop.core.RowMetaAndData;
-import org.apache.hop.core.TimedRow;
+import org.apache.hop.core.cache.LookupCache;
+import org.apache.hop.core.cache.LookupCacheKey;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.variables.IVariables;
 
-/** Old code, copied from {@linkplain DatabaseLookup} */
+/**
+ * The cache of the {@linkplain DatabaseLookup} transform for rows looked up one by one. When all
+ * the conditions are "=" the rows are kept in a {@link LookupCache}, which evicts the rows used the
+ * least when the cache size is reached. Otherwise the keys are scanned in the order in which they
+ * were stored.
+ */
 public class DefaultCache implements DatabaseLookupData.ICache {
 
+  /**
+   * Create a cache without a limit on the size in bytes or an expiry time.
+   *
+   * @param data the data of the transform
+   * @param cacheSize the maximum number of rows, 0 or lower means: no limit
+   * @return the cache
+   */
   public static DefaultCache newCache(DatabaseLookupData data, int cacheSize) {
-    if (cacheSize > 0) {
-      cacheSize = (int) (cacheSize * 1.5);
-    } else {
-      cacheSize = 16;
+    return newCache(data, cacheSize, null);
+  }
+
+  /**
+   * Create a cache.
+   *
+   * @param data the data of the transform
+   * @param cacheSize the maximum number of rows, 0 or lower means: no limit
+   * @param variables the variables to resolve the maximum size in bytes and the expiry time with,
+   *     null for neither
+   * @return the cache
+   */
+  public static DefaultCache newCache(
+      DatabaseLookupData data, int cacheSize, IVariables variables) {
+    LookupCache.Builder<Object[]> builder =
+        LookupCache.<Object[]>builder()
+            .maximumSize(Math.max(0, cacheSize))
+            .valueWeigher(LookupCache::estimateSize);
+    if (variables != null) {
+      builder.withVariables(variables);
     }
-    return new DefaultCache(data, cacheSize);
+    return new DefaultCache(data, cacheSize, builder.build());
   }
 
   private final DatabaseLookupData data;
-  private final LinkedHashMap<RowMetaAndData, TimedRow> map;
+  private final int cacheSize;
+  private final LookupCache<Object[]> cache;
+  private final LinkedHashMap<RowMetaAndData, Object[]> map;
 
-  DefaultCache(DatabaseLookupData data, int capacity) {
+  DefaultCache(DatabaseLookupData data, int cacheSize, LookupCache<Object[]> cache) {
     this.data = data;
-    map = LinkedHashMap.newLinkedHashMap(capacity);
+    this.cacheSize = cacheSize;
+    this.cache = cache;
+    this.map = new LinkedHashMap<>();
+  }
+
+  /**
+   * Report the cache statistics to the metrics of the transform and log them.
+   *
+   * @param log the log channel of the transform
+   */
+  public void snapMetrics(ILogChannel log) {
+    cache.snapMetrics(log);
+    if (log.isDetailed()) {
+      log.logDetailed(cache.getStatisticsDescription());
+    }
   }
 
   @Override
@@ -53,10 +98,7 @@ public class DefaultCache implements DatabaseLookupData.ICache {
     if (data.allEquals) {
       // only do the map lookup when all equals otherwise conditions >, <, <> will give wrong
       // results
-      TimedRow timedRow = map.get(new RowMetaAndData(data.lookupMeta, lookupRow));
-      if (timedRow != null) {
-        return timedRow.getRow();
-      }
+      return cache.get(LookupCacheKey.of(data.lookupMeta, lookupRow));
     } else { // special handling of conditions <,>, <> etc.
       if (!data.hasDBCondition) { // e.g. LIKE not handled by this routine, yet
         //  find an alternative way to look up the data based on the condition.
@@ -120,9 +162,9 @@ public class DefaultCache implements DatabaseLookupData.ICache {
             lookupIndex++;
           }
           if (match) {
-            TimedRow timedRow = map.get(key);
-            if (timedRow != null) {
-              return timedRow.getRow();
+            Object[] row = map.get(key);
+            if (row != null) {
+              return row;
             }
           }
         }
@@ -133,56 +175,20 @@ public class DefaultCache implements DatabaseLookupData.ICache {
 
   @Override
   public void storeRowInCache(
-      DatabaseLookupMeta meta, IRowMeta lookupMeta, Object[] lookupRow, Object[] add) {
-    RowMetaAndData rowMetaAndData = new RowMetaAndData(lookupMeta, lookupRow);
-    //  2009-02-01 XXX: I want to write a test case to prove this point before checking
-    // in.
-    // /* Don't insert a row with a duplicate key into the cache. It doesn't seem
-    // * to serve a useful purpose and can potentially cause the transform to return
-    // * different values over the life of the pipeline (if the source DB rows change)
-    // * Additionally, if using the load all data feature, re-inserting would reverse the order
-    // * specified in the transform.
-    // */
-    map.put(rowMetaAndData, new TimedRow(add));
-
-    // See if we have to limit the cache_size.
-    // Sample 10% of the rows in the cache.
-    // Remove everything below the second lowest date.
-    // That should on average remove more than 10% of the entries
-    // It's not exact science, but it will be faster than the old algorithm
-
-    // 2009-02-01: If you had previously set a cache size and then turned on load all,
-    // this
-    // method would throw out entries if the previous cache size wasn't big enough.
-    if (!meta.isLoadingAllDataInCache()
-        && meta.getCacheSize() > 0
-        && map.size() > meta.getCacheSize()) {
-      List<RowMetaAndData> keys = new ArrayList<>(map.keySet());
-      List<Date> samples = new ArrayList<>();
-      int incr = keys.size() / 10;
-      if (incr == 0) {
-        incr = 1;
-      }
-      for (int k = 0; k < keys.size(); k += incr) {
-        RowMetaAndData key = keys.get(k);
-        TimedRow timedRow = map.get(key);
-        samples.add(timedRow.getLogDate());
-      }
-
-      Collections.sort(samples);
-
-      if (samples.size() > 1) {
-        Date smallest = samples.get(1);
-
-        // Everything below the smallest date goes away...
-        for (RowMetaAndData key : keys) {
-          TimedRow timedRow = map.get(key);
+      DatabaseLookupMeta meta, IRowMeta lookupMeta, Object[] lookupRow, Object[] add)
+      throws HopException {
+    if (data.allEquals) {
+      // Evicts the rows which were used the least if the cache is full
+      //
+      cache.put(LookupCacheKey.of(lookupMeta, lookupRow), add);
+      return;
+    }
 
-          if (timedRow.getLogDate().compareTo(smallest) < 0) {
-            map.remove(key);
-          }
-        }
-      }
+    map.put(new RowMetaAndData(lookupMeta, lookupRow), add);
+    if (cacheSize > 0 && map.size() > cacheSize) {
+      Iterator<Map.Entry<RowMetaAndData, Object[]>> eldest = map.entrySet().iterator();
+      eldest.next();
+      eldest.remove();
     }
   }
 }
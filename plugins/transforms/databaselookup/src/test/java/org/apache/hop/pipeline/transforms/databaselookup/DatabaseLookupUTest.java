@@ -21,6 +21,7 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,15 +35,20 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.apache.hop.core.HopEnvironment;
 import org.apache.hop.core.IRowSet;
@@ -406,6 +412,182 @@ class DatabaseLookupUTest {
     assertNotNull(data.cache.getRowFromCache(data.lookupMeta, new Object[] {2L}));
   }
 
+  private static Database mockBatchDatabase(Object[]... results) throws Exception {
+    Database db = mock(Database.class);
+    when(db.getRows(
+            anyString(),
+            any(IRowMeta.class),
+            any(Object[].class),
+            anyInt(),
+            anyBoolean(),
+            anyInt(),
+            any()))
+        .thenReturn(Arrays.asList(results));
+    RowMeta returnRowMeta = new RowMeta();
+    returnRowMeta.addValueMeta(new ValueMetaInteger(ID_FIELD));
+    returnRowMeta.addValueMeta(new ValueMetaString("val"));
+    when(db.getReturnRowMeta()).thenReturn(returnRowMeta);
+    return db;
+  }
+
+  private DatabaseLookup createBatchLookup(Database db, DatabaseLookupData data) {
+    DatabaseLookupMeta meta = new DatabaseLookupMeta();
+    meta.setConnection("connection1");
+    meta.setCached(true);
+    meta.setBatchSize(4);
+    meta.getLookup().setTableName("VirtualTable");
+    meta.getLookup().getKeyFields().add(new KeyField(ID_FIELD, "", "=", ID_FIELD));
+    meta.getLookup().getReturnValues().add(new ReturnValue("val", "", "none", "String", "none"));
+
+    data.db = db;
+    data.cache = DefaultCache.newCache(data, 0);
+    data.allEquals = true;
+    data.conditions = new int[] {DatabaseLookupMeta.CONDITION_EQ};
+    data.keynrs = new int[] {0};
+    data.keynrs2 = new int[] {-1};
+    data.lookupMeta = new RowMeta();
+    data.lookupMeta.addValueMeta(new ValueMetaInteger(ID_FIELD));
+    data.returnMeta = new RowMeta();
+    data.returnMeta.addValueMeta(new ValueMetaString("val"));
+    data.returnValueTypes = new int[] {IValueMeta.TYPE_STRING};
+    data.returnTrimTypes = new String[] {"none"};
+    data.trimIndexes = Collections.emptyList();
+    data.nullif = new Object[] {"none"};
+    data.outputRowMeta = new RowMeta();
+    data.outputRowMeta.addValueMeta(new ValueMetaInteger(ID_FIELD));
+    data.outputRowMeta.addValueMeta(new ValueMetaString("val"));
+    data.batchSize = 4;
+
+    NoneDatabaseMeta genericMeta = new NoneDatabaseMeta();
+    DatabaseMeta dbMeta = new DatabaseMeta();
+    dbMeta.setIDatabase(genericMeta);
+    when(mockHelper.pipelineMeta.findDatabase(nullable(String.class), nullable(IVariables.class)))
+        .thenReturn(dbMeta);
+
+    return new DatabaseLookup(
+        mockHelper.transformMeta, meta, data, 0, mockHelper.pipelineMeta, mockHelper.pipeline);
+  }
+
+  @Test
+  void lookupValuesBatch_QueriesDistinctKeysOnce_AndKeepsRowOrder() throws Exception {
+    Database db = mockBatchDatabase(new Object[] {1L, "one"}, new Object[] {2L, "two"});
+    DatabaseLookupData data = new DatabaseLookupData();
+    DatabaseLookup lookup = createBatchLookup(db, data);
+
+    RowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaInteger(ID_FIELD));
+    List<Object[]> output = new ArrayList<>();
+    lookup.lookupValuesBatch(
+        inputRowMeta,
+        Arrays.asList(new Object[] {2L}, new Object[] {1L}, new Object[] {2L}, new Object[] {3L}),
+        (row, outputRow) -> output.add(outputRow));
+
+    assertEquals(4, output.size());
+    assertArrayEquals(new Object[] {2L, "two"}, Arrays.copyOf(output.get(0), 2));
+    assertArrayEquals(new Object[] {1L, "one"}, Arrays.copyOf(output.get(1), 2));
+    assertArrayEquals(new Object[] {2L, "two"}, Arrays.copyOf(output.get(2), 2));
+    assertArrayEquals(new Object[] {3L, "none"}, Arrays.copyOf(output.get(3), 2));
+    assertTrue(data.batchSql.contains(" IN (?, ?, ?, ?)"));
+
+    // Every row read from the database counts as an input line, just like without batches
+    //
+    assertEquals(2, lookup.getLinesInput());
+
+    // The keys found, as well as the defaults, are served from the cache from now on
+    //
+    output.clear();
+    lookup.lookupValuesBatch(
+        inputRowMeta,
+        Arrays.asList(new Object[] {3L}, new Object[] {1L}),
+        (row, outputRow) -> output.add(outputRow));
+    assertArrayEquals(new Object[] {3L, "none"}, Arrays.copyOf(output.get(0), 2));
+    assertArrayEquals(new Object[] {1L, "one"}, Arrays.copyOf(output.get(1), 2));
+    assertEquals(2, lookup.getLinesInput());
+
+    verify(db, times(1))
+        .getRows(
+            anyString(),
+            any(IRowMeta.class),
+            any(Object[].class),
+            anyInt(),
+            anyBoolean(),
+            anyInt(),
+            any());
+    verify(db, never()).getLookup(anyBoolean());
+  }
+
+  @Test
+  void lookupValuesBatch_IsNullKeyIsPartOfTheQuery() throws Exception {
+    Database db = mockBatchDatabase(new Object[] {1L, "one"});
+    DatabaseLookupData data = new DatabaseLookupData();
+    DatabaseLookup lookup = createBatchLookup(db, data);
+    lookup.getMeta().getLookup().getKeyFields().add(new KeyField("", "", "IS NULL", "DELETED"));
+    data.keynrs = new int[] {0, -1};
+    data.keynrs2 = new int[] {-1, -1};
+    data.batchSize = 0;
+
+    lookup.initBatching();
+    assertEquals(4, data.batchSize);
+
+    RowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaInteger(ID_FIELD));
+    List<Object[]> output = new ArrayList<>();
+    lookup.lookupValuesBatch(
+        inputRowMeta,
+        Arrays.asList(new Object[] {1L}, new Object[] {2L}),
+        (row, outputRow) -> output.add(outputRow));
+
+    assertArrayEquals(new Object[] {1L, "one"}, Arrays.copyOf(output.get(0), 2));
+    assertArrayEquals(new Object[] {2L, "none"}, Arrays.copyOf(output.get(1), 2));
+    assertTrue(data.batchSql.endsWith(" WHERE DELETED IS NULL AND id IN (?, ?, ?, ?)"));
+  }
+
+  @Test
+  void initBatching_NotForAnIsNullKeyWithAnInputField() throws Exception {
+    DatabaseLookupData data = new DatabaseLookupData();
+    DatabaseLookup lookup = createBatchLookup(mockBatchDatabase(), data);
+    lookup
+        .getMeta()
+        .getLookup()
+        .getKeyFields()
+        .add(new KeyField(ID_FIELD, "", "IS NULL", "DELETED"));
+    data.keynrs = new int[] {0, 0};
+    data.keynrs2 = new int[] {-1, -1};
+    data.batchSize = 0;
+
+    lookup.initBatching();
+    assertEquals(0, data.batchSize);
+  }
+
+  @Test
+  void lookupValuesBatch_ErrorRowsKeepTheirPlace() throws Exception {
+    Database db = mockBatchDatabase(new Object[] {1L, "one"});
+    DatabaseLookup lookup = spy(createBatchLookup(db, new DatabaseLookupData()));
+    when(mockHelper.transformMeta.isDoingErrorHandling()).thenReturn(true);
+
+    List<String> events = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              events.add("error " + ((Object[]) invocation.getArgument(1))[0]);
+              return null;
+            })
+        .when(lookup)
+        .putError(any(), any(), anyLong(), any(), any(), any());
+
+    RowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaInteger(ID_FIELD));
+    lookup.lookupValuesBatch(
+        inputRowMeta,
+        Arrays.asList(new Object[] {1L}, new Object[] {3L}, new Object[] {1L}),
+        (row, outputRow) -> {
+          if (outputRow != null) {
+            events.add("row " + outputRow[0]);
+          }
+        });
+
+    assertEquals(List.of("row 1", "error 3", "row 1"), events);
+  }
+
   public class MockDatabaseLookup extends DatabaseLookup {
     public MockDatabaseLookup(
         TransformMeta transformMeta,
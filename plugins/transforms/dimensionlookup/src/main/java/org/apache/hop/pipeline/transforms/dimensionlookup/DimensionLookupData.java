@@ -20,9 +20,9 @@ package org.apache.hop.pipeline.transforms.dimensionlookup;
 import java.sql.PreparedStatement;
 import java.util.Date;
 import java.util.List;
+import org.apache.hop.core.cache.LookupCache;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
-import org.apache.hop.core.hash.ByteArrayHashMap;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
@@ -41,9 +41,7 @@ public class DimensionLookupData extends BaseTransformData implements ITransform
   public int[] fieldnrs; // nrs in row of the fields
   public int datefieldnr; // Nr of datefield field in row
 
-  public ByteArrayHashMap cache;
-
-  public long smallestCacheKey;
+  public LookupCache<byte[]> cache;
 
   public IValueMeta notFoundTkMeta;
   public Object notFoundTk;
@@ -98,7 +96,6 @@ public class DimensionLookupData extends BaseTransformData implements ITransform
 
     db = null;
     valueDateNow = null;
-    smallestCacheKey = -1;
     realTableName = null;
     realSchemaName = null;
   }
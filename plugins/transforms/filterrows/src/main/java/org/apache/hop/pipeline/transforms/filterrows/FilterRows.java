@@ -17,10 +17,10 @@
 
 package org.apache.hop.pipeline.transforms.filterrows;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
-import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -45,9 +45,9 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
     super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
   }
 
-  private synchronized boolean keepRow(IRowMeta rowMeta, Object[] row) throws HopException {
+  private boolean keepRow(Object[] row) throws HopException {
     try {
-      return meta.getCondition().evaluate(rowMeta, row);
+      return data.condition.evaluate(row);
     } catch (Exception e) {
       String message =
           BaseMessages.getString(
@@ -55,7 +55,7 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
       logError(message);
       logError(
           BaseMessages.getString(PKG, "FilterRows.Log.ErrorOccurredForRow")
-              + rowMeta.getString(row));
+              + data.condition.getRowMeta().getString(row));
       logError(Const.getStackTracker(e));
       throw new HopException(message, e);
     }
@@ -63,8 +63,8 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
 
   @Override
   public boolean processRow() throws HopException {
-    Object[] r = getRow(); // Get next usable row from input rowset(s)!
-    if (r == null) {
+    List<Object[]> rows = getRows(getRowBatchSize()); // Get next usable rows from input rowset(s)!
+    if (rows == null) {
       setOutputDone();
       return false;
     }
@@ -118,39 +118,53 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
       }
     }
 
-    boolean keep = keepRow(getInputRowMeta(), r); // Keep this row?
-    if (!data.chosesTargetTransforms) {
-      if (keep) {
-        putRow(data.outputRowMeta, r); // copy row to output rowset(s)
-      }
-    } else {
-      if (keep) {
-        if (data.trueRowSet != null) {
-          if (isRowLevel()) {
-            logRowlevel(
-                "Sending row to true  :"
-                    + data.trueTransformName
-                    + " : "
-                    + getInputRowMeta().getString(r));
-          }
-          putRowTo(data.outputRowMeta, r, data.trueRowSet);
+    // The condition is compiled against the input row layout. That only changes when rows come
+    // from several transforms.
+    //
+    if (data.condition == null || !data.condition.isCompiledFor(getInputRowMeta())) {
+      data.condition = meta.getCondition().compile(getInputRowMeta());
+    }
+
+    List<Object[]> keptRows = data.chosesTargetTransforms ? null : new ArrayList<>(rows.size());
+    for (Object[] r : rows) {
+      boolean keep = keepRow(r); // Keep this row?
+      if (!data.chosesTargetTransforms) {
+        if (keep) {
+          keptRows.add(r);
         }
       } else {
-        if (data.falseRowSet != null) {
-          if (isRowLevel()) {
-            logRowlevel(
-                "Sending row to false :"
-                    + data.falseTransformName
-                    + " : "
-                    + getInputRowMeta().getString(r));
+        if (keep) {
+          if (data.trueRowSet != null) {
+            if (isRowLevel()) {
+              logRowlevel(
+                  "Sending row to true  :"
+                      + data.trueTransformName
+                      + " : "
+                      + getInputRowMeta().getString(r));
+            }
+            putRowTo(data.outputRowMeta, r, data.trueRowSet);
+          }
+        } else {
+          if (data.falseRowSet != null) {
+            if (isRowLevel()) {
+              logRowlevel(
+                  "Sending row to false :"
+                      + data.falseTransformName
+                      + " : "
+                      + getInputRowMeta().getString(r));
+            }
+            putRowTo(data.outputRowMeta, r, data.falseRowSet);
           }
-          putRowTo(data.outputRowMeta, r, data.falseRowSet);
         }
       }
     }
+    if (keptRows != null) {
+      putRows(data.outputRowMeta, keptRows); // copy rows to output rowset(s)
+    }
 
-    if (checkFeedback(getLinesRead()) && isBasic()) {
-      logBasic(BaseMessages.getString(PKG, "FilterRows.Log.LineNumber") + getLinesRead());
+    long linesRead = getLinesRead();
+    if (checkFeedback(linesRead - rows.size(), linesRead) && isBasic()) {
+      logBasic(BaseMessages.getString(PKG, "FilterRows.Log.LineNumber") + linesRead);
     }
 
     return true;
@@ -160,9 +174,8 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
   public boolean init() {
 
     if (super.init()) {
-      // could it be a better idea to have a clone on the condition in data and do this on the first
-      // row?
-      meta.getCondition().clearFieldPositions();
+      // The condition is compiled on the first row, once we know the input row layout
+      data.condition = null;
 
       List<IStream> targetStreams = meta.getTransformIOMeta().getTargetStreams();
       data.trueTransformName = targetStreams.get(0).getTransformName();
@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transforms.filterrows;
 
+import org.apache.hop.core.CompiledCondition;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
@@ -29,6 +30,7 @@ public class FilterRowsData extends BaseTransformData implements ITransformData
   public IRowSet trueRowSet;
   public IRowSet falseRowSet;
   public boolean chosesTargetTransforms;
+  public CompiledCondition condition;
   public String trueTransformName;
   public String falseTransformName;
 
@@ -36,6 +36,7 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.formula.util.CompiledFormula;
 import org.apache.hop.pipeline.transforms.formula.util.FormulaParser;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.CellValue;
@@ -45,6 +46,7 @@ public class Formula extends BaseTransform<FormulaMeta, FormulaData> {
 
   private FormulaPoi[] poi;
   private List<String>[] formulaFieldLists;
+  private CompiledFormula[] compiledFormulas;
   private final HashMap<String, String> replaceMap = new HashMap<>();
 
   @Override
@@ -131,6 +133,25 @@ public class Formula extends BaseTransform<FormulaMeta, FormulaData> {
               .map(FormulaMetaFunction::getFormula)
               .map(f -> getFormulaFieldList(resolve(f)))
               .toArray(List[]::new);
+      // evaluate the formulas without a spreadsheet where possible
+      compiledFormulas = new CompiledFormula[meta.getFormulas().size()];
+      for (int i = 0; i < compiledFormulas.length; i++) {
+        compiledFormulas[i] =
+            CompiledFormula.compile(
+                meta.getFormulas().get(i),
+                data.outputRowMeta,
+                variables,
+                replaceMap,
+                formulaFieldLists[i]);
+        if (isDetailed()) {
+          logDetailed(
+              "Formula '"
+                  + meta.getFormulas().get(i).getFormula()
+                  + (compiledFormulas[i] == null
+                      ? "' is evaluated by the spreadsheet engine"
+                      : "' is compiled"));
+        }
+      }
     }
 
     int tempIndex = getInputRowMeta().size();
@@ -143,17 +164,24 @@ public class Formula extends BaseTransform<FormulaMeta, FormulaData> {
     for (int i = 0; i < meta.getFormulas().size(); i++) {
       Object outputValue = null;
       FormulaMetaFunction formula = meta.getFormulas().get(i);
-      FormulaParser parser =
-          new FormulaParser(
-              formula,
-              data.outputRowMeta,
-              outputRowData,
-              poi[i],
-              variables,
-              replaceMap,
-              formulaFieldLists[i]);
       try {
-        CellValue cellValue = parser.getFormulaValue();
+        CellValue cellValue = null;
+        if (compiledFormulas[i] != null) {
+          cellValue = compiledFormulas[i].evaluate(outputRowData);
+        }
+        if (cellValue == null) {
+          // not compiled or not supported for the values of this row
+          FormulaParser parser =
+              new FormulaParser(
+                  formula,
+                  data.outputRowMeta,
+                  outputRowData,
+                  poi[i],
+                  variables,
+                  replaceMap,
+                  formulaFieldLists[i]);
+          cellValue = parser.getFormulaValue();
+        }
         CellType cellType = cellValue.getCellType();
 
         int outputValueType = formula.getValueType();
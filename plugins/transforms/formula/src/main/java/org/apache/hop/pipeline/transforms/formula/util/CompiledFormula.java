@@ -0,0 +1,566 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.formula.util;
+
+import static org.apache.hop.pipeline.transforms.formula.util.FormulaFieldsExtractor.getFormulaFieldList;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.pipeline.transforms.formula.FormulaMetaFunction;
+import org.apache.poi.hssf.model.HSSFFormulaParser;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.ptg.AbstractFunctionPtg;
+import org.apache.poi.ss.formula.ptg.AddPtg;
+import org.apache.poi.ss.formula.ptg.AttrPtg;
+import org.apache.poi.ss.formula.ptg.BoolPtg;
+import org.apache.poi.ss.formula.ptg.ConcatPtg;
+import org.apache.poi.ss.formula.ptg.DividePtg;
+import org.apache.poi.ss.formula.ptg.EqualPtg;
+import org.apache.poi.ss.formula.ptg.GreaterEqualPtg;
+import org.apache.poi.ss.formula.ptg.GreaterThanPtg;
+import org.apache.poi.ss.formula.ptg.IntPtg;
+import org.apache.poi.ss.formula.ptg.LessEqualPtg;
+import org.apache.poi.ss.formula.ptg.LessThanPtg;
+import org.apache.poi.ss.formula.ptg.MultiplyPtg;
+import org.apache.poi.ss.formula.ptg.NotEqualPtg;
+import org.apache.poi.ss.formula.ptg.NumberPtg;
+import org.apache.poi.ss.formula.ptg.ParenthesisPtg;
+import org.apache.poi.ss.formula.ptg.PercentPtg;
+import org.apache.poi.ss.formula.ptg.PowerPtg;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.formula.ptg.RefPtg;
+import org.apache.poi.ss.formula.ptg.StringPtg;
+import org.apache.poi.ss.formula.ptg.SubtractPtg;
+import org.apache.poi.ss.formula.ptg.UnaryMinusPtg;
+import org.apache.poi.ss.formula.ptg.UnaryPlusPtg;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.NumberComparer;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.LocaleUtil;
+
+/**
+ * A formula compiled to a tree of operations over the values of a row, evaluated without a
+ * spreadsheet.
+ *
+ * <p>The formula is parsed once by the POI formula parser, exactly like the spreadsheet evaluation
+ * does it, and the parsed tokens are turned into operations typed against the row metadata. Only
+ * the field references, constants, arithmetic, text concatenation, comparisons and a few functions
+ * (IF, AND, OR, NOT, ABS, LEN, UPPER, LOWER) are compiled. These follow the spreadsheet rules for
+ * blank values, booleans and numbers. Other formulas can't be compiled and are evaluated by POI.
+ *
+ * <p>Cases where the spreadsheet evaluation produces an error or converts text to numbers are not
+ * handled by the compiled operations: {@link #evaluate(Object[])} returns null and the row has to
+ * be evaluated by POI. This keeps the results identical to the spreadsheet evaluation.
+ */
+public class CompiledFormula {
+
+  /** A blank cell: a null value */
+  private static final Object BLANK = new Object();
+
+  /** The row can't be evaluated by the compiled operations */
+  private static final FallbackException FALLBACK = new FallbackException();
+
+  private static final int MAX_TEXT_LENGTH = SpreadsheetVersion.EXCEL97.getMaxTextLength();
+
+  private final Node root;
+
+  private CompiledFormula(Node root) {
+    this.root = root;
+  }
+
+  /**
+   * Compile a formula.
+   *
+   * @param formulaMetaFunction the formula
+   * @param rowMeta the metadata of the rows to evaluate the formula on
+   * @param variables the variables to resolve in the formula
+   * @param replaceMap the formula result fields and the fields they replace
+   * @param formulaFieldList the fields used in the formula
+   * @return the compiled formula or null if the formula can't be compiled
+   */
+  public static CompiledFormula compile(
+      FormulaMetaFunction formulaMetaFunction,
+      IRowMeta rowMeta,
+      IVariables variables,
+      Map<String, String> replaceMap,
+      List<String> formulaFieldList) {
+    String formula = variables.resolve(formulaMetaFunction.getFormula());
+    List<String> fields = formulaFieldList;
+    String replacedFormula = FormulaParser.replaceFields(formula, fields, replaceMap);
+    if (!replacedFormula.equals(formula)) {
+      formula = replacedFormula;
+      fields = getFormulaFieldList(variables.resolve(formula));
+    }
+    if (fields.size() > 26) {
+      // Only the columns A to Z can be referenced by a single letter
+      return null;
+    }
+    int[] fieldIndexes = new int[fields.size()];
+    for (int i = 0; i < fieldIndexes.length; i++) {
+      fieldIndexes[i] = rowMeta.indexOfValue(fields.get(i));
+      if (fieldIndexes[i] < 0) {
+        return null;
+      }
+    }
+
+    Ptg[] ptgs;
+    try (HSSFWorkbook workbook = new HSSFWorkbook()) {
+      ptgs = HSSFFormulaParser.parse(FormulaParser.toCellFormula(formula, fields), workbook);
+    } catch (IOException | RuntimeException e) {
+      // Let the spreadsheet evaluation report the error
+      return null;
+    }
+
+    Compiler compiler = new Compiler(rowMeta, fieldIndexes, formulaMetaFunction.isSetNa());
+    Node root = compiler.compile(ptgs);
+    return root == null ? null : new CompiledFormula(root);
+  }
+
+  /**
+   * Evaluate the formula on a row.
+   *
+   * @param row the row
+   * @return the value of the formula or null if the row has to be evaluated by POI
+   * @throws HopValueException in case a value of the row can't be converted
+   */
+  public CellValue evaluate(Object[] row) throws HopValueException {
+    Object value;
+    try {
+      value = root.evaluate(row);
+    } catch (FallbackException e) {
+      return null;
+    }
+    if (value instanceof Double number) {
+      return new CellValue(number);
+    } else if (value instanceof String string) {
+      return new CellValue(string);
+    } else if (value instanceof Boolean bool) {
+      return CellValue.valueOf(bool);
+    }
+    // A blank result
+    return null;
+  }
+
+  /** An operation of the formula, returns a Double, String, Boolean or BLANK */
+  private interface Node {
+    Object evaluate(Object[] row) throws HopValueException;
+  }
+
+  private static final class FallbackException extends RuntimeException {
+    private FallbackException() {
+      super(null, null, false, false);
+    }
+  }
+
+  /** Turns the parsed tokens in reverse polish notation into a tree of operations */
+  private static final class Compiler {
+    private final IRowMeta rowMeta;
+    private final int[] fieldIndexes;
+    private final boolean setNa;
+    private final Deque<Node> stack = new ArrayDeque<>();
+
+    private Compiler(IRowMeta rowMeta, int[] fieldIndexes, boolean setNa) {
+      this.rowMeta = rowMeta;
+      this.fieldIndexes = fieldIndexes;
+      this.setNa = setNa;
+    }
+
+    private Node compile(Ptg[] ptgs) {
+      for (Ptg ptg : ptgs) {
+        if (!compile(ptg)) {
+          return null;
+        }
+      }
+      return stack.size() == 1 ? stack.pop() : null;
+    }
+
+    private boolean compile(Ptg ptg) {
+      if (ptg instanceof ParenthesisPtg) {
+        return true;
+      }
+      if (ptg instanceof AttrPtg attr) {
+        // The jumps of IF are not needed, the IF operation only evaluates the chosen value
+        return attr.isSpace() || attr.isOptimizedIf() || attr.isSkip();
+      }
+      if (ptg.getClass() == RefPtg.class) {
+        RefPtg ref = (RefPtg) ptg;
+        if (ref.getRow() != 0 || ref.getColumn() >= fieldIndexes.length) {
+          return false;
+        }
+        stack.push(field(fieldIndexes[ref.getColumn()]));
+        return true;
+      }
+      if (ptg instanceof NumberPtg number) {
+        return push(constant(number.getValue()));
+      }
+      if (ptg instanceof IntPtg number) {
+        return push(constant((double) number.getValue()));
+      }
+      if (ptg instanceof StringPtg string) {
+        return push(constant(string.getValue()));
+      }
+      if (ptg instanceof BoolPtg bool) {
+        return push(constant(bool.getValue()));
+      }
+      if (ptg instanceof UnaryMinusPtg) {
+        return unary(CompiledFormula::negate);
+      }
+      if (ptg instanceof UnaryPlusPtg) {
+        return unary(value -> toNumber(value));
+      }
+      if (ptg instanceof PercentPtg) {
+        return unary(CompiledFormula::percent);
+      }
+      if (ptg instanceof AddPtg) {
+        return arithmetic(Double::sum, true);
+      }
+      if (ptg instanceof SubtractPtg) {
+        return arithmetic((a, b) -> a - b, false);
+      }
+      if (ptg instanceof MultiplyPtg) {
+        return arithmetic((a, b) -> a * b, true);
+      }
+      if (ptg instanceof DividePtg) {
+        return arithmetic(CompiledFormula::divide, true);
+      }
+      if (ptg instanceof PowerPtg) {
+        return arithmetic(CompiledFormula::power, true);
+      }
+      if (ptg instanceof ConcatPtg) {
+        return binary((a, b) -> toText(a).concat(toText(b)));
+      }
+      if (ptg instanceof EqualPtg) {
+        return binary((a, b) -> compare(a, b) == 0);
+      }
+      if (ptg instanceof NotEqualPtg) {
+        return binary((a, b) -> compare(a, b) != 0);
+      }
+      if (ptg instanceof LessThanPtg) {
+        return binary((a, b) -> compare(a, b) < 0);
+      }
+      if (ptg instanceof LessEqualPtg) {
+        return binary((a, b) -> compare(a, b) <= 0);
+      }
+      if (ptg instanceof GreaterThanPtg) {
+        return binary((a, b) -> compare(a, b) > 0);
+      }
+      if (ptg instanceof GreaterEqualPtg) {
+        return binary((a, b) -> compare(a, b) >= 0);
+      }
+      if (ptg instanceof AbstractFunctionPtg function) {
+        return function(function.getName(), function.getNumberOfOperands());
+      }
+      return false;
+    }
+
+    private boolean push(Node node) {
+      stack.push(node);
+      return true;
+    }
+
+    private Node[] pop(int count) {
+      if (stack.size() < count) {
+        return null;
+      }
+      Node[] nodes = new Node[count];
+      for (int i = count - 1; i >= 0; i--) {
+        nodes[i] = stack.pop();
+      }
+      return nodes;
+    }
+
+    private boolean unary(UnaryOperation operation) {
+      Node[] args = pop(1);
+      if (args == null) {
+        return false;
+      }
+      Node arg = args[0];
+      return push(row -> operation.apply(arg.evaluate(row)));
+    }
+
+    private boolean binary(BinaryOperation operation) {
+      Node[] args = pop(2);
+      if (args == null) {
+        return false;
+      }
+      Node left = args[0];
+      Node right = args[1];
+      return push(row -> operation.apply(left.evaluate(row), right.evaluate(row)));
+    }
+
+    /**
+     * @param zeroIsPositive the spreadsheet turns -0 into 0 for all operations but subtraction
+     */
+    private boolean arithmetic(NumericOperation operation, boolean zeroIsPositive) {
+      return binary(
+          (a, b) -> {
+            double left = toNumber(a);
+            double right = toNumber(b);
+            double result = operation.apply(left, right);
+            if (result == 0.0 && zeroIsPositive) {
+              return 0.0;
+            }
+            return checkNumber(result);
+          });
+    }
+
+    private boolean function(String name, int nrArgs) {
+      Node[] args = pop(nrArgs);
+      if (args == null) {
+        return false;
+      }
+      switch (name) {
+        case "IF":
+          if (nrArgs != 2 && nrArgs != 3) {
+            return false;
+          }
+          return push(
+              row -> {
+                if (toBoolean(args[0].evaluate(row))) {
+                  return args[1].evaluate(row);
+                }
+                return nrArgs == 3 ? args[2].evaluate(row) : Boolean.FALSE;
+              });
+        case "AND":
+          return nrArgs > 0 && push(row -> logical(args, row, true));
+        case "OR":
+          return nrArgs > 0 && push(row -> logical(args, row, false));
+        case "NOT":
+          return nrArgs == 1 && push(row -> !toBoolean(args[0].evaluate(row)));
+        case "ABS":
+          return nrArgs == 1 && push(row -> Math.abs(toNumber(args[0].evaluate(row))));
+        case "LEN":
+          return nrArgs == 1 && push(row -> (double) toText(args[0].evaluate(row)).length());
+        case "UPPER":
+          return nrArgs == 1
+              && push(row -> toText(args[0].evaluate(row)).toUpperCase(LocaleUtil.getUserLocale()));
+        case "LOWER":
+          return nrArgs == 1
+              && push(row -> toText(args[0].evaluate(row)).toLowerCase(LocaleUtil.getUserLocale()));
+        default:
+          return false;
+      }
+    }
+
+    /** A field: the value of a cell set the same way {@link FormulaParser} does it */
+    private Node field(int index) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(index);
+      Node node;
+      if (valueMeta.isString()) {
+        node = row -> text(valueMeta.getString(row[index]));
+      } else if (valueMeta.isBoolean()) {
+        node = row -> valueMeta.getBoolean(row[index]);
+      } else if (valueMeta.isBigNumber()) {
+        node = row -> checkNumber(valueMeta.getNumber(row[index]));
+      } else if (valueMeta.isDate()) {
+        node = row -> date(valueMeta.getDate(row[index]));
+      } else if (valueMeta.isInteger()) {
+        node = row -> valueMeta.getInteger(row[index]).doubleValue();
+      } else if (valueMeta.isNumber()) {
+        node = row -> checkNumber(valueMeta.getNumber(row[index]));
+      } else {
+        node = row -> text(valueMeta.getString(row[index]));
+      }
+      return row -> {
+        if (row[index] == null) {
+          if (setNa) {
+            // #N/A
+            throw FALLBACK;
+          }
+          return BLANK;
+        }
+        return node.evaluate(row);
+      };
+    }
+  }
+
+  private static Node constant(Object value) {
+    return row -> value;
+  }
+
+  private static Object text(String value) {
+    if (value == null) {
+      return BLANK;
+    }
+    if (value.length() > MAX_TEXT_LENGTH) {
+      throw FALLBACK;
+    }
+    return value;
+  }
+
+  private static Object date(Date value) {
+    if (value == null) {
+      return BLANK;
+    }
+    return checkNumber(DateUtil.getExcelDate(value, false));
+  }
+
+  /** NaN and infinity are errors in a spreadsheet */
+  private static double checkNumber(double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      throw FALLBACK;
+    }
+    return value;
+  }
+
+  private static Object negate(Object value) {
+    double number = toNumber(value);
+    return number == 0.0 ? 0.0 : -number;
+  }
+
+  private static Object percent(Object value) {
+    double number = toNumber(value);
+    return number == 0.0 ? 0.0 : number / 100;
+  }
+
+  private static double divide(double left, double right) {
+    if (right == 0.0) {
+      // #DIV/0!
+      throw FALLBACK;
+    }
+    return left / right;
+  }
+
+  private static double power(double left, double right) {
+    if (left < 0 && right != Math.rint(right)) {
+      throw FALLBACK;
+    }
+    return Math.pow(left, right);
+  }
+
+  /** AND and OR evaluate all their arguments */
+  private static Object logical(Node[] args, Object[] row, boolean and) throws HopValueException {
+    boolean result = and;
+    for (Node arg : args) {
+      Object value = arg.evaluate(row);
+      if (!(value instanceof Boolean) && !(value instanceof Double)) {
+        // Text and blank values are skipped or are errors depending on where they come from
+        throw FALLBACK;
+      }
+      boolean bool = toBoolean(value);
+      result = and ? result && bool : result || bool;
+    }
+    return result;
+  }
+
+  private static double toNumber(Object value) {
+    if (value instanceof Double number) {
+      return number;
+    }
+    if (value instanceof Boolean bool) {
+      return bool ? 1.0 : 0.0;
+    }
+    if (value == BLANK) {
+      return 0.0;
+    }
+    // Text is converted to a number if possible
+    throw FALLBACK;
+  }
+
+  private static boolean toBoolean(Object value) {
+    if (value instanceof Boolean bool) {
+      return bool;
+    }
+    if (value instanceof Double number) {
+      return number != 0.0;
+    }
+    if (value == BLANK) {
+      return false;
+    }
+    // Text is only a boolean for TRUE and FALSE
+    throw FALLBACK;
+  }
+
+  private static String toText(Object value) {
+    if (value instanceof String string) {
+      return string;
+    }
+    if (value instanceof Double number) {
+      return NumberToTextConverter.toText(number);
+    }
+    if (value instanceof Boolean bool) {
+      return bool ? "TRUE" : "FALSE";
+    }
+    return "";
+  }
+
+  /**
+   * Compare two values the way spreadsheets do: blank is 0, an empty string or FALSE depending on
+   * the other value, numbers are smaller than text which is smaller than booleans. Text is compared
+   * case-insensitively.
+   */
+  private static int compare(Object left, Object right) {
+    if (left == BLANK) {
+      return compareBlank(right);
+    }
+    if (right == BLANK) {
+      return -compareBlank(left);
+    }
+    if (left instanceof Boolean leftBool) {
+      return right instanceof Boolean rightBool ? Boolean.compare(leftBool, rightBool) : 1;
+    }
+    if (right instanceof Boolean) {
+      return -1;
+    }
+    if (left instanceof String leftString) {
+      return right instanceof String rightString ? leftString.compareToIgnoreCase(rightString) : 1;
+    }
+    if (right instanceof String) {
+      return -1;
+    }
+    return NumberComparer.compare((Double) left, (Double) right);
+  }
+
+  private static int compareBlank(Object value) {
+    if (value == BLANK) {
+      return 0;
+    }
+    if (value instanceof Boolean bool) {
+      return bool ? -1 : 0;
+    }
+    if (value instanceof String string) {
+      return string.isEmpty() ? 0 : -1;
+    }
+    return NumberComparer.compare(0.0, (Double) value);
+  }
+
+  @FunctionalInterface
+  private interface UnaryOperation {
+    Object apply(Object value);
+  }
+
+  @FunctionalInterface
+  private interface BinaryOperation {
+    Object apply(Object left, Object right);
+  }
+
+  @FunctionalInterface
+  private interface NumericOperation {
+    double apply(double left, double right);
+  }
+}
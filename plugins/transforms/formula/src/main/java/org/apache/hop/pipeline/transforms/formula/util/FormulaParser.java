@@ -21,7 +21,7 @@ import static org.apache.hop.pipeline.transforms.formula.util.FormulaFieldsExtra
 
 import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
@@ -58,27 +58,55 @@ public class FormulaParser {
 
     this.formulaFieldList = formulaFieldList;
 
-    boolean getNewList = false;
+    String replacedFormula = replaceFields(formula, formulaFieldList, replaceMap);
+    if (!replacedFormula.equals(formula)) {
+      formula = replacedFormula;
+      this.formulaFieldList = getFormulaFieldList(variables.resolve(formula));
+    }
+    this.evaluator = poi.evaluator(formulaFieldList.size() + 1);
+    this.evaluator.evaluator().clearAllCachedResultValues();
+  }
+
+  /**
+   * Use the fields replaced by earlier formulas instead of the formula result fields.
+   *
+   * @param formula the formula
+   * @param formulaFieldList the fields used in the formula
+   * @param replaceMap the formula result fields and the fields they replace
+   * @return the formula referring to the replaced fields
+   */
+  public static String replaceFields(
+      String formula, List<String> formulaFieldList, Map<String, String> replaceMap) {
+    String result = formula;
     for (String formulaField : formulaFieldList) {
       // check if we are working with a field that was replaced earlier.
-      Set<String> replaceKeys = replaceMap.keySet();
-      if (replaceKeys.contains(formulaField)) {
-        String realFieldName = replaceMap.get(formulaField);
-        formula = formula.replace("[" + formulaField + "]", "[" + realFieldName + "]");
-        getNewList = true;
+      String realFieldName = replaceMap.get(formulaField);
+      if (realFieldName != null) {
+        result = result.replace("[" + formulaField + "]", "[" + realFieldName + "]");
       }
     }
+    return result;
+  }
 
-    if (getNewList) {
-      this.formulaFieldList = getFormulaFieldList(variables.resolve(formula));
+  /**
+   * Convert a formula to a spreadsheet formula where the fields are the cells of the first row: the
+   * first field in the list is A1, the second B1 and so on.
+   *
+   * @param formula the formula
+   * @param formulaFieldList the fields used in the formula
+   * @return the spreadsheet formula
+   */
+  public static String toCellFormula(String formula, List<String> formulaFieldList) {
+    String cellFormula = formula;
+    char column = 'A';
+    for (String formulaField : formulaFieldList) {
+      cellFormula = cellFormula.replace("[" + formulaField + "]", column + "1");
+      column++;
     }
-    this.evaluator = poi.evaluator(formulaFieldList.size() + 1);
-    this.evaluator.evaluator().clearAllCachedResultValues();
+    return cellFormula;
   }
 
   public CellValue getFormulaValue() throws HopValueException {
-    String parsedFormula = formula;
-    int fieldIndex = 65;
     int colIndex = 0;
     Row row = evaluator.row();
 
@@ -93,7 +121,6 @@ public class FormulaParser {
     }
 
     for (String formulaField : formulaFieldList) {
-      char s = (char) fieldIndex;
       final Cell cell;
       if (row.getLastCellNum() <= colIndex) {
         cell = row.createCell(colIndex);
@@ -103,8 +130,6 @@ public class FormulaParser {
 
       int fieldPosition = rowMeta.indexOfValue(formulaField);
 
-      parsedFormula = parsedFormula.replace("[" + formulaField + "]", s + "1");
-
       IValueMeta fieldMeta = rowMeta.getValueMeta(fieldPosition);
       if (dataRow[fieldPosition] != null) {
         // most common first to avoid a lot of "if" for nothing
@@ -131,14 +156,13 @@ public class FormulaParser {
         }
       }
 
-      fieldIndex++;
       colIndex++;
     }
 
     final Cell formulaCell;
     if (row.getLastCellNum() <= colIndex) {
       formulaCell = row.createCell(colIndex);
-      formulaCell.setCellFormula(parsedFormula);
+      formulaCell.setCellFormula(toCellFormula(formula, formulaFieldList));
     } else { // already created/parsed
       formulaCell = row.getCell(colIndex);
     }
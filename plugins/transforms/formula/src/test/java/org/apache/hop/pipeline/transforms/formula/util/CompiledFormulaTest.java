@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.formula.util;
+
+import static org.apache.hop.pipeline.transforms.formula.util.FormulaFieldsExtractor.getFormulaFieldList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.pipeline.transforms.formula.FormulaMetaFunction;
+import org.apache.hop.pipeline.transforms.formula.FormulaPoi;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** The compiled formulas give the same results as the spreadsheet evaluation. */
+class CompiledFormulaTest {
+
+  private final Variables variables = new Variables();
+  private RowMeta rowMeta;
+  private List<Object[]> rows;
+  private FormulaPoi poi;
+
+  @BeforeEach
+  void setUp() {
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("a"));
+    rowMeta.addValueMeta(new ValueMetaNumber("b"));
+    rowMeta.addValueMeta(new ValueMetaString("s"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("flag"));
+    rowMeta.addValueMeta(new ValueMetaDate("d"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("n"));
+
+    rows = new ArrayList<>();
+    rows.add(new Object[] {10L, 2.5, "Active", true, new Date(1_600_000_000_000L), BigDecimal.ONE});
+    rows.add(new Object[] {-3L, 0.0, "active", false, new Date(0L), new BigDecimal("-2.25")});
+    rows.add(new Object[] {0L, -0.1, "", true, null, BigDecimal.ZERO});
+    rows.add(new Object[] {null, null, null, null, null, null});
+    rows.add(new Object[] {7L, 7.0, "12", false, new Date(1_000_000_000_000L), null});
+    rows.add(new Object[] {123456789L, 1e-9, "Zebra", null, null, new BigDecimal("1E+20")});
+
+    poi = new FormulaPoi(msg -> {});
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    poi.destroy();
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "[a] + [b]",
+        "[a] - [b]",
+        "[b] - [b]",
+        "[a] * [b] / 3",
+        "[a] / [b]",
+        "[a] ^ 2",
+        "[b] ^ 0.5",
+        "-[a] + 5%",
+        "+[b]",
+        "[a] & \" \" & [s] & [flag] & [b]",
+        "[s] = \"ACTIVE\"",
+        "[s] <> \"\"",
+        "[a] > [b]",
+        "[a] <= 10",
+        "[s] < \"m\"",
+        "[flag] = TRUE",
+        "[a] = [s]",
+        "[flag] > [a]",
+        "IF([flag], [a], [b])",
+        "IF([a] > 5, \"big\", \"small\")",
+        "IF([a] > 5, [s])",
+        "AND([flag], [a] > 0)",
+        "OR([a] > 100, NOT([flag]))",
+        "ABS([a] - [b])",
+        "LEN([s]) + LEN([b])",
+        "UPPER([s]) & LOWER([s])",
+        "[d] + 1",
+        "[d] > 40000",
+        "[n] * 2",
+        "[s] + 1",
+        "[a]",
+        "[s]",
+        "(([a] + 1) * ([b] - 1))"
+      })
+  void testSameResults(String formula) throws Exception {
+    for (boolean setNa : new boolean[] {false, true}) {
+      FormulaMetaFunction fn =
+          new FormulaMetaFunction("result", formula, IValueMeta.TYPE_STRING, -1, -1, "", setNa);
+      List<String> fields = getFormulaFieldList(formula);
+      CompiledFormula compiled =
+          CompiledFormula.compile(fn, rowMeta, variables, new HashMap<>(), fields);
+      assertNotNull(compiled, formula);
+
+      for (Object[] row : rows) {
+        CellValue actual = compiled.evaluate(row);
+        if (actual == null) {
+          // evaluated by the spreadsheet engine
+          continue;
+        }
+        CellValue expected =
+            new FormulaParser(fn, rowMeta, row, poi, variables, new HashMap<>(), fields)
+                .getFormulaValue();
+        String message = formula + " on " + rowMeta.getString(row);
+        assertEquals(expected.getCellType(), actual.getCellType(), message);
+        assertEquals(expected.formatAsString(), actual.formatAsString(), message);
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "SUM([a], [b])",
+        "ISBLANK([a])",
+        "IF([a] > 1, , 2)",
+        "[unknown] + 1",
+        "NOW()",
+        "[a] + ",
+      })
+  void testNotCompiled(String formula) {
+    FormulaMetaFunction fn =
+        new FormulaMetaFunction("result", formula, IValueMeta.TYPE_STRING, -1, -1, "", false);
+    assertNull(
+        CompiledFormula.compile(
+            fn, rowMeta, variables, new HashMap<>(), getFormulaFieldList(formula)));
+  }
+}
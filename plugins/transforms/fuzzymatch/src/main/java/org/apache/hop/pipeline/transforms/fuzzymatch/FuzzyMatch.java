@@ -24,6 +24,7 @@ import com.wcohen.ss.Jaro;
 import com.wcohen.ss.JaroWinkler;
 import com.wcohen.ss.NeedlemanWunsch;
 import java.util.Iterator;
+import java.util.Map;
 import org.apache.commons.codec.language.DoubleMetaphone;
 import org.apache.commons.codec.language.Metaphone;
 import org.apache.commons.codec.language.RefinedSoundex;
@@ -246,12 +247,13 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
     // Reserve room
     Object[] rowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
 
-    Iterator<Object[]> it = data.look.iterator();
-
     long distance = -1;
 
     String lookupValueString = getInputRowMeta().getString(row, data.indexOfMainField);
 
+    Iterator<Object[]> it =
+        data.probe.candidates(lookupValueString, data.maximalDistance, 0).iterator();
+
     while (it.hasNext()) {
       // Get cached row data
       Object[] cachedData = it.next();
@@ -314,11 +316,11 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
     // Reserve room
     Object[] rowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
 
-    Iterator<Object[]> it = data.look.iterator();
-
     Object o = row[data.indexOfMainField];
     String lookupvalue = (String) o;
 
+    Iterator<Object[]> it = data.probe.candidates(lookupvalue, 0, 0).iterator();
+
     String lookupValueMF = getEncodedMF(lookupvalue, meta.getAlgorithm());
 
     while (it.hasNext()) {
@@ -353,7 +355,7 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
     return rowData;
   }
 
-  private String getEncodedMF(String value, Algorithm algorithmType) {
+  static String getEncodedMF(String value, Algorithm algorithmType) {
     String encodedValueMF = "";
     switch (algorithmType) {
       case METAPHONE:
@@ -377,8 +379,6 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
   private Object[] doSimilarity(Object[] row) {
     // Reserve room
     Object[] rowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
-    // prepare to read from cache ...
-    Iterator<Object[]> it = data.look.iterator();
     double similarity = 0;
 
     // get current value from main stream
@@ -386,6 +386,10 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
 
     String lookupValueString = o == null ? "" : (String) o;
 
+    // prepare to read from cache ...
+    Iterator<Object[]> it =
+        data.probe.candidates(lookupValueString, 0, data.minimalSimilarity).iterator();
+
     while (it.hasNext()) {
       // Get cached row data
       Object[] cachedData = it.next();
@@ -437,6 +441,48 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
     return rowData;
   }
 
+  /**
+   * Index the lookup values. When running in multiple copies, the copies share a single index of
+   * the lookup values read by all copies.
+   *
+   * @return false if the transform was stopped while waiting for the other copies
+   */
+  private boolean buildIndex() throws HopException {
+    int nrCopies = getTransformMeta().getCopies(this);
+    if (nrCopies <= 1 || getTransformMeta().isPartitioned()) {
+      data.index = new FuzzyMatchIndex(meta.getAlgorithm(), meta.isCaseSensitive(), data.look);
+    } else {
+      Map<String, Object> extensionDataMap = getPipeline().getExtensionDataMap();
+      synchronized (extensionDataMap) {
+        data.sharedIndex =
+            (FuzzyMatchIndex.Shared)
+                extensionDataMap.computeIfAbsent(
+                    getSharedIndexKey(),
+                    key ->
+                        new FuzzyMatchIndex.Shared(
+                            nrCopies, data.infoStream.getTransformMeta().isDistributes()));
+      }
+      data.sharedIndex.add(getCopy(), data.look);
+      try {
+        data.index =
+            data.sharedIndex.getIndex(meta.getAlgorithm(), meta.isCaseSensitive(), this::isStopped);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new HopException(e);
+      }
+      if (data.index == null) {
+        return false;
+      }
+    }
+    data.look.clear();
+    data.probe = data.index.newProbe();
+    return true;
+  }
+
+  private String getSharedIndexKey() {
+    return FuzzyMatchIndex.class.getName() + ":" + getTransformName();
+  }
+
   @Override
   public boolean processRow() throws HopException {
     if (data.readLookupValues) {
@@ -453,6 +499,10 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
         logDetailed(
             BaseMessages.getString(PKG, "FuzzyMatch.Log.ReadValuesInMemory", data.look.size()));
       }
+      if (!buildIndex()) {
+        setOutputDone();
+        return false;
+      }
     }
 
     Object[] r = getRow(); // Get row from input rowset & set row busy!
@@ -597,6 +647,14 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
   @Override
   public void dispose() {
     data.look.clear();
+    if (data.sharedIndex != null && data.sharedIndex.release()) {
+      Map<String, Object> extensionDataMap = getPipeline().getExtensionDataMap();
+      synchronized (extensionDataMap) {
+        extensionDataMap.remove(getSharedIndexKey());
+      }
+    }
+    data.index = null;
+    data.probe = null;
     super.dispose();
   }
 }
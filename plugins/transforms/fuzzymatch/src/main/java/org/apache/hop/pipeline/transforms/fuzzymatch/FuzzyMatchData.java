@@ -33,6 +33,13 @@ public class FuzzyMatchData extends BaseTransformData implements ITransformData
 
   public boolean readLookupValues;
 
+  /** the index on the lookup values, possibly shared with the other copies */
+  public FuzzyMatchIndex index;
+
+  public FuzzyMatchIndex.Probe probe;
+
+  public FuzzyMatchIndex.Shared sharedIndex;
+
   /** index of main stream field */
   public int indexOfMainField;
 
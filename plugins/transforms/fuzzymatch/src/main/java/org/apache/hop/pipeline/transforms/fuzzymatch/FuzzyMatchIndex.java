@@ -0,0 +1,490 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fuzzymatch;
+
+import static org.apache.hop.pipeline.transforms.fuzzymatch.FuzzyMatchMeta.Algorithm;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hop.core.util.Utils;
+
+/**
+ * An index on the values of the lookup stream of the Fuzzy Match transform. It narrows down the
+ * lookup values to compare with a main stream value:
+ *
+ * <ul>
+ *   <li>Levenshtein and Damerau-Levenshtein: a BK-tree, only the values within the maximal distance
+ *       are returned.
+ *   <li>Jaro, Jaro-Winkler and pair letters similarity: an inverted index of the characters or
+ *       letter pairs. The values that can't reach the minimal similarity given the characters or
+ *       pairs they have in common with the main stream value are skipped.
+ *   <li>Phonetic algorithms: the values with the same code.
+ * </ul>
+ *
+ * The candidates are always returned in the order the lookup values were added, the same values are
+ * compared as with a full scan, only fewer of them. The index isn't changed after it is built and
+ * can be probed by several transform copies at the same time, each with its own {@link Probe}.
+ */
+public class FuzzyMatchIndex {
+  private static final double EPSILON = 1e-9;
+
+  private final Algorithm algorithm;
+  private final boolean caseSensitive;
+  private final List<Object[]> rows;
+  private final String[] keys;
+
+  /** The root of the BK-tree for the edit distances */
+  private Node root;
+
+  /** The row numbers per phonetic code */
+  private Map<String, IntList> codes;
+
+  /** The row numbers and the number of occurrences per character or letter pair */
+  private Map<String, IntList> postings;
+
+  /** The number of characters or letter pairs per row */
+  private int[] gramCounts;
+
+  /**
+   * Build the index.
+   *
+   * @param algorithm the matching algorithm
+   * @param caseSensitive true if the edit distances are case-sensitive
+   * @param lookupRows the cached lookup rows, the key value is the first value of each row
+   */
+  public FuzzyMatchIndex(
+      Algorithm algorithm, boolean caseSensitive, Collection<Object[]> lookupRows) {
+    this.algorithm = algorithm;
+    this.caseSensitive = caseSensitive;
+    this.rows = new ArrayList<>(lookupRows.size());
+    for (Object[] row : lookupRows) {
+      rows.add(row);
+    }
+    this.keys = new String[rows.size()];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = (String) rows.get(i)[0];
+    }
+
+    switch (algorithm) {
+      case LEVENSHTEIN, DAMERAU_LEVENSHTEIN:
+        if (!caseSensitive) {
+          for (int i = 0; i < keys.length; i++) {
+            keys[i] = keys[i].toLowerCase();
+          }
+        }
+        for (int i = 0; i < keys.length; i++) {
+          addToTree(i);
+        }
+        break;
+      case DOUBLE_METAPHONE, METAPHONE, SOUNDEX, REFINED_SOUNDEX:
+        indexCodes();
+        break;
+      case JARO, JARO_WINKLER:
+        // The Jaro implementation compares the lower case values
+        for (int i = 0; i < keys.length; i++) {
+          keys[i] = keys[i].toLowerCase();
+        }
+        indexGrams();
+        break;
+      case PAIR_SIMILARITY:
+        indexGrams();
+        break;
+      default:
+        // Needleman-Wunsch isn't a metric: compare all values
+        break;
+    }
+  }
+
+  /**
+   * @return the number of lookup values
+   */
+  public int size() {
+    return rows.size();
+  }
+
+  /**
+   * @return a new probe to look up values, to use by a single thread
+   */
+  public Probe newProbe() {
+    return new Probe();
+  }
+
+  private void addToTree(int row) {
+    if (root == null) {
+      root = new Node(row);
+      return;
+    }
+    Node node = root;
+    while (true) {
+      int distance = distance(keys[node.row], keys[row]);
+      if (distance == 0) {
+        node.addDuplicate(row);
+        return;
+      }
+      Node child = node.getChild(distance);
+      if (child == null) {
+        node.addChild(distance, new Node(row));
+        return;
+      }
+      node = child;
+    }
+  }
+
+  private int distance(String one, String two) {
+    if (algorithm == Algorithm.DAMERAU_LEVENSHTEIN) {
+      return Utils.getDamerauLevenshteinDistance(one, two);
+    }
+    return StringUtils.getLevenshteinDistance(one, two);
+  }
+
+  private void indexCodes() {
+    codes = new HashMap<>();
+    try {
+      for (int i = 0; i < keys.length; i++) {
+        String code = FuzzyMatch.getEncodedMF(keys[i], algorithm);
+        if (code != null) {
+          codes.computeIfAbsent(code, c -> new IntList()).add(i);
+        }
+      }
+    } catch (RuntimeException e) {
+      // A value the encoder can't handle: keep comparing all values, and report the error the same
+      // way
+      codes = null;
+    }
+  }
+
+  private void indexGrams() {
+    postings = new HashMap<>();
+    gramCounts = new int[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      Map<String, Integer> grams = grams(keys[i]);
+      for (Map.Entry<String, Integer> gram : grams.entrySet()) {
+        IntList posting = postings.computeIfAbsent(gram.getKey(), g -> new IntList());
+        posting.add(i);
+        posting.add(gram.getValue());
+        gramCounts[i] += gram.getValue();
+      }
+    }
+  }
+
+  /**
+   * @return the number of occurrences of the characters (Jaro) or the letter pairs of the words
+   *     (pair letters similarity) of the value
+   */
+  private Map<String, Integer> grams(String value) {
+    Map<String, Integer> grams = new HashMap<>();
+    if (algorithm == Algorithm.PAIR_SIMILARITY) {
+      for (String pair : LetterPairSimilarity.wordLetterPairs(value.toUpperCase())) {
+        grams.merge(pair, 1, Integer::sum);
+      }
+    } else {
+      for (int i = 0; i < value.length(); i++) {
+        grams.merge(String.valueOf(value.charAt(i)), 1, Integer::sum);
+      }
+    }
+    return grams;
+  }
+
+  /**
+   * The highest similarity possible between two values given the number of characters or pairs they
+   * have in common.
+   */
+  private double maximalSimilarity(int common, int length, int otherLength) {
+    if (algorithm == Algorithm.PAIR_SIMILARITY) {
+      return (2.0 * common) / (length + otherLength);
+    }
+    // Jaro: the number of matching characters is at most the number of common characters
+    int matching = Math.min(common, Math.min(length, otherLength));
+    double jaro = (matching / (double) length + matching / (double) otherLength + 1.0) / 3.0;
+    if (algorithm == Algorithm.JARO_WINKLER) {
+      // The common prefix adds at most 4 times 0.1 of the rest
+      return jaro + 0.4 * (1.0 - jaro);
+    }
+    return jaro;
+  }
+
+  /** Looks up candidates in the index, holds the state of a single lookup. */
+  public class Probe {
+    private int[] counts;
+    private final IntList touched = new IntList();
+    private final Deque<Node> stack = new ArrayDeque<>();
+
+    private Probe() {}
+
+    /**
+     * Get the lookup rows that can match a value.
+     *
+     * @param value the main stream value
+     * @param maximalDistance the maximal edit distance of a match
+     * @param minimalSimilarity the minimal similarity of a match
+     * @return the candidate lookup rows in the order they were added
+     */
+    public List<Object[]> candidates(String value, int maximalDistance, double minimalSimilarity) {
+      IntList found =
+          switch (algorithm) {
+            case LEVENSHTEIN, DAMERAU_LEVENSHTEIN ->
+                findInTree(caseSensitive ? value : value.toLowerCase(), maximalDistance);
+            case DOUBLE_METAPHONE, METAPHONE, SOUNDEX, REFINED_SOUNDEX -> findCode(value);
+            case JARO, JARO_WINKLER -> findGrams(value.toLowerCase(), minimalSimilarity);
+            case PAIR_SIMILARITY -> findGrams(value, minimalSimilarity);
+            default -> null;
+          };
+      if (found == null) {
+        return rows;
+      }
+      int[] ids = found.toArray();
+      Arrays.sort(ids);
+      List<Object[]> candidates = new ArrayList<>(ids.length);
+      for (int id : ids) {
+        candidates.add(rows.get(id));
+      }
+      return candidates;
+    }
+
+    private IntList findInTree(String value, int maximalDistance) {
+      IntList found = new IntList();
+      if (root == null) {
+        return found;
+      }
+      stack.clear();
+      stack.push(root);
+      while (!stack.isEmpty()) {
+        Node node = stack.pop();
+        int distance = distance(keys[node.row], value);
+        if (distance <= maximalDistance) {
+          found.add(node.row);
+          if (node.duplicates != null) {
+            found.addAll(node.duplicates);
+          }
+        }
+        // Only the children at a distance in [d-max, d+max] can be within reach
+        for (int i = 0; i < node.nrChildren; i++) {
+          if (Math.abs(node.distances[i] - distance) <= maximalDistance) {
+            stack.push(node.children[i]);
+          }
+        }
+      }
+      return found;
+    }
+
+    private IntList findCode(String value) {
+      if (codes == null) {
+        return null;
+      }
+      String code = FuzzyMatch.getEncodedMF(value, algorithm);
+      if (code == null) {
+        return null;
+      }
+      IntList found = codes.get(code);
+      return found == null ? new IntList() : found;
+    }
+
+    private IntList findGrams(String value, double minimalSimilarity) {
+      if (minimalSimilarity <= 0.0) {
+        // Values without anything in common can match as well
+        return null;
+      }
+      Map<String, Integer> grams = grams(value);
+      if (grams.isEmpty()) {
+        return null;
+      }
+      if (counts == null) {
+        counts = new int[rows.size()];
+      }
+
+      int nrGrams = 0;
+      touched.clear();
+      for (Map.Entry<String, Integer> gram : grams.entrySet()) {
+        int queryCount = gram.getValue();
+        nrGrams += queryCount;
+        IntList posting = postings.get(gram.getKey());
+        if (posting == null) {
+          continue;
+        }
+        for (int i = 0; i < posting.size; i += 2) {
+          int row = posting.values[i];
+          if (counts[row] == 0) {
+            touched.add(row);
+          }
+          counts[row] += Math.min(queryCount, posting.values[i + 1]);
+        }
+      }
+
+      IntList found = new IntList();
+      int length = algorithm == Algorithm.PAIR_SIMILARITY ? nrGrams : value.length();
+      for (int i = 0; i < touched.size; i++) {
+        int row = touched.values[i];
+        int otherLength =
+            algorithm == Algorithm.PAIR_SIMILARITY ? gramCounts[row] : keys[row].length();
+        if (maximalSimilarity(counts[row], length, otherLength) >= minimalSimilarity - EPSILON) {
+          found.add(row);
+        }
+        counts[row] = 0;
+      }
+      return found;
+    }
+  }
+
+  /**
+   * The index of the lookup values of a transform running in multiple copies. Every copy adds the
+   * lookup rows it read, the index is built once all copies are done.
+   */
+  public static class Shared {
+    private final int nrCopies;
+    private final boolean distributed;
+    private final List<Object[]> lookupRows = new ArrayList<>();
+    private int nrAdded;
+    private int nrUsers;
+    private FuzzyMatchIndex index;
+
+    /**
+     * @param nrCopies the number of copies of the transform
+     * @param distributed true if the lookup rows are distributed over the copies, false if every
+     *     copy receives all rows
+     */
+    public Shared(int nrCopies, boolean distributed) {
+      this.nrCopies = nrCopies;
+      this.distributed = distributed;
+    }
+
+    /**
+     * Add the lookup rows read by a copy.
+     *
+     * @param copyNr the copy number
+     * @param copyRows the rows read by the copy
+     */
+    public synchronized void add(int copyNr, Collection<Object[]> copyRows) {
+      if (distributed || copyNr == 0) {
+        lookupRows.addAll(copyRows);
+      }
+      nrAdded++;
+      nrUsers++;
+      notifyAll();
+    }
+
+    /**
+     * Wait until all copies added their rows and get the index.
+     *
+     * @param algorithm the matching algorithm
+     * @param caseSensitive true if the edit distances are case-sensitive
+     * @param stopped tells whether to stop waiting
+     * @return the index or null if stopped
+     */
+    public synchronized FuzzyMatchIndex getIndex(
+        Algorithm algorithm, boolean caseSensitive, BooleanSupplier stopped)
+        throws InterruptedException {
+      while (nrAdded < nrCopies) {
+        if (stopped.getAsBoolean()) {
+          return null;
+        }
+        wait(100);
+      }
+      if (index == null) {
+        index = new FuzzyMatchIndex(algorithm, caseSensitive, lookupRows);
+        lookupRows.clear();
+      }
+      return index;
+    }
+
+    /**
+     * A copy is done using the index.
+     *
+     * @return true if no copy uses the index anymore
+     */
+    public synchronized boolean release() {
+      nrUsers--;
+      return nrUsers <= 0;
+    }
+  }
+
+  /** A node of the BK-tree, the children are kept by their distance to this node. */
+  private static final class Node {
+    private final int row;
+    private IntList duplicates;
+    private int[] distances;
+    private Node[] children;
+    private int nrChildren;
+
+    private Node(int row) {
+      this.row = row;
+    }
+
+    private void addDuplicate(int duplicate) {
+      if (duplicates == null) {
+        duplicates = new IntList();
+      }
+      duplicates.add(duplicate);
+    }
+
+    private Node getChild(int distance) {
+      for (int i = 0; i < nrChildren; i++) {
+        if (distances[i] == distance) {
+          return children[i];
+        }
+      }
+      return null;
+    }
+
+    private void addChild(int distance, Node child) {
+      if (children == null) {
+        distances = new int[2];
+        children = new Node[2];
+      } else if (nrChildren == children.length) {
+        distances = Arrays.copyOf(distances, nrChildren * 2);
+        children = Arrays.copyOf(children, nrChildren * 2);
+      }
+      distances[nrChildren] = distance;
+      children[nrChildren++] = child;
+    }
+  }
+
+  /** A growing list of primitive ints. */
+  private static final class IntList {
+    private int[] values = new int[4];
+    private int size;
+
+    private void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    private void addAll(IntList other) {
+      for (int i = 0; i < other.size; i++) {
+        add(other.values[i]);
+      }
+    }
+
+    private void clear() {
+      size = 0;
+    }
+
+    private int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fuzzymatch;
+
+import static org.apache.hop.pipeline.transforms.fuzzymatch.FuzzyMatchMeta.Algorithm;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wcohen.ss.Jaro;
+import com.wcohen.ss.JaroWinkler;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hop.core.util.Utils;
+import org.junit.jupiter.api.Test;
+
+class FuzzyMatchIndexTest {
+  private static final String[] WORDS = {
+    "Catrine",
+    "Catriny",
+    "Katrin",
+    "John",
+    "Jon",
+    "Johan",
+    "Joanna",
+    "Anna",
+    "Hanna",
+    "Marie",
+    "Mary",
+    "Maria",
+    "Smith",
+    "Smyth",
+    "Schmidt",
+    "van der Berg",
+    "Vanderberg",
+    "de Vries",
+    "",
+  };
+
+  private final List<Object[]> lookupRows = createRows(2000, 1);
+  private final List<String> values = createValues(300, 2);
+
+  @Test
+  void testLevenshtein() {
+    for (boolean caseSensitive : new boolean[] {true, false}) {
+      for (int maximalDistance : new int[] {0, 1, 3, 6}) {
+        assertSameMatches(
+            Algorithm.LEVENSHTEIN,
+            caseSensitive,
+            maximalDistance,
+            0,
+            (a, b) -> StringUtils.getLevenshteinDistance(a, b) <= maximalDistance);
+      }
+    }
+  }
+
+  @Test
+  void testDamerauLevenshtein() {
+    for (int maximalDistance : new int[] {0, 2, 4}) {
+      assertSameMatches(
+          Algorithm.DAMERAU_LEVENSHTEIN,
+          true,
+          maximalDistance,
+          0,
+          (a, b) -> Utils.getDamerauLevenshteinDistance(a, b) <= maximalDistance);
+    }
+  }
+
+  @Test
+  void testSimilarity() {
+    for (double minimalSimilarity : new double[] {0.3, 0.6, 0.8, 0.95, 1.0}) {
+      assertSameMatches(
+          Algorithm.JARO,
+          true,
+          0,
+          minimalSimilarity,
+          (a, b) -> new Jaro().score(a, b) >= minimalSimilarity);
+      assertSameMatches(
+          Algorithm.JARO_WINKLER,
+          true,
+          0,
+          minimalSimilarity,
+          (a, b) -> new JaroWinkler().score(a, b) >= minimalSimilarity);
+      assertSameMatches(
+          Algorithm.PAIR_SIMILARITY,
+          true,
+          0,
+          minimalSimilarity,
+          (a, b) -> LetterPairSimilarity.getSimiliarity(a, b) >= minimalSimilarity);
+    }
+  }
+
+  @Test
+  void testPhonetic() {
+    for (Algorithm algorithm :
+        new Algorithm[] {
+          Algorithm.SOUNDEX,
+          Algorithm.REFINED_SOUNDEX,
+          Algorithm.METAPHONE,
+          Algorithm.DOUBLE_METAPHONE
+        }) {
+      assertSameMatches(
+          algorithm,
+          true,
+          0,
+          0,
+          (a, b) ->
+              FuzzyMatch.getEncodedMF(b, algorithm) != null
+                  && FuzzyMatch.getEncodedMF(b, algorithm)
+                      .equals(FuzzyMatch.getEncodedMF(a, algorithm)));
+    }
+  }
+
+  @Test
+  void testAllValues() {
+    // Needleman-Wunsch and a minimal similarity of 0 compare with all values
+    FuzzyMatchIndex index = new FuzzyMatchIndex(Algorithm.NEEDLEMAN_WUNSH, true, lookupRows);
+    assertEquals(lookupRows, index.newProbe().candidates("John", 3, 0));
+
+    index = new FuzzyMatchIndex(Algorithm.JARO, true, lookupRows);
+    assertEquals(lookupRows, index.newProbe().candidates("John", 0, 0.0));
+  }
+
+  @Test
+  void testConcurrentProbes() throws Exception {
+    FuzzyMatchIndex index = new FuzzyMatchIndex(Algorithm.PAIR_SIMILARITY, true, lookupRows);
+    List<List<Object[]>> expected = new ArrayList<>();
+    FuzzyMatchIndex.Probe probe = index.newProbe();
+    for (String value : values) {
+      expected.add(probe.candidates(value, 0, 0.5));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<List<List<Object[]>>>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  FuzzyMatchIndex.Probe threadProbe = index.newProbe();
+                  List<List<Object[]>> found = new ArrayList<>();
+                  for (String value : values) {
+                    found.add(threadProbe.candidates(value, 0, 0.5));
+                  }
+                  return found;
+                }));
+      }
+      for (Future<List<List<Object[]>>> future : futures) {
+        assertEquals(expected, future.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testShared() throws Exception {
+    // Distributed rows: the index contains the rows of all copies
+    FuzzyMatchIndex.Shared shared = new FuzzyMatchIndex.Shared(2, true);
+    shared.add(0, lookupRows.subList(0, 1000));
+    assertNull(shared.getIndex(Algorithm.LEVENSHTEIN, true, () -> true));
+    shared.add(1, lookupRows.subList(1000, 2000));
+    FuzzyMatchIndex index = shared.getIndex(Algorithm.LEVENSHTEIN, true, () -> false);
+    assertEquals(2000, index.size());
+    assertSame(index, shared.getIndex(Algorithm.LEVENSHTEIN, true, () -> false));
+    assertFalse(shared.release());
+    assertTrue(shared.release());
+
+    // Copied rows: every copy received all rows, they are indexed once
+    shared = new FuzzyMatchIndex.Shared(2, false);
+    shared.add(1, lookupRows);
+    shared.add(0, lookupRows);
+    assertEquals(2000, shared.getIndex(Algorithm.LEVENSHTEIN, true, () -> false).size());
+  }
+
+  private interface Matcher {
+    boolean matches(String lookupValue, String value);
+  }
+
+  /** The candidates include all matches and are in the same order as the lookup rows. */
+  private void assertSameMatches(
+      Algorithm algorithm,
+      boolean caseSensitive,
+      int maximalDistance,
+      double minimalSimilarity,
+      Matcher matcher) {
+    FuzzyMatchIndex index = new FuzzyMatchIndex(algorithm, caseSensitive, lookupRows);
+    FuzzyMatchIndex.Probe probe = index.newProbe();
+    for (String value : values) {
+      String compareValue = caseSensitive ? value : value.toLowerCase();
+      List<Object[]> expected = new ArrayList<>();
+      for (Object[] row : lookupRows) {
+        String lookupValue = caseSensitive ? (String) row[0] : ((String) row[0]).toLowerCase();
+        if (matcher.matches(lookupValue, compareValue)) {
+          expected.add(row);
+        }
+      }
+
+      List<Object[]> matches = new ArrayList<>();
+      List<Object[]> candidates = probe.candidates(value, maximalDistance, minimalSimilarity);
+      int previous = -1;
+      for (Object[] candidate : candidates) {
+        int position = lookupRows.indexOf(candidate);
+        assertTrue(position > previous, "candidates are in the order of the lookup rows");
+        previous = position;
+        String lookupValue =
+            caseSensitive ? (String) candidate[0] : ((String) candidate[0]).toLowerCase();
+        if (matcher.matches(lookupValue, compareValue)) {
+          matches.add(candidate);
+        }
+      }
+      assertEquals(expected, matches, algorithm + " " + value);
+    }
+  }
+
+  private static List<Object[]> createRows(int nrRows, long seed) {
+    List<Object[]> rows = new ArrayList<>();
+    for (String value : createValues(nrRows, seed)) {
+      rows.add(new Object[] {value, rows.size()});
+    }
+    return rows;
+  }
+
+  /** Variations of a few words with letters replaced, swapped, added or removed. */
+  private static List<String> createValues(int nrValues, long seed) {
+    Random random = new Random(seed);
+    List<String> values = new ArrayList<>();
+    for (int i = 0; i < nrValues; i++) {
+      StringBuilder value = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+      int nrEdits = random.nextInt(4);
+      for (int e = 0; e < nrEdits && !value.isEmpty(); e++) {
+        int position = random.nextInt(value.length());
+        char letter = (char) ('a' + random.nextInt(26));
+        switch (random.nextInt(5)) {
+          case 0 -> value.setCharAt(position, letter);
+          case 1 -> value.insert(position, letter);
+          case 2 -> value.deleteCharAt(position);
+          case 3 -> value.setCharAt(position, Character.toUpperCase(value.charAt(position)));
+          default -> {
+            if (position + 1 < value.length()) {
+              char c = value.charAt(position);
+              value.setCharAt(position, value.charAt(position + 1));
+              value.setCharAt(position + 1, c);
+            }
+          }
+        }
+      }
+      values.add(value.toString());
+    }
+    return values;
+  }
+}
@@ -33,6 +33,7 @@ import org.apache.hc.client5.http.impl.auth.BasicScheme;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpHost;
@@ -49,6 +50,7 @@ import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.util.AsyncRequestQueue;
 import org.apache.hop.core.util.HttpClientManager;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
@@ -80,6 +82,11 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
   }
 
   private Object[] execHttp(IRowMeta rowMeta, Object[] row) throws HopException {
+    lookupQueryParameters(rowMeta);
+    return callHttpService(rowMeta, row);
+  }
+
+  private void lookupQueryParameters(IRowMeta rowMeta) throws HopException {
     if (first) {
       first = false;
       int nrQueryParameters = meta.getLookupParameters().getQueryParameters().size();
@@ -101,39 +108,39 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
         }
       }
     }
-
-    return callHttpService(rowMeta, row);
   }
 
   @VisibleForTesting
   Object[] callHttpService(IRowMeta rowMeta, Object[] rowData) throws HopException {
-    CloseableHttpClient httpClient = createClientBuilder().build();
-
-    // Prepare Http get
-    URI uri = null;
-    long lineageStart = System.currentTimeMillis();
-    long volumeInBefore = dataVolumeIn != null ? dataVolumeIn : 0L;
-    data.lastHttpResponseBodyBytes = 0;
-    String urlForLineage = data.realUrl;
-    Integer lineageStatus = null;
-    boolean lineageOk = false;
-    String lineageErr = null;
-    try {
-      URIBuilder uriBuilder = constructUrlBuilder(rowMeta, rowData);
-
-      uri = uriBuilder.build();
-      urlForLineage = uri.toString();
-      HttpGet method = new HttpGet(uri);
-
-      // Add Custom Http headers
-      addHeadersToMethod(rowData, method);
+    HttpCall call = prepareCall(rowMeta, rowData);
+    call.execute(createClientBuilder().build(), false);
+    return handleCall(call, rowMeta, rowData);
+  }
 
-      Object[] newRow = null;
-      if (rowData != null) {
-        newRow = rowData.clone();
+  /**
+   * One call of the service. The request is prepared and the response handled on the transform
+   * thread, the request itself can be executed on any thread.
+   */
+  final class HttpCall {
+    private final long lineageStart = System.currentTimeMillis();
+    private String urlForLineage = data.realUrl;
+    private URI uri;
+    private HttpGet method;
+    private CloseableHttpResponse httpResponse;
+    private long responseTime;
+    private int statusCode;
+    private Exception error;
+
+    /**
+     * Execute the request, failures are kept for the transform thread.
+     *
+     * @param httpClient the client to execute the request with
+     * @param buffered true to read the response body and release the connection right away
+     */
+    void execute(CloseableHttpClient httpClient, boolean buffered) {
+      if (error != null) {
+        return;
       }
-      // Execute request
-      CloseableHttpResponse httpResponse = null;
       try {
         // used for calculating the responseTime
         long startTime = System.currentTimeMillis();
@@ -150,11 +157,71 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
                 buildHttpClientContext(target, data.realHttpLogin, data.realHttpPassword));
 
         // calculate the responseTime
-        long responseTime = System.currentTimeMillis() - startTime;
+        responseTime = System.currentTimeMillis() - startTime;
+        statusCode = requestStatusCode(httpResponse);
+
+        if (buffered) {
+          HttpEntity entity = httpResponse.getEntity();
+          if (entity != null) {
+            httpResponse.setEntity(
+                new ByteArrayEntity(
+                    EntityUtils.toByteArray(entity),
+                    ContentType.parseLenient(entity.getContentType())));
+          }
+          httpResponse.close();
+        }
+      } catch (Exception e) {
+        error = e;
+        if (httpResponse != null) {
+          try {
+            httpResponse.close();
+          } catch (IOException closeException) {
+            e.addSuppressed(closeException);
+          }
+        }
+      }
+    }
+  }
+
+  private HttpCall prepareCall(IRowMeta rowMeta, Object[] rowData) {
+    HttpCall call = new HttpCall();
+    try {
+      URIBuilder uriBuilder = constructUrlBuilder(rowMeta, rowData);
+
+      call.uri = uriBuilder.build();
+      call.urlForLineage = call.uri.toString();
+      call.method = new HttpGet(call.uri);
+
+      // Add Custom Http headers
+      addHeadersToMethod(rowData, call.method);
+    } catch (Exception e) {
+      call.error = e;
+    }
+    return call;
+  }
+
+  private Object[] handleCall(HttpCall call, IRowMeta rowMeta, Object[] rowData)
+      throws HopException {
+    long volumeInBefore = dataVolumeIn != null ? dataVolumeIn : 0L;
+    data.lastHttpResponseBodyBytes = 0;
+    Integer lineageStatus = null;
+    boolean lineageOk = false;
+    String lineageErr = null;
+    try {
+      if (call.error != null) {
+        throw call.error;
+      }
+
+      Object[] newRow = null;
+      if (rowData != null) {
+        newRow = rowData.clone();
+      }
+      try {
         if (isDetailed()) {
-          logDetailed(BaseMessages.getString(PKG, "HTTP.Log.ResponseTime", responseTime, uri));
+          logDetailed(
+              BaseMessages.getString(PKG, "HTTP.Log.ResponseTime", call.responseTime, call.uri));
         }
-        int statusCode = requestStatusCode(httpResponse);
+        int statusCode = call.statusCode;
         lineageStatus = statusCode;
         // The status code
         if (isDebug()) {
@@ -162,9 +229,9 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
         }
 
         String body;
-        body = handResponse(statusCode, httpResponse);
+        body = handResponse(statusCode, call.httpResponse);
 
-        String headerString = extractHeaderString(searchForHeaders(httpResponse));
+        String headerString = extractHeaderString(searchForHeaders(call.httpResponse));
 
         int returnFieldsOffset = rowMeta.size();
         if (!Utils.isEmpty(meta.getResultFields().getFieldName())) {
@@ -177,16 +244,14 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
           returnFieldsOffset++;
         }
         if (!Utils.isEmpty(meta.getResultFields().getResponseTimeFieldName())) {
-          newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, responseTime);
+          newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, call.responseTime);
           returnFieldsOffset++;
         }
         if (!Utils.isEmpty(meta.getResultFields().getResponseHeaderFieldName())) {
           newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, headerString);
         }
       } finally {
-        if (httpResponse != null) {
-          httpResponse.close();
-        }
+        call.httpResponse.close();
       }
       lineageOk = true;
       return newRow;
@@ -196,7 +261,7 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
           BaseMessages.getString(PKG, "HTTP.Error.UnknownHostException", uhe.getMessage()));
     } catch (Exception e) {
       lineageErr = e.getMessage();
-      throw new HopException(BaseMessages.getString(PKG, "HTTP.Log.UnableGetResult", uri), e);
+      throw new HopException(BaseMessages.getString(PKG, "HTTP.Log.UnableGetResult", call.uri), e);
     } finally {
       long respDelta = (dataVolumeIn != null ? dataVolumeIn : 0L) - volumeInBefore;
       if (respDelta <= 0 && data.lastHttpResponseBodyBytes > 0) {
@@ -207,11 +272,11 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
           new HttpLineagePayload(
               HttpDirection.CLIENT,
               "GET",
-              urlForLineage,
+              call.urlForLineage,
               lineageStatus,
               null,
               respDelta > 0 ? respDelta : null,
-              System.currentTimeMillis() - lineageStart,
+              System.currentTimeMillis() - call.lineageStart,
               lineageOk,
               lineageErr));
     }
@@ -267,8 +332,7 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
     dataVolumeIn = (dataVolumeIn != null ? dataVolumeIn : 0L) + bodyBytes.length;
 
     ByteArrayEntity countedEntity =
-        new ByteArrayEntity(
-            bodyBytes, org.apache.hc.core5.http.ContentType.APPLICATION_OCTET_STREAM);
+        new ByteArrayEntity(bodyBytes, ContentType.APPLICATION_OCTET_STREAM);
 
     try {
       return StringUtils.isEmpty(meta.getEncoding())
@@ -378,6 +442,10 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
 
     boolean firstWithoutPreviousTransforms = first && data.withoutPreviousTransforms;
     if (r == null && !firstWithoutPreviousTransforms) {
+      // Wait for the requests in flight
+      if (!putCompletedCalls(true)) {
+        return false;
+      }
       setOutputDone();
       return false;
     }
@@ -386,6 +454,10 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
       firstProcessRow(r);
     }
 
+    if (data.requests != null) {
+      return submitCall(r);
+    }
+
     try {
       Object[] outputRowData = execHttp(data.inputRowMeta, r); // add new values to the row
       putRow(data.outputRowMeta, outputRowData); // copy row to output rowset(s)
@@ -394,21 +466,100 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
         logDetailed(BaseMessages.getString(PKG, "HTTP.LineNumber") + getLinesRead());
       }
     } catch (HopException e) {
-      String errorMessage;
+      return handleError(r, e);
+    }
 
-      if (getTransformMeta().isDoingErrorHandling()) {
-        errorMessage = e.toString();
-      } else {
-        logError(BaseMessages.getString(PKG, "HTTP.ErrorInTransformRunning") + e.getMessage());
-        setErrors(1);
-        stopAll();
-        setOutputDone(); // signal end to receiver(s)
+    return true;
+  }
+
+  /** Start the call for a row on the pool and pass the calls which completed in the meantime. */
+  private boolean submitCall(Object[] r) throws HopException {
+    try {
+      lookupQueryParameters(data.inputRowMeta);
+    } catch (HopException e) {
+      return handleError(r, e);
+    }
+    while (data.requests.isFull()) {
+      if (!putCompletedCall(takeCompletedCall())) {
         return false;
       }
-      // Simply add this row to the error row
-      putError(data.inputRowMeta, r, 1, errorMessage, null, "HTTP001");
     }
+    HttpCall call = prepareCall(data.inputRowMeta, r);
+    data.requests.submit(
+        r,
+        () -> {
+          call.execute(data.httpClient, true);
+          return call;
+        });
+    return putCompletedCalls(false);
+  }
 
+  /**
+   * Pass the completed calls to the next transforms.
+   *
+   * @param waitForAll true to wait for all calls in flight
+   * @return false if the transform stopped because of an error
+   */
+  private boolean putCompletedCalls(boolean waitForAll) throws HopException {
+    if (data.requests == null) {
+      return true;
+    }
+    AsyncRequestQueue.Request<HttpCall> request;
+    while ((request = waitForAll ? takeCompletedCall() : data.requests.poll()) != null) {
+      if (!putCompletedCall(request)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private AsyncRequestQueue.Request<HttpCall> takeCompletedCall() throws HopException {
+    try {
+      return data.requests.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException(BaseMessages.getString(PKG, "HTTP.Exception.Interrupted"), e);
+    }
+  }
+
+  private boolean putCompletedCall(AsyncRequestQueue.Request<HttpCall> request)
+      throws HopException {
+    Object[] r = request.getRow();
+    try {
+      if (request.getError() != null) {
+        throw new HopException(request.getError());
+      }
+      Object[] outputRowData = handleCall(request.getResult(), data.inputRowMeta, r);
+      putRow(data.outputRowMeta, outputRowData);
+
+      if (checkFeedback(getLinesRead()) && isDetailed()) {
+        logDetailed(BaseMessages.getString(PKG, "HTTP.LineNumber") + getLinesRead());
+      }
+    } catch (HopException e) {
+      return handleError(r, e);
+    }
+    return true;
+  }
+
+  /**
+   * Send the row to the error handling or stop the transform.
+   *
+   * @return false if the transform stopped
+   */
+  private boolean handleError(Object[] r, HopException e) throws HopException {
+    String errorMessage;
+
+    if (getTransformMeta().isDoingErrorHandling()) {
+      errorMessage = e.toString();
+    } else {
+      logError(BaseMessages.getString(PKG, "HTTP.ErrorInTransformRunning") + e.getMessage());
+      setErrors(1);
+      stopAll();
+      setOutputDone(); // signal end to receiver(s)
+      return false;
+    }
+    // Simply add this row to the error row
+    putError(data.inputRowMeta, r, 1, errorMessage, null, "HTTP001");
     return true;
   }
 
@@ -486,8 +637,33 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
       data.withoutPreviousTransforms =
           getPipelineMeta().getPrevTransforms(getTransformMeta()).length == 0;
 
+      int concurrentRequests = Const.toInt(resolve(meta.getConcurrentRequests()), 1);
+      if (concurrentRequests > 1) {
+        data.httpClient = createClientBuilder().setConnectionPoolSize(concurrentRequests).build();
+        data.requests =
+            new AsyncRequestQueue<>(
+                getTransformName(), concurrentRequests, !meta.isUnorderedResults());
+      }
+
       return true;
     }
     return false;
   }
+
+  @Override
+  public void dispose() {
+    if (data.requests != null) {
+      data.requests.close();
+      data.requests = null;
+    }
+    if (data.httpClient != null) {
+      try {
+        data.httpClient.close();
+      } catch (IOException e) {
+        logError(BaseMessages.getString(PKG, "HTTP.Log.UnableCloseClient"), e);
+      }
+      data.httpClient = null;
+    }
+    super.dispose();
+  }
 }
@@ -17,8 +17,10 @@
 
 package org.apache.hop.pipeline.transforms.http;
 
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.core5.http.NameValuePair;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.util.AsyncRequestQueue;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
@@ -44,6 +46,12 @@ public class HttpData extends BaseTransformData implements ITransformData {
   /** Bytes read from the last HTTP response body (for lineage). */
   public int lastHttpResponseBodyBytes;
 
+  /** The client shared by all requests when more than one request is in flight. */
+  public CloseableHttpClient httpClient;
+
+  /** The requests in flight, null when calling the service one row at a time. */
+  public AsyncRequestQueue<Http.HttpCall> requests;
+
   /** Default constructor. */
   public HttpData() {
     super();
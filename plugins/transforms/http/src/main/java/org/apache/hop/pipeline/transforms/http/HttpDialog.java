@@ -110,6 +110,10 @@ public class HttpDialog extends BaseTransformDialog {
 
   private TextVar wCloseIdleConnectionsTime;
 
+  private TextVar wConcurrentRequests;
+
+  private Button wUnorderedResults;
+
   public HttpDialog(
       Shell parent, IVariables variables, HttpMeta transformMeta, PipelineMeta pipelineMeta) {
     super(parent, variables, transformMeta, pipelineMeta);
@@ -155,6 +159,8 @@ public class HttpDialog extends BaseTransformDialog {
     setupConnectionTimeoutLine(lsMod, gSettings);
     setupSocketTimeoutLine(lsMod, gSettings);
     setupCloseWaitTimeLine(lsMod, gSettings);
+    setupConcurrentRequestsLine(lsMod, gSettings);
+    setupUnorderedResultsLine(gSettings);
 
     FormData fdSettings = new FormData();
     fdSettings.left = new FormAttachment(0, 0);
@@ -637,6 +643,59 @@ public class HttpDialog extends BaseTransformDialog {
     wCloseIdleConnectionsTime.setLayoutData(fdCloseIdleConnectionsTime);
   }
 
+  private void setupConcurrentRequestsLine(ModifyListener lsMod, Group gSettings) {
+    int margin = PropsUi.getMargin();
+    int middle = props.getMiddlePct();
+    Label wlConcurrentRequests = new Label(gSettings, SWT.RIGHT);
+    wlConcurrentRequests.setText(
+        BaseMessages.getString(PKG, "HTTPDialog.ConcurrentRequests.Label"));
+    PropsUi.setLook(wlConcurrentRequests);
+    FormData fdlConcurrentRequests = new FormData();
+    fdlConcurrentRequests.top = new FormAttachment(wCloseIdleConnectionsTime, margin);
+    fdlConcurrentRequests.left = new FormAttachment(0, 0);
+    fdlConcurrentRequests.right = new FormAttachment(middle, -margin);
+    wlConcurrentRequests.setLayoutData(fdlConcurrentRequests);
+    wConcurrentRequests = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wConcurrentRequests.addModifyListener(lsMod);
+    wConcurrentRequests.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPDialog.ConcurrentRequests.Tooltip"));
+    PropsUi.setLook(wConcurrentRequests);
+    FormData fdConcurrentRequests = new FormData();
+    fdConcurrentRequests.top = new FormAttachment(wCloseIdleConnectionsTime, margin);
+    fdConcurrentRequests.left = new FormAttachment(middle, 0);
+    fdConcurrentRequests.right = new FormAttachment(100, 0);
+    wConcurrentRequests.setLayoutData(fdConcurrentRequests);
+  }
+
+  private void setupUnorderedResultsLine(Group gSettings) {
+    int margin = PropsUi.getMargin();
+    int middle = props.getMiddlePct();
+    Label wlUnorderedResults = new Label(gSettings, SWT.RIGHT);
+    wlUnorderedResults.setText(BaseMessages.getString(PKG, "HTTPDialog.UnorderedResults.Label"));
+    PropsUi.setLook(wlUnorderedResults);
+    FormData fdlUnorderedResults = new FormData();
+    fdlUnorderedResults.left = new FormAttachment(0, 0);
+    fdlUnorderedResults.top = new FormAttachment(wConcurrentRequests, margin);
+    fdlUnorderedResults.right = new FormAttachment(middle, -margin);
+    wlUnorderedResults.setLayoutData(fdlUnorderedResults);
+    wUnorderedResults = new Button(gSettings, SWT.CHECK);
+    wUnorderedResults.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPDialog.UnorderedResults.Tooltip"));
+    PropsUi.setLook(wUnorderedResults);
+    FormData fdUnorderedResults = new FormData();
+    fdUnorderedResults.left = new FormAttachment(middle, 0);
+    fdUnorderedResults.top = new FormAttachment(wlUnorderedResults, 0, SWT.CENTER);
+    fdUnorderedResults.right = new FormAttachment(100, 0);
+    wUnorderedResults.setLayoutData(fdUnorderedResults);
+    wUnorderedResults.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+  }
+
   private void setupSocketTimeoutLine(ModifyListener lsMod, Group gSettings) {
     int margin = PropsUi.getMargin();
     int middle = props.getMiddlePct();
@@ -923,6 +982,8 @@ public class HttpDialog extends BaseTransformDialog {
     wSocketTimeOut.setText(Const.NVL(input.getSocketTimeout(), ""));
     wConnectionTimeOut.setText(Const.NVL(input.getConnectionTimeout(), ""));
     wCloseIdleConnectionsTime.setText(Const.NVL(input.getCloseIdleConnectionsTime(), ""));
+    wConcurrentRequests.setText(Const.NVL(input.getConcurrentRequests(), ""));
+    wUnorderedResults.setSelection(input.isUnorderedResults());
 
     wUrl.setText(Const.NVL(input.getUrl(), ""));
     wUrlInField.setSelection(input.isUrlInField());
@@ -998,6 +1059,8 @@ public class HttpDialog extends BaseTransformDialog {
     input.setSocketTimeout(wSocketTimeOut.getText());
     input.setConnectionTimeout(wConnectionTimeOut.getText());
     input.setCloseIdleConnectionsTime(wCloseIdleConnectionsTime.getText());
+    input.setConcurrentRequests(wConcurrentRequests.getText());
+    input.setUnorderedResults(wUnorderedResults.getSelection());
   }
 
   private void get() {
@@ -115,6 +115,23 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
       injectionKeyDescription = "HttpMeta.Injection.IGNORE_SSL")
   private boolean ignoreSsl;
 
+  /**
+   * The number of requests in flight. With more than one request the transform calls the service
+   * from a pool of threads with one shared client.
+   */
+  @HopMetadataProperty(
+      key = "concurrentRequests",
+      injectionKey = "CONCURRENT_REQUESTS",
+      injectionKeyDescription = "HttpMeta.Injection.CONCURRENT_REQUESTS")
+  private String concurrentRequests;
+
+  /** Pass the results in the order the requests complete instead of the order of the rows */
+  @HopMetadataProperty(
+      key = "unorderedResults",
+      injectionKey = "UNORDERED_RESULTS",
+      injectionKeyDescription = "HttpMeta.Injection.UNORDERED_RESULTS")
+  private boolean unorderedResults;
+
   @HopMetadataProperty(
       key = "urlField",
       injectionKey = "URL_FIELD",
@@ -159,6 +176,7 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
     this.socketTimeout = String.valueOf(DEFAULT_SOCKET_TIMEOUT);
     this.connectionTimeout = String.valueOf(DEFAULT_CONNECTION_TIMEOUT);
     this.closeIdleConnectionsTime = String.valueOf(DEFAULT_CLOSE_CONNECTIONS_TIME);
+    this.concurrentRequests = "1";
     this.resultFields.fieldName = CONST_RESULT;
 
     this.encoding = Const.UTF_8;
@@ -172,6 +190,8 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
     this.httpLogin = m.httpLogin;
     this.httpPassword = m.httpPassword;
     this.ignoreSsl = m.ignoreSsl;
+    this.concurrentRequests = m.concurrentRequests;
+    this.unorderedResults = m.unorderedResults;
     this.proxyHost = m.proxyHost;
     this.proxyPort = m.proxyPort;
     this.socketTimeout = m.socketTimeout;
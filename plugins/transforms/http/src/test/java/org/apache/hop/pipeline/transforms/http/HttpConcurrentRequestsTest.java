@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Runs the transform with several requests in flight against an embedded HTTP server. */
+class HttpConcurrentRequestsTest {
+
+  private static HttpServer server;
+  private static ExecutorService serverExecutor;
+  private static int port;
+
+  private static final AtomicInteger running = new AtomicInteger();
+  private static final AtomicInteger maxRunning = new AtomicInteger();
+
+  @BeforeAll
+  static void startServer() throws Exception {
+    HopClientEnvironment.init();
+
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 50);
+    serverExecutor = Executors.newFixedThreadPool(8);
+    server.setExecutor(serverExecutor);
+    port = server.getAddress().getPort();
+
+    // Answers /delay/<ms>/<id> with the id after waiting the given number of milliseconds
+    server.createContext(
+        "/delay",
+        exchange -> {
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          try {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            Thread.sleep(Long.parseLong(path[2]));
+            byte[] response = path[3].getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+              os.write(response);
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            running.decrementAndGet();
+            exchange.close();
+          }
+        });
+
+    server.start();
+  }
+
+  @AfterAll
+  static void stopServer() {
+    if (server != null) {
+      server.stop(0);
+      serverExecutor.shutdownNow();
+    }
+  }
+
+  @BeforeEach
+  void resetCounters() {
+    running.set(0);
+    maxRunning.set(0);
+  }
+
+  @Test
+  void testOrderedResults() throws Exception {
+    List<String> urls = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      // Later rows answer faster
+      urls.add(url(120 - i * 10L, "row" + i));
+    }
+
+    List<Object[]> output = run(urls, "4", false);
+
+    assertEquals(12, output.size());
+    for (int i = 0; i < 12; i++) {
+      assertEquals(urls.get(i), output.get(i)[0]);
+      assertEquals("row" + i, output.get(i)[1]);
+    }
+    assertTrue(maxRunning.get() > 1, "requests run concurrently");
+    assertTrue(maxRunning.get() <= 4, "at most 4 requests in flight");
+  }
+
+  @Test
+  void testUnorderedResults() throws Exception {
+    List<String> urls = new ArrayList<>();
+    urls.add(url(500, "slow"));
+    for (int i = 0; i < 5; i++) {
+      urls.add(url(0, "fast" + i));
+    }
+
+    List<Object[]> output = run(urls, "3", true);
+
+    assertEquals(6, output.size());
+    assertNotEquals("slow", output.get(0)[1]);
+    assertTrue(output.stream().anyMatch(row -> "slow".equals(row[1])));
+  }
+
+  @Test
+  void testSingleRequestKeepsSynchronousCalls() throws Exception {
+    List<Object[]> output = run(List.of(url(0, "a"), url(0, "b")), "1", false);
+
+    assertEquals(2, output.size());
+    assertEquals("a", output.get(0)[1]);
+    assertEquals("b", output.get(1)[1]);
+    assertEquals(1, maxRunning.get());
+  }
+
+  private String url(long delay, String id) {
+    return "http://localhost:" + port + "/delay/" + delay + "/" + id;
+  }
+
+  /** Run the transform with a row per URL and return the output rows. */
+  private List<Object[]> run(List<String> urls, String concurrentRequests, boolean unordered)
+      throws HopException {
+    HttpMeta meta = new HttpMeta();
+    meta.setUrlInField(true);
+    meta.setUrlField("url");
+    meta.setConcurrentRequests(concurrentRequests);
+    meta.setUnorderedResults(unordered);
+    HttpData data = new HttpData();
+
+    TransformMeta transformMeta = new TransformMeta("Http", meta);
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("HttpConcurrentRequestsTest");
+    pipelineMeta.addTransform(transformMeta);
+
+    IRowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaString("url"));
+    Deque<Object[]> input = new ArrayDeque<>();
+    for (String url : urls) {
+      input.add(new Object[] {url});
+    }
+    List<Object[]> output = new ArrayList<>();
+
+    Http http =
+        new Http(transformMeta, meta, data, 0, pipelineMeta, new LocalPipelineEngine()) {
+          @Override
+          public Object[] getRow() {
+            return input.poll();
+          }
+
+          @Override
+          public IRowMeta getInputRowMeta() {
+            return inputRowMeta;
+          }
+
+          @Override
+          public void putRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+            output.add(row);
+          }
+        };
+    http.setInputRowMeta(inputRowMeta);
+    assertTrue(http.init());
+    // The rows come from getRow() instead of a previous transform
+    data.withoutPreviousTransforms = false;
+    try {
+      while (http.processRow()) {
+        // process all rows
+      }
+    } finally {
+      http.dispose();
+    }
+    assertNull(data.requests);
+    return output;
+  }
+}
@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.transforms.httppost;
 
 import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
@@ -57,6 +58,7 @@ import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.io.CountingOutputStream;
 import org.apache.hop.core.row.RowDataUtil;
+import org.apache.hop.core.util.AsyncRequestQueue;
 import org.apache.hop.core.util.HttpClientManager;
 import org.apache.hop.core.util.StringUtil;
 import org.apache.hop.core.util.Utils;
@@ -93,6 +95,86 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
 
   @VisibleForTesting
   Object[] callHttpPOST(Object[] rowData) throws HopException {
+    PostCall call = preparePost(rowData);
+    call.execute(createClientBuilder().build(), false);
+    return handlePost(call, rowData);
+  }
+
+  /**
+   * One call of the service. The request is prepared and the response handled on the transform
+   * thread, the request itself can be executed on any thread.
+   */
+  final class PostCall {
+    private final long lineageStart = System.currentTimeMillis();
+    private final String url = data.realUrl;
+    private String urlLineage = data.realUrl;
+    private long requestBytes;
+    private URI uri;
+    private org.apache.hc.client5.http.classic.methods.HttpPost post;
+    private CloseableHttpResponse httpResponse;
+    private long responseTime;
+    private int statusCode;
+    private Exception error;
+
+    /**
+     * Execute the request, failures are kept for the transform thread.
+     *
+     * @param httpClient the client to execute the request with
+     * @param buffered true to read the response body and release the connection right away
+     */
+    void execute(CloseableHttpClient httpClient, boolean buffered) {
+      if (error != null) {
+        return;
+      }
+      try {
+        // used for calculating the responseTime
+        long startTime = System.currentTimeMillis();
+
+        // Origin host for routing + preemptive Basic auth cache (proxy is on the client, not here).
+        HttpHost target = HttpHost.create(uri);
+
+        HttpClientContext localContext = HttpClientContext.create();
+        if (StringUtils.isNotBlank(data.realHttpLogin)) {
+          AuthCache authCache = new BasicAuthCache();
+          BasicScheme basicAuth = new BasicScheme();
+          char[] passwordChars =
+              data.realHttpPassword != null ? data.realHttpPassword.toCharArray() : new char[0];
+          basicAuth.initPreemptive(
+              new UsernamePasswordCredentials(data.realHttpLogin, passwordChars));
+          authCache.put(target, basicAuth);
+          localContext.setAuthCache(authCache);
+        }
+
+        httpResponse = httpClient.execute(target, post, localContext);
+
+        statusCode = requestStatusCode(httpResponse);
+        // calculate the responseTime
+        responseTime = System.currentTimeMillis() - startTime;
+
+        if (buffered) {
+          HttpEntity entity = httpResponse.getEntity();
+          if (entity != null) {
+            httpResponse.setEntity(
+                new ByteArrayEntity(
+                    EntityUtils.toByteArray(entity),
+                    ContentType.parseLenient(entity.getContentType())));
+          }
+          httpResponse.close();
+        }
+      } catch (Exception e) {
+        error = e;
+        if (httpResponse != null) {
+          try {
+            httpResponse.close();
+          } catch (IOException closeException) {
+            e.addSuppressed(closeException);
+          }
+        }
+      }
+    }
+  }
+
+  private HttpClientManager.HttpClientBuilderFacade createClientBuilder() {
     HttpClientManager.HttpClientBuilderFacade clientBuilder =
         HttpClientManager.getInstance().createBuilder();
 
@@ -111,31 +193,26 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
     if (meta.isIgnoreSsl()) {
       clientBuilder.ignoreSsl(true);
     }
+    return clientBuilder;
+  }
 
-    CloseableHttpClient httpClient = clientBuilder.build();
-
+  private PostCall preparePost(Object[] rowData) throws HopValueException {
     // get dynamic url ?
     if (meta.isUrlInField()) {
       data.realUrl = data.inputRowMeta.getString(rowData, data.indexOfUrlField);
     }
-    long lineageStart = System.currentTimeMillis();
-    long volIn0 = dataVolumeIn != null ? dataVolumeIn : 0L;
+    PostCall call = new PostCall();
     long volOut0 = dataVolumeOut != null ? dataVolumeOut : 0L;
-    String urlLineage = data.realUrl;
-    URI uri = null;
-    Integer lineageStatus = null;
-    boolean lineageOk = false;
-    String lineageErr = null;
     // Prepare HTTP POST
     try {
       if (isDetailed()) {
-        logDetailed(BaseMessages.getString(PKG, "HTTPPOST.Log.ConnectingToURL", data.realUrl));
+        logDetailed(BaseMessages.getString(PKG, "HTTPPOST.Log.ConnectingToURL", call.url));
       }
-      URIBuilder uriBuilder = new URIBuilder(data.realUrl);
-      uri = uriBuilder.build();
-      urlLineage = uri.toString();
+      URIBuilder uriBuilder = new URIBuilder(call.url);
+      call.uri = uriBuilder.build();
+      call.urlLineage = call.uri.toString();
       org.apache.hc.client5.http.classic.methods.HttpPost post =
-          new org.apache.hc.client5.http.classic.methods.HttpPost(uri);
+          new org.apache.hc.client5.http.classic.methods.HttpPost(call.uri);
 
       MultipartEntityBuilder multipart = null;
       boolean useMultipart = meta.isPostAFile() || meta.isMultipartupload();
@@ -153,42 +230,37 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
       addBodyFileParam(post, rowData, multipart);
       addBodyParamsAfter(post, multipart);
       collectRequestBytes(post.getEntity());
+      call.post = post;
+    } catch (Exception e) {
+      call.error = e;
+    } finally {
+      call.requestBytes = (dataVolumeOut != null ? dataVolumeOut : 0L) - volOut0;
+    }
+    return call;
+  }
+
+  private Object[] handlePost(PostCall call, Object[] rowData) throws HopException {
+    long volIn0 = dataVolumeIn != null ? dataVolumeIn : 0L;
+    Integer lineageStatus = null;
+    boolean lineageOk = false;
+    String lineageErr = null;
+    try {
+      if (call.error != null) {
+        throw call.error;
+      }
 
-      // Execute request
       Object[] newRow = null;
       if (rowData != null) {
         newRow = rowData.clone();
       }
-      CloseableHttpResponse httpResponse = null;
       try {
-        // used for calculating the responseTime
-        long startTime = System.currentTimeMillis();
-
-        // Origin host for routing + preemptive Basic auth cache (proxy is on the client, not here).
-        HttpHost target = HttpHost.create(uri);
-
-        HttpClientContext localContext = HttpClientContext.create();
-        if (StringUtils.isNotBlank(data.realHttpLogin)) {
-          AuthCache authCache = new BasicAuthCache();
-          BasicScheme basicAuth = new BasicScheme();
-          char[] passwordChars =
-              data.realHttpPassword != null ? data.realHttpPassword.toCharArray() : new char[0];
-          basicAuth.initPreemptive(
-              new UsernamePasswordCredentials(data.realHttpLogin, passwordChars));
-          authCache.put(target, basicAuth);
-          localContext.setAuthCache(authCache);
-        }
-
-        httpResponse = httpClient.execute(target, post, localContext);
-
-        int statusCode = requestStatusCode(httpResponse);
+        int statusCode = call.statusCode;
         lineageStatus = statusCode;
-        // calculate the responseTime
-        long responseTime = System.currentTimeMillis() - startTime;
 
         if (isDetailed()) {
           logDetailed(
-              BaseMessages.getString(PKG, "HTTPPOST.Log.ResponseTime", responseTime, data.realUrl));
+              BaseMessages.getString(
+                  PKG, "HTTPPOST.Log.ResponseTime", call.responseTime, call.url));
         }
 
         // Display status code
@@ -202,21 +274,21 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
         switch (statusCode) {
           case HttpURLConnection.HTTP_UNAUTHORIZED:
             throw new HopTransformException(
-                BaseMessages.getString(PKG, "HTTPPOST.Exception.Authentication", data.realUrl));
+                BaseMessages.getString(PKG, "HTTPPOST.Exception.Authentication", call.url));
           case -1:
             throw new HopTransformException(
-                BaseMessages.getString(PKG, "HTTPPOST.Exception.IllegalStatusCode", data.realUrl));
+                BaseMessages.getString(PKG, "HTTPPOST.Exception.IllegalStatusCode", call.url));
           case HttpURLConnection.HTTP_NO_CONTENT:
             body = "";
             break;
           default:
-            HttpEntity entity = httpResponse.getEntity();
+            HttpEntity entity = call.httpResponse.getEntity();
             if (entity != null) {
               body = readResponseBody(entity);
             } else {
               body = "";
             }
-            Header[] headers = searchForHeaders(httpResponse);
+            Header[] headers = searchForHeaders(call.httpResponse);
             // Use request encoding if specified in component to avoid strange response encodings
 
             JSONObject json = new JSONObject();
@@ -252,16 +324,14 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
           returnFieldsOffset++;
         }
         if (!Utils.isEmpty(meta.getResultFields().get(0).getResponseTimeFieldName())) {
-          newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, responseTime);
+          newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, call.responseTime);
           returnFieldsOffset++;
         }
         if (!Utils.isEmpty(meta.getResultFields().get(0).getResponseHeaderFieldName())) {
           newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, headerString);
         }
       } finally {
-        if (httpResponse != null) {
-          httpResponse.close();
-        }
+        call.httpResponse.close();
       }
       lineageOk = true;
       return newRow;
@@ -272,20 +342,19 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
     } catch (Exception e) {
       lineageErr = e.getMessage();
       throw new HopException(
-          BaseMessages.getString(PKG, "HTTPPOST.Error.CanNotReadURL", data.realUrl), e);
+          BaseMessages.getString(PKG, "HTTPPOST.Error.CanNotReadURL", call.url), e);
     } finally {
-      long reqDelta = (dataVolumeOut != null ? dataVolumeOut : 0L) - volOut0;
       long respDelta = (dataVolumeIn != null ? dataVolumeIn : 0L) - volIn0;
       LineageHttpIoEmitter.emitTransformHttpIo(
           this,
           new HttpLineagePayload(
               HttpDirection.CLIENT,
               "POST",
-              urlLineage,
+              call.urlLineage,
               lineageStatus,
-              reqDelta > 0 ? reqDelta : null,
+              call.requestBytes > 0 ? call.requestBytes : null,
               respDelta > 0 ? respDelta : null,
-              System.currentTimeMillis() - lineageStart,
+              System.currentTimeMillis() - call.lineageStart,
               lineageOk,
               lineageErr));
     }
@@ -350,6 +419,10 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
 
     Object[] r = getRow(); // Get row from input rowset & set row busy!
     if (r == null) { // no more input to be expected...
+      // Wait for the requests in flight
+      if (!putCompletedCalls(true)) {
+        return false;
+      }
       setOutputDone();
       return false;
     }
@@ -481,6 +554,10 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
       data.realEncoding = resolve(meta.getEncoding());
     } // end if first
 
+    if (data.requests != null) {
+      return submitCall(r);
+    }
+
     try {
       Object[] outputRowData = callHttpPOST(r);
       // copy row to output rowset(s)
@@ -490,23 +567,102 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
         logDetailed(BaseMessages.getString(PKG, "HTTPPOST.LineNumber") + getLinesRead());
       }
     } catch (HopException e) {
-      String errorMessage;
+      return handleError(r, e);
+    }
 
-      if (getTransformMeta().isDoingErrorHandling()) {
-        errorMessage = e.toString();
-      } else {
-        logError(BaseMessages.getString(PKG, "HTTPPOST.ErrorInTransformRunning") + e.getMessage());
-        setErrors(1);
-        logError(Const.getStackTracker(e));
-        stopAll();
-        setOutputDone(); // signal end to receiver(s)
+    return true;
+  }
+
+  /** Start the call for a row on the pool and pass the calls which completed in the meantime. */
+  private boolean submitCall(Object[] r) throws HopException {
+    while (data.requests.isFull()) {
+      if (!putCompletedCall(takeCompletedCall())) {
         return false;
       }
+    }
+    PostCall call;
+    try {
+      call = preparePost(r);
+    } catch (HopException e) {
+      return handleError(r, e);
+    }
+    data.requests.submit(
+        r,
+        () -> {
+          call.execute(data.httpClient, true);
+          return call;
+        });
+    return putCompletedCalls(false);
+  }
 
-      // Simply add this row to the error row
-      putError(getInputRowMeta(), r, 1, errorMessage, null, "HTTPPOST001");
+  /**
+   * Pass the completed calls to the next transforms.
+   *
+   * @param waitForAll true to wait for all calls in flight
+   * @return false if the transform stopped because of an error
+   */
+  private boolean putCompletedCalls(boolean waitForAll) throws HopException {
+    if (data.requests == null) {
+      return true;
+    }
+    AsyncRequestQueue.Request<PostCall> request;
+    while ((request = waitForAll ? takeCompletedCall() : data.requests.poll()) != null) {
+      if (!putCompletedCall(request)) {
+        return false;
+      }
     }
+    return true;
+  }
 
+  private AsyncRequestQueue.Request<PostCall> takeCompletedCall() throws HopException {
+    try {
+      return data.requests.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException(BaseMessages.getString(PKG, "HTTPPOST.Exception.Interrupted"), e);
+    }
+  }
+
+  private boolean putCompletedCall(AsyncRequestQueue.Request<PostCall> request)
+      throws HopException {
+    Object[] r = request.getRow();
+    try {
+      if (request.getError() != null) {
+        throw new HopException(request.getError());
+      }
+      Object[] outputRowData = handlePost(request.getResult(), r);
+      putRow(data.outputRowMeta, outputRowData);
+
+      if (checkFeedback(getLinesRead()) && isDetailed()) {
+        logDetailed(BaseMessages.getString(PKG, "HTTPPOST.LineNumber") + getLinesRead());
+      }
+    } catch (HopException e) {
+      return handleError(r, e);
+    }
+    return true;
+  }
+
+  /**
+   * Send the row to the error handling or stop the transform.
+   *
+   * @return false if the transform stopped
+   */
+  private boolean handleError(Object[] r, HopException e) throws HopException {
+    String errorMessage;
+
+    if (getTransformMeta().isDoingErrorHandling()) {
+      errorMessage = e.toString();
+    } else {
+      logError(BaseMessages.getString(PKG, "HTTPPOST.ErrorInTransformRunning") + e.getMessage());
+      setErrors(1);
+      logError(Const.getStackTracker(e));
+      stopAll();
+      setOutputDone(); // signal end to receiver(s)
+      return false;
+    }
+
+    // Simply add this row to the error row
+    putError(getInputRowMeta(), r, 1, errorMessage, null, "HTTPPOST001");
     return true;
   }
 
@@ -534,11 +690,36 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
       data.realcloseIdleConnectionsTime =
           Const.toInt(resolve(meta.getCloseIdleConnectionsTime()), -1);
 
+      int concurrentRequests = Const.toInt(resolve(meta.getConcurrentRequests()), 1);
+      if (concurrentRequests > 1) {
+        data.httpClient = createClientBuilder().setConnectionPoolSize(concurrentRequests).build();
+        data.requests =
+            new AsyncRequestQueue<>(
+                getTransformName(), concurrentRequests, !meta.isUnorderedResults());
+      }
+
       return true;
     }
     return false;
   }
 
+  @Override
+  public void dispose() {
+    if (data.requests != null) {
+      data.requests.close();
+      data.requests = null;
+    }
+    if (data.httpClient != null) {
+      try {
+        data.httpClient.close();
+      } catch (IOException e) {
+        logError(BaseMessages.getString(PKG, "HTTPPOST.Log.UnableCloseClient"), e);
+      }
+      data.httpClient = null;
+    }
+    super.dispose();
+  }
+
   /**
    * add http headers
    *
@@ -17,8 +17,10 @@
 
 package org.apache.hop.pipeline.transforms.httppost;
 
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.core5.http.NameValuePair;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.util.AsyncRequestQueue;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
@@ -50,6 +52,12 @@ public class HttpPostData extends BaseTransformData implements ITransformData {
   public int realConnectionTimeout;
   public int realcloseIdleConnectionsTime;
 
+  /** The client shared by all requests when more than one request is in flight. */
+  public CloseableHttpClient httpClient;
+
+  /** The requests in flight, null when calling the service one row at a time. */
+  public AsyncRequestQueue<HttpPost.PostCall> requests;
+
   public HttpPostData() {
     super();
     indexOfUrlField = -1;
@@ -128,6 +128,10 @@ public class HttpPostDialog extends BaseTransformDialog {
 
   private TextVar wCloseIdleConnectionsTime;
 
+  private TextVar wConcurrentRequests;
+
+  private Button wUnorderedResults;
+
   public HttpPostDialog(
       Shell parent, IVariables variables, HttpPostMeta transformMeta, PipelineMeta pipelineMeta) {
     super(parent, variables, transformMeta, pipelineMeta);
@@ -179,6 +183,8 @@ public class HttpPostDialog extends BaseTransformDialog {
     setupConnectionTimeoutLine(lsMod, gSettings);
     setupSocketTimeout(lsMod, gSettings);
     setupCloseWaitConnectionLine(lsMod, gSettings);
+    setupConcurrentRequestsLine(lsMod, gSettings);
+    setupUnorderedResultsLine(gSettings);
 
     FormData fdSettings = new FormData();
     fdSettings.left = new FormAttachment(0, 0);
@@ -684,6 +690,60 @@ public class HttpPostDialog extends BaseTransformDialog {
     wCloseIdleConnectionsTime.setLayoutData(fdCloseIdleConnectionsTime);
   }
 
+  private void setupConcurrentRequestsLine(ModifyListener lsMod, Group gSettings) {
+    int middle = props.getMiddlePct();
+    int margin = PropsUi.getMargin();
+    Label wlConcurrentRequests = new Label(gSettings, SWT.RIGHT);
+    wlConcurrentRequests.setText(
+        BaseMessages.getString(PKG, "HTTPPOSTDialog.ConcurrentRequests.Label"));
+    PropsUi.setLook(wlConcurrentRequests);
+    FormData fdlConcurrentRequests = new FormData();
+    fdlConcurrentRequests.top = new FormAttachment(wCloseIdleConnectionsTime, margin);
+    fdlConcurrentRequests.left = new FormAttachment(0, 0);
+    fdlConcurrentRequests.right = new FormAttachment(middle, -margin);
+    wlConcurrentRequests.setLayoutData(fdlConcurrentRequests);
+    wConcurrentRequests = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wConcurrentRequests.addModifyListener(lsMod);
+    wConcurrentRequests.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPPOSTDialog.ConcurrentRequests.Tooltip"));
+    PropsUi.setLook(wConcurrentRequests);
+    FormData fdConcurrentRequests = new FormData();
+    fdConcurrentRequests.top = new FormAttachment(wCloseIdleConnectionsTime, margin);
+    fdConcurrentRequests.left = new FormAttachment(middle, 0);
+    fdConcurrentRequests.right = new FormAttachment(100, 0);
+    wConcurrentRequests.setLayoutData(fdConcurrentRequests);
+  }
+
+  private void setupUnorderedResultsLine(Group gSettings) {
+    int middle = props.getMiddlePct();
+    int margin = PropsUi.getMargin();
+    Label wlUnorderedResults = new Label(gSettings, SWT.RIGHT);
+    wlUnorderedResults.setText(
+        BaseMessages.getString(PKG, "HTTPPOSTDialog.UnorderedResults.Label"));
+    PropsUi.setLook(wlUnorderedResults);
+    FormData fdlUnorderedResults = new FormData();
+    fdlUnorderedResults.left = new FormAttachment(0, 0);
+    fdlUnorderedResults.top = new FormAttachment(wConcurrentRequests, margin);
+    fdlUnorderedResults.right = new FormAttachment(middle, -margin);
+    wlUnorderedResults.setLayoutData(fdlUnorderedResults);
+    wUnorderedResults = new Button(gSettings, SWT.CHECK);
+    wUnorderedResults.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPPOSTDialog.UnorderedResults.Tooltip"));
+    PropsUi.setLook(wUnorderedResults);
+    FormData fdUnorderedResults = new FormData();
+    fdUnorderedResults.left = new FormAttachment(middle, 0);
+    fdUnorderedResults.top = new FormAttachment(wlUnorderedResults, 0, SWT.CENTER);
+    fdUnorderedResults.right = new FormAttachment(100, 0);
+    wUnorderedResults.setLayoutData(fdUnorderedResults);
+    wUnorderedResults.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+  }
+
   private void setupSocketTimeout(ModifyListener lsMod, Group gSettings) {
     int middle = props.getMiddlePct();
     int margin = PropsUi.getMargin();
@@ -1121,6 +1181,8 @@ public class HttpPostDialog extends BaseTransformDialog {
     wSocketTimeOut.setText(Const.NVL(input.getSocketTimeout(), ""));
     wConnectionTimeOut.setText(Const.NVL(input.getConnectionTimeout(), ""));
     wCloseIdleConnectionsTime.setText(Const.NVL(input.getCloseIdleConnectionsTime(), ""));
+    wConcurrentRequests.setText(Const.NVL(input.getConcurrentRequests(), ""));
+    wUnorderedResults.setSelection(input.isUnorderedResults());
 
     wFields.setRowNums();
     wFields.optWidth(true);
@@ -1196,6 +1258,8 @@ public class HttpPostDialog extends BaseTransformDialog {
     input.setSocketTimeout(wSocketTimeOut.getText());
     input.setConnectionTimeout(wConnectionTimeOut.getText());
     input.setCloseIdleConnectionsTime(wCloseIdleConnectionsTime.getText());
+    input.setConcurrentRequests(wConcurrentRequests.getText());
+    input.setUnorderedResults(wUnorderedResults.getSelection());
 
     transformName = wTransformName.getText(); // return value
 
@@ -83,6 +83,17 @@ public class HttpPostMeta extends BaseTransformMeta<HttpPost, HttpPostData> {
   @HopMetadataProperty(injectionKeyDescription = "HTTPPOST.Injection.ignoreSsl")
   private boolean ignoreSsl;
 
+  /**
+   * The number of requests in flight. With more than one request the transform calls the service
+   * from a pool of threads with one shared client.
+   */
+  @HopMetadataProperty(injectionKeyDescription = "HTTPPOST.Injection.concurrentRequests")
+  private String concurrentRequests;
+
+  /** Pass the results in the order the requests complete instead of the order of the rows */
+  @HopMetadataProperty(injectionKeyDescription = "HTTPPOST.Injection.unorderedResults")
+  private boolean unorderedResults;
+
   @HopMetadataProperty(injectionKeyDescription = "HTTPPOST.Injection.urlField")
   private String urlField;
 
@@ -138,6 +149,7 @@ public class HttpPostMeta extends BaseTransformMeta<HttpPost, HttpPostData> {
     socketTimeout = String.valueOf(DEFAULT_SOCKET_TIMEOUT);
     connectionTimeout = String.valueOf(DEFAULT_CONNECTION_TIMEOUT);
     closeIdleConnectionsTime = String.valueOf(DEFAULT_CLOSE_CONNECTIONS_TIME);
+    concurrentRequests = "1";
   }
 
   @Override
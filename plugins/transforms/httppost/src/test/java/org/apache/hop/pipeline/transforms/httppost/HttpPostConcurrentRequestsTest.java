@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.httppost;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Runs the transform with several requests in flight against an embedded HTTP server. */
+class HttpPostConcurrentRequestsTest {
+
+  private static HttpServer server;
+  private static ExecutorService serverExecutor;
+  private static int port;
+
+  private static final AtomicInteger running = new AtomicInteger();
+  private static final AtomicInteger maxRunning = new AtomicInteger();
+
+  @BeforeAll
+  static void startServer() throws Exception {
+    HopClientEnvironment.init();
+
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 50);
+    serverExecutor = Executors.newFixedThreadPool(8);
+    server.setExecutor(serverExecutor);
+    port = server.getAddress().getPort();
+
+    // Echoes the posted body to /delay/<ms> after waiting the given number of milliseconds
+    server.createContext(
+        "/delay",
+        exchange -> {
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          try (InputStream in = exchange.getRequestBody()) {
+            byte[] response = in.readAllBytes();
+            Thread.sleep(Long.parseLong(exchange.getRequestURI().getPath().split("/")[2]));
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+              os.write(response);
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            running.decrementAndGet();
+            exchange.close();
+          }
+        });
+
+    server.start();
+  }
+
+  @AfterAll
+  static void stopServer() {
+    if (server != null) {
+      server.stop(0);
+      serverExecutor.shutdownNow();
+    }
+  }
+
+  @BeforeEach
+  void resetCounters() {
+    running.set(0);
+    maxRunning.set(0);
+  }
+
+  @Test
+  void testOrderedResults() throws Exception {
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      // Later rows answer faster
+      rows.add(new Object[] {url(120 - i * 10L), "row" + i});
+    }
+
+    List<Object[]> output = run(rows, "4", false);
+
+    assertEquals(12, output.size());
+    for (int i = 0; i < 12; i++) {
+      assertEquals("row" + i, output.get(i)[1]);
+      assertEquals("row" + i, output.get(i)[2]);
+    }
+    assertTrue(maxRunning.get() > 1, "requests run concurrently");
+    assertTrue(maxRunning.get() <= 4, "at most 4 requests in flight");
+  }
+
+  @Test
+  void testUnorderedResults() throws Exception {
+    List<Object[]> rows = new ArrayList<>();
+    rows.add(new Object[] {url(500), "slow"});
+    for (int i = 0; i < 5; i++) {
+      rows.add(new Object[] {url(0), "fast" + i});
+    }
+
+    List<Object[]> output = run(rows, "3", true);
+
+    assertEquals(6, output.size());
+    assertNotEquals("slow", output.get(0)[2]);
+    assertTrue(output.stream().anyMatch(row -> "slow".equals(row[2])));
+  }
+
+  private String url(long delay) {
+    return "http://localhost:" + port + "/delay/" + delay;
+  }
+
+  /** Run the transform with url and body rows and return the output rows. */
+  private List<Object[]> run(List<Object[]> rows, String concurrentRequests, boolean unordered)
+      throws HopException {
+    HttpPostMeta meta = new HttpPostMeta();
+    meta.setDefault();
+    meta.setUrlInField(true);
+    meta.setUrlField("url");
+    meta.setRequestEntity("body");
+    meta.setEncoding(null);
+    meta.getResultFields().get(0).setName("response");
+    meta.getResultFields().get(0).setCode(null);
+    meta.setConcurrentRequests(concurrentRequests);
+    meta.setUnorderedResults(unordered);
+    HttpPostData data = new HttpPostData();
+
+    TransformMeta transformMeta = new TransformMeta("HttpPost", meta);
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("HttpPostConcurrentRequestsTest");
+    pipelineMeta.addTransform(transformMeta);
+
+    IRowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaString("url"));
+    inputRowMeta.addValueMeta(new ValueMetaString("body"));
+    Deque<Object[]> input = new ArrayDeque<>(rows);
+    List<Object[]> output = new ArrayList<>();
+
+    HttpPost httpPost =
+        new HttpPost(transformMeta, meta, data, 0, pipelineMeta, new LocalPipelineEngine()) {
+          @Override
+          public Object[] getRow() {
+            return input.poll();
+          }
+
+          @Override
+          public IRowMeta getInputRowMeta() {
+            return inputRowMeta;
+          }
+
+          @Override
+          public void putRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+            output.add(row);
+          }
+        };
+    assertTrue(httpPost.init());
+    try {
+      while (httpPost.processRow()) {
+        // process all rows
+      }
+    } finally {
+      httpPost.dispose();
+    }
+    assertNull(data.requests);
+    return output;
+  }
+}
@@ -32,6 +32,7 @@ import org.apache.commons.vfs2.FileSystemException;
 import org.apache.hop.core.QueueRowSet;
 import org.apache.hop.core.ResultFile;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopRuntimeException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.io.CountingInputStream;
@@ -57,6 +58,7 @@ import org.apache.hop.pipeline.transforms.jsoninput.exception.JsonInputException
 import org.apache.hop.pipeline.transforms.jsoninput.reader.FastJsonReader;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.InputsReader;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.RowOutputConverter;
+import org.apache.hop.pipeline.transforms.jsoninput.reader.StreamingJsonReader;
 
 /**
  * Read Json files, parse them and convert them to rows and writes these to one or more output
@@ -315,7 +317,9 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
 
   private void parseNextInputToRowSet(InputStream input) throws HopException {
     // Large pushback buffer: some streams pre-read; avoids buffer overflow on unread(1).
-    try (PushbackInputStream pb = new PushbackInputStream(input, 8192)) {
+    PushbackInputStream pb = new PushbackInputStream(input, 8192);
+    boolean keepOpen = false;
+    try {
       if (meta.isIgnoringEmptyFile()) {
         int first = pb.read();
         if (first < 0) {
@@ -323,15 +327,20 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
           return;
         }
         pb.unread(first);
-        input = pb;
       }
-      data.readerRowSet = data.jsonReader.parseStringValue(input);
+      data.readerRowSet = data.jsonReader.parseStringValue(pb);
+      // A streaming reader reads the input while the rows are requested
+      keepOpen = data.jsonReader.isStreaming();
     } catch (HopException ke) {
       logInputError(ke);
       throw new JsonInputException(ke);
     } catch (Exception e) {
       logInputError(e);
       throw new JsonInputException(e);
+    } finally {
+      if (!keepOpen) {
+        BaseTransform.closeQuietly(pb);
+      }
     }
   }
 
@@ -451,32 +460,20 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
         }
       }
     } else {
-      while ((rawReaderRow = data.readerRowSet.getRow()) == null) {
+      while ((rawReaderRow = nextReaderRow()) == null) {
         if (data.inputs.hasNext() && data.readerRowSet.isDone()) {
           InputStream nextIn = data.inputs.next();
           if (nextIn != null) {
-            CountingInputStream countingIn = new CountingInputStream(nextIn);
-            try (countingIn) {
-              parseNextInputToRowSet(countingIn);
+            data.currentInput = new CountingInputStream(nextIn);
+            boolean streaming = false;
+            try {
+              parseNextInputToRowSet(data.currentInput);
+              streaming = data.jsonReader.isStreaming();
             } finally {
-              long bytesRead = countingIn.getCount();
-              dataVolumeIn = (dataVolumeIn != null ? dataVolumeIn : 0L) + bytesRead;
-              if (data.file != null && bytesRead > 0) {
-                try {
-                  LineageFileIoEmitter.emitTransformFileIo(
-                      this,
-                      FileIoOperation.READ,
-                      data.file,
-                      null,
-                      bytesRead,
-                      true,
-                      null,
-                      jsonFileReadContentSchema());
-                } catch (Exception ignored) {
-                  // optional lineage
-                }
+              // A streaming reader keeps reading the input while rows are requested
+              if (!streaming) {
+                finishInput();
               }
-              BaseTransform.closeQuietly(countingIn);
             }
           } else {
             // Null stream (e.g. null field, iterator error path): do not parse "{}" when ignoring
@@ -500,6 +497,53 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
     return outputRow;
   }
 
+  /** get the next row of the current input, the input is finished when there are no more rows */
+  private Object[] nextReaderRow() throws HopException {
+    try {
+      Object[] row = data.readerRowSet.getRow();
+      if (row == null) {
+        finishInput();
+      }
+      return row;
+    } catch (HopRuntimeException e) {
+      // A streaming reader fails while reading the rows
+      finishInput();
+      if (e.getCause() instanceof HopException ke) {
+        logInputError(ke);
+        throw new JsonInputException(ke);
+      }
+      logInputError(e);
+      throw new JsonInputException(e);
+    }
+  }
+
+  /** Keep track of the bytes read from the current input and close it */
+  private void finishInput() {
+    CountingInputStream countingIn = data.currentInput;
+    if (countingIn == null) {
+      return;
+    }
+    data.currentInput = null;
+    long bytesRead = countingIn.getCount();
+    dataVolumeIn = (dataVolumeIn != null ? dataVolumeIn : 0L) + bytesRead;
+    if (data.file != null && bytesRead > 0) {
+      try {
+        LineageFileIoEmitter.emitTransformFileIo(
+            this,
+            FileIoOperation.READ,
+            data.file,
+            null,
+            bytesRead,
+            true,
+            null,
+            jsonFileReadContentSchema());
+      } catch (Exception ignored) {
+        // optional lineage
+      }
+    }
+    BaseTransform.closeQuietly(countingIn);
+  }
+
   private void sendErrorRow(String errorMsg) {
     try {
       // same error as before
@@ -600,13 +644,25 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
       inputFields[i] = field;
     }
     // Instead of putting in the meta.inputFields, we put in our json path resolved input fields
-    data.jsonReader =
-        new FastJsonReader(inputFields, meta.isDefaultPathLeafToNull(), getLogChannel());
+    data.jsonReader = null;
+    if (meta.isStreamingRead()) {
+      if (meta.isDefaultPathLeafToNull() && StreamingJsonReader.isSupported(inputFields)) {
+        data.jsonReader = new StreamingJsonReader(inputFields, getLogChannel());
+      } else {
+        // Arbitrary JSON path expressions need the whole document
+        logBasic(BaseMessages.getString(PKG, "JsonInput.Log.StreamingReadNotPossible"));
+      }
+    }
+    if (data.jsonReader == null) {
+      data.jsonReader =
+          new FastJsonReader(inputFields, meta.isDefaultPathLeafToNull(), getLogChannel());
+    }
     data.jsonReader.setIgnoreMissingPath(meta.isIgnoringMissingPath());
   }
 
   @Override
   public void dispose() {
+    finishInput();
     if (data.file != null) {
       closeQuietly(data.file);
     }
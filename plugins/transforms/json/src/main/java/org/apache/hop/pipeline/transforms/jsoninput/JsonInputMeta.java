@@ -176,6 +176,13 @@ public class JsonInputMeta extends BaseFileInputMeta<JsonInput, JsonInputData, B
       injectionKeyDescription = "JsonInput.Injection.DEFAULT_PATH_LEAF_TO_NULL")
   private boolean defaultPathLeafToNull;
 
+  /** Read the JSON documents as a stream of tokens instead of loading them in memory */
+  @HopMetadataProperty(
+      key = "streamingRead",
+      injectionKey = "STREAMING_READ",
+      injectionKeyDescription = "JsonInput.Injection.STREAMING_READ")
+  private boolean streamingRead;
+
   @HopMetadataProperty(inline = true)
   protected BaseFileInputAdditionalFields additionalOutputFields;
 
@@ -224,6 +231,7 @@ public class JsonInputMeta extends BaseFileInputMeta<JsonInput, JsonInputData, B
     this();
     this.addResultFile = m.addResultFile;
     this.defaultPathLeafToNull = m.defaultPathLeafToNull;
+    this.streamingRead = m.streamingRead;
     this.doNotFailIfNoFile = m.doNotFailIfNoFile;
     this.filenameField = m.filenameField;
     this.ignoringMissingPath = m.ignoringMissingPath;
@@ -42,6 +42,16 @@ public interface IJsonReader {
   /** parse incoming JsonNode fields into a rowset */
   public IRowSet parseJsonNodeValue(com.fasterxml.jackson.databind.JsonNode in) throws HopException;
 
+  /**
+   * A streaming reader reads the document while the rows of the returned row set are requested, the
+   * input stream must stay open until the last row is read.
+   *
+   * @return true if the rows are read while they are requested
+   */
+  default boolean isStreaming() {
+    return false;
+  }
+
   /**
    * One logical output row with a null for each configured field, without reading a JSON document
    * or evaluating JSON paths (used when input is an empty stream and empty files are ignored).
@@ -0,0 +1,492 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.minidev.json.JSONArray;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.SingleRowRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopRuntimeException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputField;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputMeta;
+import org.apache.hop.pipeline.transforms.jsoninput.exception.JsonInputException;
+
+/**
+ * Reads JSON documents with a streaming parser, without building the document in memory. Rows are
+ * produced one at a time while the document is read, so the memory used doesn't depend on the size
+ * of the document.
+ *
+ * <p>Only simple paths are supported (see {@link #isSupported(JsonInputField[])}): every path is a
+ * chain of property names, possibly with one wildcard <code>[*]</code> over the repeating array.
+ * All paths with a wildcard must share the same path up to the wildcard, for example <code>
+ * $.items[*].id</code> and <code>$.items[*].customer.name</code>. Every element of the repeating
+ * array gives a row. Without a wildcard the document gives a single row.
+ *
+ * <p>The values are the same as with {@link FastJsonReader} with the "default path leaf to null"
+ * option: a missing value is null. When missing paths are not ignored, a path without any value
+ * only fails at the end of the document, after the rows read before are passed on.
+ *
+ * <p>JSON values of a field (JsonNode) are read with a {@link FastJsonReader}.
+ */
+public class StreamingJsonReader implements IJsonReader {
+  private static final Class<?> PKG = JsonInputMeta.class;
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /** A wildcard step in a parsed path */
+  private static final String WILDCARD = "[*]";
+
+  private final ILogChannel log;
+  private final FastJsonReader fallbackReader;
+  private JsonInputField[] fields;
+  private boolean ignoreMissingPath;
+
+  /** The property names leading to the repeating array, null if there is no repeating array */
+  private List<String> arrayPath;
+
+  /** The paths of the fields relative to an element of the repeating array, or to the root */
+  private PathNode elementPaths;
+
+  public StreamingJsonReader(JsonInputField[] fields, ILogChannel log) throws HopException {
+    this.log = log;
+    this.fallbackReader = new FastJsonReader(fields, true, log);
+    setFields(fields);
+  }
+
+  /**
+   * Checks if the paths of the fields can be read with a streaming reader.
+   *
+   * @param fields the fields with the JSON paths to read
+   * @return true if all paths are supported
+   */
+  public static boolean isSupported(JsonInputField[] fields) {
+    return fields.length > 0 && compile(fields) != null;
+  }
+
+  @Override
+  public void setFields(JsonInputField[] fields) throws HopException {
+    CompiledPaths compiled = compile(fields);
+    if (compiled == null) {
+      throw new HopException(
+          BaseMessages.getString(PKG, "JsonReader.Error.StreamingPathNotSupported"));
+    }
+    this.fields = fields;
+    this.arrayPath = compiled.arrayPath();
+    this.elementPaths = compiled.elementPaths();
+    fallbackReader.setFields(fields);
+  }
+
+  @Override
+  public boolean isIgnoreMissingPath() {
+    return ignoreMissingPath;
+  }
+
+  @Override
+  public void setIgnoreMissingPath(boolean value) {
+    this.ignoreMissingPath = value;
+    fallbackReader.setIgnoreMissingPath(value);
+  }
+
+  @Override
+  public boolean isStreaming() {
+    return true;
+  }
+
+  @Override
+  public IRowSet parseStringValue(InputStream in) throws HopException {
+    try {
+      return new StreamingRowSet(MAPPER.getFactory().createParser(in));
+    } catch (IOException e) {
+      throw new HopException(e);
+    }
+  }
+
+  @Override
+  public IRowSet parseJsonNodeValue(JsonNode in) throws HopException {
+    return fallbackReader.parseJsonNodeValue(in);
+  }
+
+  @Override
+  public IRowSet emptyFieldRowSet() {
+    return fallbackReader.emptyFieldRowSet();
+  }
+
+  /**
+   * Parse the paths of the fields.
+   *
+   * @return the property names up to the wildcard and the tree of the paths after it, or null if a
+   *     path isn't supported
+   */
+  private static CompiledPaths compile(JsonInputField[] fields) {
+    List<String> arrayPath = null;
+    PathNode root = new PathNode();
+    List<List<String>> relativePaths = new ArrayList<>();
+    for (int i = 0; i < fields.length; i++) {
+      List<String> steps = parsePath(fields[i].getPath());
+      if (steps == null) {
+        return null;
+      }
+      int wildcard = steps.indexOf(WILDCARD);
+      if (i == 0) {
+        arrayPath = wildcard < 0 ? null : steps.subList(0, wildcard);
+      } else if (wildcard < 0
+          ? arrayPath != null
+          : arrayPath == null || !arrayPath.equals(steps.subList(0, wildcard))) {
+        // All rows must come from the same repeating array
+        return null;
+      }
+      relativePaths.add(wildcard < 0 ? steps : steps.subList(wildcard + 1, steps.size()));
+    }
+    for (int i = 0; i < relativePaths.size(); i++) {
+      PathNode node = root;
+      for (String step : relativePaths.get(i)) {
+        node = node.children.computeIfAbsent(step, s -> new PathNode());
+      }
+      node.fieldIndexes.add(i);
+    }
+    return new CompiledPaths(arrayPath, root);
+  }
+
+  /**
+   * Split a JSON path in property names and at most one wildcard.
+   *
+   * @param path the JSON path
+   * @return the steps of the path or null if the path is not supported
+   */
+  static List<String> parsePath(String path) {
+    if (path == null || !path.startsWith("$")) {
+      return null;
+    }
+    List<String> steps = new ArrayList<>();
+    int pos = 1;
+    int length = path.length();
+    while (pos < length) {
+      char c = path.charAt(pos);
+      if (c == '.') {
+        pos++;
+        if (pos >= length || path.charAt(pos) == '.') {
+          // Deep scan
+          return null;
+        }
+        if (path.charAt(pos) == '[') {
+          continue;
+        }
+        int end = pos;
+        while (end < length && path.charAt(end) != '.' && path.charAt(end) != '[') {
+          end++;
+        }
+        String name = path.substring(pos, end);
+        if (name.equals("*")) {
+          steps.add(WILDCARD);
+        } else if (name.indexOf('(') >= 0 || name.indexOf(' ') >= 0) {
+          // A function or something unexpected
+          return null;
+        } else {
+          steps.add(name);
+        }
+        pos = end;
+      } else if (c == '[') {
+        int end = path.indexOf(']', pos);
+        if (end < 0) {
+          return null;
+        }
+        String selector = path.substring(pos + 1, end).trim();
+        if (selector.equals("*")) {
+          steps.add(WILDCARD);
+        } else if (selector.length() >= 2
+            && (selector.charAt(0) == '\'' || selector.charAt(0) == '"')
+            && selector.charAt(selector.length() - 1) == selector.charAt(0)
+            && selector.indexOf(selector.charAt(0), 1) == selector.length() - 1) {
+          // A single quoted property name
+          steps.add(selector.substring(1, selector.length() - 1));
+        } else {
+          // Indexes, slices, filters, multiple properties
+          return null;
+        }
+        pos = end + 1;
+      } else {
+        return null;
+      }
+    }
+    int wildcards = 0;
+    for (String step : steps) {
+      if (step.equals(WILDCARD)) {
+        wildcards++;
+      }
+    }
+    return wildcards <= 1 ? steps : null;
+  }
+
+  private record CompiledPaths(List<String> arrayPath, PathNode elementPaths) {}
+
+  /** A step of the paths of the fields, shared by all fields with the same path up to here */
+  private static final class PathNode {
+    private final Map<String, PathNode> children = new HashMap<>();
+
+    /** The indexes of the fields with a path ending at this step */
+    private final List<Integer> fieldIndexes = new ArrayList<>();
+  }
+
+  /** The rows of one document, read while the rows are requested */
+  private final class StreamingRowSet extends SingleRowRowSet {
+    private final JsonParser parser;
+
+    private final boolean includeNulls =
+        "Y"
+            .equalsIgnoreCase(
+                System.getProperty(
+                    Const.HOP_JSON_INPUT_INCLUDE_NULLS, Const.JSON_INPUT_INCLUDE_NULLS));
+
+    private boolean started;
+    private boolean finished;
+
+    /** The number of elements read */
+    private long rowCount;
+
+    /** The number of rows returned */
+    private long rowsReturned;
+
+    /** Fields which had a non-null value */
+    private final boolean[] found = new boolean[fields.length];
+
+    private StreamingRowSet(JsonParser parser) {
+      this.parser = parser;
+    }
+
+    @Override
+    public Object[] getRow() {
+      if (finished) {
+        return null;
+      }
+      try {
+        Object[] row = nextRow();
+        while (row != null && !includeNulls && arrayPath != null && isAllNull(row)) {
+          row = nextRow();
+        }
+        if (row == null) {
+          finished = true;
+          parser.close();
+          row = endOfDocument();
+        }
+        if (row != null) {
+          rowsReturned++;
+        }
+        return row;
+      } catch (IOException e) {
+        finish();
+        throw new HopRuntimeException(
+            BaseMessages.getString(PKG, "JsonReader.Error.StreamingRead", e.getMessage()), e);
+      } catch (JsonInputException e) {
+        finish();
+        throw new HopRuntimeException(e.getMessage(), e);
+      }
+    }
+
+    private Object[] nextRow() throws IOException {
+      if (!started) {
+        started = true;
+        if (parser.nextToken() == null) {
+          return null;
+        }
+        if (arrayPath == null) {
+          // The whole document is a single row
+          //
+          return readElement();
+        }
+        if (!moveTo(arrayPath)) {
+          return null;
+        }
+        if (!parser.isExpectedStartArrayToken() && !parser.isExpectedStartObjectToken()) {
+          return null;
+        }
+      } else if (arrayPath == null) {
+        return null;
+      }
+
+      // The next element of the repeating array, or the next property value of an object.
+      // Like the JSON path reader, elements without properties are skipped when the paths continue
+      // after the wildcard.
+      //
+      while (true) {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.FIELD_NAME) {
+          token = parser.nextToken();
+        }
+        if (token == null || token == JsonToken.END_ARRAY || token == JsonToken.END_OBJECT) {
+          return null;
+        }
+        if (token == JsonToken.START_OBJECT || elementPaths.children.isEmpty()) {
+          return readElement();
+        }
+        parser.skipChildren();
+      }
+    }
+
+    private Object[] readElement() throws IOException {
+      Object[] row = new Object[fields.length];
+      readValue(elementPaths, row);
+      rowCount++;
+      return row;
+    }
+
+    /** Move into nested objects to the value of the last property name */
+    private boolean moveTo(List<String> names) throws IOException {
+      for (String name : names) {
+        if (!parser.isExpectedStartObjectToken()) {
+          return false;
+        }
+        boolean present = false;
+        while (!present && parser.nextToken() == JsonToken.FIELD_NAME) {
+          String fieldName = parser.currentName();
+          parser.nextToken();
+          if (fieldName.equals(name)) {
+            present = true;
+          } else {
+            parser.skipChildren();
+          }
+        }
+        if (!present) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /** Read the current value, the parser is positioned on its first token */
+    private void readValue(PathNode node, Object[] row) throws IOException {
+      if (node.children.isEmpty() || !node.fieldIndexes.isEmpty()) {
+        Object value = readLeaf();
+        assign(node, value, row);
+      } else if (parser.isExpectedStartObjectToken()) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          PathNode child = node.children.get(parser.currentName());
+          parser.nextToken();
+          if (child == null) {
+            parser.skipChildren();
+          } else {
+            readValue(child, row);
+          }
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+
+    /** Set the value of the fields of a node and of the nodes below, for a materialized value */
+    private void assign(PathNode node, Object value, Object[] row) {
+      for (int index : node.fieldIndexes) {
+        if (value instanceof List<?> list && !(value instanceof JSONArray)) {
+          JSONArray array = new JSONArray();
+          array.addAll(list);
+          row[index] = array;
+        } else {
+          row[index] = value;
+        }
+        found[index] |= value != null;
+      }
+      if (value instanceof Map<?, ?> map) {
+        for (Map.Entry<String, PathNode> child : node.children.entrySet()) {
+          if (map.containsKey(child.getKey())) {
+            assign(child.getValue(), map.get(child.getKey()), row);
+          }
+        }
+      }
+    }
+
+    /** Read the current value the same way the JSON path reader does */
+    private Object readLeaf() throws IOException {
+      JsonToken token = parser.currentToken();
+      switch (token) {
+        case VALUE_STRING:
+          return parser.getText();
+        case VALUE_NUMBER_INT:
+          return parser.getNumberValue();
+        case VALUE_NUMBER_FLOAT:
+          return parser.getDoubleValue();
+        case VALUE_TRUE:
+          return Boolean.TRUE;
+        case VALUE_FALSE:
+          return Boolean.FALSE;
+        case START_OBJECT, START_ARRAY:
+          return MAPPER.readValue(parser, Object.class);
+        default:
+          return null;
+      }
+    }
+
+    private Object[] endOfDocument() throws JsonInputException {
+      if (log.isDetailed()) {
+        log.logDetailed(BaseMessages.getString(PKG, "JsonInput.Log.NrRecords", rowCount));
+      }
+      if (!ignoreMissingPath) {
+        for (int i = 0; i < fields.length; i++) {
+          if (!found[i]) {
+            throw new JsonInputException(
+                BaseMessages.getString(
+                    PKG, "JsonReader.Error.CanNotFindPath", fields[i].getPath()));
+          }
+        }
+      }
+      // No rows: one row with nulls like the JSON path reader
+      //
+      return rowsReturned == 0 ? new Object[fields.length] : null;
+    }
+
+    private boolean isAllNull(Object[] row) {
+      return FastJsonReader.isAllNull(Arrays.asList(row));
+    }
+
+    private void finish() {
+      finished = true;
+      try {
+        parser.close();
+      } catch (IOException e) {
+        // ignore
+      }
+    }
+
+    @Override
+    public int size() {
+      return finished ? 0 : 1;
+    }
+
+    @Override
+    public boolean isDone() {
+      return true;
+    }
+
+    @Override
+    public void clear() {
+      finish();
+    }
+  }
+}
@@ -41,6 +41,7 @@ import java.util.zip.ZipOutputStream;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
+import org.apache.hop.core.Const;
 import org.apache.hop.core.HopClientEnvironment;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.exception.HopException;
@@ -964,6 +965,87 @@ class JsonInputTest {
     }
   }
 
+  @Test
+  void testStreamingReadFileList() throws Exception {
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    helper.redirectLog(err, LogLevel.ERROR);
+
+    final String input1 = getBasicTestJson();
+    final String input2 = "{ \"store\": { \"book\": [ { \"price\": 9.99 } ] } }";
+    try (FileObject fileObj1 = HopVfs.getFileObject(BASE_RAM_DIR + "test1.json");
+        FileObject fileObj2 = HopVfs.getFileObject(BASE_RAM_DIR + "test2.json")) {
+      try (OutputStream out = fileObj1.getContent().getOutputStream()) {
+        out.write(input1.getBytes());
+      }
+      try (OutputStream out = fileObj2.getContent().getOutputStream()) {
+        out.write(input2.getBytes());
+      }
+      JsonInputField isbn = new JsonInputField("isbn");
+      isbn.setPath("$.store.book[*].isbn");
+      isbn.setType(IValueMeta.TYPE_STRING);
+      JsonInputField price = new JsonInputField("price");
+      price.setPath("$.store.book[*].price");
+      price.setType(IValueMeta.TYPE_NUMBER);
+      List<FileObject> fileList = Arrays.asList(fileObj1, fileObj2);
+      JsonInputMeta meta = createFileListMeta(fileList);
+      meta.getInputFields().add(isbn);
+      meta.getInputFields().add(price);
+      meta.setStreamingRead(true);
+      meta.setIgnoringMissingPath(true);
+      meta.setShortFileNameField("fname");
+      when(helper.pipeline.getVariable(Const.HOP_METRIC_DATA_VOLUME, "N")).thenReturn("Y");
+
+      JsonInput jsonInput = createJsonInput(meta);
+      RowComparatorListener rowComparator =
+          new RowComparatorListener(
+              new Object[] {null, 8.95d, "test1.json"},
+              new Object[] {null, 12.99d, "test1.json"},
+              new Object[] {"0-553-21311-3", 8.99d, "test1.json"},
+              new Object[] {"0-395-19395-8", 22.99d, "test1.json"},
+              new Object[] {null, 9.99d, "test2.json"});
+      jsonInput.addRowListener(rowComparator);
+
+      processRows(jsonInput, 6);
+      disposeJsonInput(jsonInput);
+      assertEquals(0, jsonInput.getErrors(), err.toString());
+      assertEquals(5, jsonInput.getLinesWritten(), "rows written");
+      assertEquals(
+          Long.valueOf(input1.length() + input2.length()),
+          jsonInput.getDataVolumeIn(),
+          "bytes read");
+    } finally {
+      deleteFiles();
+    }
+  }
+
+  @Test
+  void testStreamingReadFallback() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    helper.redirectLog(out, LogLevel.ERROR);
+
+    // A deep scan can't be streamed, the document is read in memory
+    JsonInputField isbn = new JsonInputField("isbn");
+    isbn.setPath("$..book[*].isbn");
+    isbn.setType(IValueMeta.TYPE_STRING);
+
+    JsonInputMeta meta = createSimpleMeta("json", isbn);
+    meta.setStreamingRead(true);
+    meta.setRemoveSourceField(true);
+
+    JsonInput jsonInput = createJsonInput("json", meta, new Object[] {getBasicTestJson()});
+    RowComparatorListener rowComparator =
+        new RowComparatorListener(
+            new Object[] {null},
+            new Object[] {null},
+            new Object[] {"0-553-21311-3"},
+            new Object[] {"0-395-19395-8"});
+    jsonInput.addRowListener(rowComparator);
+    processRows(jsonInput, 5);
+
+    assertEquals(0, jsonInput.getErrors(), out.toString());
+    assertEquals(4, jsonInput.getLinesWritten(), "rows written");
+  }
+
   @Test
   void testNoFilesInListError() throws Exception {
     ByteArrayOutputStream err = new ByteArrayOutputStream();
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import net.minidev.json.JSONObject;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopRuntimeException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputField;
+import org.junit.jupiter.api.Test;
+
+class StreamingJsonReaderTest {
+  private static final String BOOKS =
+      """
+      {
+        "store": {
+          "name": "Books & more",
+          "book": [
+            { "title": "Sayings of the Century", "price": 8.95, "pages": 120 },
+            { "title": "Moby Dick", "isbn": "0-553-21311-3", "price": 8.99,
+              "author": { "name": "Herman Melville", "born": 1819 } },
+            { "title": "The Lord of the Rings", "isbn": "0-395-19395-8", "price": 22.99,
+              "tags": [ "fantasy", "classic" ] },
+            { "other": true }
+          ],
+          "bicycle": { "color": "red", "price": 19.95 }
+        }
+      }
+      """;
+
+  private final ILogChannel log = mock(ILogChannel.class);
+
+  @Test
+  void testParsePath() {
+    assertEquals(List.of("a", "b"), StreamingJsonReader.parsePath("$.a.b"));
+    assertEquals(List.of("a", "[*]", "c"), StreamingJsonReader.parsePath("$.a[*].c"));
+    assertEquals(List.of("a", "[*]", "c"), StreamingJsonReader.parsePath("$.a.*.c"));
+    assertEquals(List.of("a b", "c"), StreamingJsonReader.parsePath("$['a b'].['c']"));
+    assertEquals(List.of("[*]", "x"), StreamingJsonReader.parsePath("$[*].x"));
+    assertEquals(List.of(), StreamingJsonReader.parsePath("$"));
+
+    assertNull(StreamingJsonReader.parsePath("$..a"));
+    assertNull(StreamingJsonReader.parsePath("$.a[0].b"));
+    assertNull(StreamingJsonReader.parsePath("$.a[?(@.b)].b"));
+    assertNull(StreamingJsonReader.parsePath("$.a.length()"));
+    assertNull(StreamingJsonReader.parsePath("$.a[*].b[*].c"));
+    assertNull(StreamingJsonReader.parsePath("a.b"));
+  }
+
+  @Test
+  void testIsSupported() {
+    assertTrue(
+        StreamingJsonReader.isSupported(fields("$.store.book[*].title", "$.store.book[*].price")));
+    assertTrue(StreamingJsonReader.isSupported(fields("$.store.name", "$.store.bicycle.color")));
+
+    // Different repeating arrays or a mix of repeating and single values
+    assertFalse(StreamingJsonReader.isSupported(fields("$.store.book[*].title", "$.a[*].b")));
+    assertFalse(StreamingJsonReader.isSupported(fields("$.store.book[*].title", "$.store.name")));
+    assertFalse(StreamingJsonReader.isSupported(fields("$..title")));
+    assertFalse(StreamingJsonReader.isSupported(fields()));
+    assertThrows(HopException.class, () -> new StreamingJsonReader(fields("$..title"), log));
+  }
+
+  @Test
+  void testRepeatingArray() throws Exception {
+    assertSameRows(
+        BOOKS,
+        "$.store.book[*].title",
+        "$.store.book[*].isbn",
+        "$.store.book[*]['price']",
+        "$.store.book[*].pages");
+  }
+
+  @Test
+  void testObjectAndArrayValues() throws Exception {
+    assertSameRows(BOOKS, "$.store.book[*].author", "$.store.book[*].tags");
+  }
+
+  @Test
+  void testNestedPaths() throws Exception {
+    // A missing object in the middle of a path gives a null value
+    StreamingJsonReader reader =
+        new StreamingJsonReader(
+            fields("$.store.book[*].title", "$.store.book[*].author.name"), log);
+    assertEquals(
+        List.of(
+            "[Sayings of the Century, null]",
+            "[Moby Dick, Herman Melville]",
+            "[The Lord of the Rings, null]",
+            "[null, null]"),
+        readRows(reader.parseStringValue(toStream(BOOKS))));
+  }
+
+  @Test
+  void testWholeElement() throws Exception {
+    assertSameRows(BOOKS, "$.store.book[*]");
+  }
+
+  @Test
+  void testObjectWildcard() throws Exception {
+    assertSameRows(BOOKS, "$.store.bicycle.*");
+  }
+
+  @Test
+  void testTopLevelArray() throws Exception {
+    assertSameRows("[ { \"x\": 1, \"y\": \"a\" }, { \"y\": \"b\" }, 5, { \"x\": 3 } ]", "$[*].x");
+  }
+
+  @Test
+  void testSingleRow() throws Exception {
+    assertSameRows(BOOKS, "$.store.name", "$.store.bicycle.color", "$.store.bicycle.price");
+  }
+
+  @Test
+  void testNothingFound() throws Exception {
+    assertSameRows(BOOKS, "$.store.magazine[*].title");
+    assertSameRows(BOOKS, "$.store.bicycle.wheels");
+    assertSameRows("{ \"store\": { \"book\": [] } }", "$.store.book[*].title");
+  }
+
+  @Test
+  void testMissingPathError() throws Exception {
+    StreamingJsonReader reader =
+        new StreamingJsonReader(fields("$.store.book[*].title", "$.store.book[*].year"), log);
+    reader.setIgnoreMissingPath(false);
+    IRowSet rowSet = reader.parseStringValue(toStream(BOOKS));
+
+    // The rows are read before the missing path is detected at the end of the document
+    for (int i = 0; i < 4; i++) {
+      rowSet.getRow();
+    }
+    assertThrows(HopRuntimeException.class, rowSet::getRow);
+  }
+
+  @Test
+  void testInvalidJson() throws Exception {
+    StreamingJsonReader reader = new StreamingJsonReader(fields("$.a[*].b"), log);
+    IRowSet rowSet = reader.parseStringValue(toStream("{ \"a\": [ { \"b\": 1 }, { \"b\": "));
+
+    assertEquals(1, ((Number) rowSet.getRow()[0]).intValue());
+    assertThrows(HopRuntimeException.class, rowSet::getRow);
+  }
+
+  private void assertSameRows(String json, String... paths) throws Exception {
+    JsonInputField[] fields = fields(paths);
+    FastJsonReader fastReader = new FastJsonReader(fields, true, log);
+    fastReader.setIgnoreMissingPath(true);
+    StreamingJsonReader streamingReader = new StreamingJsonReader(fields, log);
+    streamingReader.setIgnoreMissingPath(true);
+
+    List<String> expected = readRows(fastReader.parseStringValue(toStream(json)));
+    List<String> actual = readRows(streamingReader.parseStringValue(toStream(json)));
+    assertEquals(expected, actual, Arrays.toString(paths));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<String> readRows(IRowSet rowSet) {
+    List<String> rows = new ArrayList<>();
+    Object[] row;
+    while ((row = rowSet.getRow()) != null) {
+      List<String> values = new ArrayList<>();
+      for (Object value : row) {
+        if (value instanceof Map<?, ?> map) {
+          values.add(JSONObject.toJSONString((Map<String, ?>) map));
+        } else {
+          values.add(value == null ? null : value.toString());
+        }
+      }
+      rows.add(values.toString());
+    }
+    return rows;
+  }
+
+  private static JsonInputField[] fields(String... paths) {
+    JsonInputField[] fields = new JsonInputField[paths.length];
+    for (int i = 0; i < paths.length; i++) {
+      fields[i] = new JsonInputField("field" + i);
+      fields[i].setPath(paths[i]);
+    }
+    return fields;
+  }
+
+  private static ByteArrayInputStream toStream(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import java.util.Arrays;
+import java.util.Objects;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+
+/**
+ * An open addressing hash table of the groups of the Memory Group By transform.
+ *
+ * <p>The groups are kept in insertion order in dense parallel arrays: the group values, the hash
+ * code of the group and the aggregate. The slots of the table only hold the index of a group (plus
+ * one, zero marks an empty slot) and are probed linearly. The hash code of a group is calculated
+ * once per row directly on the input row, without allocating a key wrapper. It is stored next to
+ * the group so that growing the table never recalculates it and so that most mismatches on a probe
+ * are rejected without comparing values.
+ *
+ * <p>The hash code of a group is calculated on the values converted to normal storage, the same way
+ * {@link IRowMeta#hashCode(Object[])} does. Values are compared with the group metadata in their
+ * original storage type.
+ */
+public class GroupHashTable {
+  private static final int MIN_CAPACITY = 16;
+
+  private final IRowMeta groupMeta;
+
+  /** The field indexes of a row containing only the group values */
+  private final int[] groupIndexes;
+
+  /** The index of the group plus one, 0 for an empty slot */
+  private int[] slots;
+
+  /** The number of bits to shift a scrambled hash code to get a slot */
+  private int shift;
+
+  private int size;
+  private int[] hashes;
+  private Object[][] groups;
+  private Aggregate[] aggregates;
+
+  /**
+   * @param groupMeta the metadata of the group values
+   * @param expectedSize the number of groups to size the table for
+   */
+  public GroupHashTable(IRowMeta groupMeta, int expectedSize) {
+    this.groupMeta = groupMeta;
+    this.groupIndexes = new int[groupMeta.size()];
+    for (int i = 0; i < groupIndexes.length; i++) {
+      groupIndexes[i] = i;
+    }
+    int capacity = Integer.highestOneBit(Math.max(expectedSize, MIN_CAPACITY / 2) * 2 - 1) << 1;
+    allocateSlots(capacity);
+    hashes = new int[capacity / 2];
+    groups = new Object[capacity / 2][];
+    aggregates = new Aggregate[capacity / 2];
+  }
+
+  /**
+   * Calculate the hash code of the group values of a row.
+   *
+   * @param row the row
+   * @param groupnrs the indexes of the group values in the row
+   * @return the hash code of the group
+   * @throws HopValueException in case a value can't be converted to normal storage
+   */
+  public int hash(Object[] row, int[] groupnrs) throws HopValueException {
+    int hash = 1;
+    for (int i = 0; i < groupnrs.length; i++) {
+      Object value = groupMeta.getValueMeta(i).convertToNormalStorageType(row[groupnrs[i]]);
+      hash =
+          31 * hash
+              + (value instanceof byte[] bytes ? Arrays.hashCode(bytes) : Objects.hashCode(value));
+    }
+    return hash;
+  }
+
+  /**
+   * Find the group of a row.
+   *
+   * @param row the row
+   * @param groupnrs the indexes of the group values in the row
+   * @param hash the hash code of the group as calculated by {@link #hash(Object[], int[])}
+   * @return the index of the group or -1 if the group is not in the table
+   * @throws HopValueException in case the values can't be compared
+   */
+  public int indexOf(Object[] row, int[] groupnrs, int hash) throws HopValueException {
+    int mask = slots.length - 1;
+    for (int slot = slot(hash); ; slot = (slot + 1) & mask) {
+      int index = slots[slot] - 1;
+      if (index < 0) {
+        return -1;
+      }
+      if (hashes[index] == hash && equalGroup(row, groupnrs, groups[index])) {
+        return index;
+      }
+    }
+  }
+
+  /**
+   * Add a new group to the table. The group must not be present in the table.
+   *
+   * @param groupData the group values
+   * @param hash the hash code of the group as calculated by {@link #hash(Object[], int[])}
+   * @param aggregate the aggregate of the group
+   * @return the index of the new group
+   */
+  public int add(Object[] groupData, int hash, Aggregate aggregate) {
+    if (size == hashes.length) {
+      grow();
+    }
+    int index = size++;
+    hashes[index] = hash;
+    groups[index] = groupData;
+    aggregates[index] = aggregate;
+    insertSlot(index);
+    return index;
+  }
+
+  /**
+   * Look up the aggregate of a group.
+   *
+   * @param groupData the group values
+   * @return the aggregate of the group or null if the group is not in the table
+   * @throws HopValueException in case of a conversion error
+   */
+  public Aggregate get(Object[] groupData) throws HopValueException {
+    int index = indexOf(groupData, groupIndexes, hash(groupData, groupIndexes));
+    return index < 0 ? null : aggregates[index];
+  }
+
+  /**
+   * Set the aggregate of a group, adding the group if it is not in the table yet.
+   *
+   * @param groupData the group values
+   * @param aggregate the aggregate of the group
+   * @throws HopValueException in case of a conversion error
+   */
+  public void put(Object[] groupData, Aggregate aggregate) throws HopValueException {
+    int hash = hash(groupData, groupIndexes);
+    int index = indexOf(groupData, groupIndexes, hash);
+    if (index < 0) {
+      add(groupData, hash, aggregate);
+    } else {
+      aggregates[index] = aggregate;
+    }
+  }
+
+  /**
+   * @return the number of groups in the table
+   */
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @param index the index of the group, groups are numbered in insertion order
+   * @return the group values
+   */
+  public Object[] getGroupData(int index) {
+    return groups[index];
+  }
+
+  /**
+   * @param index the index of the group, groups are numbered in insertion order
+   * @return the aggregate of the group
+   */
+  public Aggregate getAggregate(int index) {
+    return aggregates[index];
+  }
+
+  /** Remove all groups, the capacity of the table is kept. */
+  public void clear() {
+    Arrays.fill(slots, 0);
+    Arrays.fill(groups, 0, size, null);
+    Arrays.fill(aggregates, 0, size, null);
+    size = 0;
+  }
+
+  private boolean equalGroup(Object[] row, int[] groupnrs, Object[] groupData)
+      throws HopValueException {
+    for (int i = 0; i < groupnrs.length; i++) {
+      IValueMeta valueMeta = groupMeta.getValueMeta(i);
+      if (valueMeta.compare(row[groupnrs[i]], groupData[i]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Fibonacci hashing spreads similar hash codes over the whole table */
+  private int slot(int hash) {
+    return (hash * 0x9E3779B9) >>> shift;
+  }
+
+  private void insertSlot(int index) {
+    int mask = slots.length - 1;
+    int slot = slot(hashes[index]);
+    while (slots[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    slots[slot] = index + 1;
+  }
+
+  private void allocateSlots(int capacity) {
+    slots = new int[capacity];
+    shift = 32 - Integer.numberOfTrailingZeros(capacity);
+  }
+
+  /** Double the capacity, keeping the load factor of the slots at most 0.5 */
+  private void grow() {
+    int capacity = hashes.length * 2;
+    hashes = Arrays.copyOf(hashes, capacity);
+    groups = Arrays.copyOf(groups, capacity);
+    aggregates = Arrays.copyOf(aggregates, capacity);
+    allocateSlots(capacity * 2);
+    for (int index = 0; index < size; index++) {
+      insertSlot(index);
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.vfs.HopVfs;
+
+/**
+ * A temporary file holding the input rows of one hash partition of the groups that didn't fit in
+ * memory. The rows are first written, then read back once in the same order. The file is deleted
+ * when it is closed.
+ */
+public class GroupSpillFile implements Closeable {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final FileObject file;
+  private final IRowMeta rowMeta;
+  private final int depth;
+  private DataOutputStream outputStream;
+  private DataInputStream inputStream;
+  private long nrRows;
+
+  /**
+   * @param file the temporary file
+   * @param rowMeta the layout of the rows
+   * @param depth the number of times the rows of this file were partitioned
+   */
+  public GroupSpillFile(FileObject file, IRowMeta rowMeta, int depth)
+      throws HopException, IOException {
+    this.file = file;
+    this.rowMeta = rowMeta;
+    this.depth = depth;
+    outputStream =
+        new DataOutputStream(
+            new BufferedOutputStream(HopVfs.getOutputStream(file, false), BUFFER_SIZE));
+  }
+
+  public void writeRow(Object[] row) throws HopException {
+    rowMeta.writeData(outputStream, row);
+    nrRows++;
+  }
+
+  /**
+   * Finish writing, the rows can be read back afterward.
+   *
+   * @throws IOException in case the file can't be closed
+   */
+  public void finishWriting() throws IOException {
+    outputStream.close();
+    outputStream = null;
+  }
+
+  /**
+   * @return the next row of the file or null if all rows are read
+   */
+  public Object[] readRow() throws HopException {
+    if (nrRows <= 0) {
+      return null;
+    }
+    nrRows--;
+    try {
+      if (inputStream == null) {
+        inputStream =
+            new DataInputStream(new BufferedInputStream(HopVfs.getInputStream(file), BUFFER_SIZE));
+      }
+      return rowMeta.readData(inputStream);
+    } catch (SocketTimeoutException e) {
+      throw new HopException(e); // should never happen on local files
+    } catch (IOException e) {
+      throw new HopException("Unable to open spill file " + file.getName().getURI(), e);
+    }
+  }
+
+  /**
+   * @return the number of times the rows of this file were partitioned
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * @return the number of rows written and not read yet
+   */
+  public long getNrRows() {
+    return nrRows;
+  }
+
+  /** Close the file and delete it. */
+  @Override
+  public void close() throws IOException {
+    try {
+      if (outputStream != null) {
+        outputStream.close();
+      }
+      if (inputStream != null) {
+        inputStream.close();
+      }
+    } finally {
+      file.delete();
+    }
+  }
+}
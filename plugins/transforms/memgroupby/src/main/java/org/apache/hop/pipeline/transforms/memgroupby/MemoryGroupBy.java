@@ -22,14 +22,15 @@ import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.Gr
 import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.CountDistinct;
 import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.Percentile;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.StringJoiner;
 import java.util.TreeSet;
 import org.apache.commons.math3.stat.descriptive.rank.Percentile;
+import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopValueException;
@@ -43,17 +44,26 @@ import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaNumber;
 import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
-import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.HashEntry;
 
 /** Groups information based on aggregation rules. (sum, count, ...) */
 public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupByData> {
   private static final Class<?> PKG = MemoryGroupByMeta.class;
 
+  /** The number of hash partitions the rows of groups not fitting in memory are spread over */
+  static final int SPILL_PARTITION_BITS = 4;
+
+  /**
+   * The maximum number of times rows are partitioned. When a partition still has too many groups at
+   * this depth (very skewed keys) all its groups are kept in memory.
+   */
+  static final int MAX_SPILL_DEPTH = 6;
+
   private boolean allNullsAreZero = false;
   private boolean minNullIsValued = false;
 
@@ -148,6 +158,7 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
       // Initialize the group metadata
       //
       initGroupMeta(data.inputRowMeta);
+      data.table = new GroupHashTable(data.groupMeta, 5000);
     }
 
     if (first) {
@@ -186,29 +197,40 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
   }
 
   private void handleLastOfGroup() throws HopException {
-    // Dump the content of the map...
+    data.hasOutput = false;
+    if (data.table == null) {
+      return;
+    }
+
+    // Dump the content of the hash table...
     //
-    for (HashEntry entry : data.map.keySet()) {
-      Aggregate aggregate = data.map.get(entry);
-      Object[] aggregateResult = getAggregateResult(aggregate);
+    outputGroups();
 
-      Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
-      int index = 0;
-      for (int i = 0; i < data.groupMeta.size(); i++) {
-        outputRowData[index++] =
-            data.groupMeta.getValueMeta(i).convertToNormalStorageType(entry.getGroupData()[i]);
-      }
-      for (int i = 0; i < data.aggMeta.size(); i++) {
-        outputRowData[index++] =
-            data.aggMeta.getValueMeta(i).convertToNormalStorageType(aggregateResult[i]);
+    // Aggregate the rows of the groups which didn't fit in memory one partition at a time.
+    // Every group is entirely in memory or entirely in one partition.
+    //
+    queueSpillFiles();
+    while (!data.pendingSpillFiles.isEmpty()) {
+      GroupSpillFile spillFile = data.pendingSpillFiles.pop();
+      data.spillDepth = spillFile.getDepth();
+      try (spillFile) {
+        Object[] row = spillFile.readRow();
+        while (row != null) {
+          addToAggregate(row);
+          row = spillFile.readRow();
+        }
+      } catch (IOException e) {
+        throw new HopException(e);
       }
-      putRow(data.outputRowMeta, outputRowData);
+      outputGroups();
+      queueSpillFiles();
     }
+    data.spillDepth = 0;
 
     // What if we always need to give back one row?
     // This means we give back 0 for count all, count distinct, null for everything else
     //
-    if (data.map.isEmpty() && meta.isAlwaysGivingBackOneRow()) {
+    if (!data.hasOutput && meta.isAlwaysGivingBackOneRow()) {
       Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
       int index = 0;
       for (int i = 0; i < data.groupMeta.size(); i++) {
@@ -228,6 +250,95 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
     }
   }
 
+  /** Output the groups in the hash table and clear it */
+  private void outputGroups() throws HopException {
+    for (int entry = 0; entry < data.table.size(); entry++) {
+      Object[] groupData = data.table.getGroupData(entry);
+      Object[] aggregateResult = getAggregateResult(data.table.getAggregate(entry));
+
+      Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
+      int index = 0;
+      for (int i = 0; i < data.groupMeta.size(); i++) {
+        outputRowData[index++] =
+            data.groupMeta.getValueMeta(i).convertToNormalStorageType(groupData[i]);
+      }
+      for (int i = 0; i < data.aggMeta.size(); i++) {
+        outputRowData[index++] =
+            data.aggMeta.getValueMeta(i).convertToNormalStorageType(aggregateResult[i]);
+      }
+      putRow(data.outputRowMeta, outputRowData);
+      data.hasOutput = true;
+    }
+    data.table.clear();
+  }
+
+  /** Move the partition files written while aggregating to the files to aggregate */
+  private void queueSpillFiles() throws HopException {
+    if (data.spillFiles == null) {
+      return;
+    }
+    try {
+      for (GroupSpillFile spillFile : data.spillFiles) {
+        if (spillFile != null) {
+          spillFile.finishWriting();
+          data.pendingSpillFiles.push(spillFile);
+        }
+      }
+    } catch (IOException e) {
+      throw new HopException(e);
+    } finally {
+      data.spillFiles = null;
+    }
+  }
+
+  /**
+   * Write a row of a group which doesn't fit in memory to the partition file of its hash code.
+   *
+   * @param r the row
+   * @param hash the hash code of the group
+   */
+  private void spillRow(Object[] r, int hash) throws HopException {
+    if (data.spillFiles == null) {
+      data.spillFiles = new GroupSpillFile[1 << SPILL_PARTITION_BITS];
+      if (isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(
+                PKG,
+                "MemoryGroupBy.Log.SpillingGroups",
+                Integer.toString(data.table.size()),
+                Integer.toString(data.spillDepth + 1)));
+      }
+    }
+    int partition = partition(hash, data.spillDepth);
+    GroupSpillFile spillFile = data.spillFiles[partition];
+    if (spillFile == null) {
+      FileObject file = HopVfs.createTempFile("memgroupby", ".tmp", data.spillDirectory, this);
+      try {
+        spillFile = new GroupSpillFile(file, data.inputRowMeta, data.spillDepth + 1);
+      } catch (IOException e) {
+        throw new HopException("Unable to create spill file " + file.getName().getURI(), e);
+      }
+      data.spillFiles[partition] = spillFile;
+    }
+    spillFile.writeRow(r);
+  }
+
+  /**
+   * Calculate the partition of a group hash code. Every depth uses a different scrambling of the
+   * hash code so that a partition which still has too many groups is split again evenly.
+   *
+   * @param hash the hash code of the group
+   * @param depth the number of times the rows were partitioned already
+   * @return the partition, from 0 to 2^SPILL_PARTITION_BITS-1
+   */
+  static int partition(int hash, int depth) {
+    int h = (hash + depth * 0x61C88647) * 0x85EBCA6B;
+    h ^= h >>> 13;
+    h *= 0xC2B2AE35;
+    h ^= h >>> 16;
+    return h >>> (32 - SPILL_PARTITION_BITS);
+  }
+
   /**
    * Used for junits in MemoryGroupByAggregationNullsTest
    *
@@ -235,23 +346,33 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
    * @throws HopException
    */
   void addToAggregate(Object[] r) throws HopException {
+    int hash = data.table.hash(r, data.groupnrs);
+    int entry = data.table.indexOf(r, data.groupnrs, hash);
+    Aggregate aggregate;
+    if (entry < 0) {
+      if (data.maxGroupsInMemory > 0
+          && data.table.size() >= data.maxGroupsInMemory
+          && data.spillDepth < MAX_SPILL_DEPTH) {
+        // No more room for a new group, aggregate this row later
+        //
+        spillRow(r, hash);
+        return;
+      }
 
-    Object[] groupData = new Object[data.groupMeta.size()];
-    for (int i = 0; i < data.groupnrs.length; i++) {
-      groupData[i] = r[data.groupnrs[i]];
-    }
-    HashEntry entry = data.getHashEntry(groupData);
-
-    Aggregate aggregate = data.map.get(entry);
-    if (aggregate == null) {
       // Create a new value...
       //
+      Object[] groupData = new Object[data.groupMeta.size()];
+      for (int i = 0; i < data.groupnrs.length; i++) {
+        groupData[i] = r[data.groupnrs[i]];
+      }
       aggregate = new Aggregate();
       newAggregate(r, aggregate);
 
-      // Store it in the map!
+      // Store it in the hash table!
       //
-      data.map.put(entry, aggregate);
+      data.table.add(groupData, hash, aggregate);
+    } else {
+      aggregate = data.table.getAggregate(entry);
     }
 
     for (int i = 0; i < data.subjectnrs.length; i++) {
@@ -554,7 +675,11 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
   public boolean init() {
 
     if (super.init()) {
-      data.map = HashMap.newHashMap(5000);
+      data.maxGroupsInMemory = Math.max(0, Const.toInt(resolve(meta.getMaxGroupsInMemory()), 0));
+      data.spillDirectory = resolve(meta.getSpillDirectory());
+      if (Utils.isEmpty(data.spillDirectory)) {
+        data.spillDirectory = System.getProperty("java.io.tmpdir");
+      }
       return true;
     }
     return false;
@@ -564,6 +689,26 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
   public void dispose() {
     super.dispose();
     ((MemoryGroupByData) data).clear();
+    closeSpillFiles();
+  }
+
+  /** Remove the partition files left behind when the transform is stopped */
+  private void closeSpillFiles() {
+    List<GroupSpillFile> spillFiles = new ArrayList<>(data.pendingSpillFiles);
+    if (data.spillFiles != null) {
+      spillFiles.addAll(List.of(data.spillFiles));
+    }
+    for (GroupSpillFile spillFile : spillFiles) {
+      try {
+        if (spillFile != null) {
+          spillFile.close();
+        }
+      } catch (IOException e) {
+        logError("Unable to remove spill file", e);
+      }
+    }
+    data.pendingSpillFiles.clear();
+    data.spillFiles = null;
   }
 
   @Override
@@ -574,7 +719,7 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
     // Clear the complete cache...
     //
-    data.map.clear();
+    data.clear();
 
     data.newBatch = true;
   }
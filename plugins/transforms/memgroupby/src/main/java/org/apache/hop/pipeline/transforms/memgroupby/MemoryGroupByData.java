@@ -17,9 +17,8 @@
 
 package org.apache.hop.pipeline.transforms.memgroupby;
 
-import java.util.HashMap;
-import org.apache.hop.core.exception.HopRuntimeException;
-import org.apache.hop.core.exception.HopValueException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
@@ -27,46 +26,8 @@ import org.apache.hop.pipeline.transform.ITransformData;
 
 @SuppressWarnings("java:S1104")
 public class MemoryGroupByData extends BaseTransformData implements ITransformData {
-  public class HashEntry {
-    private Object[] groupData;
-
-    public HashEntry(Object[] groupData) {
-      this.groupData = groupData;
-    }
-
-    public Object[] getGroupData() {
-      return groupData;
-    }
-
-    public boolean equals(Object obj) {
-      HashEntry entry = (HashEntry) obj;
-
-      try {
-        return groupMeta.compare(groupData, entry.groupData) == 0;
-      } catch (HopValueException e) {
-        throw new HopRuntimeException(e);
-      }
-    }
-
-    public int hashCode() {
-      try {
-        return groupMeta.hashCode(getHashValue());
-      } catch (HopValueException e) {
-        throw new HopRuntimeException(e);
-      }
-    }
-
-    private Object[] getHashValue() throws HopValueException {
-      Object[] groupDataHash = new Object[groupMeta.size()];
-      for (int i = 0; i < groupMeta.size(); i++) {
-        IValueMeta valueMeta = groupMeta.getValueMeta(i);
-        groupDataHash[i] = valueMeta.convertToNormalStorageType(groupData[i]);
-      }
-      return groupDataHash;
-    }
-  }
-
-  public HashMap<HashEntry, Aggregate> map;
+  /** The groups kept in memory with their aggregates */
+  public GroupHashTable table;
 
   public IRowMeta aggMeta;
   public IRowMeta groupMeta;
@@ -90,16 +51,29 @@ public class MemoryGroupByData extends BaseTransformData implements ITransformDa
 
   public boolean newBatch;
 
+  /** The maximum number of groups in memory, 0 means no limit */
+  public int maxGroupsInMemory;
+
+  /** The directory of the spill files */
+  public String spillDirectory;
+
+  /** The partition files of the rows of groups not fitting in memory, null if not spilling */
+  public GroupSpillFile[] spillFiles;
+
+  /** The number of times the rows currently being aggregated were partitioned */
+  public int spillDepth;
+
+  /** The partition files still to be aggregated */
+  public Deque<GroupSpillFile> pendingSpillFiles = new ArrayDeque<>();
+
   public MemoryGroupByData() {
     super();
   }
 
-  public HashEntry getHashEntry(Object[] groupData) {
-    return new HashEntry(groupData);
-  }
-
   /** Method responsible for clearing out memory hogs */
   public void clear() {
-    map = new HashMap<>();
+    if (table != null) {
+      table.clear();
+    }
   }
 }
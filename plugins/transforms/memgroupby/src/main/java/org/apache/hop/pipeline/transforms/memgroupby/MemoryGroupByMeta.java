@@ -69,9 +69,27 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
       injectionKeyDescription = "MemoryGroupBy.Injection.ALWAYSGIVINGBACKONEROW")
   private boolean alwaysGivingBackOneRow;
 
+  /**
+   * The maximum number of groups kept in memory. The rows of the other groups are written to
+   * temporary files and aggregated afterward. Empty or 0 means that all groups are kept in memory.
+   */
+  @HopMetadataProperty(
+      key = "max_groups_in_memory",
+      injectionKey = "MAX_GROUPS_IN_MEMORY",
+      injectionKeyDescription = "MemoryGroupBy.Injection.MAX_GROUPS_IN_MEMORY")
+  private String maxGroupsInMemory;
+
+  /** The directory of the temporary files of the groups which don't fit in memory */
+  @HopMetadataProperty(
+      key = "spill_directory",
+      injectionKey = "SPILL_DIRECTORY",
+      injectionKeyDescription = "MemoryGroupBy.Injection.SPILL_DIRECTORY")
+  private String spillDirectory;
+
   public MemoryGroupByMeta() {
     this.groups = new ArrayList<>();
     this.aggregates = new ArrayList<>();
+    this.spillDirectory = "${java.io.tmpdir}";
   }
 
   public MemoryGroupByMeta(MemoryGroupByMeta meta) {
@@ -83,6 +101,8 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
       aggregates.add(new GAggregate(aggregate));
     }
     this.alwaysGivingBackOneRow = meta.alwaysGivingBackOneRow;
+    this.maxGroupsInMemory = meta.maxGroupsInMemory;
+    this.spillDirectory = meta.spillDirectory;
   }
 
   @Override
@@ -363,6 +383,42 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
     this.alwaysGivingBackOneRow = alwaysGivingBackOneRow;
   }
 
+  /**
+   * Gets maxGroupsInMemory
+   *
+   * @return value of maxGroupsInMemory
+   */
+  public String getMaxGroupsInMemory() {
+    return maxGroupsInMemory;
+  }
+
+  /**
+   * Sets maxGroupsInMemory
+   *
+   * @param maxGroupsInMemory value of maxGroupsInMemory
+   */
+  public void setMaxGroupsInMemory(String maxGroupsInMemory) {
+    this.maxGroupsInMemory = maxGroupsInMemory;
+  }
+
+  /**
+   * Gets spillDirectory
+   *
+   * @return value of spillDirectory
+   */
+  public String getSpillDirectory() {
+    return spillDirectory;
+  }
+
+  /**
+   * Sets spillDirectory
+   *
+   * @param spillDirectory value of spillDirectory
+   */
+  public void setSpillDirectory(String spillDirectory) {
+    this.spillDirectory = spillDirectory;
+  }
+
   @Override
   public boolean supportsMultiCopyExecution() {
     return false;
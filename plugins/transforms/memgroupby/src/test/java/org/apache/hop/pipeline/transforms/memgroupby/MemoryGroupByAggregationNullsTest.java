@@ -24,7 +24,6 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
-import java.util.HashMap;
 import java.util.List;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopValueException;
@@ -33,7 +32,6 @@ import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaString;
-import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.HashEntry;
 import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType;
 import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
 import org.junit.jupiter.api.AfterAll;
@@ -72,7 +70,7 @@ class MemoryGroupByAggregationNullsTest {
   }
 
   @BeforeEach
-  void setUp() {
+  void setUp() throws Exception {
     data = new MemoryGroupByData();
     data.subjectnrs = new int[] {0};
     meta = new MemoryGroupByMeta();
@@ -85,7 +83,7 @@ class MemoryGroupByAggregationNullsTest {
     data.outputRowMeta = rmi;
     data.groupMeta = rmi;
     data.groupnrs = new int[] {};
-    data.map = new HashMap<>();
+    data.table = new GroupHashTable(data.groupMeta, 16);
     when(rmi.getValueMeta(Mockito.anyInt())).thenReturn(vmi);
     data.aggMeta = rmi;
     transform =
@@ -95,12 +93,12 @@ class MemoryGroupByAggregationNullsTest {
     // put aggregate into map with default predefined value
     aggregate = new Aggregate();
     aggregate.agg = new Object[] {def};
-    data.map.put(getHashEntry(), aggregate);
+    data.table.put(getGroupData(), aggregate);
   }
 
-  // test hash entry
-  HashEntry getHashEntry() {
-    return data.getHashEntry(new Object[data.groupMeta.size()]);
+  // test group values
+  Object[] getGroupData() {
+    return new Object[data.groupMeta.size()];
   }
 
   /**
@@ -117,7 +115,7 @@ class MemoryGroupByAggregationNullsTest {
     transform.setMinNullIsValued(true);
     transform.addToAggregate(new Object[] {null});
 
-    Aggregate agg = data.map.get(getHashEntry());
+    Aggregate agg = data.table.get(getGroupData());
     assertNotNull(agg, "Hash code strategy changed?");
 
     assertNull(agg.agg[0], "Value is set");
@@ -128,7 +126,7 @@ class MemoryGroupByAggregationNullsTest {
     transform.setMinNullIsValued(false);
     transform.addToAggregate(new Object[] {null});
 
-    Aggregate agg = data.map.get(getHashEntry());
+    Aggregate agg = data.table.get(getGroupData());
     assertNotNull(agg, "Hash code strategy changed?");
 
     assertEquals(def, agg.agg[0], "Value is NOT set");
@@ -169,7 +167,7 @@ class MemoryGroupByAggregationNullsTest {
     aggregate.agg = new Object[] {new byte[0]};
     byte[] bytes = {51};
     transform.addToAggregate(new Object[] {bytes});
-    Aggregate result = data.map.get(getHashEntry());
+    Aggregate result = data.table.get(getGroupData());
     assertEquals(bytes, result.agg[0], "Returns non-null value");
   }
 
@@ -197,7 +195,7 @@ class MemoryGroupByAggregationNullsTest {
     transform.addToAggregate(new Object[] {binaryData0.getBytes()});
     transform.addToAggregate(new Object[] {binaryData1.getBytes()});
 
-    Object[] distinctObjs = data.map.get(getHashEntry()).distinctObjs[0].toArray();
+    Object[] distinctObjs = data.table.get(getGroupData()).distinctObjs[0].toArray();
 
     assertEquals(binaryData0, distinctObjs[1]);
     assertEquals(binaryData1, distinctObjs[0]);
@@ -18,11 +18,13 @@
 package org.apache.hop.pipeline.transforms.memgroupby;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.junit.jupiter.api.BeforeEach;
@@ -53,24 +55,51 @@ class MemoryGroupByDataTest {
   }
 
   @Test
-  void hashEntryTest() {
-    HashMap<MemoryGroupByData.HashEntry, String> map = new HashMap<>();
+  void hashTableTest() throws Exception {
+    GroupHashTable table = new GroupHashTable(groupMeta, 1);
 
     byte[] byteValue1 = "key".getBytes();
     Object[] groupData1 = new Object[1];
     groupData1[0] = byteValue1;
 
-    MemoryGroupByData.HashEntry hashEntry1 = data.getHashEntry(groupData1);
-    map.put(hashEntry1, "value");
+    Aggregate aggregate = new Aggregate();
+    table.put(groupData1, aggregate);
 
     byte[] byteValue2 = "key".getBytes();
     Object[] groupData2 = new Object[1];
     groupData2[0] = byteValue2;
 
-    MemoryGroupByData.HashEntry hashEntry2 = data.getHashEntry(groupData2);
+    assertSame(aggregate, table.get(groupData2));
+    assertEquals(1, table.size());
+    assertSame(groupData1, table.getGroupData(0));
+  }
+
+  @Test
+  void hashTableGrowTest() throws Exception {
+    when(valueMeta.compare(any(), any()))
+        .then(
+            invocation ->
+                Arrays.equals((byte[]) invocation.getArgument(0), invocation.getArgument(1))
+                    ? 0
+                    : 1);
+    GroupHashTable table = new GroupHashTable(groupMeta, 1);
+
+    Aggregate[] aggregates = new Aggregate[1000];
+    for (int i = 0; i < aggregates.length; i++) {
+      aggregates[i] = new Aggregate();
+      table.put(new Object[] {("key" + i).getBytes()}, aggregates[i]);
+    }
 
-    String value = map.get(hashEntry2);
+    assertEquals(aggregates.length, table.size());
+    for (int i = 0; i < aggregates.length; i++) {
+      // Groups keep their insertion order
+      assertSame(aggregates[i], table.getAggregate(i));
+      assertSame(aggregates[i], table.get(new Object[] {("key" + i).getBytes()}));
+    }
+    assertNull(table.get(new Object[] {"other".getBytes()}));
 
-    assertEquals("value", value);
+    table.clear();
+    assertEquals(0, table.size());
+    assertNull(table.get(new Object[] {"key1".getBytes()}));
   }
 }
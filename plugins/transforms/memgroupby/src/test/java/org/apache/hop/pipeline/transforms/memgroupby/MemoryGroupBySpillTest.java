@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironmentExtension;
+import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MemoryGroupBySpillTest {
+  @RegisterExtension
+  static RestoreHopEngineEnvironmentExtension env = new RestoreHopEngineEnvironmentExtension();
+
+  @TempDir Path tempDir;
+
+  private TransformMockHelper<MemoryGroupByMeta, MemoryGroupByData> transformMockHelper;
+
+  @BeforeEach
+  void setup() {
+    transformMockHelper =
+        new TransformMockHelper<>(
+            "Memory Group By", MemoryGroupByMeta.class, MemoryGroupByData.class);
+    when(transformMockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(transformMockHelper.iLogChannel);
+    when(transformMockHelper.pipeline.isRunning()).thenReturn(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    transformMockHelper.cleanUp();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "0", "10", "3", "1"})
+  void testSpillGroups(String maxGroupsInMemory) throws Exception {
+    MemoryGroupByMeta meta = new MemoryGroupByMeta();
+    meta.setSpillDirectory(tempDir.toString());
+    meta.setMaxGroupsInMemory(maxGroupsInMemory);
+    meta.getGroups().add(new GGroup("key"));
+    meta.getAggregates().add(new GAggregate("sum", "value", GroupType.Sum, null));
+    meta.getAggregates().add(new GAggregate("count", "value", GroupType.CountAny, null));
+    meta.getAggregates().add(new GAggregate("first", "value", GroupType.FirstIncludingNull, null));
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("key"));
+    rowMeta.addValueMeta(new ValueMetaInteger("value"));
+
+    // 40 groups, one of them with a null key
+    //
+    Random random = new Random(42);
+    List<Object[]> input = new ArrayList<>();
+    Map<String, long[]> expected = new HashMap<>();
+    for (int i = 0; i < 500; i++) {
+      int group = random.nextInt(40);
+      String key = group == 0 ? null : "key " + group;
+      long value = i;
+      input.add(new Object[] {key, value});
+      long[] aggregate = expected.computeIfAbsent(key, k -> new long[] {0L, 0L, value});
+      aggregate[0] += value;
+      aggregate[1]++;
+    }
+    Iterator<Object[]> iterator = input.iterator();
+
+    MemoryGroupBy memoryGroupBy =
+        spy(
+            new MemoryGroupBy(
+                transformMockHelper.transformMeta,
+                meta,
+                new MemoryGroupByData(),
+                0,
+                transformMockHelper.pipelineMeta,
+                transformMockHelper.pipeline));
+    List<Object[]> output = new ArrayList<>();
+    doAnswer(invocation -> iterator.hasNext() ? iterator.next() : null)
+        .when(memoryGroupBy)
+        .getRow();
+    doReturn(rowMeta).when(memoryGroupBy).getInputRowMeta();
+    doAnswer(invocation -> output.add(invocation.getArgument(1)))
+        .when(memoryGroupBy)
+        .putRow(any(), any());
+
+    assertTrue(memoryGroupBy.init());
+    while (memoryGroupBy.processRow()) {
+      // keep going
+    }
+    memoryGroupBy.dispose();
+
+    // Every group is output once with the aggregates of all its rows in input order
+    //
+    assertEquals(expected.size(), output.size());
+    for (Object[] row : output) {
+      long[] aggregate = expected.remove((String) row[0]);
+      assertEquals(aggregate[0], row[1]);
+      assertEquals(aggregate[1], row[2]);
+      assertEquals(aggregate[2], row[3]);
+    }
+    assertTrue(expected.isEmpty());
+
+    // All temporary files are removed
+    //
+    assertEquals(0, new File(tempDir.toString()).list().length);
+  }
+
+  @Test
+  void testPartitionsAreIndependentPerDepth() {
+    int nrPartitions = 1 << MemoryGroupBy.SPILL_PARTITION_BITS;
+
+    // The hash codes of one partition are spread again over all partitions at the next depth
+    //
+    int[] counts = new int[nrPartitions];
+    int nrHashes = 0;
+    for (int hash = 0; nrHashes < 16000; hash++) {
+      if (MemoryGroupBy.partition(hash, 0) == 5) {
+        counts[MemoryGroupBy.partition(hash, 1)]++;
+        nrHashes++;
+      }
+    }
+    for (int count : counts) {
+      assertTrue(count > 500 && count < 1500, "Uneven partitioning: " + count);
+    }
+  }
+}
@@ -69,11 +69,19 @@ import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathFactory;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
+import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.http.config.RegistryBuilder;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.encryption.Encr;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopRuntimeException;
 import org.apache.hop.core.row.RowDataUtil;
+import org.apache.hop.core.util.AsyncRequestQueue;
 import org.apache.hop.core.util.HttpClientManager;
 import org.apache.hop.core.util.StringUtil;
 import org.apache.hop.core.util.Utils;
@@ -88,6 +96,7 @@ import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transforms.rest.common.RestConst;
+import org.glassfish.jersey.apache5.connector.Apache5ClientProperties;
 import org.glassfish.jersey.apache5.connector.Apache5ConnectorProvider;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.ClientProperties;
@@ -224,7 +233,6 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
    * Executes a single REST exchange and bundles the deserialized pieces required for paging and row
    * assembly.
    */
-  @SuppressWarnings("java:S5527")
   protected RestExchangeResult invokeRestExchange(
       Object[] rowData,
       String uriOverrideFull,
@@ -232,6 +240,92 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
       LinkedHashMap<String, String> pagingBodyParams,
       LinkedHashMap<String, String> pagingHeaderParams)
       throws HopException {
+    RestCall call =
+        prepareCall(
+            rowData, uriOverrideFull, pagingQueries, pagingBodyParams, pagingHeaderParams, null);
+    call.execute();
+    return handleCall(call);
+  }
+
+  /**
+   * One REST exchange. The request is prepared and the response handled on the transform thread,
+   * the request itself can be executed on any thread.
+   */
+  protected final class RestCall {
+    private final long lineageStart = System.currentTimeMillis();
+    private final String url;
+    private final String method;
+    private final String effectiveBase;
+
+    /** The client built for this call only, closed once the call is handled. */
+    private Client client;
+
+    private Invocation.Builder invocationBuilder;
+    private String entityString;
+    private String contentType;
+
+    /** The charset and number of times the entity was sent, counted in the transform volume. */
+    private Charset requestCharset;
+
+    private int entitySends;
+
+    private Response response;
+    private long responseTime;
+    private int status;
+    private String body;
+    private Exception error;
+
+    private RestCall(String url, String method, String effectiveBase) {
+      this.url = url;
+      this.method = method;
+      this.effectiveBase = effectiveBase;
+    }
+
+    /** Execute the request and read the response, failures are kept for the transform thread. */
+    void execute() {
+      if (error != null) {
+        return;
+      }
+      try {
+        long startTime = System.currentTimeMillis();
+        response =
+            executeWithRetry(
+                method,
+                () -> {
+                  try {
+                    return executeRequest(this);
+                  } catch (HopException e) {
+                    throw new HopRuntimeException(e);
+                  }
+                });
+
+        if (response != null) {
+          response.bufferEntity();
+        }
+        responseTime = System.currentTimeMillis() - startTime;
+
+        status = response.getStatus();
+
+        if (response.hasEntity()) {
+          response.bufferEntity();
+        }
+
+        body = readResponseBody(response, effectiveBase);
+      } catch (Exception e) {
+        error = e;
+      }
+    }
+  }
+
+  @SuppressWarnings("java:S5527")
+  private RestCall prepareCall(
+      Object[] rowData,
+      String uriOverrideFull,
+      LinkedHashMap<String, String> pagingQueries,
+      LinkedHashMap<String, String> pagingBodyParams,
+      LinkedHashMap<String, String> pagingHeaderParams,
+      Client sharedClient)
+      throws HopException {
 
     applyDynamicRowUrlAndMethod(rowData);
 
@@ -240,14 +334,10 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         pagingQueries != null ? pagingQueries : new LinkedHashMap<>();
     String effectiveBase = mergePagingQueriesIntoResolvedUrl(mergeBase, query);
 
+    RestCall call = new RestCall(data.realUrl, data.method, effectiveBase);
     WebTarget webResource = null;
-    Client client = null;
+    Client client = sharedClient;
     Invocation.Builder invocationBuilder = null;
-    long startTime;
-    Response response;
-    final long httpLineageT0 = System.currentTimeMillis();
-    final long httpVolIn0 = dataVolumeIn != null ? dataVolumeIn : 0L;
-    final long httpVolOut0 = dataVolumeOut != null ? dataVolumeOut : 0L;
     try {
       if (isDetailed()) {
         logDetailed(BaseMessages.getString(PKG, "Rest.Log.ConnectingToURL", effectiveBase));
@@ -256,19 +346,9 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         invocationBuilder =
             connection.getInvocationBuilder(effectiveBase, data.realProxyHost, data.realProxyPort);
       } else {
-        ClientBuilder clientBuilder = createClientBuilder();
-        clientBuilder
-            .withConfig(data.config)
-            .property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true);
-
-        if (meta.isIgnoreSsl() || !Utils.isEmpty(data.trustStoreFile)) {
-          clientBuilder.hostnameVerifier((s1, s2) -> true);
-          clientBuilder.sslContext(data.sslContext);
-        }
-
-        client = clientBuilder.build();
-        if (data.basicAuthentication != null) {
-          client.register(data.basicAuthentication);
+        if (client == null) {
+          client = createClient(null);
+          call.client = client;
         }
         webResource = client.target(effectiveBase);
 
@@ -371,78 +451,28 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
       }
 
       invocationBuilder.headers(headerMap);
-      final Invocation.Builder finalInvocationBuilder = invocationBuilder;
-      final String finalEntityString = entityString;
-      final String finalContentType = contentType;
-
-      startTime = System.currentTimeMillis();
-      response =
-          executeWithRetry(
-              () -> {
-                try {
-                  return executeRequest(
-                      finalInvocationBuilder, finalEntityString, finalContentType);
-                } catch (HopException e) {
-                  throw new HopRuntimeException(e);
-                }
-              });
-
-      if (response != null) {
-        response.bufferEntity();
-      }
-      long responseTime = System.currentTimeMillis() - startTime;
-
-      int status = response.getStatus();
+      call.invocationBuilder = invocationBuilder;
+      call.entityString = entityString;
+      call.contentType = contentType;
+    } catch (Exception e) {
+      call.error = e;
+    }
+    return call;
+  }
 
-      if (response.hasEntity()) {
-        response.bufferEntity();
+  private RestExchangeResult handleCall(RestCall call) throws HopException {
+    final long httpVolIn0 = dataVolumeIn != null ? dataVolumeIn : 0L;
+    final long httpVolOut0 = dataVolumeOut != null ? dataVolumeOut : 0L;
+    try {
+      for (int i = 0; i < call.entitySends; i++) {
+        trackRequestBytes(call.entityString, call.requestCharset);
       }
-
-      String body;
-      try {
-        body = response.readEntity(String.class);
-      } catch (ProcessingException ex) {
-        String errorMessage = ex.getMessage();
-        if (errorMessage != null
-            && errorMessage.contains("Too many \"Content-Type\" header values")) {
-          throw new HopException(
-              BaseMessages.getString(
-                  PKG, "Rest.Error.DuplicateContentType", effectiveBase, errorMessage),
-              ex);
-        }
-        body = "";
-        if (response.hasEntity()) {
-          try (InputStream stream = response.readEntity(InputStream.class)) {
-            if (stream != null) {
-              body = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
-            }
-          } catch (Exception ioEx) {
-            if (isDetailed()) {
-              logDetailed("Unable to read response entity as String", ioEx);
-            }
-            throw new HopException(
-                BaseMessages.getString(PKG, "Rest.Error.CanNotReadResponse", effectiveBase), ex);
-          }
-        }
-      } catch (Exception ex) {
-        body = "";
-        if (response.hasEntity()) {
-          try (InputStream stream = response.readEntity(InputStream.class)) {
-            if (stream != null) {
-              body = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
-            }
-          } catch (Exception ioEx) {
-            if (isDetailed()) {
-              logDetailed("Unable to read response entity as String", ioEx);
-            }
-            throw new HopException(
-                BaseMessages.getString(PKG, "Rest.Error.CanNotReadResponse", effectiveBase), ex);
-          }
-        }
+      if (call.error != null) {
+        throw call.error;
       }
-      trackResponseBytes(response, body);
+      trackResponseBytes(call.response, call.body);
 
-      MultivaluedMap<String, Object> headers = searchForHeaders(response);
+      MultivaluedMap<String, Object> headers = searchForHeaders(call.response);
       JSONObject json = new JSONObject();
       for (Map.Entry<String, List<Object>> entry : headers.entrySet()) {
         String name = entry.getKey();
@@ -455,21 +485,111 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
       }
       String headerString = json.toJSONString();
 
-      emitHttpLineage(httpLineageT0, httpVolIn0, httpVolOut0, status, true, null);
+      emitHttpLineage(call, httpVolIn0, httpVolOut0, call.status, true, null);
       return new RestExchangeResult(
-          body, status, responseTime, headerString, headers, effectiveBase);
+          call.body, call.status, call.responseTime, headerString, headers, call.effectiveBase);
     } catch (Exception e) {
-      emitHttpLineage(httpLineageT0, httpVolIn0, httpVolOut0, null, false, e.getMessage());
+      emitHttpLineage(call, httpVolIn0, httpVolOut0, null, false, e.getMessage());
       throw new HopException(
-          BaseMessages.getString(PKG, "Rest.Error.CanNotReadURL", NVL(data.realUrl, effectiveBase)),
+          BaseMessages.getString(
+              PKG, "Rest.Error.CanNotReadURL", NVL(call.url, call.effectiveBase)),
           e);
     } finally {
-      if (client != null) {
-        client.close();
+      if (call.client != null) {
+        call.client.close();
       }
     }
   }
 
+  /**
+   * Build a client with the transform settings.
+   *
+   * @param connectionPool the pool of connections to use, null for the default of the connector
+   */
+  private Client createClient(HttpClientConnectionManager connectionPool) {
+    ClientBuilder clientBuilder = createClientBuilder();
+    clientBuilder
+        .withConfig(data.config)
+        .property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true);
+    if (connectionPool != null) {
+      clientBuilder.property(Apache5ClientProperties.CONNECTION_MANAGER, connectionPool);
+    }
+
+    if (meta.isIgnoreSsl() || !Utils.isEmpty(data.trustStoreFile)) {
+      clientBuilder.hostnameVerifier((s1, s2) -> true);
+      clientBuilder.sslContext(data.sslContext);
+    }
+
+    Client client = clientBuilder.build();
+    if (data.basicAuthentication != null) {
+      client.register(data.basicAuthentication);
+    }
+    return client;
+  }
+
+  /**
+   * A pool of keep-alive connections for the client shared by the requests in flight. The pool
+   * replaces the SSL settings of the client so it gets the same SSL context.
+   */
+  private HttpClientConnectionManager createConnectionPool(int poolSize) {
+    PoolingHttpClientConnectionManager pool;
+    if (data.sslContext != null) {
+      pool =
+          new PoolingHttpClientConnectionManager(
+              RegistryBuilder.<ConnectionSocketFactory>create()
+                  .register(
+                      "https",
+                      new SSLConnectionSocketFactory(
+                          data.sslContext, NoopHostnameVerifier.INSTANCE))
+                  .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                  .build());
+    } else {
+      pool = new PoolingHttpClientConnectionManager();
+    }
+    pool.setMaxTotal(poolSize);
+    pool.setDefaultMaxPerRoute(poolSize);
+    return pool;
+  }
+
+  private String readResponseBody(Response response, String effectiveBase) throws HopException {
+    String body;
+    try {
+      body = response.readEntity(String.class);
+    } catch (ProcessingException ex) {
+      String errorMessage = ex.getMessage();
+      if (errorMessage != null
+          && errorMessage.contains("Too many \"Content-Type\" header values")) {
+        throw new HopException(
+            BaseMessages.getString(
+                PKG, "Rest.Error.DuplicateContentType", effectiveBase, errorMessage),
+            ex);
+      }
+      body = readResponseStream(response, effectiveBase, ex);
+    } catch (Exception ex) {
+      body = readResponseStream(response, effectiveBase, ex);
+    }
+    return body;
+  }
+
+  private String readResponseStream(Response response, String effectiveBase, Exception cause)
+      throws HopException {
+    String body = "";
+    if (response.hasEntity()) {
+      try (InputStream stream = response.readEntity(InputStream.class)) {
+        if (stream != null) {
+          body = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+      } catch (Exception ioEx) {
+        if (isDetailed()) {
+          logDetailed("Unable to read response entity as String", ioEx);
+        }
+        throw new HopException(
+            BaseMessages.getString(PKG, "Rest.Error.CanNotReadResponse", effectiveBase), cause);
+      }
+    }
+    return body;
+  }
+
   protected Object[] assembleResultRow(Object[] baseRowMaybeNull, RestExchangeResult exchange)
       throws HopException {
 
@@ -1092,7 +1212,8 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
     return s.isEmpty() ? java.util.Optional.empty() : java.util.Optional.of(s);
   }
 
-  private Response executeWithRetry(Supplier<Response> requestSupplier) throws HopException {
+  private Response executeWithRetry(String method, Supplier<Response> requestSupplier)
+      throws HopException {
     int maxRetries =
         meta.getRetryTimes() != null ? meta.getRetryTimes() : RestConst.DEFAULT_RETRY_TIMES;
     long baseDelay =
@@ -1100,7 +1221,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
     List<String> retryMethods = meta.getRetryMethods();
     Exception lastException = null;
 
-    if (retryMethods == null || retryMethods.isEmpty() || !retryMethods.contains(data.method)) {
+    if (retryMethods == null || retryMethods.isEmpty() || !retryMethods.contains(method)) {
       return requestSupplier.get();
     }
 
@@ -1191,18 +1312,17 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
     return capped / 2 + jitter;
   }
 
-  private Response executeRequest(
-      Invocation.Builder invocationBuilder, String entityString, String contentType)
-      throws HopException {
+  private Response executeRequest(RestCall call) throws HopException {
+    Invocation.Builder invocationBuilder = call.invocationBuilder;
+    String entityString = call.entityString;
+    String contentType = call.contentType;
     try {
-      switch (data.method) {
+      switch (call.method) {
         case RestMeta.HTTP_METHOD_GET -> {
           return invocationBuilder.get(Response.class);
         }
         case RestMeta.HTTP_METHOD_POST -> {
-          trackRequestBytes(
-              entityString,
-              contentType != null ? resolveCharset(contentType) : resolveCharset(data.mediaType));
+          countRequestEntity(call);
           if (null != contentType) {
             return invocationBuilder.post(Entity.entity(entityString, contentType));
           } else {
@@ -1210,9 +1330,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
           }
         }
         case RestMeta.HTTP_METHOD_PUT -> {
-          trackRequestBytes(
-              entityString,
-              contentType != null ? resolveCharset(contentType) : resolveCharset(data.mediaType));
+          countRequestEntity(call);
           if (null != contentType) {
             return invocationBuilder.put(Entity.entity(entityString, contentType));
           } else {
@@ -1220,9 +1338,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
           }
         }
         case RestMeta.HTTP_METHOD_DELETE -> {
-          trackRequestBytes(
-              entityString,
-              contentType != null ? resolveCharset(contentType) : resolveCharset(data.mediaType));
+          countRequestEntity(call);
           Invocation invocation =
               invocationBuilder.build("DELETE", Entity.entity(entityString, data.mediaType));
           return invocation.invoke();
@@ -1234,9 +1350,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
           return invocationBuilder.options();
         }
         case RestMeta.HTTP_METHOD_PATCH -> {
-          trackRequestBytes(
-              entityString,
-              contentType != null ? resolveCharset(contentType) : resolveCharset(data.mediaType));
+          countRequestEntity(call);
           if (null != contentType) {
             return invocationBuilder.method(
                 RestMeta.HTTP_METHOD_PATCH, Entity.entity(entityString, contentType));
@@ -1247,15 +1361,26 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         }
         default ->
             throw new HopException(
-                BaseMessages.getString(PKG, "Rest.Error.UnknownMethod", data.method));
+                BaseMessages.getString(PKG, "Rest.Error.UnknownMethod", call.method));
       }
     } catch (Exception e) {
       throw new HopException("Request could not be processed", e);
     }
   }
 
+  /**
+   * Remember that the entity is sent, it's added to the transform volume when the call is handled.
+   */
+  private void countRequestEntity(RestCall call) {
+    call.requestCharset =
+        call.contentType != null
+            ? resolveCharset(call.contentType)
+            : resolveCharset(data.mediaType);
+    call.entitySends++;
+  }
+
   private void emitHttpLineage(
-      long startedAt,
+      RestCall call,
       long volumeInBefore,
       long volumeOutBefore,
       Integer statusCode,
@@ -1263,7 +1388,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
       String message) {
     long reqDelta = (dataVolumeOut != null ? dataVolumeOut : 0L) - volumeOutBefore;
     long respDelta = (dataVolumeIn != null ? dataVolumeIn : 0L) - volumeInBefore;
-    String url = data.realUrl;
+    String url = call.url;
     if (Utils.isEmpty(url)) {
       url = null;
     }
@@ -1271,12 +1396,12 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         this,
         new HttpLineagePayload(
             HttpDirection.CLIENT,
-            data.method,
+            call.method,
             url,
             statusCode,
             reqDelta > 0 ? reqDelta : null,
             respDelta > 0 ? respDelta : null,
-            System.currentTimeMillis() - startedAt,
+            System.currentTimeMillis() - call.lineageStart,
             success,
             message));
   }
@@ -1451,6 +1576,10 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
     Object[] r = getRow(); // Get row from input rowset & set row busy!
 
     if (r == null) {
+      // Wait for the requests in flight
+      if (!putCompletedCalls(true)) {
+        return false;
+      }
       // no more input to be expected...
       setOutputDone();
       return false;
@@ -1576,6 +1705,9 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         }
       }
     } // end if first
+    if (data.requests != null && !supportsPaging()) {
+      return submitCall(r);
+    }
     try {
       if (supportsPaging()) {
         runPaginationLoop(r);
@@ -1592,24 +1724,103 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         logDetailed(BaseMessages.getString(PKG, "Rest.LineNumber") + getLinesRead());
       }
     } catch (HopException e) {
-      boolean sendToErrorRow = false;
-      String errorMessage = null;
-      if (getTransformMeta().isDoingErrorHandling()) {
-        sendToErrorRow = true;
-        errorMessage = e.toString();
-      } else {
-        logError(BaseMessages.getString(PKG, "Rest.ErrorInTransformRunning") + e.getMessage());
-        setErrors(1);
-        logError(Const.getStackTracker(e));
-        stopAll();
-        setOutputDone(); // signal end to receiver(s)
+      return handleError(r, e);
+    }
+    return true;
+  }
+
+  /** Start the call for a row on the pool and pass the calls which completed in the meantime. */
+  private boolean submitCall(Object[] r) throws HopException {
+    while (data.requests.isFull()) {
+      if (!putCompletedCall(takeCompletedCall())) {
         return false;
       }
-      if (sendToErrorRow) {
-        // Simply add this row to the error row
-        putError(getInputRowMeta(), r, 1, errorMessage, null, "Rest001");
+    }
+    RestCall call;
+    try {
+      call =
+          prepareCall(
+              r,
+              null,
+              new LinkedHashMap<>(),
+              new LinkedHashMap<>(),
+              new LinkedHashMap<>(),
+              data.client);
+    } catch (HopException e) {
+      return handleError(r, e);
+    }
+    data.requests.submit(
+        r,
+        () -> {
+          call.execute();
+          return call;
+        });
+    return putCompletedCalls(false);
+  }
+
+  /**
+   * Pass the completed calls to the next transforms.
+   *
+   * @param waitForAll true to wait for all calls in flight
+   * @return false if the transform stopped because of an error
+   */
+  private boolean putCompletedCalls(boolean waitForAll) throws HopException {
+    if (data.requests == null) {
+      return true;
+    }
+    AsyncRequestQueue.Request<RestCall> request;
+    while ((request = waitForAll ? takeCompletedCall() : data.requests.poll()) != null) {
+      if (!putCompletedCall(request)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private AsyncRequestQueue.Request<RestCall> takeCompletedCall() throws HopException {
+    try {
+      return data.requests.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException(BaseMessages.getString(PKG, "Rest.Exception.Interrupted"), e);
+    }
+  }
+
+  private boolean putCompletedCall(AsyncRequestQueue.Request<RestCall> request)
+      throws HopException {
+    Object[] r = request.getRow();
+    try {
+      if (request.getError() != null) {
+        throw new HopException(request.getError());
       }
+      RestExchangeResult exchange = handleCall(request.getResult());
+      putRow(data.outputRowMeta, assembleResultRow(r.clone(), exchange));
+
+      if (checkFeedback(getLinesRead()) && isDetailed()) {
+        logDetailed(BaseMessages.getString(PKG, "Rest.LineNumber") + getLinesRead());
+      }
+    } catch (HopException e) {
+      return handleError(r, e);
+    }
+    return true;
+  }
+
+  /**
+   * Send the row to the error handling or stop the transform.
+   *
+   * @return false if the transform stopped
+   */
+  private boolean handleError(Object[] r, HopException e) throws HopException {
+    if (!getTransformMeta().isDoingErrorHandling()) {
+      logError(BaseMessages.getString(PKG, "Rest.ErrorInTransformRunning") + e.getMessage());
+      setErrors(1);
+      logError(Const.getStackTracker(e));
+      stopAll();
+      setOutputDone(); // signal end to receiver(s)
+      return false;
     }
+    // Simply add this row to the error row
+    putError(getInputRowMeta(), r, 1, e.toString(), null, "Rest001");
     return true;
   }
 
@@ -1684,6 +1895,17 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         logError(BaseMessages.getString(PKG, "Rest.Error.Config"), e);
         return false;
       }
+
+      int concurrentRequests = Const.toInt(resolve(meta.getConcurrentRequests()), 1);
+      if (concurrentRequests > 1) {
+        // Requests through a REST connection use the invocation builders of the connection
+        if (Utils.isEmpty(data.connectionName)) {
+          data.client = createClient(createConnectionPool(concurrentRequests));
+        }
+        data.requests =
+            new AsyncRequestQueue<>(
+                getTransformName(), concurrentRequests, !meta.isUnorderedResults());
+      }
       return true;
     }
     return false;
@@ -1691,6 +1913,14 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
 
   @Override
   public void dispose() {
+    if (data.requests != null) {
+      data.requests.close();
+      data.requests = null;
+    }
+    if (data.client != null) {
+      data.client.close();
+      data.client = null;
+    }
     data.config = null;
     data.headerNames = null;
     data.indexOfHeaderFields = null;
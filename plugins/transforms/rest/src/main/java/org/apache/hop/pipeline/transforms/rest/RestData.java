@@ -17,9 +17,11 @@
 
 package org.apache.hop.pipeline.transforms.rest;
 
+import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.core.MediaType;
 import javax.net.ssl.SSLContext;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.util.AsyncRequestQueue;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 import org.glassfish.jersey.client.ClientConfig;
@@ -106,6 +108,12 @@ public class RestData extends BaseTransformData implements ITransformData {
 
   public SSLContext sslContext;
 
+  /** The client shared by all requests when more than one request is in flight. */
+  public Client client;
+
+  /** The requests in flight, null when calling the service one row at a time. */
+  public AsyncRequestQueue<Rest.RestCall> requests;
+
   public RestData() {
     super();
     this.indexOfUrlField = -1;
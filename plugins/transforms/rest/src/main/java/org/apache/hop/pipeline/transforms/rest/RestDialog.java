@@ -114,6 +114,10 @@ public class RestDialog extends BaseTransformDialog {
 
   private TextVar wReadTimeout;
 
+  private TextVar wConcurrentRequests;
+
+  private Button wUnorderedResults;
+
   private TextVar wHttpLogin;
 
   private TextVar wHttpPassword;
@@ -224,6 +228,8 @@ public class RestDialog extends BaseTransformDialog {
     setupAppTypeLine(lsMod, middle, margin, gSettings);
     setupConnectionTimeoutLine(lsMod, gSettings);
     setupReadTimeoutLine(lsMod, gSettings);
+    setupConcurrentRequestsLine(lsMod, gSettings);
+    setupUnorderedResultsLine(gSettings);
 
     FormData fdSettings = new FormData();
     fdSettings.left = new FormAttachment(0, 0);
@@ -1027,6 +1033,55 @@ public class RestDialog extends BaseTransformDialog {
     wReadTimeout.setLayoutData(fdReadTimeout);
   }
 
+  private void setupConcurrentRequestsLine(ModifyListener lsMod, Group gSettings) {
+    Label wlConcurrentRequests = new Label(gSettings, SWT.RIGHT);
+    wlConcurrentRequests.setText(
+        BaseMessages.getString(PKG, "RestDialog.ConcurrentRequests.Label"));
+    PropsUi.setLook(wlConcurrentRequests);
+    FormData fdlConcurrentRequests = new FormData();
+    fdlConcurrentRequests.top = new FormAttachment(wReadTimeout, margin);
+    fdlConcurrentRequests.left = new FormAttachment(0, 0);
+    fdlConcurrentRequests.right = new FormAttachment(middle, -margin);
+    wlConcurrentRequests.setLayoutData(fdlConcurrentRequests);
+    wConcurrentRequests = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wConcurrentRequests.addModifyListener(lsMod);
+    wConcurrentRequests.setToolTipText(
+        BaseMessages.getString(PKG, "RestDialog.ConcurrentRequests.Tooltip"));
+    PropsUi.setLook(wConcurrentRequests);
+    FormData fdConcurrentRequests = new FormData();
+    fdConcurrentRequests.top = new FormAttachment(wReadTimeout, margin);
+    fdConcurrentRequests.left = new FormAttachment(middle, 0);
+    fdConcurrentRequests.right = new FormAttachment(100, 0);
+    wConcurrentRequests.setLayoutData(fdConcurrentRequests);
+  }
+
+  private void setupUnorderedResultsLine(Group gSettings) {
+    Label wlUnorderedResults = new Label(gSettings, SWT.RIGHT);
+    wlUnorderedResults.setText(BaseMessages.getString(PKG, "RestDialog.UnorderedResults.Label"));
+    PropsUi.setLook(wlUnorderedResults);
+    FormData fdlUnorderedResults = new FormData();
+    fdlUnorderedResults.top = new FormAttachment(wConcurrentRequests, margin);
+    fdlUnorderedResults.left = new FormAttachment(0, 0);
+    fdlUnorderedResults.right = new FormAttachment(middle, -margin);
+    wlUnorderedResults.setLayoutData(fdlUnorderedResults);
+    wUnorderedResults = new Button(gSettings, SWT.CHECK);
+    wUnorderedResults.setToolTipText(
+        BaseMessages.getString(PKG, "RestDialog.UnorderedResults.Tooltip"));
+    PropsUi.setLook(wUnorderedResults);
+    FormData fdUnorderedResults = new FormData();
+    fdUnorderedResults.top = new FormAttachment(wlUnorderedResults, 0, SWT.CENTER);
+    fdUnorderedResults.left = new FormAttachment(middle, 0);
+    fdUnorderedResults.right = new FormAttachment(100, 0);
+    wUnorderedResults.setLayoutData(fdUnorderedResults);
+    wUnorderedResults.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+  }
+
   private void setupProxyPortLine(ModifyListener lsMod, int middle, int margin, Group gProxy) {
     // Proxy Port
     Label wlProxyPort = new Label(gProxy, SWT.RIGHT);
@@ -1647,6 +1702,8 @@ public class RestDialog extends BaseTransformDialog {
     if (input.getReadTimeout() != null) {
       wReadTimeout.setText(input.getReadTimeout());
     }
+    wConcurrentRequests.setText(Const.NVL(input.getConcurrentRequests(), ""));
+    wUnorderedResults.setSelection(input.isUnorderedResults());
     if (input.getHttpLogin() != null) {
       wHttpLogin.setText(input.getHttpLogin());
     }
@@ -1788,6 +1845,8 @@ public class RestDialog extends BaseTransformDialog {
     input.getResultField().setResponseHeader(wResponseHeader.getText());
     input.setConnectionTimeout(wConnectionTimeout.getText());
     input.setReadTimeout(wReadTimeout.getText());
+    input.setConcurrentRequests(wConcurrentRequests.getText());
+    input.setUnorderedResults(wUnorderedResults.getSelection());
     input.setHttpLogin(wHttpLogin.getText());
     input.setHttpPassword(wHttpPassword.getText());
     input.setProxyHost(wProxyHost.getText());
@@ -166,6 +166,17 @@ public class RestMeta extends BaseTransformMeta<Rest, RestData> {
   @HopMetadataProperty(key = "ignoreSsl", injectionKey = "IGNORE_SSL")
   private boolean ignoreSsl;
 
+  /**
+   * The number of requests in flight. With more than one request the transform calls the service
+   * from a pool of threads with one shared client.
+   */
+  @HopMetadataProperty(key = "concurrentRequests", injectionKey = "CONCURRENT_REQUESTS")
+  private String concurrentRequests;
+
+  /** Pass the results in the order the requests complete instead of the order of the rows */
+  @HopMetadataProperty(key = "unorderedResults", injectionKey = "UNORDERED_RESULTS")
+  private boolean unorderedResults;
+
   @HopMetadataProperty(
       key = "header",
       groupKey = "headers",
@@ -267,6 +278,8 @@ public class RestMeta extends BaseTransformMeta<Rest, RestData> {
     this.applicationType = APPLICATION_TYPE_TEXT_PLAIN;
     this.readTimeout = String.valueOf(DEFAULT_READ_TIMEOUT);
     this.connectionTimeout = String.valueOf(DEFAULT_CONNECTION_TIMEOUT);
+    this.concurrentRequests = "1";
+    this.unorderedResults = false;
 
     // retry config.
     this.retryTimes = RestConst.DEFAULT_RETRY_TIMES;
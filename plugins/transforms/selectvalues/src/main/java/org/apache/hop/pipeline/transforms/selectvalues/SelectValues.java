@@ -387,24 +387,14 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
 
   @Override
   public boolean processRow() throws HopException {
-    Object[] rowData = getRow(); // get row from rowset, wait for our turn, indicate busy!
-    if (rowData == null) { // no more input to be expected...
+    // get rows from rowset, wait for our turn, indicate busy!
+    List<Object[]> rows = getRows(getRowBatchSize());
+    if (rows == null) { // no more input to be expected...
 
       setOutputDone();
       return false;
     }
 
-    Object[] rowCopy = null;
-    if (getTransformMeta().isDoingErrorHandling()) {
-      rowCopy = getInputRowMeta().cloneRow(rowData);
-    }
-
-    if (isRowLevel()) {
-      logRowlevel(
-          BaseMessages.getString(PKG, "SelectValues.Log.GotRowFromPreviousTransform")
-              + getInputRowMeta().getString(rowData));
-    }
-
     if (first) {
       first = false;
 
@@ -416,6 +406,46 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
       meta.getMetadataFields(data.metadataRowMeta, getTransformName(), this);
     }
 
+    List<Object[]> outputRows = new ArrayList<>(rows.size());
+    for (Object[] rowData : rows) {
+      if (!selectRow(rowData, outputRows)) {
+        putRows(data.metadataRowMeta, outputRows);
+        setOutputDone(); // signal end to receiver(s)
+        return false;
+      }
+    }
+
+    // Send the rows on their way
+    //
+    putRows(data.metadataRowMeta, outputRows);
+
+    long linesRead = getLinesRead();
+    if (checkFeedback(linesRead - rows.size(), linesRead) && isBasic()) {
+      logBasic(BaseMessages.getString(PKG, "SelectValues.Log.LineNumber") + linesRead);
+    }
+
+    return true;
+  }
+
+  /**
+   * Select, remove and change the metadata of the values of a single row.
+   *
+   * @param rowData the input row
+   * @param outputRows the output rows of the batch so far, the output row is added to it
+   * @return false if no output row could be calculated and the transform needs to stop
+   */
+  private boolean selectRow(Object[] rowData, List<Object[]> outputRows) throws HopException {
+    Object[] rowCopy = null;
+    if (getTransformMeta().isDoingErrorHandling()) {
+      rowCopy = getInputRowMeta().cloneRow(rowData);
+    }
+
+    if (isRowLevel()) {
+      logRowlevel(
+          BaseMessages.getString(PKG, "SelectValues.Log.GotRowFromPreviousTransform")
+              + getInputRowMeta().getString(rowData));
+    }
+
     try {
       Object[] outputData = rowData;
 
@@ -430,13 +460,10 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
       }
 
       if (outputData == null) {
-        setOutputDone(); // signal end to receiver(s)
         return false;
       }
 
-      // Send the row on its way
-      //
-      putRow(data.metadataRowMeta, outputData);
+      outputRows.add(outputData);
       if (isRowLevel()) {
         logRowlevel(
             BaseMessages.getString(PKG, "SelectValues.Log.WroteRowToNextTransform")
@@ -452,16 +479,15 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
         } else {
           field = null;
         }
+        // Pass on the rows before this one first to keep the input order
+        //
+        putRows(data.metadataRowMeta, outputRows);
+        outputRows.clear();
         putError(getInputRowMeta(), rowCopy, 1, e.getMessage(), field, "SELECT001");
       } else {
         throw e;
       }
     }
-
-    if (checkFeedback(getLinesRead()) && isBasic()) {
-      logBasic(BaseMessages.getString(PKG, "SelectValues.Log.LineNumber") + getLinesRead());
-    }
-
     return true;
   }
 
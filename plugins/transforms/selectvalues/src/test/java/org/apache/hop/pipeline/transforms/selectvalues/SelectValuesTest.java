@@ -17,7 +17,10 @@
 
 package org.apache.hop.pipeline.transforms.selectvalues;
 
+import static org.apache.hop.pipeline.transforms.selectvalues.SelectValueMetaTestFactory.getSelectFieldsWithRename;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -30,8 +33,12 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import org.apache.hop.core.HopEnvironment;
 import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
 import org.apache.hop.core.exception.HopConversionException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.row.IRowMeta;
@@ -44,6 +51,7 @@ import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.junit.rules.RestoreHopEngineEnvironmentExtension;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.transform.RowAdapter;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
 import org.junit.jupiter.api.AfterEach;
@@ -283,6 +291,73 @@ class SelectValuesTest {
     assertEquals(ValueMetaBase.DEFAULT_INTEGER_FORMAT_MASK, iValueMeta.getConversionMask());
   }
 
+  @Test
+  void testRowsAreSelectedInBatches() throws Exception {
+    IRowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaInteger("id"));
+    inputRowMeta.addValueMeta(new ValueMetaString("name"));
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 0; i < 2500; i++) {
+      rows.add(new Object[] {i, "name" + i});
+    }
+    IRowSet output = new QueueRowSet();
+
+    SelectValuesMeta transformMeta = new SelectValuesMeta();
+    transformMeta.setSelectOption(new SelectOptions());
+    transformMeta
+        .getSelectOption()
+        .getSelectFields()
+        .addAll(getSelectFieldsWithRename(List.of("name", "id"), Arrays.asList(null, "nr")));
+    SelectValues selectValues =
+        new SelectValues(
+            helper.transformMeta,
+            transformMeta,
+            new SelectValuesData(),
+            0,
+            helper.pipelineMeta,
+            helper.pipeline);
+    selectValues.addRowSetToInputRowSets(TransformMockHelper.getInputRowSet(inputRowMeta, rows));
+    selectValues.addRowSetToOutputRowSets(output);
+    List<Object[]> read = new ArrayList<>();
+    List<Object[]> written = new ArrayList<>();
+    selectValues.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowReadEvent(IRowMeta rowMeta, Object[] row) {
+            read.add(row);
+          }
+
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            written.add(row);
+          }
+        });
+    selectValues.init();
+
+    int calls = 0;
+    while (selectValues.processRow()) {
+      calls++;
+    }
+
+    // The rows were read and written in a few batches
+    assertTrue(calls < 10, "processRow() calls: " + calls);
+    assertEquals(rows.size(), selectValues.getLinesRead());
+    assertEquals(rows.size(), selectValues.getLinesWritten());
+    assertEquals(rows.size(), read.size());
+    assertEquals(rows.size(), written.size());
+
+    // Every row is selected in the input order
+    for (int i = 0; i < rows.size(); i++) {
+      assertSame(rows.get(i), read.get(i));
+      Object[] row = output.getRowImmediate();
+      assertSame(row, written.get(i));
+      assertEquals("name" + i, row[0]);
+      assertEquals((long) i, row[1]);
+    }
+    assertNull(output.getRowImmediate());
+    assertEquals(List.of("name", "nr"), List.of(output.getRowMeta().getFieldNames()));
+  }
+
   @Test
   void errorRowSetObtainsFieldName() throws Exception {
     SelectValuesMeta transformMeta = new SelectValuesMeta();
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import java.util.Comparator;
+
+/**
+ * A tournament tree of losers to merge sorted runs of rows. Every internal node keeps the run that
+ * lost the match played at that node, the overall winner is kept at the top. Replacing the row of
+ * the winner only replays the matches on the path from its leaf to the top: finding the next
+ * smallest row of k runs takes log2(k) comparisons.
+ *
+ * <p>An exhausted run has a null row which loses against every other row. On equal rows the run
+ * with the lowest index wins so that merging runs written in order is stable.
+ */
+public class LoserTree {
+  private final Comparator<Object[]> comparator;
+
+  /** The current row of every run, null if the run is exhausted */
+  private final Object[][] rows;
+
+  /** tree[0] is the winning run, tree[1..k-1] are the losers of the internal nodes */
+  private final int[] tree;
+
+  private final int size;
+
+  /**
+   * @param rows the first row of every run, null for empty runs
+   * @param comparator the comparator defining the sort order of the rows
+   */
+  public LoserTree(Object[][] rows, Comparator<Object[]> comparator) {
+    this.comparator = comparator;
+    this.rows = rows;
+    this.size = rows.length;
+    this.tree = new int[Math.max(size, 1)];
+
+    // Play the initial tournament bottom up: the leaves are nodes size..2*size-1
+    //
+    int[] winners = new int[2 * size];
+    for (int i = 0; i < size; i++) {
+      winners[size + i] = i;
+    }
+    for (int node = size - 1; node > 0; node--) {
+      int left = winners[2 * node];
+      int right = winners[2 * node + 1];
+      if (beats(left, right)) {
+        winners[node] = left;
+        tree[node] = right;
+      } else {
+        winners[node] = right;
+        tree[node] = left;
+      }
+    }
+    tree[0] = size > 1 ? winners[1] : 0;
+  }
+
+  /**
+   * @return the index of the run with the smallest current row
+   */
+  public int getWinner() {
+    return tree[0];
+  }
+
+  /**
+   * @return the smallest current row or null if all runs are exhausted
+   */
+  public Object[] getWinnerRow() {
+    return size == 0 ? null : rows[tree[0]];
+  }
+
+  /**
+   * Replace the row of the winning run with the next row of that run and find the new winner.
+   *
+   * @param row the next row of the winning run or null if the run is exhausted
+   */
+  public void replaceWinnerRow(Object[] row) {
+    int winner = tree[0];
+    rows[winner] = row;
+    for (int node = (winner + size) >> 1; node > 0; node >>= 1) {
+      int loser = tree[node];
+      if (beats(loser, winner)) {
+        tree[node] = winner;
+        winner = loser;
+      }
+    }
+    tree[0] = winner;
+  }
+
+  private boolean beats(int run, int other) {
+    Object[] row = rows[run];
+    Object[] otherRow = rows[other];
+    if (row == null) {
+      return otherRow == null && run < other;
+    }
+    if (otherRow == null) {
+      return true;
+    }
+    int result = comparator.compare(row, otherRow);
+    return result < 0 || (result == 0 && run < other);
+  }
+}
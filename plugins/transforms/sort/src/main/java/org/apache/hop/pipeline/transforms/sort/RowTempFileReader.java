@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.io.CountingInputStream;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.vfs.HopVfs;
+import org.xerial.snappy.SnappyInputStream;
+
+/**
+ * Reads back a sorted run of rows from a temporary file written by {@link RowTempFileWriter}. The
+ * file is read sequentially with a large buffer and deleted when the reader is closed.
+ */
+public class RowTempFileReader implements Closeable {
+  /** The size of the buffer used to read from the file */
+  static final int FILE_BUFFER_SIZE = 256 * 1024;
+
+  private final FileObject file;
+  private final IRowMeta rowMeta;
+  private final CountingInputStream countingInputStream;
+  private final DataInputStream inputStream;
+  private long remainingRows;
+
+  /**
+   * @param file the temporary file to read
+   * @param nrRows the number of rows in the file
+   * @param rowMeta the layout of the rows
+   * @param compressionType the compression of the file (GZip or Snappy) or null
+   */
+  public RowTempFileReader(FileObject file, long nrRows, IRowMeta rowMeta, String compressionType)
+      throws IOException {
+    this.file = file;
+    this.rowMeta = rowMeta;
+    this.remainingRows = nrRows;
+    countingInputStream = new CountingInputStream(HopVfs.getInputStream(file));
+    InputStream stream = new BufferedInputStream(countingInputStream, FILE_BUFFER_SIZE);
+    if (SortRowsMeta.COMPRESSION_TYPE_SNAPPY.equalsIgnoreCase(compressionType)) {
+      stream =
+          new BufferedInputStream(
+              new SnappyInputStream(stream), RowTempFileWriter.COMPRESSION_BUFFER_SIZE);
+    } else if (compressionType != null) {
+      stream =
+          new BufferedInputStream(
+              new GZIPInputStream(stream, RowTempFileWriter.COMPRESSION_BUFFER_SIZE),
+              RowTempFileWriter.COMPRESSION_BUFFER_SIZE);
+    }
+    inputStream = new DataInputStream(stream);
+  }
+
+  /**
+   * @return the next row of the file or null if all rows are read
+   */
+  public Object[] readRow() throws HopException {
+    if (remainingRows <= 0) {
+      return null;
+    }
+    remainingRows--;
+    try {
+      return rowMeta.readData(inputStream);
+    } catch (SocketTimeoutException e) {
+      throw new HopException(e); // should never happen on local files
+    }
+  }
+
+  /**
+   * @return the number of (compressed) bytes read from the file
+   */
+  public long getBytesRead() {
+    return countingInputStream.getCount();
+  }
+
+  /**
+   * @return the file being read
+   */
+  public FileObject getFile() {
+    return file;
+  }
+
+  /** Close the file and delete it. */
+  @Override
+  public void close() throws IOException {
+    try {
+      inputStream.close();
+    } finally {
+      file.delete();
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.io.CountingOutputStream;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.vfs.HopVfs;
+import org.xerial.snappy.SnappyOutputStream;
+
+/** Writes a sorted run of rows to a temporary file */
+public class RowTempFileWriter implements Closeable {
+  /** The size of the buffer used to write to the file */
+  static final int FILE_BUFFER_SIZE = 512 * 1024;
+
+  /** The size of the buffer in front of the compression */
+  static final int COMPRESSION_BUFFER_SIZE = 64 * 1024;
+
+  private final IRowMeta rowMeta;
+  private final CountingOutputStream countingOutputStream;
+  private final DataOutputStream outputStream;
+  private long nrRows;
+
+  /**
+   * @param file the temporary file to write to
+   * @param rowMeta the layout of the rows
+   * @param compressionType the compression of the file (GZip or Snappy) or null
+   */
+  public RowTempFileWriter(FileObject file, IRowMeta rowMeta, String compressionType)
+      throws HopException, IOException {
+    this.rowMeta = rowMeta;
+    countingOutputStream = new CountingOutputStream(HopVfs.getOutputStream(file, false));
+    OutputStream stream = new BufferedOutputStream(countingOutputStream, FILE_BUFFER_SIZE);
+    if (SortRowsMeta.COMPRESSION_TYPE_SNAPPY.equalsIgnoreCase(compressionType)) {
+      stream = new BufferedOutputStream(new SnappyOutputStream(stream), COMPRESSION_BUFFER_SIZE);
+    } else if (compressionType != null) {
+      stream =
+          new BufferedOutputStream(
+              new GZIPOutputStream(stream, COMPRESSION_BUFFER_SIZE), COMPRESSION_BUFFER_SIZE);
+    }
+    outputStream = new DataOutputStream(stream);
+  }
+
+  public void writeRow(Object[] row) throws HopException {
+    rowMeta.writeData(outputStream, row);
+    nrRows++;
+  }
+
+  /**
+   * @return the number of rows written
+   */
+  public long getNrRows() {
+    return nrRows;
+  }
+
+  /**
+   * @return the number of (compressed) bytes written to the file
+   */
+  public long getBytesWritten() {
+    return countingOutputStream.getCount();
+  }
+
+  @Override
+  public void close() throws IOException {
+    outputStream.close();
+  }
+}
@@ -17,20 +17,12 @@
 
 package org.apache.hop.pipeline.transforms.sort;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.SocketTimeoutException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.ExecutionException;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
@@ -38,10 +30,9 @@ import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.exception.HopValueException;
-import org.apache.hop.core.io.CountingInputStream;
-import org.apache.hop.core.io.CountingOutputStream;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.util.ExecutorUtil;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -120,263 +111,281 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       return;
     }
 
+    // Only one buffer is written in the background at any time
+    //
+    waitForBackgroundSpill();
+
+    FileObject fileObject = createTempFile();
+    data.files.add(fileObject); // Remember the files!
+    data.bufferSizes.add(0L);
+    int fileIndex = data.files.size() - 1;
+
+    List<Object[]> rows = data.buffer;
+    int nrRows = rows.size();
+    if (data.parallelSort) {
+      // Sort and write this buffer in the background while we fill the next one
+      //
+      data.buffer = new ArrayList<>(nrRows);
+      data.spillIndex = fileIndex;
+      data.spill = ExecutorUtil.getExecutor().submit(() -> writeTempFile(fileObject, rows));
+    } else {
+      finishSpill(fileIndex, writeTempFile(fileObject, rows));
+    }
+
+    if (data.sortSize < 0 && nrRows > data.minSortSize) {
+      data.minSortSize = nrRows; // if we did it once, we can do
+      // it again.
+
+      // Memory usage goes up over time, even with garbage collection
+      // We need pointers, file handles, etc.
+      // As such, we're going to lower the min sort size a bit
+      //
+      data.minSortSize = (int) Math.round(data.minSortSize * 0.90);
+    }
+
+    // How much memory do we have left?
+    //
+    data.freeMemoryPct = Const.getPercentageFreeMemory();
+    data.freeCounter = 0;
+    if (data.sortSize <= 0 && isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(PKG, "SortRows.Detailed.AvailableMemory", data.freeMemoryPct));
+    }
+
+    data.getBufferIndex = 0;
+  }
+
+  /**
+   * Sort the rows and write them to a temporary file. This is done in the background when sorting
+   * in parallel.
+   *
+   * @return the closed writer of the file
+   */
+  private RowTempFileWriter writeTempFile(FileObject fileObject, List<Object[]> rows)
+      throws HopException {
     // First sort the rows in buffer[]
-    quickSort(data.buffer);
+    quickSort(rows);
 
     // Then write them to disk...
-    DataOutputStream dos;
-    GZIPOutputStream gzos;
-    int p;
-
     try {
-      FileObject fileObject =
-          HopVfs.createTempFile(meta.getPrefix(), ".tmp", resolve(meta.getDirectory()), variables);
-
-      data.files.add(fileObject); // Remember the files!
-      OutputStream outputStream = HopVfs.getOutputStream(fileObject, false);
-      CountingOutputStream counting = new CountingOutputStream(outputStream);
-      if (data.compressFiles) {
-        gzos = new GZIPOutputStream(new BufferedOutputStream(counting));
-        dos = new DataOutputStream(gzos);
-      } else {
-        dos = new DataOutputStream(new BufferedOutputStream(counting, 500000));
-        gzos = null;
-      }
-
-      // Just write the data, nothing else
-      List<Integer> duplicates = new ArrayList<>();
-      Object[] previousRow = null;
-      if (meta.isOnlyPassingUniqueRows()) {
-        int index = 0;
-        while (index < data.buffer.size()) {
-          Object[] row = data.buffer.get(index);
-          if (previousRow != null) {
-            int result = data.outputRowMeta.compare(row, previousRow, data.fieldnrs);
-            if (result == 0) {
-              duplicates.add(index);
-              if (isRowLevel()) {
-                logRowlevel(
-                    BaseMessages.getString(
-                        PKG,
-                        "SortRows.RowLevel.DuplicateRowRemoved",
-                        data.outputRowMeta.getString(row)));
-              }
+      RowTempFileWriter writer =
+          new RowTempFileWriter(fileObject, data.outputRowMeta, data.compressionType);
+      try {
+        Object[] previousRow = null;
+        for (Object[] row : rows) {
+          if (meta.isOnlyPassingUniqueRows()
+              && previousRow != null
+              && data.outputRowMeta.compare(row, previousRow, data.fieldnrs) == 0) {
+            if (isRowLevel()) {
+              logRowlevel(
+                  BaseMessages.getString(
+                      PKG,
+                      "SortRows.RowLevel.DuplicateRowRemoved",
+                      data.outputRowMeta.getString(row)));
             }
+          } else {
+            writer.writeRow(row);
           }
-          index++;
           previousRow = row;
         }
-      }
-
-      // How many records do we have left?
-      data.bufferSizes.add(data.buffer.size() - duplicates.size());
-
-      int duplicatesIndex = 0;
-      for (p = 0; p < data.buffer.size(); p++) {
-        boolean skip = false;
-        if (duplicatesIndex < duplicates.size() && p == duplicates.get(duplicatesIndex)) {
-          skip = true;
-          duplicatesIndex++;
-        }
-        if (!skip) {
-          data.outputRowMeta.writeData(dos, data.buffer.get(p));
-        }
-      }
-
-      if (data.sortSize < 0 && data.buffer.size() > data.minSortSize) {
-        data.minSortSize = data.buffer.size(); // if we did it once, we can do
-        // it again.
-
-        // Memory usage goes up over time, even with garbage collection
-        // We need pointers, file handles, etc.
-        // As such, we're going to lower the min sort size a bit
-        //
-        data.minSortSize = (int) Math.round(data.minSortSize * 0.90);
+      } finally {
+        writer.close();
       }
 
       // Clear the list
-      data.buffer.clear();
-
-      // Close temp-file
-      dos.close(); // close data stream
-      if (gzos != null) {
-        gzos.close(); // close gzip stream
-      }
-      counting.close(); // close counting (and underlying file stream)
-      dataVolumeOut = (dataVolumeOut != null ? dataVolumeOut : 0L) + counting.getCount();
-
-      // How much memory do we have left?
-      //
-      data.freeMemoryPct = Const.getPercentageFreeMemory();
-      data.freeCounter = 0;
-      if (data.sortSize <= 0 && isDetailed()) {
-        logDetailed(
-            BaseMessages.getString(PKG, "SortRows.Detailed.AvailableMemory", data.freeMemoryPct));
-      }
-
-    } catch (Exception e) {
+      rows.clear();
+      return writer;
+    } catch (IOException e) {
       throw new HopException("Error processing temp-file!", e);
     }
+  }
 
-    data.getBufferIndex = 0;
+  /** Remember how many rows were written to a temporary file. */
+  private void finishSpill(int fileIndex, RowTempFileWriter writer) {
+    data.bufferSizes.set(fileIndex, writer.getNrRows());
+    dataVolumeOut = (dataVolumeOut != null ? dataVolumeOut : 0L) + writer.getBytesWritten();
+  }
+
+  /** Wait until the buffer that is written in the background is on disk. */
+  private void waitForBackgroundSpill() throws HopException {
+    if (data.spill == null) {
+      return;
+    }
+    try {
+      finishSpill(data.spillIndex, data.spill.get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while writing temp-file!", e);
+    } catch (ExecutionException e) {
+      throw new HopException("Error processing temp-file!", e.getCause());
+    } finally {
+      data.spill = null;
+    }
   }
 
-  private DataInputStream getDataInputStream(GZIPInputStream gzipInputStream) {
-    DataInputStream result = new DataInputStream(gzipInputStream);
-    data.gzis.add(gzipInputStream);
-    return result;
+  private FileObject createTempFile() throws HopFileException {
+    return HopVfs.createTempFile(meta.getPrefix(), ".tmp", resolve(meta.getDirectory()), variables);
   }
 
   // get sorted rows from available files in iterative manner.
   // that means call to this method will continue to return rows
   // till all temp files will not be read to the end.
-  Object[] getBuffer() throws HopValueException {
-    Object[] retval;
+  Object[] getBuffer() throws HopException {
+    if (data.mergeTree == null) {
+      if (data.files.isEmpty()) {
+        // read from in-memory processing
+        if (data.getBufferIndex < data.buffer.size()) {
+          return data.buffer.get(data.getBufferIndex++);
+        }
+        return null;
+      }
 
-    // Open all files at once and read one row from each file...
-    if (CollectionUtils.isNotEmpty(data.files) && (data.dis.isEmpty() || data.fis.isEmpty())) {
+      // Make sure we don't open too many files at once, then open the remaining files
+      //
+      mergeTempFiles();
+      if (isStopped()) {
+        return null;
+      }
       if (isBasic()) {
         logBasic(BaseMessages.getString(PKG, "SortRows.Basic.OpeningTempFiles", data.files.size()));
       }
-
-      try {
-        for (int f = 0; f < data.files.size() && !isStopped(); f++) {
-          FileObject fileObject = data.files.get(f);
-          String filename = HopVfs.getFilename(fileObject);
-          if (isDetailed()) {
-            logDetailed(BaseMessages.getString(PKG, "SortRows.Detailed.OpeningTempFile", filename));
-          }
-          InputStream fi = HopVfs.getInputStream(fileObject);
-          CountingInputStream countingFi = new CountingInputStream(fi);
-          data.countingInputStreams.add(countingFi);
-          data.fis.add(countingFi);
-          DataInputStream di;
-          if (data.compressFiles) {
-            di =
-                getDataInputStream(
-                    new GZIPInputStream(new BufferedInputStream(data.fis.getLast())));
-          } else {
-            di = new DataInputStream(new BufferedInputStream(data.fis.getLast(), 50000));
-          }
-          data.dis.add(di);
-
-          // How long is the buffer?
-          int buffersize = data.bufferSizes.get(f);
-
-          if (isDetailed()) {
-            logDetailed(
-                BaseMessages.getString(
-                    PKG, "SortRows.Detailed.FromFileExpectingRows", filename, buffersize));
-          }
-
-          if (buffersize > 0) {
-            Object[] row = data.outputRowMeta.readData(di);
-            data.rowbuffer.add(row); // new row from input stream
-            data.tempRows.add(new RowTempFile(row, f));
-          }
-        }
-
-        // Sort the data row buffer
-        data.tempRows.sort(data.comparator);
-      } catch (Exception e) {
-        logError(BaseMessages.getString(PKG, "SortRows.Error.ErrorReadingBackTempFiles"), e);
-      }
+      openTempFiles(data.files.size());
     }
 
-    if (data.files.isEmpty()) {
-      // read from in-memory processing
+    // read from disk processing
+    return getMergedRow();
+  }
 
-      if (data.getBufferIndex < data.buffer.size()) {
-        retval = data.buffer.get(data.getBufferIndex);
-        data.getBufferIndex++;
-      } else {
-        retval = null;
+  /**
+   * As long as there are more temporary files than we can merge at once, merge groups of
+   * consecutive files into new temporary files. The order of the files is kept.
+   */
+  private void mergeTempFiles() throws HopException {
+    while (data.files.size() > data.maxMergeFiles && !isStopped()) {
+      if (isBasic()) {
+        int nrMergedFiles = (data.files.size() + data.maxMergeFiles - 1) / data.maxMergeFiles;
+        logBasic(
+            BaseMessages.getString(
+                PKG, "SortRows.Basic.MergingTempFiles", data.files.size(), nrMergedFiles));
       }
-    } else {
-      // read from disk processing
-
-      if (data.rowbuffer.isEmpty()) {
-        retval = null;
-      } else {
-        // We now have "filenr" rows waiting: which one is the smallest?
+      for (int position = 0; position < data.files.size() - 1 && !isStopped(); position++) {
+        // Move the files of this group to the readers and merge them into a new file
+        // at the same position.
         //
-        if (isRowLevel()) {
-          for (int i = 0; i < data.rowbuffer.size() && !isStopped(); i++) {
-            Object[] b = data.rowbuffer.get(i);
-            logRowlevel(
-                BaseMessages.getString(
-                    PKG, "SortRows.RowLevel.PrintRow", i, data.outputRowMeta.getString(b)));
-          }
-        }
-
-        RowTempFile rowTempFile = data.tempRows.removeFirst();
-        retval = rowTempFile.row;
-        int smallest = rowTempFile.fileNumber;
-
-        // now get another Row for position smallest
-
-        FileObject file = data.files.get(smallest);
-        DataInputStream di = data.dis.get(smallest);
-        InputStream fi = data.fis.get(smallest);
+        int nrFiles = Math.min(data.maxMergeFiles, data.files.size() - position);
+        openTempFiles(position, nrFiles);
 
+        FileObject fileObject = createTempFile();
+        data.files.add(position, fileObject);
         try {
-          Object[] row2 = data.outputRowMeta.readData(di);
-          RowTempFile extra = new RowTempFile(row2, smallest);
-
-          int index = Collections.binarySearch(data.tempRows, extra, data.comparator);
-          if (index < 0) {
-            data.tempRows.add(index * (-1) - 1, extra);
-          } else {
-            data.tempRows.add(index, extra);
-          }
-        } catch (HopFileException fe) { // empty file or EOF mostly
-          GZIPInputStream gzfi = (data.compressFiles) ? data.gzis.get(smallest) : null;
+          RowTempFileWriter writer =
+              new RowTempFileWriter(fileObject, data.outputRowMeta, data.compressionType);
           try {
-            if (smallest < data.countingInputStreams.size()) {
-              dataVolumeIn =
-                  (dataVolumeIn != null ? dataVolumeIn : 0L)
-                      + data.countingInputStreams.get(smallest).getCount();
-            }
-            di.close();
-            fi.close();
-            if (gzfi != null) {
-              gzfi.close();
+            Object[] row = getMergedRow();
+            while (row != null && !isStopped()) {
+              writer.writeRow(row);
+              row = getMergedRow();
             }
-            file.delete();
-          } catch (IOException e) {
-            logError(
-                BaseMessages.getString(
-                    PKG, "SortRows.Error.UnableToCloseFile", smallest, file.toString()));
-            setErrors(1);
-            stopAll();
-            return null;
+          } finally {
+            writer.close();
           }
+          data.bufferSizes.add(position, writer.getNrRows());
+          dataVolumeOut = (dataVolumeOut != null ? dataVolumeOut : 0L) + writer.getBytesWritten();
+        } catch (IOException e) {
+          throw new HopException("Error merging temp-files!", e);
+        }
+      }
+    }
+  }
 
-          data.files.remove(smallest);
-          data.dis.remove(smallest);
-          data.fis.remove(smallest);
-          if (smallest < data.countingInputStreams.size()) {
-            data.countingInputStreams.remove(smallest);
-          }
+  /** Open the first files at once and read one row from each file. */
+  private void openTempFiles(int nrFiles) throws HopException {
+    openTempFiles(0, nrFiles);
+  }
 
-          if (gzfi != null) {
-            data.gzis.remove(smallest);
-          }
+  /**
+   * Open a group of temporary files and read one row from each file. The files are removed from the
+   * list of files: the readers delete them once they are read.
+   */
+  private void openTempFiles(int position, int nrFiles) throws HopException {
+    List<FileObject> files = data.files.subList(position, position + nrFiles);
+    List<Long> sizes = data.bufferSizes.subList(position, position + nrFiles);
 
-          // Also update all file numbers in in data.tempRows if they are larger
-          // than smallest.
-          //
-          for (RowTempFile rtf : data.tempRows) {
-            if (rtf.fileNumber > smallest) {
-              rtf.fileNumber--;
-            }
-          }
-        } catch (SocketTimeoutException e) {
-          throw new HopValueException(e); // should never happen on local files
+    data.readers = new RowTempFileReader[nrFiles];
+    Object[][] rows = new Object[nrFiles][];
+    int nrOpened = 0;
+    try {
+      for (int f = 0; f < nrFiles; f++) {
+        FileObject fileObject = files.get(f);
+        if (isDetailed()) {
+          String filename = HopVfs.getFilename(fileObject);
+          logDetailed(BaseMessages.getString(PKG, "SortRows.Detailed.OpeningTempFile", filename));
+          logDetailed(
+              BaseMessages.getString(
+                  PKG, "SortRows.Detailed.FromFileExpectingRows", filename, sizes.get(f)));
         }
+        data.readers[f] =
+            new RowTempFileReader(
+                fileObject, sizes.get(f), data.outputRowMeta, data.compressionType);
+        nrOpened++;
+        rows[f] = data.readers[f].readRow();
+      }
+    } catch (IOException e) {
+      throw new HopException(
+          BaseMessages.getString(PKG, "SortRows.Error.ErrorReadingBackTempFiles"), e);
+    } finally {
+      // From now on the readers own the opened files
+      //
+      files.subList(0, nrOpened).clear();
+      sizes.subList(0, nrOpened).clear();
+    }
+    data.mergeTree = new LoserTree(rows, data.rowComparator);
+  }
+
+  /**
+   * Get the smallest row of the open temporary files and read the next row of the file it came
+   * from.
+   *
+   * @return the smallest row or null if all the files are read
+   */
+  private Object[] getMergedRow() throws HopException {
+    Object[] row = data.mergeTree.getWinnerRow();
+    if (row == null) {
+      data.mergeTree = null;
+      data.readers = null;
+      return null;
+    }
+
+    if (isRowLevel()) {
+      logRowlevel(
+          BaseMessages.getString(
+              PKG,
+              "SortRows.RowLevel.PrintRow",
+              data.mergeTree.getWinner(),
+              data.outputRowMeta.getString(row)));
+    }
+
+    // now get another Row from the same file
+    //
+    int smallest = data.mergeTree.getWinner();
+    RowTempFileReader reader = data.readers[smallest];
+    Object[] nextRow = reader.readRow();
+    if (nextRow == null) {
+      // This file is done: close and delete it
+      //
+      data.readers[smallest] = null;
+      dataVolumeIn = (dataVolumeIn != null ? dataVolumeIn : 0L) + reader.getBytesRead();
+      try {
+        reader.close();
+      } catch (IOException e) {
+        throw new HopException(
+            BaseMessages.getString(
+                PKG, "SortRows.Error.UnableToCloseFile", smallest, reader.getFile().toString()),
+            e);
       }
     }
-    return retval;
+    data.mergeTree.replaceWinnerRow(nextRow);
+    return row;
   }
 
   @Override
@@ -428,7 +437,6 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     // Metadata
     data.outputRowMeta = inputRowMeta.clone();
     meta.getFields(data.outputRowMeta, getTransformName(), null, null, this, metadataProvider);
-    data.comparator = new RowTemapFileComparator(data.outputRowMeta, data.fieldnrs);
 
     for (int i = 0; i < meta.getSortFields().size(); i++) {
       data.fieldnrs[i] = inputRowMeta.indexOfValue(meta.getSortFields().get(i).getFieldName());
@@ -461,16 +469,17 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
    * indicates that this particular transform finishing processing.
    */
   void passBuffer() throws HopException {
+    // log time spent for external merge (expected time consuming operation)
+    boolean externalMerge = !data.files.isEmpty();
+    if (isDebug() && externalMerge) {
+      this.logDebug(BaseMessages.getString(PKG, "SortRows.Debug.ExternalMergeStarted"));
+    }
+
     // Now we can start the output!
     //
     Object[] r = getBuffer();
     Object[] previousRow = null;
 
-    // log time spent for external merge (expected time consuming operation)
-    if (isDebug() && !data.files.isEmpty()) {
-      this.logDebug(BaseMessages.getString(PKG, "SortRows.Debug.ExternalMergeStarted"));
-    }
-
     while (r != null && !isStopped()) {
       if (isRowLevel()) {
         logRowlevel(
@@ -502,7 +511,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       r = getBuffer();
     }
 
-    if (isDebug() && !data.files.isEmpty()) {
+    if (isDebug() && externalMerge) {
       this.logDebug(BaseMessages.getString(PKG, "SortRows.Debug.ExternalMergeFinished"));
     }
 
@@ -530,14 +539,18 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     //
     data.buffer = new ArrayList<>(5000);
 
-    // Buffer for reading from disk
-    //
-    data.rowbuffer = new ArrayList<>(5000);
-
     data.compressFiles =
         getVariableBoolean(meta.getCompressFilesVariable(), meta.isCompressFiles());
-
-    data.tempRows = new ArrayList<>();
+    if (data.compressFiles) {
+      data.compressionType =
+          Const.NVL(resolve(meta.getCompressionType()), SortRowsMeta.COMPRESSION_TYPE_GZIP);
+    } else {
+      data.compressionType = null;
+    }
+    data.parallelSort = meta.isParallelSort();
+    data.maxMergeFiles =
+        Math.max(
+            2, Const.toInt(resolve(meta.getMaxMergeFiles()), SortRowsMeta.DEFAULT_MAX_MERGE_FILES));
 
     data.minSortSize = 5000;
 
@@ -552,23 +565,37 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
   private void clearBuffers() {
 
+    // let a temp file that is still being written finish
+    if (data.spill != null) {
+      try {
+        data.spill.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        logError(e.getCause().getLocalizedMessage(), e.getCause());
+      }
+      data.spill = null;
+    }
+
     // Clean out the sort buffer
     data.buffer.clear();
     data.getBufferIndex = 0;
-    data.rowbuffer.clear();
 
-    // close any open DataInputStream objects
-    if (CollectionUtils.isNotEmpty(data.dis)) {
-      for (DataInputStream dis : data.dis) {
-        BaseTransform.closeQuietly(dis);
-      }
-    }
-    // close any open InputStream objects
-    if (CollectionUtils.isNotEmpty(data.fis)) {
-      for (InputStream is : data.fis) {
-        BaseTransform.closeQuietly(is);
+    // close (and remove) the temp files being merged
+    if (data.readers != null) {
+      for (RowTempFileReader reader : data.readers) {
+        if (reader != null) {
+          try {
+            reader.close();
+          } catch (IOException e) {
+            logError(e.getLocalizedMessage(), e);
+          }
+        }
       }
+      data.readers = null;
     }
+    data.mergeTree = null;
+
     // remove temp files
     for (int f = 0; f < data.files.size(); f++) {
       FileObject fileToDelete = data.files.get(f);
@@ -580,12 +607,22 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
         logError(e.getLocalizedMessage(), e);
       }
     }
+    data.files.clear();
+    data.bufferSizes.clear();
   }
 
   /** Sort the entire vector, if it is not empty. */
   void quickSort(List<Object[]> elements) {
     if (CollectionUtils.isNotEmpty(elements)) {
-      elements.sort(data.rowComparator);
+      if (data.parallelSort) {
+        Object[][] rows = elements.toArray(new Object[0][]);
+        Arrays.parallelSort(rows, data.rowComparator);
+        for (int i = 0; i < rows.length; i++) {
+          elements.set(i, rows[i]);
+        }
+      } else {
+        elements.sort(data.rowComparator);
+      }
 
       long nrConversions = 0L;
       for (IValueMeta valueMeta : data.outputRowMeta.getValueMetaList()) {
@@ -626,6 +663,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     if (!data.files.isEmpty()) {
       // dump to dist and then read from disk
       sortExternalRows();
+      waitForBackgroundSpill();
     } else {
       // sort in memory
       quickSort(data.buffer);
@@ -642,23 +680,6 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     }
   }
 
-  private class RowTemapFileComparator extends SortRowsComparator
-      implements Comparator<RowTempFile> {
-    RowTemapFileComparator(IRowMeta rowMeta, int[] fieldNrs) {
-      super(rowMeta, fieldNrs);
-    }
-
-    @Override
-    public int compare(RowTempFile o1, RowTempFile o2) {
-      try {
-        return rowMeta.compare(o1.row, o2.row, fieldNrs);
-      } catch (HopValueException e) {
-        logError("Error comparing rows: " + e.toString());
-        return 0;
-      }
-    }
-  }
-
   private class RowObjectArrayComparator extends SortRowsComparator
       implements Comparator<Object[]> {
     RowObjectArrayComparator(IRowMeta rowMeta, int[] fieldNrs) {
@@ -17,14 +17,11 @@
 
 package org.apache.hop.pipeline.transforms.sort;
 
-import java.io.DataInputStream;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
+import java.util.concurrent.Future;
 import org.apache.commons.vfs2.FileObject;
-import org.apache.hop.core.io.CountingInputStream;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -35,25 +32,36 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
   public List<Object[]> buffer;
   public int getBufferIndex;
 
-  public List<InputStream> fis;
-  public List<CountingInputStream> countingInputStreams;
-  public List<GZIPInputStream> gzis;
-  public List<DataInputStream> dis;
-  public List<Object[]> rowbuffer;
-  public List<Integer> bufferSizes;
+  /** The number of rows in each of the temporary files */
+  public List<Long> bufferSizes;
 
-  // To store rows and file references
-  public List<RowTempFile> tempRows;
+  /** The readers of the temporary files being merged and the tree picking the smallest row */
+  public RowTempFileReader[] readers;
+
+  public LoserTree mergeTree;
 
   public int[] fieldnrs; // the corresponding field numbers
   public FileObject fil;
   public IRowMeta outputRowMeta;
   public int sortSize;
   public boolean compressFiles;
+
+  /** The compression of the temporary files or null if these are not compressed */
+  public String compressionType;
+
+  public int maxMergeFiles;
+
+  /** Sort using all cores and write the temporary files in the background */
+  public boolean parallelSort;
+
+  /** The temporary file being written in the background and its index in the files list */
+  public Future<RowTempFileWriter> spill;
+
+  public int spillIndex;
+
   public int[] convertKeysToNative;
   public boolean convertAnyKeysToNative;
 
-  Comparator<RowTempFile> comparator;
   Comparator<Object[]> rowComparator;
 
   public int freeCounter;
@@ -66,10 +74,6 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
     super();
 
     files = new ArrayList<>();
-    fis = new ArrayList<>();
-    countingInputStreams = new ArrayList<>();
-    gzis = new ArrayList<>();
-    dis = new ArrayList<>();
     bufferSizes = new ArrayList<>();
   }
 }
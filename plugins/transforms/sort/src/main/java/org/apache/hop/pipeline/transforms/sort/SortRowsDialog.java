@@ -33,6 +33,7 @@ import org.apache.hop.ui.core.dialog.BaseDialog;
 import org.apache.hop.ui.core.dialog.ErrorDialog;
 import org.apache.hop.ui.core.widget.CheckBoxVar;
 import org.apache.hop.ui.core.widget.ColumnInfo;
+import org.apache.hop.ui.core.widget.ComboVar;
 import org.apache.hop.ui.core.widget.TableView;
 import org.apache.hop.ui.core.widget.TextVar;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
@@ -68,6 +69,12 @@ public class SortRowsDialog extends BaseTransformDialog {
 
   private CheckBoxVar wCompress;
 
+  private ComboVar wCompressionType;
+
+  private TextVar wMaxMergeFiles;
+
+  private Button wParallelSort;
+
   private Button wUniqueRows;
 
   private TableView wFields;
@@ -207,6 +214,67 @@ public class SortRowsDialog extends BaseTransformDialog {
           }
         });
 
+    // The compression used for the temporary files
+    Label wlCompressionType = new Label(shell, SWT.RIGHT);
+    wlCompressionType.setText(BaseMessages.getString(PKG, "SortRowsDialog.CompressionType.Label"));
+    PropsUi.setLook(wlCompressionType);
+    FormData fdlCompressionType = new FormData();
+    fdlCompressionType.left = new FormAttachment(0, 0);
+    fdlCompressionType.right = new FormAttachment(middle, -margin);
+    fdlCompressionType.top = new FormAttachment(wCompress, margin);
+    wlCompressionType.setLayoutData(fdlCompressionType);
+    wCompressionType = new ComboVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wCompressionType.setItems(SortRowsMeta.COMPRESSION_TYPES);
+    PropsUi.setLook(wCompressionType);
+    wCompressionType.addModifyListener(lsMod);
+    FormData fdCompressionType = new FormData();
+    fdCompressionType.left = new FormAttachment(middle, 0);
+    fdCompressionType.top = new FormAttachment(wCompress, margin);
+    fdCompressionType.right = new FormAttachment(100, 0);
+    wCompressionType.setLayoutData(fdCompressionType);
+
+    // The maximum number of temporary files to merge at once
+    Label wlMaxMergeFiles = new Label(shell, SWT.RIGHT);
+    wlMaxMergeFiles.setText(BaseMessages.getString(PKG, "SortRowsDialog.MaxMergeFiles.Label"));
+    wlMaxMergeFiles.setToolTipText(
+        BaseMessages.getString(PKG, "SortRowsDialog.MaxMergeFiles.ToolTip"));
+    PropsUi.setLook(wlMaxMergeFiles);
+    FormData fdlMaxMergeFiles = new FormData();
+    fdlMaxMergeFiles.left = new FormAttachment(0, 0);
+    fdlMaxMergeFiles.right = new FormAttachment(middle, -margin);
+    fdlMaxMergeFiles.top = new FormAttachment(wCompressionType, margin);
+    wlMaxMergeFiles.setLayoutData(fdlMaxMergeFiles);
+    wMaxMergeFiles = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wMaxMergeFiles.setToolTipText(
+        BaseMessages.getString(PKG, "SortRowsDialog.MaxMergeFiles.ToolTip"));
+    PropsUi.setLook(wMaxMergeFiles);
+    wMaxMergeFiles.addModifyListener(lsMod);
+    FormData fdMaxMergeFiles = new FormData();
+    fdMaxMergeFiles.left = new FormAttachment(middle, 0);
+    fdMaxMergeFiles.top = new FormAttachment(wCompressionType, margin);
+    fdMaxMergeFiles.right = new FormAttachment(100, 0);
+    wMaxMergeFiles.setLayoutData(fdMaxMergeFiles);
+
+    // Sort using all cores?
+    Label wlParallelSort = new Label(shell, SWT.RIGHT);
+    wlParallelSort.setText(BaseMessages.getString(PKG, "SortRowsDialog.ParallelSort.Label"));
+    PropsUi.setLook(wlParallelSort);
+    FormData fdlParallelSort = new FormData();
+    fdlParallelSort.left = new FormAttachment(0, 0);
+    fdlParallelSort.right = new FormAttachment(middle, -margin);
+    fdlParallelSort.top = new FormAttachment(wMaxMergeFiles, margin);
+    wlParallelSort.setLayoutData(fdlParallelSort);
+    wParallelSort = new Button(shell, SWT.CHECK);
+    wParallelSort.setToolTipText(
+        BaseMessages.getString(PKG, "SortRowsDialog.ParallelSort.Tooltip"));
+    PropsUi.setLook(wParallelSort);
+    FormData fdParallelSort = new FormData();
+    fdParallelSort.left = new FormAttachment(middle, 0);
+    fdParallelSort.top = new FormAttachment(wlParallelSort, 0, SWT.CENTER);
+    fdParallelSort.right = new FormAttachment(100, 0);
+    wParallelSort.setLayoutData(fdParallelSort);
+    wParallelSort.addSelectionListener(new ComponentSelectionListener(input));
+
     // Using compression for temporary files?
     Label wlUniqueRows = new Label(shell, SWT.RIGHT);
     wlUniqueRows.setText(BaseMessages.getString(PKG, "SortRowsDialog.UniqueRows.Label"));
@@ -214,7 +282,7 @@ public class SortRowsDialog extends BaseTransformDialog {
     FormData fdlUniqueRows = new FormData();
     fdlUniqueRows.left = new FormAttachment(0, 0);
     fdlUniqueRows.right = new FormAttachment(middle, -margin);
-    fdlUniqueRows.top = new FormAttachment(wCompress, margin);
+    fdlUniqueRows.top = new FormAttachment(wParallelSort, margin);
     wlUniqueRows.setLayoutData(fdlUniqueRows);
     wUniqueRows = new Button(shell, SWT.CHECK);
     wUniqueRows.setToolTipText(BaseMessages.getString(PKG, "SortRowsDialog.UniqueRows.Tooltip"));
@@ -359,6 +427,9 @@ public class SortRowsDialog extends BaseTransformDialog {
     wFreeMemory.setText(Const.NVL(input.getFreeMemoryLimit(), ""));
     wCompress.setSelection(input.isCompressFiles());
     wCompress.setVariableName(input.getCompressFilesVariable());
+    wCompressionType.setText(Const.NVL(input.getCompressionType(), ""));
+    wMaxMergeFiles.setText(Const.NVL(input.getMaxMergeFiles(), ""));
+    wParallelSort.setSelection(input.isParallelSort());
     wUniqueRows.setSelection(input.isOnlyPassingUniqueRows());
 
     Table table = wFields.table;
@@ -422,6 +493,9 @@ public class SortRowsDialog extends BaseTransformDialog {
     log.logDetailed("Sort rows", "Compression is set to " + wCompress.getSelection());
     input.setCompressFiles(wCompress.getSelection());
     input.setCompressFilesVariable(wCompress.getVariableName());
+    input.setCompressionType(wCompressionType.getText());
+    input.setMaxMergeFiles(wMaxMergeFiles.getText());
+    input.setParallelSort(wParallelSort.getSelection());
     input.setOnlyPassingUniqueRows(wUniqueRows.getSelection());
 
     int nrFields = wFields.nrNonEmpty();
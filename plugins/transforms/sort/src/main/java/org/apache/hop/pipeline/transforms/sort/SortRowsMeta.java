@@ -59,6 +59,13 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData>
   private static final String CONST_SPACE_LONG = "        ";
   private static final String CONST_FIELD = "field";
 
+  public static final String COMPRESSION_TYPE_GZIP = "GZip";
+  public static final String COMPRESSION_TYPE_SNAPPY = "Snappy";
+  public static final String[] COMPRESSION_TYPES = {COMPRESSION_TYPE_GZIP, COMPRESSION_TYPE_SNAPPY};
+
+  /** The default maximum number of temporary files to merge at once */
+  public static final int DEFAULT_MAX_MERGE_FILES = 100;
+
   @HopMetadataProperty(groupKey = "fields", key = "field", injectionGroupKey = "FIELDS")
   private List<SortRowsField> sortFields;
 
@@ -96,6 +103,24 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData>
   @HopMetadataProperty(key = "compress_variables", injectionKey = "COMPRESS_VARIABLE")
   private String compressFilesVariable;
 
+  /** The compression used for the temporary files: GZip (default) or Snappy */
+  @HopMetadataProperty(key = "compression_type", injectionKey = "COMPRESSION_TYPE")
+  private String compressionType;
+
+  /**
+   * The maximum number of temporary files merged at once. If more files are written, they are
+   * merged in several passes.
+   */
+  @HopMetadataProperty(key = "max_merge_files", injectionKey = "MAX_MERGE_FILES")
+  private String maxMergeFiles;
+
+  /**
+   * Sort the rows in memory using all available cores and write the temporary files in the
+   * background while the next rows are read.
+   */
+  @HopMetadataProperty(key = "parallel_sort", injectionKey = "PARALLEL_SORT")
+  private boolean parallelSort;
+
   public SortRowsMeta() {
     super();
     sortFields = new ArrayList<>();
@@ -105,6 +130,9 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData>
     freeMemoryLimit = null;
     compressFiles = false;
     compressFilesVariable = null;
+    compressionType = COMPRESSION_TYPE_GZIP;
+    maxMergeFiles = Integer.toString(DEFAULT_MAX_MERGE_FILES);
+    parallelSort = false;
     onlyPassingUniqueRows = false;
   }
 
@@ -117,6 +145,9 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData>
     this.onlyPassingUniqueRows = m.onlyPassingUniqueRows;
     this.compressFiles = m.compressFiles;
     this.compressFilesVariable = m.compressFilesVariable;
+    this.compressionType = m.compressionType;
+    this.maxMergeFiles = m.maxMergeFiles;
+    this.parallelSort = m.parallelSort;
     m.sortFields.forEach(f -> sortFields.add(new SortRowsField(f)));
   }
 
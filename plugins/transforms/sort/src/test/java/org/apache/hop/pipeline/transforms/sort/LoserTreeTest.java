@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LoserTreeTest {
+  private static final Comparator<Object[]> COMPARATOR =
+      Comparator.comparingLong(row -> (Long) row[0]);
+
+  @Test
+  void testMergeIsSortedAndStable() {
+    Random random = new Random(7);
+    for (int nrRuns : new int[] {1, 2, 3, 5, 8, 13, 64}) {
+      // Every row is {key, run, position in run}
+      //
+      List<List<Object[]>> runs = new ArrayList<>();
+      List<Object[]> expected = new ArrayList<>();
+      for (int run = 0; run < nrRuns; run++) {
+        List<Object[]> rows = new ArrayList<>();
+        int nrRows = random.nextInt(20);
+        for (int i = 0; i < nrRows; i++) {
+          rows.add(new Object[] {(long) random.nextInt(10), run, i});
+        }
+        rows.sort(COMPARATOR);
+        runs.add(rows);
+        expected.addAll(rows);
+      }
+      // A stable sort of the runs in order gives the expected merge result
+      expected.sort(COMPARATOR);
+
+      int[] positions = new int[nrRuns];
+      Object[][] heads = new Object[nrRuns][];
+      for (int run = 0; run < nrRuns; run++) {
+        heads[run] = runs.get(run).isEmpty() ? null : runs.get(run).get(positions[run]++);
+      }
+      LoserTree tree = new LoserTree(heads, COMPARATOR);
+
+      List<Object[]> merged = new ArrayList<>();
+      Object[] row = tree.getWinnerRow();
+      while (row != null) {
+        merged.add(row);
+        int run = tree.getWinner();
+        assertEquals(run, row[1]);
+        List<Object[]> rows = runs.get(run);
+        tree.replaceWinnerRow(positions[run] < rows.size() ? rows.get(positions[run]++) : null);
+        row = tree.getWinnerRow();
+      }
+
+      assertEquals(expected.size(), merged.size());
+      for (int i = 0; i < expected.size(); i++) {
+        assertEquals(expected.get(i), merged.get(i), "Row " + i + " of " + nrRuns + " runs");
+      }
+    }
+  }
+
+  @Test
+  void testNoRuns() {
+    assertNull(new LoserTree(new Object[0][], COMPARATOR).getWinnerRow());
+    assertNull(new LoserTree(new Object[3][], COMPARATOR).getWinnerRow());
+  }
+}
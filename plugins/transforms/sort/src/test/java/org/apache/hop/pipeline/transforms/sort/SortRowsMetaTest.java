@@ -57,6 +57,9 @@ class SortRowsMetaTest {
             "FreeMemoryLimit",
             "CompressFiles",
             "CompressFilesVariable",
+            "CompressionType",
+            "MaxMergeFiles",
+            "ParallelSort",
             "OnlyPassingUniqueRows",
             "SortFields");
 
@@ -74,6 +77,9 @@ class SortRowsMetaTest {
     fieldLoadSaveValidatorAttributeMap.put("FreeMemoryLimit", stringFieldLoadSaveValidator);
     fieldLoadSaveValidatorAttributeMap.put("CompressFiles", booleanFieldLoadSaveValidator);
     fieldLoadSaveValidatorAttributeMap.put("CompressFilesVariable", stringFieldLoadSaveValidator);
+    fieldLoadSaveValidatorAttributeMap.put("CompressionType", stringFieldLoadSaveValidator);
+    fieldLoadSaveValidatorAttributeMap.put("MaxMergeFiles", stringFieldLoadSaveValidator);
+    fieldLoadSaveValidatorAttributeMap.put("ParallelSort", booleanFieldLoadSaveValidator);
     fieldLoadSaveValidatorAttributeMap.put("OnlyPassingUniqueRows", booleanFieldLoadSaveValidator);
 
     LoadSaveTester<SortRowsMeta> loadSaveTester =
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironmentExtension;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class SortRowsTest {
+  @RegisterExtension
+  static RestoreHopEngineEnvironmentExtension env = new RestoreHopEngineEnvironmentExtension();
+
+  @TempDir Path tempDir;
+
+  private TransformMockHelper<SortRowsMeta, SortRowsData> transformMockHelper;
+
+  @BeforeEach
+  void setup() {
+    transformMockHelper =
+        new TransformMockHelper<>("Sort rows", SortRowsMeta.class, SortRowsData.class);
+    when(transformMockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(transformMockHelper.iLogChannel);
+    when(transformMockHelper.pipeline.isRunning()).thenReturn(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    transformMockHelper.cleanUp();
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "false,,3,false",
+    "true,GZip,3,false",
+    "true,Snappy,2,false",
+    "false,,1000,false",
+    "false,,3,true",
+    "true,Snappy,1000,true"
+  })
+  void testExternalSort(
+      boolean compress, String compressionType, String maxMergeFiles, boolean parallelSort)
+      throws Exception {
+    SortRowsMeta meta = new SortRowsMeta();
+    meta.setDirectory(tempDir.toString());
+    meta.setSortSize("7");
+    meta.setCompressFiles(compress);
+    meta.setCompressionType(compressionType);
+    meta.setMaxMergeFiles(maxMergeFiles);
+    meta.setParallelSort(parallelSort);
+    SortRowsField field = new SortRowsField();
+    field.setFieldName("key");
+    meta.getSortFields().add(field);
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("key"));
+    rowMeta.addValueMeta(new ValueMetaString("value"));
+
+    // 23 temporary files of 7 rows and a last one of 5 rows
+    //
+    Random random = new Random(123);
+    List<Object[]> input = new ArrayList<>();
+    for (int i = 0; i < 166; i++) {
+      input.add(new Object[] {(long) random.nextInt(50), "row " + i});
+    }
+    Iterator<Object[]> iterator = input.iterator();
+
+    SortRows sortRows =
+        spy(
+            new SortRows(
+                transformMockHelper.transformMeta,
+                meta,
+                new SortRowsData(),
+                0,
+                transformMockHelper.pipelineMeta,
+                transformMockHelper.pipeline));
+    List<Object[]> output = new ArrayList<>();
+    doAnswer(invocation -> iterator.hasNext() ? iterator.next() : null).when(sortRows).getRow();
+    doReturn(rowMeta).when(sortRows).getInputRowMeta();
+    doAnswer(invocation -> output.add(invocation.getArgument(1)))
+        .when(sortRows)
+        .putRow(any(), any());
+
+    assertTrue(sortRows.init());
+    while (sortRows.processRow()) {
+      // keep going
+    }
+
+    // Rows with the same key keep their input order
+    //
+    List<Object[]> expected = new ArrayList<>(input);
+    expected.sort((o1, o2) -> Long.compare((Long) o1[0], (Long) o2[0]));
+    assertEquals(expected.size(), output.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i)[0], output.get(i)[0]);
+      assertEquals(expected.get(i)[1], output.get(i)[1]);
+    }
+
+    // All temporary files are removed
+    //
+    assertEquals(0, new File(tempDir.toString()).list().length);
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.streamlookup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.hash.MappedByteArrayHashIndex;
+
+/**
+ * A memory-mapped lookup index shared by the copies of a Stream Lookup transform in the same
+ * pipeline. One copy (or every copy when the lookup rows are distributed over the copies) writes
+ * the lookup rows, the index file is built once and all copies read it through the OS page cache.
+ *
+ * <p>A persistent store is kept after the pipeline finishes and is opened again by a later run
+ * instead of being built again. Other stores are deleted when the last copy releases them.
+ */
+final class MappedLookupStore {
+
+  private static final Map<String, MappedLookupStore> stores = new HashMap<>();
+
+  private final String id;
+  private final Path file;
+  private final boolean persistent;
+  private final CompletableFuture<MappedByteArrayHashIndex> index = new CompletableFuture<>();
+
+  private int references;
+  private boolean started;
+  private int writers;
+  private MappedByteArrayHashIndex.Builder builder;
+  private byte[] metadata;
+
+  private MappedLookupStore(String id, Path file, boolean persistent) {
+    this.id = id;
+    this.file = file;
+    this.persistent = persistent;
+  }
+
+  /**
+   * Get the store with the given id, creating it for the first copy asking for it.
+   *
+   * @param id identifies the store: the pipeline run and the transform (partition)
+   * @param file the index file
+   * @param persistent true to keep the index file for later runs
+   * @return the store, to be released by every copy which acquired it
+   */
+  static MappedLookupStore acquire(String id, Path file, boolean persistent) {
+    synchronized (stores) {
+      MappedLookupStore store =
+          stores.computeIfAbsent(id, k -> new MappedLookupStore(id, file, persistent));
+      store.references++;
+      return store;
+    }
+  }
+
+  /**
+   * Release a store acquired before. When the last copy releases it, a store which isn't persistent
+   * is deleted.
+   *
+   * @param store the store to release
+   */
+  static void release(MappedLookupStore store) {
+    synchronized (stores) {
+      if (--store.references > 0) {
+        return;
+      }
+      stores.remove(store.id);
+    }
+    store.dispose();
+  }
+
+  /**
+   * Called by every copy before it reads the lookup rows to find out if it needs to write them to
+   * the store. The first copy opens a persistent index file which is left by a previous run if it
+   * is valid, otherwise it starts building the index.
+   *
+   * @param allCopiesWrite true if every copy reads a part of the lookup rows, false if every copy
+   *     reads all of them and only one of the copies needs to write them
+   * @param copies the number of copies which will call this method
+   * @param valid validates the metadata of an existing index file
+   * @return true if the copy needs to write its lookup rows and call {@link #finish(byte[])}
+   * @throws HopException in case the index file can't be created
+   */
+  synchronized boolean start(boolean allCopiesWrite, int copies, Predicate<byte[]> valid)
+      throws HopException {
+    if (started) {
+      return allCopiesWrite && builder != null;
+    }
+    started = true;
+
+    if (persistent && Files.exists(file)) {
+      try {
+        MappedByteArrayHashIndex existing = MappedByteArrayHashIndex.open(file);
+        if (valid.test(existing.getMetadata())) {
+          index.complete(existing);
+          return false;
+        }
+      } catch (IOException e) {
+        // Not a usable index file: build it again
+      }
+    }
+
+    try {
+      builder = MappedByteArrayHashIndex.builder(file);
+    } catch (IOException e) {
+      HopException exception = new HopException("Unable to create lookup index file " + file, e);
+      index.completeExceptionally(exception);
+      throw exception;
+    }
+    writers = allCopiesWrite ? copies : 1;
+    return true;
+  }
+
+  /**
+   * Write a lookup row to the index
+   *
+   * @param key the serialized key
+   * @param value the serialized value
+   * @throws HopException in case the row can't be written
+   */
+  synchronized void put(byte[] key, byte[] value) throws HopException {
+    try {
+      builder.put(key, value);
+    } catch (IOException e) {
+      throw new HopException("Unable to write to lookup index file " + file, e);
+    }
+  }
+
+  /**
+   * Called by a writing copy when it read all its lookup rows. The index is built when the last
+   * writing copy is done.
+   *
+   * @param rowsMetadata the layout of the rows the copy wrote, null if it didn't get any. When none
+   *     of the copies got rows, the index is built with empty metadata.
+   * @throws HopException in case the index can't be built
+   */
+  synchronized void finish(byte[] rowsMetadata) throws HopException {
+    if (rowsMetadata != null && metadata == null) {
+      metadata = rowsMetadata;
+    }
+    if (--writers > 0) {
+      return;
+    }
+    try (MappedByteArrayHashIndex.Builder b = builder) {
+      builder = null;
+      index.complete(b.build(metadata != null ? metadata : new byte[0]));
+    } catch (IOException e) {
+      HopException exception = new HopException("Unable to build lookup index file " + file, e);
+      index.completeExceptionally(exception);
+      throw exception;
+    }
+  }
+
+  /**
+   * Wait until the index is available.
+   *
+   * @param stopped tells if the waiting copy is stopped
+   * @return a view of the index for the calling copy, null if the copy was stopped
+   * @throws HopException in case the index couldn't be built
+   */
+  MappedByteArrayHashIndex await(BooleanSupplier stopped) throws HopException {
+    while (!stopped.getAsBoolean()) {
+      try {
+        return index.get(1, TimeUnit.SECONDS).duplicate();
+      } catch (TimeoutException e) {
+        // Keep waiting for the other copies
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      } catch (ExecutionException e) {
+        throw new HopException("Unable to build lookup index file " + file, e.getCause());
+      }
+    }
+    return null;
+  }
+
+  private void dispose() {
+    synchronized (this) {
+      if (builder != null) {
+        try {
+          builder.close();
+        } catch (IOException e) {
+          // Only temporary files are left behind
+        }
+        builder = null;
+      }
+    }
+    if (!persistent) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        // Some platforms don't allow deleting a file which is still mapped
+        file.toFile().deleteOnExit();
+      }
+    }
+  }
+
+  Path getFile() {
+    return file;
+  }
+}
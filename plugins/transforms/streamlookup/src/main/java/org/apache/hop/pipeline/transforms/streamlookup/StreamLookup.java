@@ -17,11 +17,20 @@
 
 package org.apache.hop.pipeline.transforms.streamlookup;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.DateFormat;
 import java.util.Collections;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.hop.core.IRowSet;
-import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.cache.LookupCacheKey;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopRuntimeException;
 import org.apache.hop.core.exception.HopTransformException;
@@ -146,8 +155,15 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
     // Which row set do we read from?
     //
     IRowSet rowSet = findInputRowSet(data.infoStream.getTransformName());
+    boolean writing = !meta.isUsingMappedStore() || startMappedStore();
     Object[] rowData = getRowFrom(rowSet); // rows are originating from "lookup_from"
     while (rowData != null) {
+      if (!writing) {
+        // Another copy or a previous run stores the lookup values, we only need to drain the rows
+        rowData = getRowFrom(rowSet);
+        continue;
+      }
+
       if (isRowLevel()) {
         logRowlevel(
             BaseMessages.getString(PKG, "StreamLookup.Log.ReadLookupRow")
@@ -216,6 +232,131 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
       rowData = getRowFrom(rowSet);
     }
 
+    if (meta.isUsingMappedStore()) {
+      openMappedIndex(writing);
+    }
+    return true;
+  }
+
+  /**
+   * Join the memory-mapped store shared by the copies of this transform.
+   *
+   * @return true if this copy needs to write its lookup rows to the store
+   */
+  private boolean startMappedStore() throws HopException {
+    String version = resolve(meta.getMappedStoreVersion());
+    boolean persistent = StringUtils.isNotEmpty(version);
+    String folder = resolve(meta.getMappedStoreFolder());
+    if (StringUtils.isEmpty(folder)) {
+      folder = System.getProperty("java.io.tmpdir");
+    }
+
+    // Partitioned copies each look up their own part of the values
+    //
+    boolean partitioned = getTransformMeta().isPartitioned();
+    String name =
+        getPipelineMeta().getName()
+            + "-"
+            + getTransformName()
+            + "-"
+            + (persistent ? version : getPipeline().getLogChannelId())
+            + (partitioned ? "-" + getPartitionId() : "");
+    Path file = Paths.get(folder, name.replaceAll("[^A-Za-z0-9._-]", "_") + ".idx");
+    String id =
+        getPipeline().getLogChannelId()
+            + "/"
+            + getTransformName()
+            + (partitioned ? "/" + getCopy() : "");
+    data.mappedStore = MappedLookupStore.acquire(id, file, persistent);
+
+    // Every copy gets a part of the lookup rows when they are distributed, otherwise every copy
+    // gets all of them and a single copy writes them.
+    //
+    TransformMeta sourceTransformMeta = data.infoStream.getTransformMeta();
+    boolean allCopiesWrite =
+        !partitioned
+            && (sourceTransformMeta.isDistributes() || sourceTransformMeta.getCopies(this) > 1);
+    return data.mappedStore.start(
+        allCopiesWrite,
+        partitioned ? 1 : getTransformMeta().getCopies(this),
+        metadata -> {
+          try {
+            return readMappedMetadata(metadata);
+          } catch (HopException e) {
+            return false;
+          }
+        });
+  }
+
+  private void openMappedIndex(boolean writing) throws HopException {
+    if (writing) {
+      data.mappedStore.finish(data.hasLookupRows ? writeMappedMetadata() : null);
+    }
+    data.mappedIndex = data.mappedStore.await(this::isStopped);
+    if (data.mappedIndex == null) {
+      return;
+    }
+    if (!readMappedMetadata(data.mappedIndex.getMetadata())) {
+      throw new HopTransformException(
+          BaseMessages.getString(
+              PKG, "StreamLookup.Exception.InvalidMappedStore", data.mappedStore.getFile()));
+    }
+    if (isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "StreamLookup.Log.UsingMappedStore",
+              data.mappedStore.getFile(),
+              Long.toString(data.mappedIndex.getCount())));
+    }
+  }
+
+  /** The layout of the lookup rows, stored with the memory-mapped index */
+  private byte[] writeMappedMetadata() throws HopException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream outputStream = new DataOutputStream(bytes);
+    data.infoMeta.writeMeta(outputStream);
+    data.keyTypes.writeMeta(outputStream);
+    data.cacheKeyMeta.writeMeta(outputStream);
+    data.cacheValueMeta.writeMeta(outputStream);
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Read the layout of the lookup rows stored with a memory-mapped index.
+   *
+   * @return true if the index holds the keys and values this transform looks up
+   */
+  private boolean readMappedMetadata(byte[] metadata) throws HopException {
+    data.hasLookupRows = metadata.length > 0;
+    if (!data.hasLookupRows) {
+      return true;
+    }
+    try (DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(metadata))) {
+      data.infoMeta = new RowMeta(inputStream);
+      data.keyTypes = new RowMeta(inputStream);
+      data.cacheKeyMeta = new RowMeta(inputStream);
+      data.cacheValueMeta = new RowMeta(inputStream);
+    } catch (IOException e) {
+      throw new HopException(e);
+    }
+
+    List<StreamLookupMeta.MatchKey> matchKeys = meta.getLookup().getMatchKeys();
+    List<StreamLookupMeta.ReturnValue> returnValues = meta.getLookup().getReturnValues();
+    if (data.cacheKeyMeta.size() != matchKeys.size()
+        || data.cacheValueMeta.size() != returnValues.size()) {
+      return false;
+    }
+    for (int i = 0; i < matchKeys.size(); i++) {
+      if (!data.cacheKeyMeta.getValueMeta(i).getName().equals(matchKeys.get(i).getKeyLookup())) {
+        return false;
+      }
+    }
+    for (int i = 0; i < returnValues.size(); i++) {
+      if (!data.cacheValueMeta.getValueMeta(i).getName().equals(returnValues.get(i).getValue())) {
+        return false;
+      }
+    }
     return true;
   }
 
@@ -297,7 +438,12 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
 
   private void addToCache(
       IRowMeta keyMeta, Object[] keyData, IRowMeta valueMeta, Object[] valueData)
-      throws HopValueException {
+      throws HopException {
+    if (data.mappedStore != null) {
+      data.mappedStore.put(
+          RowMeta.extractData(keyMeta, keyData), RowMeta.extractData(valueMeta, valueData));
+      return;
+    }
     if (meta.isMemoryPreservationActive()) {
       if (meta.isUsingSortedList()) {
         KeyValue keyValue = new KeyValue(keyData, valueData);
@@ -335,13 +481,24 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
         }
       }
     } else {
-      // We can't just put Object[] in the map The compare function is not in it.
-      // We need to wrap in and use that. Let's use RowMetaAndData for this one.
-      data.look.put(new RowMetaAndData(keyMeta, keyData), valueData);
+      // The keys are compared in their serialized, canonical form: values which are equal
+      // according to the key metadata give the same key.
+      // The lookup values are the authoritative source so the cache is never limited.
+      data.look.put(LookupCacheKey.of(keyMeta, keyData), valueData);
     }
   }
 
   private Object[] getFromCache(IRowMeta keyMeta, Object[] keyData) throws HopValueException {
+    if (data.mappedStore != null) {
+      if (data.mappedIndex == null) {
+        return null; // stopped while waiting for the index
+      }
+      byte[] value = data.mappedIndex.get(RowMeta.extractData(keyMeta, keyData));
+      if (value == null) {
+        return null;
+      }
+      return RowMeta.getRow(data.cacheValueMeta, value);
+    }
     if (meta.isMemoryPreservationActive()) {
       if (meta.isUsingSortedList()) {
         KeyValue keyValue = new KeyValue(keyData, null);
@@ -375,7 +532,7 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
         }
       }
     } else {
-      return data.look.get(new RowMetaAndData(keyMeta, keyData));
+      return data.look.get(LookupCacheKey.of(keyMeta, keyData));
     }
   }
 
@@ -501,6 +658,13 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
 
   @Override
   public void dispose() {
+    if (data.look != null) {
+      data.look.snapMetrics(getLogChannel());
+      if (isDetailed()) {
+        logDetailed(data.look.getStatisticsDescription());
+      }
+    }
+
     // Recover memory immediately, allow in-memory data to be garbage collected
     //
     data.look = null;
@@ -508,6 +672,14 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
     data.hashIndex = null;
     data.longIndex = null;
 
+    // The last copy removes the memory-mapped index, unless it's kept for later runs
+    //
+    data.mappedIndex = null;
+    if (data.mappedStore != null) {
+      MappedLookupStore.release(data.mappedStore);
+      data.mappedStore = null;
+    }
+
     super.dispose();
   }
 }
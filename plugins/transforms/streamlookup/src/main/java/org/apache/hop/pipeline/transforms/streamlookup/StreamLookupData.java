@@ -19,14 +19,13 @@ package org.apache.hop.pipeline.transforms.streamlookup;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.cache.LookupCache;
 import org.apache.hop.core.exception.HopRuntimeException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.hash.ByteArrayHashIndex;
 import org.apache.hop.core.hash.LongHashIndex;
+import org.apache.hop.core.hash.MappedByteArrayHashIndex;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -35,7 +34,7 @@ import org.apache.hop.pipeline.transform.stream.IStream;
 @SuppressWarnings("java:S1104")
 public class StreamLookupData extends BaseTransformData implements ITransformData {
   /** used to store values in used to look up things */
-  public Map<RowMetaAndData, Object[]> look;
+  public LookupCache<Object[]> look;
 
   public List<KeyValue> list;
 
@@ -66,6 +65,12 @@ public class StreamLookupData extends BaseTransformData implements ITransformDat
   public ByteArrayHashIndex hashIndex;
   public LongHashIndex longIndex;
 
+  /** The memory-mapped store shared with the other copies, if one is used */
+  public MappedLookupStore mappedStore;
+
+  /** This copy's view of the shared memory-mapped index */
+  public MappedByteArrayHashIndex mappedIndex;
+
   public IRowMeta lookupMeta;
 
   public IRowMeta infoMeta;
@@ -86,7 +91,7 @@ public class StreamLookupData extends BaseTransformData implements ITransformDat
 
   public StreamLookupData() {
     super();
-    look = new HashMap<>();
+    look = LookupCache.<Object[]>builder().build();
     hashIndex = null;
     longIndex = new LongHashIndex();
     list = new ArrayList<>();
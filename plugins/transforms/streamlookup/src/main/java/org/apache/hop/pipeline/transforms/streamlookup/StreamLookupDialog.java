@@ -40,6 +40,7 @@ import org.apache.hop.ui.core.dialog.MessageBox;
 import org.apache.hop.ui.core.gui.GuiResource;
 import org.apache.hop.ui.core.widget.ColumnInfo;
 import org.apache.hop.ui.core.widget.TableView;
+import org.apache.hop.ui.core.widget.TextVar;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.CTabFolder;
@@ -67,6 +68,12 @@ public class StreamLookupDialog extends BaseTransformDialog {
 
   private Button wIntegerPair;
 
+  private Button wMappedStore;
+
+  private TextVar wMappedStoreFolder;
+
+  private TextVar wMappedStoreVersion;
+
   private final StreamLookupMeta input;
 
   private ColumnInfo[] ciKey;
@@ -179,6 +186,62 @@ public class StreamLookupDialog extends BaseTransformDialog {
     wSortedList.addListener(SWT.Selection, e -> input.setChanged());
     PropsUi.setLook(wSortedList);
 
+    Label wlMappedStore = new Label(composite, SWT.RIGHT);
+    wlMappedStore.setText(BaseMessages.getString(PKG, "StreamLookupDialog.MappedStore.Label"));
+    wlMappedStore.setToolTipText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.MappedStore.Tooltip"));
+    wlMappedStore.setLayoutData(
+        FormDataBuilder.builder().left().top(wSortedList, margin).right(middle, -margin).result());
+    PropsUi.setLook(wlMappedStore);
+    wMappedStore = new Button(composite, SWT.CHECK);
+    wMappedStore.setToolTipText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.MappedStore.Tooltip"));
+    wMappedStore.setLayoutData(
+        FormDataBuilder.builder()
+            .left(middle, 0)
+            .top(wlMappedStore, 0, SWT.CENTER)
+            .right()
+            .result());
+    wMappedStore.addListener(
+        SWT.Selection,
+        e -> {
+          input.setChanged();
+          enableFields();
+        });
+    PropsUi.setLook(wMappedStore);
+
+    Label wlMappedStoreFolder = new Label(composite, SWT.RIGHT);
+    wlMappedStoreFolder.setText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.MappedStoreFolder.Label"));
+    wlMappedStoreFolder.setLayoutData(
+        FormDataBuilder.builder().left().top(wMappedStore, margin).right(middle, -margin).result());
+    PropsUi.setLook(wlMappedStoreFolder);
+    wMappedStoreFolder = new TextVar(variables, composite, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wMappedStoreFolder.setToolTipText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.MappedStoreFolder.Tooltip"));
+    wMappedStoreFolder.setLayoutData(
+        FormDataBuilder.builder().left(middle, 0).top(wMappedStore, margin).right().result());
+    wMappedStoreFolder.addModifyListener(lsMod);
+    PropsUi.setLook(wMappedStoreFolder);
+
+    Label wlMappedStoreVersion = new Label(composite, SWT.RIGHT);
+    wlMappedStoreVersion.setText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.MappedStoreVersion.Label"));
+    wlMappedStoreVersion.setLayoutData(
+        FormDataBuilder.builder()
+            .left()
+            .top(wMappedStoreFolder, margin)
+            .right(middle, -margin)
+            .result());
+    PropsUi.setLook(wlMappedStoreVersion);
+    wMappedStoreVersion = new TextVar(variables, composite, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wMappedStoreVersion.setToolTipText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.MappedStoreVersion.Tooltip"));
+    wMappedStoreVersion.setLayoutData(
+        FormDataBuilder.builder().left(middle, 0).top(wMappedStoreFolder, margin).right().result());
+    wMappedStoreVersion.addModifyListener(lsMod);
+    PropsUi.setLook(wMappedStoreVersion);
+
     wGeneralTab.setControl(composite);
   }
 
@@ -441,6 +504,21 @@ public class StreamLookupDialog extends BaseTransformDialog {
     // but user will be forced to choose only one option later.
     wSortedList.setSelection(input.isUsingSortedList());
     wIntegerPair.setSelection(input.isUsingIntegerPair());
+
+    wMappedStore.setSelection(input.isUsingMappedStore());
+    wMappedStoreFolder.setText(Const.NVL(input.getMappedStoreFolder(), ""));
+    wMappedStoreVersion.setText(Const.NVL(input.getMappedStoreVersion(), ""));
+    enableFields();
+  }
+
+  /** The memory-mapped store replaces the in-memory options */
+  private void enableFields() {
+    boolean mapped = wMappedStore.getSelection();
+    wPreserveMemory.setEnabled(!mapped);
+    wSortedList.setEnabled(!mapped && wPreserveMemory.getSelection());
+    wIntegerPair.setEnabled(!mapped && wPreserveMemory.getSelection());
+    wMappedStoreFolder.setEnabled(mapped);
+    wMappedStoreVersion.setEnabled(mapped);
   }
 
   private void cancel() {
@@ -457,6 +535,9 @@ public class StreamLookupDialog extends BaseTransformDialog {
     input.setMemoryPreservationActive(wPreserveMemory.getSelection());
     input.setUsingSortedList(wSortedList.getSelection());
     input.setUsingIntegerPair(wIntegerPair.getSelection());
+    input.setUsingMappedStore(wMappedStore.getSelection());
+    input.setMappedStoreFolder(wMappedStoreFolder.getText());
+    input.setMappedStoreVersion(wMappedStoreVersion.getText());
     StreamLookupMeta.Lookup lookup = input.getLookup();
     lookup.getMatchKeys().clear();
     for (TableItem item : wKey.getNonEmptyItems()) {
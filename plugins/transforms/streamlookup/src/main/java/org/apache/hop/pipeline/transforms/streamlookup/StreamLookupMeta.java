@@ -93,6 +93,30 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
       injectionKeyDescription = "StreamLookupMeta.Injection.INTEGER_PAIR")
   private boolean usingIntegerPair;
 
+  /** Keep the lookup values in a memory-mapped file shared by all copies of the transform */
+  @HopMetadataProperty(
+      key = "mapped_store",
+      injectionKey = "MAPPED_STORE",
+      injectionKeyDescription = "StreamLookupMeta.Injection.MAPPED_STORE")
+  private boolean usingMappedStore;
+
+  /** The folder of the memory-mapped file, the temporary folder if empty */
+  @HopMetadataProperty(
+      key = "mapped_store_folder",
+      injectionKey = "MAPPED_STORE_FOLDER",
+      injectionKeyDescription = "StreamLookupMeta.Injection.MAPPED_STORE_FOLDER")
+  private String mappedStoreFolder;
+
+  /**
+   * The version of the lookup values. When set, the memory-mapped file is kept and used again by
+   * later runs with the same version instead of being built again.
+   */
+  @HopMetadataProperty(
+      key = "mapped_store_version",
+      injectionKey = "MAPPED_STORE_VERSION",
+      injectionKeyDescription = "StreamLookupMeta.Injection.MAPPED_STORE_VERSION")
+  private String mappedStoreVersion;
+
   @HopMetadataProperty(key = "lookup")
   private Lookup lookup;
 
@@ -109,6 +133,9 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
     this.memoryPreservationActive = m.memoryPreservationActive;
     this.usingSortedList = m.usingSortedList;
     this.usingIntegerPair = m.usingIntegerPair;
+    this.usingMappedStore = m.usingMappedStore;
+    this.mappedStoreFolder = m.mappedStoreFolder;
+    this.mappedStoreVersion = m.mappedStoreVersion;
     this.lookup = new Lookup(m.lookup);
   }
 
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.streamlookup;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.hop.core.hash.MappedByteArrayHashIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit tests for {@link MappedLookupStore}. */
+class MappedLookupStoreTest {
+
+  private static final byte[] METADATA = {1, 2, 3};
+
+  @TempDir Path folder;
+
+  @Test
+  void testSingleWriterSharedByCopies() throws Exception {
+    Path file = folder.resolve("lookup.idx");
+    MappedLookupStore store1 = MappedLookupStore.acquire("run1/lookup", file, false);
+    MappedLookupStore store2 = MappedLookupStore.acquire("run1/lookup", file, false);
+    assertSame(store1, store2);
+
+    // Every copy gets all the lookup rows: only the first one writes them
+    assertTrue(store1.start(false, 2, metadata -> true));
+    assertFalse(store2.start(false, 2, metadata -> true));
+
+    store1.put(new byte[] {10}, new byte[] {20});
+    store1.finish(METADATA);
+
+    MappedByteArrayHashIndex index1 = store1.await(() -> false);
+    MappedByteArrayHashIndex index2 = store2.await(() -> false);
+    assertNotSame(index1, index2);
+    assertArrayEquals(new byte[] {20}, index2.get(new byte[] {10}));
+    assertArrayEquals(METADATA, index2.getMetadata());
+
+    // The file of a run is removed by the last copy
+    MappedLookupStore.release(store1);
+    assertTrue(Files.exists(file));
+    MappedLookupStore.release(store2);
+    assertFalse(Files.exists(file));
+  }
+
+  @Test
+  void testAllCopiesWrite() throws Exception {
+    Path file = folder.resolve("distributed.idx");
+    MappedLookupStore store1 = MappedLookupStore.acquire("run2/lookup", file, false);
+    MappedLookupStore store2 = MappedLookupStore.acquire("run2/lookup", file, false);
+
+    // The lookup rows are distributed: every copy writes its part
+    assertTrue(store1.start(true, 2, metadata -> true));
+    assertTrue(store2.start(true, 2, metadata -> true));
+    store1.put(new byte[] {1}, new byte[] {11});
+    store2.put(new byte[] {2}, new byte[] {12});
+
+    // A copy without rows doesn't provide metadata
+    store1.finish(null);
+    assertNull(store1.await(() -> true));
+    store2.finish(METADATA);
+
+    MappedByteArrayHashIndex index = store1.await(() -> false);
+    assertEquals(2, index.getCount());
+    assertArrayEquals(new byte[] {11}, index.get(new byte[] {1}));
+    assertArrayEquals(new byte[] {12}, index.get(new byte[] {2}));
+    assertArrayEquals(METADATA, index.getMetadata());
+
+    MappedLookupStore.release(store1);
+    MappedLookupStore.release(store2);
+  }
+
+  @Test
+  void testPersistentStoreIsReused() throws Exception {
+    Path file = folder.resolve("persistent.idx");
+    MappedLookupStore store = MappedLookupStore.acquire("run3/lookup", file, true);
+    assertTrue(store.start(false, 1, metadata -> true));
+    store.put(new byte[] {1}, new byte[] {2});
+    store.finish(METADATA);
+    MappedLookupStore.release(store);
+    assertTrue(Files.exists(file));
+
+    // A later run opens the file instead of building it again
+    MappedLookupStore later = MappedLookupStore.acquire("run4/lookup", file, true);
+    assertFalse(later.start(false, 1, metadata -> true));
+    assertArrayEquals(new byte[] {2}, later.await(() -> false).get(new byte[] {1}));
+    MappedLookupStore.release(later);
+
+    // When the lookup fields changed, the file is built again
+    MappedLookupStore changed = MappedLookupStore.acquire("run5/lookup", file, true);
+    assertTrue(changed.start(false, 1, metadata -> false));
+    changed.finish(METADATA);
+    assertNull(changed.await(() -> false).get(new byte[] {1}));
+    MappedLookupStore.release(changed);
+    assertTrue(Files.exists(file));
+  }
+}
@@ -24,6 +24,9 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hop.core.Const;
@@ -39,12 +42,12 @@ import org.apache.hop.metadata.serializer.multi.MultiMetadataProvider;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.engine.IEngineComponent;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
-import org.apache.hop.pipeline.engine.PipelineEngineFactory;
-import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
 import org.apache.hop.pipeline.transform.RowAdapter;
 import org.apache.hop.rest.Hop;
 import org.apache.hop.rest.v1.resources.execute.SyncRequest;
+import org.apache.hop.www.service.PipelineMetaCache;
 import org.apache.hop.www.service.WebService;
+import org.apache.hop.www.service.WebServicePipelinePool;
 
 /** The Synchronous and Asynchronous web services to execute a pipeline or a workflow. */
 @Path("/execute")
@@ -62,6 +65,11 @@ public class ExecutionResource extends BaseResource {
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
   public Response executeSynchronously(SyncRequest request) {
+    // Until the pipeline metadata is handed back to the cache, a failure needs to clean up
+    //
+    IPipelineEngine<PipelineMeta> pipeline = null;
+    boolean started = false;
+    boolean handedBack = false;
     try {
       if (StringUtils.isEmpty(request.getService())) {
         throw new HopException(
@@ -114,22 +122,50 @@ public class ExecutionResource extends BaseResource {
           new SimpleLoggingObject("/service/sync/", LoggingObjectType.HOP_SERVER, null);
       servletLoggingObject.setContainerObjectId(serverObjectId);
 
-      // Load and start the pipeline
+      // Get a prepared pipeline from the pool or load and prepare one.
       // Output the data to the response output stream...
       //
-      PipelineMeta pipelineMeta = new PipelineMeta(filename, metadataProvider, variables);
-      IPipelineEngine<PipelineMeta> pipeline;
-      if (StringUtils.isEmpty(runConfigurationName)) {
-        pipeline = new LocalPipelineEngine(pipelineMeta, variables, servletLoggingObject);
+      int poolSize = Const.toInt(variables.resolve(service.getPoolSize()), 0);
+      final String pipelineRunConfigurationName = runConfigurationName;
+      String poolKey =
+          WebServicePipelinePool.getPoolKey(service.getName(), filename, runConfigurationName);
+      boolean pooled =
+          poolSize > 0
+              && WebServicePipelinePool.getInstance()
+                  .isPoolable(service.getName(), poolKey, filename, metadataProvider, variables);
+      if (pooled) {
+        pipeline =
+            WebServicePipelinePool.getInstance()
+                .take(
+                    service.getName(),
+                    poolKey,
+                    poolSize,
+                    () ->
+                        WebServicePipelinePool.createPipeline(
+                            filename,
+                            pipelineRunConfigurationName,
+                            metadataProvider,
+                            variables,
+                            new SimpleLoggingObject(
+                                "/service/sync/", LoggingObjectType.HOP_SERVER, null),
+                            true));
       } else {
         pipeline =
-            PipelineEngineFactory.createPipelineEngine(
-                variables, runConfigurationName, metadataProvider, pipelineMeta);
+            WebServicePipelinePool.createPipeline(
+                filename,
+                runConfigurationName,
+                metadataProvider,
+                variables,
+                servletLoggingObject,
+                false);
       }
+      PipelineMeta pipelineMeta = pipeline.getPipelineMeta();
       pipeline.setContainerId(serverObjectId);
 
+      List<String> requestVariables = new ArrayList<>();
       if (StringUtils.isNotEmpty(bodyContentVariable)) {
         pipeline.setVariable(bodyContentVariable, Const.NVL(bodyContent, ""));
+        requestVariables.add(bodyContentVariable);
       }
 
       // Set all the other parameters as variables/parameters...
@@ -146,11 +182,19 @@ public class ExecutionResource extends BaseResource {
         } else {
           pipeline.setParameterValue(requestParameter, Const.NVL(requestParameterValue, ""));
         }
+        requestVariables.add(requestParameter);
       }
       pipeline.activateParameters(pipeline);
 
-      // Allocate the threads...
-      pipeline.prepareExecution();
+      if (pooled) {
+        // The transforms of a prepared pipeline already copied the variables
+        //
+        requestVariables.addAll(Arrays.asList(pipelineParameters));
+        WebServicePipelinePool.passVariables(pipeline, requestVariables);
+      } else {
+        // Allocate the threads...
+        pipeline.prepareExecution();
+      }
 
       // Add the row listener to the transform/field...
       //
@@ -174,9 +218,15 @@ public class ExecutionResource extends BaseResource {
             }
           });
 
+      started = true;
       pipeline.startThreads();
       pipeline.waitUntilFinished();
 
+      // The pipeline metadata can be used again by the next call
+      //
+      handedBack = true;
+      PipelineMetaCache.getInstance().release(pipelineMeta);
+
       // For now just give back the request as JSON
       //
       return Response.ok(output.toString()).type(contentType).encoding(Const.UTF_8).build();
@@ -185,6 +235,10 @@ public class ExecutionResource extends BaseResource {
           "Unexpected error executing synchronous web service (pipeline) with name "
               + request.getService();
       return getServerError(errorMessage, e);
+    } finally {
+      if (pipeline != null && !handedBack) {
+        WebServicePipelinePool.abandon(pipeline, started);
+      }
     }
   }
 }
@@ -34,6 +34,7 @@ import org.apache.hop.core.database.DatabasePluginType;
 import org.apache.hop.core.database.DatabaseTestResults;
 import org.apache.hop.core.database.DriverDownload;
 import org.apache.hop.core.database.IDatabase;
+import org.apache.hop.core.database.pool.DatabaseConnectionPool;
 import org.apache.hop.core.gui.plugin.GuiPlugin;
 import org.apache.hop.core.plugins.IPlugin;
 import org.apache.hop.core.plugins.PluginRegistry;
@@ -122,6 +123,14 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
   private Label wlSshTunnelPrivateKeyFile;
   private Label wlSshTunnelPassphrase;
 
+  // Connection pool tab widgets
+  private Button wUsingConnectionPool;
+  private TextVar wMaximumPoolSize;
+  private TextVar wPoolMaxWait;
+  private TextVar wPoolIdleTimeout;
+  private TextVar wPoolValidationTimeout;
+  private TextVar wPoolLeakDetectionThreshold;
+
   private PropsUi props;
   private int middle;
   private int margin;
@@ -229,6 +238,7 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     addAdvancedTab();
     addOptionsTab();
     addSshTunnelTab();
+    addPoolingTab();
 
     // Select the general tab
     //
@@ -282,6 +292,13 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     wSshTunnelUsePrivateKey.addListener(SWT.Selection, event -> enableSshTunnelFields());
     wSshTunnelPrivateKeyFile.addListener(SWT.Modify, modifyListener);
     wSshTunnelPassphrase.addListener(SWT.Modify, modifyListener);
+    wUsingConnectionPool.addListener(SWT.Selection, modifyListener);
+    wUsingConnectionPool.addListener(SWT.Selection, event -> enablePoolingFields());
+    wMaximumPoolSize.addListener(SWT.Modify, modifyListener);
+    wPoolMaxWait.addListener(SWT.Modify, modifyListener);
+    wPoolIdleTimeout.addListener(SWT.Modify, modifyListener);
+    wPoolValidationTimeout.addListener(SWT.Modify, modifyListener);
+    wPoolLeakDetectionThreshold.addListener(SWT.Modify, modifyListener);
   }
 
   private void addGeneralTab() {
@@ -1012,6 +1029,97 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     wSshTunnelTab.setControl(wSshTunnelComp);
   }
 
+  private void addPoolingTab() {
+
+    CTabItem wPoolingTab = new CTabItem(wTabFolder, SWT.NONE);
+    wPoolingTab.setFont(GuiResource.getInstance().getFontDefault());
+    wPoolingTab.setText(
+        "  " + BaseMessages.getString(PKG, "DatabaseDialog.PoolingTab.title") + "  ");
+
+    Composite wPoolingComp = new Composite(wTabFolder, SWT.NONE);
+    PropsUi.setLook(wPoolingComp);
+
+    FormLayout poolingLayout = new FormLayout();
+    poolingLayout.marginWidth = PropsUi.getFormMargin() * 2;
+    poolingLayout.marginHeight = PropsUi.getFormMargin() * 2;
+    wPoolingComp.setLayout(poolingLayout);
+
+    // Use a connection pool?
+    Label wlUsingConnectionPool = new Label(wPoolingComp, SWT.RIGHT);
+    PropsUi.setLook(wlUsingConnectionPool);
+    wlUsingConnectionPool.setText(
+        BaseMessages.getString(PKG, "DatabaseDialog.label.UseConnectionPool"));
+    FormData fdlUsingConnectionPool = new FormData();
+    fdlUsingConnectionPool.top = new FormAttachment(0, 0);
+    fdlUsingConnectionPool.left = new FormAttachment(0, 0);
+    fdlUsingConnectionPool.right = new FormAttachment(middle, 0);
+    wlUsingConnectionPool.setLayoutData(fdlUsingConnectionPool);
+    wUsingConnectionPool = new Button(wPoolingComp, SWT.CHECK | SWT.LEFT);
+    PropsUi.setLook(wUsingConnectionPool);
+    wUsingConnectionPool.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseDialog.tooltip.UseConnectionPool"));
+    FormData fdUsingConnectionPool = new FormData();
+    fdUsingConnectionPool.top = new FormAttachment(wlUsingConnectionPool, 0, SWT.CENTER);
+    fdUsingConnectionPool.left = new FormAttachment(middle, margin);
+    fdUsingConnectionPool.right = new FormAttachment(100, 0);
+    wUsingConnectionPool.setLayoutData(fdUsingConnectionPool);
+
+    wMaximumPoolSize =
+        addPoolingLine(wPoolingComp, wUsingConnectionPool, "DatabaseDialog.label.MaximumPoolSize");
+    wPoolMaxWait =
+        addPoolingLine(wPoolingComp, wMaximumPoolSize, "DatabaseDialog.label.PoolMaxWait");
+    wPoolIdleTimeout =
+        addPoolingLine(wPoolingComp, wPoolMaxWait, "DatabaseDialog.label.PoolIdleTimeout");
+    wPoolValidationTimeout =
+        addPoolingLine(
+            wPoolingComp, wPoolIdleTimeout, "DatabaseDialog.label.PoolValidationTimeout");
+    wPoolLeakDetectionThreshold =
+        addPoolingLine(
+            wPoolingComp,
+            wPoolValidationTimeout,
+            "DatabaseDialog.label.PoolLeakDetectionThreshold");
+
+    FormData fdPoolingComp = new FormData();
+    fdPoolingComp.left = new FormAttachment(0, 0);
+    fdPoolingComp.top = new FormAttachment(0, 0);
+    fdPoolingComp.right = new FormAttachment(100, 0);
+    fdPoolingComp.bottom = new FormAttachment(100, 0);
+    wPoolingComp.setLayoutData(fdPoolingComp);
+
+    wPoolingComp.layout();
+    wPoolingTab.setControl(wPoolingComp);
+  }
+
+  private TextVar addPoolingLine(Composite wPoolingComp, Control lastControl, String labelKey) {
+    Label wlPoolingLine = new Label(wPoolingComp, SWT.RIGHT);
+    PropsUi.setLook(wlPoolingLine);
+    wlPoolingLine.setText(BaseMessages.getString(PKG, labelKey));
+    FormData fdlPoolingLine = new FormData();
+    fdlPoolingLine.top = new FormAttachment(lastControl, margin);
+    fdlPoolingLine.left = new FormAttachment(0, 0);
+    fdlPoolingLine.right = new FormAttachment(middle, 0);
+    wlPoolingLine.setLayoutData(fdlPoolingLine);
+    TextVar wPoolingLine =
+        new TextVar(manager.getVariables(), wPoolingComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wPoolingLine);
+    FormData fdPoolingLine = new FormData();
+    fdPoolingLine.top = new FormAttachment(wlPoolingLine, 0, SWT.CENTER);
+    fdPoolingLine.left = new FormAttachment(middle, margin);
+    fdPoolingLine.right = new FormAttachment(100, 0);
+    wPoolingLine.setLayoutData(fdPoolingLine);
+    return wPoolingLine;
+  }
+
+  private void enablePoolingFields() {
+    boolean enabled = wUsingConnectionPool.getSelection();
+
+    wMaximumPoolSize.setEnabled(enabled);
+    wPoolMaxWait.setEnabled(enabled);
+    wPoolIdleTimeout.setEnabled(enabled);
+    wPoolValidationTimeout.setEnabled(enabled);
+    wPoolLeakDetectionThreshold.setEnabled(enabled);
+  }
+
   private void enableSshTunnelFields() {
     boolean enabled = wSshTunnelEnabled.getSelection();
     boolean usePrivateKey = wSshTunnelUsePrivateKey.getSelection();
@@ -1141,9 +1249,33 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     wSshTunnelPrivateKeyFile.setText(Const.NVL(databaseMeta.getSshTunnelPrivateKeyFile(), ""));
     wSshTunnelPassphrase.setText(Const.NVL(databaseMeta.getSshTunnelPassphrase(), ""));
 
+    // Connection pool fields
+    wUsingConnectionPool.setSelection(databaseMeta.isUsingConnectionPool());
+    wMaximumPoolSize.setText(
+        Const.NVL(
+            databaseMeta.getMaximumPoolSize(),
+            Integer.toString(DatabaseConnectionPool.DEFAULT_MAXIMUM_SIZE)));
+    wPoolMaxWait.setText(
+        Const.NVL(
+            databaseMeta.getPoolMaxWait(),
+            Integer.toString(DatabaseConnectionPool.DEFAULT_MAX_WAIT_SECONDS)));
+    wPoolIdleTimeout.setText(
+        Const.NVL(
+            databaseMeta.getPoolIdleTimeout(),
+            Integer.toString(DatabaseConnectionPool.DEFAULT_IDLE_TIMEOUT_SECONDS)));
+    wPoolValidationTimeout.setText(
+        Const.NVL(
+            databaseMeta.getPoolValidationTimeout(),
+            Integer.toString(DatabaseConnectionPool.DEFAULT_VALIDATION_TIMEOUT_SECONDS)));
+    wPoolLeakDetectionThreshold.setText(
+        Const.NVL(
+            databaseMeta.getPoolLeakDetectionThreshold(),
+            Integer.toString(DatabaseConnectionPool.DEFAULT_LEAK_DETECTION_THRESHOLD_SECONDS)));
+
     updateDriverInfo();
     enableFields();
     enableSshTunnelFields();
+    enablePoolingFields();
   }
 
   @Override
@@ -1202,6 +1334,14 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     meta.setSshTunnelUsePrivateKey(wSshTunnelUsePrivateKey.getSelection());
     meta.setSshTunnelPrivateKeyFile(wSshTunnelPrivateKeyFile.getText());
     meta.setSshTunnelPassphrase(wSshTunnelPassphrase.getText());
+
+    // Connection pool fields
+    meta.setUsingConnectionPool(wUsingConnectionPool.getSelection());
+    meta.setMaximumPoolSize(wMaximumPoolSize.getText());
+    meta.setPoolMaxWait(wPoolMaxWait.getText());
+    meta.setPoolIdleTimeout(wPoolIdleTimeout.getText());
+    meta.setPoolValidationTimeout(wPoolValidationTimeout.getText());
+    meta.setPoolLeakDetectionThreshold(wPoolLeakDetectionThreshold.getText());
   }
 
   /** Updates the displayed driver information, including the driver name and version. */
@@ -71,6 +71,7 @@ public class WebServiceEditor extends MetadataEditor<WebService> {
   private Button wListStatus;
   private TextVar wBodyContentVariable;
   private TextVar wHeaderContentVariable;
+  private TextVar wPoolSize;
 
   public WebServiceEditor(HopGui hopGui, MetadataManager<WebService> manager, WebService metadata) {
     super(hopGui, manager, metadata);
@@ -346,6 +347,27 @@ public class WebServiceEditor extends MetadataEditor<WebService> {
     wHeaderContentVariable.setLayoutData(fdHeaderContentVariable);
     lastControl = wlHeaderContentVariable;
 
+    // The number of prepared pipelines
+    //
+    Label wlPoolSize = new Label(parent, SWT.RIGHT);
+    PropsUi.setLook(wlPoolSize);
+    wlPoolSize.setText(BaseMessages.getString(PKG, "WebServiceEditor.PoolSize.Label"));
+    wlPoolSize.setToolTipText(BaseMessages.getString(PKG, "WebServiceEditor.PoolSize.Tooltip"));
+    FormData fdlPoolSize = new FormData();
+    fdlPoolSize.left = new FormAttachment(0, 0);
+    fdlPoolSize.right = new FormAttachment(middle, -margin);
+    fdlPoolSize.top = new FormAttachment(lastControl, 2 * margin);
+    wlPoolSize.setLayoutData(fdlPoolSize);
+    wPoolSize = new TextVar(manager.getVariables(), parent, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wPoolSize.setToolTipText(BaseMessages.getString(PKG, "WebServiceEditor.PoolSize.Tooltip"));
+    PropsUi.setLook(wPoolSize);
+    FormData fdPoolSize = new FormData();
+    fdPoolSize.left = new FormAttachment(middle, 0);
+    fdPoolSize.right = new FormAttachment(100, 0);
+    fdPoolSize.top = new FormAttachment(wlPoolSize, 0, SWT.CENTER);
+    wPoolSize.setLayoutData(fdPoolSize);
+    lastControl = wlPoolSize;
+
     setWidgetsContent();
 
     // Add listener to detect change after loading data
@@ -360,6 +382,7 @@ public class WebServiceEditor extends MetadataEditor<WebService> {
     wListStatus.addListener(SWT.Selection, modifyListener);
     wBodyContentVariable.addListener(SWT.Modify, modifyListener);
     wHeaderContentVariable.addListener(SWT.Modify, modifyListener);
+    wPoolSize.addListener(SWT.Modify, modifyListener);
     wRunConfiguration.addListener(SWT.Selection, modifyListener);
   }
 
@@ -464,6 +487,7 @@ public class WebServiceEditor extends MetadataEditor<WebService> {
     wListStatus.setSelection(ws.isListingStatus());
     wBodyContentVariable.setText(Const.NVL(ws.getBodyContentVariable(), ""));
     wHeaderContentVariable.setText(Const.NVL(ws.getHeaderContentVariable(), ""));
+    wPoolSize.setText(Const.NVL(ws.getPoolSize(), ""));
     try {
       wRunConfiguration.fillItems();
       wRunConfiguration.setText(Const.NVL(ws.getRunConfigurationName(), ""));
@@ -484,6 +508,7 @@ public class WebServiceEditor extends MetadataEditor<WebService> {
     ws.setListingStatus(wListStatus.getSelection());
     ws.setBodyContentVariable(wBodyContentVariable.getText());
     ws.setHeaderContentVariable(wHeaderContentVariable.getText());
+    ws.setPoolSize(wPoolSize.getText());
     ws.setRunConfigurationName(wRunConfiguration.getText());
   }
 